@@ -19,111 +19,52 @@
 package org.jclouds.atmosonline.saas.blobstore.strategy;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.jclouds.concurrent.ConcurrentUtils.awaitCompletion;
+import static com.google.common.util.concurrent.Futures.compose;
 
-import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.TimeUnit;
-
-import javax.annotation.Resource;
-import javax.inject.Named;
 import javax.inject.Singleton;
 
-import org.jclouds.Constants;
 import org.jclouds.atmosonline.saas.AtmosStorageAsyncClient;
 import org.jclouds.atmosonline.saas.domain.AtmosObject;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.functions.ObjectMD5;
-import org.jclouds.blobstore.internal.BlobRuntimeException;
-import org.jclouds.blobstore.options.ListContainerOptions;
-import org.jclouds.blobstore.strategy.ContainsValueInListStrategy;
 import org.jclouds.blobstore.strategy.ListBlobsInContainer;
-import org.jclouds.logging.Logger;
+import org.jclouds.blobstore.strategy.internal.ContentMD5Index;
+import org.jclouds.blobstore.strategy.internal.FindMD5InListOrLookupConcurrently;
 
-import com.google.common.base.Throwables;
-import com.google.common.collect.Maps;
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 
 /**
  * Searches Content-MD5 tag for the value associated with the value
+ * <p/>
+ * Atmos listings carry no metadata, so each blob not yet in the {@link ContentMD5Index} is looked
+ * up with {@code headFile}.
  * 
  * @author Adrian Cole
  */
 @Singleton
-public class FindMD5InUserMetadata implements ContainsValueInListStrategy {
-   @Resource
-   protected Logger logger = Logger.NULL;
-   protected final ObjectMD5 objectMD5;
-   protected final ListBlobsInContainer getAllBlobMetadata;
+public class FindMD5InUserMetadata extends FindMD5InListOrLookupConcurrently {
    private final AtmosStorageAsyncClient client;
-   private final ExecutorService userExecutor;
-   /**
-    * maximum duration of an blob Request
-    */
-   @Inject(optional = true)
-   @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
-   protected Long maxTime;
 
    @Inject
-   private FindMD5InUserMetadata(
-            @Named(Constants.PROPERTY_USER_THREADS) ExecutorService userExecutor,
-            ObjectMD5 objectMD5, ListBlobsInContainer getAllBlobMetadata,
-            AtmosStorageAsyncClient client) {
-      this.objectMD5 = objectMD5;
-      this.getAllBlobMetadata = getAllBlobMetadata;
+   private FindMD5InUserMetadata(ObjectMD5 objectMD5, ListBlobsInContainer getAllBlobMetadata,
+            ContentMD5Index index, AtmosStorageAsyncClient client) {
+      super(objectMD5, getAllBlobMetadata, index);
       this.client = client;
-      this.userExecutor = userExecutor;
    }
 
-   public boolean execute(final String containerName, Object value, ListContainerOptions options) {
-      final byte[] toSearch = objectMD5.apply(value);
-      final BlockingQueue<Boolean> queue = new SynchronousQueue<Boolean>();
-      Map<String, ListenableFuture<?>> responses = Maps.newHashMap();
-      for (BlobMetadata md : getAllBlobMetadata.execute(containerName, options)) {
-         final ListenableFuture<AtmosObject> future = client.headFile(containerName + "/"
-                  + md.getName());
-         future.addListener(new Runnable() {
-            public void run() {
-               try {
-                  AtmosObject object = future.get();
-                  checkNotNull(object.getSystemMetadata(), object + " has no content metadata");
-                  if (object.getSystemMetadata().getContentMD5() != null) {
-                     if (Arrays.equals(toSearch, object.getSystemMetadata().getContentMD5())) {
-                        queue.put(true);
-                     }
-                  } else {
-                     logger.debug("object %s has no content md5", object.getSystemMetadata()
-                              .getObjectID());
+   @Override
+   protected ListenableFuture<byte[]> lookupMD5(String containerName, BlobMetadata md) {
+      return compose(client.headFile(containerName + "/" + md.getName()),
+               new Function<AtmosObject, byte[]>() {
+                  @Override
+                  public byte[] apply(AtmosObject from) {
+                     if (from == null)
+                        return null; // deleted since it was listed
+                     checkNotNull(from.getSystemMetadata(), from + " has no content metadata");
+                     return from.getSystemMetadata().getContentMD5();
                   }
-               } catch (InterruptedException e) {
-                  Throwables.propagate(e);
-               } catch (ExecutionException e) {
-                  Throwables.propagate(e);
-               }
-            }
-         }, userExecutor);
-         responses.put(md.getName(), future);
-      }
-      Map<String, Exception> exceptions = awaitCompletion(responses, userExecutor, maxTime, logger,
-               String.format("searching for md5 in container %s", containerName));
-      if (exceptions.size() > 0)
-         throw new BlobRuntimeException(String.format("searching for md5 in container %s: %s",
-                  containerName, exceptions));
-      try {
-         return queue.poll(1, TimeUnit.MICROSECONDS) != null;
-      } catch (InterruptedException e) {
-         Throwables.propagate(e);
-         return false;
-      } catch (Exception e) {
-         Throwables.propagateIfPossible(e, BlobRuntimeException.class);
-         throw new BlobRuntimeException(String.format(
-                  "Error searching for ETAG of value: [%s] in container:%s", value, containerName),
-                  e);
-      }
+               });
    }
 }
@@ -28,7 +28,6 @@ import org.jclouds.http.functions.ParseSax;
  */
 public class ErrorHandler extends ParseSax.HandlerWithResult<AtmosStorageError> {
 
-   private StringBuilder currentText = new StringBuilder();
    private int code;
    private String message;
 
@@ -39,14 +38,10 @@ public class ErrorHandler extends ParseSax.HandlerWithResult<AtmosStorageError>
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equals("Code")) {
-         this.code = Integer.parseInt(currentText.toString().trim());
+         this.code = textAsInt();
       } else if (qName.equals("Message")) {
-         this.message = currentText.toString().trim();
+         this.message = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
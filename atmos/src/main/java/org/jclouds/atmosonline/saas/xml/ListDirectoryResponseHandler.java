@@ -41,28 +41,22 @@ public class ListDirectoryResponseHandler extends
    private FileType currentType;
    private String currentName;
 
-   private StringBuilder currentText = new StringBuilder();
-
    public SortedSet<DirectoryEntry> getResult() {
       return entries;
    }
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("ObjectID")) {
-         currentObjectId = currentText.toString().trim();
+         currentObjectId = trimmedText();
       } else if (qName.equals("FileType")) {
-         currentType = FileType.fromValue(currentText.toString().trim());
+         currentType = FileType.fromValue(trimmedText());
       } else if (qName.equals("Filename")) {
-         currentName = currentText.toString().trim();
+         currentName = trimmedText();
          if (currentName.equals(""))
             currentName = null;
       } else if (qName.equals("DirectoryEntry")) {
          entries.add(new DirectoryEntry(currentObjectId, currentType, currentName));
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -45,6 +45,7 @@ public class EC2PropertiesBuilder extends PropertiesBuilder {
       properties.setProperty(PROPERTY_AWS_EXPIREINTERVAL, "60");
       // alestic, canonical, and rightscale
       properties.setProperty(PROPERTY_EC2_AMI_OWNERS, "063491364108,099720109477,411009282317");
+      properties.setProperty(PROPERTY_EC2_IMAGE_CACHE_SECONDS, "600");
       // auth fail sometimes happens in EC2, as the rc.local script that injects the
       // authorized key executes after ssh has started
       properties.setProperty("jclouds.ssh.max_retries", "6");
@@ -0,0 +1,186 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.ec2.compute;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.concurrent.ConcurrentUtils.allAsList;
+import static org.jclouds.concurrent.ConcurrentUtils.makeListenable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.aws.ec2.compute.config.EC2ComputeServiceContextModule.EC2GetNodeMetadataStrategy;
+import org.jclouds.aws.ec2.compute.config.EC2ComputeServiceContextModule.EC2ListNodesStrategy;
+import org.jclouds.aws.ec2.compute.config.EC2ComputeServiceContextModule.EC2RebootNodeStrategy;
+import org.jclouds.aws.ec2.compute.strategy.EC2DestroyNodeStrategy;
+import org.jclouds.aws.ec2.compute.strategy.EC2RunNodesAndAddToSetStrategy;
+import org.jclouds.compute.ComputeService;
+import org.jclouds.compute.RunNodesException;
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.util.BootstrapStatistics;
+import org.jclouds.compute.util.ComputeUtils;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.logging.Logger;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Variant of the EC2 {@link ComputeService} operations that return immediately with a
+ * {@link ListenableFuture}. Requests are issued through {@code EC2AsyncClient}, so callers
+ * operating on many regions or nodes don't need a thread for each one.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class EC2AsyncComputeService {
+   @Resource
+   @Named(ComputeServiceConstants.COMPUTE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   private final EC2ListNodesStrategy listNodes;
+   private final EC2GetNodeMetadataStrategy getNode;
+   private final EC2RebootNodeStrategy rebootNode;
+   private final EC2DestroyNodeStrategy destroyNode;
+   private final EC2RunNodesAndAddToSetStrategy runNodes;
+   private final ComputeUtils utils;
+   private final ExecutorService executor;
+
+   @Inject
+   protected EC2AsyncComputeService(EC2ListNodesStrategy listNodes,
+            EC2GetNodeMetadataStrategy getNode, EC2RebootNodeStrategy rebootNode,
+            EC2DestroyNodeStrategy destroyNode, EC2RunNodesAndAddToSetStrategy runNodes,
+            ComputeUtils utils, @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
+      this.listNodes = checkNotNull(listNodes, "listNodes");
+      this.getNode = checkNotNull(getNode, "getNode");
+      this.rebootNode = checkNotNull(rebootNode, "rebootNode");
+      this.destroyNode = checkNotNull(destroyNode, "destroyNode");
+      this.runNodes = checkNotNull(runNodes, "runNodes");
+      this.utils = checkNotNull(utils, "utils");
+      this.executor = checkNotNull(executor, "executor");
+   }
+
+   /**
+    * @see ComputeService#listNodesDetailsMatching
+    */
+   public ListenableFuture<Set<NodeMetadata>> listNodesDetailsMatching(
+            Predicate<ComputeMetadata> filter) {
+      return listNodes.listDetailsOnNodesMatchingAsync(checkNotNull(filter, "filter"));
+   }
+
+   /**
+    * @see ComputeService#getNodeMetadata
+    */
+   public ListenableFuture<NodeMetadata> getNodeMetadata(String id) {
+      return getNode.executeAsync(checkNotNull(id, "id"));
+   }
+
+   /**
+    * @see ComputeService#rebootNode
+    */
+   public ListenableFuture<NodeMetadata> rebootNode(String id) {
+      return rebootNode.executeAsync(checkNotNull(id, "id"));
+   }
+
+   /**
+    * @see ComputeService#destroyNode
+    */
+   public ListenableFuture<NodeMetadata> destroyNode(String id) {
+      return destroyNode.executeAsync(checkNotNull(id, "id"));
+   }
+
+   /**
+    * Like {@link ComputeService#runNodesWithTag}, except the returned future fails with a
+    * {@link RunNodesException} if any node could not be started or bootstrapped.
+    */
+   public ListenableFuture<Set<NodeMetadata>> runNodesWithTag(final String tag,
+            final int count, final Template template) {
+      checkArgument(tag.indexOf('-') == -1, "tag cannot contain hyphens");
+      checkNotNull(template.getLocation(), "location");
+      final Set<NodeMetadata> nodes = Sets.newSetFromMap(new MapMaker()
+               .<NodeMetadata, Boolean> makeMap());
+      final Map<NodeMetadata, Exception> badNodes = new MapMaker().makeMap();
+      // collected per call, as other calls may be bootstrapping nodes at the same time
+      final BootstrapStatistics statistics = new BootstrapStatistics(utils
+               .getBootstrapStatistics());
+      final SettableListenableFuture<Set<NodeMetadata>> result = new SettableListenableFuture<Set<NodeMetadata>>();
+
+      // launching is a single RunInstances call; the per node work that follows is already
+      // returned as futures by the strategy
+      final ListenableFuture<Map<?, ListenableFuture<Void>>> launched = makeListenable(executor
+               .submit(new Callable<Map<?, ListenableFuture<Void>>>() {
+                  @Override
+                  public Map<?, ListenableFuture<Void>> call() throws Exception {
+                     return runNodes.execute(tag, count, template, nodes, badNodes,
+                              statistics);
+                  }
+               }), executor);
+      launched.addListener(new Runnable() {
+         @Override
+         public void run() {
+            final Map<?, ListenableFuture<Void>> responses;
+            try {
+               responses = launched.get();
+            } catch (ExecutionException e) {
+               result.setException(e.getCause());
+               return;
+            } catch (Exception e) {
+               result.setException(e);
+               return;
+            }
+            final ListenableFuture<List<Void>> all = allAsList(responses.values(), executor);
+            all.addListener(new Runnable() {
+               @Override
+               public void run() {
+                  Map<Object, Exception> executionExceptions = new MapMaker().makeMap();
+                  try {
+                     all.get();
+                  } catch (ExecutionException e) {
+                     executionExceptions.put(tag, (Exception) e.getCause());
+                  } catch (Exception e) {
+                     executionExceptions.put(tag, e);
+                  }
+                  if (executionExceptions.size() > 0 || badNodes.size() > 0)
+                     result.setException(new RunNodesException(tag, count, template, nodes,
+                              executionExceptions, badNodes, statistics));
+                  else
+                     result.set(nodes);
+               }
+            }, executor);
+         }
+      }, executor);
+      return result;
+   }
+}
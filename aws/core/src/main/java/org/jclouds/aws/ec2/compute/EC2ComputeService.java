@@ -63,6 +63,7 @@ public class EC2ComputeService extends BaseComputeService {
    private final EC2Client ec2Client;
    private final Map<RegionAndName, KeyPair> credentialsMap;
    private final Map<RegionAndName, String> securityGroupMap;
+   private final EC2AsyncComputeService asyncComputeService;
 
    @Inject
    protected EC2ComputeService(ComputeServiceContext context,
@@ -81,7 +82,8 @@ public class EC2ComputeService extends BaseComputeService {
          ComputeUtils utils,
          @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor,
          EC2Client ec2Client, Map<RegionAndName, KeyPair> credentialsMap,
-         Map<RegionAndName, String> securityGroupMap) {
+         Map<RegionAndName, String> securityGroupMap,
+         EC2AsyncComputeService asyncComputeService) {
       super(context, images, sizes, locations, listNodesStrategy,
             getNodeMetadataStrategy, runNodesAndAddToSetStrategy,
             rebootNodeStrategy, destroyNodeStrategy, templateBuilderProvider,
@@ -90,6 +92,15 @@ public class EC2ComputeService extends BaseComputeService {
       this.ec2Client = ec2Client;
       this.credentialsMap = credentialsMap;
       this.securityGroupMap = securityGroupMap;
+      this.asyncComputeService = asyncComputeService;
+   }
+
+   /**
+    * @return the same operations as this service, returning futures instead of
+    *         blocking the caller
+    */
+   public EC2AsyncComputeService getAsyncComputeService() {
+      return asyncComputeService;
    }
 
    private void deleteSecurityGroup(String region, String tag) {
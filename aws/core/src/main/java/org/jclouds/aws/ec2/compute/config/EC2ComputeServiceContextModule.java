@@ -20,14 +20,17 @@ package org.jclouds.aws.ec2.compute.config;
 
 import static org.jclouds.aws.ec2.options.DescribeImagesOptions.Builder.ownedBy;
 import static org.jclouds.aws.ec2.reference.EC2Constants.PROPERTY_EC2_AMI_OWNERS;
-import static org.jclouds.aws.ec2.util.EC2Utils.getAllRunningInstancesInRegion;
 import static org.jclouds.aws.ec2.util.EC2Utils.parseHandle;
 import static org.jclouds.compute.domain.OsFamily.CENTOS;
 import static org.jclouds.compute.domain.OsFamily.UBUNTU;
+import static com.google.common.util.concurrent.Futures.chain;
+import static com.google.common.util.concurrent.Futures.compose;
+import static org.jclouds.concurrent.ConcurrentUtils.allAsList;
 import static org.jclouds.concurrent.ConcurrentUtils.awaitCompletion;
 
 import java.net.URI;
 import java.security.SecureRandom;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -63,12 +66,13 @@ import org.jclouds.aws.ec2.compute.strategy.EC2LoadBalanceNodesStrategy;
 import org.jclouds.aws.ec2.compute.strategy.EC2RunNodesAndAddToSetStrategy;
 import org.jclouds.aws.ec2.config.EC2ContextModule;
 import org.jclouds.aws.ec2.domain.KeyPair;
+import org.jclouds.aws.ec2.domain.Reservation;
 import org.jclouds.aws.ec2.domain.RunningInstance;
 import org.jclouds.aws.ec2.domain.Image.ImageType;
 import org.jclouds.aws.ec2.functions.RunningInstanceToStorageMappingUnix;
 import org.jclouds.aws.ec2.options.DescribeImagesOptions;
 import org.jclouds.aws.ec2.predicates.InstancePresent;
-import org.jclouds.aws.ec2.services.InstanceClient;
+import org.jclouds.aws.ec2.services.InstanceAsyncClient;
 import org.jclouds.compute.ComputeService;
 import org.jclouds.compute.ComputeServiceContext;
 import org.jclouds.compute.config.ComputeServiceTimeoutsModule;
@@ -100,8 +104,10 @@ import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.base.Splitter;
 import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -184,22 +190,19 @@ public class EC2ComputeServiceContextModule extends EC2ContextModule {
                         "^ubuntu-images.*");
    }
 
-   // TODO make this more efficient for listNodes(); currently
-   // RunningInstanceToNodeMetadata is slow
-   // due to image parsing; consider using MapMaker. computing map
    @Singleton
    public static class EC2ListNodesStrategy implements ListNodesStrategy {
       @Resource
       @Named(ComputeServiceConstants.COMPUTE_LOGGER)
       protected Logger logger = Logger.NULL;
 
-      private final EC2Client client;
+      private final EC2AsyncClient client;
       private final Map<String, URI> regionMap;
       private final RunningInstanceToNodeMetadata runningInstanceToNodeMetadata;
       private final ExecutorService executor;
 
       @Inject
-      protected EC2ListNodesStrategy(EC2Client client,
+      protected EC2ListNodesStrategy(EC2AsyncClient client,
             @EC2 Map<String, URI> regionMap,
             RunningInstanceToNodeMetadata runningInstanceToNodeMetadata,
             @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
@@ -217,30 +220,46 @@ public class EC2ComputeServiceContextModule extends EC2ContextModule {
       @Override
       public Iterable<? extends NodeMetadata> listDetailsOnNodesMatching(
             Predicate<ComputeMetadata> filter) {
-         final Set<NodeMetadata> nodes = Sets.newHashSet();
-
-         Map<String, ListenableFuture<?>> parallelResponses = Maps.newHashMap();
+         try {
+            return listDetailsOnNodesMatchingAsync(filter).get();
+         } catch (ExecutionException e) {
+            throw new RuntimeException(String.format(
+                  "error parsing nodes in regions: %s", regionMap.keySet()), e
+                  .getCause());
+         } catch (InterruptedException e) {
+            throw Throwables.propagate(e);
+         }
+      }
 
-         for (final String region : regionMap.keySet()) {
-            parallelResponses.put(region, ConcurrentUtils.makeListenable(
-                  executor.submit(new Callable<Void>() {
+      /**
+       * Issues a describe request to every region at once. Instances are
+       * converted as each region responds, so no thread waits on the network.
+       */
+      public ListenableFuture<Set<NodeMetadata>> listDetailsOnNodesMatchingAsync(
+            final Predicate<ComputeMetadata> filter) {
+         final Set<NodeMetadata> nodes = Sets.newSetFromMap(new MapMaker()
+               .<NodeMetadata, Boolean> makeMap());
+         List<ListenableFuture<Void>> regions = Lists.newArrayList();
+         for (String region : regionMap.keySet()) {
+            regions.add(compose(client.getInstanceServices()
+                  .describeInstancesInRegion(region),
+                  new Function<Set<Reservation>, Void>() {
                      @Override
-                     public Void call() throws Exception {
-                        Iterables.addAll(nodes, Iterables.transform(Iterables
-                              .concat(client.getInstanceServices()
-                                    .describeInstancesInRegion(region)),
-                              runningInstanceToNodeMetadata));
+                     public Void apply(Set<Reservation> from) {
+                        Iterables.addAll(nodes, Iterables.filter(
+                              runningInstanceToNodeMetadata.convertAll(Iterables
+                                    .concat(from)), filter));
                         return null;
                      }
-                  }), executor));
+                  }, executor));
          }
-         Map<String, Exception> exceptions = awaitCompletion(parallelResponses,
-               executor, null, logger, "nodes");
-
-         if (exceptions.size() > 0)
-            throw new RuntimeException(String.format(
-                  "error parsing nodes in regions: %s", exceptions));
-         return Iterables.filter(nodes, filter);
+         return compose(allAsList(regions, executor),
+               new Function<List<Void>, Set<NodeMetadata>>() {
+                  @Override
+                  public Set<NodeMetadata> apply(List<Void> from) {
+                     return nodes;
+                  }
+               }, executor);
       }
    }
 
@@ -248,52 +267,91 @@ public class EC2ComputeServiceContextModule extends EC2ContextModule {
    public static class EC2GetNodeMetadataStrategy implements
          GetNodeMetadataStrategy {
 
-      private final EC2Client client;
+      private final EC2AsyncClient client;
       private final RunningInstanceToNodeMetadata runningInstanceToNodeMetadata;
+      private final ExecutorService executor;
 
       @Inject
-      protected EC2GetNodeMetadataStrategy(EC2Client client,
-            RunningInstanceToNodeMetadata runningInstanceToNodeMetadata) {
+      protected EC2GetNodeMetadataStrategy(EC2AsyncClient client,
+            RunningInstanceToNodeMetadata runningInstanceToNodeMetadata,
+            @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
          this.client = client;
          this.runningInstanceToNodeMetadata = runningInstanceToNodeMetadata;
+         this.executor = executor;
       }
 
       @Override
       public NodeMetadata execute(String id) {
+         try {
+            return executeAsync(id).get();
+         } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+         } catch (InterruptedException e) {
+            throw Throwables.propagate(e);
+         }
+      }
+
+      /**
+       * @return a future holding the node, or null if the instance doesn't
+       *         exist
+       */
+      public ListenableFuture<NodeMetadata> executeAsync(String id) {
          String[] parts = parseHandle(id);
          String region = parts[0];
          String instanceId = parts[1];
-         try {
-            RunningInstance runningInstance = Iterables
-                  .getOnlyElement(getAllRunningInstancesInRegion(client
-                        .getInstanceServices(), region, instanceId));
-            return runningInstanceToNodeMetadata.apply(runningInstance);
-         } catch (NoSuchElementException e) {
-            return null;
-         }
+         return compose(client.getInstanceServices().describeInstancesInRegion(
+               region, instanceId), new Function<Set<Reservation>, NodeMetadata>() {
+            @Override
+            public NodeMetadata apply(Set<Reservation> from) {
+               try {
+                  return runningInstanceToNodeMetadata.apply(Iterables
+                        .getOnlyElement(Iterables.concat(from)));
+               } catch (NoSuchElementException e) {
+                  return null;
+               }
+            }
+         }, executor);
       }
 
    }
 
    @Singleton
    public static class EC2RebootNodeStrategy implements RebootNodeStrategy {
-      private final InstanceClient client;
-      private final GetNodeMetadataStrategy getNode;
+      private final InstanceAsyncClient client;
+      private final EC2GetNodeMetadataStrategy getNode;
+      private final ExecutorService executor;
 
       @Inject
-      protected EC2RebootNodeStrategy(EC2Client client,
-            GetNodeMetadataStrategy getNode) {
+      protected EC2RebootNodeStrategy(EC2AsyncClient client,
+            EC2GetNodeMetadataStrategy getNode,
+            @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
          this.client = client.getInstanceServices();
          this.getNode = getNode;
+         this.executor = executor;
       }
 
       @Override
       public NodeMetadata execute(String id) {
+         try {
+            return executeAsync(id).get();
+         } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+         } catch (InterruptedException e) {
+            throw Throwables.propagate(e);
+         }
+      }
+
+      public ListenableFuture<NodeMetadata> executeAsync(final String id) {
          String[] parts = parseHandle(id);
          String region = parts[0];
          String instanceId = parts[1];
-         client.rebootInstancesInRegion(region, instanceId);
-         return getNode.execute(id);
+         return chain(client.rebootInstancesInRegion(region, instanceId),
+               new Function<Void, ListenableFuture<NodeMetadata>>() {
+                  @Override
+                  public ListenableFuture<NodeMetadata> apply(Void from) {
+                     return getNode.executeAsync(id);
+                  }
+               }, executor);
       }
 
    }
@@ -19,13 +19,18 @@
 package org.jclouds.aws.ec2.compute.functions;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.aws.ec2.options.DescribeImagesOptions.Builder.imageIds;
+import static org.jclouds.aws.ec2.reference.EC2Constants.PROPERTY_EC2_IMAGE_CACHE_SECONDS;
 import static org.jclouds.util.Utils.nullSafeSet;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -38,7 +43,6 @@ import org.jclouds.aws.ec2.compute.domain.RegionAndName;
 import org.jclouds.aws.ec2.domain.InstanceState;
 import org.jclouds.aws.ec2.domain.KeyPair;
 import org.jclouds.aws.ec2.domain.RunningInstance;
-import org.jclouds.aws.ec2.options.DescribeImagesOptions;
 import org.jclouds.compute.domain.Image;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.NodeState;
@@ -47,15 +51,32 @@ import org.jclouds.compute.strategy.PopulateDefaultLoginCredentialsForImageStrat
 import org.jclouds.domain.Credentials;
 import org.jclouds.domain.Location;
 import org.jclouds.logging.Logger;
+import org.jclouds.rest.ResourceNotFoundException;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 
 /**
+ * Converts instances into nodes.
+ * <p/>
+ * Conversion happens on every listing, so everything that doesn't change per instance is
+ * resolved once: locations are indexed by zone, and the login account and image of each AMI are
+ * cached for {@link org.jclouds.aws.ec2.reference.EC2Constants#PROPERTY_EC2_IMAGE_CACHE_SECONDS}
+ * , including AMIs that could not be found. Concurrent conversions of the same unknown AMI wait
+ * on a single describe call. {@link #convertAll} goes further, describing all AMIs unknown to a
+ * listing in one call per region.
+ * 
  * @author Adrian Cole
  */
 @Singleton
@@ -64,6 +85,17 @@ public class RunningInstanceToNodeMetadata implements Function<RunningInstance,
    @Resource
    protected Logger logger = Logger.NULL;
 
+   /**
+    * EC2 accepts many image ids per describe request, but very long query strings are rejected
+    */
+   @VisibleForTesting
+   static final int MAX_IMAGES_PER_DESCRIBE = 100;
+
+   /**
+    * cached in place of a login account for AMIs that don't exist or aren't visible to us
+    */
+   private static final String NO_LOGIN_ACCOUNT = "";
+
    @VisibleForTesting
    static class FindImageForInstance implements Predicate<Image> {
       private final Location location;
@@ -125,6 +157,10 @@ public class RunningInstanceToNodeMetadata implements Function<RunningInstance,
    private final Set<? extends Location> locations;
    private final Function<RunningInstance, Map<String, String>> instanceToStorageMapping;
    private final ConcurrentMap<RegionAndName, Image> imageMap;
+   private final ImageParser parser;
+   private final Map<String, Location> zoneToLocation;
+   private final ConcurrentMap<RegionAndName, String> loginAccounts;
+   private final Set<RegionAndName> imagesNotFound;
 
    @Inject
    RunningInstanceToNodeMetadata(
@@ -134,7 +170,8 @@ public class RunningInstanceToNodeMetadata implements Function<RunningInstance,
             Provider<Set<? extends Image>> images, // to facilitate on-demand refresh of image list
             ConcurrentMap<RegionAndName, Image> imageMap,
             Set<? extends Location> locations,
-            @Named("volumeMapping") Function<RunningInstance, Map<String, String>> instanceToStorageMapping) {
+            @Named("volumeMapping") Function<RunningInstance, Map<String, String>> instanceToStorageMapping,
+            ImageParser parser, @Named(PROPERTY_EC2_IMAGE_CACHE_SECONDS) long imageCacheSeconds) {
       this.client = checkNotNull(client, "client");
       this.credentialsMap = checkNotNull(credentialsMap, "credentialsMap");
       this.credentialProvider = checkNotNull(credentialProvider, "credentialProvider");
@@ -143,10 +180,45 @@ public class RunningInstanceToNodeMetadata implements Function<RunningInstance,
       this.instanceToStorageMapping = checkNotNull(instanceToStorageMapping,
                "instanceToStorageMapping");
       this.imageMap = checkNotNull(imageMap, "imageMap");
+      this.parser = checkNotNull(parser, "parser");
+      this.zoneToLocation = Maps.newHashMap();
+      for (Location location : locations)
+         if (!zoneToLocation.containsKey(location.getId()))
+            zoneToLocation.put(location.getId(), location);
+      this.loginAccounts = new MapMaker().expiration(imageCacheSeconds, TimeUnit.SECONDS)
+               .makeComputingMap(new Function<RegionAndName, String>() {
+                  @Override
+                  public String apply(RegionAndName key) {
+                     return describeLoginAccount(key);
+                  }
+               });
+      this.imagesNotFound = Sets.newSetFromMap(new MapMaker().expiration(imageCacheSeconds,
+               TimeUnit.SECONDS).<RegionAndName, Boolean> makeMap());
    }
 
    @Override
-   public NodeMetadata apply(final RunningInstance instance) {
+   public NodeMetadata apply(RunningInstance instance) {
+      return apply(instance, images.get());
+   }
+
+   /**
+    * Converts a listing in one pass. AMIs not yet known are described together, one request per
+    * region, before any instance is converted.
+    */
+   public List<NodeMetadata> convertAll(Iterable<? extends RunningInstance> instances) {
+      Set<? extends Image> allImages = images.get();
+      ListMultimap<String, Image> imagesById = ArrayListMultimap.create();
+      for (Image image : allImages)
+         imagesById.put(image.getProviderId(), image);
+      prefetchImages(instances, imagesById.keySet());
+      ImmutableList.Builder<NodeMetadata> nodes = ImmutableList.builder();
+      for (RunningInstance instance : instances)
+         nodes.add(apply(instance, imagesById.get(instance.getImageId())));
+      return nodes.build();
+   }
+
+   private NodeMetadata apply(final RunningInstance instance,
+            Iterable<? extends Image> candidateImages) {
       String id = checkNotNull(instance, "instance").getId();
 
       String name = null; // user doesn't determine a node name;
@@ -167,7 +239,7 @@ public class RunningInstanceToNodeMetadata implements Function<RunningInstance,
 
       Location location = getLocationForAvailabilityZone(instance);
 
-      Image image = resolveImageForInstanceInLocation(instance, location);
+      Image image = resolveImageForInstanceInLocation(instance, location, candidateImages);
 
       return new NodeMetadataImpl(id, name, instance.getRegion() + "/" + instance.getId(),
                location, uri, userMetadata, tag, image, state, publicAddresses, privateAddresses,
@@ -178,66 +250,123 @@ public class RunningInstanceToNodeMetadata implements Function<RunningInstance,
       Credentials credentials = null;// default if no keypair exists
 
       if (instance.getKeyName() != null) {
-         credentials = new Credentials(getLoginAccountFor(instance), getPrivateKeyOrNull(instance,
-                  tag));
+         String account = getLoginAccountFor(instance);
+         if (account != null)
+            credentials = new Credentials(account, getPrivateKeyOrNull(instance, tag));
       }
       return credentials;
    }
 
    private String getTagForInstace(final RunningInstance instance) {
-      String tag = String.format("NOTAG-%s", instance.getId());// default
-      try {
-         tag = Iterables.getOnlyElement(
-                  Iterables.filter(instance.getGroupIds(), new Predicate<String>() {
-
-                     @Override
-                     public boolean apply(String input) {
-                        return input.startsWith("jclouds#");
-                     }
-
-                  })).substring(8);
-      } catch (NoSuchElementException e) {
+      String tag = null;
+      int matches = 0;
+      for (String group : instance.getGroupIds()) {
+         if (group.startsWith("jclouds#")) {
+            tag = group.substring(8);
+            matches++;
+         }
+      }
+      if (matches == 1)
+         return tag;
+      if (matches == 0)
          logger
                   .warn("no tag parsed from %s's groups: %s", instance.getId(), instance
                            .getGroupIds());
-      } catch (IllegalArgumentException e) {
+      else
          logger.warn("too many groups match %s; %s's groups: %s", "jclouds#", instance.getId(),
                   instance.getGroupIds());
-      }
-      return tag;
+      return String.format("NOTAG-%s", instance.getId());
    }
 
    private Location getLocationForAvailabilityZone(final RunningInstance instance) {
-      final String locationId = instance.getAvailabilityZone();
-
-      Location location = Iterables.find(locations, new Predicate<Location>() {
-
-         @Override
-         public boolean apply(Location input) {
-            return input.getId().equals(locationId);
-         }
-
-      });
+      String locationId = instance.getAvailabilityZone();
+      Location location = zoneToLocation.get(locationId);
+      if (location == null)
+         throw new NoSuchElementException("no location for zone " + locationId + " in "
+                  + zoneToLocation.keySet());
       return location;
    }
 
    @VisibleForTesting
    Image resolveImageForInstanceInLocation(final RunningInstance instance, final Location location) {
+      return resolveImageForInstanceInLocation(instance, location, images.get());
+   }
+
+   private Image resolveImageForInstanceInLocation(final RunningInstance instance,
+            final Location location, Iterable<? extends Image> candidateImages) {
       Image image = null;
       try {
-         image = Iterables.find(images.get(), new FindImageForInstance(location, instance));
+         return Iterables.find(candidateImages, new FindImageForInstance(location, instance));
       } catch (NoSuchElementException e) {
-         RegionAndName key = new RegionAndName(instance.getRegion(), instance.getImageId());
+      }
+      RegionAndName key = new RegionAndName(instance.getRegion(), instance.getImageId());
+      if (!imagesNotFound.contains(key)) {
          try {
             image = imageMap.get(key);
          } catch (NullPointerException nex) {
-            logger.warn("could not find a matching image for instance %s in location %s", instance,
-                     location);
+            // computing map refuses to hold null; remember the miss ourselves
          }
+         if (image == null)
+            imagesNotFound.add(key);
       }
+      if (image == null)
+         logger.warn("could not find a matching image for instance %s in location %s", instance,
+                  location);
       return image;
    }
 
+   /**
+    * Describes all AMIs referenced by {@code instances} that are neither in {@code knownImageIds}
+    * nor already cached, at most {@link #MAX_IMAGES_PER_DESCRIBE} per request. AMIs requested but
+    * not returned are cached as missing. If a batch fails, its AMIs are left to be looked up
+    * individually.
+    */
+   @VisibleForTesting
+   void prefetchImages(Iterable<? extends RunningInstance> instances,
+            Collection<String> knownImageIds) {
+      Multimap<String, String> unknownByRegion = HashMultimap.create();
+      for (RunningInstance instance : instances) {
+         RegionAndName key = new RegionAndName(instance.getRegion(), instance.getImageId());
+         boolean needsLogin = instance.getKeyName() != null && !loginAccounts.containsKey(key);
+         boolean needsImage = !knownImageIds.contains(instance.getImageId())
+                  && !imageMap.containsKey(key) && !imagesNotFound.contains(key);
+         if (needsLogin || needsImage)
+            unknownByRegion.put(instance.getRegion(), instance.getImageId());
+      }
+      for (String region : unknownByRegion.keySet()) {
+         for (List<String> ids : Iterables.partition(unknownByRegion.get(region),
+                  MAX_IMAGES_PER_DESCRIBE)) {
+            logger.debug(">> describing images(%s) in region(%s)", ids, region);
+            Set<org.jclouds.aws.ec2.domain.Image> found;
+            try {
+               found = client.getAMIServices().describeImagesInRegion(region,
+                        imageIds(Iterables.toArray(ids, String.class)));
+            } catch (RuntimeException e) {
+               logger.warn(e, "error describing images(%s) in region(%s); falling back to "
+                        + "individual lookups", ids, region);
+               continue;
+            }
+            Set<String> missing = Sets.newHashSet(ids);
+            for (org.jclouds.aws.ec2.domain.Image ami : found) {
+               RegionAndName key = new RegionAndName(region, ami.getId());
+               missing.remove(ami.getId());
+               loginAccounts.putIfAbsent(key, loginAccountOrNone(ami));
+               Image image = parser.apply(ami);
+               if (image != null)
+                  imageMap.putIfAbsent(key, image);
+               else
+                  imagesNotFound.add(key);
+            }
+            for (String id : missing) {
+               RegionAndName key = new RegionAndName(region, id);
+               loginAccounts.putIfAbsent(key, NO_LOGIN_ACCOUNT);
+               imagesNotFound.add(key);
+            }
+            logger.debug("<< described images(%d) in region(%s)", found.size(), region);
+         }
+      }
+   }
+
    /**
     * Set extras for the node.
     * 
@@ -265,13 +394,35 @@ public class RunningInstanceToNodeMetadata implements Function<RunningInstance,
       return keyPair != null ? keyPair.getKeyMaterial() : null;
    }
 
+   /**
+    * @return the login account of the instance's AMI, or null if the AMI isn't available
+    */
    @VisibleForTesting
    String getLoginAccountFor(RunningInstance from) {
-      org.jclouds.aws.ec2.domain.Image image = Iterables.getOnlyElement(client.getAMIServices()
-               .describeImagesInRegion(from.getRegion(),
-                        DescribeImagesOptions.Builder.imageIds(from.getImageId())));
-      return checkNotNull(credentialProvider.execute(image), "login from image: "
-               + from.getImageId()).account;
+      String account = loginAccounts.get(new RegionAndName(from.getRegion(), from.getImageId()));
+      return NO_LOGIN_ACCOUNT.equals(account) ? null : account;
+   }
+
+   private String describeLoginAccount(RegionAndName key) {
+      try {
+         return loginAccountOrNone(Iterables.getOnlyElement(client.getAMIServices()
+                  .describeImagesInRegion(key.getRegion(), imageIds(key.getName()))));
+      } catch (ResourceNotFoundException e) {
+         logger.warn("no image found for %s/%s: %s", key.getRegion(), key.getName(), e
+                  .getMessage());
+      } catch (NoSuchElementException e) {
+         logger.warn("no image found for %s/%s", key.getRegion(), key.getName());
+      }
+      return NO_LOGIN_ACCOUNT;
+   }
+
+   private String loginAccountOrNone(org.jclouds.aws.ec2.domain.Image image) {
+      Credentials credentials = credentialProvider.execute(image);
+      if (credentials == null || credentials.account == null) {
+         logger.warn("no login from image: %s", image.getId());
+         return NO_LOGIN_ACCOUNT;
+      }
+      return credentials.account;
    }
 
-}
\ No newline at end of file
+}
@@ -16,23 +16,33 @@
  * limitations under the License.
  * ====================================================================
  */
-
 package org.jclouds.aws.ec2.compute.strategy;
 
+import static com.google.common.util.concurrent.Futures.chain;
 import static org.jclouds.aws.ec2.util.EC2Utils.parseHandle;
 
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
 import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import org.jclouds.aws.ec2.EC2Client;
+import org.jclouds.Constants;
+import org.jclouds.aws.ec2.EC2AsyncClient;
+import org.jclouds.aws.ec2.compute.config.EC2ComputeServiceContextModule.EC2GetNodeMetadataStrategy;
+import org.jclouds.aws.ec2.domain.InstanceStateChange;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.compute.strategy.DestroyNodeStrategy;
-import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 import org.jclouds.logging.Logger;
 
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFuture;
+
 /**
  * 
  * @author Adrian Cole
@@ -42,23 +52,42 @@ public class EC2DestroyNodeStrategy implements DestroyNodeStrategy {
    @Resource
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
    protected Logger logger = Logger.NULL;
-   protected final EC2Client ec2Client;
-   protected final GetNodeMetadataStrategy getNode;
+   protected final EC2AsyncClient ec2Client;
+   protected final EC2GetNodeMetadataStrategy getNode;
+   protected final ExecutorService executor;
 
    @Inject
-   protected EC2DestroyNodeStrategy(EC2Client ec2Client,
-         GetNodeMetadataStrategy getNodeMetadataStrategy) {
+   protected EC2DestroyNodeStrategy(EC2AsyncClient ec2Client,
+         EC2GetNodeMetadataStrategy getNodeMetadataStrategy,
+         @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
       this.ec2Client = ec2Client;
       this.getNode = getNodeMetadataStrategy;
+      this.executor = executor;
    }
 
    @Override
    public NodeMetadata execute(String id) {
+      try {
+         return executeAsync(id).get();
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      } catch (InterruptedException e) {
+         throw Throwables.propagate(e);
+      }
+   }
+
+   public ListenableFuture<NodeMetadata> executeAsync(final String id) {
       String[] parts = parseHandle(id);
       String region = parts[0];
       String instanceId = parts[1];
-      ec2Client.getInstanceServices().terminateInstancesInRegion(region,
-            instanceId);
-      return getNode.execute(id);
+      return chain(ec2Client.getInstanceServices().terminateInstancesInRegion(
+            region, instanceId),
+            new Function<Set<InstanceStateChange>, ListenableFuture<NodeMetadata>>() {
+               @Override
+               public ListenableFuture<NodeMetadata> apply(
+                     Set<InstanceStateChange> from) {
+                  return getNode.executeAsync(id);
+               }
+            }, executor);
    }
-}
\ No newline at end of file
+}
@@ -42,6 +42,7 @@ import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.Template;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.compute.strategy.RunNodesAndAddToSetStrategy;
+import org.jclouds.compute.util.BootstrapStatistics;
 import org.jclouds.compute.util.ComputeUtils;
 import org.jclouds.logging.Logger;
 
@@ -91,7 +92,7 @@ public class EC2RunNodesAndAddToSetStrategy implements
    @Override
    public Map<?, ListenableFuture<Void>> execute(String tag, int count,
          Template template, Set<NodeMetadata> goodNodes,
-         Map<NodeMetadata, Exception> badNodes) {
+         Map<NodeMetadata, Exception> badNodes, BootstrapStatistics statistics) {
 
       Reservation reservation = createKeyPairAndSecurityGroupsAsNeededThenRunInstances(
             tag, count, template);
@@ -106,7 +107,8 @@ public class EC2RunNodesAndAddToSetStrategy implements
 
       return utils.runOptionsOnNodesAndAddToGoodSetOrPutExceptionIntoBadMap(
             template.getOptions(), transform(reservation,
-                  runningInstanceToNodeMetadata), goodNodes, badNodes);
+                  runningInstanceToNodeMetadata), goodNodes, badNodes,
+            statistics);
    }
 
    @VisibleForTesting
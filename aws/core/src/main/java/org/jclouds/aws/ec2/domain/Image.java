@@ -20,6 +20,7 @@ package org.jclouds.aws.ec2.domain;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -272,7 +273,7 @@ public class Image implements Comparable<Image> {
     * Product codes of the AMI.
     */
    public Set<String> getProductCodes() {
-      return productCodes;
+      return Collections.unmodifiableSet(productCodes);
    }
 
    /**
@@ -311,7 +312,7 @@ public class Image implements Comparable<Image> {
    }
 
    public Map<String, EbsBlockDevice> getEbsBlockDevices() {
-      return ebsBlockDevices;
+      return Collections.unmodifiableMap(ebsBlockDevices);
    }
 
    @Override
@@ -33,6 +33,11 @@ public interface EC2Constants extends AWSConstants {
     * the ami owners you wish to use in {@link ComputeService}
     */
    public static final String PROPERTY_EC2_AMI_OWNERS = "jclouds.ec2.ami-owners";
+   /**
+    * How long, in seconds, to remember the login account and image of an AMI referenced by a
+    * running instance, including AMIs that could not be found.
+    */
+   public static final String PROPERTY_EC2_IMAGE_CACHE_SECONDS = "jclouds.ec2.image-cache-seconds";
    public static final String PROPERTY_ELB_ENDPOINT = "jclouds.elb.endpoint";
 
 }
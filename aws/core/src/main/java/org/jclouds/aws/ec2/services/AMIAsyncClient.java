@@ -23,6 +23,7 @@ import static org.jclouds.aws.ec2.reference.EC2Parameters.VERSION;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.FormParam;
@@ -47,8 +48,11 @@ import org.jclouds.aws.ec2.xml.PermissionHandler;
 import org.jclouds.aws.ec2.xml.ProductCodesHandler;
 import org.jclouds.aws.filters.FormSigner;
 import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Cached;
+import org.jclouds.rest.annotations.Coalesce;
 import org.jclouds.rest.annotations.EndpointParam;
 import org.jclouds.rest.annotations.FormParams;
+import org.jclouds.rest.annotations.InvalidatesCache;
 import org.jclouds.rest.annotations.RequestFilters;
 import org.jclouds.rest.annotations.VirtualHost;
 import org.jclouds.rest.annotations.XMLResponseParser;
@@ -73,6 +77,8 @@ public interface AMIAsyncClient {
    @Path("/")
    @FormParams(keys = ACTION, values = "DescribeImages")
    @XMLResponseParser(DescribeImagesResponseHandler.class)
+   @Coalesce
+   @Cached(ttl = 5, staleWhileRevalidate = 5, timeUnit = TimeUnit.MINUTES)
    ListenableFuture<? extends Set<Image>> describeImagesInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             DescribeImagesOptions... options);
@@ -84,6 +90,7 @@ public interface AMIAsyncClient {
    @Path("/")
    @FormParams(keys = ACTION, values = "CreateImage")
    @XMLResponseParser(ImageIdHandler.class)
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<String> createImageInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @FormParam("Name") String name, @FormParam("InstanceId") String instanceId,
@@ -95,6 +102,7 @@ public interface AMIAsyncClient {
    @POST
    @Path("/")
    @FormParams(keys = ACTION, values = "DeregisterImage")
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<Void> deregisterImageInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @FormParam("ImageId") String imageId);
@@ -106,6 +114,7 @@ public interface AMIAsyncClient {
    @Path("/")
    @FormParams(keys = ACTION, values = "RegisterImage")
    @XMLResponseParser(ImageIdHandler.class)
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<String> registerImageFromManifestInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @FormParam("Name") String imageName, @FormParam("ImageLocation") String pathToManifest,
@@ -119,6 +128,7 @@ public interface AMIAsyncClient {
    @FormParams(keys = { ACTION, "RootDeviceName", "BlockDeviceMapping.0.DeviceName" }, values = {
             "RegisterImage", "/dev/sda1", "/dev/sda1" })
    @XMLResponseParser(ImageIdHandler.class)
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<String> registerUnixImageBackedByEbsInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @FormParam("Name") String imageName,
@@ -131,6 +141,7 @@ public interface AMIAsyncClient {
    @POST
    @Path("/")
    @FormParams(keys = { ACTION, "Attribute" }, values = { "ResetImageAttribute", "launchPermission" })
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<Void> resetLaunchPermissionsOnImageInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @FormParam("ImageId") String imageId);
@@ -142,6 +153,7 @@ public interface AMIAsyncClient {
    @Path("/")
    @FormParams(keys = { ACTION, "OperationType", "Attribute" }, values = { "ModifyImageAttribute",
             "add", "launchPermission" })
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<Void> addLaunchPermissionsToImageInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @BinderParam(BindUserIdsToIndexedFormParams.class) Iterable<String> userIds,
@@ -155,6 +167,7 @@ public interface AMIAsyncClient {
    @Path("/")
    @FormParams(keys = { ACTION, "OperationType", "Attribute" }, values = { "ModifyImageAttribute",
             "remove", "launchPermission" })
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<Void> removeLaunchPermissionsFromImageInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @BinderParam(BindUserIdsToIndexedFormParams.class) Iterable<String> userIds,
@@ -203,6 +216,7 @@ public interface AMIAsyncClient {
    @Path("/")
    @FormParams(keys = { ACTION, "OperationType", "Attribute" }, values = { "ModifyImageAttribute",
             "add", "productCodes" })
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<Void> addProductCodesToImageInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @BinderParam(BindProductCodesToIndexedFormParams.class) Iterable<String> productCodes,
@@ -215,6 +229,7 @@ public interface AMIAsyncClient {
    @Path("/")
    @FormParams(keys = { ACTION, "OperationType", "Attribute" }, values = { "ModifyImageAttribute",
             "remove", "productCodes" })
+   @InvalidatesCache("describeImagesInRegion")
    ListenableFuture<Void> removeProductCodesFromImageInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             @BinderParam(BindProductCodesToIndexedFormParams.class) Iterable<String> productCodes,
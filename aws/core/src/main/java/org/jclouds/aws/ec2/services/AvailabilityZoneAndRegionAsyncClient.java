@@ -24,6 +24,7 @@ import static org.jclouds.aws.ec2.reference.EC2Parameters.VERSION;
 import java.net.URI;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.POST;
@@ -37,6 +38,7 @@ import org.jclouds.aws.ec2.options.DescribeRegionsOptions;
 import org.jclouds.aws.ec2.xml.DescribeAvailabilityZonesResponseHandler;
 import org.jclouds.aws.ec2.xml.DescribeRegionsResponseHandler;
 import org.jclouds.aws.filters.FormSigner;
+import org.jclouds.rest.annotations.Cached;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.EndpointParam;
 import org.jclouds.rest.annotations.FormParams;
@@ -64,6 +66,7 @@ public interface AvailabilityZoneAndRegionAsyncClient {
    @Path("/")
    @FormParams(keys = ACTION, values = "DescribeAvailabilityZones")
    @XMLResponseParser(DescribeAvailabilityZonesResponseHandler.class)
+   @Cached(ttl = 10, timeUnit = TimeUnit.MINUTES)
    ListenableFuture<? extends Set<AvailabilityZoneInfo>> describeAvailabilityZonesInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
             DescribeAvailabilityZonesOptions... options);
@@ -76,6 +79,7 @@ public interface AvailabilityZoneAndRegionAsyncClient {
    @Path("/")
    @FormParams(keys = ACTION, values = "DescribeRegions")
    @XMLResponseParser(DescribeRegionsResponseHandler.class)
+   @Cached(ttl = 1, timeUnit = TimeUnit.HOURS)
    ListenableFuture<? extends Map<String, URI>> describeRegions(DescribeRegionsOptions... options);
 
 }
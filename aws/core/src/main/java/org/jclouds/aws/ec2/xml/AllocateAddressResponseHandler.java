@@ -32,22 +32,12 @@ public class AllocateAddressResponseHandler extends HandlerWithResult<String> {
    protected Logger logger = Logger.NULL;
 
    private String ipAddress;
-   private StringBuilder currentText = new StringBuilder();
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
-   }
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("publicIp")) {
          ipAddress = currentOrNull();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 
    @Override
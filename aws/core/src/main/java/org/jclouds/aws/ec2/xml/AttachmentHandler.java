@@ -35,7 +35,6 @@ import org.jclouds.logging.Logger;
  * @author Adrian Cole
  */
 public class AttachmentHandler extends ParseSax.HandlerWithResult<Attachment> {
-   private StringBuilder currentText = new StringBuilder();
 
    @Resource
    protected Logger logger = Logger.NULL;
@@ -59,24 +58,20 @@ public class AttachmentHandler extends ParseSax.HandlerWithResult<Attachment> {
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("volumeId")) {
-         volumeId = currentText.toString().trim();
+         volumeId = trimmedText();
 
       } else if (qName.equals("volumeId")) {
-         volumeId = currentText.toString().trim();
+         volumeId = trimmedText();
 
       } else if (qName.equals("status")) {
-         attachmentStatus = Attachment.Status.fromValue(currentText.toString().trim());
+         attachmentStatus = Attachment.Status.fromValue(trimmedText());
       } else if (qName.equals("instanceId")) {
-         instanceId = currentText.toString().trim();
+         instanceId = trimmedText();
       } else if (qName.equals("device")) {
-         device = currentText.toString().trim();
+         device = trimmedText();
       } else if (qName.equals("attachTime")) {
-         attachTime = dateService.iso8601DateParse(currentText.toString().trim());
+         attachTime = dateService.iso8601DateParse(trimmedText());
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -60,7 +60,6 @@ public abstract class BaseReservationHandler<T> extends HandlerWithResult<T> {
 
    @Resource
    protected Logger logger = Logger.NULL;
-   private StringBuilder currentText = new StringBuilder();
    private SortedSet<String> groupIds = Sets.newTreeSet();
    private SortedSet<RunningInstance> instances = Sets.newTreeSet();
    private String ownerId;
@@ -114,11 +113,6 @@ public abstract class BaseReservationHandler<T> extends HandlerWithResult<T> {
       }
    }
 
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
-   }
-
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("groupId")) {
          groupIds.add(currentOrNull());
@@ -194,20 +188,17 @@ public abstract class BaseReservationHandler<T> extends HandlerWithResult<T> {
       } else if (qName.equals("volumeId")) {
          volumeId = currentOrNull();
       } else if (qName.equals("status")) {
-         attachmentStatus = Attachment.Status.fromValue(currentText.toString()
-               .trim());
+         attachmentStatus = Attachment.Status.fromValue(trimmedText());
       } else if (qName.equals("attachTime")) {
-         attachTime = dateService.iso8601DateParse(currentText.toString()
-               .trim());
+         attachTime = dateService.iso8601DateParse(trimmedText());
       } else if (qName.equals("deleteOnTermination")) {
-         deleteOnTermination = Boolean.parseBoolean(currentText.toString()
-               .trim());
+         deleteOnTermination = textAsBoolean();
       } else if (qName.equals("rootDeviceName")) {
          rootDeviceName = currentOrNull();
       } else if (qName.equals("item")) {
          inItem();
       }
-      currentText = new StringBuilder();
+      resetText();
    }
 
    protected void inItem() {
@@ -268,10 +259,6 @@ public abstract class BaseReservationHandler<T> extends HandlerWithResult<T> {
       }
    }
 
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
    protected Reservation newReservation() {
       String region = EC2Utils.findRegionInArgsOrNull(request);
       if (region == null)
@@ -35,7 +35,6 @@ import com.google.common.collect.Maps;
  */
 public class BlockDeviceMappingHandler extends
          ParseSax.HandlerWithResult<Map<String, EbsBlockDevice>> {
-   private StringBuilder currentText = new StringBuilder();
 
    private Map<String, EbsBlockDevice> ebsBlockDevices = Maps.newHashMap();
    private String deviceName;
@@ -57,15 +56,15 @@ public class BlockDeviceMappingHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("deviceName")) {
-         deviceName = currentText.toString().trim();
+         deviceName = trimmedText();
       } else if (qName.equals("volumeId")) {
-         volumeId = currentText.toString().trim();
+         volumeId = trimmedText();
       } else if (qName.equals("deleteOnTermination")) {
-         deleteOnTermination = Boolean.parseBoolean(currentText.toString().trim());
+         deleteOnTermination = textAsBoolean();
       } else if (qName.equals("status")) {
-         attachmentStatus = Attachment.Status.fromValue(currentText.toString().trim());
+         attachmentStatus = Attachment.Status.fromValue(trimmedText());
       } else if (qName.equals("attachTime")) {
-         attachTime = dateService.iso8601DateParse(currentText.toString().trim());
+         attachTime = dateService.iso8601DateParse(trimmedText());
       } else if (qName.equals("item")) {
          ebsBlockDevices.put(deviceName, new EbsBlockDevice(volumeId, attachmentStatus, attachTime, deleteOnTermination));
           this.volumeId = null;
@@ -74,10 +73,6 @@ public class BlockDeviceMappingHandler extends
           this.attachmentStatus = null;
           this.attachTime = null;
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
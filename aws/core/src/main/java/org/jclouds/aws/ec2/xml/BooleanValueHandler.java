@@ -28,7 +28,6 @@ import org.jclouds.http.functions.ParseSax;
  */
 public class BooleanValueHandler extends ParseSax.HandlerWithResult<Boolean> {
 
-   private StringBuilder currentText = new StringBuilder();
    private boolean value;
 
    public Boolean getResult() {
@@ -37,12 +36,8 @@ public class BooleanValueHandler extends ParseSax.HandlerWithResult<Boolean> {
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equalsIgnoreCase("value")) {
-         this.value = Boolean.parseBoolean(currentText.toString().trim());
+         this.value = textAsBoolean();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
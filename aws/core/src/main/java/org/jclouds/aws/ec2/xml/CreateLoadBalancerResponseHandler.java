@@ -11,22 +11,12 @@ public class CreateLoadBalancerResponseHandler extends HandlerWithResult<String>
     protected Logger logger = Logger.NULL;
 
     private String dnsName;
-    private StringBuilder currentText = new StringBuilder();
-
-    protected String currentOrNull() {
-       String returnVal = currentText.toString().trim();
-       return returnVal.equals("") ? null : returnVal;
-    }
 
     public void endElement(String uri, String name, String qName) {
        if (qName.equals("DNSName")) {
           dnsName = currentOrNull();
        }
-       currentText = new StringBuilder();
-    }
-
-    public void characters(char ch[], int start, int length) {
-       currentText.append(ch, start, length);
+       resetText();
     }
     
     @Override
@@ -44,7 +44,6 @@ import com.google.common.collect.Sets;
  * @author Adrian Cole
  */
 public class CreateVolumeResponseHandler extends ParseSax.HandlerWithResult<Volume> {
-   private StringBuilder currentText = new StringBuilder();
 
    @Resource
    protected Logger logger = Logger.NULL;
@@ -87,40 +86,40 @@ public class CreateVolumeResponseHandler extends ParseSax.HandlerWithResult<Volu
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("volumeId")) {
          if (inAttachmentSet) {
-            volumeId = currentText.toString().trim();
+            volumeId = trimmedText();
          } else {
-            id = currentText.toString().trim();
+            id = trimmedText();
          }
       } else if (qName.equals("size")) {
-         size = Integer.parseInt(currentText.toString().trim());
+         size = textAsInt();
       } else if (qName.equals("availabilityZone")) {
-         availabilityZone = currentText.toString().trim();
+         availabilityZone = trimmedText();
       } else if (qName.equals("volumeId")) {
          if (inAttachmentSet) {
-            volumeId = currentText.toString().trim();
+            volumeId = trimmedText();
          } else {
-            id = currentText.toString().trim();
+            id = trimmedText();
          }
       } else if (qName.equals("status")) {
          if (inAttachmentSet) {
-            attachmentStatus = Attachment.Status.fromValue(currentText.toString().trim());
+            attachmentStatus = Attachment.Status.fromValue(trimmedText());
          } else {
-            volumeStatus = Volume.Status.fromValue(currentText.toString().trim());
+            volumeStatus = Volume.Status.fromValue(trimmedText());
          }
       } else if (qName.equals("createTime")) {
-         createTime = dateService.iso8601DateParse(currentText.toString().trim());
+         createTime = dateService.iso8601DateParse(trimmedText());
       } else if (qName.equals("attachmentSet")) {
          inAttachmentSet = false;
       } else if (qName.equals("instanceId")) {
-         instanceId = currentText.toString().trim();
+         instanceId = trimmedText();
       } else if (qName.equals("snapshotId")) {
-         snapshotId = currentText.toString().trim();
+         snapshotId = trimmedText();
          if (snapshotId.equals(""))
             snapshotId = null;
       } else if (qName.equals("device")) {
-         device = currentText.toString().trim();
+         device = trimmedText();
       } else if (qName.equals("attachTime")) {
-         attachTime = dateService.iso8601DateParse(currentText.toString().trim());
+         attachTime = dateService.iso8601DateParse(trimmedText());
       } else if (qName.equals("item")) {
          if (inAttachmentSet) {
             attachments.add(new Attachment(region, volumeId, instanceId, device, attachmentStatus,
@@ -133,7 +132,7 @@ public class CreateVolumeResponseHandler extends ParseSax.HandlerWithResult<Volu
          }
 
       }
-      currentText = new StringBuilder();
+      resetText();
    }
 
    private Volume newVolume() {
@@ -149,10 +148,6 @@ public class CreateVolumeResponseHandler extends ParseSax.HandlerWithResult<Volu
       return volume;
    }
 
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
    @Override
    public void setContext(GeneratedHttpRequest<?> request) {
       super.setContext(request);
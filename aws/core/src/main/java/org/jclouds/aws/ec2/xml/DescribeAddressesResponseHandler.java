@@ -42,17 +42,11 @@ public class DescribeAddressesResponseHandler extends
    protected Logger logger = Logger.NULL;
    private Set<PublicIpInstanceIdPair> pairs = Sets.newLinkedHashSet();
    private String ipAddress;
-   private StringBuilder currentText = new StringBuilder();
    @Inject
    @EC2
    String defaultRegion;
    private String instanceId;
 
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
-   }
-
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("publicIp")) {
          ipAddress = currentOrNull();
@@ -66,11 +60,7 @@ public class DescribeAddressesResponseHandler extends
          ipAddress = null;
          instanceId = null;
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 
    @Override
@@ -36,7 +36,6 @@ import com.google.common.collect.Sets;
  */
 public class DescribeAvailabilityZonesResponseHandler extends
          ParseSax.HandlerWithResult<Set<AvailabilityZoneInfo>> {
-   private StringBuilder currentText = new StringBuilder();
 
    private Set<AvailabilityZoneInfo> availablilityZones = Sets.newLinkedHashSet();
    private String zone;
@@ -59,23 +58,23 @@ public class DescribeAvailabilityZonesResponseHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("zoneName")) {
-         zone = currentText.toString().trim();
+         zone = trimmedText();
       } else if (qName.equals("regionName")) {
          try {
-            region = currentText.toString().trim();
+            region = trimmedText();
          } catch (IllegalArgumentException e) {
-            logger.warn(e, "unsupported region: %s", currentText.toString().trim());
+            logger.warn(e, "unsupported region: %s", trimmedText());
             region = "UNKNOWN";
          }
       } else if (qName.equals("zoneState")) {
          try {
-            zoneState = AvailabilityZoneInfo.State.fromValue(currentText.toString().trim());
+            zoneState = AvailabilityZoneInfo.State.fromValue(trimmedText());
          } catch (IllegalArgumentException e) {
-            logger.warn(e, "unsupported zoneState: %s", currentText.toString().trim());
+            logger.warn(e, "unsupported zoneState: %s", trimmedText());
             zoneState = AvailabilityZoneInfo.State.UNKNOWN;
          }
       } else if (qName.equals("message")) {
-         messages.add(currentText.toString().trim());
+         messages.add(trimmedText());
       } else if (qName.equals("messageSet")) {
          inMessageSet = false;
       } else if (qName.equals("item") && !inMessageSet) {
@@ -86,10 +85,6 @@ public class DescribeAvailabilityZonesResponseHandler extends
          this.zoneState = null;
          this.messages = Sets.newHashSet();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
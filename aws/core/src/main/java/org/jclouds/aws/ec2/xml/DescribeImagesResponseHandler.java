@@ -59,7 +59,6 @@ public class DescribeImagesResponseHandler extends ParseSax.HandlerWithResult<Se
    protected Logger logger = Logger.NULL;
 
    private Set<Image> contents = Sets.newLinkedHashSet();
-   private StringBuilder currentText = new StringBuilder();
    private final String defaultRegion;
 
    private Architecture architecture;
@@ -100,47 +99,47 @@ public class DescribeImagesResponseHandler extends ParseSax.HandlerWithResult<Se
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("architecture")) {
-         architecture = Architecture.fromValue(currentText.toString().trim());
+         architecture = Architecture.fromValue(trimmedText());
       } else if (qName.equals("name")) {
-         this.name = currentText.toString().trim();
+         this.name = trimmedText();
       } else if (qName.equals("description")) {
-         description = currentText.toString().trim();
+         description = trimmedText();
       } else if (qName.equals("imageId")) {
-         imageId = currentText.toString().trim();
+         imageId = trimmedText();
       } else if (qName.equals("deviceName")) {
-         deviceName = currentText.toString().trim();
+         deviceName = trimmedText();
       } else if (qName.equals("imageLocation")) {
-         imageLocation = currentText.toString().trim();
+         imageLocation = trimmedText();
       } else if (qName.equals("imageOwnerId")) {
-         imageOwnerId = currentText.toString().trim();
+         imageOwnerId = trimmedText();
       } else if (qName.equals("imageState")) {
-         imageState = ImageState.fromValue(currentText.toString().trim());
+         imageState = ImageState.fromValue(trimmedText());
       } else if (qName.equals("imageType")) {
-         imageType = ImageType.fromValue(currentText.toString().trim());
+         imageType = ImageType.fromValue(trimmedText());
       } else if (qName.equals("isPublic")) {
-         isPublic = Boolean.parseBoolean(currentText.toString().trim());
+         isPublic = textAsBoolean();
       } else if (qName.equals("kernelId")) {
-         kernelId = currentText.toString().trim();
+         kernelId = trimmedText();
       } else if (qName.equals("platform")) {
-         platform = currentText.toString().trim();
+         platform = trimmedText();
       } else if (qName.equals("productCode")) {
-         productCodes.add(currentText.toString().trim());
+         productCodes.add(trimmedText());
       } else if (qName.equals("productCodes")) {
          inProductCodes = false;
       } else if (qName.equals("blockDeviceMapping")) {
          inBlockDeviceMapping = false;
       } else if (qName.equals("snapshotId")) {
-         snapshotId = currentText.toString().trim();
+         snapshotId = trimmedText();
       } else if (qName.equals("volumeSize")) {
-         volumeSize = Integer.parseInt(currentText.toString().trim());
+         volumeSize = textAsInt();
       } else if (qName.equals("deleteOnTermination")) {
-         deleteOnTermination = Boolean.parseBoolean(currentText.toString().trim());
+         deleteOnTermination = textAsBoolean();
       } else if (qName.equals("ramdiskId")) {
-         ramdiskId = currentText.toString().trim();
+         ramdiskId = trimmedText();
       } else if (qName.equals("rootDeviceType")) {
-         rootDeviceType = RootDeviceType.fromValue(currentText.toString().trim());
+         rootDeviceType = RootDeviceType.fromValue(trimmedText());
       } else if (qName.equals("rootDeviceName")) {
-         rootDeviceName = currentText.toString().trim();
+         rootDeviceName = trimmedText();
       } else if (qName.equals("item")) {
          if (inBlockDeviceMapping) {
             ebsBlockDevices.put(deviceName, new Image.EbsBlockDevice(snapshotId, volumeSize,
@@ -180,10 +179,6 @@ public class DescribeImagesResponseHandler extends ParseSax.HandlerWithResult<Se
          }
 
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -41,7 +41,6 @@ public class DescribeKeyPairsResponseHandler extends ParseSax.HandlerWithResult<
    @EC2
    String defaultRegion;
 
-   private StringBuilder currentText = new StringBuilder();
    private Set<KeyPair> keyPairs = Sets.newLinkedHashSet();
    private String keyFingerprint;
    private String keyName;
@@ -53,20 +52,16 @@ public class DescribeKeyPairsResponseHandler extends ParseSax.HandlerWithResult<
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equals("keyFingerprint")) {
-         this.keyFingerprint = currentText.toString().trim();
+         this.keyFingerprint = trimmedText();
       } else if (qName.equals("item")) {
          String region = EC2Utils.findRegionInArgsOrNull(request);
          if (region == null)
             region = defaultRegion;
          keyPairs.add(new KeyPair(region, keyName, keyFingerprint, null));
       } else if (qName.equals("keyName")) {
-         this.keyName = currentText.toString().trim();
+         this.keyName = trimmedText();
       }
 
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -56,7 +56,6 @@ public class DescribeLoadBalancersResponseHandler extends
    protected Logger logger = Logger.NULL;
 
    private Set<ElasticLoadBalancer> contents = Sets.newLinkedHashSet();
-   private StringBuilder currentText = new StringBuilder();
    private final String defaultRegion;
    private final LoadBalancerListenerHandler listenerHandler;
 
@@ -115,17 +114,17 @@ public class DescribeLoadBalancersResponseHandler extends
       }
 
       if (qName.equals("DNSName")) {
-         elb.setDnsName(currentText.toString().trim());
+         elb.setDnsName(trimmedText());
       } else if (qName.equals("LoadBalancerName")) {
-         elb.setName(currentText.toString().trim());
+         elb.setName(trimmedText());
       } else if (qName.equals("InstanceId")) {
-         elb.getInstanceIds().add(currentText.toString().trim());
+         elb.getInstanceIds().add(trimmedText());
       }
 
       else if (qName.equals("member")) {
 
          if (inAvailabilityZones) {
-            elb.getAvailabilityZones().add(currentText.toString().trim());
+            elb.getAvailabilityZones().add(trimmedText());
          } else if (!(inListenerDescriptions || inAppCookieStickinessPolicies || inInstances
                   || inLBCookieStickinessPolicies || inAvailabilityZones)) {
             try {
@@ -145,7 +144,7 @@ public class DescribeLoadBalancersResponseHandler extends
 
       }
 
-      currentText = new StringBuilder();
+      resetText();
    }
 
    @Override
@@ -153,10 +152,6 @@ public class DescribeLoadBalancersResponseHandler extends
       return contents;
    }
 
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
    @Override
    public void setContext(GeneratedHttpRequest<?> request) {
       listenerHandler.setContext(request);
@@ -166,7 +161,6 @@ public class DescribeLoadBalancersResponseHandler extends
    public class LoadBalancerListenerHandler extends
             ParseSax.HandlerWithResult<Set<LoadBalancerListener>> {
       private Set<LoadBalancerListener> listeners = Sets.newHashSet();
-      private StringBuilder currentText = new StringBuilder();
       private LoadBalancerListener listener;
 
       public void startElement(String uri, String name, String qName, Attributes attrs) {
@@ -177,16 +171,16 @@ public class DescribeLoadBalancersResponseHandler extends
 
       public void endElement(String uri, String name, String qName) {
          if (qName.equals("Protocol")) {
-            listener.setProtocol(currentText.toString().trim());
+            listener.setProtocol(trimmedText());
          } else if (qName.equals("LoadBalancerPort")) {
-            listener.setLoadBalancerPort(Integer.parseInt(currentText.toString().trim()));
+            listener.setLoadBalancerPort(textAsInt());
          } else if (qName.equals("InstancePort")) {
-            listener.setInstancePort(Integer.parseInt(currentText.toString().trim()));
+            listener.setInstancePort(textAsInt());
          } else if (qName.equals("member")) {
             listeners.add(listener);
          }
 
-         currentText = new StringBuilder();
+         resetText();
 
       }
 
@@ -195,9 +189,5 @@ public class DescribeLoadBalancersResponseHandler extends
          return listeners;
       }
 
-      public void characters(char ch[], int start, int length) {
-         currentText.append(ch, start, length);
-      }
-
    }
 }
@@ -34,7 +34,6 @@ import com.google.common.collect.Maps;
  */
 public class DescribeRegionsResponseHandler extends
       ParseSax.HandlerWithResult<Map<String, URI>> {
-   private StringBuilder currentText = new StringBuilder();
 
    private Map<String, URI> regionEndpoints = Maps.newHashMap();
    private String region;
@@ -48,11 +47,11 @@ public class DescribeRegionsResponseHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("regionName")) {
-         String pending = currentText.toString().trim();
+         String pending = trimmedText();
          if (pending.indexOf("Walrus") == -1)
             region = pending;
       } else if (qName.equals("regionEndpoint")) {
-         String pending = currentText.toString().trim();
+         String pending = trimmedText();
          if (pending.indexOf("Walrus") == -1)
             regionEndpoint = URI.create(pending.startsWith("http") ? pending
                   : String.format("https://%s", pending));
@@ -61,10 +60,6 @@ public class DescribeRegionsResponseHandler extends
          this.region = null;
          this.regionEndpoint = null;
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -46,7 +46,6 @@ public class DescribeSecurityGroupsResponseHandler extends
    @EC2
    String defaultRegion;
 
-   private StringBuilder currentText = new StringBuilder();
    private SortedSet<SecurityGroup> securtyGroups = Sets.newTreeSet();
    private String groupName;
    private String ownerId;
@@ -81,23 +80,23 @@ public class DescribeSecurityGroupsResponseHandler extends
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("groupName")) {
          if (!inGroups)
-            this.groupName = currentText.toString().trim();
+            this.groupName = trimmedText();
          else
-            this.userIdGroupName = currentText.toString().trim();
+            this.userIdGroupName = trimmedText();
       } else if (qName.equals("ownerId")) {
-         this.ownerId = currentText.toString().trim();
+         this.ownerId = trimmedText();
       } else if (qName.equals("userId")) {
-         this.userId = currentText.toString().trim();
+         this.userId = trimmedText();
       } else if (qName.equals("groupDescription")) {
-         this.groupDescription = currentText.toString().trim();
+         this.groupDescription = trimmedText();
       } else if (qName.equals("ipProtocol")) {
-         this.ipProtocol = IpProtocol.fromValue(currentText.toString().trim());
+         this.ipProtocol = IpProtocol.fromValue(trimmedText());
       } else if (qName.equals("fromPort")) {
-         this.fromPort = Integer.parseInt(currentText.toString().trim());
+         this.fromPort = textAsInt();
       } else if (qName.equals("toPort")) {
-         this.toPort = Integer.parseInt(currentText.toString().trim());
+         this.toPort = textAsInt();
       } else if (qName.equals("cidrIp")) {
-         this.ipRanges.add(currentText.toString().trim());
+         this.ipRanges.add(trimmedText());
       } else if (qName.equals("ipPermissions")) {
          inIpPermissions = false;
       } else if (qName.equals("ipRanges")) {
@@ -129,10 +128,6 @@ public class DescribeSecurityGroupsResponseHandler extends
          }
       }
 
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
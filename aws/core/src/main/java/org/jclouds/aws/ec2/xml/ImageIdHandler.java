@@ -30,7 +30,6 @@ import org.jclouds.http.functions.ParseSax;
  */
 public class ImageIdHandler extends ParseSax.HandlerWithResult<String> {
 
-   private StringBuilder currentText = new StringBuilder();
    private String imageId;
 
    public String getResult() {
@@ -40,12 +39,8 @@ public class ImageIdHandler extends ParseSax.HandlerWithResult<String> {
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equalsIgnoreCase("ImageId")) {
-         this.imageId = currentText.toString().trim();
+         this.imageId = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -30,7 +30,6 @@ import org.jclouds.http.functions.ParseSax;
 public class InstanceInitiatedShutdownBehaviorHandler extends
          ParseSax.HandlerWithResult<InstanceInitiatedShutdownBehavior> {
 
-   private StringBuilder currentText = new StringBuilder();
    private InstanceInitiatedShutdownBehavior behavior;
 
    public InstanceInitiatedShutdownBehavior getResult() {
@@ -39,12 +38,8 @@ public class InstanceInitiatedShutdownBehaviorHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equalsIgnoreCase("value")) {
-         this.behavior = InstanceInitiatedShutdownBehavior.fromValue(currentText.toString().trim());
+         this.behavior = InstanceInitiatedShutdownBehavior.fromValue(trimmedText());
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -47,7 +47,6 @@ import com.google.common.collect.Sets;
  *      />
  */
 public class InstanceStateChangeHandler extends HandlerWithResult<SortedSet<InstanceStateChange>> {
-   private StringBuilder currentText = new StringBuilder();
    @Inject
    @EC2
    String defaultRegion;
@@ -98,15 +97,6 @@ public class InstanceStateChangeHandler extends HandlerWithResult<SortedSet<Inst
          this.previousState = null;
       }
 
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 }
@@ -29,7 +29,6 @@ import org.jclouds.http.functions.ParseSax;
 public class InstanceTypeHandler extends
          ParseSax.HandlerWithResult<String> {
 
-   private StringBuilder currentText = new StringBuilder();
    private String type;
 
    public String getResult() {
@@ -38,12 +37,8 @@ public class InstanceTypeHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equalsIgnoreCase("value")) {
-         this.type = currentText.toString().trim();
+         this.type = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -36,7 +36,6 @@ public class KeyPairResponseHandler extends ParseSax.HandlerWithResult<KeyPair>
    @Inject
    @EC2
    String defaultRegion;
-   private StringBuilder currentText = new StringBuilder();
    private String keyFingerprint;
    private String keyMaterial;
    private String keyName;
@@ -51,17 +50,13 @@ public class KeyPairResponseHandler extends ParseSax.HandlerWithResult<KeyPair>
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equals("keyFingerprint")) {
-         this.keyFingerprint = currentText.toString().trim();
+         this.keyFingerprint = trimmedText();
       } else if (qName.equals("keyMaterial")) {
-         this.keyMaterial = currentText.toString().trim();
+         this.keyMaterial = trimmedText();
       } else if (qName.equals("keyName")) {
-         this.keyName = currentText.toString().trim();
+         this.keyName = trimmedText();
       }
 
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
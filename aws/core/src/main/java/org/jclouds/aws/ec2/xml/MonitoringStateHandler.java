@@ -31,7 +31,6 @@ import com.google.common.collect.Maps;
  */
 public class MonitoringStateHandler extends
          ParseSax.HandlerWithResult<Map<String, MonitoringState>> {
-   private StringBuilder currentText = new StringBuilder();
 
    private Map<String, MonitoringState> monitoringState = Maps.newHashMap();
    private String instanceId;
@@ -43,18 +42,14 @@ public class MonitoringStateHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("instanceId")) {
-         instanceId = currentText.toString().trim();
+         instanceId = trimmedText();
       } else if (qName.equals("state")) {
-         state = MonitoringState.fromValue(currentText.toString().trim());
+         state = MonitoringState.fromValue(trimmedText());
       } else if (qName.equals("item")) {
          monitoringState.put(instanceId, state);
          this.instanceId = null;
          this.state = null;
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
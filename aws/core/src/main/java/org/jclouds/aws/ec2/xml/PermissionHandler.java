@@ -33,7 +33,6 @@ import com.google.common.collect.Sets;
  */
 public class PermissionHandler extends ParseSax.HandlerWithResult<Permission> {
 
-   private StringBuilder currentText = new StringBuilder();
    private Set<String> userIds = Sets.newHashSet();
    private Set<String> groups = Sets.newHashSet();
 
@@ -44,14 +43,10 @@ public class PermissionHandler extends ParseSax.HandlerWithResult<Permission> {
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equalsIgnoreCase("group")) {
-         groups.add(currentText.toString().trim());
+         groups.add(trimmedText());
       } else if (qName.equalsIgnoreCase("userId")) {
-         userIds.add(currentText.toString().trim());
+         userIds.add(trimmedText());
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
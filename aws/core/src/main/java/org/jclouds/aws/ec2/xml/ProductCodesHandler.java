@@ -32,7 +32,6 @@ import com.google.common.collect.Sets;
  */
 public class ProductCodesHandler extends ParseSax.HandlerWithResult<Set<String>> {
 
-   private StringBuilder currentText = new StringBuilder();
    private Set<String> productCodes = Sets.newHashSet();
 
    public Set<String> getResult() {
@@ -42,12 +41,8 @@ public class ProductCodesHandler extends ParseSax.HandlerWithResult<Set<String>>
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equalsIgnoreCase("productCode")) {
-         productCodes.add(currentText.toString().trim());
+         productCodes.add(trimmedText());
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -22,25 +22,19 @@ public class RegisterInstancesWithLoadBalancerResponseHandler extends
     protected Logger      logger      = Logger.NULL;
 
     private Set<String>   instanceIds = Sets.newLinkedHashSet();
-    private StringBuilder currentText = new StringBuilder();
    
     
     
     public void endElement(String uri, String localName, String qName)
     {
         if(qName.equals("InstanceId"))
-            instanceIds.add(currentText.toString().trim());
+            instanceIds.add(trimmedText());
         
-        currentText = new StringBuilder();
+        resetText();
     }
     @Override
     public Set<String> getResult()
     {
         return instanceIds;
     }
-
-    public void characters(char ch[], int start, int length)
-    {
-        currentText.append(ch, start, length);
-    }
 }
@@ -34,7 +34,6 @@ import org.jclouds.http.functions.ParseSax;
  * @author Adrian Cole
  */
 public class SnapshotHandler extends ParseSax.HandlerWithResult<Snapshot> {
-   private StringBuilder currentText = new StringBuilder();
 
    protected final DateService dateService;
    protected final String defaultRegion;
@@ -75,32 +74,28 @@ public class SnapshotHandler extends ParseSax.HandlerWithResult<Snapshot> {
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("snapshotId")) {
-         id = currentText.toString().trim();
+         id = trimmedText();
       } else if (qName.equals("volumeId")) {
-         volumeId = currentText.toString().trim();
+         volumeId = trimmedText();
       } else if (qName.equals("volumeSize")) {
-         volumeSize = Integer.parseInt(currentText.toString().trim());
+         volumeSize = textAsInt();
       } else if (qName.equals("status")) {
-         status = Snapshot.Status.fromValue(currentText.toString().trim());
+         status = Snapshot.Status.fromValue(trimmedText());
       } else if (qName.equals("startTime")) {
-         startTime = dateService.iso8601DateParse(currentText.toString().trim());
+         startTime = dateService.iso8601DateParse(trimmedText());
       } else if (qName.equals("progress")) {
-         String progressString = currentText.toString().trim();
+         String progressString = trimmedText();
          if (!progressString.equals("")) {
             progressString = progressString.substring(0, progressString.length() - 1);
             progress = Integer.parseInt(progressString);
          }
       } else if (qName.equals("ownerId")) {
-         ownerId = currentText.toString().trim();
+         ownerId = trimmedText();
       } else if (qName.equals("description")) {
-         description = currentText.toString().trim();
+         description = trimmedText();
       } else if (qName.equals("ownerAlias")) {
-         ownerAlias = currentText.toString().trim();
+         ownerAlias = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -29,7 +29,6 @@ import org.jclouds.http.functions.ParseSax;
 public class StringValueHandler extends
          ParseSax.HandlerWithResult<String> {
 
-   private StringBuilder currentText = new StringBuilder();
    private String value;
 
    public String getResult() {
@@ -38,12 +37,8 @@ public class StringValueHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equalsIgnoreCase("value")) {
-         this.value = currentText.toString().trim();
+         this.value = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -71,6 +71,7 @@ import org.jclouds.blobstore.functions.ThrowKeyNotFoundOn404;
 import org.jclouds.http.functions.ParseETagHeader;
 import org.jclouds.http.options.GetOptions;
 import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Coalesce;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.ExceptionParser;
 import org.jclouds.rest.annotations.Headers;
@@ -139,6 +140,7 @@ public interface S3AsyncClient {
    @HEAD
    @Path("{key}")
    @ExceptionParser(ReturnFalseOnKeyNotFound.class)
+   @Coalesce
    ListenableFuture<Boolean> objectExists(
             @HostPrefixParam @ParamValidators( { BucketNameValidator.class }) String bucketName,
             @PathParam("key") String key);
@@ -192,6 +194,7 @@ public interface S3AsyncClient {
    @Path("/")
    @QueryParams(keys = "max-keys", values = "0")
    @ExceptionParser(ReturnFalseOnContainerNotFound.class)
+   @Coalesce
    ListenableFuture<Boolean> bucketExists(
             @HostPrefixParam @ParamValidators( { BucketNameValidator.class }) String bucketName);
 
@@ -46,6 +46,8 @@ import org.jclouds.aws.s3.domain.ObjectMetadata;
 import org.jclouds.aws.s3.options.ListBucketOptions;
 import org.jclouds.aws.s3.util.S3Utils;
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.attr.BlobCapabilities;
+import org.jclouds.blobstore.attr.BlobCapability;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
@@ -233,6 +235,29 @@ public class S3AsyncBlobStore extends BaseAsyncBlobStore {
       return async.putObject(container, blob2Object.apply(blob));
    }
 
+   /**
+    * This implementation invokes {@link S3AsyncClient#copyObject}, which copies within S3.
+    * 
+    * @param fromContainer
+    *           bucket name of the source
+    * @param fromName
+    *           object key of the source
+    */
+   @Override
+   @BlobCapabilities(BlobCapability.COPY)
+   public ListenableFuture<String> copyBlob(String fromContainer, String fromName,
+            String toContainer, String toName) {
+      return compose(async.copyObject(fromContainer, fromName, toContainer, toName),
+               new Function<ObjectMetadata, String>() {
+
+                  @Override
+                  public String apply(ObjectMetadata from) {
+                     return from.getETag();
+                  }
+
+               }, service);
+   }
+
    /**
     * This implementation invokes {@link S3AsyncClient#deleteObject}
     * 
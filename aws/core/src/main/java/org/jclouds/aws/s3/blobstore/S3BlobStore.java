@@ -39,6 +39,8 @@ import org.jclouds.aws.s3.domain.BucketMetadata;
 import org.jclouds.aws.s3.options.ListBucketOptions;
 import org.jclouds.aws.s3.util.S3Utils;
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.attr.BlobCapabilities;
+import org.jclouds.blobstore.attr.BlobCapability;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
@@ -234,6 +236,20 @@ public class S3BlobStore extends BaseBlobStore {
       return sync.putObject(container, blob2Object.apply(blob));
    }
 
+   /**
+    * This implementation invokes {@link S3Client#copyObject}, which copies within S3.
+    * 
+    * @param fromContainer
+    *           bucket name of the source
+    * @param fromName
+    *           object key of the source
+    */
+   @Override
+   @BlobCapabilities(BlobCapability.COPY)
+   public String copyBlob(String fromContainer, String fromName, String toContainer, String toName) {
+      return sync.copyObject(fromContainer, fromName, toContainer, toName).getETag();
+   }
+
    /**
     * This implementation invokes {@link S3Client#deleteObject}
     * 
@@ -39,7 +39,6 @@ import org.xml.sax.Attributes;
  */
 public class AccessControlListHandler extends ParseSax.HandlerWithResult<AccessControlList> {
    private AccessControlList acl = new AccessControlList();
-   private StringBuilder currentText = new StringBuilder();
 
    public AccessControlListHandler() {
    }
@@ -78,16 +77,12 @@ public class AccessControlListHandler extends ParseSax.HandlerWithResult<AccessC
       }
 
       else if (qName.equals("ID") || qName.equals("EmailAddress") || qName.equals("URI")) {
-         currentId = currentText.toString();
+         currentId = rawText();
       } else if (qName.equals("DisplayName")) {
-         currentDisplayName = currentText.toString();
+         currentDisplayName = rawText();
       } else if (qName.equals("Permission")) {
-         currentPermission = currentText.toString();
+         currentPermission = rawText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -43,7 +43,6 @@ import com.google.common.collect.Sets;
  */
 public class BucketLoggingHandler extends ParseSax.HandlerWithResult<BucketLogging> {
    private Set<Grant> targetGrants = Sets.newHashSet();
-   private StringBuilder currentText = new StringBuilder();
 
    public BucketLogging getResult() {
       if (targetBucket == null)
@@ -68,9 +67,9 @@ public class BucketLoggingHandler extends ParseSax.HandlerWithResult<BucketLoggi
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("TargetBucket")) {
-         this.targetBucket = currentText.toString().trim();
+         this.targetBucket = trimmedText();
       } else if (qName.equals("TargetPrefix")) {
-         this.targetPrefix = currentText.toString().trim();
+         this.targetPrefix = trimmedText();
       } else if (qName.equals("Grantee")) {
          if ("AmazonCustomerByEmail".equals(currentGranteeType)) {
             currentGrantee = new EmailAddressGrantee(currentId);
@@ -82,16 +81,12 @@ public class BucketLoggingHandler extends ParseSax.HandlerWithResult<BucketLoggi
       } else if (qName.equals("Grant")) {
          targetGrants.add(new Grant(currentGrantee, Permission.valueOf(currentPermission)));
       } else if (qName.equals("ID") || qName.equals("EmailAddress") || qName.equals("URI")) {
-         currentId = currentText.toString().trim();
+         currentId = trimmedText();
       } else if (qName.equals("DisplayName")) {
-         currentDisplayName = currentText.toString().trim();
+         currentDisplayName = trimmedText();
       } else if (qName.equals("Permission")) {
-         currentPermission = currentText.toString().trim();
+         currentPermission = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -38,7 +38,6 @@ import org.jclouds.http.functions.ParseSax;
 public class CopyObjectHandler extends ParseSax.HandlerWithResult<ObjectMetadata> {
 
    private CopyObjectResult metadata;
-   private StringBuilder currentText = new StringBuilder();
    @Inject
    private DateService dateParser;
    private Date currentLastModified;
@@ -50,16 +49,12 @@ public class CopyObjectHandler extends ParseSax.HandlerWithResult<ObjectMetadata
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("ETag")) {
-         this.currentETag = currentText.toString().trim();
+         this.currentETag = trimmedText();
       } else if (qName.equals("LastModified")) {
-         this.currentLastModified = dateParser.iso8601DateParse(currentText.toString().trim());
+         this.currentLastModified = dateParser.iso8601DateParse(trimmedText());
       } else if (qName.equals("CopyObjectResult")) {
          metadata = new CopyObjectResult(currentLastModified, currentETag);
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
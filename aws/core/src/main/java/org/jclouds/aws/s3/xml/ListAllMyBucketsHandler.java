@@ -44,7 +44,6 @@ public class ListAllMyBucketsHandler extends ParseSax.HandlerWithResult<SortedSe
 
    private SortedSet<BucketMetadata> buckets = Sets.newTreeSet();
    private CanonicalUser currentOwner;
-   private StringBuilder currentText = new StringBuilder();
 
    private final DateService dateParser;
    private String currentName;
@@ -61,20 +60,16 @@ public class ListAllMyBucketsHandler extends ParseSax.HandlerWithResult<SortedSe
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("ID")) { // owner stuff
-         currentOwner = new CanonicalUser(currentText.toString().trim());
+         currentOwner = new CanonicalUser(trimmedText());
       } else if (qName.equals("DisplayName")) {
-         currentOwner.setDisplayName(currentText.toString().trim());
+         currentOwner.setDisplayName(trimmedText());
       } else if (qName.equals("Bucket")) {
          buckets.add(new BucketMetadata(currentName, currentCreationDate, currentOwner));
       } else if (qName.equals("Name")) {
-         currentName = currentText.toString().trim();
+         currentName = trimmedText();
       } else if (qName.equals("CreationDate")) {
-         currentCreationDate = dateParser.iso8601DateParse(currentText.toString().trim());
+         currentCreationDate = dateParser.iso8601DateParse(trimmedText());
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -51,7 +51,6 @@ public class ListBucketHandler extends ParseSax.HandlerWithResult<ListBucketResp
    private SortedSet<ObjectMetadata> contents;
    private SortedSet<String> commonPrefixes;
    private CanonicalUser currentOwner;
-   private StringBuilder currentText = new StringBuilder();
 
    private final DateService dateParser;
    private final EncryptionService encryptionService;
@@ -93,50 +92,46 @@ public class ListBucketHandler extends ParseSax.HandlerWithResult<ListBucketResp
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("ID")) {
-         currentOwner = new CanonicalUser(currentText.toString().trim());
+         currentOwner = new CanonicalUser(trimmedText());
       } else if (qName.equals("DisplayName")) {
-         currentOwner.setDisplayName(currentText.toString().trim());
+         currentOwner.setDisplayName(trimmedText());
       } else if (qName.equals("Key")) { // content stuff
-         currentKey = currentText.toString().trim();
+         currentKey = trimmedText();
       } else if (qName.equals("LastModified")) {
-         currentLastModified = dateParser.iso8601DateParse(currentText.toString().trim());
+         currentLastModified = dateParser.iso8601DateParse(trimmedText());
       } else if (qName.equals("ETag")) {
-         currentETag = currentText.toString().trim();
+         currentETag = trimmedText();
          currentMD5 = encryptionService.fromHexString(Utils.replaceAll(currentETag,'"', ""));
       } else if (qName.equals("Size")) {
-         currentSize = new Long(currentText.toString().trim());
+         currentSize = textAsLong();
       } else if (qName.equals("Owner")) {
       } else if (qName.equals("StorageClass")) {
-         currentStorageClass = ObjectMetadata.StorageClass.valueOf(currentText.toString().trim());
+         currentStorageClass = ObjectMetadata.StorageClass.valueOf(trimmedText());
       } else if (qName.equals("Contents")) {
          contents.add(new BucketListObjectMetadata(currentKey, currentLastModified, currentETag,
                   currentMD5, currentSize, currentOwner, currentStorageClass));
       } else if (qName.equals("Name")) {
-         this.bucketName = currentText.toString().trim();
+         this.bucketName = trimmedText();
       } else if (qName.equals("Prefix")) {
-         String prefix = currentText.toString().trim();
+         String prefix = trimmedText();
          if (inCommonPrefixes)
             commonPrefixes.add(prefix);
          else
             this.prefix = prefix;
       } else if (qName.equals("Delimiter")) {
-         if (!currentText.toString().equals(""))
-            this.delimiter = currentText.toString().trim();
+         if (rawText().length() != 0)
+            this.delimiter = trimmedText();
       } else if (qName.equals("Marker")) {
-         if (!currentText.toString().equals(""))
-            this.marker = currentText.toString().trim();
+         if (rawText().length() != 0)
+            this.marker = trimmedText();
       } else if (qName.equals("NextMarker")) {
-         if (!currentText.toString().equals(""))
-            this.nextMarker = currentText.toString().trim();
+         if (rawText().length() != 0)
+            this.nextMarker = trimmedText();
       } else if (qName.equals("MaxKeys")) {
-         this.maxResults = Integer.parseInt(currentText.toString().trim());
+         this.maxResults = textAsInt();
       } else if (qName.equals("IsTruncated")) {
-         this.isTruncated = Boolean.parseBoolean(currentText.toString().trim());
+         this.isTruncated = textAsBoolean();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
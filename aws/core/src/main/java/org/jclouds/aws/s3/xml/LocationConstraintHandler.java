@@ -30,7 +30,6 @@ import org.jclouds.http.functions.ParseSax;
  * @author Adrian Cole
  */
 public class LocationConstraintHandler extends ParseSax.HandlerWithResult<String> {
-   private StringBuilder currentText = new StringBuilder();
    private String region;
 
    public String getResult() {
@@ -38,7 +37,7 @@ public class LocationConstraintHandler extends ParseSax.HandlerWithResult<String
    }
 
    public void endElement(String uri, String name, String qName) {
-      region = fromValue(currentText.toString().trim());
+      region = fromValue(trimmedText());
    }
 
    /**
@@ -57,8 +56,4 @@ public class LocationConstraintHandler extends ParseSax.HandlerWithResult<String
          return Region.AP_SOUTHEAST_1;
       throw new IllegalStateException("unimplemented location: " + v);
    }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
 }
@@ -30,7 +30,6 @@ import org.jclouds.http.functions.ParseSax;
  * @author Adrian Cole
  */
 public class PayerHandler extends ParseSax.HandlerWithResult<Payer> {
-   private StringBuilder currentText = new StringBuilder();
    private Payer constraint;
 
    public Payer getResult() {
@@ -38,10 +37,6 @@ public class PayerHandler extends ParseSax.HandlerWithResult<Payer> {
    }
 
    public void endElement(String uri, String name, String qName) {
-      constraint = Payer.fromValue(currentText.toString().trim());
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      constraint = Payer.fromValue(trimmedText());
    }
 }
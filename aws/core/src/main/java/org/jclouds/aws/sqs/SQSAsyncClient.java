@@ -29,19 +29,28 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 
 import org.jclouds.aws.filters.FormSigner;
+import org.jclouds.aws.sqs.binders.BindMessageBodiesToIndexedFormParams;
+import org.jclouds.aws.sqs.binders.BindReceiptHandlesToIndexedFormParams;
+import org.jclouds.aws.sqs.domain.BatchResult;
+import org.jclouds.aws.sqs.domain.Message;
 import org.jclouds.aws.sqs.domain.Queue;
 import org.jclouds.aws.sqs.functions.QueueLocation;
 import org.jclouds.aws.sqs.functions.RegionToEndpoint;
 import org.jclouds.aws.sqs.options.CreateQueueOptions;
 import org.jclouds.aws.sqs.options.ListQueuesOptions;
+import org.jclouds.aws.sqs.options.ReceiveMessageOptions;
+import org.jclouds.aws.sqs.xml.BatchResultHandler;
+import org.jclouds.aws.sqs.xml.ReceiveMessageResponseHandler;
 import org.jclouds.aws.sqs.xml.RegexListQueuesResponseHandler;
 import org.jclouds.aws.sqs.xml.RegexMD5Handler;
 import org.jclouds.aws.sqs.xml.RegexQueueHandler;
+import org.jclouds.rest.annotations.BinderParam;
 import org.jclouds.rest.annotations.EndpointParam;
 import org.jclouds.rest.annotations.FormParams;
 import org.jclouds.rest.annotations.RequestFilters;
 import org.jclouds.rest.annotations.ResponseParser;
 import org.jclouds.rest.annotations.VirtualHost;
+import org.jclouds.rest.annotations.XMLResponseParser;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
@@ -52,16 +61,25 @@ import com.google.common.util.concurrent.ListenableFuture;
  * @author Adrian Cole
  */
 @RequestFilters(FormSigner.class)
-@FormParams(keys = VERSION, values = "2009-02-01")
 @VirtualHost
 public interface SQSAsyncClient {
 
+   /**
+    * API version of the original queue operations
+    */
+   public static final String VERSION_2009_02_01 = "2009-02-01";
+
+   /**
+    * API version of long polling and batch operations
+    */
+   public static final String VERSION_2012_11_05 = "2012-11-05";
+
    /**
     * @see SQSClient#listQueuesInRegion
     */
    @POST
    @Path("/")
-   @FormParams(keys = ACTION, values = "ListQueues")
+   @FormParams(keys = { VERSION, ACTION }, values = { VERSION_2009_02_01, "ListQueues" })
    @ResponseParser(RegexListQueuesResponseHandler.class)
    ListenableFuture<? extends Set<Queue>> listQueuesInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
@@ -72,7 +90,7 @@ public interface SQSAsyncClient {
     */
    @POST
    @Path("/")
-   @FormParams(keys = ACTION, values = "CreateQueue")
+   @FormParams(keys = { VERSION, ACTION }, values = { VERSION_2009_02_01, "CreateQueue" })
    @ResponseParser(RegexQueueHandler.class)
    ListenableFuture<Queue> createQueueInRegion(
             @EndpointParam(parser = RegionToEndpoint.class) @Nullable String region,
@@ -83,7 +101,7 @@ public interface SQSAsyncClient {
     */
    @POST
    @Path("/")
-   @FormParams(keys = ACTION, values = "DeleteQueue")
+   @FormParams(keys = { VERSION, ACTION }, values = { VERSION_2009_02_01, "DeleteQueue" })
    ListenableFuture<Void> deleteQueue(@EndpointParam(parser = QueueLocation.class) Queue queue);
 
    /**
@@ -91,9 +109,51 @@ public interface SQSAsyncClient {
     */
    @POST
    @Path("/")
-   @FormParams(keys = ACTION, values = "SendMessage")
+   @FormParams(keys = { VERSION, ACTION }, values = { VERSION_2009_02_01, "SendMessage" })
    @ResponseParser(RegexMD5Handler.class)
    ListenableFuture<byte[]> sendMessage(@EndpointParam(parser = QueueLocation.class) Queue queue,
             @FormParam("MessageBody") String message);
 
+   /**
+    * @see SQSClient#sendMessages
+    */
+   @POST
+   @Path("/")
+   @FormParams(keys = { VERSION, ACTION }, values = { VERSION_2012_11_05, "SendMessageBatch" })
+   @XMLResponseParser(BatchResultHandler.class)
+   ListenableFuture<BatchResult> sendMessages(
+            @EndpointParam(parser = QueueLocation.class) Queue queue,
+            @BinderParam(BindMessageBodiesToIndexedFormParams.class) String... messages);
+
+   /**
+    * @see SQSClient#receiveMessages
+    */
+   @POST
+   @Path("/")
+   @FormParams(keys = { VERSION, ACTION }, values = { VERSION_2012_11_05, "ReceiveMessage" })
+   @XMLResponseParser(ReceiveMessageResponseHandler.class)
+   ListenableFuture<? extends Set<Message>> receiveMessages(
+            @EndpointParam(parser = QueueLocation.class) Queue queue,
+            ReceiveMessageOptions... options);
+
+   /**
+    * @see SQSClient#deleteMessage
+    */
+   @POST
+   @Path("/")
+   @FormParams(keys = { VERSION, ACTION }, values = { VERSION_2012_11_05, "DeleteMessage" })
+   ListenableFuture<Void> deleteMessage(@EndpointParam(parser = QueueLocation.class) Queue queue,
+            @FormParam("ReceiptHandle") String receiptHandle);
+
+   /**
+    * @see SQSClient#deleteMessages
+    */
+   @POST
+   @Path("/")
+   @FormParams(keys = { VERSION, ACTION }, values = { VERSION_2012_11_05, "DeleteMessageBatch" })
+   @XMLResponseParser(BatchResultHandler.class)
+   ListenableFuture<BatchResult> deleteMessages(
+            @EndpointParam(parser = QueueLocation.class) Queue queue,
+            @BinderParam(BindReceiptHandlesToIndexedFormParams.class) String... receiptHandles);
+
 }
@@ -23,9 +23,12 @@ import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nullable;
 
+import org.jclouds.aws.sqs.domain.BatchResult;
+import org.jclouds.aws.sqs.domain.Message;
 import org.jclouds.aws.sqs.domain.Queue;
 import org.jclouds.aws.sqs.options.CreateQueueOptions;
 import org.jclouds.aws.sqs.options.ListQueuesOptions;
+import org.jclouds.aws.sqs.options.ReceiveMessageOptions;
 import org.jclouds.concurrent.Timeout;
 
 /**
@@ -125,4 +128,50 @@ public interface SQSClient {
     * @return md5 of the content sent
     */
    byte[] sendMessage(Queue queue, String message);
+
+   /**
+    * The SendMessageBatch action delivers up to ten messages to the specified queue in one
+    * request. Each message is subject to the same limits as {@link #sendMessage}.
+    * 
+    * @param queue
+    *           queue you want to send to
+    * @param messages
+    *           1 to 10 messages; entries in the result are identified by their position here
+    */
+   BatchResult sendMessages(Queue queue, String... messages);
+
+   /**
+    * The ReceiveMessage action retrieves up to ten messages from the queue. Returned messages are
+    * hidden from other receives until their visibility timeout passes or they are deleted.
+    * <p/>
+    * With {@link ReceiveMessageOptions#waitTimeSeconds}, a receive on an empty queue waits for
+    * messages to arrive instead of returning an empty set right away.
+    * 
+    * @param queue
+    *           queue you want to receive from
+    * @param options
+    *           number of messages, visibility timeout, or how long to wait for messages
+    * @return messages received, or an empty set if none were available
+    */
+   Set<Message> receiveMessages(Queue queue, ReceiveMessageOptions... options);
+
+   /**
+    * The DeleteMessage action deletes a received message from the queue.
+    * 
+    * @param queue
+    *           queue the message was received from
+    * @param receiptHandle
+    *           {@link Message#getReceiptHandle} of the receipt
+    */
+   void deleteMessage(Queue queue, String receiptHandle);
+
+   /**
+    * The DeleteMessageBatch action deletes up to ten received messages in one request.
+    * 
+    * @param queue
+    *           queue the messages were received from
+    * @param receiptHandles
+    *           1 to 10 receipt handles; entries in the result are identified by their position here
+    */
+   BatchResult deleteMessages(Queue queue, String... receiptHandles);
 }
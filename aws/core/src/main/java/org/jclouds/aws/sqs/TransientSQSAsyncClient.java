@@ -0,0 +1,341 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jclouds.aws.domain.Region;
+import org.jclouds.aws.sqs.domain.BatchResult;
+import org.jclouds.aws.sqs.domain.Message;
+import org.jclouds.aws.sqs.domain.Queue;
+import org.jclouds.aws.sqs.options.CreateQueueOptions;
+import org.jclouds.aws.sqs.options.ListQueuesOptions;
+import org.jclouds.aws.sqs.options.ReceiveMessageOptions;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.encryption.EncryptionService;
+import org.jclouds.rest.ResourceNotFoundException;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.NamingThreadFactory;
+
+/**
+ * Implementation of {@link SQSAsyncClient} which keeps all queues in memory. Useful for measuring
+ * producers and consumers without the network.
+ * <p/>
+ * Receipts honor visibility timeouts, and receives with a wait time park until a message arrives
+ * or the wait passes.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class TransientSQSAsyncClient implements SQSAsyncClient, Closeable {
+   public static final int DEFAULT_VISIBILITY_TIMEOUT = 30;
+
+   private final EncryptionService encryptionService;
+   private final ScheduledExecutorService scheduler;
+   private final ConcurrentMap<URI, TransientQueue> queues = new MapMaker().makeMap();
+
+   @Inject
+   public TransientSQSAsyncClient(EncryptionService encryptionService) {
+      this(encryptionService, Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory(
+               "transient sqs %d")));
+   }
+
+   public TransientSQSAsyncClient(EncryptionService encryptionService,
+            ScheduledExecutorService scheduler) {
+      this.encryptionService = checkNotNull(encryptionService, "encryptionService");
+      this.scheduler = checkNotNull(scheduler, "scheduler");
+   }
+
+   @Override
+   public ListenableFuture<? extends Set<Queue>> listQueuesInRegion(String region,
+            ListQueuesOptions... options) {
+      String prefix = options.length > 0 ? options[0].getRestorableBy() : null;
+      Set<Queue> result = Sets.newLinkedHashSet();
+      for (TransientQueue queue : queues.values())
+         if (queue.queue.getRegion().equals(regionOrDefault(region))
+                  && (prefix == null || queue.queue.getName().startsWith(prefix)))
+            result.add(queue.queue);
+      return immediateFuture(result);
+   }
+
+   @Override
+   public ListenableFuture<Queue> createQueueInRegion(String region, String queueName,
+            CreateQueueOptions... options) {
+      region = regionOrDefault(region);
+      Queue queue = new Queue(region, checkNotNull(queueName, "queueName"), URI.create("https://sqs."
+               + region + ".amazonaws.com/000000000000/" + queueName));
+      int visibilityTimeout = options.length > 0 && options[0].getRestorableBy() != null ? Integer
+               .parseInt(options[0].getRestorableBy()) : DEFAULT_VISIBILITY_TIMEOUT;
+      queues.putIfAbsent(queue.getLocation(), new TransientQueue(queue, visibilityTimeout));
+      return immediateFuture(queue);
+   }
+
+   @Override
+   public ListenableFuture<Void> deleteQueue(Queue queue) {
+      TransientQueue deleted = queues.remove(queue.getLocation());
+      if (deleted != null)
+         deleted.drainWaiting();
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<byte[]> sendMessage(Queue queue, String message) {
+      TransientQueue transientQueue = queues.get(queue.getLocation());
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      return immediateFuture(encryptionService.fromHexString(transientQueue.add(message)));
+   }
+
+   @Override
+   public ListenableFuture<BatchResult> sendMessages(Queue queue, String... messages) {
+      TransientQueue transientQueue = queues.get(queue.getLocation());
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      Set<Integer> successful = Sets.newLinkedHashSet();
+      for (int i = 0; i < messages.length; i++) {
+         transientQueue.add(messages[i]);
+         successful.add(i);
+      }
+      return immediateFuture(new BatchResult(successful, ImmutableMap.<Integer, String> of()));
+   }
+
+   @Override
+   public ListenableFuture<? extends Set<Message>> receiveMessages(Queue queue,
+            ReceiveMessageOptions... options) {
+      TransientQueue transientQueue = queues.get(queue.getLocation());
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      ReceiveMessageOptions receive = options.length > 0 ? options[0]
+               : new ReceiveMessageOptions();
+      int max = receive.getMaxNumberOfMessages() != null ? receive.getMaxNumberOfMessages() : 1;
+      int visibilityTimeout = receive.getVisibilityTimeout() != null ? receive
+               .getVisibilityTimeout() : transientQueue.visibilityTimeout;
+      int waitTimeSeconds = receive.getWaitTimeSeconds() != null ? receive.getWaitTimeSeconds()
+               : 0;
+      return transientQueue.receive(max, visibilityTimeout, waitTimeSeconds);
+   }
+
+   @Override
+   public ListenableFuture<Void> deleteMessage(Queue queue, String receiptHandle) {
+      TransientQueue transientQueue = queues.get(queue.getLocation());
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      transientQueue.delete(receiptHandle);
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<BatchResult> deleteMessages(Queue queue, String... receiptHandles) {
+      TransientQueue transientQueue = queues.get(queue.getLocation());
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      Set<Integer> successful = Sets.newLinkedHashSet();
+      for (int i = 0; i < receiptHandles.length; i++) {
+         transientQueue.delete(receiptHandles[i]);
+         successful.add(i);
+      }
+      return immediateFuture(new BatchResult(successful, ImmutableMap.<Integer, String> of()));
+   }
+
+   /**
+    * number of messages in the queue, whether visible or not
+    */
+   public int size(Queue queue) {
+      TransientQueue transientQueue = queues.get(queue.getLocation());
+      return transientQueue == null ? 0 : transientQueue.size();
+   }
+
+   @Override
+   public void close() {
+      scheduler.shutdownNow();
+      for (TransientQueue queue : queues.values())
+         queue.drainWaiting();
+   }
+
+   private static String regionOrDefault(String region) {
+      return region != null ? region : Region.US_EAST_1;
+   }
+
+   private static ResourceNotFoundException notFound(Queue queue) {
+      return new ResourceNotFoundException("queue not found: " + queue.getLocation());
+   }
+
+   private static class StoredMessage {
+      private final String id = UUID.randomUUID().toString();
+      private final String body;
+      private final String md5;
+
+      StoredMessage(String body, String md5) {
+         this.body = body;
+         this.md5 = md5;
+      }
+   }
+
+   private static class Receipt implements Comparable<Receipt> {
+      private final String handle = UUID.randomUUID().toString();
+      private final StoredMessage message;
+      private final long visibleAt;
+
+      Receipt(StoredMessage message, long visibleAt) {
+         this.message = message;
+         this.visibleAt = visibleAt;
+      }
+
+      @Override
+      public int compareTo(Receipt o) {
+         return visibleAt < o.visibleAt ? -1 : visibleAt == o.visibleAt ? 0 : 1;
+      }
+   }
+
+   private static class WaitingReceive {
+      private final int max;
+      private final int visibilityTimeout;
+      private final SettableListenableFuture<Set<Message>> future = new SettableListenableFuture<Set<Message>>();
+
+      WaitingReceive(int max, int visibilityTimeout) {
+         this.max = max;
+         this.visibilityTimeout = visibilityTimeout;
+      }
+   }
+
+   /**
+    * Futures are completed outside the lock, as their listeners may well call back in.
+    */
+   private class TransientQueue {
+      private final Queue queue;
+      private final int visibilityTimeout;
+      private final LinkedList<StoredMessage> visible = Lists.newLinkedList();
+      private final Map<String, Receipt> inFlight = Maps.newHashMap();
+      // deleted receipts are dropped from here lazily, once their visibility timeout passes
+      private final PriorityQueue<Receipt> byVisibleAt = new PriorityQueue<Receipt>();
+      private final LinkedList<WaitingReceive> waiting = Lists.newLinkedList();
+
+      TransientQueue(Queue queue, int visibilityTimeout) {
+         this.queue = queue;
+         this.visibilityTimeout = visibilityTimeout;
+      }
+
+      String add(String body) {
+         StoredMessage message = new StoredMessage(checkNotNull(body, "message"),
+                  encryptionService.toHexString(encryptionService.md5(body.getBytes())));
+         WaitingReceive handed = null;
+         Set<Message> received = null;
+         synchronized (this) {
+            visible.add(message);
+            if (!waiting.isEmpty()) {
+               handed = waiting.removeFirst();
+               received = take(handed.max, handed.visibilityTimeout);
+            }
+         }
+         if (handed != null)
+            handed.future.set(received);
+         return message.md5;
+      }
+
+      ListenableFuture<Set<Message>> receive(int max, int visibilityTimeout, int waitTimeSeconds) {
+         final WaitingReceive waiter;
+         synchronized (this) {
+            Set<Message> received = take(max, visibilityTimeout);
+            if (received.size() > 0 || waitTimeSeconds == 0)
+               return immediateFuture(received);
+            waiter = new WaitingReceive(max, visibilityTimeout);
+            waiting.add(waiter);
+         }
+         scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+               boolean expired;
+               synchronized (TransientQueue.this) {
+                  expired = waiting.remove(waiter);
+               }
+               if (expired)
+                  waiter.future.set(Collections.<Message> emptySet());
+            }
+         }, waitTimeSeconds, TimeUnit.SECONDS);
+         return waiter.future;
+      }
+
+      synchronized void delete(String receiptHandle) {
+         inFlight.remove(receiptHandle);
+      }
+
+      synchronized int size() {
+         return visible.size() + inFlight.size();
+      }
+
+      void drainWaiting() {
+         List<WaitingReceive> drained;
+         synchronized (this) {
+            drained = Lists.newArrayList(waiting);
+            waiting.clear();
+         }
+         for (WaitingReceive waiter : drained)
+            waiter.future.set(Collections.<Message> emptySet());
+      }
+
+      /**
+       * must hold the lock
+       */
+      private Set<Message> take(int max, int visibilityTimeout) {
+         long now = System.currentTimeMillis();
+         while (!byVisibleAt.isEmpty() && byVisibleAt.peek().visibleAt <= now) {
+            Receipt receipt = byVisibleAt.poll();
+            if (inFlight.remove(receipt.handle) != null)
+               visible.addFirst(receipt.message);
+         }
+         if (visible.isEmpty())
+            return ImmutableSet.of();
+         Set<Message> received = Sets.newLinkedHashSet();
+         while (received.size() < max && !visible.isEmpty()) {
+            StoredMessage message = visible.removeFirst();
+            Receipt receipt = new Receipt(message, now + visibilityTimeout * 1000l);
+            inFlight.put(receipt.handle, receipt);
+            byVisibleAt.add(receipt);
+            received.add(new Message(message.id, receipt.handle, message.md5, message.body));
+         }
+         return received;
+      }
+   }
+}
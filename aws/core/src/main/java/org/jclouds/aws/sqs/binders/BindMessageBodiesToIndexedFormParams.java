@@ -0,0 +1,56 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.binders;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.rest.Binder;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+
+/**
+ * Binds the String [] of message bodies to SendMessageBatchRequestEntry.index form parameters. Each entry's Id is
+ * its position in the array, starting at 0.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class BindMessageBodiesToIndexedFormParams implements Binder {
+
+   public void bindToRequest(HttpRequest request, Object input) {
+      checkArgument(checkNotNull(request, "request") instanceof GeneratedHttpRequest,
+               "this binder is only valid for GeneratedHttpRequests!");
+      checkArgument(checkNotNull(input, "input") instanceof String[],
+               "this binder is only valid for String[] : " + input.getClass());
+      String[] values = (String[]) input;
+      checkArgument(values.length >= 1 && values.length <= 10,
+               "a batch holds between 1 and 10 entries");
+      GeneratedHttpRequest<?> generatedRequest = (GeneratedHttpRequest<?>) request;
+      for (int i = 0; i < values.length; i++) {
+         String prefix = "SendMessageBatchRequestEntry." + (i + 1);
+         generatedRequest.addFormParam(prefix + ".Id", i + "");
+         generatedRequest.addFormParam(prefix + ".MessageBody", checkNotNull(values[i],
+                  "messageBodies[" + i + "]"));
+      }
+   }
+
+}
@@ -0,0 +1,83 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.domain;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Outcome of a batch request. Entries are identified by their position in the batch, starting at
+ * 0.
+ * 
+ * @see <a href="http://docs.amazonwebservices.com/AWSSimpleQueueService/latest/APIReference/Query_QuerySendMessageBatch.html"
+ *      />
+ * @author Adrian Cole
+ */
+public class BatchResult {
+   private final Set<Integer> successful;
+   private final Map<Integer, String> failed;
+
+   public BatchResult(Set<Integer> successful, Map<Integer, String> failed) {
+      this.successful = ImmutableSet.copyOf(checkNotNull(successful, "successful"));
+      this.failed = ImmutableMap.copyOf(checkNotNull(failed, "failed"));
+   }
+
+   public Set<Integer> getSuccessful() {
+      return successful;
+   }
+
+   /**
+    * error code and message of each entry that failed
+    */
+   public Map<Integer, String> getFailed() {
+      return failed;
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + failed.hashCode();
+      result = prime * result + successful.hashCode();
+      return result;
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (obj == null)
+         return false;
+      if (getClass() != obj.getClass())
+         return false;
+      BatchResult other = (BatchResult) obj;
+      return failed.equals(other.failed) && successful.equals(other.successful);
+   }
+
+   @Override
+   public String toString() {
+      return "BatchResult [successful=" + successful + ", failed=" + failed + "]";
+   }
+
+}
@@ -0,0 +1,102 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.domain;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A message received from a queue.
+ * 
+ * @see <a href="http://docs.amazonwebservices.com/AWSSimpleQueueService/latest/APIReference/Query_QueryReceiveMessage.html"
+ *      />
+ * @author Adrian Cole
+ */
+public class Message {
+   private final String id;
+   private final String receiptHandle;
+   private final String md5OfBody;
+   private final String body;
+
+   public Message(String id, String receiptHandle, String md5OfBody, String body) {
+      this.id = checkNotNull(id, "id");
+      this.receiptHandle = checkNotNull(receiptHandle, "receiptHandle");
+      this.md5OfBody = md5OfBody;
+      this.body = checkNotNull(body, "body");
+   }
+
+   public String getId() {
+      return id;
+   }
+
+   /**
+    * identifies this receipt of the message; needed to delete it or change its visibility
+    */
+   public String getReceiptHandle() {
+      return receiptHandle;
+   }
+
+   /**
+    * hex encoded md5 of the body
+    */
+   public String getMD5OfBody() {
+      return md5OfBody;
+   }
+
+   public String getBody() {
+      return body;
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((id == null) ? 0 : id.hashCode());
+      result = prime * result + ((receiptHandle == null) ? 0 : receiptHandle.hashCode());
+      return result;
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (obj == null)
+         return false;
+      if (getClass() != obj.getClass())
+         return false;
+      Message other = (Message) obj;
+      if (id == null) {
+         if (other.id != null)
+            return false;
+      } else if (!id.equals(other.id))
+         return false;
+      if (receiptHandle == null) {
+         if (other.receiptHandle != null)
+            return false;
+      } else if (!receiptHandle.equals(other.receiptHandle))
+         return false;
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "Message [id=" + id + ", md5OfBody=" + md5OfBody + ", receiptHandle=" + receiptHandle
+               + "]";
+   }
+
+}
@@ -0,0 +1,123 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.options;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.jclouds.http.options.BaseHttpRequestOptions;
+
+/**
+ * Contains options supported in the Form API for the ReceiveMessage operation. <h2>
+ * Usage</h2> The recommended way to instantiate a ReceiveMessageOptions object is to statically
+ * import ReceiveMessageOptions.Builder.* and invoke a static creation method followed by an
+ * instance mutator (if needed):
+ * <p/>
+ * <code>
+ * import static org.jclouds.aws.sqs.options.ReceiveMessageOptions.Builder.*
+ * <p/>
+ * SQSClient connection = // get connection
+ * Set<Message> messages = connection.receiveMessages(queue, maxNumberOfMessages(10).waitTimeSeconds(20));
+ * <code>
+ * 
+ * @author Adrian Cole
+ * @see <a
+ *      href="http://docs.amazonwebservices.com/AWSSimpleQueueService/latest/APIReference/Query_QueryReceiveMessage.html"
+ *      />
+ */
+public class ReceiveMessageOptions extends BaseHttpRequestOptions {
+
+   /**
+    * @param max
+    *           maximum number of messages to return, 1 to 10; Default: 1
+    */
+   public ReceiveMessageOptions maxNumberOfMessages(int max) {
+      checkArgument(max >= 1 && max <= 10, "maxNumberOfMessages must be between 1 and 10");
+      formParameters.put("MaxNumberOfMessages", max + "");
+      return this;
+   }
+
+   public Integer getMaxNumberOfMessages() {
+      return intOrNull(getFirstFormOrNull("MaxNumberOfMessages"));
+   }
+
+   /**
+    * @param seconds
+    *           how long the returned messages stay hidden from other receives; Default: the
+    *           queue's visibility timeout
+    */
+   public ReceiveMessageOptions visibilityTimeout(int seconds) {
+      checkArgument(seconds >= 0 && seconds <= 43200,
+               "visibilityTimeout must be between 0 and 43200 seconds");
+      formParameters.put("VisibilityTimeout", seconds + "");
+      return this;
+   }
+
+   public Integer getVisibilityTimeout() {
+      return intOrNull(getFirstFormOrNull("VisibilityTimeout"));
+   }
+
+   /**
+    * Long polling: when the queue is empty, the receive waits up to this many seconds for a
+    * message to arrive instead of returning immediately.
+    * 
+    * @param seconds
+    *           0 to 20; Default: 0
+    */
+   public ReceiveMessageOptions waitTimeSeconds(int seconds) {
+      checkArgument(seconds >= 0 && seconds <= 20, "waitTimeSeconds must be between 0 and 20");
+      formParameters.put("WaitTimeSeconds", seconds + "");
+      return this;
+   }
+
+   public Integer getWaitTimeSeconds() {
+      return intOrNull(getFirstFormOrNull("WaitTimeSeconds"));
+   }
+
+   private static Integer intOrNull(String value) {
+      return value == null ? null : Integer.valueOf(value);
+   }
+
+   public static class Builder {
+
+      /**
+       * @see ReceiveMessageOptions#maxNumberOfMessages(int )
+       */
+      public static ReceiveMessageOptions maxNumberOfMessages(int max) {
+         ReceiveMessageOptions options = new ReceiveMessageOptions();
+         return options.maxNumberOfMessages(max);
+      }
+
+      /**
+       * @see ReceiveMessageOptions#visibilityTimeout(int )
+       */
+      public static ReceiveMessageOptions visibilityTimeout(int seconds) {
+         ReceiveMessageOptions options = new ReceiveMessageOptions();
+         return options.visibilityTimeout(seconds);
+      }
+
+      /**
+       * @see ReceiveMessageOptions#waitTimeSeconds(int )
+       */
+      public static ReceiveMessageOptions waitTimeSeconds(int seconds) {
+         ReceiveMessageOptions options = new ReceiveMessageOptions();
+         return options.waitTimeSeconds(seconds);
+      }
+
+   }
+}
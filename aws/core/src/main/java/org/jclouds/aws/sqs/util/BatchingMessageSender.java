@@ -0,0 +1,222 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Resource;
+
+import org.jclouds.aws.sqs.SQSAsyncClient;
+import org.jclouds.aws.sqs.domain.BatchResult;
+import org.jclouds.aws.sqs.domain.Queue;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.logging.Logger;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Groups messages sent to the same queue into SendMessageBatch requests.
+ * <p/>
+ * A batch is sent as soon as it holds {@link #MAX_BATCH_SIZE} messages or
+ * {@link #MAX_BATCH_BYTES}, or when the linger window that started with its first message closes.
+ * A longer linger fills more batches under light load, at the price of latency.
+ * <p/>
+ * A message's future only succeeds once the response lists it as sent.
+ * 
+ * @author Adrian Cole
+ */
+public class BatchingMessageSender implements Closeable {
+   public static final int MAX_BATCH_SIZE = 10;
+   public static final int MAX_BATCH_BYTES = 64 * 1024;
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   private final SQSAsyncClient client;
+   private final long lingerMillis;
+   private final ScheduledExecutorService scheduler;
+   private final Map<Queue, Batch> open = Maps.newHashMap();
+
+   /**
+    * @param scheduler
+    *           closes linger windows; it is not shut down on close
+    */
+   public BatchingMessageSender(SQSAsyncClient client, ScheduledExecutorService scheduler,
+            long linger, TimeUnit unit) {
+      this.client = checkNotNull(client, "client");
+      this.scheduler = checkNotNull(scheduler, "scheduler");
+      this.lingerMillis = unit.toMillis(linger);
+   }
+
+   /**
+    * @return a future that completes once the batch holding this message has been accepted
+    * @throws IllegalArgumentException
+    *            if the message alone is larger than {@link #MAX_BATCH_BYTES}
+    */
+   public ListenableFuture<Void> send(Queue queue, String message) {
+      PendingMessage pending = new PendingMessage(checkNotNull(message, "message"));
+      checkArgument(pending.bytes <= MAX_BATCH_BYTES, "message of %s bytes is larger than %s",
+               pending.bytes, MAX_BATCH_BYTES);
+      List<Batch> ready = Lists.newArrayListWithCapacity(2);
+      Batch started = null;
+      synchronized (open) {
+         Batch batch = open.get(checkNotNull(queue, "queue"));
+         if (batch != null && batch.bytes + pending.bytes > MAX_BATCH_BYTES) {
+            ready.add(open.remove(queue));
+            batch = null;
+         }
+         if (batch == null) {
+            batch = started = new Batch(queue);
+            open.put(queue, batch);
+         }
+         batch.add(pending);
+         if (batch.messages.size() == MAX_BATCH_SIZE) {
+            open.remove(queue);
+            ready.add(batch);
+            started = null;
+         }
+      }
+      for (Batch batch : ready)
+         send(batch);
+      if (started != null)
+         lingerThenSend(started);
+      return pending.future;
+   }
+
+   /**
+    * sends every open batch now
+    */
+   public void flush() {
+      List<Batch> batches;
+      synchronized (open) {
+         batches = Lists.newArrayList(open.values());
+         open.clear();
+      }
+      for (Batch batch : batches)
+         send(batch);
+   }
+
+   /**
+    * sends what is left
+    */
+   @Override
+   public void close() {
+      flush();
+   }
+
+   private void lingerThenSend(final Batch batch) {
+      Runnable sendIfStillOpen = new Runnable() {
+         @Override
+         public void run() {
+            synchronized (open) {
+               if (open.get(batch.queue) != batch)
+                  return;
+               open.remove(batch.queue);
+            }
+            send(batch);
+         }
+      };
+      try {
+         scheduler.schedule(sendIfStillOpen, lingerMillis, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+         // the scheduler is shut down, so nothing would close the window
+         sendIfStillOpen.run();
+      }
+   }
+
+   private void send(final Batch batch) {
+      String[] bodies = new String[batch.messages.size()];
+      for (int i = 0; i < bodies.length; i++)
+         bodies[i] = batch.messages.get(i).body;
+      logger.trace(">> sending batch of %d to %s", bodies.length, batch.queue.getName());
+      final ListenableFuture<BatchResult> response;
+      try {
+         response = client.sendMessages(batch.queue, bodies);
+      } catch (RuntimeException e) {
+         batch.fail(e);
+         return;
+      }
+      response.addListener(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               BatchResult result = response.get();
+               for (int i = 0; i < batch.messages.size(); i++) {
+                  if (result.getSuccessful().contains(i))
+                     batch.messages.get(i).future.set(null);
+                  else
+                     batch.messages.get(i).future.setException(new IllegalStateException(String
+                              .format("message %d of batch to %s not sent: %s", i, batch.queue
+                                       .getName(), result.getFailed().containsKey(i) ? result
+                                       .getFailed().get(i) : "missing from the response")));
+               }
+            } catch (ExecutionException e) {
+               batch.fail(e.getCause());
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               batch.fail(e);
+            }
+         }
+      }, sameThreadExecutor());
+   }
+
+   private static class PendingMessage {
+      private final String body;
+      private final int bytes;
+      private final SettableListenableFuture<Void> future = new SettableListenableFuture<Void>();
+
+      PendingMessage(String body) {
+         this.body = body;
+         this.bytes = body.getBytes(Charsets.UTF_8).length;
+      }
+   }
+
+   private static class Batch {
+      private final Queue queue;
+      private final List<PendingMessage> messages = Lists.newArrayListWithCapacity(MAX_BATCH_SIZE);
+      private int bytes;
+
+      Batch(Queue queue) {
+         this.queue = queue;
+      }
+
+      void add(PendingMessage message) {
+         messages.add(message);
+         bytes += message.bytes;
+      }
+
+      void fail(Throwable cause) {
+         for (PendingMessage message : messages)
+            message.future.setException(cause);
+      }
+   }
+}
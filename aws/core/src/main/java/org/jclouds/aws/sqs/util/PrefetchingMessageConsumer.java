@@ -0,0 +1,104 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.jclouds.aws.sqs.options.ReceiveMessageOptions.Builder.maxNumberOfMessages;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jclouds.aws.sqs.SQSAsyncClient;
+import org.jclouds.aws.sqs.domain.BatchResult;
+import org.jclouds.aws.sqs.domain.Message;
+import org.jclouds.aws.sqs.domain.Queue;
+import org.jclouds.aws.sqs.options.ReceiveMessageOptions;
+import org.jclouds.concurrent.PrefetchingConsumer;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Keeps a fixed number of receives in flight against one SQS queue and hands each message to a
+ * worker. By default, each receive asks for 10 messages and waits up to 20 seconds for them.
+ * <p/>
+ * The messages a handler accepts in one receive are deleted with a single DeleteMessageBatch.
+ * 
+ * @see PrefetchingConsumer
+ * @author Adrian Cole
+ */
+public class PrefetchingMessageConsumer extends PrefetchingConsumer<Message> {
+
+   public PrefetchingMessageConsumer(SQSAsyncClient client, Queue queue,
+            Predicate<Message> handler, Executor workers, ScheduledExecutorService scheduler,
+            int receivesInFlight, ReceiveMessageOptions options) {
+      super(checkNotNull(queue, "queue").getName(), receive(checkNotNull(client, "client"),
+               queue, checkNotNull(options, "options")), delete(client, queue), handler, workers,
+               scheduler, receivesInFlight, options.getMaxNumberOfMessages() != null ? options
+                        .getMaxNumberOfMessages() : 1, options.getWaitTimeSeconds() != null
+                        && options.getWaitTimeSeconds() > 0);
+   }
+
+   public PrefetchingMessageConsumer(SQSAsyncClient client, Queue queue,
+            Predicate<Message> handler, Executor workers, ScheduledExecutorService scheduler,
+            int receivesInFlight) {
+      this(client, queue, handler, workers, scheduler, receivesInFlight, maxNumberOfMessages(10)
+               .waitTimeSeconds(20));
+   }
+
+   @Override
+   public PrefetchingMessageConsumer start() {
+      super.start();
+      return this;
+   }
+
+   private static Supplier<ListenableFuture<? extends Set<Message>>> receive(
+            final SQSAsyncClient client, final Queue queue, final ReceiveMessageOptions options) {
+      return new Supplier<ListenableFuture<? extends Set<Message>>>() {
+         @Override
+         public ListenableFuture<? extends Set<Message>> get() {
+            return client.receiveMessages(queue, options);
+         }
+      };
+   }
+
+   private static Function<List<Message>, ListenableFuture<Integer>> delete(
+            final SQSAsyncClient client, final Queue queue) {
+      return new Function<List<Message>, ListenableFuture<Integer>>() {
+         @Override
+         public ListenableFuture<Integer> apply(List<Message> accepted) {
+            String[] receiptHandles = new String[accepted.size()];
+            for (int i = 0; i < receiptHandles.length; i++)
+               receiptHandles[i] = accepted.get(i).getReceiptHandle();
+            return Futures.compose(client.deleteMessages(queue, receiptHandles),
+                     new Function<BatchResult, Integer>() {
+                        @Override
+                        public Integer apply(BatchResult result) {
+                           return result.getSuccessful().size();
+                        }
+                     });
+         }
+      };
+   }
+}
@@ -0,0 +1,67 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.xml;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.jclouds.aws.sqs.domain.BatchResult;
+import org.jclouds.http.functions.ParseSax;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Parses the response of SendMessageBatch or DeleteMessageBatch.
+ * 
+ * @see <a href="http://docs.amazonwebservices.com/AWSSimpleQueueService/latest/APIReference/Query_QuerySendMessageBatch.html"
+ *      />
+ * @author Adrian Cole
+ */
+public class BatchResultHandler extends ParseSax.HandlerWithResult<BatchResult> {
+
+   private Set<Integer> successful = Sets.newLinkedHashSet();
+   private Map<Integer, String> failed = Maps.newLinkedHashMap();
+
+   private Integer id;
+   private String code;
+   private String message;
+
+   public BatchResult getResult() {
+      return new BatchResult(successful, failed);
+   }
+
+   public void endElement(String uri, String name, String qName) {
+      if (qName.equals("Id")) {
+         id = textAsInt();
+      } else if (qName.equals("Code")) {
+         code = trimmedText();
+      } else if (qName.equals("Message")) {
+         message = trimmedText();
+      } else if (qName.equals("BatchResultErrorEntry")) {
+         failed.put(id, message == null ? code : code + ": " + message);
+         id = null;
+         code = message = null;
+      } else if (qName.endsWith("BatchResultEntry")) {
+         successful.add(id);
+         id = null;
+      }
+      resetText();
+   }
+}
@@ -31,7 +31,6 @@ import org.jclouds.http.functions.ParseSax;
  */
 public class MD5Handler extends ParseSax.HandlerWithResult<byte[]> {
 
-   private StringBuilder currentText = new StringBuilder();
    byte[] md5;
 
    private final EncryptionService encryptionService;
@@ -47,13 +46,9 @@ public class MD5Handler extends ParseSax.HandlerWithResult<byte[]> {
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("MD5OfMessageBody")) {
-         String md5Hex = currentText.toString().trim();
+         String md5Hex = trimmedText();
          this.md5 = encryptionService.fromHexString(md5Hex);
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
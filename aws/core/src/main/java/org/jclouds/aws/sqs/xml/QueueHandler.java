@@ -39,7 +39,6 @@ import com.google.common.collect.ImmutableBiMap;
  */
 public class QueueHandler extends ParseSax.HandlerWithResult<Queue> {
 
-   private StringBuilder currentText = new StringBuilder();
    Queue queue;
 
    private final ImmutableBiMap<String, URI> regionBiMap;
@@ -58,17 +57,13 @@ public class QueueHandler extends ParseSax.HandlerWithResult<Queue> {
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equals("QueueUrl")) {
-         String uriText = currentText.toString().trim();
+         String uriText = trimmedText();
          String queueName = uriText.substring(uriText.lastIndexOf('/') + 1);
          URI location = URI.create(uriText);
          URI regionURI = uriBuilderProvider.get().uri(location).replacePath("").build();
          String region = regionBiMap.inverse().get(regionURI);
          this.queue = new Queue(region, queueName, location);
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -0,0 +1,74 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.xml;
+
+import java.util.Set;
+
+import org.jclouds.aws.sqs.domain.Message;
+import org.jclouds.http.functions.ParseSax;
+import org.xml.sax.Attributes;
+
+import com.google.common.collect.Sets;
+
+/**
+ * 
+ * @see <a href="http://docs.amazonwebservices.com/AWSSimpleQueueService/latest/APIReference/Query_QueryReceiveMessage.html"
+ *      />
+ * @author Adrian Cole
+ */
+public class ReceiveMessageResponseHandler extends ParseSax.HandlerWithResult<Set<Message>> {
+
+   private Set<Message> messages = Sets.newLinkedHashSet();
+   private boolean inAttribute;
+
+   private String id;
+   private String receiptHandle;
+   private String md5OfBody;
+   private String body;
+
+   public Set<Message> getResult() {
+      return messages;
+   }
+
+   @Override
+   public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      if (qName.equals("Attribute"))
+         inAttribute = true;
+   }
+
+   public void endElement(String uri, String name, String qName) {
+      if (inAttribute) {
+         if (qName.equals("Attribute"))
+            inAttribute = false;
+      } else if (qName.equals("MessageId")) {
+         id = trimmedText();
+      } else if (qName.equals("ReceiptHandle")) {
+         receiptHandle = trimmedText();
+      } else if (qName.equals("MD5OfBody")) {
+         md5OfBody = trimmedText();
+      } else if (qName.equals("Body")) {
+         // the body is significant whitespace included
+         body = rawText();
+      } else if (qName.equals("Message")) {
+         messages.add(new Message(id, receiptHandle, md5OfBody, body));
+         id = receiptHandle = md5OfBody = body = null;
+      }
+      resetText();
+   }
+}
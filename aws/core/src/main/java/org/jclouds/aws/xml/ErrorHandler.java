@@ -32,7 +32,6 @@ import org.jclouds.http.functions.ParseSax;
 public class ErrorHandler extends ParseSax.HandlerWithResult<AWSError> {
 
    private AWSError error = new AWSError();
-   private StringBuilder currentText = new StringBuilder();
 
    public AWSError getResult() {
       return error;
@@ -41,18 +40,14 @@ public class ErrorHandler extends ParseSax.HandlerWithResult<AWSError> {
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equals("Code")) {
-         error.setCode(currentText.toString().trim());
+         error.setCode(trimmedText());
       } else if (qName.equals("Message")) {
-         error.setMessage(currentText.toString().trim());
+         error.setMessage(trimmedText());
       } else if (qName.equalsIgnoreCase("RequestId")) {
-         error.setRequestId(currentText.toString().trim());
+         error.setRequestId(trimmedText());
       } else if (!qName.equals("Error")) {
-         error.getDetails().put(qName, currentText.toString().trim());
+         error.getDetails().put(qName, trimmedText());
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -20,6 +20,7 @@ package org.jclouds.aws.ec2.compute.functions;
 
 import static org.easymock.EasyMock.expect;
 import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.createNiceMock;
 import static org.easymock.classextension.EasyMock.replay;
 import static org.easymock.classextension.EasyMock.verify;
 import static org.jclouds.aws.ec2.options.DescribeImagesOptions.Builder.imageIds;
@@ -116,7 +117,7 @@ public class RunningInstanceToNodeMetadataTest {
 
       RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
                credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
-               new RunningInstanceToStorageMappingUnix());
+               new RunningInstanceToStorageMappingUnix(), createNiceMock(ImageParser.class), 600);
 
       NodeMetadata metadata = parser.apply(instance);
       assertEquals(metadata.getLocation(), locations.iterator().next());
@@ -177,7 +178,7 @@ public class RunningInstanceToNodeMetadataTest {
 
       RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
                credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
-               new RunningInstanceToStorageMappingUnix());
+               new RunningInstanceToStorageMappingUnix(), createNiceMock(ImageParser.class), 600);
 
       NodeMetadata metadata = parser.apply(instance);
       assertEquals(metadata.getLocation(), locations.iterator().next());
@@ -241,7 +242,7 @@ public class RunningInstanceToNodeMetadataTest {
 
       RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
                credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
-               new RunningInstanceToStorageMappingUnix());
+               new RunningInstanceToStorageMappingUnix(), createNiceMock(ImageParser.class), 600);
 
       NodeMetadata metadata = parser.apply(instance);
       assertEquals(metadata.getLocation(), locations.iterator().next());
@@ -302,7 +303,7 @@ public class RunningInstanceToNodeMetadataTest {
 
       RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
                credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
-               new RunningInstanceToStorageMappingUnix());
+               new RunningInstanceToStorageMappingUnix(), createNiceMock(ImageParser.class), 600);
 
       NodeMetadata metadata = parser.apply(instance);
       assertEquals(metadata.getLocation(), locations.iterator().next());
@@ -361,7 +362,7 @@ public class RunningInstanceToNodeMetadataTest {
 
       RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
                credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
-               new RunningInstanceToStorageMappingUnix());
+               new RunningInstanceToStorageMappingUnix(), createNiceMock(ImageParser.class), 600);
 
       NodeMetadata metadata = parser.apply(instance);
       assertEquals(metadata.getLocation(), locations.iterator().next());
@@ -432,7 +433,7 @@ public class RunningInstanceToNodeMetadataTest {
 
       RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
                credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
-               new RunningInstanceToStorageMappingUnix());
+               new RunningInstanceToStorageMappingUnix(), createNiceMock(ImageParser.class), 600);
       NodeMetadata metadata = parser.apply(instance);
 
       assertEquals(metadata.getTag(), "tag");
@@ -505,7 +506,7 @@ public class RunningInstanceToNodeMetadataTest {
 
       RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
                credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
-               new RunningInstanceToStorageMappingUnix());
+               new RunningInstanceToStorageMappingUnix(), createNiceMock(ImageParser.class), 600);
 
       NodeMetadata metadata = parser.apply(instance);
 
@@ -524,4 +525,137 @@ public class RunningInstanceToNodeMetadataTest {
       verify(instance);
 
    }
+
+   @SuppressWarnings("unchecked")
+   @Test
+   public void testMissingImageIsOnlyLookedUpOnce() throws UnknownHostException {
+      EC2Client client = createMock(EC2Client.class);
+      Map<RegionAndName, KeyPair> credentialsMap = createMock(Map.class);
+      org.jclouds.compute.domain.Image jcImage = createMock(org.jclouds.compute.domain.Image.class);
+      ConcurrentMap<RegionAndName, org.jclouds.compute.domain.Image> imageMap = createMock(ConcurrentMap.class);
+
+      Location location = new LocationImpl(LocationScope.ZONE, "us-east-1a", "description", null);
+      Set<Location> locations = ImmutableSet.<Location> of(location);
+      PopulateDefaultLoginCredentialsForImageStrategy credentialProvider = createMock(PopulateDefaultLoginCredentialsForImageStrategy.class);
+      RunningInstance instance = createMock(RunningInstance.class);
+
+      expect(instance.getId()).andReturn("id").atLeastOnce();
+      expect(instance.getGroupIds()).andReturn(ImmutableSet.<String> of()).atLeastOnce();
+      expect(instance.getKeyName()).andReturn(null).atLeastOnce();
+      expect(instance.getInstanceState()).andReturn(InstanceState.RUNNING).atLeastOnce();
+      expect(instance.getIpAddress()).andReturn("127.0.0.1").atLeastOnce();
+      expect(instance.getPrivateIpAddress()).andReturn("127.0.0.1").atLeastOnce();
+      expect(instance.getAvailabilityZone()).andReturn(AvailabilityZone.US_EAST_1A).atLeastOnce();
+      expect(instance.getImageId()).andReturn("imageId").atLeastOnce();
+      expect(instance.getRegion()).andReturn("us-east-1").atLeastOnce();
+      expect(instance.getInstanceType()).andReturn(InstanceType.C1_XLARGE).atLeastOnce();
+      expect(jcImage.getProviderId()).andReturn("notImageId").atLeastOnce();
+
+      expect(imageMap.get(new RegionAndName("us-east-1", "imageId"))).andThrow(
+               new NullPointerException()).once();
+
+      replay(imageMap);
+      replay(jcImage);
+      replay(client);
+      replay(credentialsMap);
+      replay(credentialProvider);
+      replay(instance);
+
+      RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
+               credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
+               new RunningInstanceToStorageMappingUnix(), createNiceMock(ImageParser.class), 600);
+
+      assertEquals(parser.apply(instance).getImage(), null);
+      assertEquals(parser.apply(instance).getImage(), null);
+
+      verify(imageMap);
+      verify(jcImage);
+      verify(client);
+      verify(credentialsMap);
+      verify(credentialProvider);
+      verify(instance);
+   }
+
+   @SuppressWarnings("unchecked")
+   @Test
+   public void testConvertAllDescribesUnknownImagesOnceForTheListing()
+            throws UnknownHostException {
+      EC2Client client = createMock(EC2Client.class);
+      AMIClient amiClient = createMock(AMIClient.class);
+      expect(client.getAMIServices()).andReturn(amiClient).once();
+      Map<RegionAndName, KeyPair> credentialsMap = createMock(Map.class);
+      ConcurrentMap<RegionAndName, org.jclouds.compute.domain.Image> imageMap = createMock(ConcurrentMap.class);
+      ImageParser imageParser = createMock(ImageParser.class);
+
+      PopulateDefaultLoginCredentialsForImageStrategy credentialProvider = createMock(PopulateDefaultLoginCredentialsForImageStrategy.class);
+      Image image = createMock(Image.class);
+      org.jclouds.compute.domain.Image jcImage = createMock(org.jclouds.compute.domain.Image.class);
+      org.jclouds.compute.domain.Image lateImage = createMock(org.jclouds.compute.domain.Image.class);
+
+      Location location = new LocationImpl(LocationScope.ZONE, "us-east-1a", "description", null);
+      Set<Location> locations = ImmutableSet.<Location> of(location);
+      RegionAndName key = new RegionAndName(Region.US_EAST_1, "imageId");
+
+      RunningInstance instance1 = createMock(RunningInstance.class);
+      RunningInstance instance2 = createMock(RunningInstance.class);
+      for (RunningInstance instance : ImmutableSet.of(instance1, instance2)) {
+         expect(instance.getId()).andReturn("id").anyTimes();
+         expect(instance.getGroupIds()).andReturn(ImmutableSet.of("jclouds#tag")).atLeastOnce();
+         expect(instance.getKeyName()).andReturn("jclouds#keyName").atLeastOnce();
+         expect(instance.getInstanceState()).andReturn(InstanceState.RUNNING);
+         expect(instance.getIpAddress()).andReturn("127.0.0.1");
+         expect(instance.getPrivateIpAddress()).andReturn("127.0.0.1");
+         expect(instance.getRegion()).andReturn(Region.US_EAST_1).atLeastOnce();
+         expect(instance.getImageId()).andReturn("imageId").atLeastOnce();
+         expect(instance.getAvailabilityZone()).andReturn(AvailabilityZone.US_EAST_1A)
+                  .atLeastOnce();
+         expect(instance.getInstanceType()).andReturn(InstanceType.C1_XLARGE).atLeastOnce();
+      }
+      expect(jcImage.getProviderId()).andReturn("notImageId").atLeastOnce();
+      expect(image.getId()).andReturn("imageId").atLeastOnce();
+
+      expect(imageMap.containsKey(key)).andReturn(false).atLeastOnce();
+      expect(amiClient.describeImagesInRegion(Region.US_EAST_1, imageIds("imageId"))).andReturn(
+               ImmutableSet.<Image> of(image)).once();
+      expect(credentialProvider.execute(image)).andReturn(new Credentials("user", "pass"))
+               .once();
+      expect(imageParser.apply(image)).andReturn(lateImage).once();
+      expect(imageMap.putIfAbsent(key, lateImage)).andReturn(null).once();
+      expect(imageMap.get(key)).andReturn(lateImage).times(2);
+      expect(credentialsMap.get(new RegionAndName(Region.US_EAST_1, "jclouds#keyName")))
+               .andReturn(new KeyPair(Region.US_EAST_1, "jclouds#keyName", "keyFingerprint",
+                        "pass")).times(2);
+
+      replay(imageMap);
+      replay(imageParser);
+      replay(client);
+      replay(amiClient);
+      replay(credentialsMap);
+      replay(credentialProvider);
+      replay(instance1);
+      replay(instance2);
+      replay(image);
+      replay(jcImage);
+      replay(lateImage);
+
+      RunningInstanceToNodeMetadata parser = new RunningInstanceToNodeMetadata(client,
+               credentialsMap, credentialProvider, new ImageProvider(jcImage), imageMap, locations,
+               new RunningInstanceToStorageMappingUnix(), imageParser, 600);
+
+      for (NodeMetadata metadata : parser.convertAll(ImmutableSet.of(instance1, instance2))) {
+         assertEquals(metadata.getTag(), "tag");
+         assertEquals(metadata.getLocation(), location);
+         assertEquals(metadata.getImage(), lateImage);
+         assertEquals(metadata.getCredentials(), new Credentials("user", "pass"));
+      }
+
+      verify(imageMap);
+      verify(imageParser);
+      verify(client);
+      verify(amiClient);
+      verify(credentialsMap);
+      verify(credentialProvider);
+      verify(instance1);
+      verify(instance2);
+   }
 }
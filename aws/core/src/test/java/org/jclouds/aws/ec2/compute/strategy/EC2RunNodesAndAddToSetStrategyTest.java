@@ -42,6 +42,7 @@ import org.jclouds.aws.ec2.services.InstanceClient;
 import org.jclouds.compute.domain.Image;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.util.BootstrapStatistics;
 import org.jclouds.compute.util.ComputeUtils;
 import org.jclouds.domain.Location;
 import org.jclouds.domain.LocationScope;
@@ -132,7 +133,8 @@ public class EC2RunNodesAndAddToSetStrategyTest {
             strategy.utils
                   .runOptionsOnNodesAndAddToGoodSetOrPutExceptionIntoBadMap(
                         eq(input.options), containsNodeMetadata(nodeMetadata),
-                        eq(input.nodes), eq(input.badNodes))).andReturn(null);
+                        eq(input.nodes), eq(input.badNodes), eq(input.statistics)))
+            .andReturn(null);
 
       // replay mocks
       replay(instanceClient);
@@ -144,7 +146,7 @@ public class EC2RunNodesAndAddToSetStrategyTest {
 
       // run
       strategy.execute(input.tag, input.count, input.template, input.nodes,
-            input.badNodes);
+            input.badNodes, input.statistics);
 
       // verify mocks
       verify(instanceClient);
@@ -170,6 +172,7 @@ public class EC2RunNodesAndAddToSetStrategyTest {
       Template template = createMock(Template.class);
       Set<NodeMetadata> nodes = createMock(Set.class);
       Map<NodeMetadata, Exception> badNodes = createMock(Map.class);
+      BootstrapStatistics statistics = new BootstrapStatistics();
       EC2Size size = createMock(EC2Size.class);
       Image image = createMock(Image.class);
       final Location location;
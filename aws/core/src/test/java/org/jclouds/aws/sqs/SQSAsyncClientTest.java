@@ -20,11 +20,13 @@ package org.jclouds.aws.sqs;
 
 import static com.google.common.base.Predicates.equalTo;
 import static com.google.common.base.Predicates.not;
+import static org.jclouds.aws.sqs.options.ReceiveMessageOptions.Builder.maxNumberOfMessages;
 import static org.testng.Assert.assertEquals;
 
 import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.net.URI;
 import java.util.Properties;
 
 import javax.inject.Named;
@@ -32,12 +34,18 @@ import javax.inject.Named;
 import org.jclouds.aws.domain.Region;
 import org.jclouds.aws.filters.FormSigner;
 import org.jclouds.aws.sqs.config.SQSRestClientModule;
+import org.jclouds.aws.sqs.domain.Queue;
 import org.jclouds.aws.sqs.options.CreateQueueOptions;
 import org.jclouds.aws.sqs.options.ListQueuesOptions;
+import org.jclouds.aws.sqs.options.ReceiveMessageOptions;
 import org.jclouds.aws.sqs.reference.SQSConstants;
+import org.jclouds.aws.sqs.xml.BatchResultHandler;
+import org.jclouds.aws.sqs.xml.ReceiveMessageResponseHandler;
 import org.jclouds.aws.sqs.xml.RegexListQueuesResponseHandler;
 import org.jclouds.aws.sqs.xml.RegexQueueHandler;
 import org.jclouds.date.DateService;
+import org.jclouds.http.functions.CloseContentAndReturn;
+import org.jclouds.http.functions.ParseSax;
 import org.jclouds.logging.config.NullLoggingModule;
 import org.jclouds.rest.RestClientTest;
 import org.jclouds.rest.internal.GeneratedHttpRequest;
@@ -166,6 +174,73 @@ public class SQSAsyncClientTest extends RestClientTest<SQSAsyncClient> {
       }
    }
 
+   Queue queue = new Queue(Region.US_EAST_1, "queue", URI
+            .create("https://sqs.us-east-1.amazonaws.com/993194456877/queue"));
+
+   public void testSendMessages() throws SecurityException, NoSuchMethodException, IOException {
+      Method method = SQSAsyncClient.class.getMethod("sendMessages", Queue.class, String[].class);
+      GeneratedHttpRequest<SQSAsyncClient> httpMethod = processor.createRequest(method, queue,
+               "hello", "world");
+
+      assertPayloadEquals(
+               httpMethod,
+               "Version=2012-11-05&Action=SendMessageBatch&SendMessageBatchRequestEntry.1.Id=0&SendMessageBatchRequestEntry.1.MessageBody=hello&SendMessageBatchRequestEntry.2.Id=1&SendMessageBatchRequestEntry.2.MessageBody=world");
+
+      assertResponseParserClassEquals(method, httpMethod, ParseSax.class);
+      assertSaxResponseParserClassEquals(method, BatchResultHandler.class);
+      assertExceptionParserClassEquals(method, null);
+
+      checkFilters(httpMethod);
+   }
+
+   public void testReceiveMessages() throws SecurityException, NoSuchMethodException,
+            IOException {
+      Method method = SQSAsyncClient.class.getMethod("receiveMessages", Queue.class, Array
+               .newInstance(ReceiveMessageOptions.class, 0).getClass());
+      GeneratedHttpRequest<SQSAsyncClient> httpMethod = processor.createRequest(method, queue,
+               maxNumberOfMessages(10).waitTimeSeconds(20));
+
+      assertPayloadEquals(httpMethod,
+               "Version=2012-11-05&Action=ReceiveMessage&MaxNumberOfMessages=10&WaitTimeSeconds=20");
+
+      assertResponseParserClassEquals(method, httpMethod, ParseSax.class);
+      assertSaxResponseParserClassEquals(method, ReceiveMessageResponseHandler.class);
+      assertExceptionParserClassEquals(method, null);
+
+      checkFilters(httpMethod);
+   }
+
+   public void testDeleteMessage() throws SecurityException, NoSuchMethodException, IOException {
+      Method method = SQSAsyncClient.class.getMethod("deleteMessage", Queue.class, String.class);
+      GeneratedHttpRequest<SQSAsyncClient> httpMethod = processor.createRequest(method, queue,
+               "handle");
+
+      assertPayloadEquals(httpMethod, "Version=2012-11-05&Action=DeleteMessage&ReceiptHandle=handle");
+
+      assertResponseParserClassEquals(method, httpMethod, CloseContentAndReturn.class);
+      assertSaxResponseParserClassEquals(method, null);
+      assertExceptionParserClassEquals(method, null);
+
+      checkFilters(httpMethod);
+   }
+
+   public void testDeleteMessages() throws SecurityException, NoSuchMethodException, IOException {
+      Method method = SQSAsyncClient.class.getMethod("deleteMessages", Queue.class,
+               String[].class);
+      GeneratedHttpRequest<SQSAsyncClient> httpMethod = processor.createRequest(method, queue,
+               "handle");
+
+      assertPayloadEquals(
+               httpMethod,
+               "Version=2012-11-05&Action=DeleteMessageBatch&DeleteMessageBatchRequestEntry.1.Id=0&DeleteMessageBatchRequestEntry.1.ReceiptHandle=handle");
+
+      assertResponseParserClassEquals(method, httpMethod, ParseSax.class);
+      assertSaxResponseParserClassEquals(method, BatchResultHandler.class);
+      assertExceptionParserClassEquals(method, null);
+
+      checkFilters(httpMethod);
+   }
+
    @Override
    protected void checkFilters(GeneratedHttpRequest<SQSAsyncClient> httpMethod) {
       assertEquals(httpMethod.getFilters().size(), 1);
@@ -0,0 +1,96 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.jclouds.aws.sqs.options.ReceiveMessageOptions.Builder.maxNumberOfMessages;
+import static org.jclouds.aws.sqs.options.ReceiveMessageOptions.Builder.visibilityTimeout;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jclouds.aws.domain.Region;
+import org.jclouds.aws.sqs.domain.Message;
+import org.jclouds.aws.sqs.domain.Queue;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests behavior of {@code TransientSQSAsyncClient}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "sqs.TransientSQSAsyncClientTest")
+public class TransientSQSAsyncClientTest {
+   private TransientSQSAsyncClient client;
+   private Queue queue;
+
+   @BeforeMethod
+   void setUp() throws Exception {
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+      replay(scheduler);
+      client = new TransientSQSAsyncClient(new JCEEncryptionService(), scheduler);
+      queue = client.createQueueInRegion(Region.US_EAST_1, "queue").get();
+   }
+
+   public void testSendReceiveDelete() throws Exception {
+      client.sendMessages(queue, "1", "2", "3").get();
+
+      Set<Message> received = client.receiveMessages(queue, maxNumberOfMessages(2)).get();
+      assertEquals(received.size(), 2);
+      assertEquals(Iterables.get(received, 0).getBody(), "1");
+      assertEquals(Iterables.get(received, 0).getMD5OfBody(), "c4ca4238a0b923820dcc509a6f75849b");
+
+      // received messages are hidden until their visibility timeout passes
+      received = client.receiveMessages(queue, maxNumberOfMessages(10)).get();
+      assertEquals(received.size(), 1);
+      assertEquals(Iterables.getOnlyElement(received).getBody(), "3");
+
+      client.deleteMessage(queue, Iterables.getOnlyElement(received).getReceiptHandle()).get();
+      assertEquals(client.size(queue), 2);
+   }
+
+   public void testExpiredVisibilityTimeoutRedelivers() throws Exception {
+      client.sendMessage(queue, "1").get();
+      Message first = Iterables.getOnlyElement(client.receiveMessages(queue,
+               visibilityTimeout(0)).get());
+      Message second = Iterables.getOnlyElement(client.receiveMessages(queue).get());
+      assertEquals(second.getId(), first.getId());
+      assertFalse(second.getReceiptHandle().equals(first.getReceiptHandle()));
+   }
+
+   public void testLongPollCompletesOnSend() throws Exception {
+      ListenableFuture<? extends Set<Message>> waiting = client.receiveMessages(queue,
+               maxNumberOfMessages(10).waitTimeSeconds(20));
+      assertFalse(waiting.isDone());
+
+      client.sendMessage(queue, "1").get();
+
+      assertTrue(waiting.isDone());
+      assertEquals(Iterables.getOnlyElement(waiting.get()).getBody(), "1");
+   }
+}
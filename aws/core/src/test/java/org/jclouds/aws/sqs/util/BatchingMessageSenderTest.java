@@ -0,0 +1,140 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.aws.domain.Region;
+import org.jclouds.aws.sqs.TransientSQSAsyncClient;
+import org.jclouds.aws.sqs.domain.BatchResult;
+import org.jclouds.aws.sqs.domain.Queue;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests behavior of {@code BatchingMessageSender}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "sqs.BatchingMessageSenderTest")
+public class BatchingMessageSenderTest {
+   private TransientSQSAsyncClient client;
+   private ScheduledExecutorService scheduler;
+   private Queue queue;
+
+   @BeforeMethod
+   void setUp() throws Exception {
+      client = new TransientSQSAsyncClient(new JCEEncryptionService());
+      scheduler = Executors.newSingleThreadScheduledExecutor();
+      queue = client.createQueueInRegion(Region.US_EAST_1, "queue").get();
+   }
+
+   @AfterMethod
+   void tearDown() {
+      client.close();
+      scheduler.shutdownNow();
+   }
+
+   public void testFullBatchesAreSentWithoutWaitingForTheLinger() throws Exception {
+      BatchingMessageSender sender = new BatchingMessageSender(client, scheduler, 1, TimeUnit.HOURS);
+      try {
+         List<ListenableFuture<Void>> sends = Lists.newArrayList();
+         for (int i = 0; i < 25; i++)
+            sends.add(sender.send(queue, i + ""));
+
+         assertEquals(client.size(queue), 20);
+         assertTrue(sends.get(19).isDone());
+         assertFalse(sends.get(20).isDone());
+
+         sender.flush();
+         assertEquals(client.size(queue), 25);
+         assertTrue(sends.get(24).isDone());
+      } finally {
+         sender.close();
+      }
+   }
+
+   public void testPartialBatchIsSentAfterTheLinger() throws Exception {
+      BatchingMessageSender sender = new BatchingMessageSender(client, scheduler, 10,
+               TimeUnit.MILLISECONDS);
+      try {
+         sender.send(queue, "1").get(5, TimeUnit.SECONDS);
+         assertEquals(client.size(queue), 1);
+      } finally {
+         sender.close();
+      }
+   }
+
+   public void testMessagesMissingFromTheResponseFail() throws Exception {
+      TransientSQSAsyncClient lossy = new TransientSQSAsyncClient(new JCEEncryptionService()) {
+         @Override
+         public ListenableFuture<BatchResult> sendMessages(Queue queue, String... messages) {
+            // only the first entry is listed, as successful; the second is in neither list
+            return Futures.immediateFuture(new BatchResult(ImmutableSet.of(0), ImmutableMap
+                     .<Integer, String> of()));
+         }
+      };
+      BatchingMessageSender sender = new BatchingMessageSender(lossy, scheduler, 1, TimeUnit.HOURS);
+      try {
+         ListenableFuture<Void> sent = sender.send(queue, "0");
+         ListenableFuture<Void> missing = sender.send(queue, "1");
+         sender.flush();
+
+         sent.get();
+         try {
+            missing.get();
+            assert false : "should have failed";
+         } catch (ExecutionException e) {
+            assert e.getCause() instanceof IllegalStateException : e.getCause();
+         }
+      } finally {
+         sender.close();
+         lossy.close();
+      }
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testMessageLargerThanABatchIsRejected() {
+      char[] tooBig = new char[BatchingMessageSender.MAX_BATCH_BYTES + 1];
+      Arrays.fill(tooBig, 'a');
+      BatchingMessageSender sender = new BatchingMessageSender(client, scheduler, 1, TimeUnit.HOURS);
+      try {
+         sender.send(queue, new String(tooBig));
+      } finally {
+         sender.close();
+      }
+   }
+}
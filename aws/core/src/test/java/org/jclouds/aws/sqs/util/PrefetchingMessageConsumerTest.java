@@ -0,0 +1,87 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.util;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.jclouds.aws.sqs.options.ReceiveMessageOptions.Builder.maxNumberOfMessages;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jclouds.aws.domain.Region;
+import org.jclouds.aws.sqs.TransientSQSAsyncClient;
+import org.jclouds.aws.sqs.domain.Message;
+import org.jclouds.aws.sqs.domain.Queue;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Sets;
+
+/**
+ * Tests that {@code PrefetchingMessageConsumer} receives and deletes through SQS. The prefetching
+ * itself is covered by {@code PrefetchingConsumerTest}.
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "sqs.PrefetchingMessageConsumerTest")
+public class PrefetchingMessageConsumerTest {
+   private TransientSQSAsyncClient client;
+   private ScheduledExecutorService scheduler;
+   private Queue queue;
+
+   @BeforeMethod
+   void setUp() throws Exception {
+      client = new TransientSQSAsyncClient(new JCEEncryptionService());
+      scheduler = Executors.newSingleThreadScheduledExecutor();
+      queue = client.createQueueInRegion(Region.US_EAST_1, "queue").get();
+      for (int i = 0; i < 5; i++)
+         client.sendMessages(queue, "0", "1", "2", "3", "4", "5", "6", "7", "8", "9").get();
+   }
+
+   @AfterMethod
+   void tearDown() {
+      client.close();
+      scheduler.shutdownNow();
+   }
+
+   public void testAcceptedMessagesAreDeleted() throws Exception {
+      final Set<String> seen = Collections.synchronizedSet(Sets.<String> newHashSet());
+      PrefetchingMessageConsumer consumer = new PrefetchingMessageConsumer(client, queue,
+               new Predicate<Message>() {
+                  @Override
+                  public boolean apply(Message input) {
+                     seen.add(input.getId());
+                     return true;
+                  }
+               }, sameThreadExecutor(), scheduler, 2, maxNumberOfMessages(10)).start();
+      consumer.close();
+
+      assertEquals(seen.size(), 50);
+      assertEquals(consumer.getReceivedCount(), 50);
+      assertEquals(consumer.getProcessedCount(), 50);
+      assertEquals(consumer.getDeletedCount(), 50);
+      assertEquals(client.size(queue), 0);
+   }
+}
@@ -0,0 +1,50 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.xml;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.InputStream;
+
+import org.jclouds.aws.sqs.domain.BatchResult;
+import org.jclouds.http.functions.BaseHandlerTest;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests behavior of {@code BatchResultHandler}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "sqs.BatchResultHandlerTest")
+public class BatchResultHandlerTest extends BaseHandlerTest {
+
+   public void testApplyInputStream() {
+      InputStream is = getClass().getResourceAsStream("/sqs/send_message_batch.xml");
+
+      BatchResult expected = new BatchResult(ImmutableSet.of(0, 2), ImmutableMap.of(1,
+               "InvalidMessageContents: Message contains invalid characters"));
+
+      BatchResult result = factory.create(injector.getInstance(BatchResultHandler.class))
+               .parse(is);
+      assertEquals(result, expected);
+   }
+}
@@ -0,0 +1,55 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.sqs.xml;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.InputStream;
+import java.util.Set;
+
+import org.jclouds.aws.sqs.domain.Message;
+import org.jclouds.http.functions.BaseHandlerTest;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Tests behavior of {@code ReceiveMessageResponseHandler}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "sqs.ReceiveMessageResponseHandlerTest")
+public class ReceiveMessageResponseHandlerTest extends BaseHandlerTest {
+
+   public void testApplyInputStream() {
+      InputStream is = getClass().getResourceAsStream("/sqs/receive_message.xml");
+
+      Set<Message> result = factory.create(
+               injector.getInstance(ReceiveMessageResponseHandler.class)).parse(is);
+
+      assertEquals(result.size(), 1);
+      Message message = Iterables.getOnlyElement(result);
+      assertEquals(message.getId(), "5fea7756-0ea4-451a-a703-a558b933e274");
+      assertEquals(
+               message.getReceiptHandle(),
+               "MbZj6wDWli+JvwwJaBV+3dcjk2YW2vA3+STFFljTM8tJJg6HRG6PYSasuWXPJB+CwLj1FjgXUv1uSj1gUPAWV66FU/WeR4mq2OKpEGYWbnLmpRCJVAyeMjeU5ZBdtcQ+QEauMZc8ZRv37sIW2iJKq3M9MFx1YvV11A2x/KSbkJ0=");
+      assertEquals(message.getMD5OfBody(), "fafb00f5732ab283681e124bf8747ed1");
+      assertEquals(message.getBody(), "This is a test message");
+   }
+}
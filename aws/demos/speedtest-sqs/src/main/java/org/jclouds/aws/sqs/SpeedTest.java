@@ -20,20 +20,32 @@ package org.jclouds.aws.sqs;
 
 import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
 import static org.jclouds.aws.sqs.options.ListQueuesOptions.Builder.queuePrefix;
+import static org.jclouds.aws.sqs.options.ReceiveMessageOptions.Builder.maxNumberOfMessages;
 import static org.jclouds.concurrent.ConcurrentUtils.awaitCompletion;
 
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.jclouds.aws.domain.Region;
+import org.jclouds.aws.sqs.domain.Message;
 import org.jclouds.aws.sqs.domain.Queue;
+import org.jclouds.aws.sqs.util.BatchingMessageSender;
+import org.jclouds.aws.sqs.util.PrefetchingMessageConsumer;
+import org.jclouds.encryption.internal.JCEEncryptionService;
 import org.jclouds.enterprise.config.EnterpriseConfigurationModule;
 import org.jclouds.logging.ConsoleLogger;
 import org.jclouds.logging.Logger;
 import org.jclouds.logging.config.NullLoggingModule;
 import org.jclouds.rest.RestContext;
 
+import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -44,6 +56,10 @@ import com.google.common.util.concurrent.ListenableFuture;
  * 
  * Usage is: java org.jclouds.aws.sqs.SpeedTest \"accesskeyid\" \"secretkey\" \"queueName\"
  * \"messageCount\"
+ * <p/>
+ * Each queue gets two runs: single message sends, then an end-to-end run where batched sends are
+ * drained by a prefetching consumer. Set the system property {@code jclouds.sqs.transient} to run
+ * against an in-memory queue instead of amazon.
  * 
  * @author Adrian Cole
  */
@@ -51,6 +67,9 @@ public class SpeedTest {
    private static final ImmutableSet<String> REGIONS = ImmutableSet.of(Region.EU_WEST_1,
             Region.US_EAST_1, Region.US_WEST_1, Region.AP_SOUTHEAST_1);
    public static final int PARAMETERS = 4;
+   public static final int CONSUMER_THREADS = 8;
+   public static final int RECEIVES_IN_FLIGHT = 4;
+   public static final long SEND_LINGER_MILLIS = 10;
    public static final String INVALID_SYNTAX = "Invalid number of parameters. Syntax is: \"accesskeyid\" \"secretkey\"  \"queueName\" \"messageCount\" ";
 
    private static final Logger logger = Logger.CONSOLE;
@@ -69,35 +88,49 @@ public class SpeedTest {
 
    };
 
-   public static void main(String[] args) throws InterruptedException {
+   public static void main(String[] args) throws InterruptedException, ExecutionException {
 
       if (args.length < PARAMETERS)
          throw new IllegalArgumentException(INVALID_SYNTAX);
 
       boolean isEnterprise = System.getProperties().containsKey("jclouds.enterprise");
+      boolean isTransient = System.getProperties().containsKey("jclouds.sqs.transient");
       // Args
       String accesskeyid = args[0];
       String secretkey = args[1];
       String queueName = args[2];
       int messageCount = Integer.parseInt(args[3]);
 
-      RestContext<SQSClient, SQSAsyncClient> context = isEnterprise ? SQSContextFactory
-               .createContext(accesskeyid, secretkey, new NullLoggingModule(),
-                        new EnterpriseConfigurationModule()) : SQSContextFactory.createContext(
-               accesskeyid, secretkey, new NullLoggingModule());
+      RestContext<SQSClient, SQSAsyncClient> context = null;
+      TransientSQSAsyncClient transientClient = null;
+      SQSAsyncClient client;
+      String contextName;
+      if (isTransient) {
+         client = transientClient = new TransientSQSAsyncClient(new JCEEncryptionService());
+         contextName = "transient";
+      } else {
+         context = isEnterprise ? SQSContextFactory.createContext(accesskeyid, secretkey,
+                  new NullLoggingModule(), new EnterpriseConfigurationModule()) : SQSContextFactory
+                  .createContext(accesskeyid, secretkey, new NullLoggingModule());
+         client = context.getAsyncApi();
+         contextName = isEnterprise ? "enterprise" : "default";
+      }
 
       try {
          Set<Queue> queues = Sets.newHashSet();
-         if (purgeQueues(queueName, context)) {
+         if (purgeQueues(queueName, client) && !isTransient) {
             logger.info("pausing 60 seconds before recreating queues");
             Thread.sleep(60 * 1000);
          }
-         createQueues(queueName, context, queues);
-         runTests(messageCount, isEnterprise ? "enterprise" : "default", context, queues);
+         createQueues(queueName, client, queues);
+         runTests(messageCount, contextName, client, queues);
       } finally {
-         purgeQueues(queueName, context);
+         purgeQueues(queueName, client);
          // Close connectons
-         context.close();
+         if (context != null)
+            context.close();
+         if (transientClient != null)
+            transientClient.close();
          System.exit(0);
       }
 
@@ -118,9 +151,8 @@ public class SpeedTest {
       }
    }
 
-   private static void runTests(int messageCount, String contextName,
-            RestContext<SQSClient, SQSAsyncClient> context, Set<Queue> queues)
-            throws InterruptedException {
+   private static void runTests(int messageCount, String contextName, SQSAsyncClient client,
+            Set<Queue> queues) throws InterruptedException {
       String message = "1";
       long timeOut = messageCount * 200; // minimum rate should be at least 5/second
 
@@ -131,8 +163,7 @@ public class SpeedTest {
          // fire off all the messages for the test
          Map<QueueMessage, ListenableFuture<byte[]>> responses = Maps.newHashMap();
          for (int i = 0; i < messageCount; i++) {
-            responses.put(new QueueMessage(queue, message), context.getAsyncApi().sendMessage(
-                     queue, message));
+            responses.put(new QueueMessage(queue, message), client.sendMessage(queue, message));
          }
 
          Map<QueueMessage, Exception> exceptions = awaitCompletion(responses, sameThreadExecutor(),
@@ -143,29 +174,119 @@ public class SpeedTest {
             logger.error("problems in context: %s, region: %s: %s", contextName, queue.getRegion(),
                      exceptions);
 
+         // the first run left its messages behind
+         drain(client, queue, timeOut);
+
+         System.gc();
+         logger.info("pausing 5 seconds before the end-to-end run");
+         Thread.sleep(5000);// let the network quiet down and in-flight receives finish
+
+         runEndToEnd(messageCount, contextName, client, queue, timeOut);
+
          System.gc();
          logger.info("pausing 5 seconds before the next run");
          Thread.sleep(5000);// let the network quiet down
       }
    }
 
-   private static void createQueues(String queueName,
-            RestContext<SQSClient, SQSAsyncClient> nullLoggingDefaultContext, Set<Queue> queues) {
+   /**
+    * sends messages in batches while a prefetching consumer receives and deletes them, reporting
+    * messages per second from the first send to the last message handled.
+    */
+   private static void runEndToEnd(int messageCount, String contextName, SQSAsyncClient client,
+            Queue queue, long timeOut) throws InterruptedException {
+      final CountDownLatch handled = new CountDownLatch(messageCount);
+      ExecutorService workers = Executors.newFixedThreadPool(CONSUMER_THREADS);
+      ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+      BatchingMessageSender sender = new BatchingMessageSender(client, scheduler,
+               SEND_LINGER_MILLIS, TimeUnit.MILLISECONDS);
+      PrefetchingMessageConsumer consumer = new PrefetchingMessageConsumer(client, queue,
+               new Predicate<Message>() {
+                  @Override
+                  public boolean apply(Message input) {
+                     handled.countDown();
+                     return true;
+                  }
+               }, workers, scheduler, RECEIVES_IN_FLIGHT).start();
+      try {
+         long start = System.currentTimeMillis();
+         Map<QueueMessage, ListenableFuture<Void>> sends = Maps.newHashMap();
+         for (int i = 0; i < messageCount; i++) {
+            String message = i + "";
+            sends.put(new QueueMessage(queue, message), sender.send(queue, message));
+         }
+         sender.flush();
+         Map<QueueMessage, Exception> exceptions = awaitCompletion(sends, sameThreadExecutor(),
+                  timeOut, traceLogger, String.format("batched sends context: %s, region: %s",
+                           contextName, queue.getRegion()));
+         if (exceptions.size() > 0)
+            logger.error("problems in context: %s, region: %s: %s", contextName, queue
+                     .getRegion(), exceptions);
+
+         boolean finished = handled.await(timeOut, TimeUnit.MILLISECONDS);
+         long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+         long count = messageCount - handled.getCount();
+         logger.info(
+                  "context: %s, region: %s, end-to-end: %d/%d messages in %dms: %.1f msgs/s%s",
+                  contextName, queue.getRegion(), count, messageCount, elapsed, count * 1000.0
+                           / elapsed, finished ? "" : " (timed out)");
+         logger.info("consumer received: %d, deleted: %d, receive errors: %d", consumer
+                  .getReceivedCount(), consumer.getDeletedCount(), consumer
+                  .getFetchErrorCount());
+      } finally {
+         consumer.close();
+         sender.close();
+         workers.shutdown();
+         scheduler.shutdown();
+      }
+   }
+
+   /**
+    * deletes what is left in the queue. Receives don't wait for messages, so none are left parked
+    * to steal from the next run.
+    */
+   private static void drain(SQSAsyncClient client, Queue queue, long timeOut)
+            throws InterruptedException {
+      ExecutorService workers = Executors.newSingleThreadExecutor();
+      ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+      PrefetchingMessageConsumer consumer = new PrefetchingMessageConsumer(client, queue,
+               new Predicate<Message>() {
+                  @Override
+                  public boolean apply(Message input) {
+                     return true;
+                  }
+               }, workers, scheduler, RECEIVES_IN_FLIGHT, maxNumberOfMessages(10)).start();
+      try {
+         long deadline = System.currentTimeMillis() + timeOut;
+         long lastCount = -1;
+         // stop once a second passes without anything new
+         while (consumer.getReceivedCount() != lastCount && System.currentTimeMillis() < deadline) {
+            lastCount = consumer.getReceivedCount();
+            Thread.sleep(1000);
+         }
+      } finally {
+         consumer.close();
+         workers.shutdown();
+         scheduler.shutdown();
+      }
+   }
+
+   private static void createQueues(String queueName, SQSAsyncClient client, Set<Queue> queues)
+            throws InterruptedException, ExecutionException {
       for (String region : REGIONS) {
          logger.info("creating queue: %s in region %s", queueName, region);
-         queues.add(nullLoggingDefaultContext.getApi().createQueueInRegion(region, queueName));
+         queues.add(client.createQueueInRegion(region, queueName).get());
       }
    }
 
-   private static boolean purgeQueues(String queueName,
-            RestContext<SQSClient, SQSAsyncClient> nullLoggingDefaultContext) {
+   private static boolean purgeQueues(String queueName, SQSAsyncClient client) {
       boolean deleted = false;
       for (String region : REGIONS) {
          try {
-            SortedSet<Queue> result = Sets.newTreeSet(nullLoggingDefaultContext.getApi()
-                     .listQueuesInRegion(region, queuePrefix(queueName)));
+            SortedSet<Queue> result = Sets.newTreeSet(client.listQueuesInRegion(region,
+                     queuePrefix(queueName)).get());
             if (result.size() >= 1) {
-               nullLoggingDefaultContext.getApi().deleteQueue(result.last());
+               client.deleteQueue(result.last()).get();
                logger.info("deleted queue: %s in region %s", queueName, region);
                deleted = true;
             }
@@ -0,0 +1,143 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * A snapshot of thread counts, allocation and collection work, split between the stub server's
+ * threads and everything else in the vm.
+ * <p/>
+ * Per-thread allocation is only available on HotSpot, via
+ * {@code com.sun.management.ThreadMXBean}. It is looked up reflectively so that the load test
+ * still runs elsewhere, reporting allocation as unknown.
+ * 
+ * @author Adrian Cole
+ */
+public class JvmStats {
+   private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+   private static final Method ALLOCATED_BYTES = allocatedBytesMethod();
+
+   private static Method allocatedBytesMethod() {
+      try {
+         Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+         if (!type.isInstance(THREADS))
+            return null;
+         Method method = type.getMethod("getThreadAllocatedBytes", long.class);
+         method.invoke(THREADS, Thread.currentThread().getId());
+         return method;
+      } catch (Exception e) {
+         return null;
+      }
+   }
+
+   final long nanoTime;
+   final int clientThreads;
+   final int serverThreads;
+   final int peakThreads;
+   final long clientAllocatedBytes;
+   final long serverAllocatedBytes;
+   final long gcCount;
+   final long gcMillis;
+
+   private JvmStats(long nanoTime, int clientThreads, int serverThreads, int peakThreads,
+            long clientAllocatedBytes, long serverAllocatedBytes, long gcCount, long gcMillis) {
+      this.nanoTime = nanoTime;
+      this.clientThreads = clientThreads;
+      this.serverThreads = serverThreads;
+      this.peakThreads = peakThreads;
+      this.clientAllocatedBytes = clientAllocatedBytes;
+      this.serverAllocatedBytes = serverAllocatedBytes;
+      this.gcCount = gcCount;
+      this.gcMillis = gcMillis;
+   }
+
+   public static void resetPeak() {
+      THREADS.resetPeakThreadCount();
+   }
+
+   /**
+    * Allocation of threads that died since the last snapshot is not counted, so pooled threads
+    * give the most accurate picture.
+    */
+   public static JvmStats snapshot() {
+      int clientThreads = 0;
+      int serverThreads = 0;
+      long clientAllocatedBytes = ALLOCATED_BYTES == null ? -1 : 0;
+      long serverAllocatedBytes = ALLOCATED_BYTES == null ? -1 : 0;
+      for (ThreadInfo info : THREADS.getThreadInfo(THREADS.getAllThreadIds())) {
+         if (info == null)
+            continue;
+         boolean server = info.getThreadName().startsWith(StubS3Server.THREAD_PREFIX);
+         long allocated = allocatedBytes(info.getThreadId());
+         if (server) {
+            serverThreads++;
+            if (allocated > 0)
+               serverAllocatedBytes += allocated;
+         } else {
+            clientThreads++;
+            if (allocated > 0)
+               clientAllocatedBytes += allocated;
+         }
+      }
+      long gcCount = 0;
+      long gcMillis = 0;
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+         gcCount += Math.max(0, gc.getCollectionCount());
+         gcMillis += Math.max(0, gc.getCollectionTime());
+      }
+      return new JvmStats(System.nanoTime(), clientThreads, serverThreads, THREADS
+               .getPeakThreadCount(), clientAllocatedBytes, serverAllocatedBytes, gcCount,
+               gcMillis);
+   }
+
+   private static long allocatedBytes(long threadId) {
+      if (ALLOCATED_BYTES == null)
+         return -1;
+      try {
+         return (Long) ALLOCATED_BYTES.invoke(THREADS, threadId);
+      } catch (Exception e) {
+         return -1;
+      }
+   }
+
+   /**
+    * @return allocation rates, thread counts and gc work between {@code start} and this snapshot
+    */
+   public String reportSince(JvmStats start) {
+      double seconds = (nanoTime - start.nanoTime) / 1e9;
+      StringBuilder report = new StringBuilder();
+      report.append(String.format("threads: client=%d, server=%d, peak=%d%n", clientThreads,
+               serverThreads, peakThreads));
+      if (clientAllocatedBytes < 0) {
+         report.append(String.format("allocation: unknown on this vm%n"));
+      } else {
+         report.append(String.format("allocation: client=%.1f MB/s, server=%.1f MB/s%n",
+                  (clientAllocatedBytes - start.clientAllocatedBytes) / seconds / (1024 * 1024),
+                  (serverAllocatedBytes - start.serverAllocatedBytes) / seconds / (1024 * 1024)));
+      }
+      report.append(String.format("gc: collections=%d, time=%dms%n", gcCount - start.gcCount,
+               gcMillis - start.gcMillis));
+      return report.toString();
+   }
+}
@@ -0,0 +1,248 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.Futures.compose;
+import static org.jclouds.aws.s3.options.ListBucketOptions.Builder.maxResults;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+
+import org.jclouds.aws.s3.S3AsyncClient;
+import org.jclouds.aws.s3.domain.ListBucketResponse;
+import org.jclouds.aws.s3.domain.ObjectMetadata;
+import org.jclouds.aws.s3.domain.S3Object;
+import org.jclouds.blobstore.AsyncBlobStore;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.http.PayloadEnclosing;
+
+import com.google.common.base.Function;
+import com.google.common.io.Closeables;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * The operations a load test issues, each resolving to the count of payload bytes moved. Gets
+ * read their payload to the end, so that transports which stream responses are measured for the
+ * whole transfer.
+ * 
+ * @author Adrian Cole
+ */
+public abstract class LoadTestClient {
+   public static enum Api {
+      S3, BLOBSTORE;
+
+      public static Api fromValue(String value) {
+         return valueOf(value.trim().toUpperCase());
+      }
+   }
+
+   protected final Executor executor;
+
+   protected LoadTestClient(Executor executor) {
+      this.executor = checkNotNull(executor, "executor");
+   }
+
+   public abstract ListenableFuture<Boolean> createBucket(String bucket);
+
+   public abstract ListenableFuture<Long> put(String bucket, String key, byte[] data);
+
+   public abstract ListenableFuture<Long> get(String bucket, String key);
+
+   public abstract ListenableFuture<Long> head(String bucket, String key);
+
+   public abstract ListenableFuture<Long> list(String bucket, int maxKeys);
+
+   public abstract ListenableFuture<Long> delete(String bucket, String key);
+
+   public ListenableFuture<Long> execute(Operation operation, String bucket, String key,
+            byte[] data, int maxKeys) {
+      switch (operation) {
+         case PUT:
+            return put(bucket, key, data);
+         case GET:
+            return get(bucket, key);
+         case HEAD:
+            return head(bucket, key);
+         case LIST:
+            return list(bucket, maxKeys);
+         case DELETE:
+            return delete(bucket, key);
+         default:
+            throw new IllegalArgumentException("unsupported operation: " + operation);
+      }
+   }
+
+   public static LoadTestClient s3(S3AsyncClient client, Executor executor) {
+      return new S3LoadTestClient(client, executor);
+   }
+
+   public static LoadTestClient blobStore(AsyncBlobStore blobStore, Executor executor) {
+      return new BlobStoreLoadTestClient(blobStore, executor);
+   }
+
+   static long consume(PayloadEnclosing enclosing) {
+      if (enclosing == null)
+         return 0;
+      InputStream content = enclosing.getContent();
+      if (content == null)
+         return 0;
+      try {
+         long count = 0;
+         byte[] buffer = new byte[8192];
+         for (int read = content.read(buffer); read != -1; read = content.read(buffer))
+            count += read;
+         return count;
+      } catch (IOException e) {
+         throw new RuntimeException("error reading payload", e);
+      } finally {
+         Closeables.closeQuietly(content);
+      }
+   }
+
+   static final Function<Object, Long> ZERO = new Function<Object, Long>() {
+      public Long apply(Object from) {
+         return 0l;
+      }
+   };
+
+   static class S3LoadTestClient extends LoadTestClient {
+      private final S3AsyncClient client;
+
+      S3LoadTestClient(S3AsyncClient client, Executor executor) {
+         super(executor);
+         this.client = checkNotNull(client, "client");
+      }
+
+      @Override
+      public ListenableFuture<Boolean> createBucket(String bucket) {
+         return client.putBucketInRegion(null, bucket);
+      }
+
+      @Override
+      public ListenableFuture<Long> put(String bucket, String key, final byte[] data) {
+         S3Object object = client.newS3Object();
+         object.getMetadata().setKey(key);
+         object.setPayload(data);
+         object.setContentLength(data.length);
+         return compose(client.putObject(bucket, object), new Function<String, Long>() {
+            public Long apply(String from) {
+               return (long) data.length;
+            }
+         }, executor);
+      }
+
+      @Override
+      public ListenableFuture<Long> get(String bucket, String key) {
+         return compose(client.getObject(bucket, key), new Function<S3Object, Long>() {
+            public Long apply(S3Object from) {
+               return consume(from);
+            }
+         }, executor);
+      }
+
+      @Override
+      public ListenableFuture<Long> head(String bucket, String key) {
+         return compose(client.headObject(bucket, key), new Function<ObjectMetadata, Long>() {
+            public Long apply(ObjectMetadata from) {
+               return 0l;
+            }
+         }, executor);
+      }
+
+      @Override
+      public ListenableFuture<Long> list(String bucket, int maxKeys) {
+         return compose(client.listBucket(bucket, maxResults(maxKeys)),
+                  new Function<ListBucketResponse, Long>() {
+                     public Long apply(ListBucketResponse from) {
+                        return 0l;
+                     }
+                  }, executor);
+      }
+
+      @Override
+      public ListenableFuture<Long> delete(String bucket, String key) {
+         return compose(client.deleteObject(bucket, key), ZERO, executor);
+      }
+   }
+
+   static class BlobStoreLoadTestClient extends LoadTestClient {
+      private final AsyncBlobStore blobStore;
+
+      BlobStoreLoadTestClient(AsyncBlobStore blobStore, Executor executor) {
+         super(executor);
+         this.blobStore = checkNotNull(blobStore, "blobStore");
+      }
+
+      @Override
+      public ListenableFuture<Boolean> createBucket(String bucket) {
+         return blobStore.createContainerInLocation(null, bucket);
+      }
+
+      @Override
+      public ListenableFuture<Long> put(String bucket, String key, final byte[] data) {
+         Blob blob = blobStore.newBlob(key);
+         blob.setPayload(data);
+         blob.setContentLength(data.length);
+         return compose(blobStore.putBlob(bucket, blob), new Function<String, Long>() {
+            public Long apply(String from) {
+               return (long) data.length;
+            }
+         }, executor);
+      }
+
+      @Override
+      public ListenableFuture<Long> get(String bucket, String key) {
+         return compose(blobStore.getBlob(bucket, key), new Function<Blob, Long>() {
+            public Long apply(Blob from) {
+               return consume(from);
+            }
+         }, executor);
+      }
+
+      @Override
+      public ListenableFuture<Long> head(String bucket, String key) {
+         return compose(blobStore.blobMetadata(bucket, key), new Function<BlobMetadata, Long>() {
+            public Long apply(BlobMetadata from) {
+               return 0l;
+            }
+         }, executor);
+      }
+
+      @Override
+      public ListenableFuture<Long> list(String bucket, int maxKeys) {
+         return compose(blobStore.list(bucket, ListContainerOptions.Builder.maxResults(maxKeys)),
+                  new Function<PageSet<? extends StorageMetadata>, Long>() {
+                     public Long apply(PageSet<? extends StorageMetadata> from) {
+                        return 0l;
+                     }
+                  }, executor);
+      }
+
+      @Override
+      public ListenableFuture<Long> delete(String bucket, String key) {
+         return compose(blobStore.removeBlob(bucket, key), ZERO, executor);
+      }
+   }
+}
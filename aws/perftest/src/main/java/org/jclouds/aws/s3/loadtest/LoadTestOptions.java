@@ -0,0 +1,173 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.jclouds.aws.s3.loadtest.LoadTestClient.Api;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Settings for {@link S3LoadTest}, read from properties prefixed with {@value #PREFIX}.
+ * 
+ * @author Adrian Cole
+ */
+public class LoadTestOptions {
+   public static final String PREFIX = "jclouds.loadtest.";
+
+   private List<Transport> transports = ImmutableList.of(Transport.values());
+   private Api api = Api.S3;
+   private int concurrency = 50;
+   private int warmupSeconds = 10;
+   private int durationSeconds = 30;
+   private int keys = 1000;
+   private int listSize = 100;
+   private ObjectSizes sizes = ObjectSizes.parse("1024:60,65536:30,1048576:10");
+   private OperationMix mix = OperationMix.parse("get:70,put:20,head:5,list:5");
+   private int serverThreads = 64;
+   private long latencyMillis = 0;
+   private long jitterMillis = 0;
+   private long bytesPerSecond = 0;
+   private double errorRate = 0;
+   private int errorStatus = 503;
+
+   public static LoadTestOptions fromProperties(Properties properties) {
+      LoadTestOptions options = new LoadTestOptions();
+      String transports = properties.getProperty(PREFIX + "transports");
+      if (transports != null) {
+         ImmutableList.Builder<Transport> builder = ImmutableList.builder();
+         for (String transport : Splitter.on(',').trimResults().omitEmptyStrings().split(
+                  transports))
+            builder.add(Transport.fromValue(transport));
+         options.transports = builder.build();
+         checkArgument(options.transports.size() > 0, "no transports in %s", transports);
+      }
+      String api = properties.getProperty(PREFIX + "api");
+      if (api != null)
+         options.api = Api.fromValue(api);
+      options.concurrency = intValue(properties, "concurrency", options.concurrency);
+      options.warmupSeconds = intValue(properties, "warmup", options.warmupSeconds);
+      options.durationSeconds = intValue(properties, "duration", options.durationSeconds);
+      options.keys = intValue(properties, "keys", options.keys);
+      options.listSize = intValue(properties, "list-size", options.listSize);
+      String sizes = properties.getProperty(PREFIX + "sizes");
+      if (sizes != null)
+         options.sizes = ObjectSizes.parse(sizes);
+      String mix = properties.getProperty(PREFIX + "mix");
+      if (mix != null)
+         options.mix = OperationMix.parse(mix);
+      options.serverThreads = intValue(properties, "server.threads", options.serverThreads);
+      options.latencyMillis = longValue(properties, "server.latency", options.latencyMillis);
+      options.jitterMillis = longValue(properties, "server.jitter", options.jitterMillis);
+      options.bytesPerSecond = longValue(properties, "server.bandwidth", options.bytesPerSecond);
+      String errorRate = properties.getProperty(PREFIX + "server.error-rate");
+      if (errorRate != null)
+         options.errorRate = Double.parseDouble(errorRate);
+      options.errorStatus = intValue(properties, "server.error-status", options.errorStatus);
+      checkArgument(options.concurrency > 0, "concurrency must be positive");
+      checkArgument(options.keys > 0, "keys must be positive");
+      checkArgument(options.errorRate >= 0 && options.errorRate <= 1,
+               "error-rate must be between 0 and 1");
+      return options;
+   }
+
+   private static int intValue(Properties properties, String key, int defaultValue) {
+      String value = properties.getProperty(PREFIX + key);
+      return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+   }
+
+   private static long longValue(Properties properties, String key, long defaultValue) {
+      String value = properties.getProperty(PREFIX + key);
+      return value != null ? Long.parseLong(value.trim()) : defaultValue;
+   }
+
+   public List<Transport> getTransports() {
+      return transports;
+   }
+
+   public Api getApi() {
+      return api;
+   }
+
+   public int getConcurrency() {
+      return concurrency;
+   }
+
+   public int getWarmupSeconds() {
+      return warmupSeconds;
+   }
+
+   public int getDurationSeconds() {
+      return durationSeconds;
+   }
+
+   public int getKeys() {
+      return keys;
+   }
+
+   public int getListSize() {
+      return listSize;
+   }
+
+   public ObjectSizes getSizes() {
+      return sizes;
+   }
+
+   public OperationMix getMix() {
+      return mix;
+   }
+
+   public int getServerThreads() {
+      return serverThreads;
+   }
+
+   public long getLatencyMillis() {
+      return latencyMillis;
+   }
+
+   public long getJitterMillis() {
+      return jitterMillis;
+   }
+
+   public long getBytesPerSecond() {
+      return bytesPerSecond;
+   }
+
+   public double getErrorRate() {
+      return errorRate;
+   }
+
+   public int getErrorStatus() {
+      return errorStatus;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("[transports=%s, api=%s, concurrency=%d, warmup=%ds, duration=%ds, "
+               + "keys=%d, sizes=%s, mix=%s, server.threads=%d, server.latency=%dms+-%dms, "
+               + "server.bandwidth=%d, server.error-rate=%s/%d]", transports, api, concurrency,
+               warmupSeconds, durationSeconds, keys, sizes, mix, serverThreads, latencyMillis,
+               jitterMillis, bytesPerSecond, errorRate, errorStatus);
+   }
+}
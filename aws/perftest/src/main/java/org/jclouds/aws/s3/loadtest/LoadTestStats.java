@@ -0,0 +1,103 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jclouds.instrumentation.internal.LatencyHistogram;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Latency, throughput and error counts per {@link Operation}, safe to record from any thread.
+ * Latencies are kept in microseconds.
+ * 
+ * @author Adrian Cole
+ */
+public class LoadTestStats {
+   static class OperationStats {
+      final LatencyHistogram latency = new LatencyHistogram();
+      final AtomicLong bytes = new AtomicLong();
+      final AtomicLong errors = new AtomicLong();
+   }
+
+   private final Map<Operation, OperationStats> stats = Maps.newEnumMap(Operation.class);
+
+   public LoadTestStats() {
+      for (Operation operation : Operation.values())
+         stats.put(operation, new OperationStats());
+   }
+
+   public void recordSuccess(Operation operation, long nanos, long bytes) {
+      OperationStats operationStats = stats.get(operation);
+      operationStats.latency.record(nanos / 1000);
+      operationStats.bytes.addAndGet(bytes);
+   }
+
+   public void recordFailure(Operation operation, long nanos) {
+      OperationStats operationStats = stats.get(operation);
+      operationStats.latency.record(nanos / 1000);
+      operationStats.errors.incrementAndGet();
+   }
+
+   public long getCount() {
+      long count = 0;
+      for (OperationStats operationStats : stats.values())
+         count += operationStats.latency.getCount();
+      return count;
+   }
+
+   public long getErrors() {
+      long errors = 0;
+      for (OperationStats operationStats : stats.values())
+         errors += operationStats.errors.get();
+      return errors;
+   }
+
+   public long getBytes() {
+      long bytes = 0;
+      for (OperationStats operationStats : stats.values())
+         bytes += operationStats.bytes.get();
+      return bytes;
+   }
+
+   /**
+    * @return a table with a row per operation that was issued
+    */
+   public String report(double seconds) {
+      StringBuilder report = new StringBuilder(String.format(
+               "%-8s %10s %10s %8s %10s %10s %10s %10s %10s %10s%n", "op", "count", "ops/s",
+               "errors", "MB/s", "mean(us)", "p50(us)", "p90(us)", "p99(us)", "p999(us)"));
+      for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+         LatencyHistogram latency = entry.getValue().latency;
+         if (latency.getCount() == 0)
+            continue;
+         report.append(String.format("%-8s %10d %10.1f %8d %10.2f %10.0f %10d %10d %10d %10d%n",
+                  entry.getKey().toString().toLowerCase(), latency.getCount(), latency.getCount()
+                           / seconds, entry.getValue().errors.get(), entry.getValue().bytes.get()
+                           / seconds / (1024 * 1024), latency.getMean(), latency
+                           .getValueAtPercentile(50), latency.getValueAtPercentile(90), latency
+                           .getValueAtPercentile(99), latency.getValueAtPercentile(99.9)));
+      }
+      report.append(String.format("%-8s %10d %10.1f %8d %10.2f%n", "total", getCount(),
+               getCount() / seconds, getErrors(), getBytes() / seconds / (1024 * 1024)));
+      return report.toString();
+   }
+}
@@ -0,0 +1,105 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+/**
+ * Distribution of object sizes written during a load test. Parsed from one of:
+ * <ul>
+ * <li>{@code 65536} every object is 64KB</li>
+ * <li>{@code 1024-1048576} uniformly between 1KB and 1MB</li>
+ * <li>{@code 1024:70,1048576:30} 70% are 1KB, and 30% are 1MB</li>
+ * </ul>
+ * 
+ * @author Adrian Cole
+ */
+public class ObjectSizes {
+   private final String spec;
+   private final int[] sizes;
+   private final int[] cumulativeWeights;
+   private final boolean uniform;
+
+   private ObjectSizes(String spec, int[] sizes, int[] cumulativeWeights, boolean uniform) {
+      this.spec = spec;
+      this.sizes = sizes;
+      this.cumulativeWeights = cumulativeWeights;
+      this.uniform = uniform;
+   }
+
+   public static ObjectSizes parse(String spec) {
+      spec = spec.trim();
+      if (spec.indexOf(':') != -1) {
+         List<String> entries = Lists.newArrayList(Splitter.on(',').trimResults()
+                  .omitEmptyStrings().split(spec));
+         int[] sizes = new int[entries.size()];
+         int[] cumulativeWeights = new int[entries.size()];
+         int total = 0;
+         for (int i = 0; i < entries.size(); i++) {
+            String[] sizeAndWeight = entries.get(i).split(":");
+            checkArgument(sizeAndWeight.length == 2, "expected size:weight, not %s", entries
+                     .get(i));
+            sizes[i] = parseSize(sizeAndWeight[0]);
+            int weight = Integer.parseInt(sizeAndWeight[1].trim());
+            checkArgument(weight >= 0, "weight must be positive: %s", entries.get(i));
+            total += weight;
+            cumulativeWeights[i] = total;
+         }
+         checkArgument(total > 0, "at least one size must have weight: %s", spec);
+         return new ObjectSizes(spec, sizes, cumulativeWeights, false);
+      }
+      int dash = spec.indexOf('-');
+      if (dash != -1) {
+         int min = parseSize(spec.substring(0, dash));
+         int max = parseSize(spec.substring(dash + 1));
+         checkArgument(min <= max, "min must not exceed max: %s", spec);
+         return new ObjectSizes(spec, new int[] { min, max }, null, true);
+      }
+      return new ObjectSizes(spec, new int[] { parseSize(spec) }, new int[] { 1 }, false);
+   }
+
+   private static int parseSize(String size) {
+      int parsed = Integer.parseInt(size.trim());
+      checkArgument(parsed >= 0, "size must be positive: %s", size);
+      return parsed;
+   }
+
+   public int next(Random random) {
+      if (uniform)
+         return sizes[0] + random.nextInt(sizes[1] - sizes[0] + 1);
+      if (sizes.length == 1)
+         return sizes[0];
+      int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+      for (int i = 0; i < cumulativeWeights.length; i++)
+         if (pick < cumulativeWeights[i])
+            return sizes[i];
+      throw new AssertionError(pick);
+   }
+
+   @Override
+   public String toString() {
+      return spec;
+   }
+}
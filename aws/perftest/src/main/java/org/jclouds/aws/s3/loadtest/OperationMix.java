@@ -0,0 +1,83 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Weighted choice of {@link Operation}, parsed from a spec like {@code get:70,put:20,list:10}.
+ * 
+ * @author Adrian Cole
+ */
+public class OperationMix {
+   private final Map<Operation, Integer> weights;
+   private final Operation[] operations;
+   private final int[] cumulativeWeights;
+
+   private OperationMix(Map<Operation, Integer> weights) {
+      this.weights = ImmutableMap.copyOf(weights);
+      this.operations = new Operation[weights.size()];
+      this.cumulativeWeights = new int[weights.size()];
+      int i = 0;
+      int total = 0;
+      for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+         total += entry.getValue();
+         operations[i] = entry.getKey();
+         cumulativeWeights[i++] = total;
+      }
+      checkArgument(total > 0, "at least one operation must have weight: %s", weights);
+   }
+
+   public static OperationMix parse(String spec) {
+      Map<Operation, Integer> weights = Maps.newEnumMap(Operation.class);
+      for (String entry : Splitter.on(',').trimResults().omitEmptyStrings().split(spec)) {
+         String[] operationAndWeight = entry.split(":");
+         checkArgument(operationAndWeight.length == 2, "expected operation:weight, not %s",
+                  entry);
+         int weight = Integer.parseInt(operationAndWeight[1].trim());
+         checkArgument(weight >= 0, "weight must be positive: %s", entry);
+         weights.put(Operation.fromValue(operationAndWeight[0]), weight);
+      }
+      return new OperationMix(weights);
+   }
+
+   public Operation next(Random random) {
+      int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+      for (int i = 0; i < cumulativeWeights.length; i++)
+         if (pick < cumulativeWeights[i])
+            return operations[i];
+      throw new AssertionError(pick);
+   }
+
+   public Map<Operation, Integer> getWeights() {
+      return weights;
+   }
+
+   @Override
+   public String toString() {
+      return weights.toString();
+   }
+}
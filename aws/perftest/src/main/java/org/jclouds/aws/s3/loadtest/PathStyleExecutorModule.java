@@ -0,0 +1,121 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.util.Collections;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Provider;
+import com.google.inject.Scopes;
+import com.google.inject.util.Modules;
+
+/**
+ * Installs an http executor, decorated so that bucket hosts such as
+ * {@code bucket.s3.amazonaws.com} are sent to {@code host:port/bucket}.
+ * <p/>
+ * Virtual host buckets need a wildcard dns entry, which the load test box won't have. Rewriting
+ * the request before it reaches the executor leaves the executor's own behavior untouched.
+ * 
+ * @author Adrian Cole
+ */
+@ConfiguresHttpCommandExecutorService
+public class PathStyleExecutorModule extends AbstractModule {
+   private final Module executorModule;
+   private final Class<? extends HttpCommandExecutorService> executor;
+   private final String host;
+   private final int port;
+
+   public PathStyleExecutorModule(Module executorModule,
+            Class<? extends HttpCommandExecutorService> executor, String host, int port) {
+      this.executorModule = checkNotNull(executorModule, "executorModule");
+      this.executor = checkNotNull(executor, "executor");
+      this.host = checkNotNull(host, "host");
+      this.port = port;
+   }
+
+   @Override
+   protected void configure() {
+      install(Modules.override(executorModule).with(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bind(executor).in(Scopes.SINGLETON);
+            bind(HttpCommandExecutorService.class).toProvider(
+                     new Provider<HttpCommandExecutorService>() {
+                        @Inject
+                        Injector injector;
+
+                        public HttpCommandExecutorService get() {
+                           return new PathStyleHttpCommandExecutorService(injector
+                                    .getInstance(executor), host, port);
+                        }
+                     }).in(Scopes.SINGLETON);
+         }
+      }));
+   }
+
+   static class PathStyleHttpCommandExecutorService implements HttpCommandExecutorService {
+      private final HttpCommandExecutorService delegate;
+      private final String host;
+      private final int port;
+
+      PathStyleHttpCommandExecutorService(HttpCommandExecutorService delegate, String host,
+               int port) {
+         this.delegate = delegate;
+         this.host = host;
+         this.port = port;
+      }
+
+      public ListenableFuture<HttpResponse> submit(HttpCommand command) {
+         HttpRequest request = command.getRequest();
+         request.setEndpoint(rewrite(request.getEndpoint()));
+         request.getHeaders().replaceValues(HttpHeaders.HOST,
+                  Collections.singletonList(host + ":" + port));
+         return delegate.submit(command);
+      }
+
+      URI rewrite(URI endpoint) {
+         String requestHost = endpoint.getHost();
+         StringBuilder uri = new StringBuilder("http://").append(host).append(':').append(port);
+         // bucket names may themselves contain dots
+         if (requestHost.endsWith("." + host))
+            uri.append('/').append(
+                     requestHost.substring(0, requestHost.length() - host.length() - 1));
+         uri.append(endpoint.getRawPath() == null || endpoint.getRawPath().equals("") ? "/"
+                  : endpoint.getRawPath());
+         if (endpoint.getRawQuery() != null)
+            uri.append('?').append(endpoint.getRawQuery());
+         return URI.create(uri.toString());
+      }
+   }
+}
@@ -0,0 +1,236 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.jclouds.aws.s3.reference.S3Constants.PROPERTY_S3_ENDPOINT;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.aws.s3.S3AsyncClient;
+import org.jclouds.aws.s3.S3PropertiesBuilder;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.BlobStoreContextFactory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Drives {@link S3AsyncClient} or its {@code AsyncBlobStore} against an in-process
+ * {@link StubS3Server}, once per {@link Transport}, and prints throughput, latency percentiles,
+ * allocation rate and thread counts for each.
+ * <p/>
+ * Each run keeps {@code concurrency} requests in flight for a warmup period, then for a measured
+ * period. Settings are read from system properties; see {@link LoadTestOptions}. For example:
+ * 
+ * <pre>
+ * java -Djclouds.loadtest.transports=apachehc,ning -Djclouds.loadtest.concurrency=100 \
+ *      -Djclouds.loadtest.mix=get:80,put:20 -Djclouds.loadtest.server.latency=20 \
+ *      org.jclouds.aws.s3.loadtest.S3LoadTest
+ * </pre>
+ * 
+ * Other {@code jclouds.} system properties, such as connection limits, are passed to the context.
+ * 
+ * @author Adrian Cole
+ */
+public class S3LoadTest implements Callable<String> {
+
+   public static void main(String[] args) throws Exception {
+      LoadTestOptions options = LoadTestOptions.fromProperties(System.getProperties());
+      System.out.println(options);
+      StubS3Server server = new StubS3Server(0, options.getServerThreads()).start();
+      try {
+         for (Transport transport : options.getTransports())
+            System.out.println(new S3LoadTest(server, transport, options).call());
+      } finally {
+         server.stop();
+      }
+      System.exit(0);
+   }
+
+   private final StubS3Server server;
+   private final Transport transport;
+   private final LoadTestOptions options;
+   private final Random random = new Random();
+   private final Map<Integer, byte[]> payloads = new MapMaker().softValues().makeComputingMap(
+            new Function<Integer, byte[]>() {
+               public byte[] apply(Integer size) {
+                  byte[] payload = new byte[size];
+                  random.nextBytes(payload);
+                  return payload;
+               }
+            });
+
+   public S3LoadTest(StubS3Server server, Transport transport, LoadTestOptions options) {
+      this.server = server;
+      this.transport = transport;
+      this.options = options;
+   }
+
+   public String call() throws Exception {
+      BlobStoreContext context = createContext();
+      try {
+         LoadTestClient client = createClient(context);
+         String bucket = "loadtest-" + transport.toString().toLowerCase();
+         client.createBucket(bucket).get();
+
+         server.withLatency(0, 0).withBandwidth(0).withErrors(0, options.getErrorStatus());
+         preload(client, bucket);
+
+         server.withLatency(options.getLatencyMillis(), options.getJitterMillis()).withBandwidth(
+                  options.getBytesPerSecond()).withErrors(options.getErrorRate(),
+                  options.getErrorStatus());
+         run(client, bucket, options.getWarmupSeconds(), new LoadTestStats());
+
+         LoadTestStats stats = new LoadTestStats();
+         JvmStats.resetPeak();
+         JvmStats start = JvmStats.snapshot();
+         run(client, bucket, options.getDurationSeconds(), stats);
+         JvmStats end = JvmStats.snapshot();
+
+         double seconds = (end.nanoTime - start.nanoTime) / 1e9;
+         return String.format("== %s over %s, %.1fs ==%n%s%s", options.getApi(), transport,
+                  seconds, stats.report(seconds), end.reportSince(start));
+      } finally {
+         context.close();
+      }
+   }
+
+   BlobStoreContext createContext() throws IOException {
+      Properties overrides = new Properties();
+      for (Map.Entry<Object, Object> entry : System.getProperties().entrySet()) {
+         String key = entry.getKey().toString();
+         if (key.startsWith("jclouds.") && !key.startsWith(LoadTestOptions.PREFIX))
+            overrides.setProperty(key, entry.getValue().toString());
+      }
+      // every regional endpoint is sent to the stub
+      Properties defaults = new S3PropertiesBuilder(new Properties()).build();
+      for (String key : defaults.stringPropertyNames())
+         if (key.startsWith(PROPERTY_S3_ENDPOINT))
+            overrides.setProperty(key, server.getEndpoint().toString());
+      return new BlobStoreContextFactory().createContext("s3", "identity", "credential",
+               ImmutableSet.of(transport.moduleFor(server)), overrides);
+   }
+
+   LoadTestClient createClient(BlobStoreContext context) {
+      switch (options.getApi()) {
+         case BLOBSTORE:
+            return LoadTestClient.blobStore(context.getAsyncBlobStore(), sameThreadExecutor());
+         default:
+            return LoadTestClient.s3((S3AsyncClient) context.getProviderSpecificContext()
+                     .getAsyncApi(), sameThreadExecutor());
+      }
+   }
+
+   void preload(LoadTestClient client, String bucket) throws InterruptedException,
+            ExecutionException {
+      Semaphore inFlight = new Semaphore(options.getConcurrency());
+      ListenableFuture<?>[] puts = new ListenableFuture<?>[options.getKeys()];
+      for (int i = 0; i < options.getKeys(); i++) {
+         inFlight.acquire();
+         puts[i] = client.put(bucket, key(i), payloads.get(options.getSizes().next(random)));
+         puts[i].addListener(new Release(inFlight), sameThreadExecutor());
+      }
+      for (ListenableFuture<?> put : puts)
+         put.get();
+   }
+
+   /**
+    * Issues operations in a closed loop: a new one starts as soon as any of the
+    * {@code concurrency} in flight completes.
+    */
+   void run(LoadTestClient client, String bucket, int seconds, LoadTestStats stats)
+            throws InterruptedException {
+      Semaphore inFlight = new Semaphore(options.getConcurrency());
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+      while (System.nanoTime() < deadline) {
+         inFlight.acquire();
+         Operation operation = options.getMix().next(random);
+         byte[] data = operation == Operation.PUT ? payloads.get(options.getSizes().next(random))
+                  : null;
+         long start = System.nanoTime();
+         ListenableFuture<Long> future;
+         try {
+            future = client.execute(operation, bucket, key(random.nextInt(options.getKeys())),
+                     data, options.getListSize());
+         } catch (RuntimeException e) {
+            stats.recordFailure(operation, System.nanoTime() - start);
+            inFlight.release();
+            continue;
+         }
+         future.addListener(new Record(future, operation, start, stats, inFlight),
+                  sameThreadExecutor());
+      }
+      // let stragglers finish, so they don't bleed into the next run
+      inFlight.acquire(options.getConcurrency());
+   }
+
+   static String key(int i) {
+      return "key-" + i;
+   }
+
+   static class Release implements Runnable {
+      private final Semaphore inFlight;
+
+      Release(Semaphore inFlight) {
+         this.inFlight = inFlight;
+      }
+
+      public void run() {
+         inFlight.release();
+      }
+   }
+
+   static class Record implements Runnable {
+      private final ListenableFuture<Long> future;
+      private final Operation operation;
+      private final long start;
+      private final LoadTestStats stats;
+      private final Semaphore inFlight;
+
+      Record(ListenableFuture<Long> future, Operation operation, long start, LoadTestStats stats,
+               Semaphore inFlight) {
+         this.future = future;
+         this.operation = operation;
+         this.start = start;
+         this.stats = stats;
+         this.inFlight = inFlight;
+      }
+
+      public void run() {
+         try {
+            Long bytes = future.get();
+            stats.recordSuccess(operation, System.nanoTime() - start, bytes == null ? 0 : bytes);
+         } catch (Exception e) {
+            stats.recordFailure(operation, System.nanoTime() - start);
+         } finally {
+            inFlight.release();
+         }
+      }
+   }
+}
@@ -0,0 +1,580 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.jclouds.date.DateService;
+import org.jclouds.date.internal.SimpleDateFormatDateService;
+import org.jclouds.encryption.EncryptionService;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * An in-process stand-in for S3, used to load test the http layer without leaving the box.
+ * <p/>
+ * Objects are kept in memory with the same semantics as the transient blobstore: etags are the md5
+ * of the content, and listings are in key order. Buckets are addressed by path,
+ * {@code /bucket/key}, or by host prefix, {@code bucket.localhost}. Signatures are not checked.
+ * <p/>
+ * Each response can be delayed, throttled to a bandwidth, or replaced with a server error, in order
+ * to approximate a remote service.
+ * 
+ * @author Adrian Cole
+ */
+public class StubS3Server {
+
+   public static final String THREAD_PREFIX = "stub-s3-";
+   static final String NAMESPACE = "http://s3.amazonaws.com/doc/2006-03-01/";
+   static final int DEFAULT_MAX_KEYS = 1000;
+   static final int CHUNK = 8192;
+
+   private final String hostName;
+   private final HttpServer server;
+   private final ExecutorService threads;
+   private final ConcurrentMap<String, Bucket> buckets = new ConcurrentSkipListMap<String, Bucket>();
+   private final DateService dateService = new SimpleDateFormatDateService();
+   private final EncryptionService encryptionService = new JCEEncryptionService();
+   private final Random random = new Random();
+
+   private volatile long latencyMillis;
+   private volatile long jitterMillis;
+   private volatile long bytesPerSecond;
+   private volatile double errorRate;
+   private volatile int errorStatus = 503;
+
+   /**
+    * @param port
+    *           0 picks a free port
+    * @param threads
+    *           how many requests can be served at once. Latency injection holds a thread.
+    */
+   public StubS3Server(int port, int threads) throws IOException {
+      this.hostName = "localhost";
+      this.server = HttpServer.create(new InetSocketAddress(hostName, port), 0);
+      this.threads = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+         private final AtomicInteger count = new AtomicInteger();
+
+         public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, THREAD_PREFIX + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+         }
+      });
+      server.setExecutor(this.threads);
+      server.createContext("/", new HttpHandler() {
+         public void handle(HttpExchange exchange) throws IOException {
+            StubS3Server.this.handle(exchange);
+         }
+      });
+   }
+
+   /**
+    * delays each response by {@code latencyMillis}, plus a random amount up to
+    * {@code jitterMillis}.
+    */
+   public StubS3Server withLatency(long latencyMillis, long jitterMillis) {
+      checkArgument(latencyMillis >= 0 && jitterMillis >= 0, "latency must be positive");
+      this.latencyMillis = latencyMillis;
+      this.jitterMillis = jitterMillis;
+      return this;
+   }
+
+   /**
+    * limits each upload and download to {@code bytesPerSecond}; 0 is unlimited.
+    */
+   public StubS3Server withBandwidth(long bytesPerSecond) {
+      checkArgument(bytesPerSecond >= 0, "bandwidth must be positive");
+      this.bytesPerSecond = bytesPerSecond;
+      return this;
+   }
+
+   /**
+    * fails a random {@code errorRate} of requests with {@code status}, which should be 500 or 503.
+    */
+   public StubS3Server withErrors(double errorRate, int status) {
+      checkArgument(errorRate >= 0 && errorRate <= 1, "errorRate must be between 0 and 1");
+      checkArgument(status >= 500 && status < 600, "status must be a server error");
+      this.errorRate = errorRate;
+      this.errorStatus = status;
+      return this;
+   }
+
+   public StubS3Server start() {
+      server.start();
+      return this;
+   }
+
+   public void stop() {
+      server.stop(0);
+      threads.shutdownNow();
+   }
+
+   public String getHostName() {
+      return hostName;
+   }
+
+   public int getPort() {
+      return server.getAddress().getPort();
+   }
+
+   public URI getEndpoint() {
+      return URI.create(String.format("http://%s:%d", hostName, getPort()));
+   }
+
+   static class Bucket {
+      final Date created = new Date();
+      final NavigableMap<String, StoredObject> objects = new ConcurrentSkipListMap<String, StoredObject>();
+   }
+
+   static class StoredObject {
+      final byte[] data;
+      final String eTag;
+      final Date lastModified;
+      final String contentType;
+      final Map<String, String> userMetadata;
+
+      StoredObject(byte[] data, String eTag, String contentType, Map<String, String> userMetadata) {
+         this.data = data;
+         this.eTag = eTag;
+         this.lastModified = new Date();
+         this.contentType = contentType;
+         this.userMetadata = userMetadata;
+      }
+   }
+
+   void handle(HttpExchange exchange) throws IOException {
+      try {
+         delay();
+         if (errorRate > 0 && random.nextDouble() < errorRate) {
+            drain(exchange.getRequestBody());
+            if (errorStatus == 503)
+               sendError(exchange, 503, "SlowDown", "Please reduce your request rate.");
+            else
+               sendError(exchange, errorStatus, "InternalError",
+                        "We encountered an internal error. Please try again.");
+            return;
+         }
+         route(exchange);
+      } catch (RuntimeException e) {
+         sendError(exchange, 500, "InternalError", e.toString());
+      } finally {
+         exchange.close();
+      }
+   }
+
+   private void route(HttpExchange exchange) throws IOException {
+      URI uri = exchange.getRequestURI();
+      String path = uri.getPath() == null ? "/" : uri.getPath();
+      String bucket = bucketFromHost(exchange.getRequestHeaders().getFirst(HttpHeaders.HOST));
+      String key;
+      if (bucket == null) {
+         int slash = path.indexOf('/', 1);
+         bucket = slash == -1 ? path.substring(1) : path.substring(1, slash);
+         key = slash == -1 ? "" : path.substring(slash + 1);
+      } else {
+         key = path.substring(1);
+      }
+      Map<String, String> query = parseQuery(uri.getRawQuery());
+      String method = exchange.getRequestMethod();
+      if (bucket.equals("")) {
+         if (method.equals(HttpMethod.GET))
+            listAllMyBuckets(exchange);
+         else
+            sendError(exchange, 405, "MethodNotAllowed", method + " not allowed on the service");
+      } else if (key.equals("")) {
+         if (method.equals(HttpMethod.PUT))
+            putBucket(exchange, bucket);
+         else if (method.equals(HttpMethod.GET) && query.containsKey("location"))
+            getBucketLocation(exchange, bucket);
+         else if (method.equals(HttpMethod.GET))
+            listBucket(exchange, bucket, query);
+         else if (method.equals(HttpMethod.HEAD))
+            headBucket(exchange, bucket);
+         else if (method.equals(HttpMethod.DELETE))
+            deleteBucket(exchange, bucket);
+         else
+            sendError(exchange, 405, "MethodNotAllowed", method + " not allowed on a bucket");
+      } else {
+         if (method.equals(HttpMethod.PUT))
+            putObject(exchange, bucket, key);
+         else if (method.equals(HttpMethod.GET))
+            getObject(exchange, bucket, key, true);
+         else if (method.equals(HttpMethod.HEAD))
+            getObject(exchange, bucket, key, false);
+         else if (method.equals(HttpMethod.DELETE))
+            deleteObject(exchange, bucket, key);
+         else
+            sendError(exchange, 405, "MethodNotAllowed", method + " not allowed on an object");
+      }
+   }
+
+   String bucketFromHost(String hostHeader) {
+      if (hostHeader == null)
+         return null;
+      int colon = hostHeader.lastIndexOf(':');
+      String host = colon == -1 ? hostHeader : hostHeader.substring(0, colon);
+      if (host.endsWith("." + hostName))
+         return host.substring(0, host.length() - hostName.length() - 1);
+      return null;
+   }
+
+   private void listAllMyBuckets(HttpExchange exchange) throws IOException {
+      StringBuilder xml = new StringBuilder();
+      xml.append("<ListAllMyBucketsResult xmlns=\"").append(NAMESPACE).append("\">");
+      appendOwner(xml);
+      xml.append("<Buckets>");
+      for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+         xml.append("<Bucket><Name>").append(escape(entry.getKey())).append("</Name>");
+         xml.append("<CreationDate>").append(
+                  dateService.iso8601DateFormat(entry.getValue().created)).append(
+                  "</CreationDate></Bucket>");
+      }
+      xml.append("</Buckets></ListAllMyBucketsResult>");
+      sendXml(exchange, 200, xml);
+   }
+
+   private void putBucket(HttpExchange exchange, String bucket) throws IOException {
+      // the body only holds a location constraint
+      drain(exchange.getRequestBody());
+      buckets.putIfAbsent(bucket, new Bucket());
+      exchange.getResponseHeaders().set("Location", "/" + bucket);
+      sendEmpty(exchange, 200);
+   }
+
+   private void getBucketLocation(HttpExchange exchange, String bucket) throws IOException {
+      if (!buckets.containsKey(bucket)) {
+         noSuchBucket(exchange, bucket);
+         return;
+      }
+      sendXml(exchange, 200, new StringBuilder("<LocationConstraint xmlns=\"").append(NAMESPACE)
+               .append("\"/>"));
+   }
+
+   private void headBucket(HttpExchange exchange, String bucket) throws IOException {
+      sendEmpty(exchange, buckets.containsKey(bucket) ? 200 : 404);
+   }
+
+   private void deleteBucket(HttpExchange exchange, String bucket) throws IOException {
+      Bucket existing = buckets.get(bucket);
+      if (existing == null) {
+         noSuchBucket(exchange, bucket);
+      } else if (!existing.objects.isEmpty()) {
+         sendError(exchange, 409, "BucketNotEmpty",
+                  "The bucket you tried to delete is not empty");
+      } else {
+         buckets.remove(bucket);
+         sendEmpty(exchange, 204);
+      }
+   }
+
+   private void listBucket(HttpExchange exchange, String bucket, Map<String, String> query)
+            throws IOException {
+      Bucket existing = buckets.get(bucket);
+      if (existing == null) {
+         noSuchBucket(exchange, bucket);
+         return;
+      }
+      String prefix = valueOrEmpty(query.get("prefix"));
+      String marker = valueOrEmpty(query.get("marker"));
+      String delimiter = query.get("delimiter");
+      int maxKeys = query.containsKey("max-keys") ? Integer.parseInt(query.get("max-keys"))
+               : DEFAULT_MAX_KEYS;
+
+      StringBuilder contents = new StringBuilder();
+      SortedSet<String> commonPrefixes = Sets.newTreeSet();
+      int found = 0;
+      boolean truncated = false;
+      NavigableMap<String, StoredObject> candidates = marker.compareTo(prefix) >= 0
+               && !marker.equals("") ? existing.objects.tailMap(marker, false) : existing.objects
+               .tailMap(prefix, true);
+      for (Map.Entry<String, StoredObject> entry : candidates.entrySet()) {
+         String name = entry.getKey();
+         if (!name.startsWith(prefix)) {
+            if (name.compareTo(prefix) > 0)
+               break;
+            continue;
+         }
+         if (found == maxKeys) {
+            truncated = true;
+            break;
+         }
+         if (delimiter != null) {
+            int index = name.indexOf(delimiter, prefix.length());
+            if (index != -1) {
+               if (commonPrefixes.add(name.substring(0, index + delimiter.length())))
+                  found++;
+               continue;
+            }
+         }
+         StoredObject object = entry.getValue();
+         contents.append("<Contents><Key>").append(escape(name)).append("</Key>");
+         contents.append("<LastModified>").append(
+                  dateService.iso8601DateFormat(object.lastModified)).append("</LastModified>");
+         contents.append("<ETag>&quot;").append(object.eTag).append("&quot;</ETag>");
+         contents.append("<Size>").append(object.data.length).append("</Size>");
+         appendOwner(contents);
+         contents.append("<StorageClass>STANDARD</StorageClass></Contents>");
+         found++;
+      }
+      StringBuilder xml = new StringBuilder();
+      xml.append("<ListBucketResult xmlns=\"").append(NAMESPACE).append("\">");
+      xml.append("<Name>").append(escape(bucket)).append("</Name>");
+      xml.append("<Prefix>").append(escape(prefix)).append("</Prefix>");
+      xml.append("<Marker>").append(escape(marker)).append("</Marker>");
+      xml.append("<MaxKeys>").append(maxKeys).append("</MaxKeys>");
+      if (delimiter != null)
+         xml.append("<Delimiter>").append(escape(delimiter)).append("</Delimiter>");
+      xml.append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+      xml.append(contents);
+      for (String commonPrefix : commonPrefixes)
+         xml.append("<CommonPrefixes><Prefix>").append(escape(commonPrefix)).append(
+                  "</Prefix></CommonPrefixes>");
+      xml.append("</ListBucketResult>");
+      sendXml(exchange, 200, xml);
+   }
+
+   private void putObject(HttpExchange exchange, String bucket, String key) throws IOException {
+      Bucket existing = buckets.get(bucket);
+      if (existing == null) {
+         drain(exchange.getRequestBody());
+         noSuchBucket(exchange, bucket);
+         return;
+      }
+      Headers headers = exchange.getRequestHeaders();
+      ByteArrayOutputStream content = new ByteArrayOutputStream();
+      transfer(exchange.getRequestBody(), content);
+      byte[] data = content.toByteArray();
+      String eTag = encryptionService.toHexString(encryptionService.md5(data));
+      Map<String, String> userMetadata = Maps.newHashMap();
+      for (Map.Entry<String, List<String>> header : headers.entrySet())
+         if (header.getKey().toLowerCase().startsWith("x-amz-meta-"))
+            userMetadata.put(header.getKey().toLowerCase(), header.getValue().get(0));
+      String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+      existing.objects.put(key, new StoredObject(data, eTag,
+               contentType == null ? "binary/octet-stream" : contentType, ImmutableMap
+                        .copyOf(userMetadata)));
+      exchange.getResponseHeaders().set(HttpHeaders.ETAG, "\"" + eTag + "\"");
+      sendEmpty(exchange, 200);
+   }
+
+   private void getObject(HttpExchange exchange, String bucket, String key, boolean withContent)
+            throws IOException {
+      Bucket existing = buckets.get(bucket);
+      StoredObject object = existing == null ? null : existing.objects.get(key);
+      if (object == null) {
+         if (withContent)
+            sendError(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+         else
+            sendEmpty(exchange, 404);
+         return;
+      }
+      Headers headers = exchange.getResponseHeaders();
+      headers.set(HttpHeaders.CONTENT_TYPE, object.contentType);
+      headers.set(HttpHeaders.ETAG, "\"" + object.eTag + "\"");
+      headers.set(HttpHeaders.LAST_MODIFIED, dateService.rfc822DateFormat(object.lastModified));
+      for (Map.Entry<String, String> metadata : object.userMetadata.entrySet())
+         headers.set(metadata.getKey(), metadata.getValue());
+      addAmzHeaders(exchange);
+      if (withContent) {
+         exchange.sendResponseHeaders(200, object.data.length == 0 ? -1 : object.data.length);
+         OutputStream out = exchange.getResponseBody();
+         throttle(object.data, out);
+         out.close();
+      } else {
+         // the server only sends a content length for HEAD if it is set by hand
+         headers.set(HttpHeaders.CONTENT_LENGTH, Integer.toString(object.data.length));
+         exchange.sendResponseHeaders(200, -1);
+      }
+   }
+
+   private void deleteObject(HttpExchange exchange, String bucket, String key) throws IOException {
+      Bucket existing = buckets.get(bucket);
+      if (existing == null) {
+         noSuchBucket(exchange, bucket);
+         return;
+      }
+      existing.objects.remove(key);
+      sendEmpty(exchange, 204);
+   }
+
+   private void noSuchBucket(HttpExchange exchange, String bucket) throws IOException {
+      sendError(exchange, 404, "NoSuchBucket", "The specified bucket does not exist");
+   }
+
+   private void appendOwner(StringBuilder xml) {
+      xml.append("<Owner><ID>stub</ID><DisplayName>stub</DisplayName></Owner>");
+   }
+
+   private void sendError(HttpExchange exchange, int status, String code, String message)
+            throws IOException {
+      sendXml(exchange, status, new StringBuilder("<Error><Code>").append(code).append(
+               "</Code><Message>").append(escape(message)).append("</Message><RequestId>")
+               .append(UUID.randomUUID()).append("</RequestId></Error>"));
+   }
+
+   private void sendXml(HttpExchange exchange, int status, StringBuilder xml) throws IOException {
+      byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + xml).getBytes("UTF-8");
+      exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/xml");
+      addAmzHeaders(exchange);
+      if (exchange.getRequestMethod().equals(HttpMethod.HEAD)) {
+         exchange.sendResponseHeaders(status, -1);
+         return;
+      }
+      exchange.sendResponseHeaders(status, body.length);
+      OutputStream out = exchange.getResponseBody();
+      throttle(body, out);
+      out.close();
+   }
+
+   private void sendEmpty(HttpExchange exchange, int status) throws IOException {
+      addAmzHeaders(exchange);
+      exchange.sendResponseHeaders(status, -1);
+   }
+
+   private void addAmzHeaders(HttpExchange exchange) {
+      Headers headers = exchange.getResponseHeaders();
+      headers.set("x-amz-request-id", Long.toHexString(random.nextLong()).toUpperCase());
+      headers.set("Server", "AmazonS3");
+   }
+
+   private void delay() {
+      long millis = latencyMillis;
+      if (jitterMillis > 0)
+         millis += (long) (random.nextDouble() * jitterMillis);
+      if (millis > 0)
+         sleep(millis);
+   }
+
+   /**
+    * copies the request body, at no more than the configured bandwidth
+    */
+   private void transfer(InputStream in, OutputStream out) throws IOException {
+      byte[] buffer = new byte[CHUNK];
+      long start = System.nanoTime();
+      long total = 0;
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+         out.write(buffer, 0, read);
+         total += read;
+         pace(start, total);
+      }
+      in.close();
+   }
+
+   /**
+    * writes the response body, at no more than the configured bandwidth
+    */
+   private void throttle(byte[] data, OutputStream out) throws IOException {
+      long start = System.nanoTime();
+      for (int offset = 0; offset < data.length; offset += CHUNK) {
+         int length = Math.min(CHUNK, data.length - offset);
+         out.write(data, offset, length);
+         pace(start, offset + length);
+      }
+   }
+
+   private void pace(long startNanos, long bytes) {
+      long limit = bytesPerSecond;
+      if (limit == 0)
+         return;
+      long dueMillis = bytes * 1000 / limit;
+      long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
+      if (dueMillis > elapsedMillis)
+         sleep(dueMillis - elapsedMillis);
+   }
+
+   private static void sleep(long millis) {
+      try {
+         Thread.sleep(millis);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private static void drain(InputStream in) throws IOException {
+      byte[] buffer = new byte[CHUNK];
+      while (in.read(buffer) != -1)
+         ;
+      in.close();
+   }
+
+   static Map<String, String> parseQuery(String rawQuery) {
+      if (rawQuery == null || rawQuery.equals(""))
+         return ImmutableMap.of();
+      Map<String, String> query = Maps.newHashMap();
+      for (String param : rawQuery.split("&")) {
+         int equals = param.indexOf('=');
+         if (equals == -1)
+            query.put(decode(param), "");
+         else
+            query.put(decode(param.substring(0, equals)), decode(param.substring(equals + 1)));
+      }
+      return query;
+   }
+
+   private static String decode(String encoded) {
+      try {
+         return URLDecoder.decode(encoded, "UTF-8");
+      } catch (UnsupportedEncodingException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static String valueOrEmpty(String value) {
+      return value == null ? "" : value;
+   }
+
+   static String escape(String value) {
+      return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"",
+               "&quot;");
+   }
+}
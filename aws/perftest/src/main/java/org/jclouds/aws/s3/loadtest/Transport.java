@@ -0,0 +1,89 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.apachehc.ApacheHCHttpCommandExecutorService;
+import org.jclouds.http.apachehc.config.ApacheHCHttpCommandExecutorServiceModule;
+import org.jclouds.http.config.JavaUrlHttpCommandExecutorServiceModule;
+import org.jclouds.http.internal.JavaUrlHttpCommandExecutorService;
+import org.jclouds.http.ning.NingHttpCommandExecutorService;
+import org.jclouds.http.ning.config.NingHttpCommandExecutorServiceModule;
+
+import com.google.inject.Module;
+
+/**
+ * The http executors a load test can run over. Google App Engine is left out, as its stubs don't
+ * behave like the service.
+ * 
+ * @author Adrian Cole
+ */
+public enum Transport {
+
+   JDK {
+      @Override
+      Module executorModule() {
+         return new JavaUrlHttpCommandExecutorServiceModule();
+      }
+
+      @Override
+      Class<? extends HttpCommandExecutorService> executor() {
+         return JavaUrlHttpCommandExecutorService.class;
+      }
+   },
+   APACHEHC {
+      @Override
+      Module executorModule() {
+         return new ApacheHCHttpCommandExecutorServiceModule();
+      }
+
+      @Override
+      Class<? extends HttpCommandExecutorService> executor() {
+         return ApacheHCHttpCommandExecutorService.class;
+      }
+   },
+   NING {
+      @Override
+      Module executorModule() {
+         return new NingHttpCommandExecutorServiceModule();
+      }
+
+      @Override
+      Class<? extends HttpCommandExecutorService> executor() {
+         return NingHttpCommandExecutorService.class;
+      }
+   };
+
+   abstract Module executorModule();
+
+   abstract Class<? extends HttpCommandExecutorService> executor();
+
+   /**
+    * @return a module configuring this transport to send requests to {@code server}, regardless of
+    *         which host the client addresses
+    */
+   public Module moduleFor(StubS3Server server) {
+      return new PathStyleExecutorModule(executorModule(), executor(), server.getHostName(),
+               server.getPort());
+   }
+
+   public static Transport fromValue(String value) {
+      return valueOf(value.trim().toUpperCase());
+   }
+}
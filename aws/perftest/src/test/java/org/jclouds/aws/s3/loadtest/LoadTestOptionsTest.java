@@ -0,0 +1,84 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.jclouds.aws.s3.loadtest.LoadTestClient.Api;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "loadtest.LoadTestOptionsTest")
+public class LoadTestOptionsTest {
+
+   public void testFromProperties() {
+      Properties properties = new Properties();
+      properties.setProperty("jclouds.loadtest.transports", "ning, jdk");
+      properties.setProperty("jclouds.loadtest.api", "blobstore");
+      properties.setProperty("jclouds.loadtest.concurrency", "7");
+      properties.setProperty("jclouds.loadtest.mix", "get:3,delete:1");
+      properties.setProperty("jclouds.loadtest.server.error-rate", "0.25");
+      LoadTestOptions options = LoadTestOptions.fromProperties(properties);
+      assertEquals(options.getTransports(), ImmutableList.of(Transport.NING, Transport.JDK));
+      assertEquals(options.getApi(), Api.BLOBSTORE);
+      assertEquals(options.getConcurrency(), 7);
+      assertEquals(options.getMix().getWeights(), ImmutableMap.of(Operation.GET, 3,
+               Operation.DELETE, 1));
+      assertEquals(options.getErrorRate(), 0.25);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testBadErrorRate() {
+      Properties properties = new Properties();
+      properties.setProperty("jclouds.loadtest.server.error-rate", "2");
+      LoadTestOptions.fromProperties(properties);
+   }
+
+   public void testFixedSize() {
+      assertEquals(ObjectSizes.parse("65536").next(new Random()), 65536);
+   }
+
+   public void testUniformSize() {
+      ObjectSizes sizes = ObjectSizes.parse("10-20");
+      Random random = new Random();
+      for (int i = 0; i < 100; i++) {
+         int size = sizes.next(random);
+         assertTrue(size >= 10 && size <= 20, size + "");
+      }
+   }
+
+   public void testWeightedSize() {
+      ObjectSizes sizes = ObjectSizes.parse("1:0,2:1");
+      assertEquals(sizes.next(new Random()), 2);
+   }
+
+   public void testWeightedOperation() {
+      OperationMix mix = OperationMix.parse("put:0,head:1");
+      assertEquals(mix.next(new Random()), Operation.HEAD);
+   }
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.aws.s3.loadtest;
+
+import static org.testng.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.Properties;
+
+import org.jclouds.aws.s3.S3AsyncClient;
+import org.jclouds.aws.s3.domain.ListBucketResponse;
+import org.jclouds.aws.s3.loadtest.PathStyleExecutorModule.PathStyleHttpCommandExecutorService;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the stub behaves enough like S3 for the load test to drive it.
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "loadtest.StubS3ServerTest")
+public class StubS3ServerTest {
+   private StubS3Server server;
+   private BlobStoreContext context;
+
+   @BeforeClass
+   void setUp() throws Exception {
+      server = new StubS3Server(0, 4).start();
+      context = new S3LoadTest(server, Transport.JDK, LoadTestOptions
+               .fromProperties(new Properties())).createContext();
+   }
+
+   @AfterClass
+   void tearDown() {
+      if (context != null)
+         context.close();
+      if (server != null)
+         server.stop();
+   }
+
+   public void testS3RoundTrip() throws Exception {
+      LoadTestClient client = new S3LoadTest(server, Transport.JDK, LoadTestOptions
+               .fromProperties(new Properties())).createClient(context);
+      assertRoundTrip(client, "s3.bucket");
+
+      S3AsyncClient s3 = (S3AsyncClient) context.getProviderSpecificContext().getAsyncApi();
+      ListBucketResponse list = s3.listBucket("s3.bucket").get();
+      assertEquals(list.size(), 1);
+      assertEquals(list.iterator().next().getKey(), "b");
+      assertEquals(list.iterator().next().getSize(), 5);
+   }
+
+   public void testBlobStoreRoundTrip() throws Exception {
+      Properties properties = new Properties();
+      properties.setProperty(LoadTestOptions.PREFIX + "api", "blobstore");
+      LoadTestClient client = new S3LoadTest(server, Transport.JDK, LoadTestOptions
+               .fromProperties(properties)).createClient(context);
+      assertRoundTrip(client, "blobstorebucket");
+   }
+
+   private void assertRoundTrip(LoadTestClient client, String bucket) throws Exception {
+      client.createBucket(bucket).get();
+      assertEquals(client.put(bucket, "a", "hello world".getBytes()).get(), new Long(11));
+      assertEquals(client.put(bucket, "b", "hello".getBytes()).get(), new Long(5));
+      assertEquals(client.get(bucket, "a").get(), new Long(11));
+      assertEquals(client.head(bucket, "b").get(), new Long(0));
+      assertEquals(client.list(bucket, 10).get(), new Long(0));
+      assertEquals(client.delete(bucket, "a").get(), new Long(0));
+   }
+
+   public void testPathStyleRewrite() {
+      PathStyleHttpCommandExecutorService rewriter = new PathStyleHttpCommandExecutorService(null,
+               "localhost", 8080);
+      assertEquals(rewriter.rewrite(URI.create("https://my.bucket.localhost/key?acl")), URI
+               .create("http://localhost:8080/my.bucket/key?acl"));
+      assertEquals(rewriter.rewrite(URI.create("https://localhost")), URI
+               .create("http://localhost:8080/"));
+   }
+}
@@ -33,6 +33,7 @@ import org.jclouds.azure.storage.blob.binders.BindAzureBlobToPayload;
 import org.jclouds.azure.storage.blob.domain.BlobProperties;
 import org.jclouds.azure.storage.blob.domain.ContainerProperties;
 import org.jclouds.azure.storage.blob.domain.ListBlobsResponse;
+import org.jclouds.azure.storage.blob.functions.AccountQualifiedContainerName;
 import org.jclouds.azure.storage.blob.functions.BlobName;
 import org.jclouds.azure.storage.blob.functions.ParseBlobFromHeadersAndHttpContent;
 import org.jclouds.azure.storage.blob.functions.ParseBlobPropertiesFromHeaders;
@@ -56,6 +57,7 @@ import org.jclouds.http.functions.ParseETagHeader;
 import org.jclouds.http.functions.ReturnTrueOn404;
 import org.jclouds.http.options.GetOptions;
 import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Coalesce;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.ExceptionParser;
 import org.jclouds.rest.annotations.Headers;
@@ -128,6 +130,7 @@ public interface AzureBlobAsyncClient {
    @Path("{container}")
    @QueryParams(keys = "restype", values = "container")
    @ExceptionParser(ReturnFalseOnContainerNotFound.class)
+   @Coalesce
    ListenableFuture<Boolean> containerExists(
            @PathParam("container") @ParamValidators({ContainerNameValidator.class}) String container);
 
@@ -199,6 +202,19 @@ public interface AzureBlobAsyncClient {
             @PathParam("container") @ParamValidators({ContainerNameValidator.class}) String container,
             @PathParam("name") @ParamParser(BlobName.class) @BinderParam(BindAzureBlobToPayload.class) org.jclouds.azure.storage.blob.domain.AzureBlob object);
 
+   /**
+    * @see AzureBlobClient#copyBlob
+    */
+   @PUT
+   @Path("{container}/{name}")
+   @Headers(keys = "x-ms-copy-source", values = "/{sourceContainer}/{sourceName}")
+   @ResponseParser(ParseETagHeader.class)
+   ListenableFuture<String> copyBlob(
+            @PathParam("sourceContainer") @ParamParser(AccountQualifiedContainerName.class) String sourceContainer,
+            @PathParam("sourceName") String sourceName,
+            @PathParam("container") @ParamValidators({ContainerNameValidator.class}) String container,
+            @PathParam("name") String name);
+
    /**
     * @see AzureBlobClient#getBlob
     */
@@ -228,6 +244,7 @@ public interface AzureBlobAsyncClient {
    @HEAD
    @ExceptionParser(ReturnFalseOnKeyNotFound.class)
    @Path("{container}/{name}")
+   @Coalesce
    ListenableFuture<Boolean> blobExists(
             @PathParam("container") @ParamValidators({ContainerNameValidator.class}) String container,
             @PathParam("name") String name);
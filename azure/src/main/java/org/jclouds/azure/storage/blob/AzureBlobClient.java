@@ -205,6 +205,16 @@ public interface AzureBlobClient {
    @Timeout(duration = 10 * 64, timeUnit = TimeUnit.MINUTES)
    String putBlob(String container, org.jclouds.azure.storage.blob.domain.AzureBlob object);
 
+   /**
+    * The Copy Blob operation copies a blob to a destination within the storage account, replacing
+    * any blob already there. The copy is made by the service, so the content of the source isn't
+    * transferred through the client.
+    * 
+    * @return etag of the destination blob
+    */
+   @Timeout(duration = 10 * 64, timeUnit = TimeUnit.MINUTES)
+   String copyBlob(String sourceContainer, String sourceName, String container, String name);
+
    /**
     * The Get Blob operation reads or downloads a blob from the system, including its metadata and
     * properties.
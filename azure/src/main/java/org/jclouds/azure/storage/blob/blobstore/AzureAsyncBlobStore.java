@@ -44,6 +44,8 @@ import org.jclouds.azure.storage.blob.domain.ListBlobsResponse;
 import org.jclouds.azure.storage.blob.options.ListBlobsOptions;
 import org.jclouds.azure.storage.domain.BoundedSet;
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.attr.BlobCapabilities;
+import org.jclouds.blobstore.attr.BlobCapability;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
@@ -193,6 +195,21 @@ public class AzureAsyncBlobStore extends BaseAsyncBlobStore {
       return async.putBlob(container, blob2AzureBlob.apply(blob));
    }
 
+   /**
+    * This implementation invokes {@link AzureBlobAsyncClient#copyBlob}, which copies within the storage account.
+    * 
+    * @param fromContainer
+    *           container name of the source
+    * @param fromName
+    *           blob key of the source
+    */
+   @Override
+   @BlobCapabilities(BlobCapability.COPY)
+   public ListenableFuture<String> copyBlob(String fromContainer, String fromName,
+            String toContainer, String toName) {
+      return async.copyBlob(fromContainer, fromName, toContainer, toName);
+   }
+
    /**
     * This implementation invokes {@link AzureBlobAsyncClient#deleteObject}
     * 
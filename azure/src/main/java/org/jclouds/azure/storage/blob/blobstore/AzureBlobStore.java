@@ -37,6 +37,8 @@ import org.jclouds.azure.storage.blob.domain.ContainerProperties;
 import org.jclouds.azure.storage.blob.options.ListBlobsOptions;
 import org.jclouds.azure.storage.domain.BoundedSet;
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.attr.BlobCapabilities;
+import org.jclouds.blobstore.attr.BlobCapability;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
@@ -192,6 +194,20 @@ public class AzureBlobStore extends BaseBlobStore {
       return sync.putBlob(container, blob2AzureBlob.apply(blob));
    }
 
+   /**
+    * This implementation invokes {@link AzureBlobClient#copyBlob}, which copies within the storage account.
+    * 
+    * @param fromContainer
+    *           container name of the source
+    * @param fromName
+    *           blob key of the source
+    */
+   @Override
+   @BlobCapabilities(BlobCapability.COPY)
+   public String copyBlob(String fromContainer, String fromName, String toContainer, String toName) {
+      return sync.copyBlob(fromContainer, fromName, toContainer, toName);
+   }
+
    /**
     * This implementation invokes {@link AzureBlobClient#deleteObject}
     * 
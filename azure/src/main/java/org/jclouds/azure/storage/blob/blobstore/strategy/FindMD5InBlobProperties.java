@@ -18,57 +18,50 @@
  */
 package org.jclouds.azure.storage.blob.blobstore.strategy;
 
-import java.util.Arrays;
+import static com.google.common.util.concurrent.Futures.compose;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import org.jclouds.azure.storage.blob.AzureBlobClient;
+import org.jclouds.azure.storage.blob.AzureBlobAsyncClient;
 import org.jclouds.azure.storage.blob.domain.BlobProperties;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.functions.ObjectMD5;
-import org.jclouds.blobstore.internal.BlobRuntimeException;
-import org.jclouds.blobstore.options.ListContainerOptions;
-import org.jclouds.blobstore.strategy.ContainsValueInListStrategy;
 import org.jclouds.blobstore.strategy.ListBlobsInContainer;
+import org.jclouds.blobstore.strategy.internal.ContentMD5Index;
+import org.jclouds.blobstore.strategy.internal.FindMD5InListOrLookupConcurrently;
 
-import com.google.common.base.Throwables;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * Searches Content-MD5 tag for the value associated with the value
+ * <p/>
+ * Azure listings include Content-MD5 for blobs uploaded with one; only the others are looked up
+ * with {@code getBlobProperties}.
  * 
  * @author Adrian Cole
  */
 @Singleton
-public class FindMD5InBlobProperties implements ContainsValueInListStrategy {
-
-   protected final ObjectMD5 objectMD5;
-   protected final ListBlobsInContainer getAllBlobMetadata;
-   private final AzureBlobClient client;
+public class FindMD5InBlobProperties extends FindMD5InListOrLookupConcurrently {
+   private final AzureBlobAsyncClient client;
 
    @Inject
-   private FindMD5InBlobProperties(ObjectMD5 objectMD5,
-            ListBlobsInContainer getAllBlobMetadata, AzureBlobClient client) {
-      this.objectMD5 = objectMD5;
-      this.getAllBlobMetadata = getAllBlobMetadata;
+   private FindMD5InBlobProperties(ObjectMD5 objectMD5, ListBlobsInContainer getAllBlobMetadata,
+            ContentMD5Index index, AzureBlobAsyncClient client) {
+      super(objectMD5, getAllBlobMetadata, index);
       this.client = client;
    }
 
-   public boolean execute(String containerName, Object value, ListContainerOptions options) {
-      try {
-         byte[] toSearch = objectMD5.apply(value);
-         for (BlobMetadata metadata : getAllBlobMetadata.execute(containerName, options)) {
-            BlobProperties properties = client.getBlobProperties(containerName, metadata.getName());
-            if (Arrays.equals(toSearch, properties.getContentMD5()))
-               return true;
-         }
-         return false;
-      } catch (Exception e) {
-         Throwables.propagateIfPossible(e, BlobRuntimeException.class);
-         throw new BlobRuntimeException(String.format(
-                  "Error searching for ETAG of value: [%2$s] in container:%1$s", containerName,
-                  value), e);
-      }
+   @Override
+   protected ListenableFuture<byte[]> lookupMD5(String containerName, BlobMetadata md) {
+      return compose(client.getBlobProperties(containerName, md.getName()),
+               new Function<BlobProperties, byte[]>() {
+                  @Override
+                  public byte[] apply(BlobProperties from) {
+                     // deleted since it was listed
+                     return from != null ? from.getContentMD5() : null;
+                  }
+               });
    }
-
-}
\ No newline at end of file
+}
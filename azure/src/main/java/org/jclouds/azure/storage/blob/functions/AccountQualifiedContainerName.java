@@ -0,0 +1,49 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.azure.storage.blob.functions;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.azure.storage.reference.AzureStorageConstants;
+
+import com.google.common.base.Function;
+
+/**
+ * Qualifies a container name with the account it belongs to, as needed by headers such as {@code
+ * x-ms-copy-source}.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class AccountQualifiedContainerName implements Function<Object, String> {
+   private final String account;
+
+   @Inject
+   AccountQualifiedContainerName(
+            @Named(AzureStorageConstants.PROPERTY_AZURESTORAGE_ACCOUNT) String account) {
+      this.account = account;
+   }
+
+   public String apply(Object from) {
+      return account + "/" + from;
+   }
+
+}
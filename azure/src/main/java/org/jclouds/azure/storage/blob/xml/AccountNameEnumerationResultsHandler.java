@@ -60,8 +60,6 @@ public class AccountNameEnumerationResultsHandler extends
 
    private Map<String, String> currentMetadata = Maps.newHashMap();
 
-   private StringBuilder currentText = new StringBuilder();
-
    private final DateService dateParser;
    private URI accountUrl;
 
@@ -89,19 +87,19 @@ public class AccountNameEnumerationResultsHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (inMetadata && !qName.equals("Metadata")) {
-         currentMetadata.put(qName, currentText.toString().trim());
+         currentMetadata.put(qName, trimmedText());
       } else if (qName.equals("Metadata")) {
          inMetadata = false;
       } else if (qName.equals("MaxResults")) {
-         maxResults = Integer.parseInt(currentText.toString().trim());
+         maxResults = textAsInt();
       } else if (qName.equals("Marker")) {
-         marker = currentText.toString().trim();
+         marker = trimmedText();
          marker = (marker.equals("")) ? null : marker;
       } else if (qName.equals("Prefix")) {
-         prefix = currentText.toString().trim();
+         prefix = trimmedText();
          prefix = (prefix.equals("")) ? null : prefix;
       } else if (qName.equals("NextMarker")) {
-         nextMarker = currentText.toString().trim();
+         nextMarker = trimmedText();
          nextMarker = (nextMarker.equals("")) ? null : nextMarker;
       } else if (qName.equals("Container")) {
          containerMetadata.add(new ContainerPropertiesImpl(currentUrl, currentLastModified,
@@ -111,16 +109,12 @@ public class AccountNameEnumerationResultsHandler extends
          currentETag = null;
          currentMetadata = Maps.newHashMap();
       } else if (qName.equals("Url")) {
-         currentUrl = URI.create(currentText.toString().trim());
+         currentUrl = URI.create(trimmedText());
       } else if (qName.equals("Last-Modified")) {
-         currentLastModified = dateParser.rfc822DateParse(currentText.toString().trim());
+         currentLastModified = dateParser.rfc822DateParse(trimmedText());
       } else if (qName.equals("Etag")) {
-         currentETag = currentText.toString().trim();
+         currentETag = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
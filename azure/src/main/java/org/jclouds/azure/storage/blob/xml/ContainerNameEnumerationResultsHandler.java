@@ -61,8 +61,6 @@ public class ContainerNameEnumerationResultsHandler extends
    private Date currentLastModified;
    private String currentETag;
 
-   private StringBuilder currentText = new StringBuilder();
-
    private final EncryptionService encryptionService;
    private final DateService dateParser;
    private String delimiter;
@@ -112,27 +110,27 @@ public class ContainerNameEnumerationResultsHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (inMetadata && !qName.equals("Metadata")) {
-         currentMetadata.put(qName, currentText.toString().trim());
+         currentMetadata.put(qName, trimmedText());
       } else if (qName.equals("Metadata")) {
          inMetadata = false;
       } else if (qName.equals("MaxResults")) {
-         maxResults = Integer.parseInt(currentText.toString().trim());
+         maxResults = textAsInt();
       } else if (qName.equals("Marker")) {
-         marker = currentText.toString().trim();
+         marker = trimmedText();
          marker = (marker.equals("")) ? null : marker;
       } else if (qName.equals("Prefix")) {
-         prefix = currentText.toString().trim();
+         prefix = trimmedText();
          prefix = (prefix.equals("")) ? null : prefix;
       } else if (qName.equals("Delimiter")) {
-         delimiter = currentText.toString().trim();
+         delimiter = trimmedText();
          delimiter = (delimiter.equals("")) ? null : delimiter;
       } else if (qName.equals("NextMarker")) {
-         nextMarker = currentText.toString().trim();
+         nextMarker = trimmedText();
          nextMarker = (nextMarker.equals("")) ? null : nextMarker;
       } else if (qName.equals("BlobType")) {
-         currentBlobType = BlobType.fromValue(currentText.toString().trim());
+         currentBlobType = BlobType.fromValue(trimmedText());
       } else if (qName.equals("LeaseStatus")) {
-         currentLeaseStatus = LeaseStatus.fromValue(currentText.toString().trim());
+         currentLeaseStatus = LeaseStatus.fromValue(trimmedText());
       } else if (qName.equals("Blob")) {
          BlobProperties md = new BlobPropertiesImpl(currentBlobType, currentName, currentUrl,
                   currentLastModified, currentETag, currentSize, currentContentType,
@@ -152,36 +150,32 @@ public class ContainerNameEnumerationResultsHandler extends
          currentLeaseStatus = null;
          currentMetadata = Maps.newHashMap();
       } else if (qName.equals("Url")) {
-         currentUrl = HttpUtils.createUri(currentText.toString().trim());
+         currentUrl = HttpUtils.createUri(trimmedText());
       } else if (qName.equals("Last-Modified")) {
-         currentLastModified = dateParser.rfc822DateParse(currentText.toString().trim());
+         currentLastModified = dateParser.rfc822DateParse(trimmedText());
       } else if (qName.equals("Etag")) {
-         currentETag = currentText.toString().trim();
+         currentETag = trimmedText();
       } else if (qName.equals("Name")) {
          if (inBlob)
-            currentName = currentText.toString().trim();
+            currentName = trimmedText();
          else if (inBlobPrefix)
-            blobPrefixes.add(currentText.toString().trim());
+            blobPrefixes.add(trimmedText());
       } else if (qName.equals("Content-Length")) {
-         currentSize = Long.parseLong(currentText.toString().trim());
+         currentSize = textAsLong();
       } else if (qName.equals("Content-MD5")) {
-         if (!currentText.toString().trim().equals(""))
-            currentContentMD5 = encryptionService.fromBase64String(currentText.toString().trim());
+         if (!isTextBlank())
+            currentContentMD5 = encryptionService.fromBase64String(trimmedText());
       } else if (qName.equals("Content-Type")) {
-         currentContentType = currentText.toString().trim();
+         currentContentType = trimmedText();
       } else if (qName.equals("Content-Encoding")) {
-         currentContentEncoding = currentText.toString().trim();
+         currentContentEncoding = trimmedText();
          if (currentContentEncoding.equals(""))
             currentContentEncoding = null;
       } else if (qName.equals("Content-Language")) {
-         currentContentLanguage = currentText.toString().trim();
+         currentContentLanguage = trimmedText();
          if (currentContentLanguage.equals(""))
             currentContentLanguage = null;
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -78,8 +78,8 @@ public class AzureStorageClientErrorRetryHandler implements HttpRetryHandler {
                AzureStorageError error = utils.parseAzureStorageErrorFromContent(command, response,
                         new ByteArrayInputStream(content));
                if ("ContainerBeingDeleted".equals(error.getCode())) {
-                  backoffHandler.imposeBackoffExponentialDelay(100L, 3, retryCountLimit, command
-                           .getFailureCount(), command.toString());
+                  command.setRetryDelayMillis(backoffHandler.exponentialDelayMillis(100L, 3,
+                           command.getFailureCount()));
                   return true;
                }
             } catch (HttpException e) {
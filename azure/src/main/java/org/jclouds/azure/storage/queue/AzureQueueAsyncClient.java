@@ -27,6 +27,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
 
 import org.jclouds.azure.storage.AzureQueue;
 import org.jclouds.azure.storage.domain.BoundedSet;
@@ -122,4 +123,12 @@ public interface AzureQueueAsyncClient {
    @DELETE
    @Path("{queue}/messages")
    ListenableFuture<Void> clearMessages(@PathParam("queue") String queue);
+
+   /**
+    * @see AzureQueueClient#deleteMessage
+    */
+   @DELETE
+   @Path("{queue}/messages/{messageId}")
+   ListenableFuture<Void> deleteMessage(@PathParam("queue") String queue,
+            @PathParam("messageId") String messageId, @QueryParam("popreceipt") String popReceipt);
 }
@@ -139,4 +139,19 @@ public interface AzureQueueClient {
     */
    Set<QueueMessage> getMessages(String queue, GetOptions... options);
 
+   /**
+    * The Delete Message operation deletes the specified message from the queue.
+    * <p/>
+    * A message can only be deleted with the pop receipt of its latest retrieval. Once its visibility
+    * timeout has passed and another client has retrieved it, the old pop receipt no longer works.
+    * 
+    * @param queue
+    *           the name of the queue the message was retrieved from
+    * @param messageId
+    *           {@link QueueMessage#getMessageId}
+    * @param popReceipt
+    *           {@link QueueMessage#getPopReceipt} of the latest retrieval
+    */
+   void deleteMessage(String queue, String messageId, String popReceipt);
+
 }
@@ -0,0 +1,259 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.azure.storage.queue;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.inject.Singleton;
+
+import org.jclouds.azure.storage.domain.BoundedSet;
+import org.jclouds.azure.storage.domain.internal.BoundedHashSet;
+import org.jclouds.azure.storage.options.CreateOptions;
+import org.jclouds.azure.storage.options.ListOptions;
+import org.jclouds.azure.storage.queue.domain.QueueMessage;
+import org.jclouds.azure.storage.queue.domain.QueueMetadata;
+import org.jclouds.azure.storage.queue.options.GetOptions;
+import org.jclouds.azure.storage.queue.options.PutMessageOptions;
+import org.jclouds.rest.ResourceNotFoundException;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Implementation of {@link AzureQueueAsyncClient} which keeps all queues in memory. Useful for
+ * measuring producers and consumers without the network.
+ * <p/>
+ * Retrieved messages stay invisible for their visibility timeout, then return to the front of the
+ * queue with a new pop receipt and a higher dequeue count. Only the latest pop receipt can delete a
+ * message.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class TransientAzureQueueAsyncClient implements AzureQueueAsyncClient {
+   public static final int DEFAULT_VISIBILITY_TIMEOUT = 30;
+   public static final int DEFAULT_TTL = 7 * 24 * 60 * 60;
+
+   private static final URI ENDPOINT = URI.create("https://transient.queue.core.windows.net/");
+
+   private final ConcurrentMap<String, TransientQueue> queues = new MapMaker().makeMap();
+
+   @Override
+   public ListenableFuture<? extends BoundedSet<QueueMetadata>> listQueues(
+            ListOptions... listOptions) {
+      String prefix = listOptions.length > 0 ? listOptions[0].getPrefix() : null;
+      Set<QueueMetadata> result = Sets.newTreeSet();
+      for (String name : queues.keySet())
+         if (prefix == null || name.startsWith(prefix))
+            result.add(new QueueMetadata(name, ENDPOINT.resolve(name)));
+      return immediateFuture(new BoundedHashSet<QueueMetadata>(result, ENDPOINT, prefix, null,
+               null, null));
+   }
+
+   @Override
+   public ListenableFuture<Boolean> createQueue(String queue, CreateOptions... options) {
+      return immediateFuture(queues.putIfAbsent(checkNotNull(queue, "queue"),
+               new TransientQueue()) == null);
+   }
+
+   @Override
+   public ListenableFuture<Void> deleteQueue(String queue) {
+      queues.remove(queue);
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<Void> putMessage(String queue, String message,
+            PutMessageOptions... options) {
+      TransientQueue transientQueue = queues.get(queue);
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      Integer ttl = options.length > 0 ? options[0].getTTL() : null;
+      transientQueue.add(checkNotNull(message, "message"), ttl != null ? ttl : DEFAULT_TTL);
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<Set<QueueMessage>> getMessages(String queue, GetOptions... options) {
+      TransientQueue transientQueue = queues.get(queue);
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      GetOptions get = options.length > 0 ? options[0] : GetOptions.NONE;
+      int max = get.getMaxMessages() != null ? get.getMaxMessages() : 1;
+      int visibilityTimeout = get.getVisibilityTimeout() != null ? get.getVisibilityTimeout()
+               : DEFAULT_VISIBILITY_TIMEOUT;
+      return immediateFuture(transientQueue.take(max, visibilityTimeout));
+   }
+
+   @Override
+   public ListenableFuture<Void> deleteMessage(String queue, String messageId, String popReceipt) {
+      TransientQueue transientQueue = queues.get(queue);
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      if (!transientQueue.delete(messageId, popReceipt))
+         return immediateFailedFuture(new ResourceNotFoundException(String.format(
+                  "message %s not found in %s with pop receipt %s", messageId, queue, popReceipt)));
+      return immediateFuture(null);
+   }
+
+   @Override
+   public ListenableFuture<Void> clearMessages(String queue) {
+      TransientQueue transientQueue = queues.get(queue);
+      if (transientQueue == null)
+         return immediateFailedFuture(notFound(queue));
+      transientQueue.clear();
+      return immediateFuture(null);
+   }
+
+   /**
+    * number of unexpired messages in the queue, whether visible or not
+    */
+   public int size(String queue) {
+      TransientQueue transientQueue = queues.get(queue);
+      return transientQueue == null ? 0 : transientQueue.size();
+   }
+
+   private static ResourceNotFoundException notFound(String queue) {
+      return new ResourceNotFoundException("queue not found: " + queue);
+   }
+
+   private static class StoredMessage {
+      private final String id = UUID.randomUUID().toString();
+      private final String text;
+      private final long insertedAt;
+      private final long expiresAt;
+      private int dequeueCount;
+      private String popReceipt;
+      private long visibleAt;
+
+      StoredMessage(String text, long insertedAt, long expiresAt) {
+         this.text = text;
+         this.insertedAt = insertedAt;
+         this.expiresAt = expiresAt;
+      }
+   }
+
+   private static class Lease implements Comparable<Lease> {
+      private final StoredMessage message;
+      private final String popReceipt;
+      private final long visibleAt;
+
+      Lease(StoredMessage message) {
+         this.message = message;
+         this.popReceipt = message.popReceipt;
+         this.visibleAt = message.visibleAt;
+      }
+
+      @Override
+      public int compareTo(Lease o) {
+         return visibleAt < o.visibleAt ? -1 : visibleAt == o.visibleAt ? 0 : 1;
+      }
+   }
+
+   /**
+    * Deleted and expired messages are dropped from {@code visible} and {@code leases} lazily, when
+    * they next reach the front.
+    */
+   private static class TransientQueue {
+      private final Map<String, StoredMessage> messages = Maps.newHashMap();
+      private final LinkedList<StoredMessage> visible = Lists.newLinkedList();
+      private final PriorityQueue<Lease> leases = new PriorityQueue<Lease>();
+
+      synchronized void add(String text, int ttl) {
+         long now = System.currentTimeMillis();
+         StoredMessage message = new StoredMessage(text, now, now + ttl * 1000l);
+         messages.put(message.id, message);
+         visible.add(message);
+      }
+
+      synchronized Set<QueueMessage> take(int max, int visibilityTimeout) {
+         long now = System.currentTimeMillis();
+         while (!leases.isEmpty() && leases.peek().visibleAt <= now) {
+            Lease lease = leases.poll();
+            if (isCurrent(lease.message) && lease.popReceipt.equals(lease.message.popReceipt))
+               visible.addFirst(lease.message);
+         }
+         if (visible.isEmpty())
+            return ImmutableSet.of();
+         Set<QueueMessage> received = Sets.newLinkedHashSet();
+         while (received.size() < max && !visible.isEmpty()) {
+            StoredMessage message = visible.removeFirst();
+            if (!isCurrent(message))
+               continue;
+            if (message.expiresAt <= now) {
+               messages.remove(message.id);
+               continue;
+            }
+            message.dequeueCount++;
+            message.popReceipt = UUID.randomUUID().toString();
+            message.visibleAt = now + visibilityTimeout * 1000l;
+            leases.add(new Lease(message));
+            received.add(new QueueMessage(message.id, new Date(message.insertedAt), new Date(
+                     message.expiresAt), message.dequeueCount, message.popReceipt, new Date(
+                     message.visibleAt), message.text));
+         }
+         return received;
+      }
+
+      synchronized boolean delete(String messageId, String popReceipt) {
+         StoredMessage message = messages.get(messageId);
+         if (message == null || message.popReceipt == null || !message.popReceipt.equals(popReceipt))
+            return false;
+         messages.remove(messageId);
+         return true;
+      }
+
+      synchronized void clear() {
+         messages.clear();
+         visible.clear();
+         leases.clear();
+      }
+
+      synchronized int size() {
+         long now = System.currentTimeMillis();
+         int size = 0;
+         for (StoredMessage message : messages.values())
+            if (message.expiresAt > now)
+               size++;
+         return size;
+      }
+
+      /**
+       * must hold the lock
+       */
+      private boolean isCurrent(StoredMessage message) {
+         return messages.get(message.id) == message;
+      }
+   }
+}
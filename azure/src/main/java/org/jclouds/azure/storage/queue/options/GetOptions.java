@@ -66,6 +66,16 @@ public class GetOptions extends BaseHttpRequestOptions {
       return this;
    }
 
+   public Integer getMaxMessages() {
+      String value = getFirstQueryOrNull("numofmessages");
+      return value == null ? null : Integer.valueOf(value);
+   }
+
+   public Integer getVisibilityTimeout() {
+      String value = getFirstQueryOrNull("visibilitytimeout");
+      return value == null ? null : Integer.valueOf(value);
+   }
+
    public static class Builder {
 
       /**
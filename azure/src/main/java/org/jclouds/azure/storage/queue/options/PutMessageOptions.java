@@ -49,6 +49,11 @@ public class PutMessageOptions extends BaseHttpRequestOptions {
       return this;
    }
 
+   public Integer getTTL() {
+      String value = getFirstQueryOrNull("messagettl");
+      return value == null ? null : Integer.valueOf(value);
+   }
+
    public static class Builder {
 
       /**
@@ -0,0 +1,122 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.azure.storage.queue.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.jclouds.azure.storage.queue.options.GetOptions.Builder.maxMessages;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.azure.storage.queue.AzureQueueAsyncClient;
+import org.jclouds.azure.storage.queue.domain.QueueMessage;
+import org.jclouds.azure.storage.queue.options.GetOptions;
+import org.jclouds.concurrent.PrefetchingConsumer;
+import org.jclouds.concurrent.SettableListenableFuture;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Keeps a fixed number of {@code getMessages} calls in flight against one Azure queue and hands
+ * each message to a worker. By default, each call asks for 32 messages and hides them for 30
+ * seconds.
+ * <p/>
+ * Azure deletes one message per request, so the messages a handler accepts in one call are deleted
+ * in parallel. Azure also answers immediately when the queue is empty, so empty answers back off.
+ * 
+ * @see PrefetchingConsumer
+ * @author Adrian Cole
+ */
+public class PrefetchingQueueConsumer extends PrefetchingConsumer<QueueMessage> {
+
+   public PrefetchingQueueConsumer(AzureQueueAsyncClient client, String queue,
+            Predicate<QueueMessage> handler, Executor workers, ScheduledExecutorService scheduler,
+            int getsInFlight, GetOptions options) {
+      super(checkNotNull(queue, "queue"), get(checkNotNull(client, "client"), queue, checkNotNull(
+               options, "options")), delete(client, queue), handler, workers, scheduler,
+               getsInFlight, options.getMaxMessages() != null ? options.getMaxMessages() : 1,
+               false);
+   }
+
+   public PrefetchingQueueConsumer(AzureQueueAsyncClient client, String queue,
+            Predicate<QueueMessage> handler, Executor workers, ScheduledExecutorService scheduler,
+            int getsInFlight) {
+      this(client, queue, handler, workers, scheduler, getsInFlight, maxMessages(32)
+               .visibilityTimeout(30));
+   }
+
+   @Override
+   public PrefetchingQueueConsumer start() {
+      super.start();
+      return this;
+   }
+
+   private static Supplier<ListenableFuture<Set<QueueMessage>>> get(
+            final AzureQueueAsyncClient client, final String queue, final GetOptions options) {
+      return new Supplier<ListenableFuture<Set<QueueMessage>>>() {
+         @Override
+         public ListenableFuture<Set<QueueMessage>> get() {
+            return client.getMessages(queue, options);
+         }
+      };
+   }
+
+   /**
+    * completes with the number of messages deleted once every delete has finished
+    */
+   private static Function<List<QueueMessage>, ListenableFuture<Integer>> delete(
+            final AzureQueueAsyncClient client, final String queue) {
+      return new Function<List<QueueMessage>, ListenableFuture<Integer>>() {
+         @Override
+         public ListenableFuture<Integer> apply(List<QueueMessage> accepted) {
+            final SettableListenableFuture<Integer> result = new SettableListenableFuture<Integer>();
+            final AtomicInteger remaining = new AtomicInteger(accepted.size());
+            final AtomicInteger deleted = new AtomicInteger();
+            for (QueueMessage message : accepted) {
+               final ListenableFuture<Void> response = client.deleteMessage(queue, message
+                        .getMessageId(), message.getPopReceipt());
+               response.addListener(new Runnable() {
+                  @Override
+                  public void run() {
+                     try {
+                        response.get();
+                        deleted.incrementAndGet();
+                     } catch (ExecutionException e) {
+                        // counted as not deleted
+                     } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                     }
+                     if (remaining.decrementAndGet() == 0)
+                        result.set(deleted.get());
+                  }
+               }, sameThreadExecutor());
+            }
+            return result;
+         }
+      };
+   }
+}
@@ -49,8 +49,6 @@ public class AccountNameEnumerationResultsHandler extends
    private String nextMarker;
    private String currentName;
 
-   private StringBuilder currentText = new StringBuilder();
-
    @Inject
    public AccountNameEnumerationResultsHandler() {
    }
@@ -62,29 +60,25 @@ public class AccountNameEnumerationResultsHandler extends
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("MaxResults")) {
-         maxResults = Integer.parseInt(currentText.toString().trim());
+         maxResults = textAsInt();
       } else if (qName.equals("Marker")) {
-         marker = currentText.toString().trim();
+         marker = trimmedText();
          marker = (marker.equals("")) ? null : marker;
       } else if (qName.equals("Prefix")) {
-         prefix = currentText.toString().trim();
+         prefix = trimmedText();
          prefix = (prefix.equals("")) ? null : prefix;
       } else if (qName.equals("NextMarker")) {
-         nextMarker = currentText.toString().trim();
+         nextMarker = trimmedText();
          nextMarker = (nextMarker.equals("")) ? null : nextMarker;
       } else if (qName.equals("Queue")) {
          metadata.add(new QueueMetadata(currentName, currentUrl));
          currentUrl = null;
          currentName = null;
       } else if (qName.equals("Url")) {
-         currentUrl = URI.create(currentText.toString().trim());
+         currentUrl = URI.create(trimmedText());
       } else if (qName.equals("QueueName")) {
-         currentName = currentText.toString().trim();
+         currentName = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -49,8 +49,6 @@ public class QueueMessagesListHandler extends ParseSax.HandlerWithResult<Set<Que
    private Date timeNextVisible;
    private String messageText;
 
-   private StringBuilder currentText = new StringBuilder();
-
    private final DateService dateService;
 
    @Inject
@@ -64,21 +62,21 @@ public class QueueMessagesListHandler extends ParseSax.HandlerWithResult<Set<Que
 
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("MessageId")) {
-         this.messageId = currentText.toString().trim();
+         this.messageId = trimmedText();
       } else if (qName.equals("InsertionTime")) {
          this.insertionTime = parseDate();
       } else if (qName.equals("ExpirationTime")) {
          this.expirationTime = parseDate();
       } else if (qName.equals("DequeueCount")) {
-         this.dequeueCount = Integer.parseInt(currentText.toString().trim());
+         this.dequeueCount = textAsInt();
       } else if (qName.equals("PopReceipt")) {
-         this.popReceipt = currentText.toString().trim();
+         this.popReceipt = trimmedText();
       } else if (qName.equals("TimeNextVisible")) {
          this.timeNextVisible = parseDate();
       } else if (qName.equals("MessageText")) {
          // TODO: figure out why we need to do trim. excess leading whitespace seems to be from
          // outside the element
-         this.messageText = currentText.toString().trim();
+         this.messageText = trimmedText();
       } else if (qName.equals("QueueMessage")) {
          messages.add(new QueueMessage(messageId, insertionTime, expirationTime, dequeueCount,
                   popReceipt, timeNextVisible, messageText));
@@ -90,15 +88,11 @@ public class QueueMessagesListHandler extends ParseSax.HandlerWithResult<Set<Que
          timeNextVisible = null;
          messageText = null;
       }
-      currentText = new StringBuilder();
+      resetText();
    }
 
    private Date parseDate() {
-      return dateService.rfc822DateParse(currentText.toString().trim());
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      return dateService.rfc822DateParse(trimmedText());
    }
 
 }
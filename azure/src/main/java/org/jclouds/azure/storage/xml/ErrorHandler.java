@@ -32,7 +32,6 @@ import org.jclouds.http.functions.ParseSax;
 public class ErrorHandler extends ParseSax.HandlerWithResult<AzureStorageError> {
 
    private AzureStorageError error = new AzureStorageError();
-   private StringBuilder currentText = new StringBuilder();
 
    public AzureStorageError getResult() {
       return error;
@@ -41,16 +40,12 @@ public class ErrorHandler extends ParseSax.HandlerWithResult<AzureStorageError>
    public void endElement(String uri, String name, String qName) {
 
       if (qName.equals("Code")) {
-         error.setCode(currentText.toString().trim());
+         error.setCode(trimmedText());
       } else if (qName.equals("Message")) {
-         error.setMessage(currentText.toString().trim());
+         error.setMessage(trimmedText());
       } else if (!qName.equals("Error")) {
-         error.getDetails().put(qName, currentText.toString());
+         error.getDetails().put(qName, rawText());
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -40,6 +40,7 @@ import org.jclouds.azure.storage.filters.SharedKeyLiteAuthentication;
 import org.jclouds.azure.storage.options.ListOptions;
 import org.jclouds.blobstore.functions.ReturnNullOnContainerNotFound;
 import org.jclouds.http.functions.CloseContentAndReturn;
+import org.jclouds.http.functions.ParseETagHeader;
 import org.jclouds.http.functions.ParseSax;
 import org.jclouds.http.functions.ReturnTrueIf2xx;
 import org.jclouds.http.functions.ReturnTrueOn404;
@@ -349,6 +350,29 @@ public class AzureBlobAsyncClientTest extends RestClientTest<AzureBlobAsyncClien
                MapHttp4xxCodesToExceptions.class);
    }
 
+   public void testCopyBlob() throws SecurityException, NoSuchMethodException {
+      Method method = AzureBlobAsyncClient.class.getMethod("copyBlob", String.class, String.class,
+               String.class, String.class);
+      GeneratedHttpRequest<AzureBlobAsyncClient> httpMethod = processor.createRequest(method,
+               new Object[] { "source", "dir/blob", "container", "blob" });
+      assertEquals(httpMethod.getEndpoint().getHost(), "myaccount.blob.core.windows.net");
+      assertEquals(httpMethod.getEndpoint().getPath(), "/container/blob");
+      assertEquals(httpMethod.getMethod(), HttpMethod.PUT);
+      assertEquals(httpMethod.getHeaders().size(), 3);
+      assertEquals(httpMethod.getHeaders().get("x-ms-version"), Collections
+               .singletonList("2009-09-19"));
+      assertEquals(httpMethod.getHeaders().get("x-ms-copy-source"), Collections
+               .singletonList("/myaccount/source/dir/blob"));
+      assertEquals(httpMethod.getHeaders().get(HttpHeaders.CONTENT_LENGTH), Collections
+               .singletonList("0"));
+
+      assertEquals(processor.createResponseParser(method, httpMethod).getClass(),
+               ParseETagHeader.class);
+      assertEquals(processor
+               .createExceptionParserOrThrowResourceNotFoundOn404IfNoAnnotation(method).getClass(),
+               MapHttp4xxCodesToExceptions.class);
+   }
+
    @Override
    protected void checkFilters(GeneratedHttpRequest<AzureBlobAsyncClient> httpMethod) {
       assertEquals(httpMethod.getFilters().size(), 1);
@@ -248,6 +248,24 @@ public class AzureQueueAsyncClientTest extends RestClientTest<AzureQueueAsyncCli
       checkFilters(httpRequest);
    }
 
+   public void testDeleteMessage() throws SecurityException, NoSuchMethodException {
+      Method method = AzureQueueAsyncClient.class.getMethod("deleteMessage", String.class,
+               String.class, String.class);
+      GeneratedHttpRequest<AzureQueueAsyncClient> httpRequest = processor.createRequest(method,
+               "queue", "messageid", "popreceipt");
+
+      assertRequestLineEquals(httpRequest,
+               "DELETE https://myaccount.queue.core.windows.net/queue/messages/messageid?popreceipt=popreceipt HTTP/1.1");
+      assertHeadersEqual(httpRequest, "x-ms-version: 2009-09-19\n");
+      assertPayloadEquals(httpRequest, null);
+
+      assertResponseParserClassEquals(method, httpRequest, CloseContentAndReturn.class);
+      assertSaxResponseParserClassEquals(method, null);
+      assertExceptionParserClassEquals(method, null);
+
+      checkFilters(httpRequest);
+   }
+
    @Override
    protected void checkFilters(GeneratedHttpRequest<AzureQueueAsyncClient> httpMethod) {
       assertEquals(httpMethod.getFilters().size(), 1);
@@ -0,0 +1,117 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.azure.storage.queue;
+
+import static org.jclouds.azure.storage.queue.options.GetOptions.Builder.maxMessages;
+import static org.jclouds.azure.storage.queue.options.GetOptions.Builder.visibilityTimeout;
+import static org.jclouds.azure.storage.queue.options.PutMessageOptions.Builder.withTTL;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.ExecutionException;
+
+import org.jclouds.azure.storage.queue.domain.QueueMessage;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+
+/**
+ * Tests behavior of {@code TransientAzureQueueAsyncClient}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "azurequeue.TransientAzureQueueAsyncClientTest")
+public class TransientAzureQueueAsyncClientTest {
+   private TransientAzureQueueAsyncClient client;
+
+   @BeforeMethod
+   void setUp() throws Exception {
+      client = new TransientAzureQueueAsyncClient();
+      assertTrue(client.createQueue("queue").get());
+      assertFalse(client.createQueue("queue").get());
+   }
+
+   public void testMessagesAreHiddenUntilTheirVisibilityTimeoutPasses() throws Exception {
+      client.putMessage("queue", "hello").get();
+
+      QueueMessage first = Iterables.getOnlyElement(client.getMessages("queue",
+               visibilityTimeout(1)).get());
+      assertEquals(first.getMessageText(), "hello");
+      assertEquals(first.getDequeueCount(), 1);
+      assertEquals(client.getMessages("queue").get().size(), 0);
+
+      Thread.sleep(1100);
+      QueueMessage second = Iterables.getOnlyElement(client.getMessages("queue").get());
+      assertEquals(second.getMessageId(), first.getMessageId());
+      assertEquals(second.getDequeueCount(), 2);
+      assertFalse(second.getPopReceipt().equals(first.getPopReceipt()));
+   }
+
+   public void testOnlyTheLatestPopReceiptDeletes() throws Exception {
+      client.putMessage("queue", "hello").get();
+      QueueMessage first = Iterables.getOnlyElement(client.getMessages("queue",
+               visibilityTimeout(1)).get());
+      Thread.sleep(1100);
+      QueueMessage second = Iterables.getOnlyElement(client.getMessages("queue").get());
+
+      try {
+         client.deleteMessage("queue", first.getMessageId(), first.getPopReceipt()).get();
+         assert false : "stale pop receipt should not delete";
+      } catch (ExecutionException e) {
+         assertEquals(e.getCause().getClass(), ResourceNotFoundException.class);
+      }
+      client.deleteMessage("queue", second.getMessageId(), second.getPopReceipt()).get();
+      assertEquals(client.size("queue"), 0);
+   }
+
+   public void testGetMessagesHonorsMaxMessagesAndOrder() throws Exception {
+      for (int i = 0; i < 5; i++)
+         client.putMessage("queue", i + "").get();
+      assertEquals(Iterables.transform(client.getMessages("queue", maxMessages(3)).get(),
+               new Function<QueueMessage, String>() {
+                  @Override
+                  public String apply(QueueMessage from) {
+                     return from.getMessageText();
+                  }
+               }).toString(), "[0, 1, 2]");
+      assertEquals(client.getMessages("queue", maxMessages(32)).get().size(), 2);
+   }
+
+   public void testExpiredMessagesAreNotReturned() throws Exception {
+      client.putMessage("queue", "short", withTTL(1)).get();
+      client.putMessage("queue", "long").get();
+      Thread.sleep(1100);
+      assertEquals(client.size("queue"), 1);
+      assertEquals(Iterables.getOnlyElement(client.getMessages("queue", maxMessages(32)).get())
+               .getMessageText(), "long");
+   }
+
+   public void testMissingQueue() throws Exception {
+      try {
+         client.getMessages("missing").get();
+         assert false : "missing queue should fail";
+      } catch (ExecutionException e) {
+         assertEquals(e.getCause().getClass(), ResourceNotFoundException.class);
+      }
+   }
+}
@@ -0,0 +1,82 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.azure.storage.queue.util;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.jclouds.azure.storage.queue.options.GetOptions.Builder.maxMessages;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jclouds.azure.storage.queue.TransientAzureQueueAsyncClient;
+import org.jclouds.azure.storage.queue.domain.QueueMessage;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Sets;
+
+/**
+ * Tests that {@code PrefetchingQueueConsumer} gets and deletes through Azure. The prefetching
+ * itself is covered by {@code PrefetchingConsumerTest}.
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "azurequeue.PrefetchingQueueConsumerTest")
+public class PrefetchingQueueConsumerTest {
+   private TransientAzureQueueAsyncClient client;
+   private ScheduledExecutorService scheduler;
+
+   @BeforeMethod
+   void setUp() throws Exception {
+      client = new TransientAzureQueueAsyncClient();
+      scheduler = Executors.newSingleThreadScheduledExecutor();
+      client.createQueue("queue").get();
+      for (int i = 0; i < 50; i++)
+         client.putMessage("queue", (i % 10) + "").get();
+   }
+
+   @AfterMethod
+   void tearDown() {
+      scheduler.shutdownNow();
+   }
+
+   public void testAcceptedMessagesAreDeleted() throws Exception {
+      final Set<String> seen = Collections.synchronizedSet(Sets.<String> newHashSet());
+      PrefetchingQueueConsumer consumer = new PrefetchingQueueConsumer(client, "queue",
+               new Predicate<QueueMessage>() {
+                  @Override
+                  public boolean apply(QueueMessage input) {
+                     seen.add(input.getMessageId());
+                     return true;
+                  }
+               }, sameThreadExecutor(), scheduler, 2, maxMessages(10)).start();
+      consumer.close();
+
+      assertEquals(seen.size(), 50);
+      assertEquals(consumer.getReceivedCount(), 50);
+      assertEquals(consumer.getProcessedCount(), 50);
+      assertEquals(consumer.getDeletedCount(), 50);
+      assertEquals(client.size("queue"), 0);
+   }
+}
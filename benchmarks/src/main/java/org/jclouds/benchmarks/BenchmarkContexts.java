@@ -0,0 +1,250 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.inject.Singleton;
+
+import org.jclouds.aws.domain.Region;
+import org.jclouds.aws.ec2.EC2;
+import org.jclouds.aws.ec2.EC2PropertiesBuilder;
+import org.jclouds.aws.ec2.ELB;
+import org.jclouds.aws.ec2.domain.AvailabilityZone;
+import org.jclouds.aws.s3.S3PropertiesBuilder;
+import org.jclouds.aws.s3.config.S3RestClientModule;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.date.TimeStamp;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.TransformingHttpCommandExecutorService;
+import org.jclouds.logging.config.NullLoggingModule;
+import org.jclouds.rackspace.RackspaceAuthentication.AuthenticationResponse;
+import org.jclouds.rackspace.RackspacePropertiesBuilder;
+import org.jclouds.rackspace.cloudfiles.config.CloudFilesRestClientModule;
+import org.jclouds.rackspace.config.RackspaceAuthenticationRestModule;
+import org.jclouds.rackspace.functions.ParseAuthenticationResponseFromHeaders.AuthenticationResponseImpl;
+import org.jclouds.rest.config.RestModule;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closeables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Provides;
+import com.google.inject.name.Names;
+
+/**
+ * Builds the injectors the benchmarks run against. None of them can reach the network: commands
+ * submitted to the executor fail immediately, and credentials, timestamps and endpoints are fixed
+ * so that each invocation does the same amount of work.
+ * 
+ * @author Adrian Cole
+ */
+final class BenchmarkContexts {
+
+   static final String TIMESTAMP = "2009-11-08T15:54:08.897Z";
+
+   private BenchmarkContexts() {
+   }
+
+   /**
+    * reads a captured response from the classpath, so that parsing benchmarks don't include i/o.
+    */
+   static byte[] fixture(String resource) {
+      InputStream in = BenchmarkContexts.class.getResourceAsStream(resource);
+      if (in == null)
+         throw new IllegalStateException("fixture " + resource + " not on the classpath");
+      try {
+         return ByteStreams.toByteArray(in);
+      } catch (IOException e) {
+         throw new IllegalStateException("could not read fixture " + resource, e);
+      } finally {
+         Closeables.closeQuietly(in);
+      }
+   }
+
+   static Injector s3() {
+      return s3(NO_NETWORK);
+   }
+
+   /**
+    * @param http
+    *           receives the commands of the s3 clients
+    */
+   static Injector s3(TransformingHttpCommandExecutorService http) {
+      return create(http, new S3RestClientModule() {
+         @Override
+         protected void configure() {
+            Names.bindProperties(binder(), new S3PropertiesBuilder(new Properties())
+                     .withCredentials("user", "key").build());
+            super.configure();
+         }
+
+         @Override
+         protected String provideTimeStamp(@TimeStamp Supplier<String> cache) {
+            return TIMESTAMP;
+         }
+      });
+   }
+
+   static Injector ec2() {
+      return create(new AbstractModule() {
+         @Override
+         protected void configure() {
+            Names.bindProperties(binder(), new EC2PropertiesBuilder("user", "key").build());
+            bind(URI.class).annotatedWith(EC2.class).toInstance(
+                     URI.create("https://ec2.amazonaws.com"));
+            bind(URI.class).annotatedWith(ELB.class).toInstance(
+                     URI.create("https://elasticloadbalancing.us-east-1.amazonaws.com"));
+            bind(String.class).annotatedWith(EC2.class).toInstance(Region.US_EAST_1);
+         }
+
+         @SuppressWarnings("unused")
+         @Provides
+         @TimeStamp
+         String provideTimeStamp() {
+            return TIMESTAMP;
+         }
+
+         @SuppressWarnings("unused")
+         @Provides
+         @Singleton
+         @EC2
+         Map<String, URI> provideRegions() {
+            return ImmutableMap.<String, URI> of(Region.US_EAST_1, URI
+                     .create("https://ec2.us-east-1.amazonaws.com"), Region.EU_WEST_1, URI
+                     .create("https://ec2.eu-west-1.amazonaws.com"));
+         }
+
+         @SuppressWarnings("unused")
+         @Provides
+         @Singleton
+         @ELB
+         Map<String, URI> provideELBRegions() {
+            return ImmutableMap.<String, URI> of(Region.US_EAST_1, URI
+                     .create("https://elasticloadbalancing.us-east-1.amazonaws.com"));
+         }
+
+         @SuppressWarnings("unused")
+         @Provides
+         @Singleton
+         Map<String, String> provideAvailabilityZoneRegionMap() {
+            return ImmutableMap.<String, String> of(AvailabilityZone.US_EAST_1A, Region.US_EAST_1);
+         }
+      });
+   }
+
+   static Injector cloudFiles() {
+      return create(new RackspaceAuthenticationRestModule() {
+         @Override
+         protected void configure() {
+            install(new CloudFilesRestClientModule());
+            Names.bindProperties(binder(), new RackspacePropertiesBuilder(new Properties())
+                     .withCredentials("user", "key").build());
+            super.configure();
+         }
+
+         @Override
+         protected AuthenticationResponse provideAuthenticationResponse(
+                  Supplier<AuthenticationResponse> supplier) {
+            return new AuthenticationResponseImpl("authToken", "http://CDNManagementUrl",
+                     "http://serverManagementUrl", "http://storageUrl");
+         }
+
+         @Override
+         public Supplier<String> provideAuthenticationTokenCache(
+                  Supplier<AuthenticationResponse> supplier) {
+            return new Supplier<String>() {
+               public String get() {
+                  return "authToken";
+               }
+            };
+         }
+
+         @Override
+         public Supplier<Date> provideCacheBusterDate() {
+            final Date date = new Date();
+            return new Supplier<Date>() {
+               public Date get() {
+                  return date;
+               }
+            };
+         }
+      });
+   }
+
+   /**
+    * binds the rest infrastructure around {@code module}, replacing the http layer with one that
+    * refuses every command.
+    */
+   static Injector create(Module module, Module... modules) {
+      return create(NO_NETWORK, module, modules);
+   }
+
+   static Injector create(final TransformingHttpCommandExecutorService http, Module module,
+            Module... modules) {
+      Module[] all = new Module[modules.length + 4];
+      all[0] = module;
+      all[1] = new NullLoggingModule();
+      all[2] = new ExecutorServiceModule(sameThreadExecutor(), sameThreadExecutor());
+      all[3] = new RestModule() {
+         @Override
+         protected void configure() {
+            bind(TransformingHttpCommandExecutorService.class).toInstance(http);
+            super.configure();
+         }
+      };
+      System.arraycopy(modules, 0, all, 4, modules.length);
+      return Guice.createInjector(all);
+   }
+
+   private static final TransformingHttpCommandExecutorService NO_NETWORK =
+            new TransformingHttpCommandExecutorService() {
+      public <T> ListenableFuture<T> submit(HttpCommand command,
+               Function<HttpResponse, T> responseTransformer) {
+         throw new UnsupportedOperationException("benchmarks do not use the network: "
+                  + command.getRequest().getRequestLine());
+      }
+   };
+
+   /**
+    * completes every command at once with a null result, without parsing a response.
+    */
+   static final TransformingHttpCommandExecutorService NO_RESPONSE =
+            new TransformingHttpCommandExecutorService() {
+      public <T> ListenableFuture<T> submit(HttpCommand command,
+               Function<HttpResponse, T> responseTransformer) {
+         return Futures.immediateFuture(null);
+      }
+   };
+}
@@ -0,0 +1,60 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks in this module, writing results as json so that they can be compared
+ * between releases.
+ * <p/>
+ * Accepts the usual JMH arguments. For example, to run only the parsers and write to a file of your
+ * choosing:
+ * 
+ * <pre>
+ * java -jar target/benchmarks.jar Parser -rff parsers-1.0.json
+ * </pre>
+ * 
+ * Unless {@code -rf} is passed, results are written in json to {@value #DEFAULT_RESULT_FILE}.
+ * 
+ * @author Adrian Cole
+ */
+public class BenchmarkRunner {
+
+   public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+   public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+      CommandLineOptions commandLine = new CommandLineOptions(args);
+      ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+      if (!commandLine.getResultFormat().hasValue()) {
+         options.resultFormat(ResultFormatType.JSON);
+         if (!commandLine.getResult().hasValue())
+            options.result(DEFAULT_RESULT_FILE);
+      }
+      if (commandLine.getIncludes().isEmpty())
+         options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+      new Runner(options.build()).run();
+   }
+}
@@ -0,0 +1,90 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.date.DateService;
+import org.jclouds.date.internal.SimpleDateFormatDateService;
+import org.jclouds.date.joda.JodaDateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link DateService} implementations on the formats used when signing requests and
+ * parsing responses.
+ * 
+ * @author Adrian Cole
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateServiceBenchmark {
+
+   @Param( { "simple", "joda" })
+   public String implementation;
+
+   private DateService dateService;
+   private Date date;
+
+   @Setup
+   public void setup() {
+      dateService = "joda".equals(implementation) ? new JodaDateService()
+               : new SimpleDateFormatDateService();
+      date = dateService.iso8601DateParse("2009-03-12T02:00:07.000Z");
+   }
+
+   @Benchmark
+   public String iso8601DateFormat() {
+      return dateService.iso8601DateFormat(date);
+   }
+
+   @Benchmark
+   public Date iso8601DateParse() {
+      return dateService.iso8601DateParse("2009-03-12T02:00:07.000Z");
+   }
+
+   @Benchmark
+   public Date iso8601SecondsDateParse() {
+      return dateService.iso8601SecondsDateParse("2009-03-12T02:00:07Z");
+   }
+
+   @Benchmark
+   public String rfc822DateFormat() {
+      return dateService.rfc822DateFormat(date);
+   }
+
+   @Benchmark
+   public Date rfc822DateParse() {
+      return dateService.rfc822DateParse("Thu, 12 Mar 2009 02:00:07 GMT");
+   }
+}
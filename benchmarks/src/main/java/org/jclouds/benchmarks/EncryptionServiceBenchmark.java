@@ -0,0 +1,123 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.encryption.EncryptionService;
+import org.jclouds.encryption.bouncycastle.BouncyCastleEncryptionService;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link EncryptionService} implementations on the digests computed for payloads and
+ * the hmacs computed for signatures.
+ * 
+ * @author Adrian Cole
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionServiceBenchmark {
+
+   @State(Scope.Benchmark)
+   public static class Implementation {
+      @Param( { "jce", "bouncycastle" })
+      public String implementation;
+
+      EncryptionService encryptionService;
+
+      @Setup
+      public void setup() {
+         encryptionService = "bouncycastle".equals(implementation) ?
+                  new BouncyCastleEncryptionService() : new JCEEncryptionService();
+      }
+   }
+
+   /**
+    * digests scale with the payload, so they are measured at several sizes.
+    */
+   @State(Scope.Benchmark)
+   public static class Payload {
+      @Param( { "1024", "1048576" })
+      public int payloadSize;
+
+      byte[] payload;
+
+      @Setup
+      public void setup() {
+         payload = new byte[payloadSize];
+         new Random(0).nextBytes(payload);
+      }
+   }
+
+   @State(Scope.Benchmark)
+   public static class Signature {
+      final String stringToSign = "GET\n\n\nThu, 05 Jun 2008 16:38:19 GMT\n"
+               + "/bucket/photos/2010/01/01/IMG_0001.jpg";
+      final byte[] key = new byte[40];
+
+      @Setup
+      public void setup() {
+         new Random(0).nextBytes(key);
+      }
+   }
+
+   @Benchmark
+   public byte[] md5(Implementation impl, Payload payload) {
+      return impl.encryptionService.md5(payload.payload);
+   }
+
+   @Benchmark
+   public byte[] md5InputStream(Implementation impl, Payload payload) {
+      return impl.encryptionService.md5(new ByteArrayInputStream(payload.payload));
+   }
+
+   @Benchmark
+   public String sha1Base64(Implementation impl, Payload payload) throws GeneralSecurityException {
+      return impl.encryptionService.sha1Base64(new ByteArrayInputStream(payload.payload));
+   }
+
+   @Benchmark
+   public String hmacSha1Base64(Implementation impl, Signature signature)
+            throws GeneralSecurityException {
+      return impl.encryptionService.hmacSha1Base64(signature.stringToSign, signature.key);
+   }
+
+   @Benchmark
+   public String hmacSha256Base64(Implementation impl, Signature signature)
+            throws GeneralSecurityException {
+      return impl.encryptionService.hmacSha256Base64(signature.stringToSign, signature.key);
+   }
+}
@@ -0,0 +1,184 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Provider;
+
+import org.jclouds.aws.ec2.domain.Reservation;
+import org.jclouds.aws.ec2.options.DescribeImagesOptions;
+import org.jclouds.aws.ec2.services.AMIAsyncClient;
+import org.jclouds.aws.ec2.services.InstanceAsyncClient;
+import org.jclouds.aws.ec2.xml.DescribeImagesResponseHandler;
+import org.jclouds.aws.ec2.xml.DescribeInstancesResponseHandler;
+import org.jclouds.aws.s3.domain.ListBucketResponse;
+import org.jclouds.aws.s3.xml.ListBucketHandler;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.http.functions.ParseSax;
+import org.jclouds.http.functions.config.ParserModule;
+import org.jclouds.rackspace.cloudfiles.CloudFilesAsyncClient;
+import org.jclouds.rackspace.cloudfiles.domain.ObjectInfo;
+import org.jclouds.rackspace.cloudfiles.functions.ParseObjectInfoListFromJsonResponse;
+import org.jclouds.rackspace.cloudfiles.options.ListContainerOptions;
+import org.jclouds.rackspace.cloudservers.domain.Image;
+import org.jclouds.rackspace.cloudservers.functions.ParseImageListFromJsonResponse;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+import org.jclouds.rest.internal.RestAnnotationProcessor;
+import org.jclouds.vcloud.domain.VApp;
+import org.jclouds.vcloud.xml.VAppHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Measures the response parsers on captured fixtures. Fixtures are read into memory during setup,
+ * and a new handler is created for each response, as the rest client does.
+ * 
+ * @author Adrian Cole
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+   private byte[] listBucket;
+   private ParseSax.Factory s3Sax;
+   private Provider<ListBucketHandler> listBucketHandler;
+
+   private byte[] describeInstances;
+   private ParseSax.Factory ec2Sax;
+   private Provider<DescribeInstancesResponseHandler> describeInstancesHandler;
+   private GeneratedHttpRequest<?> describeInstancesRequest;
+
+   private byte[] describeImages;
+   private Provider<DescribeImagesResponseHandler> describeImagesHandler;
+   private GeneratedHttpRequest<?> describeImagesRequest;
+
+   private byte[] vApp;
+   private ParseSax.Factory vCloudSax;
+   private Provider<VAppHandler> vAppHandler;
+
+   private byte[] listContainer;
+   private Provider<ParseObjectInfoListFromJsonResponse> listContainerParser;
+   private GeneratedHttpRequest<?> listContainerRequest;
+
+   private byte[] listImages;
+   private ParseImageListFromJsonResponse listImagesParser;
+
+   @Setup
+   public void setup() throws NoSuchMethodException {
+      listBucket = BenchmarkContexts.fixture("/s3/list_bucket.xml");
+      Injector injector = BenchmarkContexts.s3();
+      s3Sax = injector.getInstance(ParseSax.Factory.class);
+      listBucketHandler = injector.getProvider(ListBucketHandler.class);
+
+      describeInstances = BenchmarkContexts.fixture("/ec2/describe_instances.xml");
+      injector = BenchmarkContexts.ec2();
+      ec2Sax = injector.getInstance(ParseSax.Factory.class);
+      describeInstancesHandler = injector.getProvider(DescribeInstancesResponseHandler.class);
+      describeInstancesRequest = injector.getInstance(
+               Key.get(new TypeLiteral<RestAnnotationProcessor<InstanceAsyncClient>>() {
+               })).createRequest(
+               InstanceAsyncClient.class.getMethod("describeInstancesInRegion", String.class,
+                        String[].class), null, new String[] {});
+
+      describeImages = BenchmarkContexts.fixture("/ec2/eucalyptus_images.xml");
+      describeImagesHandler = injector.getProvider(DescribeImagesResponseHandler.class);
+      describeImagesRequest = injector.getInstance(
+               Key.get(new TypeLiteral<RestAnnotationProcessor<AMIAsyncClient>>() {
+               })).createRequest(
+               AMIAsyncClient.class.getMethod("describeImagesInRegion", String.class, Array
+                        .newInstance(DescribeImagesOptions.class, 0).getClass()), null,
+               new DescribeImagesOptions[] {});
+
+      vApp = BenchmarkContexts.fixture("/vapp.xml");
+      injector = Guice.createInjector(new ParserModule());
+      vCloudSax = injector.getInstance(ParseSax.Factory.class);
+      vAppHandler = injector.getProvider(VAppHandler.class);
+
+      listContainer = BenchmarkContexts.fixture("/cloudfiles/test_list_container.json");
+      injector = BenchmarkContexts.cloudFiles();
+      listContainerParser = injector.getProvider(ParseObjectInfoListFromJsonResponse.class);
+      Method listObjects = CloudFilesAsyncClient.class.getMethod("listObjects", String.class,
+               Array.newInstance(ListContainerOptions.class, 0).getClass());
+      listContainerRequest = injector.getInstance(
+               Key.get(new TypeLiteral<RestAnnotationProcessor<CloudFilesAsyncClient>>() {
+               })).createRequest(listObjects, "container", new ListContainerOptions[] {});
+
+      listImages = BenchmarkContexts.fixture("/cloudservers/test_list_images.json");
+      listImagesParser = injector.getInstance(ParseImageListFromJsonResponse.class);
+   }
+
+   @Benchmark
+   public ListBucketResponse s3ListBucketHandler() {
+      return s3Sax.create(listBucketHandler.get()).parse(new ByteArrayInputStream(listBucket));
+   }
+
+   @Benchmark
+   public Set<Reservation> ec2DescribeInstancesResponseHandler() {
+      DescribeInstancesResponseHandler handler = describeInstancesHandler.get();
+      handler.setContext(describeInstancesRequest);
+      return ec2Sax.create(handler).parse(new ByteArrayInputStream(describeInstances));
+   }
+
+   @Benchmark
+   public Set<org.jclouds.aws.ec2.domain.Image> ec2DescribeImagesResponseHandler() {
+      DescribeImagesResponseHandler handler = describeImagesHandler.get();
+      handler.setContext(describeImagesRequest);
+      return ec2Sax.create(handler).parse(new ByteArrayInputStream(describeImages));
+   }
+
+   @Benchmark
+   public VApp vCloudVAppHandler() {
+      return vCloudSax.create(vAppHandler.get()).parse(new ByteArrayInputStream(vApp));
+   }
+
+   @Benchmark
+   public PageSet<ObjectInfo> cloudFilesListContainer() {
+      ParseObjectInfoListFromJsonResponse parser = listContainerParser.get();
+      parser.setContext(listContainerRequest);
+      return parser.apply(new ByteArrayInputStream(listContainer));
+   }
+
+   @Benchmark
+   public List<Image> cloudServersListImages() {
+      return listImagesParser.apply(new ByteArrayInputStream(listImages));
+   }
+}
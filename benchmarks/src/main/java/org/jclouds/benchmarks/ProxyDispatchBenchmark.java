@@ -0,0 +1,113 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.aws.s3.S3AsyncClient;
+import org.jclouds.aws.s3.S3Client;
+import org.jclouds.aws.s3.domain.ObjectMetadata;
+import org.jclouds.concurrent.internal.SyncProxy;
+import org.jclouds.rest.internal.AsyncRestClientProxy;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+import org.jclouds.rest.internal.RestAnnotationProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Measures the cost of calling through {@link SyncProxy} and {@link AsyncRestClientProxy}, with
+ * commands completing at once so that neither the network nor response parsing is included.
+ * {@code hashCode} is dispatch alone; the difference between {@code asyncHeadObject} and
+ * {@code createRequest} is what the async proxy adds to building the request, and the difference
+ * between {@code syncHeadObject} and {@code asyncHeadObject} is what the sync proxy adds.
+ * <p/>
+ * To compare two revisions, run this benchmark on each and diff the results.
+ * 
+ * @author Adrian Cole
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyDispatchBenchmark {
+
+   private S3Client sync;
+   private S3AsyncClient async;
+   private RestAnnotationProcessor<S3AsyncClient> processor;
+   private Method headObject;
+
+   @Setup
+   public void setup() throws NoSuchMethodException {
+      Injector injector = BenchmarkContexts.s3(BenchmarkContexts.NO_RESPONSE);
+      sync = injector.getInstance(S3Client.class);
+      async = injector.getInstance(S3AsyncClient.class);
+      processor = injector.getInstance(Key
+               .get(new TypeLiteral<RestAnnotationProcessor<S3AsyncClient>>() {
+               }));
+      headObject = S3AsyncClient.class.getMethod("headObject", String.class, String.class);
+   }
+
+   @Benchmark
+   public int syncHashCode() {
+      return sync.hashCode();
+   }
+
+   @Benchmark
+   public int asyncHashCode() {
+      return async.hashCode();
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest<S3AsyncClient> createRequest() {
+      return processor.createRequest(headObject, "bucket", "photos/2010/01/01/IMG_0001.jpg");
+   }
+
+   @Benchmark
+   public ListenableFuture<ObjectMetadata> asyncHeadObject() {
+      return async.headObject("bucket", "photos/2010/01/01/IMG_0001.jpg");
+   }
+
+   @Benchmark
+   public ObjectMetadata asyncHeadObjectAndGet() throws InterruptedException,
+            ExecutionException {
+      return async.headObject("bucket", "photos/2010/01/01/IMG_0001.jpg").get();
+   }
+
+   @Benchmark
+   public ObjectMetadata syncHeadObject() {
+      return sync.headObject("bucket", "photos/2010/01/01/IMG_0001.jpg");
+   }
+}
@@ -0,0 +1,146 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import static org.jclouds.aws.s3.options.ListBucketOptions.Builder.withPrefix;
+import static org.jclouds.http.options.GetOptions.Builder.range;
+import static org.jclouds.rackspace.cloudfiles.options.ListContainerOptions.Builder.underPath;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.aws.ec2.services.InstanceAsyncClient;
+import org.jclouds.aws.s3.S3AsyncClient;
+import org.jclouds.aws.s3.options.ListBucketOptions;
+import org.jclouds.http.options.GetOptions;
+import org.jclouds.rackspace.cloudfiles.CloudFilesAsyncClient;
+import org.jclouds.rackspace.cloudfiles.options.ListContainerOptions;
+import org.jclouds.rest.internal.GeneratedHttpRequest;
+import org.jclouds.rest.internal.RestAnnotationProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+/**
+ * Measures {@link RestAnnotationProcessor#createRequest} for commonly used S3, EC2 and Cloud Files
+ * methods. This is the work done on the calling thread before a command is ever submitted.
+ * Arguments are passed as the client proxy passes them, with varargs already packed into arrays.
+ * 
+ * @author Adrian Cole
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuildingBenchmark {
+
+   private RestAnnotationProcessor<S3AsyncClient> s3;
+   private Method s3ListBucket;
+   private Method s3GetObject;
+   private Method s3HeadObject;
+
+   private RestAnnotationProcessor<InstanceAsyncClient> ec2;
+   private Method ec2DescribeInstances;
+   private Method ec2TerminateInstances;
+
+   private RestAnnotationProcessor<CloudFilesAsyncClient> cloudFiles;
+   private Method cloudFilesListObjects;
+   private Method cloudFilesGetObject;
+
+   @Setup
+   public void setup() throws NoSuchMethodException {
+      s3 = BenchmarkContexts.s3().getInstance(
+               Key.get(new TypeLiteral<RestAnnotationProcessor<S3AsyncClient>>() {
+               }));
+      s3ListBucket = S3AsyncClient.class.getMethod("listBucket", String.class, Array.newInstance(
+               ListBucketOptions.class, 0).getClass());
+      s3GetObject = S3AsyncClient.class.getMethod("getObject", String.class, String.class, Array
+               .newInstance(GetOptions.class, 0).getClass());
+      s3HeadObject = S3AsyncClient.class.getMethod("headObject", String.class, String.class);
+
+      ec2 = BenchmarkContexts.ec2().getInstance(
+               Key.get(new TypeLiteral<RestAnnotationProcessor<InstanceAsyncClient>>() {
+               }));
+      ec2DescribeInstances = InstanceAsyncClient.class.getMethod("describeInstancesInRegion",
+               String.class, String[].class);
+      ec2TerminateInstances = InstanceAsyncClient.class.getMethod("terminateInstancesInRegion",
+               String.class, String[].class);
+
+      cloudFiles = BenchmarkContexts.cloudFiles().getInstance(
+               Key.get(new TypeLiteral<RestAnnotationProcessor<CloudFilesAsyncClient>>() {
+               }));
+      cloudFilesListObjects = CloudFilesAsyncClient.class.getMethod("listObjects", String.class,
+               Array.newInstance(ListContainerOptions.class, 0).getClass());
+      cloudFilesGetObject = CloudFilesAsyncClient.class.getMethod("getObject", String.class,
+               String.class, Array.newInstance(GetOptions.class, 0).getClass());
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest<S3AsyncClient> s3ListBucket() {
+      return s3.createRequest(s3ListBucket, "bucket", new ListBucketOptions[] { withPrefix(
+               "photos/2010/").maxResults(1000) });
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest<S3AsyncClient> s3GetObject() {
+      return s3.createRequest(s3GetObject, "bucket", "photos/2010/01/01/IMG_0001.jpg",
+               new GetOptions[] { range(0, 1023) });
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest<S3AsyncClient> s3HeadObject() {
+      return s3.createRequest(s3HeadObject, "bucket", "photos/2010/01/01/IMG_0001.jpg");
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest<InstanceAsyncClient> ec2DescribeInstances() {
+      return ec2.createRequest(ec2DescribeInstances, null, new String[] { "i-28a64341",
+               "i-28a64435" });
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest<InstanceAsyncClient> ec2TerminateInstances() {
+      return ec2.createRequest(ec2TerminateInstances, "eu-west-1", new String[] { "i-28a64341" });
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest<CloudFilesAsyncClient> cloudFilesListObjects() {
+      return cloudFiles.createRequest(cloudFilesListObjects, "container",
+               new ListContainerOptions[] { underPath("photos/2010").maxResults(1000) });
+   }
+
+   @Benchmark
+   public GeneratedHttpRequest<CloudFilesAsyncClient> cloudFilesGetObject() {
+      return cloudFiles.createRequest(cloudFilesGetObject, "container",
+               "photos/2010/01/01/IMG_0001.jpg", new GetOptions[] { range(0, 1023) });
+   }
+}
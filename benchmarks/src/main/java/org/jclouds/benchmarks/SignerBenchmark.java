@@ -0,0 +1,191 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Provider;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.jclouds.atmosonline.saas.AtmosStoragePropertiesBuilder;
+import org.jclouds.atmosonline.saas.config.AtmosStorageRestClientModule;
+import org.jclouds.atmosonline.saas.filters.SignRequest;
+import org.jclouds.atmosonline.saas.reference.AtmosStorageHeaders;
+import org.jclouds.aws.ec2.services.InstanceAsyncClient;
+import org.jclouds.aws.filters.FormSigner;
+import org.jclouds.aws.s3.S3AsyncClient;
+import org.jclouds.aws.s3.filters.RequestAuthorizeSignature;
+import org.jclouds.azure.storage.blob.AzureBlobPropertiesBuilder;
+import org.jclouds.azure.storage.blob.config.AzureBlobRestClientModule;
+import org.jclouds.azure.storage.filters.SharedKeyLiteAuthentication;
+import org.jclouds.chef.filters.SignedHeaderAuth;
+import org.jclouds.date.TimeStamp;
+import org.jclouds.encryption.internal.Base64;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.internal.SignatureWire;
+import org.jclouds.http.options.GetOptions;
+import org.jclouds.rest.internal.RestAnnotationProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Supplier;
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+
+/**
+ * Measures each signing {@code HttpRequestFilter}. Every signer replaces the headers or form
+ * parameters it adds, so the same request is signed over and over.
+ * 
+ * @author Adrian Cole
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignerBenchmark {
+
+   private RequestAuthorizeSignature s3;
+   private HttpRequest s3Request;
+
+   private FormSigner ec2;
+   private HttpRequest ec2Request;
+
+   private SharedKeyLiteAuthentication azure;
+   private HttpRequest azureRequest;
+
+   private SignRequest atmos;
+   private HttpRequest atmosRequest;
+
+   private SignedHeaderAuth chef;
+   private HttpRequest chefRequest;
+
+   @Setup
+   public void setup() throws NoSuchMethodException, NoSuchAlgorithmException {
+      Injector injector = BenchmarkContexts.s3();
+      s3 = injector.getInstance(RequestAuthorizeSignature.class);
+      Method getObject = S3AsyncClient.class.getMethod("getObject", String.class, String.class,
+               Array.newInstance(GetOptions.class, 0).getClass());
+      s3Request = injector.getInstance(
+               Key.get(new TypeLiteral<RestAnnotationProcessor<S3AsyncClient>>() {
+               })).createRequest(getObject, "bucket", "photos/2010/01/01/IMG_0001.jpg",
+               new GetOptions[] {});
+
+      injector = BenchmarkContexts.ec2();
+      ec2 = injector.getInstance(FormSigner.class);
+      Method describeInstances = InstanceAsyncClient.class.getMethod("describeInstancesInRegion",
+               String.class, String[].class);
+      ec2Request = injector.getInstance(
+               Key.get(new TypeLiteral<RestAnnotationProcessor<InstanceAsyncClient>>() {
+               })).createRequest(describeInstances, null,
+               new String[] { "i-28a64341", "i-28a64435" });
+
+      azure = BenchmarkContexts.create(new AzureBlobRestClientModule(), new AbstractModule() {
+         @Override
+         protected void configure() {
+            Names.bindProperties(binder(), new AzureBlobPropertiesBuilder("foo", Base64
+                     .encodeBytes("bar".getBytes())).build());
+         }
+      }).getInstance(SharedKeyLiteAuthentication.class);
+      azureRequest = new HttpRequest(HttpMethod.PUT, URI.create("http://foo.blob.core.windows.net"
+               + "/movies/MOV1.avi?comp=block&blockid=BlockId1&timeout=60"));
+
+      atmos = BenchmarkContexts.create(new AtmosStorageRestClientModule() {
+         @Override
+         protected String provideTimeStamp(@TimeStamp Supplier<String> cache) {
+            return "Thu, 05 Jun 2008 16:38:19 GMT";
+         }
+      }, new AbstractModule() {
+         @Override
+         protected void configure() {
+            Names.bindProperties(binder(), new AtmosStoragePropertiesBuilder(new Properties())
+                     .withCredentials("user", "LJLuryj6zs8ste6Y3jTGQp71xq0=").build());
+         }
+      }).getInstance(SignRequest.class);
+      atmosRequest = new HttpRequest(HttpMethod.POST, URI.create("http://localhost/rest/objects"));
+      atmosRequest.getHeaders().put(AtmosStorageHeaders.LISTABLE_META, "part4/part7/part8=quick");
+      atmosRequest.getHeaders().put(AtmosStorageHeaders.META, "part1=buy");
+      atmosRequest.getHeaders().put(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM);
+      atmosRequest.getHeaders().put(AtmosStorageHeaders.USER_ACL, "john=FULL_CONTROL,mary=WRITE");
+      atmosRequest.getHeaders().put(AtmosStorageHeaders.GROUP_ACL, "other=NONE");
+
+      KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+      generator.initialize(2048);
+      chef = new SignedHeaderAuth(new SignatureWire(), "spec-user", generator.generateKeyPair()
+               .getPrivate(), new Provider<String>() {
+         public String get() {
+            return "2009-01-01T12:00:00Z";
+         }
+      }, new JCEEncryptionService());
+      chefRequest = new HttpRequest(HttpMethod.POST, URI
+               .create("http://localhost/organizations/clownco"));
+      chefRequest.setPayload("Spec Body");
+   }
+
+   @Benchmark
+   public HttpRequest s3() {
+      s3.filter(s3Request);
+      return s3Request;
+   }
+
+   @Benchmark
+   public HttpRequest ec2() {
+      ec2.filter(ec2Request);
+      return ec2Request;
+   }
+
+   @Benchmark
+   public HttpRequest azure() {
+      azure.filter(azureRequest);
+      return azureRequest;
+   }
+
+   @Benchmark
+   public HttpRequest atmos() {
+      atmos.filter(atmosRequest);
+      return atmosRequest;
+   }
+
+   @Benchmark
+   public HttpRequest chef() {
+      chef.filter(chefRequest);
+      return chefRequest;
+   }
+}
@@ -0,0 +1,112 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.benchmarks;
+
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.maxResults;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.blobstore.AsyncBlobStore;
+import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.BlobStoreContextFactory;
+import org.jclouds.blobstore.TransientAsyncBlobStore;
+import org.jclouds.blobstore.domain.Blob;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.StorageMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Measures put, get and list against {@link TransientAsyncBlobStore}, which is the blobstore
+ * machinery minus the network.
+ * 
+ * @author Adrian Cole
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransientBlobStoreBenchmark {
+
+   private static final String CONTAINER = "benchmark";
+   private static final int BLOBS = 1000;
+
+   @Param( { "1024", "65536" })
+   public int blobSize;
+
+   private BlobStoreContext context;
+   private AsyncBlobStore blobStore;
+   private byte[] payload;
+
+   @Setup
+   public void setup() throws IOException, InterruptedException, ExecutionException {
+      context = new BlobStoreContextFactory().createContext("transient", "foo", "bar");
+      blobStore = context.getAsyncBlobStore();
+      blobStore.createContainerInLocation(null, CONTAINER).get();
+      payload = new byte[blobSize];
+      new Random(0).nextBytes(payload);
+      for (int i = 0; i < BLOBS; i++)
+         putBlob(String.format("photos/%04d.jpg", i)).get();
+   }
+
+   @TearDown
+   public void tearDown() {
+      context.close();
+   }
+
+   @Benchmark
+   public String putBlob() throws InterruptedException, ExecutionException {
+      return putBlob("photos/0000.jpg").get();
+   }
+
+   @Benchmark
+   public Blob getBlob() throws InterruptedException, ExecutionException {
+      return blobStore.getBlob(CONTAINER, "photos/0500.jpg").get();
+   }
+
+   @Benchmark
+   public PageSet<? extends StorageMetadata> list() throws InterruptedException,
+            ExecutionException {
+      return blobStore.list(CONTAINER, maxResults(100)).get();
+   }
+
+   private ListenableFuture<String> putBlob(String name) {
+      Blob blob = blobStore.newBlob(name);
+      blob.setPayload(payload);
+      blob.getMetadata().setContentType("image/jpeg");
+      return blobStore.putBlob(CONTAINER, blob);
+   }
+}
@@ -139,6 +139,18 @@ public interface AsyncBlobStore {
     */
    ListenableFuture<Void> removeBlob(String container, String key);
 
+   /**
+    * @see BlobStore#copyBlob
+    */
+   ListenableFuture<String> copyBlob(String fromContainer, String fromName, String toContainer,
+            String toName);
+
+   /**
+    * @see BlobStore#copyAll
+    */
+   ListenableFuture<Void> copyAll(String fromContainer, String toContainer,
+            ListContainerOptions options);
+
    /**
     * @see BlobStore#countBlobs(String)
     */
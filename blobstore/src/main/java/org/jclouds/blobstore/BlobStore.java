@@ -243,6 +243,42 @@ public interface BlobStore {
     */
    void removeBlob(String container, String name);
 
+   /**
+    * Copies the {@code Blob} at location {@code fromContainer/fromName} to {@code
+    * toContainer/toName}, replacing any blob already there.
+    * <p/>
+    * Services with the {@link org.jclouds.blobstore.attr.BlobCapability#COPY} capability copy
+    * within the service. Otherwise, the content is streamed from the source into the destination
+    * without being buffered in memory.
+    * 
+    * @param fromContainer
+    *           container where the source blob resides
+    * @param fromName
+    *           fully qualified name of the source blob, relative to its container
+    * @param toContainer
+    *           container to place the copy
+    * @param toName
+    *           fully qualified name of the copy, relative to its container
+    * @return etag of the copy, possibly null where etags are unsupported
+    * @throws ContainerNotFoundException
+    *            if either container doesn't exist
+    * @throws KeyNotFoundException
+    *            if the source blob doesn't exist
+    */
+   String copyBlob(String fromContainer, String fromName, String toContainer, String toName);
+
+   /**
+    * Copies each blob in a listing of {@code fromContainer} constrained by the options specified
+    * into {@code toContainer}, keeping its name. Copies run concurrently, up to
+    * {@link org.jclouds.blobstore.reference.BlobStoreConstants#PROPERTY_BLOBSTORE_MAX_CONCURRENT_COPIES}
+    * at a time.
+    * 
+    * @see #copyBlob
+    * @throws ContainerNotFoundException
+    *            if either container doesn't exist
+    */
+   void copyAll(String fromContainer, String toContainer, ListContainerOptions options);
+
    /**
     * @return a count of all blobs in the container, excluding directory markers
     */
@@ -95,6 +95,11 @@ public enum BlobCapability {
    /**
     * possible to expose blobs to anonymous access
     */
-   PUBLIC
+   PUBLIC,
+
+   /**
+    * blobs can be copied within the service, without passing their content through the client
+    */
+   COPY
 
 }
\ No newline at end of file
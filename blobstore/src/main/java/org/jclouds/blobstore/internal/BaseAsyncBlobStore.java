@@ -35,6 +35,7 @@ import org.jclouds.Constants;
 import org.jclouds.blobstore.AsyncBlobStore;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.ContainerNotFoundException;
+import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
@@ -232,6 +233,55 @@ public abstract class BaseAsyncBlobStore implements AsyncBlobStore {
       return getBlob(container, key, org.jclouds.blobstore.options.GetOptions.NONE);
    }
 
+   /**
+    * This implementation invokes {@link #getBlob(String,String)}, then {@link #putBlob} with the
+    * content of the source streamed into the copy. Override this where the service can copy blobs
+    * itself.
+    * 
+    * @param fromContainer
+    *           container name of the source
+    * @param fromName
+    *           blob key of the source
+    */
+   @Override
+   public ListenableFuture<String> copyBlob(final String fromContainer, final String fromName,
+            final String toContainer, final String toName) {
+      return chain(getBlob(fromContainer, fromName),
+               new Function<Blob, ListenableFuture<String>>() {
+
+                  @Override
+                  public ListenableFuture<String> apply(Blob from) {
+                     if (from == null)
+                        throw new KeyNotFoundException(fromContainer, fromName, "copying to "
+                                 + toContainer + "/" + toName);
+                     from.getMetadata().setName(toName);
+                     return putBlob(toContainer, from);
+                  }
+
+               }, service);
+   }
+
+   /**
+    * This implementation invokes {@link BlobStoreUtilsImpl#copyAll}
+    * 
+    * @param fromContainer
+    *           container name of the source
+    * @param toContainer
+    *           container name of the destination
+    */
+   @Override
+   public ListenableFuture<Void> copyAll(final String fromContainer, final String toContainer,
+            final ListContainerOptions options) {
+      return makeListenable(service.submit(new Callable<Void>() {
+
+         public Void call() throws Exception {
+            blobUtils.copyAll(fromContainer, toContainer, options);
+            return null;
+         }
+
+      }), service);
+   }
+
    /**
     * This implementation invokes {@link #deleteAndEnsurePathGone}
     * 
@@ -28,6 +28,7 @@ import javax.inject.Inject;
 import org.jclouds.blobstore.BlobStore;
 import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.blobstore.ContainerNotFoundException;
+import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.StorageMetadata;
@@ -181,6 +182,39 @@ public abstract class BaseBlobStore implements BlobStore {
       return getBlob(container, key, org.jclouds.blobstore.options.GetOptions.NONE);
    }
 
+   /**
+    * This implementation invokes {@link #getBlob(String,String)}, then {@link #putBlob} with the
+    * content of the source streamed into the copy. Override this where the service can copy blobs
+    * itself.
+    * 
+    * @param fromContainer
+    *           container name of the source
+    * @param fromName
+    *           blob key of the source
+    */
+   @Override
+   public String copyBlob(String fromContainer, String fromName, String toContainer, String toName) {
+      Blob blob = getBlob(fromContainer, fromName);
+      if (blob == null)
+         throw new KeyNotFoundException(fromContainer, fromName, "copying to " + toContainer + "/"
+                  + toName);
+      blob.getMetadata().setName(toName);
+      return putBlob(toContainer, blob);
+   }
+
+   /**
+    * This implementation invokes {@link BlobStoreUtilsImpl#copyAll}
+    * 
+    * @param fromContainer
+    *           container name of the source
+    * @param toContainer
+    *           container name of the destination
+    */
+   @Override
+   public void copyAll(String fromContainer, String toContainer, ListContainerOptions options) {
+      blobUtils.copyAll(fromContainer, toContainer, options);
+   }
+
    /**
     * This implementation invokes {@link #deleteAndEnsurePathGone}
     * 
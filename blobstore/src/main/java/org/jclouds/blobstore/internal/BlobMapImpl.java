@@ -33,6 +33,8 @@ import org.jclouds.blobstore.strategy.GetBlobsInListStrategy;
 import org.jclouds.blobstore.strategy.PutBlobsStrategy;
 import org.jclouds.blobstore.strategy.internal.ListContainerAndRecurseThroughFolders;
 
+import com.google.common.base.Objects;
+
 /**
  * Map representation of a live connection to a Blob Service.
  * 
@@ -66,8 +68,20 @@ public class BlobMapImpl extends BaseBlobMap<Blob> implements BlobMap {
       return returnVal;
    }
 
+   /**
+    * When {@code map} is another view of the same blobstore, using the same directory, its blobs
+    * are copied by {@link BlobStore#copyAll} instead of being downloaded and uploaded again.
+    */
    @Override
    public void putAll(Map<? extends String, ? extends Blob> map) {
+      if (map instanceof BlobMapImpl) {
+         BlobMapImpl other = (BlobMapImpl) map;
+         if (other.blobstore == blobstore
+                  && Objects.equal(other.options.getDir(), options.getDir())) {
+            blobstore.copyAll(other.containerName, containerName, other.options);
+            return;
+         }
+      }
       putBlobsStrategy.execute(containerName, map.values());
    }
 
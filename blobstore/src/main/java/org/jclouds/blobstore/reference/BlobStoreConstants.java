@@ -53,6 +53,24 @@ public interface BlobStoreConstants {
     */
    public static final String PROPERTY_USER_METADATA_PREFIX = "jclouds.blobstore.metaprefix";
 
+   /**
+    * When a listing lacks Content-MD5, searching a container for a value looks up blobs one at a
+    * time. This bounds how many of those requests are in flight.
+    */
+   public static final String PROPERTY_BLOBSTORE_MAX_CONCURRENT_MD5_LOOKUPS = "jclouds.blobstore.max_concurrent_md5_lookups";
+
+   /**
+    * Seconds a Content-MD5 looked up for a blob is remembered. Remembered values are also dropped
+    * early when the listing shows a different ETag or Last-Modified date.
+    */
+   public static final String PROPERTY_BLOBSTORE_MD5_INDEX_TTL = "jclouds.blobstore.md5_index_ttl";
+
+   /**
+    * Copying the contents of a container copies blobs one at a time. This bounds how many of those
+    * copies are in flight.
+    */
+   public static final String PROPERTY_BLOBSTORE_MAX_CONCURRENT_COPIES = "jclouds.blobstore.max_concurrent_copies";
+
    public static final String BLOBSTORE_LOGGER = "jclouds.blobstore";
 
 }
@@ -0,0 +1,104 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+
+import com.google.common.base.Function;
+import com.google.common.base.Objects;
+import com.google.common.collect.MapMaker;
+import com.google.inject.Inject;
+
+/**
+ * Remembers the Content-MD5 of blobs whose listing does not include it, so that searching the same
+ * container again does not look each blob up again.
+ * <p/>
+ * A remembered value is only used while the listing shows the same ETag and Last-Modified date as
+ * when it was looked up, and for at most {@link BlobStoreConstants#PROPERTY_BLOBSTORE_MD5_INDEX_TTL}
+ * seconds, as some listings show neither.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class ContentMD5Index {
+
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_BLOBSTORE_MD5_INDEX_TTL)
+   protected long ttl = 300;
+
+   private final ConcurrentMap<String, ConcurrentMap<String, Entry>> containers = new MapMaker()
+            .makeComputingMap(new Function<String, ConcurrentMap<String, Entry>>() {
+               @Override
+               public ConcurrentMap<String, Entry> apply(String container) {
+                  return new MapMaker().expiration(ttl, TimeUnit.SECONDS).makeMap();
+               }
+            });
+
+   /**
+    * @return the remembered Content-MD5 of the blob, or null if unknown or possibly stale
+    */
+   public byte[] get(String container, BlobMetadata md) {
+      Entry entry = containers.get(container).get(md.getName());
+      if (entry == null)
+         return null;
+      if (!entry.matches(md)) {
+         containers.get(container).remove(md.getName(), entry);
+         return null;
+      }
+      return entry.md5;
+   }
+
+   public void put(String container, BlobMetadata md, byte[] md5) {
+      containers.get(container).put(md.getName(), new Entry(md.getETag(), md.getLastModified(),
+               md5));
+   }
+
+   public void invalidate(String container) {
+      containers.remove(container);
+   }
+
+   public int size(String container) {
+      return containers.get(container).size();
+   }
+
+   private static class Entry {
+      private final String eTag;
+      private final Date lastModified;
+      private final byte[] md5;
+
+      Entry(String eTag, Date lastModified, byte[] md5) {
+         this.eTag = eTag;
+         this.lastModified = lastModified;
+         this.md5 = Arrays.copyOf(md5, md5.length);
+      }
+
+      boolean matches(BlobMetadata md) {
+         return Objects.equal(eTag, md.getETag()) && Objects.equal(lastModified, md.getLastModified());
+      }
+   }
+}
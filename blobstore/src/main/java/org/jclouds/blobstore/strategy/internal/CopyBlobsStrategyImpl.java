@@ -0,0 +1,117 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.blobstore.AsyncBlobStore;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.blobstore.strategy.CopyBlobsStrategy;
+import org.jclouds.blobstore.strategy.ListBlobsInContainer;
+import org.jclouds.logging.Logger;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
+
+/**
+ * Copies each blob in a listing with {@link AsyncBlobStore#copyBlob}, keeping at most
+ * {@link BlobStoreConstants#PROPERTY_BLOBSTORE_MAX_CONCURRENT_COPIES} copies in flight. A failed
+ * copy doesn't stop the others; failures are reported together once all copies complete.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class CopyBlobsStrategyImpl implements CopyBlobsStrategy {
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   protected final ListBlobsInContainer getAllBlobMetadata;
+   protected final AsyncBlobStore ablobstore;
+
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_BLOBSTORE_MAX_CONCURRENT_COPIES)
+   protected int maxConcurrentCopies = 20;
+
+   @Inject
+   CopyBlobsStrategyImpl(ListBlobsInContainer getAllBlobMetadata, AsyncBlobStore ablobstore) {
+      this.getAllBlobMetadata = getAllBlobMetadata;
+      this.ablobstore = ablobstore;
+   }
+
+   public void execute(final String fromContainer, final String toContainer,
+            ListContainerOptions options) {
+      final int permits = Math.max(1, maxConcurrentCopies);
+      final Semaphore inFlight = new Semaphore(permits);
+      final Map<String, Exception> exceptions = new MapMaker().makeMap();
+      try {
+         for (final BlobMetadata md : getAllBlobMetadata.execute(fromContainer, options)) {
+            inFlight.acquire();
+            final ListenableFuture<String> future;
+            try {
+               future = ablobstore.copyBlob(fromContainer, md.getName(), toContainer, md
+                        .getName());
+            } catch (RuntimeException e) {
+               inFlight.release();
+               exceptions.put(md.getName(), e);
+               continue;
+            }
+            future.addListener(new Runnable() {
+               @Override
+               public void run() {
+                  try {
+                     future.get();
+                  } catch (ExecutionException e) {
+                     exceptions.put(md.getName(), (Exception) (e.getCause() instanceof Exception ? e
+                              .getCause() : e));
+                  } catch (Exception e) {
+                     exceptions.put(md.getName(), e);
+                  } finally {
+                     inFlight.release();
+                  }
+               }
+            }, sameThreadExecutor());
+         }
+         inFlight.acquire(permits);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new BlobRuntimeException(String.format("interrupted copying %s to %s",
+                  fromContainer, toContainer), e);
+      }
+      if (exceptions.size() > 0) {
+         logger.error("error copying %d blobs from %s to %s", exceptions.size(), fromContainer,
+                  toContainer);
+         throw new BlobRuntimeException(String.format("error copying from %s to %s: %s",
+                  fromContainer, toContainer, exceptions));
+      }
+   }
+
+}
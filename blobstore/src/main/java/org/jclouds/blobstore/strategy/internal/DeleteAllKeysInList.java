@@ -126,7 +126,7 @@ public class DeleteAllKeysInList implements ClearListStrategy, ClearContainerStr
             }
             if (exceptions.size() > 0) {
                toDelete = Iterables.concat(exceptions.keySet(), toDelete);
-               retryHandler.imposeBackoffExponentialDelay(i + 1, message);
+               retryHandler.imposeJitteredBackoff(i + 1, message);
             }
          }
       }
@@ -0,0 +1,198 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+
+import org.jclouds.Constants;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.functions.ObjectMD5;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.reference.BlobStoreConstants;
+import org.jclouds.blobstore.strategy.ContainsValueInListStrategy;
+import org.jclouds.blobstore.strategy.ListBlobsInContainer;
+import org.jclouds.logging.Logger;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
+
+/**
+ * Searches the Content-MD5 of each blob in a listing for the MD5 of a value.
+ * <p/>
+ * The listing's own Content-MD5 is used when present, then one remembered in the
+ * {@link ContentMD5Index}. Only the remaining blobs are looked up, with at most
+ * {@link BlobStoreConstants#PROPERTY_BLOBSTORE_MAX_CONCURRENT_MD5_LOOKUPS} lookups in flight. The
+ * first match cancels the lookups still outstanding.
+ * 
+ * @author Adrian Cole
+ */
+public abstract class FindMD5InListOrLookupConcurrently implements ContainsValueInListStrategy {
+   @Resource
+   @Named(BlobStoreConstants.BLOBSTORE_LOGGER)
+   protected Logger logger = Logger.NULL;
+
+   protected final ObjectMD5 objectMD5;
+   protected final ListBlobsInContainer getAllBlobMetadata;
+   protected final ContentMD5Index index;
+
+   /**
+    * maximum duration of an blob Request
+    */
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
+   protected Long maxTime;
+
+   @Inject(optional = true)
+   @Named(BlobStoreConstants.PROPERTY_BLOBSTORE_MAX_CONCURRENT_MD5_LOOKUPS)
+   protected int maxConcurrentLookups = 20;
+
+   protected FindMD5InListOrLookupConcurrently(ObjectMD5 objectMD5,
+            ListBlobsInContainer getAllBlobMetadata, ContentMD5Index index) {
+      this.objectMD5 = objectMD5;
+      this.getAllBlobMetadata = getAllBlobMetadata;
+      this.index = index;
+   }
+
+   /**
+    * @return the Content-MD5 of the blob, or a null result if it has none
+    */
+   protected abstract ListenableFuture<byte[]> lookupMD5(String containerName, BlobMetadata md);
+
+   public boolean execute(String containerName, Object value, ListContainerOptions options) {
+      try {
+         byte[] toSearch = objectMD5.apply(value);
+         List<BlobMetadata> toLookup = Lists.newArrayList();
+         for (BlobMetadata md : getAllBlobMetadata.execute(containerName, options)) {
+            byte[] known = md.getContentMD5() != null ? md.getContentMD5() : index.get(
+                     containerName, md);
+            if (known == null)
+               toLookup.add(md);
+            else if (Arrays.equals(toSearch, known))
+               return true;
+         }
+         return toLookup.size() > 0 && lookupUntilFound(containerName, toSearch, toLookup);
+      } catch (Exception e) {
+         Throwables.propagateIfPossible(e, BlobRuntimeException.class);
+         throw new BlobRuntimeException(String.format(
+                  "Error searching for ETAG of value: [%2$s] in container:%1$s", containerName,
+                  value), e);
+      }
+   }
+
+   private boolean lookupUntilFound(final String containerName, final byte[] toSearch,
+            List<BlobMetadata> toLookup) throws InterruptedException {
+      final int permits = Math.max(1, maxConcurrentLookups);
+      final Semaphore inFlight = new Semaphore(permits);
+      final AtomicBoolean found = new AtomicBoolean();
+      final Set<ListenableFuture<byte[]>> outstanding = Sets.newSetFromMap(new MapMaker()
+               .<ListenableFuture<byte[]>, Boolean> makeMap());
+      final Map<String, Exception> exceptions = new MapMaker().makeMap();
+      long deadline = maxTime != null ? System.currentTimeMillis() + maxTime : Long.MAX_VALUE;
+
+      for (final BlobMetadata md : toLookup) {
+         if (found.get() || !acquire(inFlight, 1, deadline))
+            break;
+         if (found.get()) {
+            inFlight.release();
+            break;
+         }
+         final ListenableFuture<byte[]> future;
+         try {
+            future = lookupMD5(containerName, md);
+         } catch (RuntimeException e) {
+            inFlight.release();
+            exceptions.put(md.getName(), e);
+            continue;
+         }
+         outstanding.add(future);
+         future.addListener(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  byte[] md5 = future.get();
+                  if (md5 == null) {
+                     logger.debug("blob %s/%s has no content md5", containerName, md.getName());
+                  } else {
+                     index.put(containerName, md, md5);
+                     if (Arrays.equals(toSearch, md5) && found.compareAndSet(false, true))
+                        cancel(outstanding);
+                  }
+               } catch (CancellationException e) {
+                  // a match was found elsewhere
+               } catch (ExecutionException e) {
+                  exceptions.put(md.getName(), (Exception) (e.getCause() instanceof Exception ? e
+                           .getCause() : e));
+               } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+               } finally {
+                  outstanding.remove(future);
+                  inFlight.release();
+               }
+            }
+         }, sameThreadExecutor());
+      }
+      if (!acquire(inFlight, permits, deadline)) {
+         cancel(outstanding);
+         if (!found.get())
+            throw new BlobRuntimeException(String.format(
+                     "timeout searching for md5 in container %s after %dms", containerName,
+                     maxTime));
+      }
+      if (found.get())
+         return true;
+      if (exceptions.size() > 0)
+         throw new BlobRuntimeException(String.format("searching for md5 in container %s: %s",
+                  containerName, exceptions));
+      return false;
+   }
+
+   private static boolean acquire(Semaphore semaphore, int permits, long deadline)
+            throws InterruptedException {
+      if (deadline == Long.MAX_VALUE) {
+         semaphore.acquire(permits);
+         return true;
+      }
+      return semaphore.tryAcquire(permits, Math.max(0, deadline - System.currentTimeMillis()),
+               TimeUnit.MILLISECONDS);
+   }
+
+   private static void cancel(Set<ListenableFuture<byte[]>> outstanding) {
+      for (ListenableFuture<byte[]> future : ImmutableList.copyOf(outstanding))
+         future.cancel(true);
+   }
+}
@@ -109,7 +109,7 @@ public class GetAllBlobsInListAndRetryOnFailure implements GetBlobsInListStrateg
                   "getting from containerName: %s", container));
          if (exceptions.size() > 0) {
             toGet = exceptions.keySet();
-            retryHandler.imposeBackoffExponentialDelay(i + 1, String.format("blob %s/%s not found",
+            retryHandler.imposeJitteredBackoff(i + 1, String.format("blob %s/%s not found",
                      container, toGet));
          } else {
             break;
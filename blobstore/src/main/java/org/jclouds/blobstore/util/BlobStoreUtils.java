@@ -51,6 +51,8 @@ public interface BlobStoreUtils {
 
    void deleteDirectory(String container, String directory);
 
+   void copyAll(String fromContainer, String toContainer, ListContainerOptions options);
+
    @SuppressWarnings("unchecked")
    public static final ExceptionToValueOrPropagate keyNotFoundToNullOrPropagate = new ExceptionToValueOrPropagate(
             KeyNotFoundException.class, null);
@@ -35,6 +35,7 @@ import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.StorageMetadata;
 import org.jclouds.blobstore.options.ListContainerOptions;
 import org.jclouds.blobstore.strategy.ClearListStrategy;
+import org.jclouds.blobstore.strategy.CopyBlobsStrategy;
 import org.jclouds.blobstore.strategy.CountListStrategy;
 import org.jclouds.blobstore.strategy.DeleteDirectoryStrategy;
 import org.jclouds.blobstore.strategy.GetDirectoryStrategy;
@@ -58,17 +59,20 @@ public class BlobStoreUtilsImpl implements BlobStoreUtils {
    protected final MkdirStrategy mkdirStrategy;
    protected final DeleteDirectoryStrategy rmDirStrategy;
    protected final CountListStrategy countBlobsStrategy;
+   protected final CopyBlobsStrategy copyBlobsStrategy;
 
    @Inject
    protected BlobStoreUtilsImpl(Blob.Factory blobFactory, ClearListStrategy clearContainerStrategy,
             GetDirectoryStrategy getDirectoryStrategy, MkdirStrategy mkdirStrategy,
-            CountListStrategy countBlobsStrategy, DeleteDirectoryStrategy rmDirStrategy) {
+            CountListStrategy countBlobsStrategy, DeleteDirectoryStrategy rmDirStrategy,
+            CopyBlobsStrategy copyBlobsStrategy) {
       this.blobFactory = checkNotNull(blobFactory, "blobFactory");
       this.clearContainerStrategy = checkNotNull(clearContainerStrategy, "clearContainerStrategy");
       this.getDirectoryStrategy = checkNotNull(getDirectoryStrategy, "getDirectoryStrategy");
       this.mkdirStrategy = checkNotNull(mkdirStrategy, "mkdirStrategy");
       this.rmDirStrategy = checkNotNull(rmDirStrategy, "rmDirStrategy");
       this.countBlobsStrategy = checkNotNull(countBlobsStrategy, "countBlobsStrategy");
+      this.copyBlobsStrategy = checkNotNull(copyBlobsStrategy, "copyBlobsStrategy");
    }
 
    public Blob newBlob(String name) {
@@ -97,6 +101,10 @@ public class BlobStoreUtilsImpl implements BlobStoreUtils {
       rmDirStrategy.execute(container, directory);
    }
 
+   public void copyAll(String fromContainer, String toContainer, ListContainerOptions options) {
+      copyBlobsStrategy.execute(fromContainer, toContainer, options);
+   }
+
    @SuppressWarnings("unchecked")
    public static <T> T keyNotFoundToNullOrPropagate(Exception e) {
       return (T) keyNotFoundToNullOrPropagate.apply(e);
@@ -176,7 +184,11 @@ public class BlobStoreUtilsImpl implements BlobStoreUtils {
 
    public static void createParentIfNeededAsync(AsyncBlobStore asyncBlobStore, String container,
             Blob blob) {
-      String name = blob.getMetadata().getName();
+      createParentIfNeededAsync(asyncBlobStore, container, blob.getMetadata().getName());
+   }
+
+   public static void createParentIfNeededAsync(AsyncBlobStore asyncBlobStore, String container,
+            String name) {
       if (name.indexOf('/') > 0) {
          asyncBlobStore.createDirectory(container, parseDirectoryFromPath(name));
       }
@@ -23,6 +23,7 @@ import static org.jclouds.blobstore.options.GetOptions.Builder.ifETagMatches;
 import static org.jclouds.blobstore.options.GetOptions.Builder.ifModifiedSince;
 import static org.jclouds.blobstore.options.GetOptions.Builder.ifUnmodifiedSince;
 import static org.jclouds.blobstore.options.GetOptions.Builder.range;
+import static org.jclouds.blobstore.options.ListContainerOptions.Builder.recursive;
 import static org.jclouds.concurrent.ConcurrentUtils.awaitCompletion;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
@@ -41,6 +42,7 @@ import java.util.zip.GZIPInputStream;
 import javax.ws.rs.core.MediaType;
 
 import org.jclouds.blobstore.ContainerNotFoundException;
+import org.jclouds.blobstore.KeyNotFoundException;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
@@ -398,6 +400,48 @@ public class BaseBlobIntegrationTest extends BaseBlobStoreIntegrationTest {
 
    }
 
+   @Test(groups = { "integration", "live" })
+   public void testCopyBlob() throws InterruptedException {
+      String containerName = getContainerName();
+      try {
+         addBlobToContainer(containerName, "source");
+         assertNotNull(context.getBlobStore().copyBlob(containerName, "source", containerName,
+                  "path/copy"));
+         validateContent(containerName, "path/copy");
+         validateContent(containerName, "source");
+      } finally {
+         returnContainer(containerName);
+      }
+   }
+
+   @Test(groups = { "integration", "live" }, expectedExceptions = KeyNotFoundException.class)
+   public void testCopyBlobNotFound() throws InterruptedException {
+      String containerName = getContainerName();
+      try {
+         context.getBlobStore().copyBlob(containerName, "source", containerName, "copy");
+      } finally {
+         returnContainer(containerName);
+      }
+   }
+
+   @Test(groups = { "integration", "live" })
+   public void testCopyAll() throws InterruptedException {
+      String sourceContainer = getContainerName();
+      try {
+         String containerName = getContainerName();
+         try {
+            add5BlobsUnderPathAnd5UnderRootToContainer(sourceContainer);
+            context.getBlobStore().copyAll(sourceContainer, containerName, recursive());
+            assertEquals(context.getBlobStore().countBlobs(containerName), 10);
+            assertEquals(context.getBlobStore().countBlobs(sourceContainer), 10);
+         } finally {
+            returnContainer(containerName);
+         }
+      } finally {
+         returnContainer(sourceContainer);
+      }
+   }
+
    @DataProvider(name = "putTests")
    public Object[][] createData1() throws IOException {
 
@@ -0,0 +1,167 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.IAnswer;
+import org.jclouds.blobstore.AsyncBlobStore;
+import org.jclouds.blobstore.KeyNotFoundException;
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.internal.BlobMetadataImpl;
+import org.jclouds.blobstore.internal.BlobRuntimeException;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.strategy.ListBlobsInContainer;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests behavior of {@code CopyBlobsStrategyImpl}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "blobstore.CopyBlobsStrategyImplTest")
+public class CopyBlobsStrategyImplTest {
+
+   private List<BlobMetadata> listing;
+   private ExecutorService executor;
+   private Set<String> copied;
+   private AtomicInteger incomplete;
+   private int maxIncomplete;
+
+   @BeforeMethod
+   void setUp() {
+      listing = Lists.newArrayList();
+      executor = Executors.newCachedThreadPool();
+      copied = Sets.newSetFromMap(new MapMaker().<String, Boolean> makeMap());
+      incomplete = new AtomicInteger();
+      maxIncomplete = 0;
+   }
+
+   @AfterMethod
+   void tearDown() {
+      executor.shutdownNow();
+   }
+
+   private static BlobMetadata blob(String name) {
+      return new BlobMetadataImpl(name, name, null, null, "etag-" + name, 1l, new Date(0), Maps
+               .<String, String> newHashMap(), null, null);
+   }
+
+   /**
+    * copies complete on another thread a little later, or fail if their name is in {@code failing}
+    */
+   private CopyBlobsStrategyImpl newStrategy(final Set<String> failing) {
+      AsyncBlobStore ablobstore = createMock(AsyncBlobStore.class);
+      for (final BlobMetadata md : listing) {
+         expect(ablobstore.copyBlob(eq("from"), eq(md.getName()), eq("to"), eq(md.getName())))
+                  .andAnswer(new IAnswer<ListenableFuture<String>>() {
+                     public ListenableFuture<String> answer() throws Throwable {
+                        return copyLater(md.getName(), failing.contains(md.getName()));
+                     }
+                  });
+      }
+      replay(ablobstore);
+      return new CopyBlobsStrategyImpl(new ListBlobsInContainer() {
+         @Override
+         public Iterable<? extends BlobMetadata> execute(String containerName,
+                  ListContainerOptions options) {
+            assertEquals(containerName, "from");
+            return listing;
+         }
+      }, ablobstore);
+   }
+
+   private synchronized void recordIncomplete(int count) {
+      maxIncomplete = Math.max(maxIncomplete, count);
+   }
+
+   private ListenableFuture<String> copyLater(final String name, final boolean fail) {
+      final SettableListenableFuture<String> future = new SettableListenableFuture<String>();
+      recordIncomplete(incomplete.incrementAndGet());
+      executor.execute(new Runnable() {
+         public void run() {
+            try {
+               Thread.sleep(10);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+            incomplete.decrementAndGet();
+            if (fail) {
+               future.setException(new KeyNotFoundException("from", name, "gone"));
+            } else {
+               copied.add(name);
+               future.set("etag-" + name);
+            }
+         }
+      });
+      return future;
+   }
+
+   public void testCopiesAreBounded() {
+      for (int i = 0; i < 10; i++)
+         listing.add(blob(i + ""));
+      CopyBlobsStrategyImpl strategy = newStrategy(ImmutableSet.<String> of());
+      strategy.maxConcurrentCopies = 3;
+
+      strategy.execute("from", "to", ListContainerOptions.NONE);
+      assertEquals(copied.size(), 10);
+      assert maxIncomplete <= 3 : maxIncomplete;
+   }
+
+   public void testFailuresDontStopOtherCopies() {
+      for (int i = 0; i < 5; i++)
+         listing.add(blob(i + ""));
+      CopyBlobsStrategyImpl strategy = newStrategy(ImmutableSet.of("2"));
+      strategy.maxConcurrentCopies = 2;
+
+      try {
+         strategy.execute("from", "to", ListContainerOptions.NONE);
+         assert false : "expected the failed copy to be reported";
+      } catch (BlobRuntimeException e) {
+         assert e.getMessage().indexOf("2 not found") != -1 : e.getMessage();
+      }
+      assertEquals(copied, ImmutableSet.of("0", "1", "3", "4"));
+   }
+
+   public void testEmptyListingCopiesNothing() {
+      newStrategy(ImmutableSet.<String> of()).execute("from", "to", ListContainerOptions.NONE);
+      assertEquals(copied.size(), 0);
+   }
+}
@@ -0,0 +1,184 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.blobstore.strategy.internal;
+
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.blobstore.domain.BlobMetadata;
+import org.jclouds.blobstore.domain.internal.BlobMetadataImpl;
+import org.jclouds.blobstore.functions.ObjectMD5;
+import org.jclouds.blobstore.options.ListContainerOptions;
+import org.jclouds.blobstore.strategy.ListBlobsInContainer;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests behavior of {@code FindMD5InListOrLookupConcurrently}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "blobstore.FindMD5InListOrLookupConcurrentlyTest")
+public class FindMD5InListOrLookupConcurrentlyTest {
+   static final byte[] MATCH = { 1 };
+   static final byte[] OTHER = { 2 };
+
+   private List<BlobMetadata> listing;
+   private ContentMD5Index md5Index;
+
+   @BeforeMethod
+   void setUp() {
+      listing = Lists.newArrayList();
+      md5Index = new ContentMD5Index();
+   }
+
+   private static BlobMetadata blob(String name, byte[] md5) {
+      return new BlobMetadataImpl(name, name, null, null, "etag-" + name, 1l, new Date(0), Maps
+               .<String, String> newHashMap(), null, md5);
+   }
+
+   private static ObjectMD5 md5Of(Object value, byte[] md5) {
+      ObjectMD5 objectMD5 = createMock(ObjectMD5.class);
+      expect(objectMD5.apply(value)).andReturn(md5).anyTimes();
+      replay(objectMD5);
+      return objectMD5;
+   }
+
+   /**
+    * completes lookups from {@code md5s} immediately, unless {@code pending}, and records the most
+    * lookups that were ever incomplete at once
+    */
+   class RecordingStrategy extends FindMD5InListOrLookupConcurrently {
+      final Map<String, byte[]> md5s;
+      final boolean pending;
+      final Map<String, SettableListenableFuture<byte[]>> lookups = new MapMaker().makeMap();
+      final AtomicInteger incomplete = new AtomicInteger();
+      int maxIncomplete;
+
+      RecordingStrategy(Map<String, byte[]> md5s, boolean pending) {
+         super(md5Of("value", MATCH), new ListBlobsInContainer() {
+            @Override
+            public Iterable<? extends BlobMetadata> execute(String containerName,
+                     ListContainerOptions options) {
+               return listing;
+            }
+         }, md5Index);
+         this.md5s = md5s;
+         this.pending = pending;
+      }
+
+      @Override
+      protected ListenableFuture<byte[]> lookupMD5(String containerName, BlobMetadata md) {
+         SettableListenableFuture<byte[]> future = new SettableListenableFuture<byte[]>();
+         lookups.put(md.getName(), future);
+         maxIncomplete = Math.max(maxIncomplete, incomplete.incrementAndGet());
+         if (!pending)
+            complete(md.getName());
+         return future;
+      }
+
+      void complete(String name) {
+         incomplete.decrementAndGet();
+         lookups.get(name).set(md5s.get(name));
+      }
+   }
+
+   public void testListingMD5NeedsNoLookup() {
+      listing.add(blob("a", OTHER));
+      listing.add(blob("b", MATCH));
+      RecordingStrategy strategy = new RecordingStrategy(ImmutableMap.<String, byte[]> of(), false);
+
+      assertTrue(strategy.execute("container", "value", ListContainerOptions.NONE));
+      assertEquals(strategy.lookups.size(), 0);
+   }
+
+   public void testLookupsAreBoundedAndIndexed() {
+      Map<String, byte[]> md5s = Maps.newHashMap();
+      for (int i = 0; i < 10; i++) {
+         listing.add(blob(i + "", null));
+         md5s.put(i + "", OTHER);
+      }
+      RecordingStrategy strategy = new RecordingStrategy(md5s, false);
+      strategy.maxConcurrentLookups = 3;
+
+      assertFalse(strategy.execute("container", "value", ListContainerOptions.NONE));
+      assertEquals(strategy.lookups.size(), 10);
+      assert strategy.maxIncomplete <= 3 : strategy.maxIncomplete;
+      assertEquals(md5Index.size("container"), 10);
+
+      RecordingStrategy again = new RecordingStrategy(md5s, false);
+      assertFalse(again.execute("container", "value", ListContainerOptions.NONE));
+      assertEquals(again.lookups.size(), 0);
+   }
+
+   public void testChangedETagIsLookedUpAgain() {
+      listing.add(blob("a", null));
+      RecordingStrategy strategy = new RecordingStrategy(ImmutableMap.of("a", OTHER), false);
+      assertFalse(strategy.execute("container", "value", ListContainerOptions.NONE));
+
+      listing.set(0, new BlobMetadataImpl("a", "a", null, null, "changed", 1l, new Date(0), Maps
+               .<String, String> newHashMap(), null, null));
+      RecordingStrategy again = new RecordingStrategy(ImmutableMap.of("a", MATCH), false);
+      assertTrue(again.execute("container", "value", ListContainerOptions.NONE));
+      assertEquals(again.lookups.size(), 1);
+   }
+
+   public void testMatchCancelsOutstandingLookups() throws Exception {
+      listing.add(blob("a", null));
+      listing.add(blob("b", null));
+      listing.add(blob("c", null));
+      final RecordingStrategy strategy = new RecordingStrategy(ImmutableMap.of("a", OTHER, "b",
+               MATCH, "c", OTHER), true);
+
+      Thread completer = new Thread() {
+         public void run() {
+            try {
+               while (strategy.lookups.size() < 3)
+                  Thread.sleep(10);
+               strategy.complete("b");
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      };
+      completer.start();
+      assertTrue(strategy.execute("container", "value", ListContainerOptions.NONE));
+      completer.join();
+
+      assertTrue(strategy.lookups.get("a").isCancelled());
+      assertTrue(strategy.lookups.get("c").isCancelled());
+      assertEquals(md5Index.size("container"), 1);
+   }
+}
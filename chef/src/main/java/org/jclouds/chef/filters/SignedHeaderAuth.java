@@ -25,8 +25,13 @@ package org.jclouds.chef.filters;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.PrivateKey;
 import java.util.Collections;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import javax.annotation.Resource;
@@ -48,17 +53,25 @@ import org.jclouds.http.Payload;
 import org.jclouds.http.Payloads;
 import org.jclouds.http.MultipartForm.Part;
 import org.jclouds.http.internal.SignatureWire;
+import org.jclouds.http.payloads.ByteArrayPayload;
 import org.jclouds.logging.Logger;
 import org.jclouds.util.Utils;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.base.Splitter;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.MapMaker;
 
 /**
  * Ported from mixlib-authentication in order to sign Chef requests.
+ * <p/>
+ * Content hashes are remembered per payload, so a retried or redirected request is not read again
+ * just to be signed. Payloads that can only be read once are hashed while they are copied into
+ * memory, and the copy is sent in their place; those larger than
+ * {@link ChefConstants#PROPERTY_CHEF_MAX_SPOOL_SIZE} are rejected.
  * 
  * @see <a href= "http://github.com/opscode/mixlib-authentication" />
  * @author Adrian Cole
@@ -67,6 +80,7 @@ import com.google.common.collect.Iterables;
 @Singleton
 public class SignedHeaderAuth implements HttpRequestFilter {
    public static final String SIGNING_DESCRIPTION = "version=1.0";
+   public static final long DEFAULT_MAX_SPOOL_SIZE = 16 * 1024 * 1024;
 
    private final SignatureWire signatureWire;
    private final String userId;
@@ -74,6 +88,19 @@ public class SignedHeaderAuth implements HttpRequestFilter {
    private final Provider<String> timeStampProvider;
    private final EncryptionService encryptionService;
    private final String emptyStringHash;
+   private final Map<Payload, String> contentHashes = new MapMaker().weakKeys().makeMap();
+   private final Map<String, String> pathHashes = new MapMaker().softValues().makeComputingMap(
+            new Function<String, String>() {
+               @Override
+               public String apply(String path) {
+                  return hashCanonicalPath(path);
+               }
+            });
+
+   @com.google.inject.Inject(optional = true)
+   @Named(ChefConstants.PROPERTY_CHEF_MAX_SPOOL_SIZE)
+   @VisibleForTesting
+   long maxSpoolSize = DEFAULT_MAX_SPOOL_SIZE;
 
    @Resource
    @Named(Constants.LOGGER_SIGNATURE)
@@ -92,7 +119,9 @@ public class SignedHeaderAuth implements HttpRequestFilter {
    }
 
    public void filter(HttpRequest request) throws HttpException {
-
+      if (request.getPayload() != null && !request.getPayload().isRepeatable()
+               && !(request.getPayload() instanceof MultipartForm))
+         request.setPayload(spoolAndHash(request.getPayload()));
       String contentHash = hashBody(request.getPayload());
       request.getHeaders().replaceValues("X-Ops-Content-Hash",
                Collections.singletonList(contentHash));
@@ -133,6 +162,10 @@ public class SignedHeaderAuth implements HttpRequestFilter {
 
    @VisibleForTesting
    String hashPath(String path) {
+      return pathHashes.get(path);
+   }
+
+   private String hashCanonicalPath(String path) {
       try {
          return encryptionService.sha1Base64(Utils.toInputStream(canonicalPath(path)));
       } catch (Exception e) {
@@ -157,13 +190,70 @@ public class SignedHeaderAuth implements HttpRequestFilter {
          return emptyStringHash;
       payload = useTheFilePartIfForm(payload);
       checkArgument(payload != null, "payload was null");
+      String hash = contentHashes.get(payload);
+      if (hash != null)
+         return hash;
       checkArgument(payload.isRepeatable(), "payload must be repeatable: " + payload);
       try {
-         return encryptionService.sha1Base64(payload.getInput());
+         hash = encryptionService.sha1Base64(payload.getInput());
+      } catch (Exception e) {
+         Throwables.propagateIfPossible(e);
+         throw new HttpException("error creating sigature for payload: " + payload, e);
+      }
+      contentHashes.put(payload, hash);
+      return hash;
+   }
+
+   /**
+    * reads the payload once, hashing it on the way into memory
+    * 
+    * @throws IllegalArgumentException
+    *            if the payload is larger than {@link #maxSpoolSize}
+    */
+   @VisibleForTesting
+   Payload spoolAndHash(final Payload payload) {
+      Long size = payload.calculateSize();
+      checkArgument(size == null || size <= maxSpoolSize, "payload of %s bytes exceeds %s: %s",
+               size, ChefConstants.PROPERTY_CHEF_MAX_SPOOL_SIZE, payload);
+      final ByteArrayOutputStream spool = new ByteArrayOutputStream(size != null
+               && size > 0 && size < Integer.MAX_VALUE ? size.intValue() : 8192);
+      InputStream tee = new FilterInputStream(payload.getInput()) {
+         @Override
+         public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+               checkSpoolSize(1);
+               spool.write(b);
+            }
+            return b;
+         }
+
+         @Override
+         public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+               checkSpoolSize(read);
+               spool.write(b, off, read);
+            }
+            return read;
+         }
+
+         // the size isn't always known up front
+         private void checkSpoolSize(int read) {
+            checkArgument(spool.size() + read <= maxSpoolSize, "payload exceeds %s of %s bytes: %s",
+                     ChefConstants.PROPERTY_CHEF_MAX_SPOOL_SIZE, maxSpoolSize, payload);
+         }
+      };
+      String hash;
+      try {
+         hash = encryptionService.sha1Base64(tee);
       } catch (Exception e) {
          Throwables.propagateIfPossible(e);
          throw new HttpException("error creating sigature for payload: " + payload, e);
       }
+      Payload spooled = new ByteArrayPayload(spool.toByteArray());
+      contentHashes.put(spooled, hash);
+      return spooled;
    }
 
    private Payload useTheFilePartIfForm(Payload payload) {
@@ -41,11 +41,10 @@
  */
 package org.jclouds.chef.functions;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Type;
-import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -53,8 +52,10 @@ import javax.inject.Singleton;
 
 import org.jclouds.http.functions.ParseJson;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
 /**
  * @author Adrian Cole
@@ -66,16 +67,25 @@ public class ParseKeySetFromJson extends ParseJson<Set<String>> {
       super(gson);
    }
 
-   @SuppressWarnings("unchecked")
+   /**
+    * reads only the names of the members, skipping their values, which may be large
+    */
    @Override
    protected Set<String> apply(InputStream stream) {
       try {
-         Type map = new TypeToken<Map<String, String>>() {
-         }.getType();
-         return ((Map<String, String>) gson.fromJson(new InputStreamReader(stream, "UTF-8"), map))
-                  .keySet();
+         JsonReader reader = new JsonReader(new InputStreamReader(stream, "UTF-8"));
+         Set<String> keys = Sets.newLinkedHashSet();
+         reader.beginObject();
+         while (reader.hasNext()) {
+            keys.add(reader.nextName());
+            reader.skipValue();
+         }
+         reader.endObject();
+         return keys;
       } catch (UnsupportedEncodingException e) {
          throw new RuntimeException("jclouds requires UTF-8 encoding", e);
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
       }
    }
 }
\ No newline at end of file
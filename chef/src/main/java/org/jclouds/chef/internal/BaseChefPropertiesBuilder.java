@@ -25,6 +25,7 @@ package org.jclouds.chef.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.jclouds.chef.reference.ChefConstants.PROPERTY_CHEF_IDENTITY;
+import static org.jclouds.chef.reference.ChefConstants.PROPERTY_CHEF_MAX_SPOOL_SIZE;
 import static org.jclouds.chef.reference.ChefConstants.PROPERTY_CHEF_RSA_KEY;
 import static org.jclouds.chef.reference.ChefConstants.PROPERTY_CHEF_TIMESTAMP_INTERVAL;
 
@@ -32,6 +33,7 @@ import java.net.URI;
 import java.util.Properties;
 
 import org.jclouds.PropertiesBuilder;
+import org.jclouds.chef.filters.SignedHeaderAuth;
 
 /**
  * Builds properties used in Chef Clients
@@ -43,6 +45,8 @@ public abstract class BaseChefPropertiesBuilder extends PropertiesBuilder {
    protected Properties defaultProperties() {
       Properties properties = super.defaultProperties();
       properties.setProperty(PROPERTY_CHEF_TIMESTAMP_INTERVAL, "1");
+      properties.setProperty(PROPERTY_CHEF_MAX_SPOOL_SIZE, SignedHeaderAuth.DEFAULT_MAX_SPOOL_SIZE
+               + "");
       return properties;
    }
 
@@ -67,4 +67,10 @@ public interface ChefConstants {
     * how often to refresh timestamps in seconds.
     */
    public static final String PROPERTY_CHEF_TIMESTAMP_INTERVAL = "jclouds.chef.timestamp-interval";
+
+   /**
+    * largest payload, in bytes, that can be signed when it can only be read once. Such payloads
+    * are copied into memory so they can be hashed and then sent.
+    */
+   public static final String PROPERTY_CHEF_MAX_SPOOL_SIZE = "jclouds.chef.max-spool-size";
 }
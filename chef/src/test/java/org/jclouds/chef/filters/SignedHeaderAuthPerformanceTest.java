@@ -0,0 +1,142 @@
+/**
+ *
+ * Copyright (C) 2010 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * ====================================================================
+ */
+package org.jclouds.chef.filters;
+
+import static org.jclouds.chef.filters.SignedHeaderAuthTest.PRIVATE_KEY;
+import static org.jclouds.chef.filters.SignedHeaderAuthTest.TIMESTAMP_ISO8601;
+import static org.jclouds.chef.filters.SignedHeaderAuthTest.USER_ID;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.Security;
+import java.util.List;
+import java.util.Random;
+
+import javax.inject.Provider;
+import javax.ws.rs.HttpMethod;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.openssl.PEMReader;
+import org.jclouds.PerformanceTest;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.MultipartForm;
+import org.jclouds.http.Payloads;
+import org.jclouds.http.MultipartForm.Part;
+import org.jclouds.http.MultipartForm.Part.PartOptions;
+import org.jclouds.http.internal.SignatureWire;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Closeables;
+
+/**
+ * This tests the cost of signing multi-megabyte cookbook uploads.
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "performance", sequential = true, testName = "chef.SignedHeaderAuthPerformanceTest")
+public class SignedHeaderAuthPerformanceTest extends PerformanceTest {
+   static final int FILE_SIZE = 8 * 1024 * 1024;
+   static final int UPLOADS = 20;
+
+   private SignedHeaderAuth filter;
+   private File cookbook;
+
+   @BeforeClass
+   protected void setUp() throws IOException {
+      Security.addProvider(new BouncyCastleProvider());
+      KeyPair pair = KeyPair.class.cast(new PEMReader(new StringReader(PRIVATE_KEY)).readObject());
+      filter = new SignedHeaderAuth(new SignatureWire(), USER_ID, pair.getPrivate(),
+               new Provider<String>() {
+                  @Override
+                  public String get() {
+                     return TIMESTAMP_ISO8601;
+                  }
+               }, new JCEEncryptionService());
+      cookbook = File.createTempFile("cookbook", ".tgz");
+      byte[] content = new byte[FILE_SIZE];
+      new Random(0).nextBytes(content);
+      FileOutputStream out = new FileOutputStream(cookbook);
+      try {
+         out.write(content);
+      } finally {
+         Closeables.closeQuietly(out);
+      }
+   }
+
+   @AfterClass
+   protected void tearDown() {
+      cookbook.delete();
+   }
+
+   private HttpRequest newUpload() {
+      HttpRequest request = new HttpRequest(HttpMethod.PUT, URI
+               .create("http://localhost/organizations/clownco/sandboxes/abc"));
+      request.setPayload(new MultipartForm(Part.create("file", Payloads.newPayload(cookbook),
+               new PartOptions().contentType("application/x-binary"))));
+      return request;
+   }
+
+   public void testSignDistinctUploads() {
+      long start = System.nanoTime();
+      for (int i = 0; i < UPLOADS; i++)
+         filter.filter(newUpload());
+      report("distinct uploads", start);
+   }
+
+   public void testResignSameUpload() {
+      HttpRequest request = newUpload();
+      filter.filter(request);
+      long start = System.nanoTime();
+      for (int i = 0; i < UPLOADS; i++)
+         filter.filter(request);
+      report("re-signing one upload", start);
+   }
+
+   public void testSignDistinctUploadsInParallel() throws Throwable {
+      List<Runnable> tasks = Lists.newArrayList();
+      for (int i = 0; i < UPLOADS; i++)
+         tasks.add(new Runnable() {
+            public void run() {
+               filter.filter(newUpload());
+            }
+         });
+      THREAD_COUNT = UPLOADS;
+      executeMultiThreadedPerformanceTest("signing " + UPLOADS + " 8MB uploads", tasks);
+   }
+
+   private void report(String name, long start) {
+      double millis = (System.nanoTime() - start) / 1000000.0;
+      System.out.printf("TIMING: %s took %.3fms for %d x %dMB (%.1f MB/s)%n", name, millis,
+               UPLOADS, FILE_SIZE / (1024 * 1024), UPLOADS * (FILE_SIZE / (1024.0 * 1024))
+                        / (millis / 1000));
+   }
+}
@@ -26,6 +26,9 @@ package org.jclouds.chef.filters;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
 import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
 import static org.testng.Assert.assertEquals;
 
 import java.io.IOException;
@@ -46,6 +49,8 @@ import org.jclouds.chef.config.ChefRestClientModule;
 import org.jclouds.concurrent.config.ExecutorServiceModule;
 import org.jclouds.encryption.EncryptionService;
 import org.jclouds.http.HttpRequest;
+import org.jclouds.http.Payload;
+import org.jclouds.http.Payloads;
 import org.jclouds.http.TransformingHttpCommandExecutorService;
 import org.jclouds.http.internal.SignatureWire;
 import org.jclouds.rest.config.RestModule;
@@ -197,8 +202,64 @@ public class SignedHeaderAuthTest {
       signing_obj.filter(request);
    }
 
+   @Test
+   void shouldSpoolAndSignANonRepeatablePayload() throws IOException {
+      URI host = URI.create("http://localhost/" + PATH);
+      HttpRequest request = new HttpRequest(HttpMethod.POST, host);
+      request.setPayload(Utils.toInputStream(BODY));
+      assert !request.getPayload().isRepeatable();
+
+      signing_obj.filter(request);
+      assert request.getPayload().isRepeatable();
+      assertEquals(request.getFirstHeaderOrNull("X-Ops-Content-Hash"), X_OPS_CONTENT_HASH);
+      assertEquals(Utils.toStringAndClose(request.getPayload().getInput()), BODY);
+   }
+
+   @Test
+   void shouldHashTheSamePayloadOnlyOnce() {
+      Payload payload = createMock(Payload.class);
+      expect(payload.isRepeatable()).andReturn(true).anyTimes();
+      expect(payload.getInput()).andReturn(Utils.toInputStream(BODY)).once();
+      replay(payload);
+
+      assertEquals(signing_obj.hashBody(payload), HASHED_BODY);
+      assertEquals(signing_obj.hashBody(payload), HASHED_BODY);
+      verify(payload);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   void shouldRejectANonRepeatablePayloadLargerThanTheSpoolLimit() {
+      SignedHeaderAuth filter = newFilter();
+      filter.maxSpoolSize = BODY.length() - 1;
+      filter.spoolAndHash(Payloads.newPayload(Utils.toInputStream(BODY)));
+   }
+
+   /**
+    * the mock fails the test if the payload is read
+    */
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   void shouldRejectAPayloadOfKnownSizeBeforeReadingIt() {
+      Payload payload = createMock(Payload.class);
+      expect(payload.calculateSize()).andReturn(new Long(BODY.length())).anyTimes();
+      replay(payload);
+
+      SignedHeaderAuth filter = newFilter();
+      filter.maxSpoolSize = BODY.length() - 1;
+      filter.spoolAndHash(payload);
+   }
+
+   @Test
+   void shouldSpoolAPayloadAtTheSpoolLimit() throws IOException {
+      SignedHeaderAuth filter = newFilter();
+      filter.maxSpoolSize = BODY.length();
+      Payload spooled = filter.spoolAndHash(Payloads.newPayload(Utils.toInputStream(BODY)));
+      assertEquals(Utils.toStringAndClose(spooled.getInput()), BODY);
+      assertEquals(filter.hashBody(spooled), HASHED_BODY);
+   }
+
    private SignedHeaderAuth signing_obj;
    private EncryptionService encryptionService;
+   private PrivateKey privateKey;
 
    @Test(enabled = false)
    void canParseKeyFromCreateClient() throws IOException {
@@ -230,9 +291,13 @@ public class SignedHeaderAuthTest {
 
       KeyPair pair = KeyPair.class.cast(new PEMReader(new StringReader(PRIVATE_KEY)).readObject());
 
-      PrivateKey privateKey = pair.getPrivate();
+      privateKey = pair.getPrivate();
+
+      signing_obj = newFilter();
+   }
 
-      signing_obj = new SignedHeaderAuth(new SignatureWire(), USER_ID, privateKey,
+   private SignedHeaderAuth newFilter() {
+      return new SignedHeaderAuth(new SignatureWire(), USER_ID, privateKey,
                new Provider<String>() {
 
                   @Override
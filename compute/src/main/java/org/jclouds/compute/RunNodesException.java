@@ -23,6 +23,7 @@ import java.util.Set;
 
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.util.BootstrapStatistics;
 import org.jclouds.compute.util.ComputeUtils;
 
 /**
@@ -39,25 +40,44 @@ public class RunNodesException extends Exception {
    private final Set<? extends NodeMetadata> successfulNodes;
    private final Map<? extends NodeMetadata, ? extends Throwable> failedNodes;
    private final Map<?, Exception> executionExceptions;
+   private final BootstrapStatistics bootstrapStatistics;
 
    public RunNodesException(String tag, int count, Template template,
             Set<? extends NodeMetadata> successfulNodes, Map<?, Exception> executionExceptions,
             Map<? extends NodeMetadata, ? extends Throwable> failedNodes) {
+      this(tag, count, template, successfulNodes, executionExceptions, failedNodes,
+               new BootstrapStatistics());
+   }
+
+   public RunNodesException(String tag, int count, Template template,
+            Set<? extends NodeMetadata> successfulNodes, Map<?, Exception> executionExceptions,
+            Map<? extends NodeMetadata, ? extends Throwable> failedNodes,
+            BootstrapStatistics bootstrapStatistics) {
       super(
                String
                         .format(
-                                 "error running %d node%s tag(%s) location(%s) image(%s) size(%s) options(%s)%n%s%n%s",
+                                 "error running %d node%s tag(%s) location(%s) image(%s) size(%s) options(%s)%n%s%n%s%n%s",
                                  count, count > 1 ? "s" : "", tag, template.getLocation().getId(),
                                  template.getImage().getProviderId(), template.getSize().getProviderId(), template
                                           .getOptions(), ComputeUtils
                                           .createExecutionErrorMessage(executionExceptions),
-                                 ComputeUtils.createNodeErrorMessage(failedNodes)));
+                                 ComputeUtils.createNodeErrorMessage(failedNodes),
+                                 bootstrapStatistics));
       this.tag = tag;
       this.count = count;
       this.template = template;
       this.successfulNodes = successfulNodes;
       this.failedNodes = failedNodes;
       this.executionExceptions = executionExceptions;
+      this.bootstrapStatistics = bootstrapStatistics;
+   }
+
+   /**
+    * 
+    * @return latency of each stage nodes went through while being bootstrapped in this run
+    */
+   public BootstrapStatistics getBootstrapStatistics() {
+      return bootstrapStatistics;
    }
 
    /**
@@ -60,6 +60,7 @@ import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 import org.jclouds.compute.strategy.ListNodesStrategy;
 import org.jclouds.compute.strategy.RebootNodeStrategy;
 import org.jclouds.compute.strategy.RunNodesAndAddToSetStrategy;
+import org.jclouds.compute.util.BootstrapStatistics;
 import org.jclouds.compute.util.ComputeUtils;
 import org.jclouds.compute.util.ComputeUtils.RunScriptOnNode;
 import org.jclouds.domain.Location;
@@ -71,6 +72,7 @@ import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -164,15 +166,21 @@ public class BaseComputeService implements ComputeService {
                   count, count > 1 ? "s" : "", tag, template.getLocation()
                         .getId(), template.getImage().getProviderId(), template
                         .getSize().getProviderId(), template.getOptions());
-      Set<NodeMetadata> nodes = Sets.newHashSet();
-      Map<NodeMetadata, Exception> badNodes = Maps.newLinkedHashMap();
+      // populated concurrently as each node finishes bootstrapping
+      Set<NodeMetadata> nodes = Sets.newSetFromMap(new MapMaker()
+            .<NodeMetadata, Boolean> makeMap());
+      Map<NodeMetadata, Exception> badNodes = new MapMaker().makeMap();
+      // collected per call, as other calls may be bootstrapping nodes at the
+      // same time
+      BootstrapStatistics statistics = new BootstrapStatistics(utils
+            .getBootstrapStatistics());
       Map<?, ListenableFuture<Void>> responses = runNodesAndAddToSetStrategy
-            .execute(tag, count, template, nodes, badNodes);
+            .execute(tag, count, template, nodes, badNodes, statistics);
       Map<?, Exception> executionExceptions = awaitCompletion(responses,
             executor, null, logger, "starting nodes");
       if (executionExceptions.size() > 0 || badNodes.size() > 0) {
          throw new RunNodesException(tag, count, template, nodes,
-               executionExceptions, badNodes);
+               executionExceptions, badNodes, statistics);
       }
       return nodes;
    }
@@ -35,6 +35,14 @@ public interface ComputeServiceConstants {
    public static final String PROPERTY_TIMEOUT_NODE_RUNNING = "jclouds.compute.timeout.node-running";
    public static final String PROPERTY_TIMEOUT_SCRIPT_COMPLETE = "jclouds.compute.timeout.script-complete";
    public static final String PROPERTY_TIMEOUT_PORT_OPEN = "jclouds.compute.timeout.port-open";
+   /**
+    * maximum nodes probed for an open ssh port at the same time; 0 is unbounded
+    */
+   public static final String PROPERTY_MAX_CONCURRENT_PORT_PROBES = "jclouds.compute.max-concurrent-port-probes";
+   /**
+    * maximum ssh sessions held open at the same time while bootstrapping nodes; 0 is unbounded
+    */
+   public static final String PROPERTY_MAX_CONCURRENT_SSH_SESSIONS = "jclouds.compute.max-concurrent-ssh-sessions";
 
    @Singleton
    static class Timeouts {
@@ -55,4 +63,16 @@ public interface ComputeServiceConstants {
       public long portOpen = 130 * 1000;
 
    }
+
+   @Singleton
+   static class BootstrapLimits {
+      @Inject(optional = true)
+      @Named(PROPERTY_MAX_CONCURRENT_PORT_PROBES)
+      public int portProbes = 0;
+
+      @Inject(optional = true)
+      @Named(PROPERTY_MAX_CONCURRENT_SSH_SESSIONS)
+      public int sshSessions = 0;
+
+   }
 }
@@ -25,6 +25,7 @@ import java.util.Set;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.Template;
 import org.jclouds.compute.strategy.impl.EncodeTagIntoNameRunNodesAndAddToSetStrategy;
+import org.jclouds.compute.util.BootstrapStatistics;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.ImplementedBy;
@@ -37,6 +38,11 @@ import com.google.inject.ImplementedBy;
 @ImplementedBy(EncodeTagIntoNameRunNodesAndAddToSetStrategy.class)
 public interface RunNodesAndAddToSetStrategy {
 
+   /**
+    * @param statistics
+    *           receives the bootstrap latency of the nodes started by this call
+    */
    Map<?, ListenableFuture<Void>> execute(String tag, int count, Template template,
-            Set<NodeMetadata> nodes, Map<NodeMetadata, Exception> badNodes);
+            Set<NodeMetadata> nodes, Map<NodeMetadata, Exception> badNodes,
+            BootstrapStatistics statistics);
 }
\ No newline at end of file
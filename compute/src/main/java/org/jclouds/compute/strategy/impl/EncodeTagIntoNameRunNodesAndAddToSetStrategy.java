@@ -40,6 +40,7 @@ import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.compute.strategy.AddNodeWithTagStrategy;
 import org.jclouds.compute.strategy.ListNodesStrategy;
 import org.jclouds.compute.strategy.RunNodesAndAddToSetStrategy;
+import org.jclouds.compute.util.BootstrapStatistics;
 import org.jclouds.compute.util.ComputeUtils;
 import org.jclouds.logging.Logger;
 
@@ -88,7 +89,8 @@ public class EncodeTagIntoNameRunNodesAndAddToSetStrategy implements
    public Map<?, ListenableFuture<Void>> execute(final String tag,
          final int count, final Template template,
          final Set<NodeMetadata> nodes,
-         final Map<NodeMetadata, Exception> badNodes) {
+         final Map<NodeMetadata, Exception> badNodes,
+         final BootstrapStatistics statistics) {
       Map<String, ListenableFuture<Void>> responses = Maps.newHashMap();
       for (final String name : getNextNames(tag, template, count)) {
          responses.put(name, makeListenable(executor
@@ -102,7 +104,8 @@ public class EncodeTagIntoNameRunNodesAndAddToSetStrategy implements
                            .getId());
                      utils
                            .runOptionsOnNodeAndAddToGoodSetOrPutExceptionIntoBadMap(
-                                 node, badNodes, nodes, template.getOptions())
+                                 node, badNodes, nodes, template.getOptions(),
+                                 statistics)
                            .call();
                      return null;
                   }
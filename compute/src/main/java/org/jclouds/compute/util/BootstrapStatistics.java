@@ -0,0 +1,184 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.compute.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Formatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.inject.Singleton;
+
+/**
+ * Latency histograms for each stage a node passes through after it is launched
+ * and before it is handed back to the caller.
+ * <p/>
+ * Buckets are powers of two in milliseconds, so recording is a single atomic
+ * increment and safe to call from any number of threads.
+ * <p/>
+ * An instance created with a parent also records into that parent. This lets
+ * one call, such as {@code runNodesWithTag}, collect the latency of its own
+ * nodes while the context-wide statistics keep accumulating.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class BootstrapStatistics {
+
+   public static enum Stage {
+      /**
+       * waiting for the provider to report the node as running
+       */
+      NODE_RUNNING,
+      /**
+       * waiting for the ssh port to accept connections
+       */
+      PORT_OPEN,
+      /**
+       * establishing the ssh session
+       */
+      SSH_SESSION,
+      /**
+       * running scripts and installing keys over the ssh session
+       */
+      SCRIPTS,
+      /**
+       * waiting for the port specified in the template options to open
+       */
+      PORT_VERIFY;
+   }
+
+   static final int BUCKETS = 32;
+
+   private final AtomicLongArray counts = new AtomicLongArray(Stage.values().length * BUCKETS);
+   private final AtomicLongArray totals = new AtomicLongArray(Stage.values().length);
+   private final BootstrapStatistics parent;
+
+   public BootstrapStatistics() {
+      this.parent = null;
+   }
+
+   /**
+    * @param parent
+    *           also receives everything recorded into this instance
+    */
+   public BootstrapStatistics(BootstrapStatistics parent) {
+      this.parent = checkNotNull(parent, "parent");
+   }
+
+   /**
+    * records that a node spent {@code duration} in {@code stage}
+    */
+   public void record(Stage stage, long duration, TimeUnit unit) {
+      long millis = unit.toMillis(duration);
+      counts.incrementAndGet(stage.ordinal() * BUCKETS + bucketFor(millis));
+      totals.addAndGet(stage.ordinal(), millis);
+      if (parent != null)
+         parent.record(stage, duration, unit);
+   }
+
+   /**
+    * records the time elapsed since {@code startNanos}, as reported by {@link System#nanoTime}
+    */
+   public void recordSince(Stage stage, long startNanos) {
+      record(stage, System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+   }
+
+   public long getCount(Stage stage) {
+      long count = 0;
+      for (int i = 0; i < BUCKETS; i++)
+         count += counts.get(stage.ordinal() * BUCKETS + i);
+      return count;
+   }
+
+   public long getTotalMillis(Stage stage) {
+      return totals.get(stage.ordinal());
+   }
+
+   /**
+    * @return upper bound, in milliseconds, of the bucket holding the given percentile, or 0 if
+    *         nothing was recorded for this stage
+    */
+   public long getPercentileMillis(Stage stage, double percentile) {
+      checkArgument(percentile > 0 && percentile <= 100, "percentile must be in (0, 100]");
+      long count = getCount(stage);
+      if (count == 0)
+         return 0;
+      long target = (long) Math.ceil(count * percentile / 100);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+         seen += counts.get(stage.ordinal() * BUCKETS + i);
+         if (seen >= target)
+            return upperBoundOf(i);
+      }
+      return upperBoundOf(BUCKETS - 1);
+   }
+
+   /**
+    * @return a copy of the current state of this instance
+    */
+   public BootstrapStatistics snapshot() {
+      BootstrapStatistics copy = new BootstrapStatistics();
+      for (int i = 0; i < counts.length(); i++)
+         copy.counts.set(i, counts.get(i));
+      for (int i = 0; i < totals.length(); i++)
+         copy.totals.set(i, totals.get(i));
+      return copy;
+   }
+
+   /**
+    * @return the measurements recorded after {@code earlier} was taken as a {@link #snapshot}
+    */
+   public BootstrapStatistics since(BootstrapStatistics earlier) {
+      checkNotNull(earlier, "earlier");
+      BootstrapStatistics delta = new BootstrapStatistics();
+      for (int i = 0; i < counts.length(); i++)
+         delta.counts.set(i, counts.get(i) - earlier.counts.get(i));
+      for (int i = 0; i < totals.length(); i++)
+         delta.totals.set(i, totals.get(i) - earlier.totals.get(i));
+      return delta;
+   }
+
+   static int bucketFor(long millis) {
+      if (millis <= 1)
+         return 0;
+      return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis - 1));
+   }
+
+   static long upperBoundOf(int bucket) {
+      return 1l << bucket;
+   }
+
+   @Override
+   public String toString() {
+      Formatter fmt = new Formatter().format("Bootstrap latency (ms):%n");
+      for (Stage stage : Stage.values()) {
+         long count = getCount(stage);
+         if (count == 0)
+            continue;
+         fmt.format("%s: count=%d, avg=%d, p50<=%d, p90<=%d, p99<=%d, max<=%d%n", stage, count,
+                  getTotalMillis(stage) / count, getPercentileMillis(stage, 50),
+                  getPercentileMillis(stage, 90), getPercentileMillis(stage, 99),
+                  getPercentileMillis(stage, 100));
+      }
+      return fmt.toString();
+   }
+}
@@ -36,7 +36,7 @@ import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Semaphore;
 
 import javax.annotation.Nullable;
 import javax.annotation.Resource;
@@ -50,8 +50,10 @@ import org.jclouds.compute.domain.internal.NodeMetadataImpl;
 import org.jclouds.compute.options.TemplateOptions;
 import org.jclouds.compute.predicates.ScriptStatusReturnsZero.CommandUsingClient;
 import org.jclouds.compute.reference.ComputeServiceConstants;
+import org.jclouds.compute.reference.ComputeServiceConstants.BootstrapLimits;
 import org.jclouds.compute.reference.ComputeServiceConstants.Timeouts;
 import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
+import org.jclouds.compute.util.BootstrapStatistics.Stage;
 import org.jclouds.concurrent.ConcurrentUtils;
 import org.jclouds.domain.Credentials;
 import org.jclouds.logging.Logger;
@@ -89,6 +91,9 @@ public class ComputeUtils {
    protected final Predicate<NodeMetadata> nodeRunning;
    private final GetNodeMetadataStrategy getNode;
    private final Timeouts timeouts;
+   private final BootstrapStatistics bootstrapStatistics;
+   private final Semaphore portProbes;
+   private final Semaphore sshSessions;
 
    public static final Map<org.jclouds.compute.domain.OsFamily, Map<String, String>> NAME_VERSION_MAP = ImmutableMap
          .<org.jclouds.compute.domain.OsFamily, Map<String, String>> of(
@@ -110,13 +115,30 @@ public class ComputeUtils {
          @Named("SCRIPT_COMPLETE") Predicate<CommandUsingClient> runScriptNotRunning,
          GetNodeMetadataStrategy getNode, Timeouts timeouts,
          @Named("NODE_RUNNING") Predicate<NodeMetadata> nodeRunning,
-         @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
+         @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor,
+         BootstrapLimits limits, BootstrapStatistics bootstrapStatistics) {
       this.nodeRunning = nodeRunning;
       this.timeouts = timeouts;
       this.getNode = getNode;
       this.socketTester = socketTester;
       this.runScriptNotRunning = runScriptNotRunning;
       this.executor = executor;
+      this.bootstrapStatistics = bootstrapStatistics;
+      this.portProbes = newLimit(limits.portProbes);
+      this.sshSessions = newLimit(limits.sshSessions);
+   }
+
+   private static Semaphore newLimit(int permits) {
+      return new Semaphore(permits > 0 ? permits : Integer.MAX_VALUE);
+   }
+
+   /**
+    * @return latency of each bootstrap stage, accumulated across all nodes
+    *         this instance has processed; per call statistics are created with
+    *         this instance as their parent
+    */
+   public BootstrapStatistics getBootstrapStatistics() {
+      return bootstrapStatistics;
    }
 
    public static String parseVersionOrReturnEmptyString(
@@ -167,27 +189,33 @@ public class ComputeUtils {
       return fmt.format("%s error[s]", executionExceptions.size()).toString();
    }
 
+   /**
+    * @param statistics
+    *           receives the bootstrap latency of these nodes
+    */
    public Map<?, ListenableFuture<Void>> runOptionsOnNodesAndAddToGoodSetOrPutExceptionIntoBadMap(
          final TemplateOptions options, Iterable<NodeMetadata> runningNodes,
          final Set<NodeMetadata> goodNodes,
-         final Map<NodeMetadata, Exception> badNodes) {
+         final Map<NodeMetadata, Exception> badNodes,
+         final BootstrapStatistics statistics) {
       Map<NodeMetadata, ListenableFuture<Void>> responses = Maps.newHashMap();
       for (final NodeMetadata node : runningNodes) {
          responses.put(node, makeListenable(executor
                .submit(runOptionsOnNodeAndAddToGoodSetOrPutExceptionIntoBadMap(
-                     node, badNodes, goodNodes, options)), executor));
+                     node, badNodes, goodNodes, options, statistics)), executor));
       }
       return responses;
    }
 
    public Callable<Void> runOptionsOnNodeAndAddToGoodSetOrPutExceptionIntoBadMap(
          final NodeMetadata node, final Map<NodeMetadata, Exception> badNodes,
-         final Set<NodeMetadata> goodNodes, final TemplateOptions options) {
+         final Set<NodeMetadata> goodNodes, final TemplateOptions options,
+         final BootstrapStatistics statistics) {
       return new Callable<Void>() {
          @Override
          public Void call() throws Exception {
             try {
-               NodeMetadata node1 = runOptionsOnNode(node, options);
+               NodeMetadata node1 = runOptionsOnNode(node, options, statistics);
                logger.debug("<< options applied node(%s)", node1.getId());
                goodNodes.add(node1);
             } catch (Exception e) {
@@ -225,14 +253,17 @@ public class ComputeUtils {
    }
 
    public NodeMetadata runOptionsOnNode(NodeMetadata node,
-         TemplateOptions options) {
+         TemplateOptions options, BootstrapStatistics statistics) {
       if (!options.shouldBlockUntilRunning())
          return node;
 
-      if (nodeRunning.apply(node))
+      long start = System.nanoTime();
+      boolean running = nodeRunning.apply(node);
+      if (running)
          node = installNewCredentials(getNode.execute(node.getId()), node
                .getCredentials());
-      else
+      statistics.recordSince(Stage.NODE_RUNNING, start);
+      if (!running)
          throw new IllegalStateException(
                String
                      .format(
@@ -254,13 +285,14 @@ public class ComputeUtils {
       if (callables.size() > 0 || options.getPrivateKey() != null) {
          runCallablesOnNode(node, callables,
                options.getPrivateKey() != null ? installKeyOnNode(node, options
-                     .getPrivateKey()) : null);
+                     .getPrivateKey()) : null, statistics);
       }
 
       if (options.getPort() > 0) {
          checkNodeHasPublicIps(node);
          blockUntilPortIsListeningOnPublicIp(options.getPort(), options
-               .getSeconds(), Iterables.get(node.getPublicAddresses(), 0));
+               .getSeconds(), Iterables.get(node.getPublicAddresses(), 0),
+               statistics);
       }
       return node;
    }
@@ -271,13 +303,17 @@ public class ComputeUtils {
    }
 
    private void blockUntilPortIsListeningOnPublicIp(int port, int seconds,
-         String inetAddress) {
+         String inetAddress, BootstrapStatistics statistics) {
       logger.debug(">> blocking on port %s:%d for %d seconds", inetAddress,
             port, seconds);
+      // probe with a short, growing period instead of once a second so that
+      // the node is returned as soon as the port opens
       RetryablePredicate<IPSocket> tester = new RetryablePredicate<IPSocket>(
-            socketTester, seconds, 1, TimeUnit.SECONDS);
+            socketTester, seconds * 1000l);
       IPSocket socket = new IPSocket(inetAddress, port);
+      long start = System.nanoTime();
       boolean passed = tester.apply(socket);
+      statistics.recordSince(Stage.PORT_VERIFY, start);
       if (passed)
          logger.debug("<< port %s:%d opened", inetAddress, port);
       else
@@ -308,19 +344,32 @@ public class ComputeUtils {
 
    public Map<SshCallable<?>, ?> runCallablesOnNode(NodeMetadata node,
          Iterable<? extends SshCallable<?>> parallel,
-         @Nullable SshCallable<?> last) {
+         @Nullable SshCallable<?> last, BootstrapStatistics statistics) {
       checkState(this.sshFactory != null,
             "runScript requested, but no SshModule configured");
       checkNodeHasPublicIps(node);
       checkNotNull(node.getCredentials().key, "credentials.key for node "
             + node.getId());
-      SshClient ssh = createSshClientOncePortIsListeningOnNode(node);
+      SshClient ssh = createSshClientOncePortIsListeningOnNode(node, statistics);
+      // all callables for this node share one session; the number of sessions
+      // open across nodes is bounded so large runs don't exhaust sockets
+      sshSessions.acquireUninterruptibly();
       try {
+         long start = System.nanoTime();
          ssh.connect();
-         return runTasksUsingSshClient(parallel, last, ssh);
+         statistics.recordSince(Stage.SSH_SESSION, start);
+         start = System.nanoTime();
+         Map<SshCallable<?>, ?> responses = runTasksUsingSshClient(parallel,
+               last, ssh);
+         statistics.recordSince(Stage.SCRIPTS, start);
+         return responses;
       } finally {
-         if (ssh != null)
-            ssh.disconnect();
+         try {
+            if (ssh != null)
+               ssh.disconnect();
+         } finally {
+            sshSessions.release();
+         }
       }
    }
 
@@ -343,9 +392,21 @@ public class ComputeUtils {
    }
 
    public SshClient createSshClientOncePortIsListeningOnNode(NodeMetadata node) {
+      return createSshClientOncePortIsListeningOnNode(node, bootstrapStatistics);
+   }
+
+   public SshClient createSshClientOncePortIsListeningOnNode(NodeMetadata node,
+         BootstrapStatistics statistics) {
       IPSocket socket = new IPSocket(Iterables
             .get(node.getPublicAddresses(), 0), 22);
-      socketTester.apply(socket);
+      portProbes.acquireUninterruptibly();
+      try {
+         long start = System.nanoTime();
+         socketTester.apply(socket);
+         statistics.recordSince(Stage.PORT_OPEN, start);
+      } finally {
+         portProbes.release();
+      }
       SshClient ssh = isKeyAuth(node) ? sshFactory.create(socket, node
             .getCredentials().account, node.getCredentials().key.getBytes())
             : sshFactory.create(socket, node.getCredentials().account, node
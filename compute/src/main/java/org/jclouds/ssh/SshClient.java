@@ -18,6 +18,7 @@
  */
 package org.jclouds.ssh;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.Map;
 
@@ -37,6 +38,12 @@ public interface SshClient {
       SshClient create(IPSocket socket, String username, byte[] privateKey);
 
       Map<String, String> generateRSAKeyPair(String comment, String passphrase);
+
+      /**
+       * @return counters describing how connections to hosts are shared, such as sessions
+       *         created, reused and evicted
+       */
+      Map<String, Long> getPoolStatistics();
    }
 
    String getUsername();
@@ -47,6 +54,30 @@ public interface SshClient {
 
    InputStream get(String path);
 
+   /**
+    * copies each local file to the remote path it is keyed by, over several sftp channels at once
+    * 
+    * @throws SshException
+    *            listing every file that failed, after all transfers have been attempted
+    */
+   void put(Map<String, File> remotePathToLocalFile, TransferOptions options);
+
+   /**
+    * copies each remote path to the local file it is mapped to, over several sftp channels at once
+    * 
+    * @throws SshException
+    *            listing every file that failed, after all transfers have been attempted
+    */
+   void get(Map<String, File> remotePathToLocalFile, TransferOptions options);
+
+   /**
+    * copies a local directory tree to the remote host, creating remote directories as needed
+    * 
+    * @throws SshException
+    *            listing every file that failed, after all transfers have been attempted
+    */
+   void putDirectory(File localDirectory, String remoteDirectory, TransferOptions options);
+
    ExecResponse exec(String command);
 
    @PostConstruct
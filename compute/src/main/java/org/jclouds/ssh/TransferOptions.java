@@ -0,0 +1,158 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.ssh;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Controls how {@link SshClient} moves many files in one call.
+ * 
+ * @author Adrian Cole
+ */
+public class TransferOptions {
+
+   /**
+    * Default options. The default settings are:
+    * <ul>
+    * <li>transfer over 4 sftp channels at a time</li>
+    * <li>overwrite existing files from the beginning</li>
+    * <li>do not compare checksums after the transfer</li>
+    * </ul>
+    */
+   public static final TransferOptions NONE = new ImmutableTransferOptions(new TransferOptions());
+
+   public static class ImmutableTransferOptions extends TransferOptions {
+      private final TransferOptions delegate;
+
+      public ImmutableTransferOptions(TransferOptions delegate) {
+         this.delegate = delegate;
+      }
+
+      @Override
+      public String toString() {
+         return delegate.toString();
+      }
+
+      @Override
+      public int getConcurrentChannels() {
+         return delegate.getConcurrentChannels();
+      }
+
+      @Override
+      public boolean isResume() {
+         return delegate.isResume();
+      }
+
+      @Override
+      public boolean isVerifyChecksum() {
+         return delegate.isVerifyChecksum();
+      }
+
+      @Override
+      public TransferOptions concurrentChannels(int concurrentChannels) {
+         throw new IllegalArgumentException("concurrentChannels is immutable");
+      }
+
+      @Override
+      public TransferOptions resume(boolean resume) {
+         throw new IllegalArgumentException("resume is immutable");
+      }
+
+      @Override
+      public TransferOptions verifyChecksum(boolean verifyChecksum) {
+         throw new IllegalArgumentException("verifyChecksum is immutable");
+      }
+
+   }
+
+   private int concurrentChannels = 4;
+   private boolean resume;
+   private boolean verifyChecksum;
+
+   public TransferOptions concurrentChannels(int concurrentChannels) {
+      checkArgument(concurrentChannels > 0, "concurrentChannels must be positive");
+      this.concurrentChannels = concurrentChannels;
+      return this;
+   }
+
+   public TransferOptions resume(boolean resume) {
+      this.resume = resume;
+      return this;
+   }
+
+   public TransferOptions verifyChecksum(boolean verifyChecksum) {
+      this.verifyChecksum = verifyChecksum;
+      return this;
+   }
+
+   /**
+    * How many sftp channels to transfer files over at the same time. By default, 4.
+    * 
+    * @return value
+    */
+   public int getConcurrentChannels() {
+      return concurrentChannels;
+   }
+
+   /**
+    * Whether to continue partially transferred files from where they left off, instead of
+    * starting over. By default, false.
+    * 
+    * @return value
+    */
+   public boolean isResume() {
+      return resume;
+   }
+
+   /**
+    * Whether to compare the md5 of each file on both ends once it is transferred. This requires
+    * {@code md5sum} on the remote host. By default, false.
+    * 
+    * @return value
+    */
+   public boolean isVerifyChecksum() {
+      return verifyChecksum;
+   }
+
+   public static class Builder {
+
+      public static TransferOptions concurrentChannels(int concurrentChannels) {
+         TransferOptions options = new TransferOptions();
+         return options.concurrentChannels(concurrentChannels);
+      }
+
+      public static TransferOptions resume(boolean resume) {
+         TransferOptions options = new TransferOptions();
+         return options.resume(resume);
+      }
+
+      public static TransferOptions verifyChecksum(boolean verifyChecksum) {
+         TransferOptions options = new TransferOptions();
+         return options.verifyChecksum(verifyChecksum);
+      }
+
+   }
+
+   @Override
+   public String toString() {
+      return "TransferOptions [concurrentChannels=" + concurrentChannels + ", resume=" + resume
+               + ", verifyChecksum=" + verifyChecksum + "]";
+   }
+
+}
@@ -0,0 +1,87 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.compute.util;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.compute.util.BootstrapStatistics.Stage;
+import org.testng.annotations.Test;
+
+/**
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "compute.BootstrapStatisticsTest")
+public class BootstrapStatisticsTest {
+
+   public void testBucketFor() {
+      assertEquals(BootstrapStatistics.bucketFor(0), 0);
+      assertEquals(BootstrapStatistics.bucketFor(1), 0);
+      assertEquals(BootstrapStatistics.bucketFor(2), 1);
+      assertEquals(BootstrapStatistics.bucketFor(3), 2);
+      assertEquals(BootstrapStatistics.bucketFor(4), 2);
+      assertEquals(BootstrapStatistics.bucketFor(5), 3);
+      assertEquals(BootstrapStatistics.bucketFor(Long.MAX_VALUE),
+               BootstrapStatistics.BUCKETS - 1);
+   }
+
+   public void testPercentiles() {
+      BootstrapStatistics stats = new BootstrapStatistics();
+      for (int i = 0; i < 99; i++)
+         stats.record(Stage.SSH_SESSION, 100, TimeUnit.MILLISECONDS);
+      stats.record(Stage.SSH_SESSION, 5, TimeUnit.SECONDS);
+      assertEquals(stats.getCount(Stage.SSH_SESSION), 100);
+      assertEquals(stats.getCount(Stage.SCRIPTS), 0);
+      assertEquals(stats.getTotalMillis(Stage.SSH_SESSION), 99 * 100 + 5000);
+      assertEquals(stats.getPercentileMillis(Stage.SSH_SESSION, 50), 128);
+      assertEquals(stats.getPercentileMillis(Stage.SSH_SESSION, 99), 128);
+      assertEquals(stats.getPercentileMillis(Stage.SSH_SESSION, 100), 8192);
+      assertEquals(stats.getPercentileMillis(Stage.SCRIPTS, 50), 0);
+   }
+
+   public void testSince() {
+      BootstrapStatistics stats = new BootstrapStatistics();
+      stats.record(Stage.PORT_OPEN, 10, TimeUnit.MILLISECONDS);
+      BootstrapStatistics before = stats.snapshot();
+      stats.record(Stage.PORT_OPEN, 20, TimeUnit.MILLISECONDS);
+      stats.record(Stage.NODE_RUNNING, 30, TimeUnit.MILLISECONDS);
+      BootstrapStatistics delta = stats.since(before);
+      assertEquals(delta.getCount(Stage.PORT_OPEN), 1);
+      assertEquals(delta.getTotalMillis(Stage.PORT_OPEN), 20);
+      assertEquals(delta.getCount(Stage.NODE_RUNNING), 1);
+      assertEquals(before.getCount(Stage.PORT_OPEN), 1);
+   }
+
+   public void testRecordingIntoAChildAlsoRecordsIntoItsParent() {
+      BootstrapStatistics context = new BootstrapStatistics();
+      BootstrapStatistics run1 = new BootstrapStatistics(context);
+      BootstrapStatistics run2 = new BootstrapStatistics(context);
+      run1.record(Stage.PORT_OPEN, 10, TimeUnit.MILLISECONDS);
+      run2.record(Stage.PORT_OPEN, 20, TimeUnit.MILLISECONDS);
+      run2.record(Stage.SCRIPTS, 30, TimeUnit.MILLISECONDS);
+      assertEquals(run1.getCount(Stage.PORT_OPEN), 1);
+      assertEquals(run1.getCount(Stage.SCRIPTS), 0);
+      assertEquals(run2.getTotalMillis(Stage.PORT_OPEN), 20);
+      assertEquals(context.getCount(Stage.PORT_OPEN), 2);
+      assertEquals(context.getTotalMillis(Stage.PORT_OPEN), 30);
+      assertEquals(context.getCount(Stage.SCRIPTS), 1);
+   }
+}
@@ -0,0 +1,63 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.ssh;
+
+import static org.jclouds.ssh.TransferOptions.Builder.concurrentChannels;
+import static org.jclouds.ssh.TransferOptions.Builder.resume;
+import static org.jclouds.ssh.TransferOptions.Builder.verifyChecksum;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests possible uses of TransferOptions and TransferOptions.Builder.*
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "ssh.TransferOptionsTest")
+public class TransferOptionsTest {
+
+   public void testDefaults() {
+      assertEquals(TransferOptions.NONE.getConcurrentChannels(), 4);
+      assertEquals(TransferOptions.NONE.isResume(), false);
+      assertEquals(TransferOptions.NONE.isVerifyChecksum(), false);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testNoneIsImmutable() {
+      TransferOptions.NONE.resume(true);
+   }
+
+   public void testconcurrentChannelsStatic() {
+      assertEquals(concurrentChannels(8).getConcurrentChannels(), 8);
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testconcurrentChannelsMustBePositive() {
+      concurrentChannels(0);
+   }
+
+   public void testresumeStatic() {
+      assertEquals(resume(true).isResume(), true);
+   }
+
+   public void testverifyChecksumStatic() {
+      assertEquals(verifyChecksum(true).isVerifyChecksum(), true);
+   }
+}
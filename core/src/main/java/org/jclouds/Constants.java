@@ -119,6 +119,26 @@ public interface Constants {
     * the maximum tries of a single command is bounded.
     */
    public static final String PROPERTY_MAX_RETRIES = "jclouds.max_retries";
+   /**
+    * Long property. default (50)
+    * <p/>
+    * Shortest delay, in milliseconds, before a failed command is retried.
+    */
+   public static final String PROPERTY_RETRY_DELAY_START = "jclouds.retries_delay_start";
+   /**
+    * Long property. default (30000)
+    * <p/>
+    * Longest delay, in milliseconds, before a failed command is retried. Commands whose server asks
+    * for a longer wait with {@code Retry-After} are not retried.
+    */
+   public static final String PROPERTY_MAX_RETRY_DELAY = "jclouds.max_retry_delay";
+   /**
+    * Float property. default (0.2)
+    * <p/>
+    * Retries to an endpoint may not exceed this fraction of the requests sent to it, beyond a small
+    * reserve.
+    */
+   public static final String PROPERTY_RETRY_BUDGET = "jclouds.retry_budget";
    /**
     * Integer property.
     * <p/>
@@ -138,6 +158,24 @@ public interface Constants {
     * Amazon S3.
     */
    public static final String PROPERTY_RELAX_HOSTNAME = "jclouds.relax_hostname";
+   /**
+    * Integer property. default (8192)
+    * <p/>
+    * How many bytes from the start of each body the wire log records.
+    */
+   public static final String PROPERTY_WIRE_LOG_HEAD_BYTES = "jclouds.wire_log_head_bytes";
+   /**
+    * Integer property. default (1024)
+    * <p/>
+    * How many bytes from the end of each body the wire log records, after those at the start.
+    */
+   public static final String PROPERTY_WIRE_LOG_TAIL_BYTES = "jclouds.wire_log_tail_bytes";
+   /**
+    * Float property. default (1.0)
+    * <p/>
+    * Share of requests whose bodies are recorded when the wire log is enabled.
+    */
+   public static final String PROPERTY_WIRE_LOG_SAMPLE_RATE = "jclouds.wire_log_sample_rate";
    /**
     * Name of the logger that records all http headers from the client and the server.
     */
@@ -18,6 +18,9 @@
  */
 package org.jclouds.concurrent;
 
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.CancellationException;
@@ -37,7 +40,9 @@ import javax.inject.Singleton;
 import org.jclouds.logging.Logger;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.ExecutionList;
 import com.google.common.util.concurrent.ForwardingFuture;
@@ -115,6 +120,81 @@ public class ConcurrentUtils {
       return maxTime != null ? System.currentTimeMillis() < start + maxTime : false;
    }
 
+   /**
+    * Returns a future holding the values of all {@code futures}, in order, once they have all
+    * completed. If any of them fails or is cancelled, the returned future fails with the same
+    * cause as soon as that happens.
+    * <p/>
+    * No thread waits on the inputs; completion is driven by their listeners.
+    */
+   public static <T> ListenableFuture<List<T>> allAsList(
+            Iterable<? extends ListenableFuture<? extends T>> futures, ExecutorService executor) {
+      final List<? extends ListenableFuture<? extends T>> inputs = ImmutableList.copyOf(futures);
+      final SettableListenableFuture<List<T>> result = new SettableListenableFuture<List<T>>();
+      if (inputs.size() == 0) {
+         result.set(ImmutableList.<T> of());
+         return result;
+      }
+      final AtomicInteger remaining = new AtomicInteger(inputs.size());
+      for (final ListenableFuture<? extends T> input : inputs) {
+         input.addListener(new Runnable() {
+            public void run() {
+               try {
+                  input.get();
+               } catch (ExecutionException e) {
+                  result.setException(e.getCause());
+                  return;
+               } catch (Exception e) {
+                  result.setException(e);
+                  return;
+               }
+               if (remaining.decrementAndGet() == 0) {
+                  List<T> values = Lists.newArrayListWithCapacity(inputs.size());
+                  try {
+                     for (ListenableFuture<? extends T> future : inputs)
+                        values.add(future.get());
+                     result.set(values);
+                  } catch (Exception e) {
+                     result.setException(e);
+                  }
+               }
+            }
+         }, executor);
+      }
+      return result;
+   }
+
+   /**
+    * Completes {@code to} with the outcome of {@code from}, once it has one.
+    */
+   public static <T> void forward(final ListenableFuture<? extends T> from,
+            final SettableListenableFuture<? super T> to) {
+      from.addListener(new Runnable() {
+         public void run() {
+            try {
+               to.set(from.get());
+            } catch (ExecutionException e) {
+               to.setException(e.getCause());
+            } catch (CancellationException e) {
+               to.cancel(false);
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+               to.setException(e);
+            }
+         }
+      }, sameThreadExecutor());
+   }
+
+   /**
+    * Returns a future completing as {@code source} does, but which can be cancelled without
+    * cancelling {@code source}. Use this to hand one result to several callers.
+    */
+   public static <T> ListenableFuture<T> follow(ListenableFuture<? extends T> source) {
+      SettableListenableFuture<T> follower = new SettableListenableFuture<T>();
+      forward(source, follower);
+      return follower;
+   }
+
    /**
     * Converts an exception into an object, which is useful for transforming to null or false.
     */
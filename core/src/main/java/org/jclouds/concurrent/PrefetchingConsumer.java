@@ -0,0 +1,371 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.concurrent;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+
+import org.jclouds.logging.Logger;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Keeps a fixed number of fetches in flight against one message queue and hands each message to a
+ * worker. Queue services plug in how messages are fetched and deleted.
+ * <p/>
+ * The handler returns true once a message is processed; those messages are deleted together when
+ * the rest of their fetch is done. Messages the handler rejects, or throws on, are left to
+ * reappear after their visibility timeout.
+ * <p/>
+ * Unless fetches wait for messages to arrive, an empty queue answers immediately. Each empty answer
+ * then doubles the wait before the next fetch, up to {@link #MAX_IDLE_DELAY_MILLIS}. The first
+ * message resets it.
+ * <p/>
+ * When the workers fall behind, fetches pause until the backlog drops below twice what the fetches
+ * in flight can return, so memory stays bounded.
+ * 
+ * @author Adrian Cole
+ */
+public class PrefetchingConsumer<M> implements Closeable {
+   public static final long RETRY_DELAY_MILLIS = 1000;
+   public static final long MIN_IDLE_DELAY_MILLIS = 100;
+   public static final long MAX_IDLE_DELAY_MILLIS = 10000;
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   private final String source;
+   private final Supplier<? extends ListenableFuture<? extends Collection<M>>> fetch;
+   private final Function<List<M>, ? extends ListenableFuture<Integer>> delete;
+   private final Predicate<? super M> handler;
+   private final Executor workers;
+   private final ScheduledExecutorService scheduler;
+   private final int fetchesInFlight;
+   private final int maxOutstanding;
+   private final boolean fetchWaits;
+
+   private final AtomicBoolean started = new AtomicBoolean();
+   private volatile boolean closed;
+   private final AtomicInteger outstanding = new AtomicInteger();
+   private final AtomicInteger paused = new AtomicInteger();
+   private final AtomicLong idleDelay = new AtomicLong(MIN_IDLE_DELAY_MILLIS);
+
+   private final AtomicLong received = new AtomicLong();
+   private final AtomicLong processed = new AtomicLong();
+   private final AtomicLong rejected = new AtomicLong();
+   private final AtomicLong deleted = new AtomicLong();
+   private final AtomicLong fetchErrors = new AtomicLong();
+   private final AtomicLong deleteErrors = new AtomicLong();
+
+   /**
+    * @param source
+    *           names the queue in log messages
+    * @param fetch
+    *           starts a fetch of up to {@code perFetch} messages
+    * @param delete
+    *           deletes accepted messages, returning how many were deleted
+    * @param scheduler
+    *           delays fetches after errors and empty answers; it is not shut down on close
+    * @param fetchWaits
+    *           true if a fetch waits for messages to arrive, so an empty answer is not a reason
+    *           to back off
+    */
+   public PrefetchingConsumer(String source,
+            Supplier<? extends ListenableFuture<? extends Collection<M>>> fetch,
+            Function<List<M>, ? extends ListenableFuture<Integer>> delete,
+            Predicate<? super M> handler, Executor workers, ScheduledExecutorService scheduler,
+            int fetchesInFlight, int perFetch, boolean fetchWaits) {
+      checkArgument(fetchesInFlight > 0, "fetchesInFlight must be positive");
+      checkArgument(perFetch > 0, "perFetch must be positive");
+      this.source = checkNotNull(source, "source");
+      this.fetch = checkNotNull(fetch, "fetch");
+      this.delete = checkNotNull(delete, "delete");
+      this.handler = checkNotNull(handler, "handler");
+      this.workers = checkNotNull(workers, "workers");
+      this.scheduler = checkNotNull(scheduler, "scheduler");
+      this.fetchesInFlight = fetchesInFlight;
+      this.maxOutstanding = 2 * fetchesInFlight * perFetch;
+      this.fetchWaits = fetchWaits;
+   }
+
+   public PrefetchingConsumer<M> start() {
+      checkState(started.compareAndSet(false, true), "already started");
+      for (int i = 0; i < fetchesInFlight; i++)
+         fetch();
+      return this;
+   }
+
+   /**
+    * Stops issuing fetches. Fetches already in flight still deliver their messages.
+    */
+   @Override
+   public void close() {
+      closed = true;
+   }
+
+   /**
+    * messages handed out by fetches
+    */
+   public long getReceivedCount() {
+      return received.get();
+   }
+
+   /**
+    * messages the handler accepted
+    */
+   public long getProcessedCount() {
+      return processed.get();
+   }
+
+   /**
+    * messages the handler rejected or threw on, or that no worker would take
+    */
+   public long getRejectedCount() {
+      return rejected.get();
+   }
+
+   public long getDeletedCount() {
+      return deleted.get();
+   }
+
+   /**
+    * fetches that failed, or whose messages could not be handed to the workers
+    */
+   public long getFetchErrorCount() {
+      return fetchErrors.get();
+   }
+
+   /**
+    * accepted messages which could not be deleted, usually as their visibility timeout passed
+    * before the handler finished
+    */
+   public long getDeleteErrorCount() {
+      return deleteErrors.get();
+   }
+
+   /**
+    * messages received, but not yet handled
+    */
+   public int getOutstanding() {
+      return outstanding.get();
+   }
+
+   /**
+    * how long the next fetch after an empty answer waits
+    */
+   public long getIdleDelayMillis() {
+      return idleDelay.get();
+   }
+
+   private void fetch() {
+      if (closed)
+         return;
+      if (outstanding.get() >= maxOutstanding) {
+         paused.incrementAndGet();
+         // a worker may have drained the backlog before it could see this fetch paused
+         if (outstanding.get() < maxOutstanding)
+            resumePaused();
+         return;
+      }
+      final ListenableFuture<? extends Collection<M>> response;
+      try {
+         response = fetch.get();
+      } catch (RuntimeException e) {
+         retryLater(e);
+         return;
+      }
+      response.addListener(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               Collection<M> messages = response.get();
+               if (messages.size() > 0) {
+                  idleDelay.set(MIN_IDLE_DELAY_MILLIS);
+                  dispatch(messages);
+                  fetch();
+               } else if (fetchWaits) {
+                  fetch();
+               } else {
+                  fetchLater(nextIdleDelay());
+               }
+            } catch (ExecutionException e) {
+               retryLater(e.getCause());
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+               retryLater(e);
+            }
+         }
+      }, sameThreadExecutor());
+   }
+
+   private long nextIdleDelay() {
+      long current;
+      do {
+         current = idleDelay.get();
+      } while (!idleDelay.compareAndSet(current, Math.min(current * 2, MAX_IDLE_DELAY_MILLIS)));
+      return current;
+   }
+
+   private void retryLater(Throwable cause) {
+      fetchErrors.incrementAndGet();
+      if (closed)
+         return;
+      logger.warn(cause, "error fetching messages from %s; retrying in %dms", source,
+               RETRY_DELAY_MILLIS);
+      fetchLater(RETRY_DELAY_MILLIS);
+   }
+
+   private void fetchLater(long delayMillis) {
+      if (closed)
+         return;
+      try {
+         scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+               fetch();
+            }
+         }, delayMillis, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+         logger.warn(e, "could not schedule the next fetch from %s; stopping", source);
+      }
+   }
+
+   private void resumePaused() {
+      int current;
+      while ((current = paused.get()) > 0 && outstanding.get() < maxOutstanding) {
+         if (paused.compareAndSet(current, current - 1))
+            fetch();
+      }
+   }
+
+   private void dispatch(Collection<M> messages) {
+      received.addAndGet(messages.size());
+      outstanding.addAndGet(messages.size());
+      final Fetched fetched = new Fetched(messages.size());
+      for (Iterator<M> it = messages.iterator(); it.hasNext();) {
+         final M message = it.next();
+         try {
+            workers.execute(new Runnable() {
+               @Override
+               public void run() {
+                  boolean accepted = false;
+                  try {
+                     accepted = handler.apply(message);
+                  } catch (RuntimeException e) {
+                     logger.warn(e, "error handling a message from %s", source);
+                  }
+                  handled(fetched, message, accepted);
+               }
+            });
+         } catch (RuntimeException e) {
+            // the rest reappear after their visibility timeout
+            handled(fetched, message, false);
+            while (it.hasNext())
+               handled(fetched, it.next(), false);
+            throw e;
+         }
+      }
+   }
+
+   private void handled(Fetched fetched, M message, boolean accepted) {
+      (accepted ? processed : rejected).incrementAndGet();
+      fetched.done(message, accepted);
+      outstanding.decrementAndGet();
+      resumePaused();
+   }
+
+   private void delete(final List<M> accepted) {
+      final ListenableFuture<Integer> response;
+      try {
+         response = delete.apply(accepted);
+      } catch (RuntimeException e) {
+         deleteFailed(accepted.size(), e);
+         return;
+      }
+      response.addListener(new Runnable() {
+         @Override
+         public void run() {
+            try {
+               int count = response.get();
+               deleted.addAndGet(count);
+               if (count < accepted.size())
+                  deleteFailed(accepted.size() - count, null);
+            } catch (ExecutionException e) {
+               deleteFailed(accepted.size(), e.getCause());
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      }, sameThreadExecutor());
+   }
+
+   private void deleteFailed(int count, Throwable cause) {
+      deleteErrors.addAndGet(count);
+      if (cause != null)
+         logger.warn(cause, "error deleting %d messages from %s", count, source);
+      else
+         logger.warn("could not delete %d messages from %s", count, source);
+   }
+
+   /**
+    * collects the accepted messages of one fetch, so that they can be deleted together
+    */
+   private class Fetched {
+      private int remaining;
+      private final List<M> accepted = Lists.newArrayList();
+
+      Fetched(int size) {
+         this.remaining = size;
+      }
+
+      void done(M message, boolean wasAccepted) {
+         List<M> toDelete = null;
+         synchronized (this) {
+            if (wasAccepted)
+               accepted.add(message);
+            if (--remaining == 0 && accepted.size() > 0)
+               toDelete = accepted;
+         }
+         if (toDelete != null)
+            delete(toDelete);
+      }
+   }
+}
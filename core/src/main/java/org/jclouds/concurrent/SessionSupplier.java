@@ -0,0 +1,219 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.concurrent;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Caches a session, such as an authentication token, obtained from a login {@link Supplier}.
+ * <p/>
+ * Unlike {@link ExpirableSupplier}, only one login is ever in flight: threads that need a new
+ * session while a login is running wait for that login instead of starting their own. Once a
+ * session is older than the refresh point, the next caller starts a login on the executor and
+ * keeps using the current session until it completes. Callers only block when there is no
+ * session, or it has expired or been {@link #invalidate invalidated}.
+ * 
+ * @author Adrian Cole
+ */
+public class SessionSupplier<V> implements Supplier<V> {
+
+   private static class Session<V> {
+      private final V value;
+      private final long refreshAt;
+      private final long expiresAt;
+
+      private Session(V value, long refreshAt, long expiresAt) {
+         this.value = value;
+         this.refreshAt = refreshAt;
+         this.expiresAt = expiresAt;
+      }
+   }
+
+   private final Supplier<V> login;
+   private final long expirationNanos;
+   private final long refreshNanos;
+   private final ExecutorService executor;
+
+   private final AtomicReference<Session<V>> session = new AtomicReference<Session<V>>();
+   private final AtomicReference<SettableListenableFuture<V>> inFlight = new AtomicReference<SettableListenableFuture<V>>();
+
+   private final AtomicLong logins = new AtomicLong();
+   private final AtomicLong backgroundLogins = new AtomicLong();
+   private final AtomicLong failedLogins = new AtomicLong();
+   private final AtomicLong invalidations = new AtomicLong();
+   private final AtomicLong totalLoginNanos = new AtomicLong();
+   private final AtomicLong lastLoginNanos = new AtomicLong();
+
+   /**
+    * refreshes sessions in the background once 90% of their lifetime has passed
+    */
+   public SessionSupplier(Supplier<V> login, long duration, TimeUnit unit,
+            ExecutorService executor) {
+      this(login, duration, duration - duration / 10, unit, executor);
+   }
+
+   /**
+    * @param login
+    *           obtains a new session
+    * @param duration
+    *           how long a session is valid
+    * @param refreshAfter
+    *           age at which a session is refreshed in the background
+    * @param executor
+    *           runs background refreshes
+    */
+   public SessionSupplier(Supplier<V> login, long duration, long refreshAfter, TimeUnit unit,
+            ExecutorService executor) {
+      checkArgument(refreshAfter <= duration, "refreshAfter must not exceed duration");
+      this.login = checkNotNull(login, "login");
+      this.expirationNanos = unit.toNanos(duration);
+      this.refreshNanos = unit.toNanos(refreshAfter);
+      this.executor = checkNotNull(executor, "executor");
+   }
+
+   public V get() {
+      Session<V> current = session.get();
+      long now = System.nanoTime();
+      if (current == null || current.expiresAt - now <= 0)
+         return awaitLogin();
+      if (current.refreshAt - now <= 0)
+         refreshInBackground();
+      return current.value;
+   }
+
+   /**
+    * Discards the current session, if it is still the one {@code rejected} describes. Sessions
+    * that replaced it in the meantime are kept, so that many requests failing with the same stale
+    * session cause only one login.
+    * 
+    * @return true if the session was discarded
+    */
+   public boolean invalidateIf(Predicate<? super V> rejected) {
+      Session<V> current = session.get();
+      if (current != null && rejected.apply(current.value)
+               && session.compareAndSet(current, null)) {
+         invalidations.incrementAndGet();
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Discards the current session unconditionally.
+    */
+   public void invalidate() {
+      if (session.getAndSet(null) != null)
+         invalidations.incrementAndGet();
+   }
+
+   /**
+    * @return counters describing logins performed so far. Times are in milliseconds.
+    */
+   public Map<String, Long> getStatistics() {
+      long count = logins.get();
+      return ImmutableMap.<String, Long> builder().put("logins", count).put(
+               "logins.background", backgroundLogins.get()).put("logins.failed",
+               failedLogins.get()).put("invalidations", invalidations.get()).put(
+               "login.last.ms", TimeUnit.NANOSECONDS.toMillis(lastLoginNanos.get())).put(
+               "login.mean.ms",
+               count == 0 ? 0l : TimeUnit.NANOSECONDS.toMillis(totalLoginNanos.get() / count))
+               .build();
+   }
+
+   private void refreshInBackground() {
+      final SettableListenableFuture<V> future = new SettableListenableFuture<V>();
+      if (!inFlight.compareAndSet(null, future))
+         return;
+      backgroundLogins.incrementAndGet();
+      try {
+         executor.execute(new Runnable() {
+            public void run() {
+               login(future);
+            }
+         });
+      } catch (RuntimeException e) {
+         // rejected; the next caller will try again
+         inFlight.compareAndSet(future, null);
+         future.setException(e);
+      }
+   }
+
+   private V awaitLogin() {
+      SettableListenableFuture<V> future = inFlight.get();
+      if (future == null) {
+         SettableListenableFuture<V> mine = new SettableListenableFuture<V>();
+         if (inFlight.compareAndSet(null, mine)) {
+            login(mine);
+            future = mine;
+         } else {
+            future = inFlight.get();
+            if (future == null) // completed between our checks
+               return get();
+         }
+      }
+      try {
+         return future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(e);
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      }
+   }
+
+   private void login(SettableListenableFuture<V> future) {
+      long start = System.nanoTime();
+      try {
+         V value = checkNotNull(login.get(), "login returned null");
+         long now = System.nanoTime();
+         session.set(new Session<V>(value, now + refreshNanos, now + expirationNanos));
+         record(now - start);
+         inFlight.compareAndSet(future, null);
+         future.set(value);
+      } catch (RuntimeException e) {
+         failedLogins.incrementAndGet();
+         record(System.nanoTime() - start);
+         inFlight.compareAndSet(future, null);
+         future.setException(e);
+      } catch (Error e) {
+         inFlight.compareAndSet(future, null);
+         future.setException(e);
+         throw e;
+      }
+   }
+
+   private void record(long nanos) {
+      logins.incrementAndGet();
+      lastLoginNanos.set(nanos);
+      totalLoginNanos.addAndGet(nanos);
+   }
+}
@@ -0,0 +1,67 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.concurrent;
+
+import java.util.concurrent.Executor;
+
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.ExecutionList;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * A {@link ListenableFuture} completed by calling {@link #set} or {@link #setException}, for use
+ * when the result arrives through a callback instead of from a thread blocked on it.
+ * <p/>
+ * Listeners run once, on the executor they were added with, as soon as the future completes.
+ * 
+ * @author Adrian Cole
+ */
+public class SettableListenableFuture<T> extends AbstractFuture<T> implements ListenableFuture<T> {
+
+   private final ExecutionList executionList = new ExecutionList();
+
+   @Override
+   public boolean set(T value) {
+      boolean result = super.set(value);
+      if (result)
+         executionList.run();
+      return result;
+   }
+
+   @Override
+   public boolean setException(Throwable throwable) {
+      boolean result = super.setException(throwable);
+      if (result)
+         executionList.run();
+      return result;
+   }
+
+   @Override
+   public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean result = super.cancel(mayInterruptIfRunning);
+      if (result)
+         executionList.run();
+      return result;
+   }
+
+   @Override
+   public void addListener(Runnable listener, Executor exec) {
+      executionList.add(listener, exec);
+   }
+}
@@ -0,0 +1,58 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.concurrent.config;
+
+import static org.jclouds.concurrent.config.ExecutorServiceModule.shutdownOnClose;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.inject.Singleton;
+
+import org.jclouds.lifecycle.Closer;
+
+import com.google.common.util.concurrent.NamingThreadFactory;
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+
+/**
+ * Configures the {@link ScheduledExecutorService} that wakes commands waiting to be retried.
+ * <p/>
+ * This starts a thread of its own, so it is only installed when the context is not
+ * {@link org.jclouds.concurrent.SingleThreaded single threaded}.
+ * 
+ * @author Adrian Cole
+ */
+public class ScheduledExecutorServiceModule extends AbstractModule {
+
+   @Override
+   protected void configure() {
+   }
+
+   /**
+    * The attempts themselves run on the i/o threads, so one thread is enough.
+    */
+   @Provides
+   @Singleton
+   ScheduledExecutorService provideScheduledExecutor(Closer closer) {
+      return shutdownOnClose(Executors.newScheduledThreadPool(1, new NamingThreadFactory(
+               "scheduler thread %d")), closer);
+   }
+
+}
@@ -21,11 +21,11 @@ package org.jclouds.concurrent.internal;
 import static com.google.common.base.Preconditions.checkState;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -38,12 +38,14 @@ import org.jclouds.internal.ClassMethodArgs;
 import org.jclouds.rest.annotations.Delegate;
 
 import com.google.common.base.Throwables;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * Generates RESTful clients from appropriately annotated interfaces.
+ * <p/>
+ * How each method of the interface is answered is worked out once, when the proxy is created, so
+ * that a call costs a single lookup in {@link #invokers}.
  * 
  * @author Adrian Cole
  */
@@ -58,12 +60,9 @@ public class SyncProxy implements InvocationHandler {
 
    private final Object delegate;
    private final Class<?> declaring;
-   private final Map<Method, Method> methodMap;
-   private final Map<Method, Method> syncMethodMap;
-   private final Map<Method, Long> timeoutMap;
+   private final Map<Method, Invoker> invokers;
    private final ConcurrentMap<ClassMethodArgs, Object> delegateMap;
    private final Map<Class<?>, Class<?>> sync2Async;
-   private static final Set<Method> objectMethods = ImmutableSet.of(Object.class.getMethods());
 
    @Inject
    public SyncProxy(Class<?> declaring, Object async,
@@ -80,31 +79,43 @@ public class SyncProxy implements InvocationHandler {
       Timeout typeTimeout = declaring.getAnnotation(Timeout.class);
       long typeNanos = convertToNanos(typeTimeout);
 
-      methodMap = Maps.newHashMap();
-      syncMethodMap = Maps.newHashMap();
-      timeoutMap = Maps.newHashMap();
+      ImmutableMap.Builder<Method, Invoker> invokers = ImmutableMap.builder();
+      invokers.put(Object.class.getMethod("equals", Object.class), new Invoker() {
+         public Object invoke(Object o, Object[] args) {
+            return SyncProxy.this.equals(o);
+         }
+      });
+      invokers.put(Object.class.getMethod("hashCode"), new Invoker() {
+         public Object invoke(Object o, Object[] args) {
+            return SyncProxy.this.hashCode();
+         }
+      });
+      invokers.put(Object.class.getMethod("toString"), new Invoker() {
+         public Object invoke(Object o, Object[] args) {
+            return SyncProxy.this.toString();
+         }
+      });
       for (Method method : declaring.getMethods()) {
-         if (!objectMethods.contains(method)) {
-            Method delegatedMethod = delegate.getClass().getMethod(method.getName(),
-                     method.getParameterTypes());
-            if (!Arrays.equals(delegatedMethod.getExceptionTypes(), method.getExceptionTypes()))
-               throw new IllegalArgumentException(String.format(
-                        "method %s has different typed exceptions than delegated method %s",
-                        method, delegatedMethod));
-            if (delegatedMethod.getReturnType().isAssignableFrom(ListenableFuture.class)) {
-               if (method.isAnnotationPresent(Timeout.class)) {
-                  Timeout methodTimeout = method.getAnnotation(Timeout.class);
-                  long methodNanos = convertToNanos(methodTimeout);
-                  timeoutMap.put(method, methodNanos);
-               } else {
-                  timeoutMap.put(method, typeNanos);
-               }
-               methodMap.put(method, delegatedMethod);
-            } else {
-               syncMethodMap.put(method, delegatedMethod);
-            }
+         if (method.getDeclaringClass() == Object.class)
+            continue;
+         Method delegatedMethod = delegate.getClass().getMethod(method.getName(),
+                  method.getParameterTypes());
+         if (!Arrays.equals(delegatedMethod.getExceptionTypes(), method.getExceptionTypes()))
+            throw new IllegalArgumentException(String.format(
+                     "method %s has different typed exceptions than delegated method %s", method,
+                     delegatedMethod));
+         if (method.isAnnotationPresent(Delegate.class)) {
+            invokers.put(method, new DelegateInvoker(method));
+         } else if (delegatedMethod.getReturnType().isAssignableFrom(ListenableFuture.class)) {
+            long nanos = method.isAnnotationPresent(Timeout.class) ? convertToNanos(method
+                     .getAnnotation(Timeout.class)) : typeNanos;
+            invokers.put(method, new FutureInvoker(asyncInvoker(delegatedMethod), nanos, method
+                     .getExceptionTypes()));
+         } else {
+            invokers.put(method, asyncInvoker(delegatedMethod));
          }
       }
+      this.invokers = invokers.build();
    }
 
    static long convertToNanos(Timeout timeout) {
@@ -113,32 +124,99 @@ public class SyncProxy implements InvocationHandler {
    }
 
    public Object invoke(Object o, Method method, Object[] args) throws Throwable {
-      if (method.getName().equals("equals")) {
-         return this.equals(o);
-      } else if (method.getName().equals("hashCode")) {
-         return this.hashCode();
-      } else if (method.getName().equals("toString")) {
-         return this.toString();
-      } else if (method.isAnnotationPresent(Delegate.class)) {
-         Class<?> asyncClass = sync2Async.get(method.getReturnType());
-         checkState(asyncClass != null, "please configure corresponding async class for "
-                  + method.getReturnType() + " in your RestClientModule");
-         Object returnVal =  delegateMap.get(new ClassMethodArgs(asyncClass, method, args));
-         return returnVal;
-      } else if (syncMethodMap.containsKey(method)) {
-         return syncMethodMap.get(method).invoke(delegate, args);
-      } else {
+      Invoker invoker = invokers.get(method);
+      checkState(invoker != null, "method %s is not part of %s", method, declaring);
+      return invoker.invoke(o, args);
+   }
+
+   /**
+    * answers one method of the proxied interface
+    */
+   static interface Invoker {
+      Object invoke(Object o, Object[] args) throws Throwable;
+   }
+
+   /**
+    * calls {@code delegatedMethod} on the async client. When that client is itself a proxy, its
+    * handler is called directly, rather than reflectively through the generated proxy class.
+    */
+   private Invoker asyncInvoker(final Method delegatedMethod) {
+      if (Proxy.isProxyClass(delegate.getClass())) {
+         final InvocationHandler handler = Proxy.getInvocationHandler(delegate);
+         final Method interfaceMethod = interfaceMethodOrNull(delegate.getClass(), delegatedMethod);
+         if (interfaceMethod != null)
+            return new Invoker() {
+               public Object invoke(Object o, Object[] args) throws Throwable {
+                  return handler.invoke(delegate, interfaceMethod, args);
+               }
+            };
+      }
+      return new Invoker() {
+         public Object invoke(Object o, Object[] args) throws Throwable {
+            try {
+               return delegatedMethod.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+               throw e.getCause();
+            }
+         }
+      };
+   }
+
+   private static Method interfaceMethodOrNull(Class<?> proxyClass, Method method) {
+      for (Class<?> type : proxyClass.getInterfaces()) {
+         try {
+            return type.getMethod(method.getName(), method.getParameterTypes());
+         } catch (NoSuchMethodException e) {
+            continue;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * waits for the future returned by the async client, up to the method's {@link Timeout}
+    */
+   private static class FutureInvoker implements Invoker {
+      private final Invoker async;
+      private final long nanos;
+      private final Class<?>[] exceptionTypes;
+
+      FutureInvoker(Invoker async, long nanos, Class<?>[] exceptionTypes) {
+         this.async = async;
+         this.nanos = nanos;
+         this.exceptionTypes = exceptionTypes;
+      }
+
+      public Object invoke(Object o, Object[] args) throws Throwable {
          try {
-            return ((ListenableFuture<?>) methodMap.get(method).invoke(delegate, args)).get(
-                     timeoutMap.get(method), TimeUnit.NANOSECONDS);
+            return ((ListenableFuture<?>) async.invoke(o, args)).get(nanos, TimeUnit.NANOSECONDS);
          } catch (ExecutionException e) {
-            throw typedExceptionOrPropagate(method.getExceptionTypes(), e.getCause());
+            throw typedExceptionOrPropagate(exceptionTypes, e.getCause());
          } catch (Exception e) {
-            throw typedExceptionOrPropagate(method.getExceptionTypes(), e);
+            throw typedExceptionOrPropagate(exceptionTypes, e);
          }
       }
    }
 
+   /**
+    * returns the sync client for a {@link Delegate} method
+    */
+   private class DelegateInvoker implements Invoker {
+      private final Method method;
+      private final Class<?> asyncClass;
+
+      DelegateInvoker(Method method) {
+         this.method = method;
+         this.asyncClass = sync2Async.get(method.getReturnType());
+      }
+
+      public Object invoke(Object o, Object[] args) {
+         checkState(asyncClass != null, "please configure corresponding async class for "
+                  + method.getReturnType() + " in your RestClientModule");
+         return delegateMap.get(new ClassMethodArgs(asyncClass, method, args));
+      }
+   }
+
    public static Throwable typedExceptionOrPropagate(Class<?>[] exceptionTypes, Throwable throwable) {
       for (Class<?> type : exceptionTypes) {
          if (type.isInstance(throwable)) {
@@ -168,4 +246,4 @@ public class SyncProxy implements InvocationHandler {
    public String toString() {
       return "Sync Proxy for: " + delegate.toString();
    }
-}
\ No newline at end of file
+}
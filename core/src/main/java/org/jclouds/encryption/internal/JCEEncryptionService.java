@@ -160,18 +160,45 @@ public class JCEEncryptionService extends BaseEncryptionService {
       }
    }
 
+   /**
+    * {@link MessageDigest#getInstance} and {@link Cipher#getInstance} search the installed
+    * providers each call, so hot signing paths keep one instance per thread.
+    */
+   private static final ThreadLocal<MessageDigest> SHA1 = new ThreadLocal<MessageDigest>() {
+      @Override
+      protected MessageDigest initialValue() {
+         try {
+            return MessageDigest.getInstance("SHA1");
+         } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not find the SHA1 algorithm", e);
+         }
+      }
+   };
+
+   private static final ThreadLocal<Cipher> RSA = new ThreadLocal<Cipher>() {
+      @Override
+      protected Cipher initialValue() {
+         try {
+            return Cipher.getInstance("RSA");
+         } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not find the RSA algorithm", e);
+         } catch (NoSuchPaddingException e) {
+            throw new RuntimeException("Could not find the RSA algorithm", e);
+         }
+      }
+   };
+
    @Override
    public String sha1Base64(InputStream plainBytes) throws NoSuchAlgorithmException,
             NoSuchProviderException, InvalidKeyException {
-      MessageDigest sha1 = MessageDigest.getInstance("SHA1");
-      byte[] buffer = new byte[1024];
-      long length = 0;
+      MessageDigest sha1 = SHA1.get();
+      sha1.reset();
+      byte[] buffer = new byte[8192];
       int numRead = -1;
       try {
          do {
             numRead = plainBytes.read(buffer);
             if (numRead > 0) {
-               length += numRead;
                sha1.update(buffer, 0, numRead);
             }
          } while (numRead != -1);
@@ -188,7 +215,7 @@ public class JCEEncryptionService extends BaseEncryptionService {
    public byte[] rsaPrivateEncrypt(String toSign, Key key) throws NoSuchAlgorithmException,
             NoSuchPaddingException, InvalidKeyException, IllegalBlockSizeException,
             BadPaddingException {
-      Cipher cipher = Cipher.getInstance("RSA");
+      Cipher cipher = RSA.get();
       cipher.init(Cipher.ENCRYPT_MODE, key);
       return cipher.doFinal(toSign.getBytes());
    }
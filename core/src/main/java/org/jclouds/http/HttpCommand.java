@@ -18,6 +18,8 @@
  */
 package org.jclouds.http;
 
+import org.jclouds.instrumentation.Invocation;
+
 /**
  * Command whose endpoint is an http service.
  * 
@@ -76,6 +78,31 @@ public interface HttpCommand {
     */
    int getFailureCount();
 
+   /**
+    * Asks the executor to wait before sending this command again. Retry handlers call this instead
+    * of sleeping, so that no thread is held while the command waits.
+    */
+   void setRetryDelayMillis(long delay);
+
+   /**
+    * How long the executor should wait before the next attempt. The executor resets it to zero
+    * once the attempt is scheduled.
+    * 
+    * @see #setRetryDelayMillis
+    */
+   long getRetryDelayMillis();
+
+   /**
+    * Receives the events of this command as it moves through the executor.
+    * {@link Invocation#NONE} unless instrumentation is bound.
+    */
+   Invocation getInvocation();
+
+   /**
+    * @see #getInvocation
+    */
+   void setInvocation(Invocation invocation);
+
    /**
     * The request associated with this command.
     */
@@ -37,9 +37,11 @@ import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.regex.Matcher;
 
 import javax.inject.Named;
+import javax.ws.rs.core.HttpHeaders;
 
 import org.jclouds.Constants;
 import org.jclouds.logging.Logger;
@@ -48,6 +50,7 @@ import org.jclouds.util.Utils;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.SortedSetMultimap;
@@ -293,12 +296,24 @@ public class HttpUtils {
       }
    }
 
+   /**
+    * headers whose values are credentials, and so are never logged.
+    */
+   static final Set<String> REDACTED_HEADERS = ImmutableSortedSet.orderedBy(
+            String.CASE_INSENSITIVE_ORDER).add(HttpHeaders.AUTHORIZATION, "X-Auth-Token",
+            "X-Auth-Key").build();
+
+   static String redact(String header, String value) {
+      return REDACTED_HEADERS.contains(header) ? "<redacted>" : value;
+   }
+
    public static void logRequest(Logger logger, HttpRequest request, String prefix) {
       if (logger.isDebugEnabled()) {
          logger.debug("%s %s", prefix, request.getRequestLine().toString());
          for (Entry<String, String> header : request.getHeaders().entries()) {
             if (header.getKey() != null)
-               logger.debug("%s %s: %s", prefix, header.getKey(), header.getValue());
+               logger.debug("%s %s: %s", prefix, header.getKey(), redact(header.getKey(), header
+                        .getValue()));
          }
       }
    }
@@ -307,7 +322,9 @@ public class HttpUtils {
       if (logger.isDebugEnabled()) {
          logger.debug("%s %s", prefix, response.getStatusLine().toString());
          for (Entry<String, String> header : response.getHeaders().entries()) {
-            logger.debug("%s %s: %s", prefix, header.getKey(), header.getValue());
+            if (header.getKey() != null)
+               logger.debug("%s %s: %s", prefix, header.getKey(), redact(header.getKey(), header
+                        .getValue()));
          }
       }
    }
@@ -21,8 +21,12 @@ package org.jclouds.http;
 import static com.google.common.util.concurrent.Futures.compose;
 import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
 
+import java.util.concurrent.ExecutionException;
+
 import javax.inject.Inject;
 
+import org.jclouds.instrumentation.Invocation;
+
 import com.google.common.base.Function;
 import com.google.common.util.concurrent.ListenableFuture;
 
@@ -44,9 +48,32 @@ public class TransformingHttpCommandExecutorServiceImpl implements
    /**
     * {@inheritDoc}
     */
-   public <T> ListenableFuture<T> submit(HttpCommand command,
-            Function<HttpResponse, T> responseTransformer) {
-      return compose(client.submit(command), responseTransformer, sameThreadExecutor());
+   public <T> ListenableFuture<T> submit(final HttpCommand command,
+            final Function<HttpResponse, T> responseTransformer) {
+      final Invocation invocation = command.getInvocation();
+      if (invocation == Invocation.NONE)
+         return compose(client.submit(command), responseTransformer, sameThreadExecutor());
+      final ListenableFuture<T> result = compose(client.submit(command),
+               new Function<HttpResponse, T>() {
+                  public T apply(HttpResponse response) {
+                     invocation.responded(response.getStatusCode(), command.getFailureCount());
+                     T value = responseTransformer.apply(response);
+                     invocation.parsed();
+                     return value;
+                  }
+               }, sameThreadExecutor());
+      result.addListener(new Runnable() {
+         public void run() {
+            try {
+               result.get();
+            } catch (ExecutionException e) {
+               invocation.failed(e.getCause());
+            } catch (Exception e) {
+               invocation.failed(e);
+            }
+         }
+      }, sameThreadExecutor());
+      return result;
    }
 
 }
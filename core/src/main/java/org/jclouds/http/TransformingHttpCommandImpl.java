@@ -28,6 +28,7 @@ import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.UriBuilder;
 
+import org.jclouds.instrumentation.Invocation;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.internal.GeneratedHttpRequest;
 
@@ -55,6 +56,8 @@ public class TransformingHttpCommandImpl<T> implements TransformingHttpCommand<T
    protected Logger logger = Logger.NULL;
 
    private volatile int redirectCount;
+   private volatile long retryDelayMillis;
+   private volatile Invocation invocation = Invocation.NONE;
    protected volatile Exception exception;
 
    @Inject
@@ -82,6 +85,22 @@ public class TransformingHttpCommandImpl<T> implements TransformingHttpCommand<T
       return ++failureCount;
    }
 
+   public void setRetryDelayMillis(long delay) {
+      this.retryDelayMillis = delay;
+   }
+
+   public long getRetryDelayMillis() {
+      return retryDelayMillis;
+   }
+
+   public Invocation getInvocation() {
+      return invocation;
+   }
+
+   public void setInvocation(Invocation invocation) {
+      this.invocation = invocation;
+   }
+
    /**
     * {@inheritDoc}
     * <p />
@@ -0,0 +1,135 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.http.functions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+import javax.inject.Singleton;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * This object will parse the elements of a json array in the body of an HttpResponse one at a
+ * time, so that a large listing is never held as a whole in memory as a json tree.
+ * <p/>
+ * The array may be the body itself, or found by following the names of members in enclosing
+ * objects, such as {@code "list"} in <code>{"summary":{...},"list":[...]}</code>. A missing or null
+ * array has no elements.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public abstract class ParseJsonArray<E, T> extends ParseJson<T> {
+
+   private final Type elementType;
+   private final String[] path;
+
+   /**
+    * @param elementType
+    *           type each element of the array is parsed into
+    * @param path
+    *           names of the members leading to the array, outermost first
+    */
+   public ParseJsonArray(Gson gson, Type elementType, String... path) {
+      super(gson);
+      this.elementType = elementType;
+      this.path = path;
+   }
+
+   /**
+    * receives the elements of the array as they are parsed. The iterator is only valid until this
+    * method returns.
+    */
+   protected abstract T apply(Iterator<E> elements);
+
+   public T apply(InputStream stream) {
+      try {
+         return apply(JsonArrayIterator.<E> create(gson, new JsonReader(new InputStreamReader(
+                  stream, "UTF-8")), elementType, path));
+      } catch (UnsupportedEncodingException e) {
+         throw new RuntimeException("jclouds requires UTF-8 encoding", e);
+      } catch (IOException e) {
+         throw Throwables.propagate(e);
+      }
+   }
+
+   /**
+    * Lazily parses the elements of a json array from a {@link JsonReader}.
+    */
+   public static class JsonArrayIterator<E> extends AbstractIterator<E> {
+      private final Gson gson;
+      private final JsonReader reader;
+      private final Type elementType;
+
+      /**
+       * positions the reader at the start of the array found by following {@code path}.
+       */
+      public static <E> Iterator<E> create(Gson gson, JsonReader reader, Type elementType,
+               String... path) throws IOException {
+         for (String member : path) {
+            if (!seek(reader, member))
+               return Iterators.emptyIterator();
+         }
+         if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return Iterators.emptyIterator();
+         }
+         reader.beginArray();
+         return new JsonArrayIterator<E>(gson, reader, elementType);
+      }
+
+      private static boolean seek(JsonReader reader, String member) throws IOException {
+         reader.beginObject();
+         while (reader.hasNext()) {
+            if (reader.nextName().equals(member))
+               return true;
+            reader.skipValue();
+         }
+         return false;
+      }
+
+      private JsonArrayIterator(Gson gson, JsonReader reader, Type elementType) {
+         this.gson = gson;
+         this.reader = reader;
+         this.elementType = elementType;
+      }
+
+      @Override
+      protected E computeNext() {
+         try {
+            if (reader.hasNext())
+               return gson.<E> fromJson(reader, elementType);
+            reader.endArray();
+            return endOfData();
+         } catch (IOException e) {
+            throw Throwables.propagate(e);
+         }
+      }
+   }
+}
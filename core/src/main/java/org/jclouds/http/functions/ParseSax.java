@@ -48,6 +48,7 @@ public class ParseSax<T> implements Function<HttpResponse, T>,
       InvocationContext {
 
    private final XMLReader parser;
+   private final XMLReaderPool pool;
    private final HandlerWithResult<T> handler;
    @Resource
    protected Logger logger = Logger.NULL;
@@ -57,9 +58,29 @@ public class ParseSax<T> implements Function<HttpResponse, T>,
       <T> ParseSax<T> create(HandlerWithResult<T> handler);
    }
 
+   /**
+    * Lends out readers, so that one needn't be built for each response. A reader is lent to only
+    * one parse at a time, and is given back only if that parse succeeded.
+    */
+   public static interface XMLReaderPool {
+      XMLReader borrow();
+
+      void release(XMLReader reader);
+   }
+
    @Inject
    public ParseSax(XMLReader parser, HandlerWithResult<T> handler) {
       this.parser = checkNotNull(parser, "parser");
+      this.pool = null;
+      this.handler = checkNotNull(handler, "handler");
+   }
+
+   /**
+    * borrows a reader from {@code pool} for each parse
+    */
+   public ParseSax(XMLReaderPool pool, HandlerWithResult<T> handler) {
+      this.parser = null;
+      this.pool = checkNotNull(pool, "pool");
       this.handler = checkNotNull(handler, "handler");
    }
 
@@ -70,10 +91,13 @@ public class ParseSax<T> implements Function<HttpResponse, T>,
    public T parse(InputStream from) throws HttpException {
       if (from == null)
          throw new HttpException("No input to parse");
+      XMLReader parser = this.parser != null ? this.parser : pool.borrow();
       try {
          parser.setContentHandler(getHandler());
          // This method should accept documents with a BOM (Byte-order mark)
          parser.parse(new InputSource(from));
+         if (pool != null)
+            pool.release(parser);
          return getHandler().getResult();
       } catch (Exception e) {
          if (request != null) {
@@ -108,8 +132,120 @@ public class ParseSax<T> implements Function<HttpResponse, T>,
          implements InvocationContext {
       protected GeneratedHttpRequest<?> request;
 
+      /**
+       * characters since the last {@link #resetText}
+       */
+      private final StringBuilder text = new StringBuilder();
+
       public abstract T getResult();
 
+      @Override
+      public void characters(char ch[], int start, int length) {
+         text.append(ch, start, length);
+      }
+
+      /**
+       * forgets the characters collected so far, usually at the end of an element.
+       */
+      protected void resetText() {
+         text.setLength(0);
+      }
+
+      /**
+       * @return characters collected since the last {@link #resetText}, without surrounding
+       *         whitespace. Unlike {@code toString().trim()}, this copies them only once.
+       */
+      protected String trimmedText() {
+         int start = trimmedStart();
+         return text.substring(start, trimmedEnd(start));
+      }
+
+      /**
+       * @return {@link #trimmedText}, or null if that would be empty
+       */
+      protected String currentOrNull() {
+         return isTextBlank() ? null : trimmedText();
+      }
+
+      /**
+       * @return characters collected since the last {@link #resetText}, as they were, for
+       *         elements whose whitespace is significant
+       */
+      protected String rawText() {
+         return text.toString();
+      }
+
+      /**
+       * @return true if only whitespace was collected since the last {@link #resetText}
+       */
+      protected boolean isTextBlank() {
+         return trimmedStart() == text.length();
+      }
+
+      /**
+       * @return the trimmed text as {@link Integer#parseInt} would, without copying it
+       */
+      protected int textAsInt() {
+         int start = trimmedStart();
+         int end = trimmedEnd(start);
+         int digits = end - start - (start < end && text.charAt(start) == '-' ? 1 : 0);
+         if (digits < 1 || digits > 9)
+            return Integer.parseInt(text.substring(start, end));
+         return (int) parseDigits(start, end);
+      }
+
+      /**
+       * @return the trimmed text as {@link Long#parseLong} would, without copying it
+       */
+      protected long textAsLong() {
+         int start = trimmedStart();
+         int end = trimmedEnd(start);
+         int digits = end - start - (start < end && text.charAt(start) == '-' ? 1 : 0);
+         if (digits < 1 || digits > 18)
+            return Long.parseLong(text.substring(start, end));
+         return parseDigits(start, end);
+      }
+
+      /**
+       * @return the trimmed text as {@link Boolean#parseBoolean} would, without copying it
+       */
+      protected boolean textAsBoolean() {
+         int start = trimmedStart();
+         if (trimmedEnd(start) - start != 4)
+            return false;
+         return Character.toLowerCase(text.charAt(start)) == 't'
+                  && Character.toLowerCase(text.charAt(start + 1)) == 'r'
+                  && Character.toLowerCase(text.charAt(start + 2)) == 'u'
+                  && Character.toLowerCase(text.charAt(start + 3)) == 'e';
+      }
+
+      private long parseDigits(int start, int end) {
+         boolean negative = text.charAt(start) == '-';
+         long value = 0;
+         for (int i = negative ? start + 1 : start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9')
+               throw new NumberFormatException("For input string: \""
+                        + text.substring(start, end) + "\"");
+            value = value * 10 + (c - '0');
+         }
+         return negative ? -value : value;
+      }
+
+      private int trimmedStart() {
+         int start = 0;
+         while (start < text.length() && text.charAt(start) <= ' ')
+            start++;
+         return start;
+      }
+
+      private int trimmedEnd(int start) {
+         int end = text.length();
+         while (end > start && text.charAt(end - 1) <= ' ')
+            end--;
+         return end;
+      }
+
       @Override
       public void setContext(GeneratedHttpRequest<?> request) {
          this.request = request;
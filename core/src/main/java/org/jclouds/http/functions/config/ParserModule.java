@@ -24,14 +24,15 @@ import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.jclouds.Constants;
 import org.jclouds.date.DateService;
 import org.jclouds.http.functions.ParseSax;
 import org.jclouds.http.functions.ParseSax.HandlerWithResult;
+import org.jclouds.http.functions.ParseSax.XMLReaderPool;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 import com.google.common.collect.Maps;
 import com.google.gson.Gson;
@@ -58,22 +59,47 @@ public class ParserModule extends AbstractModule {
 
    protected void configure() {
       bind(ParseSax.Factory.class).to(Factory.class).in(Scopes.SINGLETON);
+      bind(XMLReaderPool.class).to(ThreadLocalXMLReaderPool.class).in(Scopes.SINGLETON);
    }
 
    private static class Factory implements ParseSax.Factory {
       @Inject
-      private SAXParserFactory factory;
+      private XMLReaderPool pool;
 
       public <T> ParseSax<T> create(HandlerWithResult<T> handler) {
-         SAXParser saxParser;
+         return new ParseSax<T>(pool, handler);
+      }
+   }
+
+   /**
+    * Keeps a reader for each thread that parses. A parse started while another is in progress on
+    * the same thread, or after one failed, gets a new reader.
+    */
+   private static class ThreadLocalXMLReaderPool implements XMLReaderPool {
+      private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+      @Inject
+      private SAXParserFactory factory;
+
+      private final ThreadLocal<XMLReader> readers = new ThreadLocal<XMLReader>();
+
+      public XMLReader borrow() {
+         XMLReader reader = readers.get();
+         if (reader != null) {
+            readers.set(null);
+            return reader;
+         }
          try {
-            saxParser = factory.newSAXParser();
-            XMLReader parser = saxParser.getXMLReader();
-            return new ParseSax<T>(parser, handler);
+            return factory.newSAXParser().getXMLReader();
          } catch (Exception e) {
             throw new RuntimeException(e);
          }
+      }
 
+      public void release(XMLReader reader) {
+         // don't hold onto the last handler, or its result, until the next parse
+         reader.setContentHandler(NO_HANDLER);
+         readers.set(reader);
       }
    }
 
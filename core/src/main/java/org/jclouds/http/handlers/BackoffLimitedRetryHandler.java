@@ -19,9 +19,20 @@
 package org.jclouds.http.handlers;
 
 import java.io.IOException;
+import java.net.URI;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+import javax.annotation.Nullable;
 import javax.annotation.Resource;
 import javax.inject.Named;
+import javax.inject.Singleton;
 
 import org.jclouds.Constants;
 import org.jclouds.http.HttpCommand;
@@ -31,42 +42,27 @@ import org.jclouds.http.IOExceptionRetryHandler;
 import org.jclouds.http.TransformingHttpCommand;
 import org.jclouds.logging.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
 import com.google.common.io.Closeables;
 import com.google.inject.Inject;
 
 /**
- * Allow replayable request to be retried a limited number of times, and impose an exponential
- * back-off delay before returning.
+ * Allow replayable request to be retried a limited number of times, after a delay that grows with
+ * each failure.
  * <p>
- * The back-off delay grows rapidly according to the formula
- * <code>50 * (<i>{@link TransformingHttpCommand#getFailureCount()}</i> ^ 2)</code>. For example:
- * <table>
- * <tr>
- * <th>Number of Attempts</th>
- * <th>Delay in milliseconds</th>
- * </tr>
- * <tr>
- * <td>1</td>
- * <td>50</td>
- * </tr>
- * <tr>
- * <td>2</td>
- * <td>200</td>
- * </tr>
- * <tr>
- * <td>3</td>
- * <td>450</td>
- * </tr>
- * <tr>
- * <td>4</td>
- * <td>800</td>
- * </tr>
- * <tr>
- * <td>5</td>
- * <td>1250</td>
- * </tr>
- * </table>
+ * This handler does not wait. It sets the delay on the command with
+ * {@link HttpCommand#setRetryDelayMillis}, and the executor schedules the next attempt, so no
+ * thread sleeps while a command waits.
+ * <p>
+ * Delays use decorrelated jitter. Each one is a random value between
+ * {@link Constants#PROPERTY_RETRY_DELAY_START} and three times the previous delay of the same
+ * command, capped at {@link Constants#PROPERTY_MAX_RETRY_DELAY}. Commands that fail together
+ * therefore do not retry together. A {@code Retry-After} header from the server sets a lower bound.
+ * If it asks for more than the maximum delay, the command is not retried. Retries are also refused
+ * once the endpoint has spent its {@link RetryBudget}.
  * <p>
  * This implementation has two side-effects. It increments the command's failure count with
  * {@link TransformingHttpCommand#incrementFailureCount()}, because this failure count value is used
@@ -75,25 +71,49 @@ import com.google.inject.Inject;
  * 
  * @author James Murty
  */
+@Singleton
 public class BackoffLimitedRetryHandler implements HttpRetryHandler, IOExceptionRetryHandler {
+   public static final String RETRY_AFTER = "Retry-After";
+   static final int HISTOGRAM_BUCKETS = 24;
+
    @Inject(optional = true)
    @Named(Constants.PROPERTY_MAX_RETRIES)
    private int retryCountLimit = 5;
 
+   @VisibleForTesting
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_RETRY_DELAY_START)
+   long delayStart = 50L;
+
+   @VisibleForTesting
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_MAX_RETRY_DELAY)
+   long delayMax = 30000L;
+
+   @VisibleForTesting
+   @Inject(optional = true)
+   RetryBudget retryBudget;
+
    @Resource
    protected Logger logger = Logger.NULL;
 
-   public boolean shouldRetryRequest(HttpCommand command, IOException error) {
-      return ifReplayableBackoffAndReturnTrue(command);
+   private final ConcurrentMap<HttpCommand, Long> lastDelays = new MapMaker().weakKeys().makeMap();
+   private final Random random = new Random();
+   private final AtomicLong retries = new AtomicLong();
+   private final AtomicLong rejectedByBudget = new AtomicLong();
+   private final AtomicLongArray delayHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
 
+   public boolean shouldRetryRequest(HttpCommand command, IOException error) {
+      return ifReplayableBackoffAndReturnTrue(command, null);
    }
 
    public boolean shouldRetryRequest(HttpCommand command, HttpResponse response) {
+      Long retryAfter = parseRetryAfter(response.getFirstHeaderOrNull(RETRY_AFTER));
       Closeables.closeQuietly(response.getContent());
-      return ifReplayableBackoffAndReturnTrue(command);
+      return ifReplayableBackoffAndReturnTrue(command, retryAfter);
    }
 
-   private boolean ifReplayableBackoffAndReturnTrue(HttpCommand command) {
+   private boolean ifReplayableBackoffAndReturnTrue(HttpCommand command, @Nullable Long retryAfter) {
       command.incrementFailureCount();
 
       if (!command.isReplayable()) {
@@ -103,23 +123,135 @@ public class BackoffLimitedRetryHandler implements HttpRetryHandler, IOException
          logger.warn(
                   "Cannot retry after server error, command has exceeded retry limit %1$d: %2$s",
                   retryCountLimit, command);
+         lastDelays.remove(command);
+         return false;
+      } else if (retryAfter != null && retryAfter > delayMax) {
+         logger.warn("Cannot retry after server error, server asked to wait %1$d ms: %2$s",
+                  retryAfter, command);
+         return false;
+      } else if (!budgetAllowsRetry(command)) {
+         rejectedByBudget.incrementAndGet();
+         logger.warn("Cannot retry after server error, retry budget of the endpoint is spent: %1$s",
+                  command);
          return false;
       } else {
-         imposeBackoffExponentialDelay(command.getFailureCount(), "server error: "
-                  + command.toString());
+         long delayMs = nextDelayMillis(command, retryAfter);
+         logger.debug("Retry %d/%d: delaying for %d ms: %s", command.getFailureCount(),
+                  retryCountLimit, delayMs, "server error: " + command.toString());
+         command.setRetryDelayMillis(delayMs);
+         recordRetry(delayMs);
          return true;
       }
    }
 
+   private boolean budgetAllowsRetry(HttpCommand command) {
+      if (retryBudget == null || command.getRequest() == null)
+         return true;
+      URI endpoint = command.getRequest().getEndpoint();
+      return endpoint == null || retryBudget.tryAcquireRetry(endpoint);
+   }
+
+   /**
+    * decorrelated jitter: a random delay between the start and three times the last delay of this
+    * command, capped at the maximum and never shorter than {@code retryAfter}.
+    */
+   @VisibleForTesting
+   long nextDelayMillis(HttpCommand command, @Nullable Long retryAfter) {
+      Long last = lastDelays.get(command);
+      long ceiling = Math.min(delayMax, 3 * (last != null ? last : delayStart));
+      long delayMs = delayStart + (long) (random.nextDouble() * Math.max(0, ceiling - delayStart));
+      lastDelays.put(command, delayMs);
+      return retryAfter != null ? Math.max(delayMs, retryAfter) : delayMs;
+   }
+
+   /**
+    * @return milliseconds to wait according to the {@code Retry-After} header, given either in
+    *         seconds or as an http date, or null if it is absent or unreadable
+    */
+   @VisibleForTesting
+   static Long parseRetryAfter(@Nullable String retryAfter) {
+      if (retryAfter == null)
+         return null;
+      try {
+         return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+      } catch (NumberFormatException e) {
+         try {
+            SimpleDateFormat rfc1123 = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz",
+                     Locale.US);
+            return Math.max(0, rfc1123.parse(retryAfter.trim()).getTime()
+                     - System.currentTimeMillis());
+         } catch (ParseException e1) {
+            return null;
+         }
+      }
+   }
+
+   private void recordRetry(long delayMs) {
+      retries.incrementAndGet();
+      delayHistogram.incrementAndGet(Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long
+               .numberOfLeadingZeros(delayMs)));
+   }
+
+   /**
+    * @return how many retries this handler has accepted
+    */
+   public long getRetryCount() {
+      return retries.get();
+   }
+
+   /**
+    * @return how many retries were refused because the endpoint had spent its retry budget
+    */
+   public long getRetriesRejectedByBudget() {
+      return rejectedByBudget.get();
+   }
+
+   /**
+    * Counts accepted retries by delay. Each key is the exclusive upper bound, in milliseconds, of a
+    * power of two bucket. The last bucket also holds everything longer.
+    */
+   public SortedMap<Long, Long> getDelayHistogram() {
+      SortedMap<Long, Long> histogram = Maps.newTreeMap();
+      for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+         long count = delayHistogram.get(i);
+         if (count > 0)
+            histogram.put(i == HISTOGRAM_BUCKETS - 1 ? Long.MAX_VALUE : 1L << i, count);
+      }
+      return histogram;
+   }
+
    public void imposeBackoffExponentialDelay(int failureCount, String commandDescription) {
       imposeBackoffExponentialDelay(50L, 2, failureCount, retryCountLimit, commandDescription);
    }
 
    public void imposeBackoffExponentialDelay(long period, int pow, int failureCount, int max,
             String commandDescription) {
-      long delayMs = (long) (period * Math.pow(failureCount, pow));
+      long delayMs = exponentialDelayMillis(period, pow, failureCount);
+      logger.debug("Retry %d/%d: delaying for %d ms: %s", failureCount, retryCountLimit, delayMs,
+               commandDescription);
+      sleep(delayMs);
+   }
+
+   /**
+    * Like {@link #imposeBackoffExponentialDelay(int, String)}, but waits a random time between half
+    * and all of the exponential delay, so that callers failing together do not retry together.
+    */
+   public void imposeJitteredBackoff(int failureCount, String commandDescription) {
+      long delayMs = exponentialDelayMillis(delayStart, 2, failureCount);
+      delayMs = delayMs / 2 + (long) (random.nextDouble() * (delayMs / 2));
       logger.debug("Retry %d/%d: delaying for %d ms: %s", failureCount, retryCountLimit, delayMs,
                commandDescription);
+      sleep(delayMs);
+   }
+
+   /**
+    * @return {@code period * failureCount ^ pow}
+    */
+   public long exponentialDelayMillis(long period, int pow, int failureCount) {
+      return (long) (period * Math.pow(failureCount, pow));
+   }
+
+   private void sleep(long delayMs) {
       try {
          Thread.sleep(delayMs);
       } catch (InterruptedException e) {
@@ -54,9 +54,13 @@ public class DelegatingRetryHandler implements HttpRetryHandler {
    @ServerError
    HttpRetryHandler serverErrorRetryHandler;
 
-   @Inject
    public DelegatingRetryHandler(Provider<UriBuilder> uriBuilderProvider) {
-      BackoffLimitedRetryHandler backOff = new BackoffLimitedRetryHandler();
+      this(uriBuilderProvider, new BackoffLimitedRetryHandler());
+   }
+
+   @Inject
+   public DelegatingRetryHandler(Provider<UriBuilder> uriBuilderProvider,
+            BackoffLimitedRetryHandler backOff) {
       this.serverErrorRetryHandler = backOff;
       this.redirectionRetryHandler = new RedirectionRetryHandler(uriBuilderProvider, backOff);
       this.clientErrorRetryHandler = HttpRetryHandler.NEVER_RETRY;
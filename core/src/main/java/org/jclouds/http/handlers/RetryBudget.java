@@ -0,0 +1,92 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.http.handlers;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+
+import com.google.common.base.Function;
+import com.google.common.collect.MapMaker;
+import com.google.inject.Inject;
+
+/**
+ * Limits the retries to each endpoint to a fraction of the requests sent to it.
+ * <p/>
+ * Each request adds {@code ratio} of a retry to the balance of its endpoint, and each retry takes
+ * a whole one away. A balance starts at, and never exceeds, {@link #RESERVE} retries, so an endpoint
+ * that has seen little traffic can still retry a few times. When an endpoint fails most of its
+ * requests, retries drop to the configured share of traffic instead of multiplying it.
+ * 
+ * @see org.jclouds.Constants#PROPERTY_RETRY_BUDGET
+ * @author Adrian Cole
+ */
+@Singleton
+public class RetryBudget {
+   static final int RESERVE = 10;
+   private static final long UNIT = 1000;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_RETRY_BUDGET)
+   float ratio = 0.2f;
+
+   private final Map<String, AtomicLong> balances = new MapMaker()
+            .makeComputingMap(new Function<String, AtomicLong>() {
+               public AtomicLong apply(String endpoint) {
+                  return new AtomicLong(RESERVE * UNIT);
+               }
+            });
+
+   /**
+    * credits the endpoint with a share of a retry; call once per command, not per attempt.
+    */
+   public void recordRequest(URI endpoint) {
+      AtomicLong balance = balances.get(key(endpoint));
+      long deposit = (long) (ratio * UNIT);
+      for (;;) {
+         long current = balance.get();
+         long next = Math.min(current + deposit, RESERVE * UNIT);
+         if (current == next || balance.compareAndSet(current, next))
+            return;
+      }
+   }
+
+   /**
+    * @return true, and takes one retry from the endpoint's balance, if at least one is left
+    */
+   public boolean tryAcquireRetry(URI endpoint) {
+      AtomicLong balance = balances.get(key(endpoint));
+      for (;;) {
+         long current = balance.get();
+         if (current < UNIT)
+            return false;
+         if (balance.compareAndSet(current, current - UNIT))
+            return true;
+      }
+   }
+
+   static String key(URI endpoint) {
+      return endpoint.getHost() + ":" + endpoint.getPort();
+   }
+}
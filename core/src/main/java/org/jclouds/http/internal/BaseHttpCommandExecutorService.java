@@ -18,17 +18,17 @@
  */
 package org.jclouds.http.internal;
 
-import static org.jclouds.concurrent.ConcurrentUtils.makeListenable;
-
 import java.io.IOException;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
-import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.jclouds.Constants;
+import org.jclouds.concurrent.SettableListenableFuture;
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpCommandExecutorService;
 import org.jclouds.http.HttpRequest;
@@ -40,11 +40,20 @@ import org.jclouds.http.IOExceptionRetryHandler;
 import org.jclouds.http.Payloads;
 import org.jclouds.http.handlers.DelegatingErrorHandler;
 import org.jclouds.http.handlers.DelegatingRetryHandler;
+import org.jclouds.http.handlers.RetryBudget;
+import org.jclouds.instrumentation.Invocation.Event;
 import org.jclouds.logging.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
 
 /**
+ * Sends each command on an i/o thread, retrying it as the retry handlers decide.
+ * <p/>
+ * When a retry handler asks for a delay, the attempt hands the command to the scheduler and frees
+ * its thread; the next attempt starts on an i/o thread once the delay has passed. Without a
+ * scheduler, as when this class is constructed by hand, the thread sleeps instead.
  * 
  * @author Adrian Cole
  */
@@ -55,6 +64,14 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
    private final DelegatingErrorHandler errorHandler;
    private final ExecutorService ioWorkerExecutor;
 
+   @VisibleForTesting
+   @Inject(optional = true)
+   ScheduledExecutorService retryScheduler;
+
+   @VisibleForTesting
+   @Inject(optional = true)
+   RetryBudget retryBudget;
+
    @Resource
    protected Logger logger = Logger.NULL;
    @Resource
@@ -76,37 +93,69 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
    }
 
    public ListenableFuture<HttpResponse> submit(HttpCommand command) {
-      return makeListenable(ioWorkerExecutor.submit(new HttpResponseCallable(command)),
-               ioWorkerExecutor);
+      if (retryBudget != null && command.getRequest().getEndpoint() != null)
+         retryBudget.recordRequest(command.getRequest().getEndpoint());
+      SettableListenableFuture<HttpResponse> result = new SettableListenableFuture<HttpResponse>();
+      command.getInvocation().mark(Event.QUEUED);
+      ioWorkerExecutor.execute(new HttpResponseTask(command, result));
+      return result;
    }
 
-   public class HttpResponseCallable implements Callable<HttpResponse> {
+   /**
+    * Sends the command until it succeeds, fails for good, or has to wait for a retry. In the last
+    * case the task schedules itself again.
+    */
+   public class HttpResponseTask implements Runnable {
       private final HttpCommand command;
+      private final SettableListenableFuture<HttpResponse> result;
 
-      public HttpResponseCallable(HttpCommand command) {
+      public HttpResponseTask(HttpCommand command, SettableListenableFuture<HttpResponse> result) {
          this.command = command;
+         this.result = result;
       }
 
-      public HttpResponse call() throws Exception {
+      public void run() {
+         try {
+            HttpResponse response = attempt();
+            if (response != null)
+               result.set(response);
+         } catch (Throwable t) {
+            // nothing else waits on this task, so anything left uncaught would hang the caller
+            result.setException(t);
+         }
+      }
+
+      /**
+       * @return the final response, or null if the command was cancelled or will be retried later
+       */
+      private HttpResponse attempt() throws Exception {
 
          HttpResponse response = null;
          for (;;) {
+            if (result.isCancelled())
+               return null;
             HttpRequest request = command.getRequest();
             Q nativeRequest = null;
             try {
+               command.getInvocation().mark(Event.STARTED);
                for (HttpRequestFilter filter : request.getFilters()) {
                   filter.filter(request);
                }
+               command.getInvocation().mark(Event.FILTERED);
                logger.debug("Sending request %s: %s", request.hashCode(), request.getRequestLine());
-               if (request.getPayload() != null && wire.enabled())
+               if (request.getPayload() != null && wire.sampled(request))
                   request.setPayload(Payloads.newPayload(wire.output(request.getPayload()
                            .getRawContent())));
                nativeRequest = convert(request);
+               command.getInvocation().mark(Event.CONNECTED);
                HttpUtils.logRequest(headerLog, request, ">>");
                try {
                   response = invoke(nativeRequest);
+                  command.getInvocation().mark(Event.FIRST_BYTE);
                } catch (IOException e) {
                   if (ioRetryHandler.shouldRetryRequest(command, e)) {
+                     if (retryLater())
+                        return null;
                      continue;
                   } else {
                      command.setException(new HttpResponseException(e.getMessage()
@@ -118,14 +167,17 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
                logger.debug("Receiving response %s: %s", request.hashCode(), response
                         .getStatusLine());
                HttpUtils.logResponse(headerLog, response, "<<");
-               if (response.getContent() != null && wire.enabled())
+               if (response.getContent() != null && wire.sampled(request))
                   response.setContent(wire.input(response.getContent()));
                int statusCode = response.getStatusCode();
                if (statusCode >= 300) {
-                  if (shouldContinue(response))
+                  if (shouldContinue(response)) {
+                     if (retryLater())
+                        return null;
                      continue;
-                  else
+                  } else {
                      break;
+                  }
                } else {
                   break;
                }
@@ -138,6 +190,37 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
          return response;
       }
 
+      /**
+       * honors the delay the retry handler set on the command.
+       * 
+       * @return true if the next attempt was scheduled, false if it should start now
+       */
+      private boolean retryLater() throws InterruptedException {
+         long delay = command.getRetryDelayMillis();
+         command.setRetryDelayMillis(0);
+         if (delay > 0 && retryScheduler == null)
+            Thread.sleep(delay);
+         if (delay <= 0 || retryScheduler == null) {
+            command.getInvocation().mark(Event.QUEUED);
+            return false;
+         }
+         try {
+            retryScheduler.schedule(new Runnable() {
+               public void run() {
+                  try {
+                     command.getInvocation().mark(Event.QUEUED);
+                     ioWorkerExecutor.execute(HttpResponseTask.this);
+                  } catch (RejectedExecutionException e) {
+                     result.setException(e);
+                  }
+               }
+            }, delay, TimeUnit.MILLISECONDS);
+         } catch (RejectedExecutionException e) {
+            result.setException(e);
+         }
+         return true;
+      }
+
       private boolean shouldContinue(HttpResponse response) {
          boolean shouldContinue = false;
          if (retryHandler.shouldRetryRequest(command, response)) {
@@ -156,4 +239,4 @@ public abstract class BaseHttpCommandExecutorService<Q> implements HttpCommandEx
 
    protected abstract void cleanup(Q nativeResponse);
 
-}
\ No newline at end of file
+}
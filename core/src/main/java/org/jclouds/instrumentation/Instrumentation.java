@@ -0,0 +1,53 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation;
+
+import java.lang.reflect.Method;
+
+/**
+ * Observes calls to async clients as they pass through the http command pipeline.
+ * <p/>
+ * Bind an implementation with a subclass of
+ * {@link org.jclouds.instrumentation.config.InstrumentationModule}. Without one, {@link #NONE} is
+ * used and the pipeline skips its hooks.
+ * 
+ * @author Adrian Cole
+ */
+public interface Instrumentation {
+
+   /**
+    * Called once when an async client method is invoked, before its command is submitted.
+    * 
+    * @param client
+    *           the async client interface
+    * @param method
+    *           the method that was invoked
+    * @param argCount
+    *           how many arguments the method was called with
+    * @return the invocation that receives the events of this call
+    */
+   Invocation start(Class<?> client, Method method, int argCount);
+
+   public static final Instrumentation NONE = new Instrumentation() {
+      public Invocation start(Class<?> client, Method method, int argCount) {
+         return Invocation.NONE;
+      }
+   };
+
+}
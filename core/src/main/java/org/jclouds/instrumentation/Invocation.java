@@ -0,0 +1,94 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation;
+
+/**
+ * Receives the events of one call to an async client. Events arrive in order, from whichever
+ * thread is working on the call at the time. When a command is retried, the events from
+ * {@link Event#STARTED} to {@link Event#FIRST_BYTE} repeat for each attempt.
+ * <p/>
+ * Exactly one of {@link #parsed} and {@link #failed} ends the invocation.
+ * 
+ * @author Adrian Cole
+ */
+public interface Invocation {
+
+   enum Event {
+      /**
+       * the command was handed to the executor and waits for an i/o thread
+       */
+      QUEUED,
+      /**
+       * an attempt started on an i/o thread
+       */
+      STARTED,
+      /**
+       * the request filters, such as signing, have run
+       */
+      FILTERED,
+      /**
+       * the transport holds a connection for the request. Executors that connect lazily send this
+       * once the native request is built.
+       */
+      CONNECTED,
+      /**
+       * the status line of the response arrived
+       */
+      FIRST_BYTE;
+   }
+
+   /**
+    * records that {@code event} happened now.
+    */
+   void mark(Event event);
+
+   /**
+    * The final response arrived, after any redirects and retries, and is about to be parsed.
+    * 
+    * @param retries
+    *           how many times the command failed before this response
+    */
+   void responded(int statusCode, int retries);
+
+   /**
+    * The response was parsed, and the call succeeded.
+    */
+   void parsed();
+
+   /**
+    * The call failed, either in transport, on an error status, or while parsing.
+    */
+   void failed(Throwable cause);
+
+   public static final Invocation NONE = new Invocation() {
+
+      public void mark(Event event) {
+      }
+
+      public void responded(int statusCode, int retries) {
+      }
+
+      public void parsed() {
+      }
+
+      public void failed(Throwable cause) {
+      }
+
+   };
+}
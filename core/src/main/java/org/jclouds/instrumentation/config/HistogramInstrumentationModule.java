@@ -0,0 +1,38 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation.config;
+
+import org.jclouds.instrumentation.Instrumentation;
+import org.jclouds.instrumentation.internal.HistogramInstrumentation;
+
+/**
+ * Keeps latency histograms per client method and status class.
+ * 
+ * @see HistogramInstrumentation
+ * @author Adrian Cole
+ * 
+ */
+public class HistogramInstrumentationModule extends InstrumentationModule {
+
+   @Override
+   public Instrumentation createInstrumentation() {
+      return new HistogramInstrumentation();
+   }
+
+}
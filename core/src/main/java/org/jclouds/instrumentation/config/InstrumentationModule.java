@@ -0,0 +1,44 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation.config;
+
+import javax.inject.Singleton;
+
+import org.jclouds.instrumentation.Instrumentation;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+
+/**
+ * Binds the {@link Instrumentation} that observes async client calls.
+ * 
+ * @author Adrian Cole
+ * 
+ */
+public abstract class InstrumentationModule extends AbstractModule {
+
+   @Override
+   protected void configure() {
+   }
+
+   @Provides
+   @Singleton
+   public abstract Instrumentation createInstrumentation();
+
+}
@@ -0,0 +1,36 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation.config;
+
+import org.jclouds.instrumentation.Instrumentation;
+
+/**
+ * Observes nothing; the pipeline skips its hooks.
+ * 
+ * @author Adrian Cole
+ * 
+ */
+public class NullInstrumentationModule extends InstrumentationModule {
+
+   @Override
+   public Instrumentation createInstrumentation() {
+      return Instrumentation.NONE;
+   }
+
+}
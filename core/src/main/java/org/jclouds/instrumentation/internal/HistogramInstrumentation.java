@@ -0,0 +1,195 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation.internal;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Singleton;
+
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.instrumentation.Instrumentation;
+import org.jclouds.instrumentation.Invocation;
+import org.jclouds.instrumentation.Invocation.Event;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
+
+/**
+ * Keeps a {@link LatencyHistogram} in microseconds for each phase of a call. Histograms are kept
+ * per client interface, method and status class, with keys such as
+ * {@code S3AsyncClient.getObject 2xx}. Calls that fail without a response use the class
+ * {@code failed}.
+ * <p/>
+ * Phases come from the events of the last attempt. {@link Phase#TOTAL} covers the whole call,
+ * retries included.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class HistogramInstrumentation implements Instrumentation {
+
+   public static enum Phase {
+      /**
+       * waiting for an i/o thread
+       */
+      QUEUE(Event.QUEUED, Event.STARTED),
+      /**
+       * running the request filters
+       */
+      FILTERS(Event.STARTED, Event.FILTERED),
+      /**
+       * obtaining a connection and sending the request
+       */
+      CONNECT(Event.FILTERED, Event.CONNECTED),
+      /**
+       * waiting for the status line
+       */
+      FIRST_BYTE(Event.CONNECTED, Event.FIRST_BYTE),
+      /**
+       * handling the response, up to the point where parsing starts
+       */
+      COMPLETION(Event.FIRST_BYTE, null),
+      /**
+       * parsing the response
+       */
+      PARSE(null, null),
+      /**
+       * the whole call
+       */
+      TOTAL(null, null);
+
+      final Event from;
+      final Event to;
+
+      Phase(Event from, Event to) {
+         this.from = from;
+         this.to = to;
+      }
+   }
+
+   /**
+    * The histograms of one client method and status class.
+    */
+   public static class Stats {
+      private final Map<Phase, LatencyHistogram> phases = new EnumMap<Phase, LatencyHistogram>(
+               Phase.class);
+      private final AtomicLong retries = new AtomicLong();
+
+      Stats() {
+         for (Phase phase : Phase.values())
+            phases.put(phase, new LatencyHistogram());
+      }
+
+      public LatencyHistogram getHistogram(Phase phase) {
+         return phases.get(phase);
+      }
+
+      public long getCount() {
+         return phases.get(Phase.TOTAL).getCount();
+      }
+
+      /**
+       * @return how many attempts failed before the calls counted here ended
+       */
+      public long getRetries() {
+         return retries.get();
+      }
+
+      @Override
+      public String toString() {
+         return String.format("[count=%d, retries=%d, total=%s]", getCount(), getRetries(),
+                  getHistogram(Phase.TOTAL));
+      }
+   }
+
+   private final ConcurrentMap<String, Stats> stats = new MapMaker()
+            .makeComputingMap(new Function<String, Stats>() {
+               public Stats apply(String key) {
+                  return new Stats();
+               }
+            });
+
+   public Invocation start(Class<?> client, Method method, int argCount) {
+      return new TimedInvocation(client.getSimpleName() + "." + method.getName());
+   }
+
+   /**
+    * @return a snapshot of the keys seen so far, each with its live histograms
+    */
+   public Map<String, Stats> getStats() {
+      return ImmutableMap.copyOf(stats);
+   }
+
+   class TimedInvocation implements Invocation {
+      private final String name;
+      private final long start = System.nanoTime();
+      private final long[] marks = new long[Event.values().length];
+      private final AtomicBoolean done = new AtomicBoolean();
+      private volatile long responded;
+      private volatile int statusCode;
+      private volatile int retries;
+
+      TimedInvocation(String name) {
+         this.name = name;
+      }
+
+      public void mark(Event event) {
+         marks[event.ordinal()] = System.nanoTime();
+      }
+
+      public void responded(int statusCode, int retries) {
+         this.responded = System.nanoTime();
+         this.statusCode = statusCode;
+         this.retries = retries;
+      }
+
+      public void parsed() {
+         finish(System.nanoTime());
+      }
+
+      public void failed(Throwable cause) {
+         if (statusCode == 0 && cause instanceof HttpResponseException
+                  && ((HttpResponseException) cause).getResponse() != null)
+            statusCode = ((HttpResponseException) cause).getResponse().getStatusCode();
+         finish(System.nanoTime());
+      }
+
+      private void finish(long end) {
+         if (!done.compareAndSet(false, true))
+            return;
+         Stats stats = HistogramInstrumentation.this.stats.get(name + " "
+                  + (statusCode > 0 ? statusCode / 100 + "xx" : "failed"));
+         stats.retries.addAndGet(retries);
+         for (Phase phase : Phase.values()) {
+            long from = phase == Phase.TOTAL ? start : phase == Phase.PARSE ? responded
+                     : marks[phase.from.ordinal()];
+            long to = phase.to != null ? marks[phase.to.ordinal()]
+                     : phase == Phase.COMPLETION ? responded : end;
+            if (from != 0 && to != 0 && to >= from)
+               stats.getHistogram(phase).record((to - from) / 1000);
+         }
+      }
+   }
+}
@@ -0,0 +1,102 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts non-negative values in log-linear buckets, without locks.
+ * <p/>
+ * As in an HdrHistogram, each power of two is split into {@link #SUB_BUCKETS} equal buckets, so a
+ * value is known to within 1/{@value #SUB_BUCKETS} of itself at any magnitude. Values below
+ * {@link #SUB_BUCKETS} are exact. Recording is one atomic increment per count, plus the sum.
+ * 
+ * @author Adrian Cole
+ */
+public class LatencyHistogram {
+   static final int SUB_BUCKET_BITS = 3;
+   static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+   private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BUCKET_BITS + 1)
+            * SUB_BUCKETS);
+   private final AtomicLong count = new AtomicLong();
+   private final AtomicLong sum = new AtomicLong();
+
+   public void record(long value) {
+      if (value < 0)
+         value = 0;
+      counts.incrementAndGet(indexOf(value));
+      count.incrementAndGet();
+      sum.addAndGet(value);
+   }
+
+   public long getCount() {
+      return count.get();
+   }
+
+   public double getMean() {
+      long count = getCount();
+      return count == 0 ? 0 : sum.get() / (double) count;
+   }
+
+   /**
+    * @param percentile
+    *           between 0 and 100
+    * @return the highest value that shares a bucket with the value at {@code percentile}, or 0 if
+    *         nothing was recorded
+    */
+   public long getValueAtPercentile(double percentile) {
+      long count = getCount();
+      if (count == 0)
+         return 0;
+      long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length(); i++) {
+         seen += counts.get(i);
+         if (seen >= rank)
+            return highestValueAt(i);
+      }
+      // counts recorded after count was read
+      return highestValueAt(counts.length() - 1);
+   }
+
+   static int indexOf(long value) {
+      if (value < SUB_BUCKETS)
+         return (int) value;
+      int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+      int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+      return (shift + 1) * SUB_BUCKETS + subBucket;
+   }
+
+   static long highestValueAt(int index) {
+      if (index < SUB_BUCKETS)
+         return index;
+      int shift = index / SUB_BUCKETS - 1;
+      int subBucket = index % SUB_BUCKETS;
+      return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("[count=%d, mean=%.1f, p50=%d, p99=%d, p999=%d]", getCount(),
+               getMean(), getValueAtPercentile(50), getValueAtPercentile(99),
+               getValueAtPercentile(99.9));
+   }
+}
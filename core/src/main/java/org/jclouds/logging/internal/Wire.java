@@ -20,96 +20,110 @@ package org.jclouds.logging.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Resource;
+import javax.inject.Named;
 
+import org.jclouds.Constants;
 import org.jclouds.logging.Logger;
 
-import com.google.common.io.ByteStreams;
+import com.google.common.collect.Lists;
 import com.google.common.io.Closeables;
-import com.google.common.io.FileBackedOutputStream;
+import com.google.inject.Inject;
 
 /**
  * Logs data to the wire LOG, similar to {@code org.apache.HttpWire.impl.conn.Wire}
+ * <p/>
+ * Streams are tapped, not copied: bytes pass straight through to the reader, and only the first
+ * {@link Constants#PROPERTY_WIRE_LOG_HEAD_BYTES} and last
+ * {@link Constants#PROPERTY_WIRE_LOG_TAIL_BYTES} of each body are kept. They are logged once the
+ * reader reaches the end or closes the stream. Log lines go through a bounded queue drained on the
+ * user threads, so a slow appender drops entries rather than holding up i/o.
  * 
  * @author Adrian Cole
  */
 public abstract class Wire {
+   static final int QUEUE_SIZE = 1024;
 
    @Resource
    protected Logger logger = Logger.NULL;
 
-   protected abstract Logger getWireLog();
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_WIRE_LOG_HEAD_BYTES)
+   int headBytes = 8192;
 
-   private void wire(String header, InputStream instream) {
-      StringBuilder buffer = new StringBuilder();
-      int ch;
-      try {
-         while ((ch = instream.read()) != -1) {
-            if (ch == 13) {
-               buffer.append("[\\r]");
-            } else if (ch == 10) {
-               buffer.append("[\\n]\"");
-               buffer.insert(0, "\"");
-               buffer.insert(0, header);
-               getWireLog().debug(buffer.toString());
-               buffer.setLength(0);
-            } else if ((ch < 32) || (ch > 127)) {
-               buffer.append("[0x");
-               buffer.append(Integer.toHexString(ch));
-               buffer.append("]");
-            } else {
-               buffer.append((char) ch);
-            }
-         }
-         if (buffer.length() > 0) {
-            buffer.append('\"');
-            buffer.insert(0, '\"');
-            buffer.insert(0, header);
-            getWireLog().debug(buffer.toString());
-         }
-      } catch (IOException e) {
-         logger.error(e, "Error tapping line");
-      }
-   }
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_WIRE_LOG_TAIL_BYTES)
+   int tailBytes = 1024;
+
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_WIRE_LOG_SAMPLE_RATE)
+   float sampleRate = 1.0f;
+
+   /**
+    * when absent, lines are logged on the calling thread.
+    */
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_USER_THREADS)
+   ExecutorService logExecutor;
+
+   private final BlockingQueue<List<String>> pending = new ArrayBlockingQueue<List<String>>(
+            QUEUE_SIZE);
+   private final AtomicBoolean draining = new AtomicBoolean();
+   private final AtomicLong dropped = new AtomicLong();
+
+   protected abstract Logger getWireLog();
 
    public boolean enabled() {
       return getWireLog().isDebugEnabled();
    }
 
-   public InputStream copy(final String header, InputStream instream) {
-      int limit = 256 * 1024;
-      FileBackedOutputStream out = null;
-      try {
-         out = new FileBackedOutputStream(limit);
-         long bytesRead = ByteStreams.copy(instream, out);
-         if (bytesRead >= limit)
-            logger.warn("over limit %d/%d: wrote temp file", bytesRead, limit);
-         wire(header, out.getSupplier().getInput());
-         return out.getSupplier().getInput();
-      } catch (IOException e) {
-         throw new RuntimeException("Error tapping line", e);
-      } finally {
-         Closeables.closeQuietly(out);
-         Closeables.closeQuietly(instream);
-      }
+   /**
+    * The answer depends only on the identity of {@code request}, so that a request and its
+    * response are logged together or not at all, including across retries.
+    * 
+    * @return true if wire logging is enabled and {@code request} falls in the configured
+    *         {@link Constants#PROPERTY_WIRE_LOG_SAMPLE_RATE sample}
+    */
+   public boolean sampled(Object request) {
+      if (!enabled())
+         return false;
+      if (sampleRate >= 1)
+         return true;
+      // spread the identity hash, as consecutive objects can have similar ones
+      int hash = System.identityHashCode(request) * 0x9E3779B9;
+      return ((hash >>> 8) & 0xffffff) < sampleRate * 0x1000000;
+   }
+
+   /**
+    * @return a stream which reads through to {@code instream}, logging its head and tail once it
+    *         is exhausted or closed
+    */
+   public InputStream tap(String header, InputStream instream) {
+      return new TapInputStream(header, checkNotNull(instream, "instream"));
    }
 
    public InputStream input(InputStream instream) {
-      return copy("<< ", checkNotNull(instream, "input"));
+      return tap("<< ", checkNotNull(instream, "input"));
    }
 
    @SuppressWarnings("unchecked")
    public <T> T output(T data) {
       checkNotNull(data, "data");
       if (data instanceof InputStream) {
-         return (T) copy(">> ", (InputStream) data);
+         return (T) tap(">> ", (InputStream) data);
       } else if (data instanceof byte[]) {
          output((byte[]) data);
          return data;
@@ -126,11 +140,17 @@ public abstract class Wire {
 
    private void output(final File out) {
       checkNotNull(out, "output");
-      InputStream in = null;
+      RandomAccessFile in = null;
       try {
-         in = new FileInputStream(out);
-         wire(">> ", in);
-      } catch (FileNotFoundException e) {
+         in = new RandomAccessFile(out, "r");
+         long length = in.length();
+         byte[] head = new byte[(int) Math.min(length, headBytes)];
+         in.readFully(head);
+         byte[] tail = new byte[(int) Math.min(length - head.length, tailBytes)];
+         in.seek(length - tail.length);
+         in.readFully(tail);
+         log(">> ", head, head.length, tail, tail.length, length);
+      } catch (IOException e) {
          logger.error(e, "Error tapping file: %s", out);
       } finally {
          Closeables.closeQuietly(in);
@@ -138,11 +158,214 @@ public abstract class Wire {
    }
 
    private void output(byte[] b) {
-      wire(">> ", new ByteArrayInputStream(checkNotNull(b, "output")));
+      checkNotNull(b, "output");
+      int head = Math.min(b.length, headBytes);
+      int tail = Math.min(b.length - head, tailBytes);
+      byte[] tailCopy = new byte[tail];
+      System.arraycopy(b, b.length - tail, tailCopy, 0, tail);
+      log(">> ", b, head, tailCopy, tail, b.length);
    }
 
    private void output(final String s) {
       output(checkNotNull(s, "output").getBytes());
    }
 
-}
\ No newline at end of file
+   void log(String header, byte[] head, int headLength, byte[] tail, int tailLength, long total) {
+      List<String> lines = Lists.newArrayList();
+      format(header, head, headLength, lines);
+      long elided = total - headLength - tailLength;
+      if (elided > 0)
+         lines.add(header + "... " + elided + " bytes not logged ...");
+      format(header, tail, tailLength, lines);
+      log(lines);
+   }
+
+   private static void format(String header, byte[] data, int length, List<String> lines) {
+      StringBuilder buffer = new StringBuilder();
+      for (int i = 0; i < length; i++) {
+         int ch = data[i] & 0xff;
+         if (ch == 13) {
+            buffer.append("[\\r]");
+         } else if (ch == 10) {
+            buffer.append("[\\n]\"");
+            buffer.insert(0, "\"");
+            buffer.insert(0, header);
+            lines.add(buffer.toString());
+            buffer.setLength(0);
+         } else if ((ch < 32) || (ch > 127)) {
+            buffer.append("[0x");
+            buffer.append(Integer.toHexString(ch));
+            buffer.append("]");
+         } else {
+            buffer.append((char) ch);
+         }
+      }
+      if (buffer.length() > 0) {
+         buffer.append('\"');
+         buffer.insert(0, '\"');
+         buffer.insert(0, header);
+         lines.add(buffer.toString());
+      }
+   }
+
+   private void log(List<String> lines) {
+      if (logExecutor == null) {
+         write(lines);
+         return;
+      }
+      if (!pending.offer(lines))
+         dropped.incrementAndGet();
+      if (draining.compareAndSet(false, true)) {
+         try {
+            logExecutor.execute(drain);
+         } catch (RejectedExecutionException e) {
+            drain.run();
+         }
+      }
+   }
+
+   private void write(List<String> lines) {
+      for (String line : lines)
+         getWireLog().debug(line);
+   }
+
+   private final Runnable drain = new Runnable() {
+      public void run() {
+         do {
+            try {
+               for (List<String> lines = pending.poll(); lines != null; lines = pending.poll())
+                  write(lines);
+               long count = dropped.getAndSet(0);
+               if (count > 0)
+                  logger.warn("dropped %d wire log entries, as the log could not keep up", count);
+            } finally {
+               draining.set(false);
+            }
+         } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+      }
+   };
+
+   /**
+    * Keeps the first {@link #headBytes} in an array which grows as needed, and the last
+    * {@link #tailBytes} after those in a ring.
+    */
+   class TapInputStream extends FilterInputStream {
+      private final String header;
+      private final byte[] single = new byte[1];
+      private byte[] head = new byte[Math.min(headBytes, 1024)];
+      private int headLength;
+      private final byte[] tail = new byte[tailBytes];
+      private int tailStart;
+      private int tailLength;
+      private long total;
+      private boolean logged;
+
+      TapInputStream(String header, InputStream in) {
+         super(in);
+         this.header = header;
+      }
+
+      @Override
+      public int read() throws IOException {
+         int b = super.read();
+         if (b == -1)
+            flush();
+         else {
+            single[0] = (byte) b;
+            capture(single, 0, 1);
+         }
+         return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         int read = super.read(b, off, len);
+         if (read == -1)
+            flush();
+         else
+            capture(b, off, read);
+         return read;
+      }
+
+      /**
+       * reads rather than skips, so that skipped bytes land in the tail.
+       */
+      @Override
+      public long skip(long n) throws IOException {
+         if (n <= 0)
+            return 0;
+         int read = read(new byte[(int) Math.min(n, 8192)]);
+         return read == -1 ? 0 : read;
+      }
+
+      @Override
+      public boolean markSupported() {
+         return false;
+      }
+
+      @Override
+      public synchronized void mark(int readlimit) {
+      }
+
+      @Override
+      public synchronized void reset() throws IOException {
+         throw new IOException("mark not supported");
+      }
+
+      @Override
+      public void close() throws IOException {
+         try {
+            super.close();
+         } finally {
+            flush();
+         }
+      }
+
+      private void capture(byte[] b, int off, int len) {
+         total += len;
+         int toHead = Math.min(len, headBytes - headLength);
+         if (toHead > 0) {
+            if (headLength + toHead > head.length) {
+               byte[] grown = new byte[Math.min(headBytes, Math.max(head.length * 2, headLength
+                        + toHead))];
+               System.arraycopy(head, 0, grown, 0, headLength);
+               head = grown;
+            }
+            System.arraycopy(b, off, head, headLength, toHead);
+            headLength += toHead;
+            off += toHead;
+            len -= toHead;
+         }
+         if (len == 0 || tail.length == 0)
+            return;
+         if (len >= tail.length) {
+            System.arraycopy(b, off + len - tail.length, tail, 0, tail.length);
+            tailStart = 0;
+            tailLength = tail.length;
+            return;
+         }
+         int end = (tailStart + tailLength) % tail.length;
+         int first = Math.min(len, tail.length - end);
+         System.arraycopy(b, off, tail, end, first);
+         System.arraycopy(b, off + first, tail, 0, len - first);
+         int overflow = tailLength + len - tail.length;
+         if (overflow > 0) {
+            tailStart = (tailStart + overflow) % tail.length;
+            tailLength = tail.length;
+         } else {
+            tailLength += len;
+         }
+      }
+
+      private void flush() {
+         if (logged)
+            return;
+         logged = true;
+         byte[] ordered = new byte[tailLength];
+         int first = Math.min(tailLength, tail.length - tailStart);
+         System.arraycopy(tail, tailStart, ordered, 0, first);
+         System.arraycopy(tail, 0, ordered, first, tailLength - first);
+         log(header, head, headLength, ordered, tailLength, total);
+      }
+   }
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rest;
+
+/**
+ * Counts of how a {@link org.jclouds.rest.annotations.Cached} method's results were served.
+ * 
+ * @see RestContext#getCacheStats
+ * @author Adrian Cole
+ */
+public class CacheStats {
+   private final long hitCount;
+   private final long staleHitCount;
+   private final long missCount;
+   private final long loadFailureCount;
+   private final long evictionCount;
+   private final long invalidationCount;
+   private final int size;
+
+   public CacheStats(long hitCount, long staleHitCount, long missCount, long loadFailureCount,
+            long evictionCount, long invalidationCount, int size) {
+      this.hitCount = hitCount;
+      this.staleHitCount = staleHitCount;
+      this.missCount = missCount;
+      this.loadFailureCount = loadFailureCount;
+      this.evictionCount = evictionCount;
+      this.invalidationCount = invalidationCount;
+      this.size = size;
+   }
+
+   /**
+    * @return calls answered with a fresh result, or by joining a fetch already in flight
+    */
+   public long getHitCount() {
+      return hitCount;
+   }
+
+   /**
+    * @return calls answered with an expired result, while it was refreshed in the background
+    */
+   public long getStaleHitCount() {
+      return staleHitCount;
+   }
+
+   /**
+    * @return calls which had to go to the network
+    */
+   public long getMissCount() {
+      return missCount;
+   }
+
+   /**
+    * @return fetches or refreshes which failed, and so were not remembered
+    */
+   public long getLoadFailureCount() {
+      return loadFailureCount;
+   }
+
+   /**
+    * @return results forgotten to stay within the maximum number of entries
+    */
+   public long getEvictionCount() {
+      return evictionCount;
+   }
+
+   /**
+    * @return results forgotten because of a call to an invalidating method
+    */
+   public long getInvalidationCount() {
+      return invalidationCount;
+   }
+
+   /**
+    * @return results currently remembered
+    */
+   public int getSize() {
+      return size;
+   }
+
+   public double getHitRate() {
+      long requests = hitCount + staleHitCount + missCount;
+      return requests == 0 ? 1.0 : (hitCount + staleHitCount) / (double) requests;
+   }
+
+   @Override
+   public String toString() {
+      return "[hits=" + hitCount + ", staleHits=" + staleHitCount + ", misses=" + missCount
+               + ", loadFailures=" + loadFailureCount + ", evictions=" + evictionCount
+               + ", invalidations=" + invalidationCount + ", size=" + size + "]";
+   }
+}
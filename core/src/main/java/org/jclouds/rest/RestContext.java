@@ -19,6 +19,7 @@
 package org.jclouds.rest;
 
 import java.net.URI;
+import java.util.Map;
 
 import org.jclouds.rest.internal.RestContextImpl;
 
@@ -57,6 +58,12 @@ public interface RestContext<S, A> {
 
    String getAccount();
 
+   /**
+    * @return how results of {@link org.jclouds.rest.annotations.Cached} methods were served so far,
+    *         keyed by {@code Interface.method}
+    */
+   Map<String, CacheStats> getCacheStats();
+
    /**
     * Closes all connections to Cloud Files.
     */
@@ -29,6 +29,7 @@ import java.util.Properties;
 import org.jclouds.concurrent.SingleThreaded;
 import org.jclouds.concurrent.config.ConfiguresExecutorService;
 import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.concurrent.config.ScheduledExecutorServiceModule;
 import org.jclouds.http.RequiresHttp;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
 import org.jclouds.http.config.JavaUrlHttpCommandExecutorServiceModule;
@@ -90,6 +91,7 @@ public abstract class RestContextBuilder<S, A> {
       addHttpModuleIfNeededAndNotPresent(modules);
       ifHttpConfigureRestOtherwiseGuiceClientFactory(modules);
       addExecutorServiceIfNotPresent(modules);
+      addScheduledExecutorServiceIfThreadedAndNotPresent(modules);
       modules.add(new AbstractModule() {
          @Override
          protected void configure() {
@@ -173,6 +175,18 @@ public abstract class RestContextBuilder<S, A> {
       }
    }
 
+   @VisibleForTesting
+   protected void addScheduledExecutorServiceIfThreadedAndNotPresent(final List<Module> modules) {
+      if (!Iterables.any(modules, Predicates.instanceOf(ScheduledExecutorServiceModule.class))
+               && !Iterables.any(modules, new Predicate<Module>() {
+                  public boolean apply(Module input) {
+                     return input.getClass().isAnnotationPresent(SingleThreaded.class);
+                  }
+               })) {
+         modules.add(new ScheduledExecutorServiceModule());
+      }
+   }
+
    @VisibleForTesting
    public Properties getProperties() {
       return properties;
@@ -0,0 +1,57 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rest.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Designates that results of this method are remembered per combination of arguments, for data
+ * which rarely changes. As every caller receives the same object, callers must not modify it;
+ * collections are handed out as read-only views.
+ * 
+ * @see InvalidatesCache
+ * @author Adrian Cole
+ */
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Cached {
+
+   /**
+    * how long a result is returned without going to the network.
+    */
+   long ttl();
+
+   TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+   /**
+    * how long after {@link #ttl} a result may still be returned, while a fresh one is fetched in
+    * the background. Zero waits for the network once the ttl passes.
+    */
+   long staleWhileRevalidate() default 0;
+
+   /**
+    * combinations of arguments remembered, beyond which the least recently used is forgotten.
+    */
+   int maxEntries() default 100;
+}
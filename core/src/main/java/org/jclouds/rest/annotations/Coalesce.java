@@ -0,0 +1,40 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rest.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Designates that identical {@code GET} or {@code HEAD} requests made while one is still in
+ * flight share its result, rather than each going to the network. Query apis which read through a
+ * form {@code POST} may opt in as well. As every caller receives the same object, callers must not
+ * modify it; collections are handed out as read-only views.
+ * 
+ * @author Adrian Cole
+ */
+@Target( { TYPE, METHOD })
+@Retention(RUNTIME)
+public @interface Coalesce {
+
+}
@@ -23,25 +23,45 @@ package org.jclouds.rest.internal;
  * 
  * @author Adrian Cole
  */
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 
 import javax.annotation.Resource;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.jclouds.Constants;
 import org.jclouds.concurrent.FutureExceptionParser;
 import org.jclouds.http.HttpResponse;
 import org.jclouds.http.TransformingHttpCommand;
+import org.jclouds.instrumentation.Instrumentation;
+import org.jclouds.instrumentation.Invocation;
 import org.jclouds.internal.ClassMethodArgs;
 import org.jclouds.logging.Logger;
 import org.jclouds.rest.InvocationContext;
+import org.jclouds.rest.annotations.Cached;
 import org.jclouds.rest.annotations.Delegate;
+import org.jclouds.rest.annotations.InvalidatesCache;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
@@ -62,9 +82,17 @@ public class AsyncRestClientProxy<T> implements InvocationHandler {
    @Named(Constants.PROPERTY_REQUEST_TIMEOUT)
    protected long requestTimeoutMilliseconds = 30000;
 
+   @Inject(optional = true)
+   protected Instrumentation instrumentation = Instrumentation.NONE;
+
+   @Inject(optional = true)
+   protected ResponseCache responseCache = new ResponseCache();
+
    @Resource
    protected Logger logger = Logger.NULL;
    private final ConcurrentMap<ClassMethodArgs, Object> delegateMap;
+   private final RequestCoalescer coalescer = new RequestCoalescer();
+   private final Map<Method, Invoker> invokers;
 
    @SuppressWarnings("unchecked")
    @Inject
@@ -76,33 +104,150 @@ public class AsyncRestClientProxy<T> implements InvocationHandler {
       this.declaring = (Class<T>) typeLiteral.getRawType();
       this.commandFactory = factory;
       this.delegateMap = delegateMap;
+      this.invokers = createInvokers();
    }
 
    public Object invoke(Object o, Method method, Object[] args) throws Throwable {
+      Invoker invoker = invokers.get(method);
+      if (invoker == null)
+         invoker = createInvoker(method);
+      return invoker.invoke(o, args);
+   }
+
+   /**
+    * answers one method of the proxied interface
+    */
+   static interface Invoker {
+      Object invoke(Object o, Object[] args) throws Throwable;
+   }
+
+   private Map<Method, Invoker> createInvokers() {
+      ImmutableMap.Builder<Method, Invoker> invokers = ImmutableMap.builder();
+      try {
+         for (Method method : new Method[] { Object.class.getMethod("equals", Object.class),
+                  Object.class.getMethod("hashCode"), Object.class.getMethod("toString") })
+            invokers.put(method, createInvoker(method));
+      } catch (NoSuchMethodException e) {
+         throw new AssertionError(e);
+      }
+      for (Method method : declaring.getMethods())
+         invokers.put(method, createInvoker(method));
+      return invokers.build();
+   }
+
+   private Invoker createInvoker(final Method method) {
       if (method.getName().equals("equals")) {
-         return this.equals(o);
+         return new Invoker() {
+            public Object invoke(Object o, Object[] args) {
+               return AsyncRestClientProxy.this.equals(o);
+            }
+         };
       } else if (method.getName().equals("toString")) {
-         return this.toString();
+         return new Invoker() {
+            public Object invoke(Object o, Object[] args) {
+               return AsyncRestClientProxy.this.toString();
+            }
+         };
       } else if (method.getName().equals("hashCode")) {
-         return this.hashCode();
+         return new Invoker() {
+            public Object invoke(Object o, Object[] args) {
+               return AsyncRestClientProxy.this.hashCode();
+            }
+         };
       } else if (method.getName().startsWith("new")) {
-         return injector.getInstance(method.getReturnType());
+         return new Invoker() {
+            public Object invoke(Object o, Object[] args) {
+               return injector.getInstance(method.getReturnType());
+            }
+         };
       } else if (method.isAnnotationPresent(Delegate.class)) {
-         return delegateMap.get(new ClassMethodArgs(method.getReturnType(), method, args));
+         return new Invoker() {
+            public Object invoke(Object o, Object[] args) {
+               return delegateMap.get(new ClassMethodArgs(method.getReturnType(), method, args));
+            }
+         };
       } else if (annotationProcessor.getDelegateOrNull(method) != null
                && ListenableFuture.class.isAssignableFrom(method.getReturnType())) {
-         return createFuture(method, args);
+         return new HttpInvoker(annotationProcessor.getDelegateOrNull(method));
       } else {
-         throw new RuntimeException("method is intended solely to set constants: " + method);
+         return new Invoker() {
+            public Object invoke(Object o, Object[] args) {
+               throw new RuntimeException("method is intended solely to set constants: " + method);
+            }
+         };
       }
    }
 
+   /**
+    * turns calls to an http method into commands. What can be known about the method before it
+    * is called is kept here, so that it is only worked out once.
+    */
+   private class HttpInvoker implements Invoker {
+      private final Method method;
+      private final boolean cached;
+      private final boolean invalidatesCache;
+      private final Function<Object, Object> readOnlyView;
+      private volatile Provider<? extends Function<Exception, ?>> exceptionParserProvider;
+      private volatile Provider<? extends Function<HttpResponse, ?>> responseParserProvider;
+
+      HttpInvoker(Method method) {
+         this.method = method;
+         this.cached = method.isAnnotationPresent(Cached.class);
+         this.invalidatesCache = method.isAnnotationPresent(InvalidatesCache.class);
+         this.readOnlyView = readOnlyViewFor(method);
+      }
+
+      public Object invoke(Object o, Object[] args) throws ExecutionException {
+         return createFuture(this, args);
+      }
+
+      // resolved on first use, as a method whose parsers can't be found should only fail when
+      // called
+      Function<Exception, ?> createExceptionParser() {
+         if (exceptionParserProvider == null)
+            exceptionParserProvider = annotationProcessor.getExceptionParserProvider(method);
+         return exceptionParserProvider.get();
+      }
+
+      Function<HttpResponse, ?> createResponseParser(GeneratedHttpRequest<T> request) {
+         if (responseParserProvider == null)
+            responseParserProvider = annotationProcessor.getResponseParserProvider(method);
+         Function<HttpResponse, ?> transformer = responseParserProvider.get();
+         if (transformer instanceof InvocationContext) {
+            ((InvocationContext) transformer).setContext(request);
+         }
+         return transformer;
+      }
+   }
+
+   private ListenableFuture<?> createFuture(final HttpInvoker invoker, final Object[] args)
+            throws ExecutionException {
+      if (invoker.cached) {
+         return responseCache.get(invoker.method, args, new Callable<ListenableFuture<?>>() {
+            public ListenableFuture<?> call() throws ExecutionException {
+               return createRequestAndFuture(invoker, args);
+            }
+         });
+      } else if (invoker.invalidatesCache) {
+         responseCache.invalidate(declaring, invoker.method);
+         ListenableFuture<?> result = createRequestAndFuture(invoker, args);
+         // reads which overlapped the change may have cached what it replaced
+         result.addListener(new Runnable() {
+            public void run() {
+               responseCache.invalidate(declaring, invoker.method);
+            }
+         }, sameThreadExecutor());
+         return result;
+      }
+      return createRequestAndFuture(invoker, args);
+   }
+
    @SuppressWarnings("unchecked")
-   private ListenableFuture<?> createFuture(Method method, Object[] args) throws ExecutionException {
-      method = annotationProcessor.getDelegateOrNull(method);
+   private ListenableFuture<?> createRequestAndFuture(HttpInvoker invoker, Object[] args)
+            throws ExecutionException {
+      Method method = invoker.method;
       logger.trace("Converting %s.%s", declaring.getSimpleName(), method.getName());
-      Function<Exception, ?> exceptionParser = annotationProcessor
-               .createExceptionParserOrThrowResourceNotFoundOn404IfNoAnnotation(method);
+      Function<Exception, ?> exceptionParser = invoker.createExceptionParser();
       // in case there is an exception creating the request, we should at least pass in args
       if (exceptionParser instanceof InvocationContext) {
          ((InvocationContext) exceptionParser).setContext(null);
@@ -126,22 +271,117 @@ public class AsyncRestClientProxy<T> implements InvocationHandler {
       logger.trace("Converted %s.%s to %s", declaring.getSimpleName(), method.getName(), request
                .getRequestLine());
 
-      Function<HttpResponse, ?> transformer = annotationProcessor.createResponseParser(method,
-               request);
+      if (RequestCoalescer.shouldCoalesce(declaring, method, request)) {
+         final HttpInvoker coalescedInvoker = invoker;
+         final Object[] coalescedArgs = args;
+         final GeneratedHttpRequest<T> coalescedRequest = request;
+         final Function<Exception, ?> coalescedExceptionParser = exceptionParser;
+         return coalescer.coalesce(method, request, new Callable<ListenableFuture<?>>() {
+            public ListenableFuture<?> call() throws ExecutionException {
+               return execute(coalescedInvoker, coalescedArgs, coalescedRequest,
+                        coalescedExceptionParser, true);
+            }
+         });
+      }
+      return execute(invoker, args, request, exceptionParser, invoker.cached);
+   }
+
+   /**
+    * @param shared
+    *           whether the result will be handed to more than one caller
+    */
+   @SuppressWarnings("unchecked")
+   private ListenableFuture<?> execute(HttpInvoker invoker, Object[] args,
+            GeneratedHttpRequest<T> request, Function<Exception, ?> exceptionParser,
+            boolean shared) throws ExecutionException {
+      Method method = invoker.method;
+      Function<HttpResponse, ?> transformer = invoker.createResponseParser(request);
       logger.trace("Response from %s.%s is parsed by %s", declaring.getSimpleName(), method
                .getName(), transformer.getClass().getSimpleName());
 
       logger.debug("Invoking %s.%s", declaring.getSimpleName(), method.getName());
-      ListenableFuture<?> result = commandFactory.create(request, transformer).execute();
+      TransformingHttpCommand<?> command = commandFactory.create(request, transformer);
+      if (instrumentation != Instrumentation.NONE) {
+         Invocation invocation = instrumentation.start(declaring, method, args != null ? args.length
+                  : 0);
+         command.setInvocation(invocation);
+      }
+      ListenableFuture<?> result = command.execute();
 
       if (exceptionParser != null) {
          logger.trace("Exceptions from %s.%s are parsed by %s", declaring.getSimpleName(), method
                   .getName(), exceptionParser.getClass().getSimpleName());
          result = new FutureExceptionParser(result, exceptionParser);
       }
+      if (shared && invoker.readOnlyView != null)
+         result = Futures.compose((ListenableFuture<Object>) result, invoker.readOnlyView);
       return result;
    }
 
+   /**
+    * Every caller of a cached or coalesced method receives the same result, so collections are
+    * handed out as read-only views; one caller can't change what the others see. Only methods
+    * declared to return a plain {@code Set}, {@code SortedSet}, {@code List}, {@code Map} or
+    * {@code SortedMap} are wrapped, as domain types which implement a collection, such as a
+    * vCloud {@code Catalog}, would lose their type.
+    * 
+    * @return the view for results of {@code method}, or null if they are returned as they are
+    */
+   @VisibleForTesting
+   static Function<Object, Object> readOnlyViewFor(Method method) {
+      Type type = method.getGenericReturnType();
+      if (!(type instanceof ParameterizedType))
+         return null;
+      Type result = ((ParameterizedType) type).getActualTypeArguments()[0];
+      if (result instanceof WildcardType)
+         result = ((WildcardType) result).getUpperBounds()[0];
+      if (result instanceof ParameterizedType)
+         result = ((ParameterizedType) result).getRawType();
+      return READ_ONLY_VIEWS.get(result);
+   }
+
+   private abstract static class ReadOnlyView implements Function<Object, Object> {
+      public Object apply(Object from) {
+         if (from == null || from instanceof ImmutableCollection<?>
+                  || from instanceof ImmutableMap<?, ?>)
+            return from;
+         return view(from);
+      }
+
+      abstract Object view(Object from);
+   }
+
+   @SuppressWarnings("unchecked")
+   private static final Map<Type, Function<Object, Object>> READ_ONLY_VIEWS = ImmutableMap
+            .<Type, Function<Object, Object>> of(Set.class, new ReadOnlyView() {
+               Object view(Object from) {
+                  return Collections.unmodifiableSet((Set<Object>) from);
+               }
+            }, SortedSet.class, new ReadOnlyView() {
+               Object view(Object from) {
+                  return Collections.unmodifiableSortedSet((SortedSet<Object>) from);
+               }
+            }, List.class, new ReadOnlyView() {
+               Object view(Object from) {
+                  return Collections.unmodifiableList((List<Object>) from);
+               }
+            }, Map.class, new ReadOnlyView() {
+               Object view(Object from) {
+                  return Collections.unmodifiableMap((Map<Object, Object>) from);
+               }
+            }, SortedMap.class, new ReadOnlyView() {
+               Object view(Object from) {
+                  return Collections.unmodifiableSortedMap((SortedMap<Object, Object>) from);
+               }
+            });
+
+   /**
+    * @return the cache shared by rest clients of this context
+    */
+   public ResponseCache getResponseCache() {
+      return responseCache;
+   }
+
    public static interface Factory {
       public TransformingHttpCommand<?> create(GeneratedHttpRequest<?> request,
                Function<HttpResponse, ?> transformer);
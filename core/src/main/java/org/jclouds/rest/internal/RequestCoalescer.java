@@ -0,0 +1,141 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.jclouds.concurrent.ConcurrentUtils.follow;
+import static org.jclouds.concurrent.ConcurrentUtils.forward;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.ws.rs.HttpMethod;
+
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.rest.annotations.Coalesce;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Lets identical requests made while one is in flight share its parsed result.
+ * <p/>
+ * Requests are identical when they come from the same method and have the same http method,
+ * endpoint, headers and form. Headers are compared before request filters run, so per-attempt headers
+ * such as signatures and dates don't prevent a match. Each caller gets its own future, so
+ * cancelling one doesn't affect the others; the shared call runs to completion regardless.
+ * 
+ * @see Coalesce
+ * @author Adrian Cole
+ */
+class RequestCoalescer {
+   private final ConcurrentMap<Key, ListenableFuture<?>> inFlight =
+            new ConcurrentHashMap<Key, ListenableFuture<?>>();
+
+   /**
+    * @return true if {@code method} opted in, and {@code request} is a {@code GET} or
+    *         {@code HEAD}, or a query-style {@code POST} whose form can be compared
+    */
+   static boolean shouldCoalesce(Class<?> declaring, Method method, HttpRequest request) {
+      if (!declaring.isAnnotationPresent(Coalesce.class)
+               && !method.isAnnotationPresent(Coalesce.class))
+         return false;
+      if (HttpMethod.GET.equals(request.getMethod())
+               || HttpMethod.HEAD.equals(request.getMethod()))
+         return true;
+      return HttpMethod.POST.equals(request.getMethod()) && request.getPayload() != null
+               && request.getPayload().getRawContent() instanceof String;
+   }
+
+   /**
+    * @param call
+    *           sends {@code request}, if an identical one isn't already in flight
+    * @return a future result of the call in flight for this request
+    */
+   ListenableFuture<?> coalesce(Method method, HttpRequest request,
+            Callable<ListenableFuture<?>> call) throws ExecutionException {
+      final Key key = new Key(method, request);
+      final SettableListenableFuture<Object> shared = new SettableListenableFuture<Object>();
+      ListenableFuture<?> existing = inFlight.putIfAbsent(key, shared);
+      if (existing != null)
+         return follow(existing);
+      final ListenableFuture<?> result;
+      try {
+         result = call.call();
+      } catch (Exception e) {
+         inFlight.remove(key, shared);
+         shared.setException(e);
+         Throwables.propagateIfInstanceOf(e, ExecutionException.class);
+         throw Throwables.propagate(e);
+      }
+      result.addListener(new Runnable() {
+         public void run() {
+            // remove first, so that requests from now on aren't given a stale result
+            inFlight.remove(key, shared);
+            forward(result, shared);
+         }
+      }, sameThreadExecutor());
+      return follow(shared);
+   }
+
+   int inFlight() {
+      return inFlight.size();
+   }
+
+   static class Key {
+      private final Method method;
+      private final String httpMethod;
+      private final URI endpoint;
+      private final Multimap<String, String> headers;
+      private final Object form;
+
+      Key(Method method, HttpRequest request) {
+         this.method = method;
+         this.httpMethod = request.getMethod();
+         this.endpoint = request.getEndpoint();
+         this.headers = ImmutableMultimap.copyOf(request.getHeaders());
+         this.form = request.getPayload() != null ? request.getPayload().getRawContent() : null;
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hashCode(method, httpMethod, endpoint, headers, form);
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (this == obj)
+            return true;
+         if (!(obj instanceof Key))
+            return false;
+         Key other = (Key) obj;
+         return method.equals(other.method) && httpMethod.equals(other.httpMethod)
+                  && endpoint.equals(other.endpoint) && headers.equals(other.headers)
+                  && Objects.equal(form, other.form);
+      }
+   }
+}
@@ -0,0 +1,279 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rest.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.jclouds.concurrent.ConcurrentUtils.follow;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Resource;
+import javax.inject.Singleton;
+
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.CacheStats;
+import org.jclouds.rest.annotations.Cached;
+import org.jclouds.rest.annotations.InvalidatesCache;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Remembers results of {@link Cached} methods for every rest client of a context.
+ * <p/>
+ * A result is remembered from the moment it is requested, so callers arriving while it is fetched
+ * share the same call. Failures are not remembered. Once stale, a result is refreshed in the
+ * background by the first caller to notice, while others keep receiving it.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class ResponseCache {
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   private final Map<Method, MethodCache> caches = new MapMaker()
+            .makeComputingMap(new Function<Method, MethodCache>() {
+               public MethodCache apply(Method method) {
+                  return new MethodCache(method.getAnnotation(Cached.class));
+               }
+            });
+
+   /**
+    * @param loader
+    *           fetches the result, when it isn't remembered or needs a refresh
+    * @return a future result of {@code method} called with {@code args}
+    */
+   ListenableFuture<?> get(Method method, Object[] args, Callable<ListenableFuture<?>> loader) {
+      return caches.get(method).get(new Key(args), loader);
+   }
+
+   /**
+    * forgets results of the cached methods which {@code mutator}, an {@link InvalidatesCache}
+    * method of {@code declaring}, affects.
+    */
+   void invalidate(Class<?> declaring, Method mutator) {
+      Set<String> names = ImmutableSet.of(mutator.getAnnotation(InvalidatesCache.class).value());
+      for (Map.Entry<Method, MethodCache> entry : caches.entrySet()) {
+         Method cached = entry.getKey();
+         if (cached.getDeclaringClass().isAssignableFrom(declaring)
+                  && (names.isEmpty() || names.contains(cached.getName()))) {
+            logger.debug("%s invalidates %s", mutator.getName(), cached.getName());
+            entry.getValue().invalidateAll();
+         }
+      }
+   }
+
+   /**
+    * @return statistics of each cached method used so far, keyed by {@code Interface.method}
+    */
+   public SortedMap<String, CacheStats> getStats() {
+      SortedMap<String, CacheStats> stats = Maps.newTreeMap();
+      for (Map.Entry<Method, MethodCache> entry : caches.entrySet())
+         stats.put(entry.getKey().getDeclaringClass().getSimpleName() + "."
+                  + entry.getKey().getName(), entry.getValue().stats());
+      return ImmutableSortedMap.copyOfSorted(stats);
+   }
+
+   public void invalidateAll() {
+      for (MethodCache cache : caches.values())
+         cache.invalidateAll();
+   }
+
+   static class MethodCache {
+      private final long ttlNanos;
+      private final long staleNanos;
+      private final Map<Key, Entry> entries;
+
+      // guarded by entries
+      private long hits;
+      private long staleHits;
+      private long misses;
+      private long loadFailures;
+      private long evictions;
+      private long invalidations;
+
+      MethodCache(Cached cached) {
+         this.ttlNanos = cached.timeUnit().toNanos(cached.ttl());
+         this.staleNanos = cached.timeUnit().toNanos(cached.staleWhileRevalidate());
+         final int maxEntries = cached.maxEntries();
+         this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+               if (size() <= maxEntries)
+                  return false;
+               evictions++;
+               return true;
+            }
+         };
+      }
+
+      ListenableFuture<?> get(Key key, Callable<ListenableFuture<?>> loader) {
+         long now = System.nanoTime();
+         Entry entry;
+         synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null) {
+               long age = now - entry.loadedAt;
+               if (!entry.isLoaded() || age < ttlNanos) {
+                  hits++;
+                  return follow(entry.future);
+               } else if (age < ttlNanos + staleNanos) {
+                  staleHits++;
+                  if (entry.refreshing)
+                     return follow(entry.future);
+                  entry.refreshing = true;
+               } else {
+                  entry = null;
+               }
+            }
+            if (entry == null) {
+               misses++;
+               entry = new Entry();
+               entries.put(key, entry);
+            }
+         }
+         if (entry.isLoaded()) {
+            refresh(key, entry, loader);
+         } else {
+            load(key, entry, loader);
+         }
+         return follow(entry.future);
+      }
+
+      private void load(final Key key, final Entry entry, Callable<ListenableFuture<?>> loader) {
+         final ListenableFuture<?> result = call(loader);
+         result.addListener(new Runnable() {
+            public void run() {
+               try {
+                  Object value = result.get();
+                  entry.loadedAt = System.nanoTime();
+                  entry.future.set(value);
+               } catch (Exception e) {
+                  synchronized (entries) {
+                     loadFailures++;
+                     if (entries.get(key) == entry)
+                        entries.remove(key);
+                  }
+                  entry.future.setException(e instanceof ExecutionException ? e.getCause() : e);
+               }
+            }
+         }, sameThreadExecutor());
+      }
+
+      /**
+       * replaces {@code stale} once a fresh result arrives; until then, or if the refresh fails,
+       * callers keep getting {@code stale}.
+       */
+      private void refresh(final Key key, final Entry stale, Callable<ListenableFuture<?>> loader) {
+         final ListenableFuture<?> result = call(loader);
+         result.addListener(new Runnable() {
+            public void run() {
+               Entry fresh = new Entry();
+               try {
+                  Object value = result.get();
+                  fresh.loadedAt = System.nanoTime();
+                  fresh.future.set(value);
+               } catch (Exception e) {
+                  fresh = null;
+               }
+               synchronized (entries) {
+                  stale.refreshing = false;
+                  if (fresh == null)
+                     loadFailures++;
+                  else if (entries.get(key) == stale)
+                     entries.put(key, fresh);
+               }
+            }
+         }, sameThreadExecutor());
+      }
+
+      private static ListenableFuture<?> call(Callable<ListenableFuture<?>> loader) {
+         try {
+            return loader.call();
+         } catch (Exception e) {
+            SettableListenableFuture<Object> failed = new SettableListenableFuture<Object>();
+            failed.setException(e);
+            return failed;
+         }
+      }
+
+      void invalidateAll() {
+         synchronized (entries) {
+            invalidations += entries.size();
+            entries.clear();
+         }
+      }
+
+      CacheStats stats() {
+         synchronized (entries) {
+            return new CacheStats(hits, staleHits, misses, loadFailures, evictions, invalidations,
+                     entries.size());
+         }
+      }
+   }
+
+   static class Entry {
+      final SettableListenableFuture<Object> future = new SettableListenableFuture<Object>();
+      /**
+       * {@link System#nanoTime} the result arrived, or {@link Long#MIN_VALUE} until then
+       */
+      volatile long loadedAt = Long.MIN_VALUE;
+      boolean refreshing;
+
+      boolean isLoaded() {
+         return loadedAt != Long.MIN_VALUE;
+      }
+   }
+
+   /**
+    * arguments compared by value, including the contents of varargs arrays
+    */
+   static class Key {
+      private final Object[] args;
+
+      Key(Object[] args) {
+         this.args = args == null ? new Object[0] : args.clone();
+      }
+
+      @Override
+      public int hashCode() {
+         return Arrays.deepHashCode(args);
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         return obj instanceof Key && Arrays.deepEquals(args, ((Key) obj).args);
+      }
+   }
+}
@@ -226,27 +226,49 @@ public class RestAnnotationProcessor<T> {
    @VisibleForTesting
    public Function<HttpResponse, ?> createResponseParser(Method method,
             GeneratedHttpRequest<T> request) {
-      Function<HttpResponse, ?> transformer;
-      Class<? extends HandlerWithResult<?>> handler = getSaxResponseParserClassOrNull(method);
-      if (handler != null) {
-         transformer = parserFactory.create(injector.getInstance(handler));
-      } else {
-         transformer = injector.getInstance(getParserOrThrowException(method));
-      }
+      Function<HttpResponse, ?> transformer = getResponseParserProvider(method).get();
       if (transformer instanceof InvocationContext) {
          ((InvocationContext) transformer).setContext(request);
       }
       return transformer;
    }
 
+   /**
+    * Resolves the response parser of {@code method} once, for callers that parse many responses
+    * of it. Parsers which are an {@link InvocationContext} still need their request set.
+    */
+   public Provider<? extends Function<HttpResponse, ?>> getResponseParserProvider(Method method) {
+      Class<? extends HandlerWithResult<?>> handler = getSaxResponseParserClassOrNull(method);
+      if (handler != null) {
+         final Provider<? extends HandlerWithResult<?>> handlerProvider = injector
+                  .getProvider(handler);
+         return new Provider<Function<HttpResponse, ?>>() {
+            public Function<HttpResponse, ?> get() {
+               return parserFactory.create(handlerProvider.get());
+            }
+         };
+      }
+      return injector.getProvider(getParserOrThrowException(method));
+   }
+
    @VisibleForTesting
    public Function<Exception, ?> createExceptionParserOrThrowResourceNotFoundOn404IfNoAnnotation(
             Method method) {
+      return getExceptionParserProvider(method).get();
+   }
+
+   /**
+    * Resolves the exception parser of {@code method} once, for callers that parse many failures
+    * of it.
+    * 
+    * @see #createExceptionParserOrThrowResourceNotFoundOn404IfNoAnnotation
+    */
+   public Provider<? extends Function<Exception, ?>> getExceptionParserProvider(Method method) {
       ExceptionParser annotation = method.getAnnotation(ExceptionParser.class);
       if (annotation != null) {
-         return injector.getInstance(annotation.value());
+         return injector.getProvider(annotation.value());
       }
-      return injector.getInstance(MapHttp4xxCodesToExceptions.class);
+      return injector.getProvider(MapHttp4xxCodesToExceptions.class);
    }
 
    @SuppressWarnings("unchecked")
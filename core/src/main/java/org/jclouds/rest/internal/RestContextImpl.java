@@ -19,15 +19,21 @@
 package org.jclouds.rest.internal;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
 import java.net.URI;
+import java.util.Map;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
 
 import org.jclouds.lifecycle.Closer;
 import org.jclouds.logging.Logger;
+import org.jclouds.rest.CacheStats;
 import org.jclouds.rest.RestContext;
 
+import com.google.common.collect.ImmutableMap;
+
 /**
  * @author Adrian Cole
  */
@@ -79,4 +85,18 @@ public class RestContextImpl<S, A> implements RestContext<S, A> {
       return endPoint;
    }
 
+   /**
+    * {@inheritDoc}
+    * 
+    * Statistics come from the {@link ResponseCache} behind the async api, if it is a rest client.
+    */
+   public Map<String, CacheStats> getCacheStats() {
+      if (asyncApi != null && Proxy.isProxyClass(asyncApi.getClass())) {
+         InvocationHandler handler = Proxy.getInvocationHandler(asyncApi);
+         if (handler instanceof AsyncRestClientProxy<?>)
+            return ((AsyncRestClientProxy<?>) handler).getResponseCache().getStats();
+      }
+      return ImmutableMap.of();
+   }
+
 }
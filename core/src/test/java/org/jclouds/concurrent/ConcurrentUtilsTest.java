@@ -0,0 +1,89 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.concurrent;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.jclouds.concurrent.ConcurrentUtils.allAsList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests behavior of ConcurrentUtils
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "concurrent.ConcurrentUtilsTest")
+public class ConcurrentUtilsTest {
+   ExecutorService executorService = sameThreadExecutor();
+
+   public void testAllAsListEmpty() throws InterruptedException, ExecutionException {
+      List<ListenableFuture<String>> empty = ImmutableList.of();
+      assertEquals(allAsList(empty, executorService).get(), ImmutableList.of());
+   }
+
+   public void testAllAsListCompletesWhenLastInputDoes() throws InterruptedException,
+            ExecutionException {
+      SettableListenableFuture<String> first = new SettableListenableFuture<String>();
+      SettableListenableFuture<String> second = new SettableListenableFuture<String>();
+      ListenableFuture<List<String>> all = allAsList(ImmutableList.of(first, second),
+               executorService);
+      second.set("b");
+      assertFalse(all.isDone());
+      first.set("a");
+      assertTrue(all.isDone());
+      assertEquals(all.get(), ImmutableList.of("a", "b"));
+   }
+
+   @Test(expectedExceptions = ExecutionException.class)
+   public void testAllAsListFailsOnFirstFailure() throws InterruptedException,
+            ExecutionException {
+      SettableListenableFuture<String> first = new SettableListenableFuture<String>();
+      SettableListenableFuture<String> second = new SettableListenableFuture<String>();
+      ListenableFuture<List<String>> all = allAsList(ImmutableList.of(first, second),
+               executorService);
+      second.setException(new IllegalStateException());
+      assertTrue(all.isDone());
+      all.get();
+   }
+
+   public void testSettableRunsListenersOnSet() {
+      SettableListenableFuture<String> future = new SettableListenableFuture<String>();
+      final int[] calls = new int[1];
+      future.addListener(new Runnable() {
+         public void run() {
+            calls[0]++;
+         }
+      }, executorService);
+      assertEquals(calls[0], 0);
+      future.set("a");
+      assertEquals(calls[0], 1);
+      assertFalse(future.set("b"));
+      assertEquals(calls[0], 1);
+   }
+}
@@ -0,0 +1,324 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.concurrent;
+
+import static org.easymock.EasyMock.anyLong;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.jclouds.concurrent.PrefetchingConsumer.MAX_IDLE_DELAY_MILLIS;
+import static org.jclouds.concurrent.PrefetchingConsumer.MIN_IDLE_DELAY_MILLIS;
+import static org.jclouds.concurrent.PrefetchingConsumer.RETRY_DELAY_MILLIS;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.easymock.IAnswer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests behavior of {@code PrefetchingConsumer}. Workers and the scheduler only run when the test
+ * says so, and the queue hides fetched messages until they are deleted or the test expires them.
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", sequential = true, testName = "concurrent.PrefetchingConsumerTest")
+public class PrefetchingConsumerTest {
+
+   private FakeQueue queue;
+   private ManualExecutor workers;
+   private ScheduledExecutorService scheduler;
+   private List<Runnable> scheduled;
+   private List<Long> delays;
+
+   @BeforeMethod
+   void setUp() {
+      queue = new FakeQueue();
+      workers = new ManualExecutor();
+      scheduled = Lists.newArrayList();
+      delays = Lists.newArrayList();
+      scheduler = createMock(ScheduledExecutorService.class);
+      // the scheduled future is a wildcard type, which EasyMock cannot otherwise stub
+      expect((Object) scheduler.schedule(isA(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS)))
+               .andAnswer(new IAnswer<Object>() {
+                  public Object answer() {
+                     scheduled.add((Runnable) getCurrentArguments()[0]);
+                     delays.add((Long) getCurrentArguments()[1]);
+                     return null;
+                  }
+               }).anyTimes();
+      replay(scheduler);
+   }
+
+   public void testFetchesPauseWhileWorkersFallBehind() {
+      queue.add("0", "1", "2", "3", "4");
+      PrefetchingConsumer<String> consumer = consumer(Predicates.<String> alwaysTrue(), 2).start();
+
+      // two fetches of two fill the backlog of twice what one fetch returns
+      assertEquals(queue.fetches, 2);
+      assertEquals(consumer.getOutstanding(), 4);
+
+      workers.runNext();
+      assertEquals(queue.fetches, 3);
+      assertEquals(consumer.getOutstanding(), 4);
+
+      workers.runAll();
+      assertEquals(consumer.getOutstanding(), 0);
+      assertEquals(consumer.getProcessedCount(), 5);
+      assertEquals(queue.size(), 0);
+   }
+
+   public void testAcceptedMessagesOfAFetchAreDeletedTogether() {
+      queue.add("0", "1", "2", "3", "4");
+      PrefetchingConsumer<String> consumer = consumer(Predicates.<String> alwaysTrue(), 2).start();
+      workers.runAll();
+
+      assertEquals(queue.deletes, ImmutableList.of(ImmutableList.of("0", "1"), ImmutableList.of(
+               "2", "3"), ImmutableList.of("4")));
+      assertEquals(consumer.getDeletedCount(), 5);
+      assertEquals(consumer.getDeleteErrorCount(), 0);
+   }
+
+   public void testRejectedMessagesAreRedeliveredAfterTheirVisibilityTimeout() {
+      queue.add("accept", "reject", "throw");
+      final Set<String> seen = Sets.newHashSet();
+      PrefetchingConsumer<String> consumer = consumer(new Predicate<String>() {
+         public boolean apply(String input) {
+            if (!seen.add(input) || input.equals("accept"))
+               return true;
+            if (input.equals("throw"))
+               throw new RuntimeException("boom");
+            return false;
+         }
+      }, 10).start();
+      workers.runAll();
+
+      assertEquals(consumer.getProcessedCount(), 1);
+      assertEquals(consumer.getRejectedCount(), 2);
+      assertEquals(queue.size(), 2);
+
+      queue.expire();
+      runScheduled();
+      workers.runAll();
+
+      assertEquals(consumer.getReceivedCount(), 5);
+      assertEquals(consumer.getProcessedCount(), 3);
+      assertEquals(consumer.getDeletedCount(), 3);
+      assertEquals(queue.size(), 0);
+   }
+
+   public void testEmptyQueueBacksOff() {
+      PrefetchingConsumer<String> consumer = consumer(Predicates.<String> alwaysTrue(), 10).start();
+      for (int i = 0; i < 3; i++)
+         runScheduled();
+      assertEquals(delays, ImmutableList.of(MIN_IDLE_DELAY_MILLIS, 2 * MIN_IDLE_DELAY_MILLIS,
+               4 * MIN_IDLE_DELAY_MILLIS, 8 * MIN_IDLE_DELAY_MILLIS));
+
+      for (int i = 0; i < 10; i++)
+         runScheduled();
+      assertEquals(last(delays), MAX_IDLE_DELAY_MILLIS);
+
+      queue.add("wake");
+      runScheduled();
+      workers.runAll();
+      assertEquals(consumer.getProcessedCount(), 1);
+      // the next empty answer starts over
+      assertEquals(last(delays), MIN_IDLE_DELAY_MILLIS);
+   }
+
+   public void testFetchErrorsAreRetriedLater() {
+      queue.add("0");
+      queue.throwOnFetch = new RuntimeException("thrown");
+      queue.failFetch = new RuntimeException("failed future");
+      PrefetchingConsumer<String> consumer = consumer(Predicates.<String> alwaysTrue(), 10).start();
+      assertEquals(consumer.getFetchErrorCount(), 1);
+      assertEquals(delays, ImmutableList.of(RETRY_DELAY_MILLIS));
+
+      runScheduled();
+      assertEquals(consumer.getFetchErrorCount(), 2);
+
+      runScheduled();
+      workers.runAll();
+      assertEquals(consumer.getProcessedCount(), 1);
+   }
+
+   public void testRejectedWorkIsRetriedLater() {
+      queue.add("0", "1");
+      workers.rejecting = true;
+      PrefetchingConsumer<String> consumer = consumer(Predicates.<String> alwaysTrue(), 10).start();
+
+      assertEquals(consumer.getFetchErrorCount(), 1);
+      assertEquals(consumer.getRejectedCount(), 2);
+      assertEquals(consumer.getOutstanding(), 0);
+      assertEquals(delays, ImmutableList.of(RETRY_DELAY_MILLIS));
+
+      workers.rejecting = false;
+      queue.expire();
+      runScheduled();
+      workers.runAll();
+      assertEquals(consumer.getProcessedCount(), 2);
+      assertEquals(queue.size(), 0);
+   }
+
+   public void testDeleteFailuresAreCounted() {
+      queue.add("0", "1");
+      queue.failDeletes = true;
+      PrefetchingConsumer<String> consumer = consumer(Predicates.<String> alwaysTrue(), 10).start();
+      workers.runAll();
+
+      assertEquals(consumer.getProcessedCount(), 2);
+      assertEquals(consumer.getDeletedCount(), 0);
+      assertEquals(consumer.getDeleteErrorCount(), 2);
+   }
+
+   public void testCloseStopsFetching() {
+      PrefetchingConsumer<String> consumer = consumer(Predicates.<String> alwaysTrue(), 10).start();
+      consumer.close();
+      queue.add("0");
+      runScheduled();
+
+      assertEquals(queue.fetches, 1);
+      assertEquals(consumer.getReceivedCount(), 0);
+   }
+
+   private PrefetchingConsumer<String> consumer(Predicate<String> handler, int perFetch) {
+      return new PrefetchingConsumer<String>("queue", queue.fetch(perFetch), queue.delete(),
+               handler, workers, scheduler, 1, perFetch, false);
+   }
+
+   private void runScheduled() {
+      List<Runnable> toRun = Lists.newArrayList(scheduled);
+      scheduled.clear();
+      for (Runnable task : toRun)
+         task.run();
+   }
+
+   private static <T> T last(List<T> list) {
+      return list.get(list.size() - 1);
+   }
+
+   /**
+    * runs tasks only when asked to
+    */
+   static class ManualExecutor implements Executor {
+      private final LinkedList<Runnable> tasks = Lists.newLinkedList();
+      boolean rejecting;
+
+      public void execute(Runnable command) {
+         if (rejecting)
+            throw new RejectedExecutionException();
+         tasks.add(command);
+      }
+
+      void runNext() {
+         tasks.removeFirst().run();
+      }
+
+      void runAll() {
+         while (!tasks.isEmpty())
+            runNext();
+      }
+   }
+
+   /**
+    * a queue whose fetched messages stay hidden until they are deleted or expired
+    */
+   static class FakeQueue {
+      private final LinkedList<String> visible = Lists.newLinkedList();
+      private final Set<String> hidden = Sets.newLinkedHashSet();
+      private final List<List<String>> deletes = Lists.newArrayList();
+      private int fetches;
+      private RuntimeException throwOnFetch;
+      private RuntimeException failFetch;
+      private boolean failDeletes;
+
+      void add(String... messages) {
+         for (String message : messages)
+            visible.add(message);
+      }
+
+      /**
+       * the visibility timeout of every hidden message passes
+       */
+      void expire() {
+         visible.addAll(hidden);
+         hidden.clear();
+      }
+
+      int size() {
+         return visible.size() + hidden.size();
+      }
+
+      Supplier<ListenableFuture<? extends Collection<String>>> fetch(final int max) {
+         return new Supplier<ListenableFuture<? extends Collection<String>>>() {
+            public ListenableFuture<? extends Collection<String>> get() {
+               fetches++;
+               RuntimeException e = throwOnFetch;
+               if (e != null) {
+                  throwOnFetch = null;
+                  throw e;
+               }
+               e = failFetch;
+               if (e != null) {
+                  failFetch = null;
+                  return Futures.<Collection<String>> immediateFailedFuture(e);
+               }
+               List<String> fetched = Lists.newArrayList();
+               while (fetched.size() < max && !visible.isEmpty())
+                  fetched.add(visible.removeFirst());
+               hidden.addAll(fetched);
+               return Futures.immediateFuture(fetched);
+            }
+         };
+      }
+
+      Function<List<String>, ListenableFuture<Integer>> delete() {
+         return new Function<List<String>, ListenableFuture<Integer>>() {
+            public ListenableFuture<Integer> apply(List<String> accepted) {
+               if (failDeletes)
+                  return Futures.<Integer> immediateFailedFuture(new RuntimeException("gone"));
+               deletes.add(ImmutableList.copyOf(accepted));
+               hidden.removeAll(accepted);
+               return Futures.immediateFuture(accepted.size());
+            }
+         };
+      }
+   }
+}
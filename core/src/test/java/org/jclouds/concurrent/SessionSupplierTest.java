@@ -0,0 +1,147 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.concurrent;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests behavior of SessionSupplier
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "concurrent.SessionSupplierTest")
+public class SessionSupplierTest {
+
+   static class CountingLogin implements Supplier<String> {
+      final AtomicInteger count = new AtomicInteger();
+
+      public String get() {
+         return "token" + count.incrementAndGet();
+      }
+   }
+
+   public void testCachesUntilRefresh() throws InterruptedException {
+      CountingLogin login = new CountingLogin();
+      SessionSupplier<String> supplier = new SessionSupplier<String>(login, 1000, 500,
+               TimeUnit.MILLISECONDS, sameThreadExecutor());
+      for (int i = 0; i < 10; i++)
+         assertEquals(supplier.get(), "token1");
+      Thread.sleep(600);
+      // refreshed in the "background", which here is the calling thread
+      supplier.get();
+      assertEquals(supplier.get(), "token2");
+      assertEquals(login.count.get(), 2);
+   }
+
+   public void testServesStaleSessionWhileRefreshing() throws InterruptedException {
+      final CountDownLatch refreshing = new CountDownLatch(1);
+      final CountDownLatch release = new CountDownLatch(1);
+      final AtomicInteger count = new AtomicInteger();
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+         SessionSupplier<String> supplier = new SessionSupplier<String>(new Supplier<String>() {
+            public String get() {
+               if (count.incrementAndGet() > 1) {
+                  refreshing.countDown();
+                  try {
+                     release.await();
+                  } catch (InterruptedException e) {
+                     Thread.currentThread().interrupt();
+                  }
+               }
+               return "token" + count.get();
+            }
+         }, 10000, 0, TimeUnit.MILLISECONDS, executor);
+         assertEquals(supplier.get(), "token1");
+         assertEquals(supplier.get(), "token1");
+         refreshing.await();
+         assertEquals(supplier.get(), "token1");
+         release.countDown();
+         assertEquals(count.get(), 2);
+      } finally {
+         release.countDown();
+         executor.shutdownNow();
+      }
+   }
+
+   public void testConcurrentCallersShareOneLogin() throws Exception {
+      final CountDownLatch start = new CountDownLatch(1);
+      final AtomicInteger count = new AtomicInteger();
+      final SessionSupplier<String> supplier = new SessionSupplier<String>(
+               new Supplier<String>() {
+                  public String get() {
+                     count.incrementAndGet();
+                     try {
+                        Thread.sleep(100);
+                     } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                     }
+                     return "token";
+                  }
+               }, 1, TimeUnit.MINUTES, sameThreadExecutor());
+      ExecutorService callers = Executors.newFixedThreadPool(10);
+      try {
+         List<Future<String>> results = Lists.newArrayList();
+         for (int i = 0; i < 10; i++)
+            results.add(callers.submit(new Callable<String>() {
+               public String call() throws Exception {
+                  start.await();
+                  return supplier.get();
+               }
+            }));
+         start.countDown();
+         for (Future<String> result : results)
+            assertEquals(result.get(), "token");
+         assertEquals(count.get(), 1);
+         assertEquals(supplier.getStatistics().get("logins"), new Long(1));
+      } finally {
+         callers.shutdownNow();
+      }
+   }
+
+   public void testInvalidateIfOnlyDiscardsMatchingSession() {
+      CountingLogin login = new CountingLogin();
+      SessionSupplier<String> supplier = new SessionSupplier<String>(login, 1, TimeUnit.MINUTES,
+               sameThreadExecutor());
+      assertEquals(supplier.get(), "token1");
+      assertEquals(supplier.invalidateIf(Predicates.equalTo("token0")), false);
+      assertEquals(supplier.get(), "token1");
+      assertEquals(supplier.invalidateIf(Predicates.equalTo("token1")), true);
+      assertEquals(supplier.get(), "token2");
+      assertEquals(supplier.invalidateIf(Predicates.equalTo("token1")), false);
+      assertEquals(supplier.get(), "token2");
+      assertEquals(supplier.getStatistics().get("invalidations"), new Long(1));
+   }
+}
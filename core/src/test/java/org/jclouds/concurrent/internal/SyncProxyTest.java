@@ -24,6 +24,9 @@ import static org.testng.Assert.assertEquals;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -35,6 +38,7 @@ import org.jclouds.internal.ClassMethodArgs;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.internal.ImmutableMap;
 
@@ -237,4 +241,39 @@ public class SyncProxyTest {
                         .<Class<?>, Class<?>> of()));
    }
 
+   @Timeout(duration = 30, timeUnit = TimeUnit.SECONDS)
+   private static interface SyncOverProxy {
+      String getString();
+
+      String getTypedException() throws FileNotFoundException;
+   }
+
+   public static interface AsyncOverProxy {
+      ListenableFuture<String> getString();
+
+      ListenableFuture<String> getTypedException() throws FileNotFoundException;
+   }
+
+   @Test
+   public void testProxiedAsyncHandlerCalledWithInterfaceMethod() throws Exception {
+      final Method getString = AsyncOverProxy.class.getMethod("getString");
+      AsyncOverProxy async = (AsyncOverProxy) Proxy.newProxyInstance(AsyncOverProxy.class
+               .getClassLoader(), new Class<?>[] { AsyncOverProxy.class }, new InvocationHandler() {
+         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.equals(getString))
+               return Futures.immediateFuture("foo");
+            throw new FileNotFoundException();
+         }
+      });
+      SyncOverProxy sync = SyncProxy.proxy(SyncOverProxy.class, new SyncProxy(SyncOverProxy.class,
+               async, new ConcurrentHashMap<ClassMethodArgs, Object>(), ImmutableMap
+                        .<Class<?>, Class<?>> of()));
+      assertEquals(sync.getString(), "foo");
+      try {
+         sync.getTypedException();
+         assert false : "expected FileNotFoundException";
+      } catch (FileNotFoundException e) {
+      }
+   }
+
 }
@@ -0,0 +1,86 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.http;
+
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+
+import java.net.URI;
+
+import javax.ws.rs.core.HttpHeaders;
+
+import org.jclouds.logging.Logger;
+import org.testng.annotations.Test;
+
+/**
+ * Tests how {@code HttpUtils} logs headers
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "http.HttpUtilsLoggingTest")
+public class HttpUtilsLoggingTest {
+
+   public void testCredentialsAreRedactedInAnyCase() {
+      assertEquals(HttpUtils.redact("Authorization", "AWS id:signature"), "<redacted>");
+      assertEquals(HttpUtils.redact("x-auth-token", "token"), "<redacted>");
+      assertEquals(HttpUtils.redact("X-Auth-Key", "key"), "<redacted>");
+      assertEquals(HttpUtils.redact("Content-Type", "text/plain"), "text/plain");
+   }
+
+   public void testLogRequestRedactsCredentials() {
+      HttpRequest request = new HttpRequest("GET", URI.create("https://localhost/path"));
+      request.getHeaders().put(HttpHeaders.AUTHORIZATION, "AWS id:signature");
+      request.getHeaders().put("X-Auth-Token", "token");
+      request.getHeaders().put("X-Auth-Key", "key");
+      request.getHeaders().put(HttpHeaders.CONTENT_TYPE, "text/plain");
+
+      Logger logger = createMock(Logger.class);
+      expect(logger.isDebugEnabled()).andReturn(true);
+      logger.debug("%s %s", ">>", "GET https://localhost/path HTTP/1.1");
+      logger.debug("%s %s: %s", ">>", HttpHeaders.AUTHORIZATION, "<redacted>");
+      logger.debug("%s %s: %s", ">>", "X-Auth-Token", "<redacted>");
+      logger.debug("%s %s: %s", ">>", "X-Auth-Key", "<redacted>");
+      logger.debug("%s %s: %s", ">>", HttpHeaders.CONTENT_TYPE, "text/plain");
+      replay(logger);
+
+      HttpUtils.logRequest(logger, request, ">>");
+      verify(logger);
+   }
+
+   public void testLogResponseRedactsCredentials() {
+      HttpResponse response = new HttpResponse();
+      response.setStatusCode(200);
+      response.setMessage("OK");
+      response.getHeaders().put("X-Auth-Token", "token");
+      response.getHeaders().put("X-Server-Management-Url", "https://localhost/v1.0/1");
+
+      Logger logger = createMock(Logger.class);
+      expect(logger.isDebugEnabled()).andReturn(true);
+      logger.debug("%s %s", "<<", "HTTP/1.1 200 OK");
+      logger.debug("%s %s: %s", "<<", "X-Auth-Token", "<redacted>");
+      logger.debug("%s %s: %s", "<<", "X-Server-Management-Url", "https://localhost/v1.0/1");
+      replay(logger);
+
+      HttpUtils.logResponse(logger, response, "<<");
+      verify(logger);
+   }
+}
@@ -0,0 +1,105 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.http.functions;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jclouds.PerformanceTest;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * This compares parsing a 10k element listing as one json tree with parsing it one element at a
+ * time.
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "performance", sequential = true, testName = "core.ParseJsonArrayPerformanceTest")
+public class ParseJsonArrayPerformanceTest extends PerformanceTest {
+   static final int ELEMENTS = 10000;
+   static final int PARSES = 20;
+
+   static class ObjectInfo {
+      String name;
+      String hash;
+      long bytes;
+      String content_type;
+      Date last_modified;
+   }
+
+   private final Gson gson = new Gson();
+   private byte[] listing;
+
+   @BeforeClass
+   protected void setUp() throws UnsupportedEncodingException {
+      StringBuilder json = new StringBuilder("[");
+      for (int i = 0; i < ELEMENTS; i++) {
+         if (i > 0)
+            json.append(',');
+         json.append("{\"name\":\"path/to/object-").append(i).append(
+                  "\",\"hash\":\"4281c348eaf83e70ddce0e07221c3d28\",\"bytes\":").append(i).append(
+                  ",\"content_type\":\"application/octet-stream\"}");
+      }
+      listing = json.append(']').toString().getBytes("UTF-8");
+   }
+
+   public void testTree() throws UnsupportedEncodingException {
+      Type listType = new TypeToken<List<ObjectInfo>>() {
+      }.getType();
+      long start = System.nanoTime();
+      for (int i = 0; i < PARSES; i++) {
+         List<ObjectInfo> list = gson.fromJson(new InputStreamReader(new ByteArrayInputStream(
+                  listing), "UTF-8"), listType);
+         assert list.size() == ELEMENTS;
+      }
+      report("json tree", start);
+   }
+
+   public void testStreaming() {
+      ParseJsonArray<ObjectInfo, List<ObjectInfo>> parser = new ParseJsonArray<ObjectInfo, List<ObjectInfo>>(
+               gson, ObjectInfo.class) {
+         @Override
+         protected List<ObjectInfo> apply(Iterator<ObjectInfo> elements) {
+            return Lists.newArrayList(elements);
+         }
+      };
+      long start = System.nanoTime();
+      for (int i = 0; i < PARSES; i++) {
+         List<ObjectInfo> list = parser.apply(new ByteArrayInputStream(listing));
+         assert list.size() == ELEMENTS;
+      }
+      report("streaming", start);
+   }
+
+   private void report(String name, long start) {
+      double millis = (System.nanoTime() - start) / 1000000.0;
+      System.out.printf("TIMING: %s took %.3fms for %d x %d elements (%.3fms each)%n", name,
+               millis, PARSES, ELEMENTS, millis / PARSES);
+   }
+}
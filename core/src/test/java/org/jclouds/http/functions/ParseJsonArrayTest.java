@@ -0,0 +1,100 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.http.functions;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.util.Utils;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+
+/**
+ * Tests behavior of {@code ParseJsonArray}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "core.ParseJsonArrayTest")
+public class ParseJsonArrayTest {
+
+   static class Item {
+      String name;
+      int size;
+   }
+
+   /**
+    * records each element as it arrives
+    */
+   static class ParseItemNames extends ParseJsonArray<Item, List<String>> {
+      final List<String> received = Lists.newArrayList();
+
+      ParseItemNames(String... path) {
+         super(new Gson(), Item.class, path);
+      }
+
+      @Override
+      protected List<String> apply(Iterator<Item> elements) {
+         while (elements.hasNext())
+            received.add(elements.next().name);
+         return received;
+      }
+   }
+
+   private static InputStream json(String json) {
+      return Utils.toInputStream(json);
+   }
+
+   public void testTopLevelArray() {
+      assertEquals(new ParseItemNames().apply(json("[{\"name\":\"a\",\"size\":1},"
+               + "{\"name\":\"b\",\"size\":2}]")), ImmutableList.of("a", "b"));
+   }
+
+   public void testArrayInsideObjects() {
+      assertEquals(new ParseItemNames("response", "list").apply(json("{\"summary\":{\"total\":2},"
+               + "\"response\":{\"status\":\"success\",\"list\":[{\"name\":\"a\"},{\"name\":\"b\"}],"
+               + "\"method\":\"/grid/server/list\"}}")), ImmutableList.of("a", "b"));
+   }
+
+   public void testMissingArrayIsEmpty() {
+      assertEquals(new ParseItemNames("list").apply(json("{\"summary\":{\"total\":0}}")),
+               ImmutableList.of());
+   }
+
+   public void testNullArrayIsEmpty() {
+      assertEquals(new ParseItemNames("list").apply(json("{\"list\":null}")), ImmutableList.of());
+   }
+
+   public void testElementsArriveBeforeTheRestOfTheArrayIsRead() {
+      ParseItemNames parser = new ParseItemNames();
+      try {
+         parser.apply(new HttpResponse(json("[{\"name\":\"a\"},{\"name\":\"b\"},{\"name\":")));
+         assert false : "expected the truncated array to fail";
+      } catch (HttpResponseException e) {
+         assertEquals(parser.received, ImmutableList.of("a", "b"));
+      }
+   }
+}
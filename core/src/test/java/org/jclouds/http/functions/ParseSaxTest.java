@@ -0,0 +1,151 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.http.functions;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Tests behavior of {@code ParseSax} and the text access of its handlers
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "http.ParseSaxTest")
+public class ParseSaxTest extends BaseHandlerTest {
+
+   /**
+    * records the text of each element, converted as its name says
+    */
+   static class RecordingHandler extends ParseSax.HandlerWithResult<Map<String, Object>> {
+      private final Map<String, Object> values = Maps.newHashMap();
+
+      public Map<String, Object> getResult() {
+         return values;
+      }
+
+      @Override
+      public void endElement(String uri, String name, String qName) {
+         if (qName.startsWith("int")) {
+            values.put(qName, textAsInt());
+         } else if (qName.startsWith("long")) {
+            values.put(qName, textAsLong());
+         } else if (qName.startsWith("boolean")) {
+            values.put(qName, textAsBoolean());
+         } else if (qName.startsWith("raw")) {
+            values.put(qName, rawText());
+         } else if (qName.startsWith("blank")) {
+            values.put(qName, isTextBlank());
+         } else if (qName.startsWith("orNull")) {
+            values.put(qName, currentOrNull());
+         } else if (!qName.equals("r")) {
+            values.put(qName, trimmedText());
+         }
+         resetText();
+      }
+   }
+
+   private Map<String, Object> parse(String xml) {
+      return factory.create(new RecordingHandler()).parse(
+               new ByteArrayInputStream(xml.getBytes()));
+   }
+
+   public void testText() {
+      Map<String, Object> values = parse("<r><s>\n  foo bar \t</s><raw> foo </raw>"
+               + "<blank1> \n </blank1><blank2> a </blank2><orNull1>  </orNull1>"
+               + "<orNull2> a </orNull2><empty/></r>");
+      assertEquals(values.get("s"), "foo bar");
+      assertEquals(values.get("raw"), " foo ");
+      assertEquals(values.get("blank1"), true);
+      assertEquals(values.get("blank2"), false);
+      assertNull(values.get("orNull1"));
+      assertEquals(values.get("orNull2"), "a");
+      assertEquals(values.get("empty"), "");
+   }
+
+   public void testNumbers() {
+      Map<String, Object> values = parse("<r><int1> 42 </int1><int2>-2147483648</int2>"
+               + "<int3>007</int3><long1> 9223372036854775807 </long1><long2>-17</long2></r>");
+      assertEquals(values.get("int1"), 42);
+      assertEquals(values.get("int2"), Integer.MIN_VALUE);
+      assertEquals(values.get("int3"), 7);
+      assertEquals(values.get("long1"), Long.MAX_VALUE);
+      assertEquals(values.get("long2"), -17l);
+   }
+
+   public void testBooleans() {
+      Map<String, Object> values = parse("<r><boolean1> true </boolean1><boolean2>TRUE</boolean2>"
+               + "<boolean3>false</boolean3><boolean4>yes</boolean4><boolean5/></r>");
+      assertEquals(values.get("boolean1"), true);
+      assertEquals(values.get("boolean2"), true);
+      assertEquals(values.get("boolean3"), false);
+      assertEquals(values.get("boolean4"), false);
+      assertEquals(values.get("boolean5"), false);
+   }
+
+   @Test(expectedExceptions = NumberFormatException.class)
+   public void testNotANumber() {
+      parse("<r><int>4x2</int></r>");
+   }
+
+   @Test(expectedExceptions = NumberFormatException.class)
+   public void testEmptyNumber() {
+      parse("<r><long> </long></r>");
+   }
+
+   @Test(expectedExceptions = NumberFormatException.class)
+   public void testIntOverflow() {
+      parse("<r><int>2147483648</int></r>");
+   }
+
+   public void testReaderReusedAfterFailure() {
+      assertEquals(parse("<r><s>foo</s></r>").get("s"), "foo");
+      try {
+         parse("<r><s>foo</r>");
+         assert false : "expected malformed xml to fail";
+      } catch (RuntimeException e) {
+      }
+      assertEquals(parse("<r><s>bar</s></r>").get("s"), "bar");
+   }
+
+   public void testNestedParseOnSameThread() {
+      final ParseSax<Map<String, Object>> inner = factory.create(new RecordingHandler());
+      Map<String, Object> outer = factory.create(new RecordingHandler() {
+         @Override
+         public void endElement(String uri, String name, String qName) {
+            if (qName.equals("nested"))
+               getResult().putAll(
+                        inner.parse(new ByteArrayInputStream("<r><s>inner</s></r>".getBytes())));
+            super.endElement(uri, name, qName);
+         }
+      }).parse(new ByteArrayInputStream("<r><nested/><t>outer</t></r>".getBytes()));
+      assertEquals(outer.get("s"), "inner");
+      assertEquals(outer.get("t"), "outer");
+      assertTrue(outer.containsKey("nested"));
+      assertFalse(outer.containsKey("r"));
+   }
+}
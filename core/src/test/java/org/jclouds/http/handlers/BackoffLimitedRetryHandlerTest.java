@@ -19,12 +19,17 @@
 package org.jclouds.http.handlers;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -47,6 +52,7 @@ import org.jclouds.rest.internal.RestAnnotationProcessor;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.inject.AbstractModule;
 import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
@@ -219,4 +225,96 @@ public class BackoffLimitedRetryHandlerTest {
       assertEquals(handler.shouldRetryRequest(command, response), false); // Failure 6
    }
 
-}
\ No newline at end of file
+   @Test
+   void testSetsDelayOnCommandInsteadOfSleeping() throws SecurityException,
+            NoSuchMethodException {
+      HttpCommand command = createCommand();
+
+      long startTime = System.nanoTime();
+      assertTrue(handler.shouldRetryRequest(command, new HttpResponse()));
+      long elapsedTime = (System.nanoTime() - startTime) / 1000000;
+      assert elapsedTime < 25 : elapsedTime;
+
+      long delay = command.getRetryDelayMillis();
+      assert delay >= 50 && delay <= 150 : delay;
+   }
+
+   @Test
+   void testDecorrelatedJitterStaysWithinBounds() throws SecurityException, NoSuchMethodException {
+      BackoffLimitedRetryHandler handler = new BackoffLimitedRetryHandler();
+      handler.delayMax = 1000;
+      HttpCommand command = createCommand();
+      long last = handler.delayStart;
+      for (int i = 0; i < 100; i++) {
+         long delay = handler.nextDelayMillis(command, null);
+         assert delay >= handler.delayStart : delay;
+         assert delay <= Math.min(handler.delayMax, 3 * last) : delay + " after " + last;
+         last = delay;
+      }
+   }
+
+   @Test
+   void testRetryAfterIsALowerBound() throws SecurityException, NoSuchMethodException {
+      HttpCommand command = createCommand();
+      HttpResponse response = new HttpResponse();
+      response.getHeaders().put(BackoffLimitedRetryHandler.RETRY_AFTER, "2");
+
+      assertTrue(new BackoffLimitedRetryHandler().shouldRetryRequest(command, response));
+      assertEquals(command.getRetryDelayMillis(), 2000);
+   }
+
+   @Test
+   void testRetryAfterLongerThanMaxDelayIsNotRetried() throws SecurityException,
+            NoSuchMethodException {
+      HttpCommand command = createCommand();
+      HttpResponse response = new HttpResponse();
+      response.getHeaders().put(BackoffLimitedRetryHandler.RETRY_AFTER, "3600");
+
+      assertFalse(new BackoffLimitedRetryHandler().shouldRetryRequest(command, response));
+   }
+
+   @Test
+   void testParseRetryAfter() {
+      assertEquals(BackoffLimitedRetryHandler.parseRetryAfter(null), null);
+      assertEquals(BackoffLimitedRetryHandler.parseRetryAfter("120"), new Long(120000));
+      assertEquals(BackoffLimitedRetryHandler.parseRetryAfter("soon"), null);
+
+      SimpleDateFormat rfc1123 = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+      rfc1123.setTimeZone(TimeZone.getTimeZone("GMT"));
+      long inAMinute = BackoffLimitedRetryHandler.parseRetryAfter(rfc1123.format(new Date(System
+               .currentTimeMillis() + 60000)));
+      assert inAMinute > 55000 && inAMinute <= 60000 : inAMinute;
+      assertEquals(BackoffLimitedRetryHandler.parseRetryAfter(rfc1123.format(new Date(0))),
+               new Long(0));
+   }
+
+   @Test
+   void testSpentBudgetRefusesRetries() throws SecurityException, NoSuchMethodException {
+      BackoffLimitedRetryHandler handler = new BackoffLimitedRetryHandler();
+      handler.retryBudget = new RetryBudget();
+      handler.retryBudget.ratio = 0;
+      int accepted = 0;
+      for (int i = 0; i < 3; i++) {
+         HttpCommand command = createCommand();
+         for (int j = 0; j < 5; j++)
+            if (handler.shouldRetryRequest(command, new HttpResponse()))
+               accepted++;
+      }
+      assertEquals(accepted, RetryBudget.RESERVE);
+      assertEquals(handler.getRetryCount(), RetryBudget.RESERVE);
+      assertEquals(handler.getRetriesRejectedByBudget(), 15 - RetryBudget.RESERVE);
+   }
+
+   @Test
+   void testDelayHistogram() throws SecurityException, NoSuchMethodException {
+      BackoffLimitedRetryHandler handler = new BackoffLimitedRetryHandler();
+      HttpResponse response = new HttpResponse();
+      response.getHeaders().put(BackoffLimitedRetryHandler.RETRY_AFTER, "1");
+      handler.shouldRetryRequest(createCommand(), response);
+      handler.shouldRetryRequest(createCommand(), response);
+
+      // 1000 ms falls in [512, 1024)
+      assertEquals(handler.getDelayHistogram(), ImmutableSortedMap.of(1024l, 2l));
+   }
+
+}
@@ -0,0 +1,72 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.http.handlers;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.net.URI;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests behavior of {@code RetryBudget}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "core.RetryBudgetTest")
+public class RetryBudgetTest {
+   URI endpoint = URI.create("https://storage.example.com/container");
+
+   public void testReserveAllowsRetriesWithoutTraffic() {
+      RetryBudget budget = new RetryBudget();
+      for (int i = 0; i < RetryBudget.RESERVE; i++)
+         assertTrue(budget.tryAcquireRetry(endpoint));
+      assertFalse(budget.tryAcquireRetry(endpoint));
+   }
+
+   public void testRequestsEarnAShareOfARetry() {
+      RetryBudget budget = new RetryBudget();
+      while (budget.tryAcquireRetry(endpoint))
+         ;
+      for (int i = 0; i < 4; i++)
+         budget.recordRequest(endpoint);
+      assertFalse(budget.tryAcquireRetry(endpoint));
+      budget.recordRequest(endpoint);
+      assertTrue(budget.tryAcquireRetry(endpoint));
+      assertFalse(budget.tryAcquireRetry(endpoint));
+   }
+
+   public void testBalanceIsCappedAtTheReserve() {
+      RetryBudget budget = new RetryBudget();
+      for (int i = 0; i < 1000; i++)
+         budget.recordRequest(endpoint);
+      for (int i = 0; i < RetryBudget.RESERVE; i++)
+         assertTrue(budget.tryAcquireRetry(endpoint));
+      assertFalse(budget.tryAcquireRetry(endpoint));
+   }
+
+   public void testEndpointsHaveSeparateBudgets() {
+      RetryBudget budget = new RetryBudget();
+      while (budget.tryAcquireRetry(endpoint))
+         ;
+      assertTrue(budget.tryAcquireRetry(URI.create("https://other.example.com/container")));
+      assertTrue(budget.tryAcquireRetry(URI.create("https://storage.example.com:8443/container")));
+   }
+}
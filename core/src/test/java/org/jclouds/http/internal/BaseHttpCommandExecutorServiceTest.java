@@ -0,0 +1,86 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.http.internal;
+
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.instrumentation.Invocation;
+import org.testng.annotations.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "core.BaseHttpCommandExecutorServiceTest")
+public class BaseHttpCommandExecutorServiceTest {
+
+   /**
+    * errors are not exceptions, but the caller still has to hear about them instead of waiting
+    * forever.
+    */
+   public void testErrorFailsTheFuture() throws InterruptedException {
+      final AssertionError error = new AssertionError("convert");
+      BaseHttpCommandExecutorService<Object> executor = new BaseHttpCommandExecutorService<Object>(
+               sameThreadExecutor(), null, null, null, null) {
+
+         @Override
+         protected Object convert(HttpRequest request) {
+            throw error;
+         }
+
+         @Override
+         protected HttpResponse invoke(Object nativeRequest) throws IOException {
+            throw new AssertionError("should not be invoked");
+         }
+
+         @Override
+         protected void cleanup(Object nativeResponse) {
+         }
+
+      };
+
+      HttpCommand command = createNiceMock(HttpCommand.class);
+      expect(command.getInvocation()).andReturn(Invocation.NONE).anyTimes();
+      expect(command.getRequest()).andReturn(
+               new HttpRequest("GET", URI.create("http://localhost/"))).anyTimes();
+      replay(command);
+
+      ListenableFuture<HttpResponse> response = executor.submit(command);
+      assert response.isDone();
+      try {
+         response.get();
+         assert false : "should have failed";
+      } catch (ExecutionException e) {
+         assertEquals(e.getCause(), error);
+      }
+   }
+}
@@ -21,6 +21,7 @@ package org.jclouds.http.internal;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -67,7 +68,8 @@ public class WireLiveTest {
          Thread.sleep(100);
          assertEquals(encryptionService.toHexString(compare), checkNotNull(sysHttpStreamMd5,
                   sysHttpStreamMd5));
-         assertEquals(((BufferLogger) wire.getWireLog()).buff.toString().getBytes().length, 3331484);
+         // only the head and tail of the body are logged
+         assertTrue(((BufferLogger) wire.getWireLog()).buff.toString().contains("bytes not logged"));
          return null;
       }
    }
@@ -147,7 +149,8 @@ public class WireLiveTest {
       Thread.sleep(100);
       assertEquals(encryptionService.toHexString(compare), checkNotNull(sysHttpStreamMd5,
                sysHttpStreamMd5));
-      assertEquals(((BufferLogger) wire.getWireLog()).buff.toString().getBytes().length, 3331484);
+      // only the head and tail of the body are logged
+      assertTrue(((BufferLogger) wire.getWireLog()).buff.toString().contains("bytes not logged"));
    }
 
    @Test(groups = "live", enabled = false)
@@ -170,7 +173,8 @@ public class WireLiveTest {
       Thread.sleep(100);
       assertEquals(encryptionService.toHexString(compare), checkNotNull(sysHttpStreamMd5,
                sysHttpStreamMd5));
-      assertEquals(((BufferLogger) wire.getWireLog()).buff.toString().getBytes().length, 3331484);
+      // only the head and tail of the body are logged
+      assertTrue(((BufferLogger) wire.getWireLog()).buff.toString().contains("bytes not logged"));
    }
 
 }
@@ -125,6 +125,32 @@ public class WireTest {
       assertEquals(((BufferLogger) wire.getWireLog()).buff.toString(), ">> \"foo\"");
    }
 
+   public void testInputLogsHeadAndTailOfLargeBody() throws Exception {
+      HttpWire wire = setUp();
+      StringBuilder body = new StringBuilder();
+      for (int i = 0; i < 20000; i++)
+         body.append((char) ('a' + i % 26));
+      InputStream in = wire.input(new ByteArrayInputStream(body.toString().getBytes()));
+      // odd sized reads, so the tail wraps around its ring
+      byte[] buffer = new byte[1000];
+      StringBuilder read = new StringBuilder();
+      for (int count = in.read(buffer, 0, 777); count != -1; count = in.read(buffer, 0, 777))
+         read.append(new String(buffer, 0, count));
+      in.close();
+      assertEquals(read.toString(), body.toString());
+      assertEquals(((BufferLogger) wire.getWireLog()).buff.toString(), "<< \""
+               + body.substring(0, 8192) + "\"<< ... 10784 bytes not logged ...<< \""
+               + body.substring(20000 - 1024) + "\"");
+   }
+
+   public void testOutputBytesLogsHeadAndTail() throws Exception {
+      HttpWire wire = setUp();
+      byte[] body = new byte[10000];
+      wire.output(body);
+      String logged = ((BufferLogger) wire.getWireLog()).buff.toString();
+      assert logged.contains(">> ... 784 bytes not logged ...") : logged;
+   }
+
    public void testOutputBytes() throws Exception {
       HttpWire wire = setUp();
       wire.output("foo".getBytes());
@@ -0,0 +1,110 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Future;
+
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.instrumentation.Invocation;
+import org.jclouds.instrumentation.Invocation.Event;
+import org.jclouds.instrumentation.internal.HistogramInstrumentation.Phase;
+import org.jclouds.instrumentation.internal.HistogramInstrumentation.Stats;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests behavior of {@code HistogramInstrumentation}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "instrumentation.HistogramInstrumentationTest")
+public class HistogramInstrumentationTest {
+
+   static interface StorageAsyncClient {
+      Future<String> get(String container, String key);
+   }
+
+   static final Method GET;
+   static {
+      try {
+         GET = StorageAsyncClient.class.getMethod("get", String.class, String.class);
+      } catch (NoSuchMethodException e) {
+         throw new ExceptionInInitializerError(e);
+      }
+   }
+
+   public void testRecordsEveryPhaseOfASuccessfulCall() {
+      HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+      Invocation invocation = instrumentation.start(StorageAsyncClient.class, GET, 2);
+      for (Event event : Event.values())
+         invocation.mark(event);
+      invocation.responded(200, 2);
+      invocation.parsed();
+
+      Stats stats = instrumentation.getStats().get("StorageAsyncClient.get 2xx");
+      assertEquals(stats.getCount(), 1);
+      assertEquals(stats.getRetries(), 2);
+      for (Phase phase : Phase.values())
+         assertEquals(stats.getHistogram(phase).getCount(), 1, phase.toString());
+   }
+
+   public void testSkipsPhasesThatWereNotMarked() {
+      HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+      Invocation invocation = instrumentation.start(StorageAsyncClient.class, GET, 2);
+      invocation.mark(Event.STARTED);
+      invocation.mark(Event.FILTERED);
+      invocation.responded(204, 0);
+      invocation.parsed();
+
+      Stats stats = instrumentation.getStats().get("StorageAsyncClient.get 2xx");
+      assertEquals(stats.getHistogram(Phase.QUEUE).getCount(), 0);
+      assertEquals(stats.getHistogram(Phase.FILTERS).getCount(), 1);
+      assertEquals(stats.getHistogram(Phase.CONNECT).getCount(), 0);
+      assertEquals(stats.getHistogram(Phase.PARSE).getCount(), 1);
+      assertEquals(stats.getHistogram(Phase.TOTAL).getCount(), 1);
+   }
+
+   public void testErrorStatusComesFromTheException() {
+      HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+      HttpResponse response = new HttpResponse();
+      response.setStatusCode(404);
+      instrumentation.start(StorageAsyncClient.class, GET, 2).failed(
+               new HttpResponseException("not found", null, response));
+      instrumentation.start(StorageAsyncClient.class, GET, 2).failed(new RuntimeException());
+
+      assertEquals(instrumentation.getStats().keySet(), ImmutableSet.of(
+               "StorageAsyncClient.get 4xx", "StorageAsyncClient.get failed"));
+   }
+
+   public void testEndsOnlyOnce() {
+      HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+      Invocation invocation = instrumentation.start(StorageAsyncClient.class, GET, 2);
+      invocation.responded(200, 0);
+      invocation.parsed();
+      invocation.failed(new RuntimeException());
+
+      assertEquals(instrumentation.getStats().get("StorageAsyncClient.get 2xx").getCount(), 1);
+      assertEquals(instrumentation.getStats().size(), 1);
+   }
+}
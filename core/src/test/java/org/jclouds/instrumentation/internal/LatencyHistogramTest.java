@@ -0,0 +1,84 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.instrumentation.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests behavior of {@code LatencyHistogram}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "instrumentation.LatencyHistogramTest")
+public class LatencyHistogramTest {
+
+   public void testSmallValuesAreExact() {
+      for (int i = 0; i < LatencyHistogram.SUB_BUCKETS; i++) {
+         assertEquals(LatencyHistogram.indexOf(i), i);
+         assertEquals(LatencyHistogram.highestValueAt(i), i);
+      }
+   }
+
+   public void testBucketsAreContiguousAndWithinAnEighth() {
+      long lowest = 0;
+      for (int index = 0; index < 200; index++) {
+         long highest = LatencyHistogram.highestValueAt(index);
+         assertEquals(LatencyHistogram.indexOf(lowest), index);
+         assertEquals(LatencyHistogram.indexOf(highest), index);
+         assert highest - lowest <= Math.max(0, lowest / LatencyHistogram.SUB_BUCKETS) : index;
+         lowest = highest + 1;
+      }
+   }
+
+   public void testLargestValueHasABucket() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(Long.MAX_VALUE);
+      assertEquals(histogram.getValueAtPercentile(100), Long.MAX_VALUE);
+   }
+
+   public void testPercentiles() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      for (int i = 1; i <= 1000; i++)
+         histogram.record(i);
+      assertEquals(histogram.getCount(), 1000);
+      assertEquals(histogram.getMean(), 500.5);
+      assertWithinAnEighth(histogram.getValueAtPercentile(50), 500);
+      assertWithinAnEighth(histogram.getValueAtPercentile(99), 990);
+      assertEquals(histogram.getValueAtPercentile(0), 1);
+   }
+
+   public void testEmpty() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      assertEquals(histogram.getValueAtPercentile(99), 0);
+      assertEquals(histogram.getMean(), 0.0);
+   }
+
+   public void testNegativeValuesCountAsZero() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(-5);
+      assertEquals(histogram.getValueAtPercentile(100), 0);
+   }
+
+   private void assertWithinAnEighth(long actual, long expected) {
+      assert actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_BUCKETS : actual
+               + " for " + expected;
+   }
+}
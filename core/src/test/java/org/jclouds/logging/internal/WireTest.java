@@ -0,0 +1,125 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.logging.internal;
+
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.easymock.IAnswer;
+import org.jclouds.logging.Logger;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests sampling and queueing of {@code Wire}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "logging.WireTest")
+public class WireTest {
+
+   private static Wire wire(final Logger wireLog) {
+      return new Wire() {
+         @Override
+         protected Logger getWireLog() {
+            return wireLog;
+         }
+      };
+   }
+
+   private static Logger debugLog() {
+      Logger wireLog = createMock(Logger.class);
+      expect(wireLog.isDebugEnabled()).andReturn(true).anyTimes();
+      replay(wireLog);
+      return wireLog;
+   }
+
+   public void testSamplingDecisionIsStablePerRequest() {
+      Wire wire = wire(debugLog());
+      wire.sampleRate = 0.25f;
+      List<Object> requests = Lists.newArrayList();
+      for (int i = 0; i < 10000; i++)
+         requests.add(new Object());
+
+      int sampled = 0;
+      for (Object request : requests) {
+         boolean first = wire.sampled(request);
+         for (int i = 0; i < 3; i++)
+            assertEquals(wire.sampled(request), first);
+         if (first)
+            sampled++;
+      }
+      assert sampled > 2000 && sampled < 3000 : sampled;
+   }
+
+   public void testSampleRateBounds() {
+      Wire wire = wire(debugLog());
+      Object request = new Object();
+      wire.sampleRate = 1;
+      assert wire.sampled(request);
+      wire.sampleRate = 0;
+      assert !wire.sampled(request);
+   }
+
+   public void testNothingIsSampledWhenTheWireLogIsOff() {
+      Logger wireLog = createMock(Logger.class);
+      expect(wireLog.isDebugEnabled()).andReturn(false).anyTimes();
+      replay(wireLog);
+      assert !wire(wireLog).sampled(new Object());
+   }
+
+   public void testDropsAreCountedWhenTheQueueIsFull() {
+      final AtomicReference<Runnable> drain = new AtomicReference<Runnable>();
+      ExecutorService logExecutor = createMock(ExecutorService.class);
+      // the drain doesn't run until the queue has overflowed
+      logExecutor.execute(isA(Runnable.class));
+      expectLastCall().andAnswer(new IAnswer<Object>() {
+         public Object answer() {
+            drain.set((Runnable) getCurrentArguments()[0]);
+            return null;
+         }
+      });
+      Logger wireLog = createMock(Logger.class);
+      wireLog.debug(">> \"foo\"");
+      expectLastCall().times(Wire.QUEUE_SIZE);
+      Logger logger = createMock(Logger.class);
+      logger.warn("dropped %d wire log entries, as the log could not keep up", 3L);
+      replay(logExecutor, wireLog, logger);
+
+      Wire wire = wire(wireLog);
+      wire.logExecutor = logExecutor;
+      wire.logger = logger;
+      for (int i = 0; i < Wire.QUEUE_SIZE + 3; i++)
+         wire.log(">> ", "foo".getBytes(), 3, new byte[0], 0, 3);
+      drain.get().run();
+
+      verify(logExecutor, wireLog, logger);
+   }
+}
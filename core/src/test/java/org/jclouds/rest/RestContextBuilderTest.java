@@ -23,8 +23,14 @@ import static org.testng.Assert.assertEquals;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
 
+import org.jclouds.Constants;
+import org.jclouds.concurrent.SingleThreaded;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
+import org.jclouds.concurrent.config.ScheduledExecutorServiceModule;
 import org.jclouds.http.RequiresHttp;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
 import org.jclouds.http.config.JavaUrlHttpCommandExecutorServiceModule;
@@ -33,9 +39,14 @@ import org.jclouds.logging.config.NullLoggingModule;
 import org.jclouds.logging.jdk.config.JDKLoggingModule;
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.AbstractModule;
 import com.google.inject.Binder;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.name.Names;
 
 /**
  * Tests behavior of modules configured in RestContextBuilder<String,String>
@@ -81,6 +92,10 @@ public class RestContextBuilderTest {
          return null;
       }
 
+      public Map<String, CacheStats> getCacheStats() {
+         return ImmutableMap.of();
+      }
+
    }
 
    class TestRestContextBuilder extends RestContextBuilder<String, String> {
@@ -172,6 +187,48 @@ public class RestContextBuilderTest {
       assert modules.remove(0) instanceof JDKLoggingModule;
    }
 
+   @SingleThreaded
+   static class SingleThreadedModule extends AbstractModule {
+
+      @Override
+      protected void configure() {
+
+      }
+   }
+
+   @Test
+   public void testAddScheduledExecutorServiceWhenThreaded() {
+      List<Module> modules = new ArrayList<Module>();
+      TestRestContextBuilder builder = new TestRestContextBuilder(new Properties());
+      builder.addExecutorServiceIfNotPresent(modules);
+      builder.addScheduledExecutorServiceIfThreadedAndNotPresent(modules);
+      assertEquals(modules.size(), 2);
+      assert modules.remove(0) instanceof ExecutorServiceModule;
+      assert modules.remove(0) instanceof ScheduledExecutorServiceModule;
+   }
+
+   @Test
+   public void testNoScheduledExecutorServiceWhenSingleThreaded() {
+      List<Module> modules = new ArrayList<Module>();
+      modules.add(new SingleThreadedModule());
+      TestRestContextBuilder builder = new TestRestContextBuilder(new Properties());
+      builder.addExecutorServiceIfNotPresent(modules);
+      builder.addScheduledExecutorServiceIfThreadedAndNotPresent(modules);
+      assertEquals(modules.size(), 2);
+      assert modules.get(0) instanceof SingleThreadedModule;
+      assert modules.get(1) instanceof ExecutorServiceModule;
+
+      modules.add(new AbstractModule() {
+         @Override
+         protected void configure() {
+            bindConstant().annotatedWith(Names.named(Constants.PROPERTY_USER_THREADS)).to(0);
+            bindConstant().annotatedWith(Names.named(Constants.PROPERTY_IO_WORKER_THREADS)).to(0);
+         }
+      });
+      Injector injector = Guice.createInjector(modules);
+      assert !injector.getBindings().containsKey(Key.get(ScheduledExecutorService.class));
+   }
+
    public void testBuilder() {
 
       AbstractModule module1 = new AbstractModule() {
@@ -0,0 +1,124 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rest.internal;
+
+import static org.jclouds.rest.internal.AsyncRestClientProxy.readOnlyViewFor;
+import static org.testng.Assert.assertEquals;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+
+import org.jclouds.rest.annotations.Cached;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests behavior of {@code AsyncRestClientProxy}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "rest.AsyncRestClientProxyTest")
+public class AsyncRestClientProxyTest {
+
+   /**
+    * a domain type which happens to be a map, like a vCloud {@code Catalog}
+    */
+   static class Listing extends TreeMap<String, String> {
+      /** The serialVersionUID */
+      private static final long serialVersionUID = 1L;
+   }
+
+   static interface Service {
+      @Cached(ttl = 1)
+      ListenableFuture<? extends Set<String>> set();
+
+      @Cached(ttl = 1)
+      ListenableFuture<SortedSet<String>> sortedSet();
+
+      @Cached(ttl = 1)
+      ListenableFuture<? extends List<String>> list();
+
+      @Cached(ttl = 1)
+      ListenableFuture<? extends Map<String, String>> map();
+
+      @Cached(ttl = 1)
+      ListenableFuture<? extends Listing> listing();
+
+      @Cached(ttl = 1)
+      ListenableFuture<String> string();
+   }
+
+   private static Function<Object, Object> readOnlyView(String method) throws Exception {
+      return readOnlyViewFor(Service.class.getMethod(method));
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testDeclaredCollectionsAreReadOnly() throws Exception {
+      Set<String> set = Sets.newLinkedHashSet();
+      set.add("a");
+      assertReadOnly((Collection<String>) readOnlyView("set").apply(set));
+      assertEquals(readOnlyView("set").apply(set), set);
+
+      SortedSet<String> sortedSet = Sets.newTreeSet(set);
+      assert readOnlyView("sortedSet").apply(sortedSet) instanceof SortedSet<?>;
+      assertReadOnly((Collection<String>) readOnlyView("sortedSet").apply(sortedSet));
+
+      List<String> list = Lists.newArrayList(set);
+      assertReadOnly((Collection<String>) readOnlyView("list").apply(list));
+
+      Map<String, String> map = Maps.newHashMap();
+      map.put("a", "b");
+      try {
+         ((Map<String, String>) readOnlyView("map").apply(map)).put("c", "d");
+         assert false : "map should be read-only";
+      } catch (UnsupportedOperationException e) {
+      }
+      assertEquals(map.size(), 1);
+   }
+
+   public void testDomainTypesKeepTheirType() throws Exception {
+      assert readOnlyView("listing") == null;
+      assert readOnlyView("string") == null;
+   }
+
+   public void testImmutablesAndNullAreReturnedAsIs() throws Exception {
+      Set<String> immutable = ImmutableSet.of("a");
+      assert readOnlyView("set").apply(immutable) == immutable;
+      assert readOnlyView("set").apply(null) == null;
+   }
+
+   private static void assertReadOnly(Collection<String> collection) {
+      try {
+         collection.add("c");
+         assert false : "collection should be read-only";
+      } catch (UnsupportedOperationException e) {
+      }
+      assertEquals(collection.size(), 1);
+   }
+}
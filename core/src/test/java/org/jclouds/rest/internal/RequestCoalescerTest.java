@@ -0,0 +1,159 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.PUT;
+
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.rest.annotations.Coalesce;
+import org.testng.annotations.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "rest.RequestCoalescerTest")
+public class RequestCoalescerTest {
+
+   static interface Service {
+      @GET
+      @Coalesce
+      ListenableFuture<String> get();
+
+      @PUT
+      @Coalesce
+      ListenableFuture<String> put();
+
+      @GET
+      ListenableFuture<String> uncoalesced();
+   }
+
+   static class CountingCall implements Callable<ListenableFuture<?>> {
+      final AtomicInteger calls = new AtomicInteger();
+      final SettableListenableFuture<String> result = new SettableListenableFuture<String>();
+
+      public ListenableFuture<?> call() {
+         calls.incrementAndGet();
+         return result;
+      }
+   }
+
+   private final Method get = method("get");
+
+   private static Method method(String name) {
+      try {
+         return Service.class.getMethod(name);
+      } catch (NoSuchMethodException e) {
+         throw new AssertionError(e);
+      }
+   }
+
+   private static HttpRequest request(String method, String endpoint) {
+      return new HttpRequest(method, URI.create(endpoint));
+   }
+
+   public void testShouldCoalesce() {
+      assertTrue(RequestCoalescer.shouldCoalesce(Service.class, get, request("GET",
+               "http://localhost/a")));
+      assertTrue(RequestCoalescer.shouldCoalesce(Service.class, get, request("HEAD",
+               "http://localhost/a")));
+      assertFalse(RequestCoalescer.shouldCoalesce(Service.class, method("put"), request("PUT",
+               "http://localhost/a")));
+      assertFalse(RequestCoalescer.shouldCoalesce(Service.class, method("uncoalesced"), request(
+               "GET", "http://localhost/a")));
+   }
+
+   public void testIdenticalRequestsShareOneCall() throws Exception {
+      RequestCoalescer coalescer = new RequestCoalescer();
+      CountingCall call = new CountingCall();
+      ListenableFuture<?> first = coalescer.coalesce(get, request("GET", "http://localhost/a"),
+               call);
+      ListenableFuture<?> second = coalescer.coalesce(get, request("GET", "http://localhost/a"),
+               call);
+      assertEquals(call.calls.get(), 1);
+      assertEquals(coalescer.inFlight(), 1);
+
+      call.result.set("foo");
+      assertEquals(first.get(), "foo");
+      assertEquals(second.get(), "foo");
+      assertEquals(coalescer.inFlight(), 0);
+
+      // once complete, the next request goes to the network again
+      coalescer.coalesce(get, request("GET", "http://localhost/a"), call);
+      assertEquals(call.calls.get(), 2);
+   }
+
+   public void testDifferentRequestsDoNotShare() throws Exception {
+      RequestCoalescer coalescer = new RequestCoalescer();
+      CountingCall call = new CountingCall();
+      coalescer.coalesce(get, request("GET", "http://localhost/a"), call);
+      coalescer.coalesce(get, request("GET", "http://localhost/b"), call);
+      coalescer.coalesce(get, request("HEAD", "http://localhost/a"), call);
+      HttpRequest ranged = request("GET", "http://localhost/a");
+      ranged.getHeaders().put("Range", "bytes=0-1");
+      coalescer.coalesce(get, ranged, call);
+      assertEquals(call.calls.get(), 4);
+   }
+
+   public void testFailureReachesEveryCaller() throws Exception {
+      RequestCoalescer coalescer = new RequestCoalescer();
+      CountingCall call = new CountingCall();
+      ListenableFuture<?> first = coalescer.coalesce(get, request("GET", "http://localhost/a"),
+               call);
+      ListenableFuture<?> second = coalescer.coalesce(get, request("GET", "http://localhost/a"),
+               call);
+      IllegalStateException failure = new IllegalStateException();
+      call.result.setException(failure);
+      for (ListenableFuture<?> future : new ListenableFuture<?>[] { first, second }) {
+         try {
+            future.get();
+            assert false : "expected failure";
+         } catch (ExecutionException e) {
+            assertEquals(e.getCause(), failure);
+         }
+      }
+      assertEquals(coalescer.inFlight(), 0);
+   }
+
+   public void testCancellingOneCallerLeavesTheOthers() throws Exception {
+      RequestCoalescer coalescer = new RequestCoalescer();
+      CountingCall call = new CountingCall();
+      ListenableFuture<?> first = coalescer.coalesce(get, request("GET", "http://localhost/a"),
+               call);
+      ListenableFuture<?> second = coalescer.coalesce(get, request("GET", "http://localhost/a"),
+               call);
+      first.cancel(true);
+      assertFalse(call.result.isCancelled());
+      call.result.set("foo");
+      assertEquals(second.get(), "foo");
+   }
+}
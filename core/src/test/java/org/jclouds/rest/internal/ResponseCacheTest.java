@@ -0,0 +1,226 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rest.internal;
+
+import static org.testng.Assert.assertEquals;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.rest.CacheStats;
+import org.jclouds.rest.annotations.Cached;
+import org.jclouds.rest.annotations.InvalidatesCache;
+import org.testng.annotations.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "rest.ResponseCacheTest")
+public class ResponseCacheTest {
+
+   static interface Service {
+      @Cached(ttl = 1, timeUnit = TimeUnit.HOURS, maxEntries = 2)
+      ListenableFuture<String> list(String... filters);
+
+      @Cached(ttl = 50, timeUnit = TimeUnit.MILLISECONDS)
+      ListenableFuture<String> shortLived();
+
+      @Cached(ttl = 50, staleWhileRevalidate = 1000, timeUnit = TimeUnit.MILLISECONDS)
+      ListenableFuture<String> stale();
+
+      @InvalidatesCache("list")
+      ListenableFuture<Void> delete();
+
+      @InvalidatesCache
+      ListenableFuture<Void> deleteAll();
+   }
+
+   /**
+    * returns a result numbered by how many times it was called, or the next one left unset when
+    * {@link #pending} is set.
+    */
+   static class CountingLoader implements Callable<ListenableFuture<?>> {
+      final AtomicInteger calls = new AtomicInteger();
+      SettableListenableFuture<Object> pending;
+      Exception failure;
+
+      public ListenableFuture<?> call() throws Exception {
+         int call = calls.incrementAndGet();
+         if (failure != null)
+            throw failure;
+         if (pending != null)
+            return pending;
+         SettableListenableFuture<Object> result = new SettableListenableFuture<Object>();
+         result.set("result" + call);
+         return result;
+      }
+   }
+
+   private static Method method(String name) {
+      for (Method method : Service.class.getMethods())
+         if (method.getName().equals(name))
+            return method;
+      throw new AssertionError(name);
+   }
+
+   private final Method list = method("list");
+
+   private static Object[] args(String... filters) {
+      return new Object[] { filters };
+   }
+
+   public void testHitReturnsRememberedResult() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      assertEquals(cache.get(list, args("a"), loader).get(), "result1");
+      assertEquals(cache.get(list, args("a"), loader).get(), "result1");
+      assertEquals(loader.calls.get(), 1);
+
+      CacheStats stats = cache.getStats().get("Service.list");
+      assertEquals(stats.getMissCount(), 1);
+      assertEquals(stats.getHitCount(), 1);
+      assertEquals(stats.getSize(), 1);
+   }
+
+   public void testVarargsComparedByValue() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      cache.get(list, args("a", "b"), loader);
+      assertEquals(cache.get(list, args("a", "b"), loader).get(), "result1");
+      assertEquals(cache.get(list, args("b", "a"), loader).get(), "result2");
+   }
+
+   public void testCallersShareLoadInProgress() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      loader.pending = new SettableListenableFuture<Object>();
+      ListenableFuture<?> first = cache.get(list, args(), loader);
+      ListenableFuture<?> second = cache.get(list, args(), loader);
+      assertEquals(loader.calls.get(), 1);
+      loader.pending.set("foo");
+      assertEquals(first.get(), "foo");
+      assertEquals(second.get(), "foo");
+   }
+
+   public void testExpiredResultIsReloaded() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      Method shortLived = method("shortLived");
+      assertEquals(cache.get(shortLived, null, loader).get(), "result1");
+      Thread.sleep(100);
+      assertEquals(cache.get(shortLived, null, loader).get(), "result2");
+      assertEquals(cache.getStats().get("Service.shortLived").getMissCount(), 2);
+   }
+
+   public void testStaleResultReturnedWhileRevalidating() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      Method stale = method("stale");
+      assertEquals(cache.get(stale, null, loader).get(), "result1");
+      Thread.sleep(100);
+
+      loader.pending = new SettableListenableFuture<Object>();
+      assertEquals(cache.get(stale, null, loader).get(), "result1");
+      // only one refresh at a time
+      assertEquals(cache.get(stale, null, loader).get(), "result1");
+      assertEquals(loader.calls.get(), 2);
+
+      loader.pending.set("result2");
+      assertEquals(cache.get(stale, null, loader).get(), "result2");
+      CacheStats stats = cache.getStats().get("Service.stale");
+      assertEquals(stats.getStaleHitCount(), 2);
+      assertEquals(stats.getHitCount(), 1);
+   }
+
+   public void testFailedRefreshKeepsStaleResult() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      Method stale = method("stale");
+      cache.get(stale, null, loader).get();
+      Thread.sleep(100);
+
+      loader.failure = new IllegalStateException();
+      assertEquals(cache.get(stale, null, loader).get(), "result1");
+      assertEquals(cache.getStats().get("Service.stale").getLoadFailureCount(), 1);
+   }
+
+   public void testFailureIsNotCached() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      loader.pending = new SettableListenableFuture<Object>();
+      ListenableFuture<?> failed = cache.get(list, args(), loader);
+      IllegalStateException failure = new IllegalStateException();
+      loader.pending.setException(failure);
+      try {
+         failed.get();
+         assert false : "expected failure";
+      } catch (ExecutionException e) {
+         assertEquals(e.getCause(), failure);
+      }
+
+      loader.pending = null;
+      assertEquals(cache.get(list, args(), loader).get(), "result2");
+      assertEquals(cache.getStats().get("Service.list").getLoadFailureCount(), 1);
+   }
+
+   public void testLeastRecentlyUsedEvicted() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      cache.get(list, args("a"), loader);
+      cache.get(list, args("b"), loader);
+      cache.get(list, args("a"), loader);
+      cache.get(list, args("c"), loader);
+
+      CacheStats stats = cache.getStats().get("Service.list");
+      assertEquals(stats.getEvictionCount(), 1);
+      assertEquals(stats.getSize(), 2);
+      assertEquals(cache.get(list, args("a"), loader).get(), "result1");
+      assertEquals(cache.get(list, args("b"), loader).get(), "result4");
+   }
+
+   public void testInvalidateNamedMethod() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      Method shortLived = method("shortLived");
+      cache.get(list, args(), loader);
+      cache.get(shortLived, null, loader);
+
+      cache.invalidate(Service.class, method("delete"));
+      assertEquals(cache.get(list, args(), loader).get(), "result3");
+      assertEquals(cache.get(shortLived, null, loader).get(), "result2");
+      assertEquals(cache.getStats().get("Service.list").getInvalidationCount(), 1);
+   }
+
+   public void testInvalidateWholeInterface() throws Exception {
+      ResponseCache cache = new ResponseCache();
+      CountingLoader loader = new CountingLoader();
+      cache.get(list, args(), loader);
+      cache.get(method("shortLived"), null, loader);
+
+      cache.invalidate(Service.class, method("deleteAll"));
+      assertEquals(cache.getStats().get("Service.list").getSize(), 0);
+      assertEquals(cache.getStats().get("Service.shortLived").getSize(), 0);
+   }
+}
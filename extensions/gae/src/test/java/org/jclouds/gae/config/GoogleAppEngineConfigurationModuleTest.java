@@ -21,6 +21,7 @@ package org.jclouds.gae.config;
 import java.net.URI;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import javax.ws.rs.core.UriBuilder;
 
@@ -74,5 +75,7 @@ public class GoogleAppEngineConfigurationModuleTest {
       i.getInstance(Key.get(ExecutorService.class, Names.named(Constants.PROPERTY_USER_THREADS)));
       // TODO check single threaded;
       assert client instanceof GaeHttpCommandExecutorService;
+      // App Engine does not allow threads to be started, so retries must not be scheduled
+      assert !i.getBindings().containsKey(Key.get(ScheduledExecutorService.class));
    }
 }
@@ -16,200 +16,337 @@
  * limitations under the License.
  * ====================================================================
  */
-
 package org.jclouds.http.ning;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
 
-import com.google.common.annotations.VisibleForTesting;
+import org.jclouds.Constants;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpRequestFilter;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpResponseException;
+import org.jclouds.http.HttpUtils;
+import org.jclouds.http.IOExceptionRetryHandler;
+import org.jclouds.http.Payload;
+import org.jclouds.http.Payloads;
+import org.jclouds.http.handlers.DelegatingErrorHandler;
+import org.jclouds.http.handlers.DelegatingRetryHandler;
+import org.jclouds.http.handlers.RetryBudget;
+import org.jclouds.http.internal.HttpWire;
+import org.jclouds.instrumentation.Invocation.Event;
+import org.jclouds.logging.Logger;
+
 import com.google.common.base.Function;
 import com.google.common.base.Throwables;
-import com.google.common.io.ByteStreams;
-import com.google.common.io.Closeables;
-import com.google.common.util.concurrent.AbstractFuture;
-import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.ning.http.client.*;
-
-import java.io.InputStream;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-
-import com.ning.http.collection.Pair;
-import org.jclouds.http.*;
-
 import com.google.inject.Inject;
-import org.jclouds.http.handlers.DelegatingErrorHandler;
-import org.jclouds.http.handlers.DelegatingRetryHandler;
-import org.jclouds.http.payloads.ByteArrayPayload;
-import org.jclouds.http.payloads.FilePayload;
-import org.jclouds.http.payloads.InputStreamPayload;
-import org.jclouds.http.payloads.StringPayload;
-import org.jclouds.util.Utils;
+import com.ning.http.client.AsyncCompletionHandler;
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.Request;
+import com.ning.http.client.Response;
+import com.ning.http.collection.Pair;
 
 /**
- * Todo Write me
- *
+ * Sends commands through one shared {@link AsyncHttpClient} without holding a thread while the
+ * request is on the wire.
+ * <p/>
+ * Filters, logging and wire capture match {@code BaseHttpCommandExecutorService}. The returned
+ * future completes from Ning's completion handler. Retry and error handlers may sleep or parse
+ * content, so they run on the io worker threads rather than on Ning's. Delayed retries wait on the
+ * scheduler, not on a thread.
+ * 
  * @author Sam Tunnicliffe
  * @author Adrian Cole
  */
+@Singleton
 public class NingHttpCommandExecutorService implements HttpCommandExecutorService {
 
-    public static final String USER_AGENT = "jclouds/1.0 ning http/1.0.0";
-
-    private final AsyncHttpClient client;
-    private final ConvertToNingRequest convertToNingRequest;
-    private final ConvertToJCloudsResponse convertToJCloudsResponse;
-    private final DelegatingRetryHandler retryHandler;
-    private final DelegatingErrorHandler errorHandler;
-
-    @Inject
-    public NingHttpCommandExecutorService(AsyncHttpClient client,
-                                          ConvertToNingRequest convertToNingRequest,
-                                          ConvertToJCloudsResponse convertToJCloudsResponse,
-                                          DelegatingRetryHandler retryHandler,
-                                          DelegatingErrorHandler errorHandler) {
-        this.client = client;
-        this.convertToNingRequest = convertToNingRequest;
-        this.convertToJCloudsResponse = convertToJCloudsResponse;
-        this.retryHandler = retryHandler;
-        this.errorHandler = errorHandler;
-    }
-
-    @Override
-    public ListenableFuture<HttpResponse> submit(HttpCommand command) {
-        try {
-            for(;;) {
-                Future<Response> responseF = client.executeRequest(convertToNingRequest.apply(command.getRequest()));
-                final HttpResponse httpResponse = convertToJCloudsResponse.apply(responseF.get());
-                int statusCode = httpResponse.getStatusCode();
-                if (statusCode >= 300) {
-                    if (retryHandler.shouldRetryRequest(command, httpResponse)) {
-                        continue;
-                    } else {
-                        errorHandler.handleError(command, httpResponse);
-                        return wrapAsFuture(httpResponse);
-                    }
-                } else {
-                    return wrapAsFuture(httpResponse);
-                }
-            }
+   public static final String USER_AGENT = "jclouds/1.0 ning http/1.0.0";
 
-        } catch(IOException e) {
-            throw Throwables.propagate(e);
-        } catch(InterruptedException e) {
-            throw Throwables.propagate(e);
-        } catch(ExecutionException e) {
-            throw Throwables.propagate(e);
-        }
-    }
+   @Resource
+   protected Logger logger = Logger.NULL;
+   @Resource
+   @Named(Constants.LOGGER_HTTP_HEADERS)
+   protected Logger headerLog = Logger.NULL;
 
-    private ListenableFuture<HttpResponse> wrapAsFuture(final HttpResponse httpResponse) {
-        return Futures.makeListenable(new AbstractFuture<HttpResponse>() {
-            @Override
-            public HttpResponse get() throws InterruptedException, ExecutionException {
-                return httpResponse;
-            }
-        });
-    }
+   private final AsyncHttpClient client;
+   private final ConvertToNingRequest convertToNingRequest;
+   private final ConvertToJCloudsResponse convertToJCloudsResponse;
+   private final DelegatingRetryHandler retryHandler;
+   private final IOExceptionRetryHandler ioRetryHandler;
+   private final DelegatingErrorHandler errorHandler;
+   private final ExecutorService ioWorkerExecutor;
+   private final HttpWire wire;
 
-    @Singleton
-    public static class ConvertToNingRequest implements Function<HttpRequest, Request> {
+   @Inject(optional = true)
+   ScheduledExecutorService retryScheduler;
 
-        public Request apply(HttpRequest request) {
+   @Inject(optional = true)
+   RetryBudget retryBudget;
 
-            for (HttpRequestFilter filter : request.getFilters()) {
-                filter.filter(request);
-            }
+   @Inject
+   public NingHttpCommandExecutorService(AsyncHttpClient client,
+            ConvertToNingRequest convertToNingRequest,
+            ConvertToJCloudsResponse convertToJCloudsResponse,
+            DelegatingRetryHandler retryHandler, IOExceptionRetryHandler ioRetryHandler,
+            DelegatingErrorHandler errorHandler,
+            @Named(Constants.PROPERTY_IO_WORKER_THREADS) ExecutorService ioWorkerExecutor,
+            HttpWire wire) {
+      this.client = client;
+      this.convertToNingRequest = convertToNingRequest;
+      this.convertToJCloudsResponse = convertToJCloudsResponse;
+      this.retryHandler = retryHandler;
+      this.ioRetryHandler = ioRetryHandler;
+      this.errorHandler = errorHandler;
+      this.ioWorkerExecutor = ioWorkerExecutor;
+      this.wire = wire;
+   }
 
-            AsyncHttpClient client = new AsyncHttpClient();
-            AsyncHttpClient.BoundRequestBuilder nativeRequestBuilder;
-            String endpoint = request.getEndpoint().toASCIIString();
-
-            if (request.getMethod().equals(HttpMethod.HEAD)) {
-                nativeRequestBuilder = client.prepareHead(endpoint);
-            } else if (request.getMethod().equals(HttpMethod.GET)) {
-                nativeRequestBuilder = client.prepareGet(endpoint);
-            } else if (request.getMethod().equals(HttpMethod.DELETE)) {
-                nativeRequestBuilder = client.prepareDelete(endpoint);
-            } else if (request.getMethod().equals(HttpMethod.PUT)) {
-                nativeRequestBuilder = client.preparePut(endpoint);
-            } else if (request.getMethod().equals(HttpMethod.POST)) {
-                nativeRequestBuilder = client.preparePost(endpoint);
-            } else {
-                throw new UnsupportedOperationException(request.getMethod());
-            }
-            Payload payload = request.getPayload();
-            if(payload != null) {
-                //changeRequestContentToBytes(request);
-                setPayload(nativeRequestBuilder, payload);
-            } else {
-                nativeRequestBuilder.addHeader(HttpHeaders.CONTENT_LENGTH, "0");
-            }
+   public ListenableFuture<HttpResponse> submit(HttpCommand command) {
+      if (retryBudget != null && command.getRequest().getEndpoint() != null)
+         retryBudget.recordRequest(command.getRequest().getEndpoint());
+      SettableListenableFuture<HttpResponse> result = new SettableListenableFuture<HttpResponse>();
+      send(command, result);
+      return result;
+   }
+
+   /**
+    * filters and sends the current request of the command; called again for each retry.
+    */
+   void send(final HttpCommand command, final SettableListenableFuture<HttpResponse> result) {
+      final HttpRequest request = command.getRequest();
+      try {
+         command.getInvocation().mark(Event.STARTED);
+         for (HttpRequestFilter filter : request.getFilters()) {
+            filter.filter(request);
+         }
+         command.getInvocation().mark(Event.FILTERED);
+         logger.debug("Sending request %s: %s", request.hashCode(), request.getRequestLine());
+         if (request.getPayload() != null && wire.sampled(request))
+            request.setPayload(Payloads.newPayload(wire.output(request.getPayload()
+                     .getRawContent())));
+         Request nativeRequest = convertToNingRequest.apply(request);
+         command.getInvocation().mark(Event.CONNECTED);
+         HttpUtils.logRequest(headerLog, request, ">>");
+         client.executeRequest(nativeRequest, new AsyncCompletionHandler<Response>() {
 
-            nativeRequestBuilder.addHeader(HttpHeaders.USER_AGENT, USER_AGENT);
-            for (String header : request.getHeaders().keySet()) {
-                for (String value : request.getHeaders().get(header)) {
-                    nativeRequestBuilder.addHeader(header, value);
-                }
+            @Override
+            public Response onCompleted(final Response nativeResponse) {
+               // the completion handler buffers the body, so this is the last byte, not the first
+               command.getInvocation().mark(Event.FIRST_BYTE);
+               try {
+                  ioWorkerExecutor.execute(new Runnable() {
+                     public void run() {
+                        try {
+                           receive(command, convertToJCloudsResponse.apply(nativeResponse), result);
+                        } catch (Throwable t) {
+                           result.setException(t);
+                        }
+                     }
+                  });
+               } catch (RejectedExecutionException e) {
+                  result.setException(e);
+               }
+               return nativeResponse;
             }
 
-            return nativeRequestBuilder.build();
-        }
-
-        @VisibleForTesting
-        void changeRequestContentToBytes(HttpRequest request) {
-            Payload content = request.getPayload();
-            if (content == null || content instanceof ByteArrayPayload) {
-                //just return
-            } else if (content instanceof StringPayload) {
-                String string = ((StringPayload) content).getRawContent();
-                request.setPayload(string.getBytes());
-            } else if (content instanceof InputStreamPayload || content instanceof FilePayload) {
-                InputStream i = content.getContent();
-                try {
-                    try {
-                        request.setPayload(ByteStreams.toByteArray(i));
-                    } catch (IOException e) {
-                        throw Throwables.propagate(e);
-                    }
-                } finally {
-                    Closeables.closeQuietly(i);
-                }
-            } else {
-                throw new UnsupportedOperationException("Content not supported " + content.getClass());
+            @Override
+            public void onThrowable(final Throwable t) {
+               try {
+                  ioWorkerExecutor.execute(new Runnable() {
+                     public void run() {
+                        try {
+                           fail(command, t, result);
+                        } catch (Throwable e) {
+                           result.setException(e);
+                        }
+                     }
+                  });
+               } catch (RejectedExecutionException e) {
+                  result.setException(e);
+               }
             }
-        }
 
-        void setPayload(AsyncHttpClient.BoundRequestBuilder requestBuilder, Payload payload) {
-            try {
-                requestBuilder.setBody(ByteStreams.toByteArray(payload.getContent()));
-            } catch(IOException e) {
-                throw Throwables.propagate(e);
+         });
+      } catch (IOException e) {
+         fail(command, e, result);
+      } catch (Throwable t) {
+         result.setException(t);
+      }
+   }
+
+   void receive(HttpCommand command, HttpResponse response,
+            SettableListenableFuture<HttpResponse> result) {
+      HttpRequest request = command.getRequest();
+      logger.debug("Receiving response %s: %s", request.hashCode(), response.getStatusLine());
+      HttpUtils.logResponse(headerLog, response, "<<");
+      if (response.getContent() != null && wire.sampled(request))
+         response.setContent(wire.input(response.getContent()));
+      if (response.getStatusCode() >= 300) {
+         if (retryHandler.shouldRetryRequest(command, response)) {
+            retry(command, result);
+            return;
+         }
+         errorHandler.handleError(command, response);
+      }
+      if (command.getException() != null)
+         result.setException(command.getException());
+      else
+         result.set(response);
+   }
+
+   void fail(HttpCommand command, Throwable t, SettableListenableFuture<HttpResponse> result) {
+      if (!(t instanceof IOException)) {
+         result.setException(t);
+      } else if (ioRetryHandler.shouldRetryRequest(command, (IOException) t)) {
+         retry(command, result);
+      } else {
+         result.setException(new HttpResponseException(t.getMessage() + " connecting to "
+                  + command.getRequest().getRequestLine(), command, new HttpResponse(), t));
+      }
+   }
+
+   /**
+    * sends the command again once the delay the retry handler set on it has passed.
+    */
+   void retry(final HttpCommand command, final SettableListenableFuture<HttpResponse> result) {
+      long delay = command.getRetryDelayMillis();
+      command.setRetryDelayMillis(0);
+      if (delay <= 0) {
+         send(command, result);
+         return;
+      }
+      if (retryScheduler == null) {
+         try {
+            Thread.sleep(delay);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.setException(e);
+            return;
+         }
+         send(command, result);
+         return;
+      }
+      try {
+         retryScheduler.schedule(new Runnable() {
+            public void run() {
+               try {
+                  command.getInvocation().mark(Event.QUEUED);
+                  ioWorkerExecutor.execute(new Runnable() {
+                     public void run() {
+                        send(command, result);
+                     }
+                  });
+               } catch (RejectedExecutionException e) {
+                  result.setException(e);
+               }
             }
-        }
-    }
-
-    @Singleton
-    public static class ConvertToJCloudsResponse implements Function<Response, HttpResponse> {
-        public HttpResponse apply(Response nativeResponse) {
-            HttpResponse response = new HttpResponse();
-            response.setStatusCode(nativeResponse.getStatusCode());
-            for (Pair<String, String> header : nativeResponse.getHeaders()) {
-                response.getHeaders().put(header.getFirst(), header.getSecond());
+         }, delay, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+         result.setException(e);
+      }
+   }
+
+   @Singleton
+   public static class ConvertToNingRequest implements Function<HttpRequest, Request> {
+      private final AsyncHttpClient client;
+
+      @Inject
+      ConvertToNingRequest(AsyncHttpClient client) {
+         this.client = client;
+      }
+
+      public Request apply(HttpRequest request) {
+         AsyncHttpClient.BoundRequestBuilder nativeRequestBuilder;
+         String endpoint = request.getEndpoint().toASCIIString();
+
+         if (request.getMethod().equals(HttpMethod.HEAD)) {
+            nativeRequestBuilder = client.prepareHead(endpoint);
+         } else if (request.getMethod().equals(HttpMethod.GET)) {
+            nativeRequestBuilder = client.prepareGet(endpoint);
+         } else if (request.getMethod().equals(HttpMethod.DELETE)) {
+            nativeRequestBuilder = client.prepareDelete(endpoint);
+         } else if (request.getMethod().equals(HttpMethod.PUT)) {
+            nativeRequestBuilder = client.preparePut(endpoint);
+         } else if (request.getMethod().equals(HttpMethod.POST)) {
+            nativeRequestBuilder = client.preparePost(endpoint);
+         } else {
+            throw new UnsupportedOperationException(request.getMethod());
+         }
+         Payload payload = request.getPayload();
+         if (payload != null) {
+            setPayload(nativeRequestBuilder, payload, contentLength(request));
+         } else {
+            nativeRequestBuilder.addHeader(HttpHeaders.CONTENT_LENGTH, "0");
+         }
+
+         nativeRequestBuilder.addHeader(HttpHeaders.USER_AGENT, USER_AGENT);
+         for (String header : request.getHeaders().keySet()) {
+            // the length travels with the body
+            if (payload != null && header.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH))
+               continue;
+            for (String value : request.getHeaders().get(header)) {
+               nativeRequestBuilder.addHeader(header, value);
             }
-            try {
-                String responseBody = nativeResponse.getResponseBody();
-                if(responseBody != null) {
-                    response.setContent(Utils.toInputStream(responseBody));
-                }
-            } catch(IOException e) {
-                throw Throwables.propagate(e);
+         }
+
+         return nativeRequestBuilder.build();
+      }
+
+      static long contentLength(HttpRequest request) {
+         String header = request.getFirstHeaderOrNull(HttpHeaders.CONTENT_LENGTH);
+         if (header != null)
+            return Long.parseLong(header);
+         Long size = request.getPayload().calculateSize();
+         return size != null ? size : -1;
+      }
+
+      /**
+       * writes the payload straight to the connection, so that files and streams are never held in
+       * memory.
+       */
+      void setPayload(AsyncHttpClient.BoundRequestBuilder requestBuilder, final Payload payload,
+               long length) {
+         requestBuilder.setBody(new Request.EntityWriter() {
+            public void writeEntity(OutputStream out) throws IOException {
+               payload.writeTo(out);
             }
-            return response;
-        }
-    }
+         }, length);
+      }
+   }
+
+   @Singleton
+   public static class ConvertToJCloudsResponse implements Function<Response, HttpResponse> {
+      public HttpResponse apply(Response nativeResponse) {
+         HttpResponse response = new HttpResponse();
+         response.setStatusCode(nativeResponse.getStatusCode());
+         response.setMessage(nativeResponse.getStatusText());
+         for (Pair<String, String> header : nativeResponse.getHeaders()) {
+            response.getHeaders().put(header.getFirst(), header.getSecond());
+         }
+         try {
+            InputStream in = nativeResponse.getResponseBodyAsStream();
+            if (in != null)
+               response.setContent(in);
+         } catch (IOException e) {
+            throw Throwables.propagate(e);
+         }
+         return response;
+      }
+   }
 }
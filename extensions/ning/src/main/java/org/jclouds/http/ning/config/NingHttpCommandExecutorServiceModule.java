@@ -18,24 +18,30 @@
  */
 package org.jclouds.http.ning.config;
 
-import com.google.inject.Provides;
-import com.ning.http.client.AsyncHttpClient;
-import com.ning.http.client.AsyncHttpClientConfig;
+import java.io.Closeable;
+import java.io.IOException;
+
+import javax.inject.Singleton;
+
 import org.jclouds.http.HttpCommandExecutorService;
+import org.jclouds.http.HttpUtils;
 import org.jclouds.http.TransformingHttpCommandExecutorService;
 import org.jclouds.http.TransformingHttpCommandExecutorServiceImpl;
-import org.jclouds.http.ning.NingHttpCommandExecutorService;
 import org.jclouds.http.config.ConfiguresHttpCommandExecutorService;
+import org.jclouds.http.ning.NingHttpCommandExecutorService;
+import org.jclouds.lifecycle.Closer;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
 import com.google.inject.Scopes;
-
-import javax.inject.Singleton;
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.AsyncHttpClientConfig;
 
 /**
  * Configures {@link NingHttpCommandExecutorService}.
- * 
- * Note that this uses threads
+ * <p/>
+ * Each context shares one {@link AsyncHttpClient}, so connections are pooled across requests. The
+ * client is closed with the context.
  * 
  * @author Sam Tunnicliffe
  * @author Adrian Cole
@@ -50,95 +56,31 @@ public class NingHttpCommandExecutorServiceModule extends AbstractModule {
 
    @Singleton
    @Provides
-   AsyncHttpClient provideNingClient() {
-       AsyncHttpClientConfig config = new AsyncHttpClientConfig.Builder().
-               setFollowRedirects(true).
-               build();
-       return new AsyncHttpClient(config);
+   AsyncHttpClientConfig provideNingClientConfig(HttpUtils utils) {
+      // redirects go through the retry handlers, as they do for the other executors
+      AsyncHttpClientConfig.Builder builder = new AsyncHttpClientConfig.Builder()
+               .setFollowRedirects(false).setUserAgent(NingHttpCommandExecutorService.USER_AGENT);
+      if (utils.getConnectionTimeout() > 0)
+         builder.setConnectionTimeoutInMs(utils.getConnectionTimeout());
+      if (utils.getMaxConnections() > 0)
+         builder.setMaximumConnectionsTotal(utils.getMaxConnections());
+      if (utils.getMaxConnectionsPerHost() > 0)
+         builder.setMaximumConnectionsPerHost(utils.getMaxConnectionsPerHost());
+      return builder.build();
+   }
+
+   @Singleton
+   @Provides
+   AsyncHttpClient provideNingClient(AsyncHttpClientConfig config, Closer closer) {
+      final AsyncHttpClient client = new AsyncHttpClient(config);
+      closer.addToClose(new Closeable() {
+         @Override
+         public void close() throws IOException {
+            client.close();
+         }
+      });
+      return client;
    }
-//
-//   @Singleton
-//   @Provides
-//   HttpParams newBasicHttpParams(HttpUtils utils) {
-//      BasicHttpParams params = new BasicHttpParams();
-//
-//      params.setIntParameter(CoreConnectionPNames.SOCKET_BUFFER_SIZE, 8 * 1024)
-//               .setBooleanParameter(CoreConnectionPNames.STALE_CONNECTION_CHECK, true)
-//               .setBooleanParameter(CoreConnectionPNames.TCP_NODELAY, true).setParameter(
-//                        CoreProtocolPNames.ORIGIN_SERVER, "jclouds/1.0");
-//
-//      if (utils.getConnectionTimeout() > 0) {
-//         params.setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, utils
-//                  .getConnectionTimeout());
-//      }
-//
-//      if (utils.getSocketOpenTimeout() > 0) {
-//         params.setIntParameter(CoreConnectionPNames.SO_TIMEOUT, utils.getSocketOpenTimeout());
-//      }
-//
-//      if (utils.getMaxConnections() > 0)
-//         ConnManagerParams.setMaxTotalConnections(params, utils.getMaxConnections());
-//
-//      if (utils.getMaxConnectionsPerHost() > 0) {
-//         ConnPerRoute connectionsPerRoute = new ConnPerRouteBean(utils.getMaxConnectionsPerHost());
-//         ConnManagerParams.setMaxConnectionsPerRoute(params, connectionsPerRoute);
-//      }
-//      HttpProtocolParams.setVersion(params, HttpVersion.HTTP_1_1);
-//      return params;
-//   }
-//
-//   @Singleton
-//   @Provides
-//   X509HostnameVerifier newHostnameVerifier(HttpUtils utils) {
-//      return utils.relaxHostname() ? SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER
-//               : SSLSocketFactory.STRICT_HOSTNAME_VERIFIER;
-//   }
-//
-//   @Singleton
-//   @Provides
-//   ClientConnectionManager newClientConnectionManager(HttpParams params,
-//            X509HostnameVerifier verifier, Closer closer) throws NoSuchAlgorithmException,
-//            KeyManagementException {
-//
-//      SchemeRegistry schemeRegistry = new SchemeRegistry();
-//
-//      Scheme http = new Scheme("http", PlainSocketFactory.getSocketFactory(), 80);
-//      SSLContext context = SSLContext.getInstance("TLS");
-//
-//      context.init(null, null, null);
-//      SSLSocketFactory sf = new SSLSocketFactory(context);
-//      sf.setHostnameVerifier(verifier);
-//
-//      Scheme https = new Scheme("https", sf, 443);
-//
-//      SchemeRegistry sr = new SchemeRegistry();
-//      sr.register(http);
-//      sr.register(https);
-//
-//      schemeRegistry.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
-//      schemeRegistry.register(new Scheme("https", SSLSocketFactory.getSocketFactory(), 443));
-//      final ClientConnectionManager cm = new ThreadSafeClientConnManager(params, schemeRegistry);
-//      closer.addToClose(new Closeable() {
-//         @Override
-//         public void close() throws IOException {
-//            cm.shutdown();
-//         }
-//      });
-//      return cm;
-//   }
-//
-//   @Provides
-//   @Singleton
-//   HttpClient newDefaultHttpClient(HttpUtils utils, BasicHttpParams params,
-//            ClientConnectionManager cm) {
-//      DefaultHttpClient client = new DefaultHttpClient(cm, params);
-//      if (utils.useSystemProxies()) {
-//         ProxySelectorRoutePlanner routePlanner = new ProxySelectorRoutePlanner(client
-//                  .getConnectionManager().getSchemeRegistry(), ProxySelector.getDefault());
-//         client.setRoutePlanner(routePlanner);
-//      }
-//      return client;
-//   }
 
    protected void bindClient() {
       bind(HttpCommandExecutorService.class).to(NingHttpCommandExecutorService.class).in(
@@ -148,4 +90,4 @@ public class NingHttpCommandExecutorServiceModule extends AbstractModule {
                TransformingHttpCommandExecutorServiceImpl.class).in(Scopes.SINGLETON);
    }
 
-}
\ No newline at end of file
+}
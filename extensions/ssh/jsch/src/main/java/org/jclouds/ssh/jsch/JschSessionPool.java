@@ -0,0 +1,415 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.ssh.jsch;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.encryption.EncryptionService;
+import org.jclouds.logging.Logger;
+import org.jclouds.ssh.SshException;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.MapMaker;
+import com.google.inject.Inject;
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * Shares ssh sessions between {@link JschSshClient} instances that connect to the same host, port
+ * and user with the same credential.
+ * <p/>
+ * Sessions are handed out as leases. When the last lease of a session is released, the session
+ * stays connected for {@code jclouds.ssh.session_idle_timeout} milliseconds in case another
+ * client wants it. Idle sessions are evicted on the context's scheduler when there is one, and
+ * otherwise on the next lease or release. Each session allows at most {@code jclouds.ssh.max_channels_per_session}
+ * exec or sftp channels at a time; callers beyond that wait for a channel to close.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class JschSessionPool {
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named("jclouds.ssh.session_idle_timeout")
+   long idleTimeout = 60000;
+
+   @Inject(optional = true)
+   @Named("jclouds.ssh.max_channels_per_session")
+   int maxChannelsPerSession = 8;
+
+   @Inject(optional = true)
+   @Named("jclouds.ssh.keepalive_interval")
+   int keepAliveInterval = 15000;
+
+   @VisibleForTesting
+   @Inject(optional = true)
+   ScheduledExecutorService scheduler;
+
+   private final EncryptionService encryptionService;
+   private final JSch passwordJSch = new JSch();
+   private final ConcurrentMap<String, JSch> identities = new MapMaker().makeMap();
+   private final ConcurrentMap<SessionKey, PooledSession> sessions = new MapMaker().makeMap();
+   /**
+    * serializes connecting and closing the session of a key; removed along with the session
+    */
+   @VisibleForTesting
+   final ConcurrentMap<SessionKey, Object> locks = new MapMaker().makeMap();
+
+   private final AtomicLong sessionsCreated = new AtomicLong();
+   private final AtomicLong sessionsReused = new AtomicLong();
+   private final AtomicLong sessionsEvicted = new AtomicLong();
+   private final AtomicLong channelsOpened = new AtomicLong();
+
+   @Inject
+   public JschSessionPool(EncryptionService encryptionService) {
+      this.encryptionService = checkNotNull(encryptionService, "encryptionService");
+   }
+
+   /**
+    * @return the key sessions for this host and credential are shared under
+    */
+   public SessionKey keyFor(String host, int port, String username, String password,
+            byte[] privateKey) {
+      return new SessionKey(host, port, username, fingerprint(password, privateKey));
+   }
+
+   private String fingerprint(String password, byte[] privateKey) {
+      try {
+         return encryptionService.md5Hex(password != null ? ("password:" + password).getBytes()
+                  : privateKey);
+      } catch (Exception e) {
+         throw new SshException("error fingerprinting credential", e);
+      }
+   }
+
+   /**
+    * Leases a connected session, reusing an existing one when available. Every lease must be
+    * returned with {@link #release}.
+    */
+   public PooledSession lease(SessionKey key, String password, byte[] privateKey, int timeout)
+            throws JSchException {
+      evictIdleSessions();
+      for (;;) {
+         Object lock = lockFor(key);
+         synchronized (lock) {
+            if (locks.get(key) != lock)
+               continue;
+            PooledSession pooled = sessions.get(key);
+            if (pooled != null && pooled.isConnected()) {
+               pooled.leases.incrementAndGet();
+               sessionsReused.incrementAndGet();
+               logger.debug("%s: Session reused.", key);
+               return pooled;
+            }
+            if (pooled != null) {
+               sessions.remove(key);
+               pooled.session.disconnect();
+            }
+            try {
+               pooled = new PooledSession(key, newSession(key, password, privateKey, timeout),
+                        maxChannelsPerSession);
+            } catch (JSchException e) {
+               locks.remove(key);
+               throw e;
+            } catch (RuntimeException e) {
+               locks.remove(key);
+               throw e;
+            }
+            pooled.leases.incrementAndGet();
+            sessions.put(key, pooled);
+            sessionsCreated.incrementAndGet();
+            return pooled;
+         }
+      }
+   }
+
+   /**
+    * returns a lease obtained from {@link #lease}; broken sessions are dropped immediately.
+    */
+   public void release(PooledSession pooled) {
+      boolean idle = false;
+      for (;;) {
+         Object lock = lockFor(pooled.key);
+         synchronized (lock) {
+            if (locks.get(pooled.key) != lock)
+               continue;
+            pooled.lastReleased = System.currentTimeMillis();
+            if (pooled.leases.decrementAndGet() <= 0) {
+               if (idleTimeout <= 0 || !pooled.isConnected())
+                  close(pooled);
+               else
+                  idle = true;
+            }
+            break;
+         }
+      }
+      if (idle)
+         scheduleEviction(pooled);
+      evictIdleSessions();
+   }
+
+   /**
+    * @return the lock of {@code key}. Locks are removed with their session, so callers check that
+    *         the lock is still current once they hold it, and look it up again if not.
+    */
+   private Object lockFor(SessionKey key) {
+      Object lock = locks.get(key);
+      if (lock == null) {
+         Object created = new Object();
+         lock = locks.putIfAbsent(key, created);
+         if (lock == null)
+            lock = created;
+      }
+      return lock;
+   }
+
+   private void scheduleEviction(final PooledSession pooled) {
+      if (scheduler == null)
+         return;
+      try {
+         scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+               evictIfIdle(pooled, System.currentTimeMillis());
+            }
+         }, idleTimeout, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+         // evicted on the next lease or release instead
+      }
+   }
+
+   @VisibleForTesting
+   Session newSession(SessionKey key, String password, byte[] privateKey, int timeout)
+            throws JSchException {
+      Session session = null;
+      try {
+         session = (password != null ? passwordJSch : identityFor(key, privateKey)).getSession(
+                  key.username, key.host, key.port);
+         if (timeout != 0)
+            session.setTimeout(timeout);
+         if (keepAliveInterval > 0)
+            session.setServerAliveInterval(keepAliveInterval);
+         logger.debug("%s: Session created.", key);
+         if (password != null)
+            session.setPassword(password);
+      } catch (JSchException e) {
+         throw new SshException(String.format("%s: Error creating session.", key), e);
+      }
+      Properties config = new Properties();
+      config.put("StrictHostKeyChecking", "no");
+      session.setConfig(config);
+      session.connect();
+      logger.debug("%s: Session connected.", key);
+      return session;
+   }
+
+   /**
+    * parsing the private key is expensive, so we keep one {@link JSch} per key.
+    */
+   private JSch identityFor(SessionKey key, byte[] privateKey) throws JSchException {
+      JSch jsch = identities.get(key.fingerprint);
+      if (jsch == null) {
+         jsch = new JSch();
+         // jsch wipes out your private key
+         jsch.addIdentity(key.username, Arrays.copyOf(privateKey, privateKey.length), null,
+                  new byte[0]);
+         JSch existing = identities.putIfAbsent(key.fingerprint, jsch);
+         if (existing != null)
+            jsch = existing;
+      }
+      return jsch;
+   }
+
+   void evictIdleSessions() {
+      if (idleTimeout <= 0)
+         return;
+      long now = System.currentTimeMillis();
+      for (PooledSession pooled : sessions.values()) {
+         if (pooled.leases.get() <= 0 && now - pooled.lastReleased >= idleTimeout)
+            evictIfIdle(pooled, now);
+      }
+   }
+
+   private void evictIfIdle(PooledSession pooled, long now) {
+      Object lock = locks.get(pooled.key);
+      if (lock == null)
+         return;
+      synchronized (lock) {
+         if (locks.get(pooled.key) == lock && pooled.leases.get() <= 0
+                  && now - pooled.lastReleased >= idleTimeout && close(pooled))
+            sessionsEvicted.incrementAndGet();
+      }
+   }
+
+   /**
+    * disconnects the session and drops it, and its lock, from the pool. Callers hold the lock.
+    * 
+    * @return true if the session was still in the pool
+    */
+   private boolean close(PooledSession pooled) {
+      boolean removed = sessions.remove(pooled.key, pooled);
+      if (!sessions.containsKey(pooled.key))
+         locks.remove(pooled.key);
+      if (pooled.session.isConnected()) {
+         pooled.session.disconnect();
+         logger.debug("%s: Session disconnected.", pooled.key);
+      }
+      return removed;
+   }
+
+   /**
+    * @return counters describing how sessions and channels have been used
+    */
+   public Map<String, Long> getStatistics() {
+      long leased = 0;
+      for (PooledSession pooled : sessions.values())
+         leased += pooled.leases.get();
+      return ImmutableMap.<String, Long> builder().put("sessions.open",
+               (long) sessions.size()).put("sessions.leased", leased).put("sessions.created",
+               sessionsCreated.get()).put("sessions.reused", sessionsReused.get()).put(
+               "sessions.evicted", sessionsEvicted.get()).put("channels.opened",
+               channelsOpened.get()).build();
+   }
+
+   @PreDestroy
+   public void close() {
+      for (PooledSession pooled : sessions.values()) {
+         Object lock = locks.get(pooled.key);
+         if (lock == null)
+            continue;
+         synchronized (lock) {
+            if (locks.get(pooled.key) == lock)
+               close(pooled);
+         }
+      }
+   }
+
+   public static class SessionKey {
+      private final String host;
+      private final int port;
+      private final String username;
+      private final String fingerprint;
+
+      SessionKey(String host, int port, String username, String fingerprint) {
+         this.host = checkNotNull(host, "host");
+         this.port = port;
+         this.username = checkNotNull(username, "username");
+         this.fingerprint = checkNotNull(fingerprint, "fingerprint");
+      }
+
+      @Override
+      public int hashCode() {
+         final int prime = 31;
+         int result = 1;
+         result = prime * result + fingerprint.hashCode();
+         result = prime * result + host.hashCode();
+         result = prime * result + port;
+         result = prime * result + username.hashCode();
+         return result;
+      }
+
+      @Override
+      public boolean equals(Object obj) {
+         if (this == obj)
+            return true;
+         if (obj == null)
+            return false;
+         if (getClass() != obj.getClass())
+            return false;
+         SessionKey other = (SessionKey) obj;
+         return port == other.port && host.equals(other.host) && username.equals(other.username)
+                  && fingerprint.equals(other.fingerprint);
+      }
+
+      @Override
+      public String toString() {
+         return String.format("%s@%s:%d", username, host, port);
+      }
+   }
+
+   /**
+    * A session shared by one or more clients, which bounds the number of channels open on it.
+    */
+   public class PooledSession {
+      private final SessionKey key;
+      private final Session session;
+      private final Semaphore channels;
+      private final AtomicInteger leases = new AtomicInteger();
+      private volatile long lastReleased = System.currentTimeMillis();
+
+      PooledSession(SessionKey key, Session session, int maxChannels) {
+         this.key = key;
+         this.session = session;
+         this.channels = new Semaphore(maxChannels > 0 ? maxChannels : Integer.MAX_VALUE, true);
+      }
+
+      public boolean isConnected() {
+         return session.isConnected();
+      }
+
+      /**
+       * opens a channel, waiting if the session already has the maximum number of channels open.
+       * The channel must be closed with {@link #closeChannel}.
+       */
+      public Channel openChannel(String type) throws JSchException {
+         channels.acquireUninterruptibly();
+         try {
+            Channel channel = session.openChannel(type);
+            channelsOpened.incrementAndGet();
+            return channel;
+         } catch (JSchException e) {
+            channels.release();
+            throw e;
+         } catch (RuntimeException e) {
+            channels.release();
+            throw e;
+         }
+      }
+
+      public void closeChannel(Channel channel) {
+         try {
+            channel.disconnect();
+         } finally {
+            channels.release();
+         }
+      }
+   }
+}
@@ -21,16 +21,29 @@ package org.jclouds.ssh.jsch;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Predicates.in;
 import static com.google.common.base.Predicates.instanceOf;
+import static com.google.common.base.Predicates.not;
 import static com.google.common.base.Predicates.or;
 import static com.google.common.base.Throwables.getCausalChain;
 import static com.google.common.base.Throwables.getRootCause;
 import static com.google.common.collect.Iterables.any;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.ConnectException;
-import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -39,29 +52,38 @@ import javax.inject.Named;
 
 import org.apache.commons.io.input.ProxyInputStream;
 import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.jclouds.Constants;
+import org.jclouds.encryption.EncryptionService;
+import org.jclouds.encryption.internal.JCEEncryptionService;
 import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
 import org.jclouds.logging.Logger;
 import org.jclouds.net.IPSocket;
 import org.jclouds.ssh.ExecResponse;
 import org.jclouds.ssh.SshClient;
 import org.jclouds.ssh.SshException;
+import org.jclouds.ssh.TransferOptions;
+import org.jclouds.ssh.jsch.JschSessionPool.PooledSession;
+import org.jclouds.ssh.jsch.JschSessionPool.SessionKey;
 import org.jclouds.util.Utils;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Predicate;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
 import com.google.common.io.Closeables;
 import com.google.inject.Inject;
 import com.jcraft.jsch.ChannelExec;
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
-import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpException;
 
 /**
- * This class needs refactoring. It is not thread safe.
+ * Runs commands and transfers files over a session leased from a {@link JschSessionPool}. Once
+ * connected, {@link #get}, {@link #put} and {@link #exec} may be called concurrently; each opens
+ * its own channel on the shared session.
  * 
  * @author Adrian Cole
  */
@@ -69,18 +91,23 @@ public class JschSshClient implements SshClient {
 
    private final class CloseFtpChannelOnCloseInputStream extends ProxyInputStream {
 
+      private final PooledSession session;
       private final ChannelSftp sftp;
 
-      private CloseFtpChannelOnCloseInputStream(InputStream proxy, ChannelSftp sftp) {
+      private CloseFtpChannelOnCloseInputStream(InputStream proxy, PooledSession session,
+               ChannelSftp sftp) {
          super(proxy);
+         this.session = session;
          this.sftp = sftp;
       }
 
       @Override
       public void close() throws IOException {
-         super.close();
-         if (sftp != null)
-            sftp.disconnect();
+         try {
+            super.close();
+         } finally {
+            session.closeChannel(sftp);
+         }
       }
    }
 
@@ -103,16 +130,26 @@ public class JschSshClient implements SshClient {
    @Named("jclouds.ssh.retry_predicate")
    private Predicate<Throwable> retryPredicate = or(instanceOf(ConnectException.class),
             instanceOf(IOException.class));
+   @Inject(optional = true)
+   @Named(Constants.PROPERTY_USER_THREADS)
+   @VisibleForTesting
+   ExecutorService transferExecutor = sameThreadExecutor();
+
+   @Inject(optional = true)
+   private EncryptionService encryptionService = new JCEEncryptionService();
+
    @Resource
    protected Logger logger = Logger.NULL;
-   private Session session;
+   private volatile PooledSession session;
    private final byte[] privateKey;
-   final byte[] emptyPassPhrase = new byte[0];
    private final int timeout;
    private final BackoffLimitedRetryHandler backoffLimitedRetryHandler;
+   private final JschSessionPool pool;
+   private final SessionKey key;
 
-   public JschSshClient(BackoffLimitedRetryHandler backoffLimitedRetryHandler, IPSocket socket,
-            int timeout, String username, String password, byte[] privateKey) {
+   public JschSshClient(BackoffLimitedRetryHandler backoffLimitedRetryHandler,
+            JschSessionPool pool, IPSocket socket, int timeout, String username, String password,
+            byte[] privateKey) {
       this.host = checkNotNull(socket, "socket").getAddress();
       checkArgument(socket.getPort() > 0, "ssh port must be greater then zero" + socket.getPort());
       checkArgument(password != null || privateKey != null, "you must specify a password or a key");
@@ -123,24 +160,19 @@ public class JschSshClient implements SshClient {
       this.timeout = timeout;
       this.password = password;
       this.privateKey = privateKey;
+      this.pool = checkNotNull(pool, "pool");
+      this.key = pool.keyFor(host, port, username, password, privateKey);
    }
 
    public InputStream get(String path) {
       checkNotNull(path, "path");
 
-      checkConnected();
-      logger.debug("%s@%s:%d: Opening sftp Channel.", username, host, port);
-      ChannelSftp sftp = null;
+      PooledSession session = checkConnected();
+      ChannelSftp sftp = openSftp(session);
       try {
-         sftp = (ChannelSftp) session.openChannel("sftp");
-         sftp.connect();
-      } catch (JSchException e) {
-         throw new SshException(String.format("%s@%s:%d: Error connecting to sftp.", username,
-                  host, port), e);
-      }
-      try {
-         return new CloseFtpChannelOnCloseInputStream(sftp.get(path), sftp);
+         return new CloseFtpChannelOnCloseInputStream(sftp.get(path), session, sftp);
       } catch (SftpException e) {
+         session.closeChannel(sftp);
          throw new SshException(String.format("%s@%s:%d: Error getting path: %s", username, host,
                   port, path), e);
       }
@@ -150,15 +182,14 @@ public class JschSshClient implements SshClient {
       checkNotNull(path, "path");
       checkNotNull(contents, "contents");
 
-      checkConnected();
-      logger.debug("%s@%s:%d: Opening sftp Channel.", username, host, port);
-      ChannelSftp sftp = null;
+      PooledSession session;
+      ChannelSftp sftp;
       try {
-         sftp = (ChannelSftp) session.openChannel("sftp");
-         sftp.connect();
-      } catch (JSchException e) {
-         throw new SshException(String.format("%s@%s:%d: Error connecting to sftp.", username,
-                  host, port), e);
+         session = checkConnected();
+         sftp = openSftp(session);
+      } catch (RuntimeException e) {
+         Closeables.closeQuietly(contents);
+         throw e;
       }
       try {
          sftp.put(contents, path);
@@ -167,12 +198,219 @@ public class JschSshClient implements SshClient {
                   port, path), e);
       } finally {
          Closeables.closeQuietly(contents);
+         session.closeChannel(sftp);
+      }
+   }
+
+   private static interface SftpTransfer {
+      void transfer(ChannelSftp sftp, String remotePath, File localFile, int mode)
+               throws SftpException;
+   }
+
+   private static final SftpTransfer PUT = new SftpTransfer() {
+      @Override
+      public void transfer(ChannelSftp sftp, String remotePath, File localFile, int mode)
+               throws SftpException {
+         sftp.put(localFile.getAbsolutePath(), remotePath, null, mode);
+      }
+
+      @Override
+      public String toString() {
+         return "putting";
+      }
+   };
+
+   private static final SftpTransfer GET = new SftpTransfer() {
+      @Override
+      public void transfer(ChannelSftp sftp, String remotePath, File localFile, int mode)
+               throws SftpException {
+         File parent = localFile.getAbsoluteFile().getParentFile();
+         if (parent != null)
+            parent.mkdirs();
+         sftp.get(remotePath, localFile.getAbsolutePath(), null, mode);
+      }
+
+      @Override
+      public String toString() {
+         return "getting";
+      }
+   };
+
+   @Override
+   public void put(Map<String, File> remotePathToLocalFile, TransferOptions options) {
+      transferAll(remotePathToLocalFile, options, PUT);
+   }
+
+   @Override
+   public void get(Map<String, File> remotePathToLocalFile, TransferOptions options) {
+      transferAll(remotePathToLocalFile, options, GET);
+   }
+
+   @Override
+   public void putDirectory(File localDirectory, String remoteDirectory, TransferOptions options) {
+      checkArgument(checkNotNull(localDirectory, "localDirectory").isDirectory(),
+               "%s is not a directory", localDirectory);
+      checkNotNull(remoteDirectory, "remoteDirectory");
+      List<String> remoteDirectories = Lists.newArrayList();
+      Map<String, File> files = Maps.newLinkedHashMap();
+      listTree(localDirectory, remoteDirectory, remoteDirectories, files);
+
+      PooledSession session = checkConnected();
+      ChannelSftp sftp = openSftp(session);
+      try {
+         for (String directory : remoteDirectories) {
+            try {
+               sftp.stat(directory);
+            } catch (SftpException notFound) {
+               sftp.mkdir(directory);
+            }
+         }
+      } catch (SftpException e) {
+         throw new SshException(String.format("%s@%s:%d: Error creating directories under: %s",
+                  username, host, port, remoteDirectory), e);
+      } finally {
+         session.closeChannel(sftp);
+      }
+      put(files, options);
+   }
+
+   private static void listTree(File localDirectory, String remoteDirectory,
+            List<String> remoteDirectories, Map<String, File> files) {
+      remoteDirectories.add(remoteDirectory);
+      File[] children = localDirectory.listFiles();
+      if (children == null)
+         return;
+      for (File child : children) {
+         String remotePath = remoteDirectory + "/" + child.getName();
+         if (child.isDirectory())
+            listTree(child, remotePath, remoteDirectories, files);
+         else
+            files.put(remotePath, child);
       }
    }
 
-   private void checkConnected() {
+   /**
+    * Drains the files through {@link TransferOptions#getConcurrentChannels} sftp channels, each
+    * worker holding its channel open until no files remain.
+    */
+   private void transferAll(Map<String, File> remotePathToLocalFile,
+            final TransferOptions options, final SftpTransfer transfer) {
+      checkNotNull(remotePathToLocalFile, "remotePathToLocalFile");
+      checkNotNull(options, "options");
+      if (remotePathToLocalFile.size() == 0)
+         return;
+      final PooledSession session = checkConnected();
+      final Queue<Entry<String, File>> queue = new ConcurrentLinkedQueue<Entry<String, File>>(
+               remotePathToLocalFile.entrySet());
+      final Map<String, Exception> errors = new MapMaker().makeMap();
+      final int mode = options.isResume() ? ChannelSftp.RESUME : ChannelSftp.OVERWRITE;
+      logger.debug(">> %s %d files %s@%s:%d %s", transfer, remotePathToLocalFile.size(),
+               username, host, port, options);
+
+      List<Future<?>> workers = Lists.newArrayList();
+      int channels = Math.min(options.getConcurrentChannels(), remotePathToLocalFile.size());
+      for (int i = 0; i < channels; i++) {
+         workers.add(transferExecutor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+               ChannelSftp sftp = openSftp(session);
+               try {
+                  Entry<String, File> entry;
+                  while ((entry = queue.poll()) != null) {
+                     try {
+                        transfer.transfer(sftp, entry.getKey(), entry.getValue(), mode);
+                     } catch (Exception e) {
+                        errors.put(entry.getKey(), e);
+                     }
+                  }
+               } finally {
+                  session.closeChannel(sftp);
+               }
+               return null;
+            }
+         }));
+      }
+      Throwable workerException = null;
+      for (Future<?> worker : workers) {
+         try {
+            worker.get();
+         } catch (ExecutionException e) {
+            workerException = e.getCause();
+         } catch (Exception e) {
+            workerException = e;
+         }
+      }
+      // files left behind when no worker could open a channel
+      for (Entry<String, File> entry : queue)
+         errors.put(entry.getKey(), new SshException("no channel available for "
+                  + entry.getKey(), workerException));
+
+      if (options.isVerifyChecksum())
+         verifyChecksums(Maps.filterKeys(remotePathToLocalFile, not(in(errors.keySet()))),
+                  errors);
+      if (errors.size() > 0)
+         throw new SshException(String.format("%s@%s:%d: Error %s %d of %d files: %s", username,
+                  host, port, transfer, errors.size(), remotePathToLocalFile.size(), errors));
+      logger.debug("<< %s %d files %s@%s:%d complete", transfer, remotePathToLocalFile.size(),
+               username, host, port);
+   }
+
+   /**
+    * compares the local md5 of each file with the output of {@code md5sum} on the remote host,
+    * checking a batch of files per command.
+    */
+   private void verifyChecksums(Map<String, File> remotePathToLocalFile, Map<String, Exception> errors) {
+      for (List<String> batch : Iterables.partition(remotePathToLocalFile.keySet(), 50)) {
+         StringBuilder command = new StringBuilder("md5sum");
+         for (String remotePath : batch)
+            command.append(" '").append(remotePath.replace("'", "'\\''")).append("'");
+         ExecResponse response = exec(command.toString());
+         Map<String, String> remoteMd5s = Maps.newHashMap();
+         for (String line : Splitter.on('\n').omitEmptyStrings().split(response.getOutput())) {
+            int space = line.indexOf(' ');
+            if (space != -1)
+               remoteMd5s.put(line.substring(space).trim(), line.substring(0, space));
+         }
+         for (String remotePath : batch) {
+            File localFile = remotePathToLocalFile.get(remotePath);
+            InputStream in = null;
+            try {
+               in = new FileInputStream(localFile);
+               String localMd5 = encryptionService.toHexString(encryptionService.md5(in));
+               if (!localMd5.equals(remoteMd5s.get(remotePath)))
+                  errors.put(remotePath, new SshException(String.format(
+                           "checksum mismatch: local %s, remote %s, stderr: %s", localMd5,
+                           remoteMd5s.get(remotePath), response.getError())));
+            } catch (IOException e) {
+               errors.put(remotePath, e);
+            } finally {
+               Closeables.closeQuietly(in);
+            }
+         }
+      }
+   }
+
+   @VisibleForTesting
+   ChannelSftp openSftp(PooledSession session) {
+      logger.debug("%s@%s:%d: Opening sftp Channel.", username, host, port);
+      ChannelSftp sftp = null;
+      try {
+         sftp = (ChannelSftp) session.openChannel("sftp");
+         sftp.connect();
+         return sftp;
+      } catch (JSchException e) {
+         if (sftp != null)
+            session.closeChannel(sftp);
+         throw new SshException(String.format("%s@%s:%d: Error connecting to sftp.", username,
+                  host, port), e);
+      }
+   }
+
+   private PooledSession checkConnected() {
+      PooledSession session = this.session;
       checkState(session != null && session.isConnected(), String.format(
                "%s@%s:%d: SFTP not connected!", username, host, port));
+      return session;
    }
 
    @PostConstruct
@@ -223,29 +461,7 @@ public class JschSshClient implements SshClient {
    }
 
    private void newSession() throws JSchException {
-      JSch jsch = new JSch();
-      session = null;
-      try {
-         session = jsch.getSession(username, host, port);
-         if (timeout != 0)
-            session.setTimeout(timeout);
-         logger.debug("%s@%s:%d: Session created.", username, host, port);
-         if (password != null) {
-            session.setPassword(password);
-         } else {
-            // jsch wipes out your private key
-            jsch.addIdentity(username, Arrays.copyOf(privateKey, privateKey.length), null,
-                     emptyPassPhrase);
-         }
-      } catch (JSchException e) {
-         throw new SshException(String.format("%s@%s:%d: Error creating session.", username, host,
-                  port), e);
-      }
-      java.util.Properties config = new java.util.Properties();
-      config.put("StrictHostKeyChecking", "no");
-      session.setConfig(config);
-      session.connect();
-      logger.debug("%s@%s:%d: Session connected.", username, host, port);
+      session = pool.lease(key, password, privateKey, timeout);
    }
 
    private SshException propagate(Exception e) {
@@ -253,16 +469,19 @@ public class JschSshClient implements SshClient {
                host, port), e);
    }
 
+   /**
+    * returns the session to the pool, which closes it once it is idle.
+    */
    @PreDestroy
    public void disconnect() {
-      if (session != null && session.isConnected()) {
-         session.disconnect();
-         session = null;
-      }
+      PooledSession session = this.session;
+      this.session = null;
+      if (session != null)
+         pool.release(session);
    }
 
    public ExecResponse exec(String command) {
-      checkConnected();
+      PooledSession session = checkConnected();
       ChannelExec executor = null;
       try {
          try {
@@ -284,7 +503,7 @@ public class JschSshClient implements SshClient {
          }
       } finally {
          if (executor != null)
-            executor.disconnect();
+            session.closeChannel(executor);
       }
    }
 
@@ -29,6 +29,7 @@ import org.jclouds.net.IPSocket;
 import org.jclouds.predicates.SocketOpen;
 import org.jclouds.ssh.ConfiguresSshClient;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.jsch.JschSessionPool;
 import org.jclouds.ssh.jsch.JschSshClient;
 import org.jclouds.ssh.jsch.predicates.InetSocketAddressConnect;
 
@@ -60,29 +61,37 @@ public class JschSshClientModule extends AbstractModule {
       int timeout = 60000;
 
       private final BackoffLimitedRetryHandler backoffLimitedRetryHandler;
+      private final JschSessionPool pool;
       private final Injector injector;
 
       @SuppressWarnings("unused")
       @Inject
-      public Factory(BackoffLimitedRetryHandler backoffLimitedRetryHandler, Injector injector) {
+      public Factory(BackoffLimitedRetryHandler backoffLimitedRetryHandler, JschSessionPool pool,
+               Injector injector) {
          this.backoffLimitedRetryHandler = backoffLimitedRetryHandler;
+         this.pool = pool;
          this.injector = injector;
       }
 
       public SshClient create(IPSocket socket, String username, String password) {
-         SshClient client = new JschSshClient(backoffLimitedRetryHandler, socket, timeout,
+         SshClient client = new JschSshClient(backoffLimitedRetryHandler, pool, socket, timeout,
                   username, password, null);
          injector.injectMembers(client);// add logger
          return client;
       }
 
       public SshClient create(IPSocket socket, String username, byte[] privateKey) {
-         SshClient client = new JschSshClient(backoffLimitedRetryHandler, socket, timeout,
+         SshClient client = new JschSshClient(backoffLimitedRetryHandler, pool, socket, timeout,
                   username, null, privateKey);
          injector.injectMembers(client);// add logger
          return client;
       }
 
+      @Override
+      public Map<String, Long> getPoolStatistics() {
+         return pool.getStatistics();
+      }
+
       @Override
       public Map<String, String> generateRSAKeyPair(String comment, String passphrase) {
          KeyPair pair = null;
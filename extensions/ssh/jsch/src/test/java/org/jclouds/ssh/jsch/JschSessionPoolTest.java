@@ -0,0 +1,230 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.ssh.jsch;
+
+import static org.easymock.EasyMock.anyLong;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.IAnswer;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+import org.jclouds.ssh.jsch.JschSessionPool.PooledSession;
+import org.jclouds.ssh.jsch.JschSessionPool.SessionKey;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "ssh.JschSessionPoolTest")
+public class JschSessionPoolTest {
+
+   JschSessionPool pool = new JschSessionPool(new JCEEncryptionService());
+
+   public void testKeysMatchOnHostUserAndCredential() {
+      SessionKey key = pool.keyFor("localhost", 22, "root", "password", null);
+      assertEquals(pool.keyFor("localhost", 22, "root", "password", null), key);
+      assert !key.equals(pool.keyFor("localhost", 2222, "root", "password", null));
+      assert !key.equals(pool.keyFor("localhost", 22, "admin", "password", null));
+      assert !key.equals(pool.keyFor("localhost", 22, "root", "changed", null));
+      assert !key.equals(pool.keyFor("localhost", 22, "root", null, "password".getBytes()));
+   }
+
+   public void testKeyDoesntExposeCredential() {
+      assertEquals(pool.keyFor("localhost", 22, "root", "password", null).toString(),
+               "root@localhost:22");
+   }
+
+   public void testStatisticsStartEmpty() {
+      Map<String, Long> stats = pool.getStatistics();
+      assertEquals(stats.get("sessions.open"), new Long(0));
+      assertEquals(stats.get("sessions.created"), new Long(0));
+      assertEquals(stats.get("channels.opened"), new Long(0));
+   }
+
+   private final SessionKey key = new SessionKey("localhost", 22, "root", "fingerprint");
+
+   /**
+    * a pool that hands out {@code session} instead of connecting
+    */
+   static class StubPool extends JschSessionPool {
+      private final Session session;
+      private final AtomicInteger connects = new AtomicInteger();
+
+      StubPool(Session session) {
+         super(new JCEEncryptionService());
+         this.session = session;
+      }
+
+      @Override
+      Session newSession(SessionKey key, String password, byte[] privateKey, int timeout) {
+         connects.incrementAndGet();
+         return session;
+      }
+   }
+
+   private static Session connectedSession() {
+      Session session = createMock(Session.class);
+      expect(session.isConnected()).andReturn(true).anyTimes();
+      return session;
+   }
+
+   public void testLeaseReusesConnectedSession() throws JSchException {
+      Session session = connectedSession();
+      replay(session);
+      StubPool pool = new StubPool(session);
+
+      PooledSession first = pool.lease(key, "password", null, 0);
+      PooledSession second = pool.lease(key, "password", null, 0);
+
+      assert first == second;
+      assertEquals(pool.connects.get(), 1);
+      assertEquals(pool.getStatistics().get("sessions.created"), new Long(1));
+      assertEquals(pool.getStatistics().get("sessions.reused"), new Long(1));
+      assertEquals(pool.getStatistics().get("sessions.leased"), new Long(2));
+      verify(session);
+   }
+
+   public void testReleaseKeepsSessionForTheIdleTimeout() throws JSchException {
+      Session session = connectedSession();
+      replay(session);
+      StubPool pool = new StubPool(session);
+
+      pool.release(pool.lease(key, "password", null, 0));
+
+      assertEquals(pool.getStatistics().get("sessions.open"), new Long(1));
+      assertEquals(pool.getStatistics().get("sessions.leased"), new Long(0));
+      pool.lease(key, "password", null, 0);
+      assertEquals(pool.connects.get(), 1);
+      verify(session);
+   }
+
+   public void testReleaseDisconnectsWithoutIdleTimeout() throws JSchException {
+      Session session = connectedSession();
+      session.disconnect();
+      replay(session);
+      StubPool pool = new StubPool(session);
+      pool.idleTimeout = 0;
+
+      pool.release(pool.lease(key, "password", null, 0));
+
+      assertEquals(pool.getStatistics().get("sessions.open"), new Long(0));
+      assertEquals(pool.locks.size(), 0);
+      verify(session);
+   }
+
+   public void testIdleSessionIsEvictedOnTheScheduler() throws Exception {
+      Session session = connectedSession();
+      session.disconnect();
+      replay(session);
+      final List<Runnable> scheduled = Lists.newArrayList();
+      ScheduledExecutorService scheduler = createMock(ScheduledExecutorService.class);
+      // the scheduled future is a wildcard type, which EasyMock cannot otherwise stub
+      expect((Object) scheduler.schedule(isA(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS)))
+               .andAnswer(new IAnswer<Object>() {
+                  public Object answer() {
+                     assertEquals(getCurrentArguments()[1], 1L);
+                     scheduled.add((Runnable) getCurrentArguments()[0]);
+                     return null;
+                  }
+               });
+      replay(scheduler);
+      StubPool pool = new StubPool(session);
+      pool.scheduler = scheduler;
+      pool.idleTimeout = 1;
+
+      pool.release(pool.lease(key, "password", null, 0));
+      assertEquals(scheduled.size(), 1);
+      Thread.sleep(10);
+      scheduled.get(0).run();
+
+      assertEquals(pool.getStatistics().get("sessions.open"), new Long(0));
+      assertEquals(pool.getStatistics().get("sessions.evicted"), new Long(1));
+      assertEquals(pool.locks.size(), 0);
+      verify(session, scheduler);
+   }
+
+   public void testLeasedSessionIsNotEvicted() throws Exception {
+      Session session = connectedSession();
+      replay(session);
+      StubPool pool = new StubPool(session);
+      pool.idleTimeout = 1;
+
+      PooledSession pooled = pool.lease(key, "password", null, 0);
+      Thread.sleep(10);
+      pool.evictIdleSessions();
+
+      assert pool.lease(key, "password", null, 0) == pooled;
+      assertEquals(pool.getStatistics().get("sessions.evicted"), new Long(0));
+      verify(session);
+   }
+
+   public void testChannelsPerSessionAreBounded() throws Exception {
+      Channel channel = createNiceMock(Channel.class);
+      replay(channel);
+      Session session = connectedSession();
+      expect(session.openChannel("exec")).andReturn(channel).times(3);
+      replay(session);
+      StubPool pool = new StubPool(session);
+      pool.maxChannelsPerSession = 2;
+
+      final PooledSession pooled = pool.lease(key, "password", null, 0);
+      Channel first = pooled.openChannel("exec");
+      pooled.openChannel("exec");
+
+      final CountDownLatch opened = new CountDownLatch(1);
+      Thread third = new Thread() {
+         @Override
+         public void run() {
+            try {
+               pooled.openChannel("exec");
+               opened.countDown();
+            } catch (JSchException e) {
+               throw new RuntimeException(e);
+            }
+         }
+      };
+      third.start();
+      assert !opened.await(100, TimeUnit.MILLISECONDS) : "third channel should wait";
+
+      pooled.closeChannel(first);
+      assert opened.await(5, TimeUnit.SECONDS) : "third channel should open once one closes";
+      assertEquals(pool.getStatistics().get("channels.opened"), new Long(3));
+      verify(session);
+   }
+}
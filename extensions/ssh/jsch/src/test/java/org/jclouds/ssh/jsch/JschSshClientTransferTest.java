@@ -0,0 +1,291 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.ssh.jsch;
+
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.isNull;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.easymock.IAnswer;
+import org.jclouds.encryption.EncryptionService;
+import org.jclouds.encryption.internal.JCEEncryptionService;
+import org.jclouds.http.handlers.BackoffLimitedRetryHandler;
+import org.jclouds.net.IPSocket;
+import org.jclouds.ssh.SshException;
+import org.jclouds.ssh.TransferOptions;
+import org.jclouds.ssh.jsch.JschSessionPool.PooledSession;
+import org.jclouds.ssh.jsch.JschSessionPoolTest.StubPool;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+import com.jcraft.jsch.SftpProgressMonitor;
+
+/**
+ * Tests the behaviour of {@link JschSshClient#put(Map, TransferOptions)} against a mocked session.
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "ssh.JschSshClientTransferTest")
+public class JschSshClientTransferTest {
+
+   private static JschSshClient connect(JschSshClient client) {
+      client.connect();
+      return client;
+   }
+
+   private static JschSshClient newClient(Session session) {
+      return new JschSshClient(new BackoffLimitedRetryHandler(), new StubPool(session),
+               new IPSocket("localhost", 22), 0, "root", "password", null);
+   }
+
+   private static Session sessionOpening(ChannelSftp sftp) throws JSchException {
+      Session session = createMock(Session.class);
+      expect(session.isConnected()).andReturn(true).anyTimes();
+      expect(session.openChannel("sftp")).andReturn(sftp);
+      return session;
+   }
+
+   private static Map<String, File> files(int count) {
+      Map<String, File> files = Maps.newLinkedHashMap();
+      for (int i = 0; i < count; i++)
+         files.put("/remote/" + i, new File("local" + i));
+      return files;
+   }
+
+   private static void expectPut(ChannelSftp sftp, String remotePath, File localFile, int mode)
+            throws SftpException {
+      sftp.put(eq(localFile.getAbsolutePath()), eq(remotePath), (SftpProgressMonitor) isNull(),
+               eq(mode));
+   }
+
+   public void testResumeUsesResumeMode() throws Exception {
+      ChannelSftp sftp = createMock(ChannelSftp.class);
+      sftp.connect();
+      expectPut(sftp, "/remote/0", new File("local0"), ChannelSftp.RESUME);
+      sftp.disconnect();
+      Session session = sessionOpening(sftp);
+      replay(sftp, session);
+
+      connect(newClient(session)).put(files(1), TransferOptions.Builder.resume(true));
+
+      verify(sftp, session);
+   }
+
+   public void testOverwriteIsTheDefaultMode() throws Exception {
+      ChannelSftp sftp = createMock(ChannelSftp.class);
+      sftp.connect();
+      expectPut(sftp, "/remote/0", new File("local0"), ChannelSftp.OVERWRITE);
+      sftp.disconnect();
+      Session session = sessionOpening(sftp);
+      replay(sftp, session);
+
+      connect(newClient(session)).put(files(1), TransferOptions.NONE);
+
+      verify(sftp, session);
+   }
+
+   public void testFailedFileDoesNotStopTheOthers() throws Exception {
+      Map<String, File> files = files(3);
+      ChannelSftp sftp = createMock(ChannelSftp.class);
+      sftp.connect();
+      expectPut(sftp, "/remote/0", files.get("/remote/0"), ChannelSftp.OVERWRITE);
+      expectPut(sftp, "/remote/1", files.get("/remote/1"), ChannelSftp.OVERWRITE);
+      expectLastCall().andThrow(new SftpException(ChannelSftp.SSH_FX_PERMISSION_DENIED, "denied"));
+      expectPut(sftp, "/remote/2", files.get("/remote/2"), ChannelSftp.OVERWRITE);
+      sftp.disconnect();
+      Session session = sessionOpening(sftp);
+      replay(sftp, session);
+
+      try {
+         connect(newClient(session)).put(files, TransferOptions.NONE);
+         assert false : "expected the failed file to be reported";
+      } catch (SshException e) {
+         assert e.getMessage().indexOf("1 of 3 files") != -1 : e.getMessage();
+         assert e.getMessage().indexOf("/remote/1=") != -1 : e.getMessage();
+         assert e.getMessage().indexOf("/remote/0=") == -1 : e.getMessage();
+      }
+      verify(sftp, session);
+   }
+
+   public void testFilesLeftWithoutAChannelAreReported() throws Exception {
+      Session session = createMock(Session.class);
+      expect(session.isConnected()).andReturn(true).anyTimes();
+      JSchException cause = new JSchException("channel is not opened.");
+      expect(session.openChannel("sftp")).andThrow(cause);
+      replay(session);
+
+      try {
+         connect(newClient(session)).put(files(2), TransferOptions.NONE);
+         assert false : "expected the untransferred files to be reported";
+      } catch (SshException e) {
+         assert e.getMessage().indexOf("2 of 2 files") != -1 : e.getMessage();
+         assert e.getMessage().indexOf("no channel available for /remote/0") != -1 : e
+                  .getMessage();
+         assert e.getMessage().indexOf("no channel available for /remote/1") != -1 : e
+                  .getMessage();
+      }
+      verify(session);
+   }
+
+   public void testFilesAreDrainedAcrossChannels() throws Exception {
+      final int channels = 3;
+      Map<String, File> files = files(10);
+      final List<String> transferred = Collections.synchronizedList(Lists.<String> newArrayList());
+      // every channel blocks on its first file until all channels have one in flight
+      final CountDownLatch inFlight = new CountDownLatch(channels);
+      IAnswer<Object> transfer = new IAnswer<Object>() {
+         @Override
+         public Object answer() throws Throwable {
+            transferred.add((String) getCurrentArguments()[1]);
+            inFlight.countDown();
+            assert inFlight.await(10, TimeUnit.SECONDS) : "channels weren't used concurrently";
+            return null;
+         }
+      };
+      List<ChannelSftp> sftps = Lists.newArrayList();
+      Session session = createMock(Session.class);
+      expect(session.isConnected()).andReturn(true).anyTimes();
+      for (int i = 0; i < channels; i++) {
+         ChannelSftp sftp = createMock(ChannelSftp.class);
+         sftp.connect();
+         sftp.put(isA(String.class), isA(String.class), (SftpProgressMonitor) isNull(),
+                  eq(ChannelSftp.OVERWRITE));
+         expectLastCall().andAnswer(transfer).atLeastOnce();
+         sftp.disconnect();
+         expect(session.openChannel("sftp")).andReturn(sftp);
+         sftps.add(sftp);
+      }
+      replay(session);
+      replay(sftps.toArray());
+
+      JschSshClient client = connect(new JschSshClient(new BackoffLimitedRetryHandler(),
+               new StubPool(session), new IPSocket("localhost", 22), 0, "root", "password", null) {
+         // serializes calls on the session mock; each channel mock is used by a single worker
+         @Override
+         synchronized ChannelSftp openSftp(PooledSession session) {
+            return super.openSftp(session);
+         }
+      });
+      ExecutorService executor = Executors.newFixedThreadPool(channels);
+      client.transferExecutor = executor;
+      try {
+         client.put(files, TransferOptions.Builder.concurrentChannels(channels));
+      } finally {
+         executor.shutdownNow();
+      }
+
+      assertEquals(transferred.size(), files.size());
+      assertEquals(Sets.newHashSet(transferred), files.keySet());
+      verify(session);
+      verify(sftps.toArray());
+   }
+
+   public void testChecksumsAreVerifiedInBatchesOf50() throws Exception {
+      File local = File.createTempFile("jsch", "transfer");
+      local.deleteOnExit();
+      Files.write("hello".getBytes(), local);
+      EncryptionService encryptionService = new JCEEncryptionService();
+      String md5 = md5(encryptionService, local);
+
+      Map<String, File> files = Maps.newLinkedHashMap();
+      for (int i = 0; i < 120; i++)
+         files.put("/remote/" + i, local);
+
+      ChannelSftp sftp = createMock(ChannelSftp.class);
+      sftp.connect();
+      sftp.put(eq(local.getAbsolutePath()), isA(String.class), (SftpProgressMonitor) isNull(),
+               eq(ChannelSftp.OVERWRITE));
+      expectLastCall().times(files.size());
+      sftp.disconnect();
+      Session session = sessionOpening(sftp);
+      List<ChannelExec> execs = Lists.newArrayList();
+      for (List<String> batch : Iterables.partition(files.keySet(), 50)) {
+         StringBuilder command = new StringBuilder("md5sum");
+         StringBuilder output = new StringBuilder();
+         for (String remotePath : batch) {
+            command.append(" '").append(remotePath).append("'");
+            // the remote copy of /remote/110 is corrupt
+            output.append(remotePath.equals("/remote/110") ? "0000" : md5).append("  ").append(
+                     remotePath).append('\n');
+         }
+         ChannelExec exec = createMock(ChannelExec.class);
+         exec.setCommand(command.toString());
+         exec.setErrStream(isA(OutputStream.class));
+         exec.connect();
+         expect(exec.getInputStream()).andReturn(
+                  new ByteArrayInputStream(output.toString().getBytes()));
+         expect(exec.getExitStatus()).andReturn(0);
+         exec.disconnect();
+         expect(session.openChannel("exec")).andReturn(exec);
+         execs.add(exec);
+      }
+      assertEquals(execs.size(), 3);
+      replay(sftp, session);
+      replay(execs.toArray());
+
+      try {
+         connect(newClient(session)).put(files, TransferOptions.Builder.verifyChecksum(true));
+         assert false : "expected the checksum mismatch to be reported";
+      } catch (SshException e) {
+         assert e.getMessage().indexOf("1 of 120 files") != -1 : e.getMessage();
+         assert e.getMessage().indexOf("/remote/110=") != -1 : e.getMessage();
+      }
+      verify(sftp, session);
+      verify(execs.toArray());
+   }
+
+   private static String md5(EncryptionService encryptionService, File file) throws IOException {
+      FileInputStream in = new FileInputStream(file);
+      try {
+         return encryptionService.toHexString(encryptionService.md5(in));
+      } finally {
+         Closeables.closeQuietly(in);
+      }
+   }
+}
@@ -18,38 +18,29 @@
  */
 package org.jclouds.gogrid.functions;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import org.jclouds.gogrid.domain.ServerImage;
-import org.jclouds.gogrid.domain.internal.GenericResponseContainer;
-import org.jclouds.http.functions.ParseJson;
+import org.jclouds.http.functions.ParseJsonArray;
 
 import javax.inject.Inject;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Type;
+import java.util.Iterator;
 import java.util.SortedSet;
 
 /**
  * @author Oleksiy Yarmula
  */
-public class ParseImageListFromJsonResponse extends ParseJson<SortedSet<ServerImage>> {
+public class ParseImageListFromJsonResponse extends ParseJsonArray<ServerImage, SortedSet<ServerImage>> {
 
     @Inject
     public ParseImageListFromJsonResponse(Gson gson) {
-        super(gson);
+        super(gson, ServerImage.class, "list");
     }
 
-    public SortedSet<ServerImage> apply(InputStream stream) {
-        Type setType = new TypeToken<GenericResponseContainer<ServerImage>>() {
-        }.getType();
-        GenericResponseContainer<ServerImage> response;
-        try {
-            response = gson.fromJson(new InputStreamReader(stream, "UTF-8"), setType);
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-        }
-        return response.getList();
+    public SortedSet<ServerImage> apply(Iterator<ServerImage> elements) {
+        SortedSet<ServerImage> returnVal = Sets.newTreeSet();
+        Iterators.addAll(returnVal, elements);
+        return returnVal;
     }
 }
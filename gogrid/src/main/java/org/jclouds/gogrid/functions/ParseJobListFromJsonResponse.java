@@ -18,17 +18,14 @@
  */
 package org.jclouds.gogrid.functions;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import org.jclouds.gogrid.domain.Job;
-import org.jclouds.gogrid.domain.internal.GenericResponseContainer;
-import org.jclouds.http.functions.ParseJson;
+import org.jclouds.http.functions.ParseJsonArray;
 
 import javax.inject.Inject;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Type;
+import java.util.Iterator;
 import java.util.SortedSet;
 
 /**
@@ -36,22 +33,16 @@ import java.util.SortedSet;
  *
  * @author Oleksiy Yarmula
  */
-public class ParseJobListFromJsonResponse extends ParseJson<SortedSet<Job>> {
+public class ParseJobListFromJsonResponse extends ParseJsonArray<Job, SortedSet<Job>> {
 
     @Inject
     public ParseJobListFromJsonResponse(Gson gson) {
-        super(gson);
+        super(gson, Job.class, "list");
     }
 
-    public SortedSet<Job> apply(InputStream stream) {
-        Type setType = new TypeToken<GenericResponseContainer<Job>>() {
-        }.getType();
-        GenericResponseContainer<Job> response;
-        try {
-            response = gson.fromJson(new InputStreamReader(stream, "UTF-8"), setType);
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-        }
-        return response.getList();
+    public SortedSet<Job> apply(Iterator<Job> elements) {
+        SortedSet<Job> returnVal = Sets.newTreeSet();
+        Iterators.addAll(returnVal, elements);
+        return returnVal;
     }
 }
@@ -23,21 +23,18 @@
  */
 package org.jclouds.gogrid.functions;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Type;
+import java.util.Iterator;
 import java.util.SortedSet;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.jclouds.gogrid.domain.Server;
-import org.jclouds.gogrid.domain.internal.GenericResponseContainer;
-import org.jclouds.http.functions.ParseJson;
+import org.jclouds.http.functions.ParseJsonArray;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
 /**
  * Parses {@link Server servers} from a json string.
@@ -45,22 +42,16 @@ import com.google.gson.reflect.TypeToken;
  * @author Adrian Cole
  */
 @Singleton
-public class ParseServerListFromJsonResponse extends ParseJson<SortedSet<Server>> {
+public class ParseServerListFromJsonResponse extends ParseJsonArray<Server, SortedSet<Server>> {
 
    @Inject
    public ParseServerListFromJsonResponse(Gson gson) {
-      super(gson);
+      super(gson, Server.class, "list");
    }
 
-   public SortedSet<Server> apply(InputStream stream) {
-      Type setType = new TypeToken<GenericResponseContainer<Server>>() {
-      }.getType();
-      GenericResponseContainer<Server> response;
-      try {
-         response = gson.fromJson(new InputStreamReader(stream, "UTF-8"), setType);
-      } catch (UnsupportedEncodingException e) {
-         throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-      }
-      return response.getList();
+   public SortedSet<Server> apply(Iterator<Server> elements) {
+      SortedSet<Server> returnVal = Sets.newTreeSet();
+      Iterators.addAll(returnVal, elements);
+      return returnVal;
    }
 }
\ No newline at end of file
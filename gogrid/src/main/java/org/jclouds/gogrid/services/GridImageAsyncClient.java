@@ -15,6 +15,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.QueryParam;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.jclouds.gogrid.reference.GoGridHeaders.VERSION;
 import static org.jclouds.gogrid.reference.GoGridQueryParams.IMAGE_KEY;
@@ -35,6 +36,7 @@ public interface GridImageAsyncClient {
     @GET
     @ResponseParser(ParseImageListFromJsonResponse.class)
     @Path("/grid/image/list")
+    @Cached(ttl = 5, staleWhileRevalidate = 5, timeUnit = TimeUnit.MINUTES)
     ListenableFuture<Set<ServerImage>> getImageList(GetImageListOptions... options);
 
     /**
@@ -43,6 +45,7 @@ public interface GridImageAsyncClient {
     @GET
     @ResponseParser(ParseImageListFromJsonResponse.class)
     @Path("/grid/image/get")
+    @Cached(ttl = 5, timeUnit = TimeUnit.MINUTES)
     ListenableFuture<Set<ServerImage>> getImagesById(@BinderParam(BindIdsToQueryParams.class) Long... ids);
 
 
@@ -52,6 +55,7 @@ public interface GridImageAsyncClient {
     @GET
     @ResponseParser(ParseImageListFromJsonResponse.class)
     @Path("/grid/image/get")
+    @Cached(ttl = 5, timeUnit = TimeUnit.MINUTES)
     ListenableFuture<Set<ServerImage>> getImagesByName(@BinderParam(BindNamesToQueryParams.class) String... names);
 
     /**
@@ -60,6 +64,7 @@ public interface GridImageAsyncClient {
     @GET
     @ResponseParser(ParseImageFromJsonResponse.class)
     @Path("/grid/image/edit")
+    @InvalidatesCache
     ListenableFuture<ServerImage> editImageDescription(@QueryParam(IMAGE_KEY) String idOrName,
                                                        @QueryParam(IMAGE_DESCRIPTION_KEY) String newDescription);
 
@@ -69,6 +74,7 @@ public interface GridImageAsyncClient {
     @GET
     @ResponseParser(ParseImageFromJsonResponse.class)
     @Path("/grid/image/edit")
+    @InvalidatesCache
     ListenableFuture<ServerImage> editImageFriendlyName(@QueryParam(IMAGE_KEY) String idOrName,
                                                         @QueryParam(IMAGE_FRIENDLY_NAME_KEY) String newFriendlyName);
 
@@ -55,6 +55,7 @@ import org.jclouds.gogrid.functions.ParseServerNameToCredentialsMapFromJsonRespo
 import org.jclouds.gogrid.options.AddServerOptions;
 import org.jclouds.gogrid.options.GetServerListOptions;
 import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Coalesce;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.QueryParams;
 import org.jclouds.rest.annotations.RequestFilters;
@@ -82,6 +83,7 @@ public interface GridServerAsyncClient {
    @GET
    @ResponseParser(ParseServerListFromJsonResponse.class)
    @Path("/grid/server/list")
+   @Coalesce
    ListenableFuture<Set<Server>> getServerList(GetServerListOptions... getServerListOptions);
 
    /**
@@ -37,6 +37,7 @@ import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 
 import org.jclouds.domain.Credentials;
+import org.jclouds.encryption.internal.JCEEncryptionService;
 import org.jclouds.gogrid.domain.Ip;
 import org.jclouds.gogrid.domain.IpPortPair;
 import org.jclouds.gogrid.domain.Job;
@@ -57,6 +58,7 @@ import org.jclouds.logging.log4j.config.Log4JLoggingModule;
 import org.jclouds.net.IPSocket;
 import org.jclouds.predicates.RetryablePredicate;
 import org.jclouds.ssh.SshClient;
+import org.jclouds.ssh.jsch.JschSessionPool;
 import org.jclouds.ssh.jsch.JschSshClient;
 import org.jclouds.ssh.jsch.predicates.InetSocketAddressConnect;
 import org.testng.SkipException;
@@ -352,7 +354,8 @@ public class GoGridLiveTest {
 
       socketOpen.apply(socket);
 
-      SshClient sshClient = new JschSshClient(new BackoffLimitedRetryHandler(), socket, 60000,
+      SshClient sshClient = new JschSshClient(new BackoffLimitedRetryHandler(),
+               new JschSessionPool(new JCEEncryptionService()), socket, 60000,
                instanceCredentials.account, instanceCredentials.key, null);
       sshClient.connect();
       String output = sshClient.exec("df").getOutput();
@@ -25,6 +25,7 @@ package org.jclouds.gogrid.mock;
 
 import org.jclouds.http.HttpCommand;
 import org.jclouds.http.HttpRequest;
+import org.jclouds.instrumentation.Invocation;
 
 /**
  * @author Oleksiy Yarmula
@@ -68,6 +69,24 @@ public class HttpCommandMock implements HttpCommand {
         return 0;
     }
 
+    @Override
+    public void setRetryDelayMillis(long delay) {
+    }
+
+    @Override
+    public long getRetryDelayMillis() {
+        return 0;
+    }
+
+    @Override
+    public Invocation getInvocation() {
+        return Invocation.NONE;
+    }
+
+    @Override
+    public void setInvocation(Invocation invocation) {
+    }
+
     @Override
     public HttpRequest getRequest() {
         return null;
@@ -57,6 +57,7 @@ import org.jclouds.compute.strategy.GetNodeMetadataStrategy;
 import org.jclouds.compute.strategy.ListNodesStrategy;
 import org.jclouds.compute.strategy.RebootNodeStrategy;
 import org.jclouds.compute.strategy.impl.EncodeTagIntoNameRunNodesAndAddToSetStrategy;
+import org.jclouds.compute.util.BootstrapStatistics;
 import org.jclouds.compute.util.ComputeUtils;
 import org.jclouds.domain.Credentials;
 import org.jclouds.domain.Location;
@@ -167,7 +168,7 @@ public class IBMDeveloperCloudComputeServiceContextModule extends
       @Override
       public Map<?, ListenableFuture<Void>> execute(String tag, int count,
             Template template, Set<NodeMetadata> nodes,
-            Map<NodeMetadata, Exception> badNodes) {
+            Map<NodeMetadata, Exception> badNodes, BootstrapStatistics statistics) {
          String key = template.getOptions().getPublicKey();
          if (key != null) {
             template.getOptions().dontAuthorizePublicKey();
@@ -181,7 +182,7 @@ public class IBMDeveloperCloudComputeServiceContextModule extends
             credentialsMap.put(tag, client.generateKeyPair(tag)
                   .getKeyMaterial());
          }
-         return super.execute(tag, count, template, nodes, badNodes);
+         return super.execute(tag, count, template, nodes, badNodes, statistics);
       }
 
    }
@@ -34,7 +34,6 @@ import com.google.common.collect.Maps;
  * @author Adrian Cole
  */
 public class LocationHandler extends ParseSax.HandlerWithResult<Location> {
-   private StringBuilder currentText = new StringBuilder();
 
    private String id;
    private String name;
@@ -67,17 +66,17 @@ public class LocationHandler extends ParseSax.HandlerWithResult<Location> {
    @Override
    public void endElement(String uri, String localName, String qName) throws SAXException {
       if (qName.equalsIgnoreCase("ID")) {
-         id = currentText.toString().trim();
+         id = trimmedText();
       } else if (qName.equalsIgnoreCase("Name")) {
-         name = currentText.toString().trim();
+         name = trimmedText();
       } else if (qName.equalsIgnoreCase("Description")) {
-         description = currentText.toString().trim();
+         description = trimmedText();
          if (description.equals(""))
             description = null;
       } else if (qName.equalsIgnoreCase("Value")) {
-         capabilities.get(capabilityName).put(capabilityKey, currentText.toString().trim());
+         capabilities.get(capabilityName).put(capabilityKey, trimmedText());
       } else if (qName.equalsIgnoreCase("Location")) {
-         if (currentText.toString().trim().equals("")) {
+         if (isTextBlank()) {
             this.loc = new Location(id, name, description, location, capabilities);
             id = null;
             name = null;
@@ -87,13 +86,9 @@ public class LocationHandler extends ParseSax.HandlerWithResult<Location> {
             capabilityKey = null;
             capabilityName = null;
          } else {
-            location = currentText.toString().trim();
+            location = trimmedText();
          }
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -33,7 +33,6 @@ import com.google.common.collect.Sets;
  * @author Adrian Cole
  */
 public class LocationsHandler extends ParseSax.HandlerWithResult<Set<? extends Location>> {
-   private StringBuilder currentText = new StringBuilder();
 
    private Set<Location> tasks = Sets.newLinkedHashSet();
    private final LocationHandler locationHandler;
@@ -56,14 +55,14 @@ public class LocationsHandler extends ParseSax.HandlerWithResult<Set<? extends L
    @Override
    public void endElement(String uri, String localName, String qName) throws SAXException {
       locationHandler.endElement(uri, localName, qName);
-      if (qName.equals("Location") && currentText.toString().trim().equals("")) {
+      if (qName.equals("Location") && isTextBlank()) {
          this.tasks.add(locationHandler.getResult());
       }
-      currentText = new StringBuilder();
+      resetText();
    }
 
    public void characters(char ch[], int start, int length) {
       locationHandler.characters(ch, start, length);
-      currentText.append(ch, start, length);
+      super.characters(ch, start, length);
    }
 }
@@ -89,8 +89,6 @@ public class ContainerHandler extends ParseSax.HandlerWithResult<ContainerList>
 
    private URI currentThumbnail;
 
-   private StringBuilder currentText = new StringBuilder();
-
    private final DateService dateParser;
 
    boolean inContainer = false;
@@ -186,7 +184,7 @@ public class ContainerHandler extends ParseSax.HandlerWithResult<ContainerList>
       if (qName.equals("contents")) {
          if (!inContainer)
             inContents = false;
-         currentText = new StringBuilder();
+         resetText();
          return;
       }
       if (qName.equals("container") && !inContents) {
@@ -228,50 +226,46 @@ public class ContainerHandler extends ParseSax.HandlerWithResult<ContainerList>
          currentThumbnail = null;
 
       } else if (qName.equals("name")) {
-         currentName = currentText.toString().trim();
+         currentName = trimmedText();
          if (!inContents)
             rootName = currentName;
       } else if (qName.equals("created")) {
-         currentCreated = dateParser.fromSeconds(Long.parseLong(currentText.toString().trim()));
+         currentCreated = dateParser.fromSeconds(textAsLong());
          if (!inContents)
             rootCreated = currentCreated;
       } else if (qName.equals("inproject")) {
-         currentInproject = Boolean.parseBoolean(currentText.toString().trim());
+         currentInproject = textAsBoolean();
          if (!inContents)
             rootInproject = currentInproject;
       } else if (qName.equals("modified")) {
-         currentModified = dateParser.fromSeconds(Long.parseLong(currentText.toString().trim()));
+         currentModified = dateParser.fromSeconds(textAsLong());
          if (!inContents)
             rootModified = currentModified;
       } else if (qName.equals("owner")) {
-         currentOwner = currentText.toString().trim();
+         currentOwner = trimmedText();
          if (!inContents)
             rootOwner = currentOwner;
       } else if (qName.equals("version")) {
-         currentVersion = Integer.parseInt(currentText.toString().trim());
+         currentVersion = textAsInt();
          if (!inContents)
             rootVersion = currentVersion;
       } else if (qName.equals("shared")) {
-         currentShared = Boolean.parseBoolean(currentText.toString().trim());
+         currentShared = textAsBoolean();
          if (!inContents)
             rootShared = currentShared;
       } else if (qName.equals("accessed")) {
-         currentAccessed = dateParser.fromSeconds(Long.parseLong(currentText.toString().trim()));
+         currentAccessed = dateParser.fromSeconds(textAsLong());
          if (!inContents)
             rootAccessed = currentAccessed;
       } else if (qName.equals("bytes")) {
-         currentBytes = Long.parseLong(currentText.toString().trim());
+         currentBytes = textAsLong();
          if (!inContents)
             rootBytes = currentBytes;
       } else if (qName.equals("public")) {
-         currentPublic = Boolean.parseBoolean(currentText.toString().trim());
+         currentPublic = textAsBoolean();
       } else if (qName.equals("mime_type")) {
-         currentMimeType = currentText.toString().trim();
+         currentMimeType = trimmedText();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -57,8 +57,6 @@ public class FileHandler extends ParseSax.HandlerWithResult<FileInfoWithMetadata
    private String currentMimeType;
    private boolean currentPublic;
 
-   protected StringBuilder currentText = new StringBuilder();
-
    private final DateService dateParser;
 
    private FileInfoWithMetadata fileMetadataList;
@@ -128,27 +126,27 @@ public class FileHandler extends ParseSax.HandlerWithResult<FileInfoWithMetadata
    @Override
    public void endElement(String uri, String name, String qName) {
       if (qName.equals("name")) {
-         currentName = currentText.toString().trim();
+         currentName = trimmedText();
       } else if (qName.equals("created")) {
-         currentCreated = dateParser.fromSeconds(Long.parseLong(currentText.toString().trim()));
+         currentCreated = dateParser.fromSeconds(textAsLong());
       } else if (qName.equals("inproject")) {
-         currentInproject = Boolean.parseBoolean(currentText.toString().trim());
+         currentInproject = textAsBoolean();
       } else if (qName.equals("modified")) {
-         currentModified = dateParser.fromSeconds(Long.parseLong(currentText.toString().trim()));
+         currentModified = dateParser.fromSeconds(textAsLong());
       } else if (qName.equals("owner")) {
-         currentOwner = currentText.toString().trim();
+         currentOwner = trimmedText();
       } else if (qName.equals("version")) {
-         currentVersion = Integer.parseInt(currentText.toString().trim());
+         currentVersion = textAsInt();
       } else if (qName.equals("shared")) {
-         currentShared = Boolean.parseBoolean(currentText.toString().trim());
+         currentShared = textAsBoolean();
       } else if (qName.equals("accessed")) {
-         currentAccessed = dateParser.fromSeconds(Long.parseLong(currentText.toString().trim()));
+         currentAccessed = dateParser.fromSeconds(textAsLong());
       } else if (qName.equals("bytes")) {
-         currentBytes = Long.parseLong(currentText.toString().trim());
+         currentBytes = textAsLong();
       } else if (qName.equals("mime_type")) {
-         currentMimeType = currentText.toString().trim();
+         currentMimeType = trimmedText();
       } else if (qName.equals("public")) {
-         currentPublic = Boolean.parseBoolean(currentText.toString().trim());
+         currentPublic = textAsBoolean();
       } else if (qName.equals("file")) {
          fileMetadataList = new FileInfoWithMetadataImpl(currentUrl, currentName, currentCreated,
                   currentInproject, currentModified, currentOwner, currentVersion, currentShared,
@@ -168,11 +166,7 @@ public class FileHandler extends ParseSax.HandlerWithResult<FileInfoWithMetadata
          currentMimeType = null;
          currentPublic = false;
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 
    @Override
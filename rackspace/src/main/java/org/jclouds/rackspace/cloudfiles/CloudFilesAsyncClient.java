@@ -64,6 +64,7 @@ import org.jclouds.rackspace.cloudfiles.options.ListContainerOptions;
 import org.jclouds.rackspace.cloudfiles.reference.CloudFilesHeaders;
 import org.jclouds.rackspace.filters.AuthenticateRequest;
 import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Coalesce;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.ExceptionParser;
 import org.jclouds.rest.annotations.Headers;
@@ -215,6 +216,7 @@ public interface CloudFilesAsyncClient {
    @HEAD
    @Path("{container}")
    @ExceptionParser(ReturnFalseOnContainerNotFound.class)
+   @Coalesce
    ListenableFuture<Boolean> containerExists(@PathParam("container") String container);
 
    /**
@@ -227,6 +229,17 @@ public interface CloudFilesAsyncClient {
             @PathParam("container") String container,
             @PathParam("name") @ParamParser(ObjectName.class) @BinderParam(BindCFObjectToPayload.class) CFObject object);
 
+   /**
+    * @see CloudFilesClient#copyObject
+    */
+   @PUT
+   @Path("{container}/{name}")
+   @Headers(keys = "X-Copy-From", values = "/{sourceContainer}/{sourceObject}")
+   @ResponseParser(ParseETagHeader.class)
+   ListenableFuture<String> copyObject(@PathParam("sourceContainer") String sourceContainer,
+            @PathParam("sourceObject") String sourceObject,
+            @PathParam("container") String container, @PathParam("name") String name);
+
    /**
     * @see CloudFilesClient#getObject
     */
@@ -253,6 +266,7 @@ public interface CloudFilesAsyncClient {
    @HEAD
    @ExceptionParser(ReturnFalseOnKeyNotFound.class)
    @Path("{container}/{name}")
+   @Coalesce
    ListenableFuture<Boolean> objectExists(@PathParam("container") String container,
             @PathParam("name") String name);
 
@@ -120,6 +120,14 @@ public interface CloudFilesClient {
    @Timeout(duration = 5 * 1024 * 1024 / 128, timeUnit = TimeUnit.SECONDS)
    String putObject(String container, CFObject object);
 
+   /**
+    * copies an object within Cloud Files, without transferring its content through the client.
+    * 
+    * @return etag of the copy
+    */
+   @Timeout(duration = 5 * 1024 * 1024 / 128, timeUnit = TimeUnit.SECONDS)
+   String copyObject(String sourceContainer, String sourceObject, String container, String name);
+
    @Timeout(duration = 5 * 1024 * 1024 / 512, timeUnit = TimeUnit.SECONDS)
    CFObject getObject(String container, String name, GetOptions... options);
 
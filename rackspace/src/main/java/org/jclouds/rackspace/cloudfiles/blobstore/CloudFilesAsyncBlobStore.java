@@ -32,6 +32,8 @@ import javax.inject.Singleton;
 
 import org.jclouds.Constants;
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.attr.BlobCapabilities;
+import org.jclouds.blobstore.attr.BlobCapability;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
@@ -220,6 +222,22 @@ public class CloudFilesAsyncBlobStore extends BaseAsyncBlobStore {
       return async.putObject(container, blob2Object.apply(blob));
    }
 
+   /**
+    * This implementation invokes {@link CloudFilesAsyncClient#copyObject}, which copies within Cloud Files.
+    * 
+    * @param fromContainer
+    *           container name of the source
+    * @param fromName
+    *           object key of the source
+    */
+   @Override
+   @BlobCapabilities(BlobCapability.COPY)
+   public ListenableFuture<String> copyBlob(String fromContainer, String fromName,
+            String toContainer, String toName) {
+      createParentIfNeededAsync(this, toContainer, toName);
+      return async.copyObject(fromContainer, fromName, toContainer, toName);
+   }
+
    /**
     * This implementation invokes {@link CloudFilesAsyncClient#removeObject}
     * 
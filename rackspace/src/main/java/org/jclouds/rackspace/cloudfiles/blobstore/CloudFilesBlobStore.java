@@ -28,6 +28,8 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.jclouds.blobstore.BlobStoreContext;
+import org.jclouds.blobstore.attr.BlobCapabilities;
+import org.jclouds.blobstore.attr.BlobCapability;
 import org.jclouds.blobstore.domain.Blob;
 import org.jclouds.blobstore.domain.BlobMetadata;
 import org.jclouds.blobstore.domain.PageSet;
@@ -199,6 +201,21 @@ public class CloudFilesBlobStore extends BaseBlobStore {
       return sync.putObject(container, blob2Object.apply(blob));
    }
 
+   /**
+    * This implementation invokes {@link CloudFilesClient#copyObject}, which copies within Cloud Files.
+    * 
+    * @param fromContainer
+    *           container name of the source
+    * @param fromName
+    *           object key of the source
+    */
+   @Override
+   @BlobCapabilities(BlobCapability.COPY)
+   public String copyBlob(String fromContainer, String fromName, String toContainer, String toName) {
+      createParentIfNeededAsync(context.getAsyncBlobStore(), toContainer, toName);
+      return sync.copyObject(fromContainer, fromName, toContainer, toName);
+   }
+
    /**
     * This implementation invokes {@link CloudFilesClient#removeObject}
     * 
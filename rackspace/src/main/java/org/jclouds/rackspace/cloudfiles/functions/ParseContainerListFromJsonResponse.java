@@ -18,40 +18,32 @@
  */
 package org.jclouds.rackspace.cloudfiles.functions;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Type;
+import java.util.Iterator;
 import java.util.Set;
 
 import javax.inject.Inject;
 
 import org.jclouds.blobstore.domain.StorageMetadata;
-import org.jclouds.http.functions.ParseJson;
+import org.jclouds.http.functions.ParseJsonArray;
 import org.jclouds.rackspace.cloudfiles.domain.ContainerMetadata;
 
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
 /**
- * This parses {@link StorageMetadata} from a gson string.
+ * This parses {@link StorageMetadata} from a gson string, one container at a time.
  * 
  * @author Adrian Cole
  */
-public class ParseContainerListFromJsonResponse extends ParseJson<Set<ContainerMetadata>> {
+public class ParseContainerListFromJsonResponse extends
+         ParseJsonArray<ContainerMetadata, Set<ContainerMetadata>> {
 
    @Inject
    public ParseContainerListFromJsonResponse(Gson gson) {
-      super(gson);
+      super(gson, ContainerMetadata.class);
    }
 
-   public Set<ContainerMetadata> apply(InputStream stream) {
-      Type listType = new TypeToken<Set<ContainerMetadata>>() {
-      }.getType();
-      try {
-         return gson.fromJson(new InputStreamReader(stream, "UTF-8"), listType);
-      } catch (UnsupportedEncodingException e) {
-         throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-      }
+   public Set<ContainerMetadata> apply(Iterator<ContainerMetadata> elements) {
+      return Sets.newHashSet(elements);
    }
 }
\ No newline at end of file
@@ -21,11 +21,8 @@ package org.jclouds.rackspace.cloudfiles.functions;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Type;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.SortedSet;
 
 import javax.inject.Inject;
@@ -33,32 +30,31 @@ import javax.inject.Inject;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.blobstore.domain.internal.PageSetImpl;
 import org.jclouds.encryption.EncryptionService;
-import org.jclouds.http.functions.ParseJson;
+import org.jclouds.http.functions.ParseJsonArray;
 import org.jclouds.rackspace.cloudfiles.domain.ObjectInfo;
 import org.jclouds.rackspace.cloudfiles.options.ListContainerOptions;
 import org.jclouds.rest.InvocationContext;
 import org.jclouds.rest.internal.GeneratedHttpRequest;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
 /**
- * This parses {@link ObjectInfo} from a gson string.
+ * This parses {@link ObjectInfo} from a gson string, one object at a time.
  * 
  * @author Adrian Cole
  */
-public class ParseObjectInfoListFromJsonResponse extends ParseJson<PageSet<ObjectInfo>> implements
-         InvocationContext {
+public class ParseObjectInfoListFromJsonResponse extends
+         ParseJsonArray<ParseObjectInfoListFromJsonResponse.ObjectInfoImpl, PageSet<ObjectInfo>>
+         implements InvocationContext {
 
    private GeneratedHttpRequest<?> request;
    private static EncryptionService encryptionService;
 
    @Inject
    public ParseObjectInfoListFromJsonResponse(Gson gson, EncryptionService encryptionService) {
-      super(gson);
+      super(gson, ObjectInfoImpl.class);
       ParseObjectInfoListFromJsonResponse.encryptionService = encryptionService;
    }
 
@@ -150,7 +146,7 @@ public class ParseObjectInfoListFromJsonResponse extends ParseJson<PageSet<Objec
       }
    }
 
-   public PageSet<ObjectInfo> apply(InputStream stream) {
+   public PageSet<ObjectInfo> apply(Iterator<ObjectInfoImpl> elements) {
       checkState(request != null, "request should be initialized at this point");
       checkState(request.getArgs() != null, "request.getArgs() should be initialized at this point");
       checkArgument(request.getArgs()[0] instanceof String, "arg[0] must be a container name");
@@ -159,25 +155,11 @@ public class ParseObjectInfoListFromJsonResponse extends ParseJson<PageSet<Objec
       ListContainerOptions[] optionsList = (ListContainerOptions[]) request.getArgs()[1];
       ListContainerOptions options = optionsList.length > 0 ? optionsList[0]
                : ListContainerOptions.NONE;
-      Type listType = new TypeToken<SortedSet<ObjectInfoImpl>>() {
-      }.getType();
-
-      try {
-         SortedSet<ObjectInfoImpl> list = gson.fromJson(new InputStreamReader(stream, "UTF-8"),
-                  listType);
-         SortedSet<ObjectInfo> returnVal = Sets.newTreeSet(Iterables.transform(list,
-                  new Function<ObjectInfoImpl, ObjectInfo>() {
-                     public ObjectInfo apply(ObjectInfoImpl from) {
-                        return from;
-                     }
-                  }));
-         boolean truncated = options.getMaxResults() == returnVal.size();
-         String marker = truncated ? returnVal.last().getName() : null;
-         return new PageSetImpl<ObjectInfo>(returnVal, marker);
-
-      } catch (UnsupportedEncodingException e) {
-         throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-      }
+      SortedSet<ObjectInfo> returnVal = Sets.newTreeSet();
+      Iterators.addAll(returnVal, elements);
+      boolean truncated = options.getMaxResults() == returnVal.size();
+      String marker = truncated ? returnVal.last().getName() : null;
+      return new PageSetImpl<ObjectInfo>(returnVal, marker);
    }
 
    public void setContext(GeneratedHttpRequest<?> request) {
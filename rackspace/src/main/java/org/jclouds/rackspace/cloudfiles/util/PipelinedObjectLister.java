@@ -0,0 +1,288 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rackspace.cloudfiles.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.Constants;
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.logging.Logger;
+import org.jclouds.rackspace.cloudfiles.CloudFilesAsyncClient;
+import org.jclouds.rackspace.cloudfiles.domain.ObjectInfo;
+import org.jclouds.rackspace.cloudfiles.options.ListContainerOptions;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Lists the objects in a Cloud Files container without idling between pages.
+ * <p/>
+ * Cloud Files pages by marker, so a page cannot be requested until the last name of the page
+ * before it is known. That name is known as soon as the page is parsed. The next request is sent
+ * at that point, and the caller walks the current page while the next one is on the wire.
+ * <p/>
+ * Large listings can also be split into name ranges that are listed in parallel. The range
+ * boundaries are names from one {@code path} listing of the directory above the prefix. Each range
+ * follows its own marker chain and stops at the next boundary. The ranges never overlap and
+ * together cover every name, however unevenly the boundaries happen to fall.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class PipelinedObjectLister {
+   static final Ordering<ObjectInfo> NAME_ORDER = Ordering.natural().onResultOf(
+            new Function<ObjectInfo, String>() {
+               public String apply(ObjectInfo from) {
+                  return from.getName();
+               }
+            });
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   private final CloudFilesAsyncClient client;
+   private final ExecutorService userExecutor;
+
+   @Inject
+   public PipelinedObjectLister(CloudFilesAsyncClient client,
+            @Named(Constants.PROPERTY_USER_THREADS) ExecutorService userExecutor) {
+      this.client = checkNotNull(client, "client");
+      this.userExecutor = checkNotNull(userExecutor, "userExecutor");
+   }
+
+   /**
+    * Lists the objects matching {@code options} in name order. Each iterator sends its first
+    * request when it is created.
+    */
+   public Iterable<ObjectInfo> list(final String container, final ListContainerOptions options) {
+      checkNotNull(container, "container");
+      checkNotNull(options, "options");
+      return new Iterable<ObjectInfo>() {
+         public Iterator<ObjectInfo> iterator() {
+            return new PipelinedIterator(container, options, options.getMarker(), null);
+         }
+      };
+   }
+
+   /**
+    * Passes each object matching {@code options} to {@code handler}, listing up to {@code shards}
+    * name ranges at once. Within a range, objects arrive in name order. Ranges run concurrently, so
+    * the handler must be thread-safe. Once the handler returns false, every range stops.
+    * <p/>
+    * If the boundaries cannot be listed, the whole listing runs as one range.
+    * 
+    * @return the number of objects passed to the handler
+    */
+   public ListenableFuture<Long> listInShards(final String container,
+            final ListContainerOptions options, final int shards,
+            final Predicate<ObjectInfo> handler) {
+      checkNotNull(container, "container");
+      checkNotNull(options, "options");
+      checkArgument(shards > 0, "shards must be positive");
+      checkNotNull(handler, "handler");
+      final SettableListenableFuture<Long> result = new SettableListenableFuture<Long>();
+      if (shards == 1) {
+         listRanges(container, options, ImmutableList.<String> of(), handler, result);
+         return result;
+      }
+      final ListenableFuture<PageSet<ObjectInfo>> directory = client.listObjects(container,
+               new ListContainerOptions().underPath(directoryOf(options)));
+      directory.addListener(new Runnable() {
+         public void run() {
+            List<String> boundaries = ImmutableList.of();
+            try {
+               boundaries = boundaries(getUnchecked(directory), options, shards);
+            } catch (RuntimeException e) {
+               logger.warn(e, "could not split listing of %s; listing it as one range", container);
+            }
+            listRanges(container, options, boundaries, handler, result);
+         }
+      }, sameThreadExecutor());
+      return result;
+   }
+
+   private void listRanges(final String container, final ListContainerOptions options,
+            List<String> boundaries, final Predicate<ObjectInfo> handler,
+            final SettableListenableFuture<Long> result) {
+      logger.debug("listing %s in %d ranges split at %s", container, boundaries.size() + 1,
+               boundaries);
+      final AtomicLong count = new AtomicLong();
+      final AtomicBoolean stopped = new AtomicBoolean();
+      final AtomicInteger remaining = new AtomicInteger(boundaries.size() + 1);
+      for (int i = 0; i <= boundaries.size(); i++) {
+         final String after = i == 0 ? options.getMarker() : boundaries.get(i - 1);
+         final String through = i == boundaries.size() ? null : boundaries.get(i);
+         userExecutor.execute(new Runnable() {
+            public void run() {
+               PipelinedIterator range = null;
+               try {
+                  range = new PipelinedIterator(container, options, after, through);
+                  while (!stopped.get() && range.hasNext()) {
+                     count.incrementAndGet();
+                     if (!handler.apply(range.next()))
+                        stopped.set(true);
+                  }
+               } catch (RuntimeException e) {
+                  stopped.set(true);
+                  result.setException(e);
+               } finally {
+                  if (range != null)
+                     range.cancel();
+               }
+               if (remaining.decrementAndGet() == 0)
+                  result.set(count.get());
+            }
+         });
+      }
+   }
+
+   /**
+    * picks up to {@code shards - 1} evenly spaced names that fall inside the listing and after its
+    * marker.
+    */
+   static List<String> boundaries(Iterable<ObjectInfo> directory, ListContainerOptions options,
+            int shards) {
+      List<String> names = Lists.newArrayList();
+      for (ObjectInfo object : directory) {
+         String name = object.getName();
+         if (options.getPrefix() != null && !name.startsWith(options.getPrefix()))
+            continue;
+         if (options.getMarker() != null && name.compareTo(options.getMarker()) <= 0)
+            continue;
+         names.add(name);
+      }
+      names = Ordering.natural().sortedCopy(names);
+      Set<String> boundaries = Sets.newLinkedHashSet();
+      for (int i = 1; i < shards && !names.isEmpty(); i++)
+         boundaries.add(names.get(i * names.size() / shards));
+      return ImmutableList.copyOf(boundaries);
+   }
+
+   /**
+    * the directory whose {@code path} listing supplies the boundaries: the requested path, or else
+    * the directory part of the prefix.
+    */
+   static String directoryOf(ListContainerOptions options) {
+      if (options.getPath() != null)
+         return options.getPath();
+      String prefix = options.getPrefix();
+      if (prefix == null || prefix.lastIndexOf('/') == -1)
+         return "";
+      return prefix.substring(0, prefix.lastIndexOf('/'));
+   }
+
+   static ListContainerOptions pageAfter(ListContainerOptions options, @Nullable String marker) {
+      ListContainerOptions page = new ListContainerOptions().maxResults(options.getMaxResults());
+      if (options.getPrefix() != null)
+         page.withPrefix(options.getPrefix());
+      if (options.getPath() != null)
+         page.underPath(options.getPath());
+      if (marker != null)
+         page.afterMarker(marker);
+      return page;
+   }
+
+   static <T> T getUnchecked(Future<T> future) {
+      try {
+         return future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(e);
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      }
+   }
+
+   /**
+    * Walks the names after {@code after} up to and including {@code through}, keeping the request
+    * for the next page in flight while the current page is consumed.
+    */
+   class PipelinedIterator extends AbstractIterator<ObjectInfo> {
+      private final String container;
+      private final ListContainerOptions options;
+      private final String through;
+      private Iterator<ObjectInfo> page = Iterators.emptyIterator();
+      private ListenableFuture<PageSet<ObjectInfo>> nextPage;
+
+      PipelinedIterator(String container, ListContainerOptions options, @Nullable String after,
+               @Nullable String through) {
+         this.container = container;
+         this.options = options;
+         this.through = through;
+         this.nextPage = client.listObjects(container, pageAfter(options, after));
+      }
+
+      @Override
+      protected ObjectInfo computeNext() {
+         while (!page.hasNext()) {
+            if (nextPage == null)
+               return endOfData();
+            PageSet<ObjectInfo> current = getUnchecked(nextPage);
+            String marker = current.getNextMarker();
+            // names after the marker are all past a boundary at or before it
+            nextPage = marker != null && (through == null || marker.compareTo(through) < 0) ? client
+                     .listObjects(container, pageAfter(options, marker)) : null;
+            page = NAME_ORDER.sortedCopy(current).iterator();
+         }
+         ObjectInfo next = page.next();
+         if (through != null && next.getName().compareTo(through) > 0) {
+            cancel();
+            return endOfData();
+         }
+         return next;
+      }
+
+      /**
+       * abandons the request in flight, if any.
+       */
+      void cancel() {
+         if (nextPage != null)
+            nextPage.cancel(true);
+         nextPage = null;
+         page = Iterators.emptyIterator();
+      }
+   }
+}
@@ -20,6 +20,7 @@ package org.jclouds.rackspace.cloudservers;
 
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -64,8 +65,10 @@ import org.jclouds.rackspace.cloudservers.options.RebuildServerOptions;
 import org.jclouds.rackspace.filters.AddTimestampQuery;
 import org.jclouds.rackspace.filters.AuthenticateRequest;
 import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Cached;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.ExceptionParser;
+import org.jclouds.rest.annotations.InvalidatesCache;
 import org.jclouds.rest.annotations.MapBinder;
 import org.jclouds.rest.annotations.MapPayloadParam;
 import org.jclouds.rest.annotations.QueryParams;
@@ -221,6 +224,7 @@ public interface CloudServersAsyncClient {
    @ResponseParser(ParseFlavorListFromJsonResponse.class)
    @QueryParams(keys = "format", values = "json")
    @Path("/flavors")
+   @Cached(ttl = 1, timeUnit = TimeUnit.HOURS)
    ListenableFuture<? extends List<Flavor>> listFlavors(ListOptions... options);
 
    /**
@@ -240,6 +244,7 @@ public interface CloudServersAsyncClient {
    @ResponseParser(ParseImageListFromJsonResponse.class)
    @QueryParams(keys = "format", values = "json")
    @Path("/images")
+   @Cached(ttl = 5, staleWhileRevalidate = 5, timeUnit = TimeUnit.MINUTES)
    ListenableFuture<? extends List<Image>> listImages(ListOptions... options);
 
    /**
@@ -258,6 +263,7 @@ public interface CloudServersAsyncClient {
    @DELETE
    @ExceptionParser(ReturnFalseOnNotFoundOr404.class)
    @Path("/images/{id}")
+   @InvalidatesCache("listImages")
    ListenableFuture<Boolean> deleteImage(@PathParam("id") int id);
 
    /**
@@ -268,6 +274,7 @@ public interface CloudServersAsyncClient {
    @QueryParams(keys = "format", values = "json")
    @MapBinder(BindCreateImageToJsonPayload.class)
    @Path("/images")
+   @InvalidatesCache("listImages")
    ListenableFuture<Image> createImageFromServer(@MapPayloadParam("imageName") String imageName,
             @MapPayloadParam("serverId") int serverId);
 
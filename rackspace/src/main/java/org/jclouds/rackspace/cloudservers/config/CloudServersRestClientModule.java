@@ -19,6 +19,7 @@
 package org.jclouds.rackspace.cloudservers.config;
 
 import org.jclouds.http.HttpErrorHandler;
+import org.jclouds.http.HttpRetryHandler;
 import org.jclouds.http.RequiresHttp;
 import org.jclouds.http.annotation.ClientError;
 import org.jclouds.http.annotation.Redirection;
@@ -26,6 +27,7 @@ import org.jclouds.http.annotation.ServerError;
 import org.jclouds.rackspace.cloudservers.CloudServersAsyncClient;
 import org.jclouds.rackspace.cloudservers.CloudServersClient;
 import org.jclouds.rackspace.cloudservers.handlers.ParseCloudServersErrorFromHttpResponse;
+import org.jclouds.rackspace.handlers.RetryOnRenew;
 import org.jclouds.rest.ConfiguresRestClient;
 import org.jclouds.rest.config.RestClientModule;
 
@@ -51,4 +53,9 @@ public class CloudServersRestClientModule extends
       bind(HttpErrorHandler.class).annotatedWith(ServerError.class).to(
                ParseCloudServersErrorFromHttpResponse.class);
    }
-}
\ No newline at end of file
+
+   @Override
+   protected void bindRetryHandlers() {
+      bind(HttpRetryHandler.class).annotatedWith(ClientError.class).to(RetryOnRenew.class);
+   }
+}
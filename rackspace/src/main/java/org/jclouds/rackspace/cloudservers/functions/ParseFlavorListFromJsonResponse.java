@@ -18,43 +18,32 @@
  */
 package org.jclouds.rackspace.cloudservers.functions;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
+import java.util.Iterator;
 import java.util.List;
 
-import org.jclouds.http.functions.ParseJson;
-import org.jclouds.rackspace.cloudservers.domain.Flavor;
-
-import com.google.gson.Gson;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import com.google.inject.internal.Lists;
+import org.jclouds.http.functions.ParseJsonArray;
+import org.jclouds.rackspace.cloudservers.domain.Flavor;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
 
 /**
- * This parses {@link Flavor} from a gson string.
+ * This parses {@link Flavor} from a gson string, one at a time.
  * 
  * @author Adrian Cole
  */
 @Singleton
-public class ParseFlavorListFromJsonResponse extends ParseJson<List<Flavor>> {
+public class ParseFlavorListFromJsonResponse extends ParseJsonArray<Flavor, List<Flavor>> {
 
    @Inject
    public ParseFlavorListFromJsonResponse(Gson gson) {
-      super(gson);
-   }
-
-   private static class FlavorListResponse {
-      List<Flavor> flavors = Lists.newArrayList();
+      super(gson, Flavor.class, "flavors");
    }
 
-   public List<Flavor> apply(InputStream stream) {
-
-      try {
-         return gson.fromJson(new InputStreamReader(stream, "UTF-8"), FlavorListResponse.class).flavors;
-      } catch (UnsupportedEncodingException e) {
-         throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-      }
+   public List<Flavor> apply(Iterator<Flavor> elements) {
+      return Lists.newArrayList(elements);
    }
 }
\ No newline at end of file
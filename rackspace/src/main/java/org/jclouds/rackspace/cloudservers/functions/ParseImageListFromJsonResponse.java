@@ -18,43 +18,32 @@
  */
 package org.jclouds.rackspace.cloudservers.functions;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
+import java.util.Iterator;
 import java.util.List;
 
-import org.jclouds.http.functions.ParseJson;
-import org.jclouds.rackspace.cloudservers.domain.Image;
-
-import com.google.gson.Gson;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import com.google.inject.internal.Lists;
+import org.jclouds.http.functions.ParseJsonArray;
+import org.jclouds.rackspace.cloudservers.domain.Image;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
 
 /**
- * This parses {@link Image} from a gson string.
+ * This parses {@link Image} from a gson string, one at a time.
  * 
  * @author Adrian Cole
  */
 @Singleton
-public class ParseImageListFromJsonResponse extends ParseJson<List<Image>> {
+public class ParseImageListFromJsonResponse extends ParseJsonArray<Image, List<Image>> {
 
    @Inject
    public ParseImageListFromJsonResponse(Gson gson) {
-      super(gson);
-   }
-
-   private static class ImageListResponse {
-      List<Image> images = Lists.newArrayList();
+      super(gson, Image.class, "images");
    }
 
-   public List<Image> apply(InputStream stream) {
-
-      try {
-         return gson.fromJson(new InputStreamReader(stream, "UTF-8"), ImageListResponse.class).images;
-      } catch (UnsupportedEncodingException e) {
-         throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-      }
+   public List<Image> apply(Iterator<Image> elements) {
+      return Lists.newArrayList(elements);
    }
 }
\ No newline at end of file
@@ -18,43 +18,32 @@
  */
 package org.jclouds.rackspace.cloudservers.functions;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
+import java.util.Iterator;
 import java.util.List;
 
-import org.jclouds.http.functions.ParseJson;
-import org.jclouds.rackspace.cloudservers.domain.Server;
-
-import com.google.gson.Gson;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import com.google.inject.internal.Lists;
+import org.jclouds.http.functions.ParseJsonArray;
+import org.jclouds.rackspace.cloudservers.domain.Server;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
 
 /**
- * This parses {@link Server} from a gson string.
+ * This parses {@link Server} from a gson string, one at a time.
  * 
  * @author Adrian Cole
  */
 @Singleton
-public class ParseServerListFromJsonResponse extends ParseJson<List<Server>> {
+public class ParseServerListFromJsonResponse extends ParseJsonArray<Server, List<Server>> {
 
    @Inject
    public ParseServerListFromJsonResponse(Gson gson) {
-      super(gson);
-   }
-
-   private static class ServerListResponse {
-      List<Server> servers = Lists.newArrayList();
+      super(gson, Server.class, "servers");
    }
 
-   public List<Server> apply(InputStream stream) {
-
-      try {
-         return gson.fromJson(new InputStreamReader(stream, "UTF-8"), ServerListResponse.class).servers;
-      } catch (UnsupportedEncodingException e) {
-         throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-      }
+   public List<Server> apply(Iterator<Server> elements) {
+      return Lists.newArrayList(elements);
    }
 }
\ No newline at end of file
@@ -18,44 +18,32 @@
  */
 package org.jclouds.rackspace.cloudservers.functions;
 
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
+import java.util.Iterator;
 import java.util.List;
 
-import org.jclouds.http.functions.ParseJson;
-import org.jclouds.rackspace.cloudservers.domain.SharedIpGroup;
-
-import com.google.gson.Gson;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import com.google.inject.internal.Lists;
+import org.jclouds.http.functions.ParseJsonArray;
+import org.jclouds.rackspace.cloudservers.domain.SharedIpGroup;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
 
 /**
- * This parses {@link SharedIpGroup} from a gson string.
+ * This parses {@link SharedIpGroup} from a gson string, one at a time.
  * 
  * @author Adrian Cole
  */
 @Singleton
-public class ParseSharedIpGroupListFromJsonResponse extends ParseJson<List<SharedIpGroup>> {
+public class ParseSharedIpGroupListFromJsonResponse extends ParseJsonArray<SharedIpGroup, List<SharedIpGroup>> {
 
    @Inject
    public ParseSharedIpGroupListFromJsonResponse(Gson gson) {
-      super(gson);
-   }
-
-   private static class SharedIpGroupListResponse {
-      List<SharedIpGroup> sharedIpGroups = Lists.newArrayList();
+      super(gson, SharedIpGroup.class, "sharedIpGroups");
    }
 
-   public List<SharedIpGroup> apply(InputStream stream) {
-
-      try {
-         return gson.fromJson(new InputStreamReader(stream, "UTF-8"),
-                  SharedIpGroupListResponse.class).sharedIpGroups;
-      } catch (UnsupportedEncodingException e) {
-         throw new RuntimeException("jclouds requires UTF-8 encoding", e);
-      }
+   public List<SharedIpGroup> apply(Iterator<SharedIpGroup> elements) {
+      return Lists.newArrayList(elements);
    }
 }
\ No newline at end of file
@@ -25,14 +25,17 @@ import static org.jclouds.rackspace.reference.RackspaceConstants.PROPERTY_RACKSP
 import java.net.URI;
 import java.util.Date;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.jclouds.Constants;
 import org.jclouds.concurrent.ExpirableSupplier;
 import org.jclouds.concurrent.RetryOnTimeOutExceptionSupplier;
+import org.jclouds.concurrent.SessionSupplier;
 import org.jclouds.date.TimeStamp;
 import org.jclouds.http.RequiresHttp;
 import org.jclouds.rackspace.Authentication;
@@ -79,10 +82,21 @@ public class RackspaceAuthenticationRestModule extends AbstractModule {
 
    @Provides
    @Singleton
-   Supplier<AuthenticationResponse> provideAuthenticationResponseCache(
+   Supplier<AuthenticationResponse> provideAuthenticationResponseSupplier(
+            SessionSupplier<AuthenticationResponse> cache) {
+      return cache;
+   }
+
+   /**
+    * tokens last 24 hours; we renew them in the background after 21
+    */
+   @Provides
+   @Singleton
+   SessionSupplier<AuthenticationResponse> provideAuthenticationResponseCache(
             final AsyncClientFactory factory, @Named(PROPERTY_RACKSPACE_USER) final String user,
-            @Named(PROPERTY_RACKSPACE_KEY) final String key) {
-      return new ExpirableSupplier<AuthenticationResponse>(
+            @Named(PROPERTY_RACKSPACE_KEY) final String key,
+            @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
+      return new SessionSupplier<AuthenticationResponse>(
                new RetryOnTimeOutExceptionSupplier<AuthenticationResponse>(
                         new Supplier<AuthenticationResponse>() {
                            public AuthenticationResponse get() {
@@ -97,7 +111,7 @@ public class RackspaceAuthenticationRestModule extends AbstractModule {
                                  return null;
                               }
                            }
-                        }), 23, TimeUnit.HOURS);
+                        }), 23, 21, TimeUnit.HOURS, executor);
    }
 
    @Provides
@@ -0,0 +1,71 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rackspace.handlers;
+
+import static org.jclouds.http.HttpUtils.closeClientButKeepContentStream;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jclouds.concurrent.SessionSupplier;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpRetryHandler;
+import org.jclouds.logging.Logger;
+import org.jclouds.rackspace.RackspaceAuthentication.AuthenticationResponse;
+import org.jclouds.rackspace.reference.RackspaceHeaders;
+
+import com.google.common.base.Predicate;
+
+/**
+ * Renews the authentication token and retries the request once, when the token it was sent with
+ * is rejected.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class RetryOnRenew implements HttpRetryHandler {
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   private final SessionSupplier<AuthenticationResponse> authenticationResponseCache;
+
+   @Inject
+   public RetryOnRenew(SessionSupplier<AuthenticationResponse> authenticationResponseCache) {
+      this.authenticationResponseCache = authenticationResponseCache;
+   }
+
+   public boolean shouldRetryRequest(HttpCommand command, HttpResponse response) {
+      final String token = command.getRequest().getFirstHeaderOrNull(RackspaceHeaders.AUTH_TOKEN);
+      if (response.getStatusCode() != 401 || token == null || !command.isReplayable()
+               || command.incrementFailureCount() > 1)
+         return false;
+      closeClientButKeepContentStream(response);
+      authenticationResponseCache.invalidateIf(new Predicate<AuthenticationResponse>() {
+         public boolean apply(AuthenticationResponse input) {
+            return token.equals(input.getAuthToken());
+         }
+      });
+      logger.debug("token rejected; retrying %s with a new one", command.getRequest()
+               .getRequestLine());
+      return true;
+   }
+
+}
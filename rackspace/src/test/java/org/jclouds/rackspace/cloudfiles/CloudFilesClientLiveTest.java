@@ -384,6 +384,22 @@ public class CloudFilesClientLiveTest extends BaseBlobStoreIntegrationTest {
       }
    }
 
+   public void testCopyObject() throws Exception {
+      String containerName = getContainerName();
+      try {
+         String data = "foo";
+         String newEtag = getApi().putObject(containerName, newCFObject(data, "foo"));
+
+         assertEquals(getApi().copyObject(containerName, "foo", containerName, "path/foo"),
+                  newEtag);
+         CFObject copy = getApi().getObject(containerName, "path/foo");
+         assertEquals(Utils.toStringAndClose(copy.getContent()), data);
+         assertEquals(copy.getInfo().getHash(), encryptionService.fromHexString(newEtag));
+      } finally {
+         returnContainer(containerName);
+      }
+   }
+
    private CFObject newCFObject(String data, String key) throws IOException {
       CFObject object = getApi().newCFObject();
       object.getInfo().setName(key);
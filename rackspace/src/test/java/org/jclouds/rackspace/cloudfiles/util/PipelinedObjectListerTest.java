@@ -0,0 +1,239 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.rackspace.cloudfiles.util;
+
+import static org.jclouds.rackspace.cloudfiles.options.ListContainerOptions.Builder.maxResults;
+import static org.jclouds.rackspace.cloudfiles.options.ListContainerOptions.Builder.withPrefix;
+import static org.testng.Assert.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jclouds.blobstore.domain.PageSet;
+import org.jclouds.blobstore.domain.internal.PageSetImpl;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.rackspace.cloudfiles.CloudFilesAsyncClient;
+import org.jclouds.rackspace.cloudfiles.domain.ObjectInfo;
+import org.jclouds.rackspace.cloudfiles.options.ListContainerOptions;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+
+/**
+ * Tests behavior of {@code PipelinedObjectLister}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "cloudfiles.PipelinedObjectListerTest")
+public class PipelinedObjectListerTest {
+   static final SortedSet<String> NAMES;
+   static {
+      ImmutableSortedSet.Builder<String> builder = ImmutableSortedSet.naturalOrder();
+      for (String dir : ImmutableList.of("apple", "banana", "cherry")) {
+         builder.add(dir);
+         for (int i = 0; i < 10; i++)
+            builder.add(dir + "/" + i);
+      }
+      for (int i = 0; i < 5; i++)
+         builder.add("file" + i);
+      NAMES = builder.build();
+   }
+
+   private ExecutorService executor;
+   private List<ListContainerOptions> requests;
+   private PipelinedObjectLister lister;
+
+   @BeforeTest
+   void setUp() {
+      executor = Executors.newCachedThreadPool();
+   }
+
+   @AfterTest
+   void tearDown() {
+      executor.shutdownNow();
+   }
+
+   void newLister(boolean failPathListings) {
+      requests = Collections.synchronizedList(Lists.<ListContainerOptions> newArrayList());
+      lister = new PipelinedObjectLister(fakeClient(failPathListings), executor);
+   }
+
+   public void testListReturnsEveryNameInOrder() {
+      newLister(false);
+      List<String> names = Lists.newArrayList();
+      for (ObjectInfo object : lister.list("container", maxResults(10)))
+         names.add(object.getName());
+      assertEquals(names, ImmutableList.copyOf(NAMES));
+      assertEquals(requests.size(), 4);
+      assertEquals(requests.get(1).getMarker(), "apple/8");
+   }
+
+   public void testNextPageIsRequestedBeforeCurrentPageIsConsumed() {
+      newLister(false);
+      Iterator<ObjectInfo> objects = lister.list("container", maxResults(10)).iterator();
+      assertEquals(requests.size(), 1);
+      assertEquals(objects.next().getName(), "apple");
+      assertEquals(requests.size(), 2);
+   }
+
+   public void testListHonorsPrefix() {
+      newLister(false);
+      List<String> names = Lists.newArrayList();
+      for (ObjectInfo object : lister.list("container", withPrefix("banana/").maxResults(3)))
+         names.add(object.getName());
+      assertEquals(names.size(), 10);
+      assertEquals(names.get(0), "banana/0");
+   }
+
+   public void testShardsCoverEveryNameOnce() throws Exception {
+      newLister(false);
+      final List<String> names = Collections.synchronizedList(Lists.<String> newArrayList());
+      long count = lister.listInShards("container", maxResults(4), 4, new Predicate<ObjectInfo>() {
+         public boolean apply(ObjectInfo input) {
+            names.add(input.getName());
+            return true;
+         }
+      }).get(10, TimeUnit.SECONDS);
+      assertEquals(count, NAMES.size());
+      assertEquals(Ordering.natural().sortedCopy(names), ImmutableList.copyOf(NAMES));
+      assertEquals(requests.get(0).getPath(), "");
+   }
+
+   public void testShardsFallBackToOneRangeWhenDirectoryListingFails() throws Exception {
+      newLister(true);
+      final List<String> names = Collections.synchronizedList(Lists.<String> newArrayList());
+      long count = lister.listInShards("container", maxResults(7), 3, new Predicate<ObjectInfo>() {
+         public boolean apply(ObjectInfo input) {
+            names.add(input.getName());
+            return true;
+         }
+      }).get(10, TimeUnit.SECONDS);
+      assertEquals(count, NAMES.size());
+      assertEquals(names, ImmutableList.copyOf(NAMES));
+   }
+
+   public void testBoundariesAreEvenlySpacedAndInsideTheListing() {
+      List<ObjectInfo> directory = Lists.newArrayList();
+      for (String name : ImmutableList.of("a", "b", "c", "d", "e", "f"))
+         directory.add(object(name));
+      assertEquals(PipelinedObjectLister.boundaries(directory, new ListContainerOptions(), 3),
+               ImmutableList.of("c", "e"));
+      assertEquals(PipelinedObjectLister.boundaries(directory, new ListContainerOptions()
+               .afterMarker("c"), 4), ImmutableList.of("d", "e", "f"));
+      assertEquals(PipelinedObjectLister.boundaries(directory, withPrefix("z"), 4), ImmutableList
+               .of());
+   }
+
+   public void testDirectoryOf() {
+      assertEquals(PipelinedObjectLister.directoryOf(new ListContainerOptions()), "");
+      assertEquals(PipelinedObjectLister.directoryOf(withPrefix("apple")), "");
+      assertEquals(PipelinedObjectLister.directoryOf(withPrefix("apple/pie")), "apple");
+      assertEquals(PipelinedObjectLister.directoryOf(new ListContainerOptions().underPath("x/y")),
+               "x/y");
+   }
+
+   /**
+    * answers listObjects the way Cloud Files does: names after the marker, filtered by prefix or
+    * path, with a marker when the page is full.
+    */
+   CloudFilesAsyncClient fakeClient(final boolean failPathListings) {
+      return (CloudFilesAsyncClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+               new Class<?>[] { CloudFilesAsyncClient.class }, new InvocationHandler() {
+                  public Object invoke(Object proxy, Method method, Object[] args) {
+                     if (!method.getName().equals("listObjects"))
+                        throw new UnsupportedOperationException(method.getName());
+                     ListContainerOptions options = ((ListContainerOptions[]) args[1])[0];
+                     requests.add(options);
+                     SettableListenableFuture<PageSet<ObjectInfo>> page = new SettableListenableFuture<PageSet<ObjectInfo>>();
+                     if (options.getPath() != null && failPathListings) {
+                        page.setException(new RuntimeException("path listings are broken"));
+                        return page;
+                     }
+                     page.set(page(options));
+                     return page;
+                  }
+               });
+   }
+
+   static PageSet<ObjectInfo> page(ListContainerOptions options) {
+      List<ObjectInfo> objects = Lists.newArrayList();
+      for (String name : options.getMarker() != null ? NAMES.tailSet(options.getMarker() + "\0")
+               : NAMES) {
+         if (objects.size() == options.getMaxResults())
+            break;
+         if (options.getPrefix() != null && !name.startsWith(options.getPrefix()))
+            continue;
+         if (options.getPath() != null && !isChild(options.getPath(), name))
+            continue;
+         objects.add(object(name));
+      }
+      String marker = objects.size() == options.getMaxResults() ? objects.get(objects.size() - 1)
+               .getName() : null;
+      return new PageSetImpl<ObjectInfo>(objects, marker);
+   }
+
+   static boolean isChild(String path, String name) {
+      String relative = path.equals("") ? name : name.startsWith(path + "/") ? name.substring(path
+               .length() + 1) : null;
+      return relative != null && relative.indexOf('/') == -1;
+   }
+
+   static ObjectInfo object(final String name) {
+      return new ObjectInfo() {
+         public String getName() {
+            return name;
+         }
+
+         public byte[] getHash() {
+            return null;
+         }
+
+         public Long getBytes() {
+            return 0l;
+         }
+
+         public String getContentType() {
+            return "application/octet-stream";
+         }
+
+         public Date getLastModified() {
+            return null;
+         }
+
+         public int compareTo(ObjectInfo o) {
+            return name.compareTo(o.getName());
+         }
+      };
+   }
+}
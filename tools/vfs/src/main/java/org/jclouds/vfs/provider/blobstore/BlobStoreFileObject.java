@@ -236,6 +236,35 @@ public class BlobStoreFileObject extends AbstractFileObject {
                getNameTrimLeadingSlashes()));
    }
 
+   /**
+    * blobs in the same blobstore are moved by copying them within the service, so their content
+    * isn't downloaded and uploaded again.
+    */
+   @Override
+   public boolean canRenameTo(FileObject newfile) {
+      try {
+         return super.canRenameTo(newfile)
+                  && FileObjectUtils.getAbstractFileObject(newfile) instanceof BlobStoreFileObject
+                  && getType() == FileType.FILE;
+      } catch (FileSystemException e) {
+         return false;
+      }
+   }
+
+   @Override
+   protected void doRename(FileObject newfile) throws Exception {
+      BlobStoreFileObject destination = (BlobStoreFileObject) FileObjectUtils
+               .getAbstractFileObject(newfile);
+      logger.info(String.format(">> copy: %s/%s to %s/%s", getContainer(),
+               getNameTrimLeadingSlashes(), destination.getContainer(), destination
+                        .getNameTrimLeadingSlashes()));
+      String tag = getBlobStore().copyBlob(getContainer(), getNameTrimLeadingSlashes(),
+               destination.getContainer(), destination.getNameTrimLeadingSlashes());
+      logger.info(String.format("<< tag %s: %s/%s", tag, destination.getContainer(), destination
+               .getNameTrimLeadingSlashes()));
+      deleteBlob(getNameTrimLeadingSlashes());
+   }
+
    @Override
    protected OutputStream doGetOutputStream(boolean bAppend) throws Exception {
       File file = allocateFile();
@@ -28,6 +28,8 @@ import static org.jclouds.vcloud.VCloudMediaType.VAPPTEMPLATE_XML;
 import static org.jclouds.vcloud.VCloudMediaType.VAPP_XML;
 import static org.jclouds.vcloud.VCloudMediaType.VDC_XML;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -37,6 +39,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 
 import org.jclouds.predicates.validators.DnsNameValidator;
+import org.jclouds.rest.annotations.Cached;
+import org.jclouds.rest.annotations.Coalesce;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.ExceptionParser;
 import org.jclouds.rest.annotations.MapBinder;
@@ -112,6 +116,7 @@ public interface VCloudAsyncClient {
    @XMLResponseParser(CatalogHandler.class)
    @ExceptionParser(ReturnNullOnNotFoundOr404.class)
    @Consumes(CATALOG_XML)
+   @Cached(ttl = 5, timeUnit = TimeUnit.MINUTES)
    ListenableFuture<? extends Catalog> getCatalog(@PathParam("catalogId") String catalogId);
 
    @GET
@@ -152,6 +157,7 @@ public interface VCloudAsyncClient {
    @XMLResponseParser(VDCHandler.class)
    @Consumes(VDC_XML)
    @ExceptionParser(ReturnNullOnNotFoundOr404.class)
+   @Coalesce
    ListenableFuture<? extends VDC> getVDC(@PathParam("vDCId") String vDCId);
 
    @GET
@@ -255,6 +261,7 @@ public interface VCloudAsyncClient {
    @Path("/vApp/{vAppId}")
    @XMLResponseParser(VAppHandler.class)
    @ExceptionParser(ReturnNullOnNotFoundOr404.class)
+   @Coalesce
    ListenableFuture<? extends VApp> getVApp(@PathParam("vAppId") String appId);
 
    @POST
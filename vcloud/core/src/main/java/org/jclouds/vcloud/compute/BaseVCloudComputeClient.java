@@ -213,7 +213,16 @@ public class BaseVCloudComputeClient implements VCloudComputeClient {
 
    @Override
    public Set<String> getPublicAddresses(String id) {
-      VApp vApp = client.getVApp(id);
+      return getPublicAddresses(client.getVApp(id));
+   }
+
+   @Override
+   public Set<String> getPrivateAddresses(VApp vApp) {
+      return ImmutableSet.of();
+   }
+
+   @Override
+   public Set<String> getPublicAddresses(VApp vApp) {
       return Sets.newHashSet(vApp.getNetworkToAddresses().values());
    }
 
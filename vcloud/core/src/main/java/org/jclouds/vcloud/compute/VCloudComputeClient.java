@@ -21,6 +21,7 @@ package org.jclouds.vcloud.compute;
 import java.util.Map;
 import java.util.Set;
 
+import org.jclouds.vcloud.domain.VApp;
 import org.jclouds.vcloud.options.InstantiateVAppTemplateOptions;
 
 import com.google.inject.ImplementedBy;
@@ -72,6 +73,16 @@ public interface VCloudComputeClient {
     */
    Set<String> getPublicAddresses(String vAppId);
 
+   /**
+    * like {@link #getPrivateAddresses(String)}, except the vApp was already retrieved
+    */
+   Set<String> getPrivateAddresses(VApp vApp);
+
+   /**
+    * like {@link #getPublicAddresses(String)}, except the vApp was already retrieved
+    */
+   Set<String> getPublicAddresses(VApp vApp);
+
    /**
     * reboots the vApp, blocking until the following state transition is complete:
     * <p/>
@@ -92,8 +92,13 @@ public class VCloudGetNodeMetadata {
    }
 
    public NodeMetadata execute(String id) {
-      VApp vApp = client.getVApp(id);
+      return execute(client.getVApp(id));
+   }
 
+   /**
+    * converts a vApp that was already retrieved
+    */
+   public NodeMetadata execute(VApp vApp) {
       String tag = null;
       Image image = null;
       Matcher matcher = vApp.getName() != null ? TAG_PATTERN_WITH_TEMPLATE
@@ -135,7 +140,7 @@ public class VCloudGetNodeMetadata {
       return new NodeMetadataImpl(vApp.getId(), vApp.getName(), vApp.getId(),
             location, vApp.getLocation(), ImmutableMap.<String, String> of(),
             tag, image, vAppStatusToNodeState.get(vApp.getStatus()),
-            computeClient.getPublicAddresses(id), computeClient
-                  .getPrivateAddresses(id), getExtra.apply(vApp), null);
+            computeClient.getPublicAddresses(vApp), computeClient
+                  .getPrivateAddresses(vApp), getExtra.apply(vApp), null);
    }
 }
\ No newline at end of file
@@ -18,33 +18,66 @@
  */
 package org.jclouds.vcloud.compute.strategy;
 
+import static org.jclouds.concurrent.ConcurrentUtils.allAsList;
+import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_LIST_CONCURRENCY;
+
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Resource;
-import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.jclouds.Constants;
 import org.jclouds.compute.domain.ComputeMetadata;
 import org.jclouds.compute.domain.ComputeType;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.internal.ComputeMetadataImpl;
 import org.jclouds.compute.reference.ComputeServiceConstants;
 import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.jclouds.concurrent.SettableListenableFuture;
 import org.jclouds.domain.Location;
 import org.jclouds.logging.Logger;
-import org.jclouds.vcloud.VCloudClient;
+import org.jclouds.vcloud.VCloudAsyncClient;
 import org.jclouds.vcloud.VCloudMediaType;
 import org.jclouds.vcloud.compute.functions.FindLocationForResourceInVDC;
 import org.jclouds.vcloud.compute.functions.VCloudGetNodeMetadata;
 import org.jclouds.vcloud.domain.NamedResource;
+import org.jclouds.vcloud.domain.Organization;
+import org.jclouds.vcloud.domain.VApp;
+import org.jclouds.vcloud.domain.VDC;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.inject.Inject;
 
 /**
+ * Crawls the vDCs of the default organization and the vApps inside them.
+ * <p/>
+ * vDCs are fetched concurrently, and each vApp is fetched as soon as its vDC is known, with at
+ * most {@link org.jclouds.vcloud.reference.VCloudConstants#PROPERTY_VCLOUD_LIST_CONCURRENCY} vApp
+ * requests in flight. vDCs and vApps reachable more than once are only fetched once.
+ * <p/>
+ * Failing to list the organization, a vDC or a vApp fails the listing. A vApp that is listed in its
+ * vDC but not yet present, as while it is being created, is retried after a delay and then
+ * skipped.
+ * 
  * @author Adrian Cole
  */
 @Singleton
@@ -52,26 +85,39 @@ public class VCloudListNodesStrategy implements ListNodesStrategy {
    @Resource
    @Named(ComputeServiceConstants.COMPUTE_LOGGER)
    public Logger logger = Logger.NULL;
+
+   @Inject(optional = true)
+   @Named(PROPERTY_VCLOUD_LIST_CONCURRENCY)
+   protected int maxConcurrentRequests = 10;
+
+   /**
+    * when absent, as in single-threaded contexts, vApps are retried without a delay.
+    */
+   @VisibleForTesting
+   @Inject(optional = true)
+   ScheduledExecutorService scheduler;
+
    protected final VCloudGetNodeMetadata getNodeMetadata;
-   protected final VCloudClient client;
+   protected final VCloudAsyncClient client;
    protected final FindLocationForResourceInVDC findLocationForResourceInVDC;
+   protected final ExecutorService executor;
 
    @Inject
-   protected VCloudListNodesStrategy(VCloudClient client,
+   protected VCloudListNodesStrategy(VCloudAsyncClient client,
          VCloudGetNodeMetadata getNodeMetadata,
-         FindLocationForResourceInVDC findLocationForResourceInVDC) {
+         FindLocationForResourceInVDC findLocationForResourceInVDC,
+         @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
       this.client = client;
       this.getNodeMetadata = getNodeMetadata;
       this.findLocationForResourceInVDC = findLocationForResourceInVDC;
+      this.executor = executor;
    }
 
    @Override
    public Iterable<ComputeMetadata> list() {
       Set<ComputeMetadata> nodes = Sets.newHashSet();
-      for (NamedResource vdc : client.getDefaultOrganization().getVDCs()
-            .values()) {
-         for (NamedResource resource : client.getVDC(vdc.getId())
-               .getResourceEntities().values()) {
+      for (VDC vdc : await(getVDCsAsync())) {
+         for (NamedResource resource : vdc.getResourceEntities().values()) {
             if (resource.getType().equals(VCloudMediaType.VAPP_XML)) {
                nodes.add(convertVAppToComputeMetadata(vdc, resource));
             }
@@ -92,34 +138,243 @@ public class VCloudListNodesStrategy implements ListNodesStrategy {
    @Override
    public Iterable<NodeMetadata> listDetailsOnNodesMatching(
          Predicate<ComputeMetadata> filter) {
-      Set<NodeMetadata> nodes = Sets.newHashSet();
-      for (NamedResource vdc : client.getDefaultOrganization().getVDCs()
-            .values()) {
-         for (NamedResource resource : client.getVDC(vdc.getId())
-               .getResourceEntities().values()) {
-            if (resource.getType().equals(VCloudMediaType.VAPP_XML)
-                  && filter.apply(convertVAppToComputeMetadata(vdc, resource))) {
-               addVAppToSetRetryingIfNotYetPresent(nodes, vdc, resource);
+      return await(listDetailsOnNodesMatchingAsync(filter, null));
+   }
+
+   /**
+    * Crawls nodes matching {@code filter}.
+    * 
+    * @param onNode
+    *           if not null, called with each node as soon as it is resolved, rather than when
+    *           the whole listing completes
+    * @return all matching nodes, once every vApp has been resolved
+    */
+   public ListenableFuture<Set<NodeMetadata>> listDetailsOnNodesMatchingAsync(
+         Predicate<ComputeMetadata> filter, Function<? super NodeMetadata, ?> onNode) {
+      return new Crawl(filter, onNode).start();
+   }
+
+   /**
+    * @return each distinct vDC in the default organization
+    */
+   public ListenableFuture<List<VDC>> getVDCsAsync() {
+      return Futures.chain(client.getDefaultOrganization(),
+            new Function<Organization, ListenableFuture<List<VDC>>>() {
+               @Override
+               public ListenableFuture<List<VDC>> apply(Organization org) {
+                  List<ListenableFuture<? extends VDC>> vdcs = Lists.newArrayList();
+                  for (String id : vdcIds(org))
+                     vdcs.add(client.getVDC(id));
+                  return allAsList(vdcs, executor);
+               }
+            }, executor);
+   }
+
+   private static Set<String> vdcIds(Organization org) {
+      Set<String> ids = Sets.newLinkedHashSet();
+      for (NamedResource vdc : org.getVDCs().values())
+         ids.add(vdc.getId());
+      return ids;
+   }
+
+   /**
+    * vApps can show up in a vDC listing before they can be fetched; we retry those a few times
+    */
+   @VisibleForTesting
+   static final int MAX_ATTEMPTS = 3;
+
+   /**
+    * delay before the first retry of a vApp; later retries wait proportionally longer
+    */
+   @VisibleForTesting
+   static final long RETRY_DELAY_MILLIS = 500;
+
+   private static class VAppInVDC {
+      private final VDC vdc;
+      private final NamedResource resource;
+      private int attempts;
+
+      private VAppInVDC(VDC vdc, NamedResource resource) {
+         this.vdc = vdc;
+         this.resource = resource;
+      }
+   }
+
+   /**
+    * State of one listing. Every vDC and vApp that is scheduled counts as pending until it is
+    * resolved; the listing completes when nothing is pending.
+    */
+   private class Crawl {
+      private final Predicate<ComputeMetadata> filter;
+      private final Function<? super NodeMetadata, ?> onNode;
+      private final SettableListenableFuture<Set<NodeMetadata>> result = new SettableListenableFuture<Set<NodeMetadata>>();
+      private final Set<NodeMetadata> nodes = Sets.newSetFromMap(new MapMaker()
+            .<NodeMetadata, Boolean> makeMap());
+      private final Set<String> seenVApps = Sets.newSetFromMap(new MapMaker()
+            .<String, Boolean> makeMap());
+      private final ConcurrentLinkedQueue<VAppInVDC> queue = new ConcurrentLinkedQueue<VAppInVDC>();
+      private final Semaphore permits = new Semaphore(maxConcurrentRequests);
+      private final AtomicInteger pending = new AtomicInteger(1);
+
+      Crawl(Predicate<ComputeMetadata> filter, Function<? super NodeMetadata, ?> onNode) {
+         this.filter = filter;
+         this.onNode = onNode;
+      }
+
+      ListenableFuture<Set<NodeMetadata>> start() {
+         final ListenableFuture<? extends Organization> org = client.getDefaultOrganization();
+         org.addListener(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  Set<String> ids = vdcIds(org.get());
+                  pending.addAndGet(ids.size());
+                  for (String id : ids)
+                     fetchVDC(id);
+                  done();
+               } catch (Exception e) {
+                  fail(e);
+               }
+            }
+         }, executor);
+         return result;
+      }
+
+      private void fetchVDC(String id) {
+         final ListenableFuture<? extends VDC> vdc = client.getVDC(id);
+         vdc.addListener(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  VDC from = vdc.get();
+                  for (NamedResource resource : from.getResourceEntities().values()) {
+                     if (resource.getType().equals(VCloudMediaType.VAPP_XML)
+                           && seenVApps.add(resource.getId())
+                           && filter.apply(convertVAppToComputeMetadata(from, resource))) {
+                        pending.incrementAndGet();
+                        queue.add(new VAppInVDC(from, resource));
+                     }
+                  }
+                  done();
+                  drain();
+               } catch (Exception e) {
+                  fail(e);
+               }
             }
+         }, executor);
+      }
+
+      private void drain() {
+         while (!queue.isEmpty()) {
+            if (!permits.tryAcquire())
+               return;
+            VAppInVDC next = queue.poll();
+            if (next == null)
+               permits.release();
+            else
+               fetchVApp(next);
          }
       }
-      return nodes;
-   }
 
-   @VisibleForTesting
-   void addVAppToSetRetryingIfNotYetPresent(Set<NodeMetadata> nodes,
-         NamedResource vdc, NamedResource resource) {
-      NodeMetadata node = null;
-      int i = 0;
-      while (node == null && i++ < 3) {
+      private void fetchVApp(final VAppInVDC vApp) {
+         vApp.attempts++;
+         final ListenableFuture<? extends VApp> response = client.getVApp(vApp.resource
+               .getId());
+         response.addListener(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  NodeMetadata node = null;
+                  try {
+                     VApp from = response.get();
+                     if (from != null)
+                        node = getNodeMetadata.execute(from);
+                  } catch (Exception e) {
+                     Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                     // a vApp that is still being created can fail to convert
+                     if (!(cause instanceof NullPointerException)) {
+                        fail(e);
+                        return;
+                     }
+                  }
+                  if (node != null)
+                     resolved(node);
+                  else
+                     retryOrSkip(vApp);
+               } finally {
+                  permits.release();
+                  drain();
+               }
+            }
+         }, executor);
+      }
+
+      private void resolved(NodeMetadata node) {
+         nodes.add(node);
          try {
-            node = getNodeMetadata.execute(resource.getId());
-            nodes.add(node);
-         } catch (NullPointerException e) {
-            logger.warn("vApp %s not yet present in vdc %s", resource.getId(),
-                  vdc.getId());
+            if (onNode != null)
+               onNode.apply(node);
+         } catch (RuntimeException e) {
+            fail(e);
+         }
+         done();
+      }
+
+      /**
+       * a vApp listed in its vDC but not yet present is retried after a delay, then left out of
+       * the listing.
+       */
+      private void retryOrSkip(final VAppInVDC vApp) {
+         if (vApp.attempts >= MAX_ATTEMPTS) {
+            logger.warn("vApp %s in vdc %s still not present after %d attempts; skipping",
+                  vApp.resource.getId(), vApp.vdc.getId(), vApp.attempts);
+            done();
+            return;
          }
+         logger.warn("vApp %s not yet present in vdc %s", vApp.resource.getId(), vApp.vdc
+               .getId());
+         Runnable requeue = new Runnable() {
+            @Override
+            public void run() {
+               queue.add(vApp);
+               drain();
+            }
+         };
+         if (scheduler == null) {
+            queue.add(vApp);
+            return;
+         }
+         try {
+            scheduler.schedule(requeue, RETRY_DELAY_MILLIS * vApp.attempts,
+                  TimeUnit.MILLISECONDS);
+         } catch (RejectedExecutionException e) {
+            queue.add(vApp);
+         }
+      }
+
+      private void done() {
+         if (pending.decrementAndGet() == 0) {
+            logger.debug("<< crawled nodes(%d)", nodes.size());
+            result.set(nodes);
+         }
+      }
+
+      private void fail(Exception e) {
+         Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+         if (result.setException(cause))
+            logger.error(cause, "error crawling nodes");
+      }
+   }
+
+   private static <T> T await(ListenableFuture<T> future) {
+      try {
+         return future.get();
+      } catch (ExecutionException e) {
+         throw Throwables.propagate(e.getCause());
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw Throwables.propagate(e);
       }
    }
 
-}
\ No newline at end of file
+}
@@ -24,7 +24,6 @@ import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_DEFAU
 import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_ENDPOINT;
 import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_KEY;
 import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_SESSIONINTERVAL;
-import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_TIMEOUT_TASK_COMPLETED;
 import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_USER;
 import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_VERSION_API;
 
@@ -33,6 +32,7 @@ import java.net.URI;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -40,17 +40,18 @@ import javax.annotation.Resource;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import org.jclouds.concurrent.ExpirableSupplier;
+import org.jclouds.Constants;
 import org.jclouds.concurrent.RetryOnTimeOutExceptionSupplier;
+import org.jclouds.concurrent.SessionSupplier;
 import org.jclouds.encryption.EncryptionService;
 import org.jclouds.http.HttpErrorHandler;
+import org.jclouds.http.HttpRetryHandler;
 import org.jclouds.http.RequiresHttp;
 import org.jclouds.http.annotation.ClientError;
 import org.jclouds.http.annotation.Redirection;
 import org.jclouds.http.annotation.ServerError;
 import org.jclouds.http.filters.BasicAuthentication;
 import org.jclouds.logging.Logger;
-import org.jclouds.predicates.RetryablePredicate;
 import org.jclouds.rest.AsyncClientFactory;
 import org.jclouds.rest.AuthorizationException;
 import org.jclouds.rest.ConfiguresRestClient;
@@ -72,10 +73,11 @@ import org.jclouds.vcloud.endpoints.internal.CatalogItemRoot;
 import org.jclouds.vcloud.endpoints.internal.VAppRoot;
 import org.jclouds.vcloud.endpoints.internal.VAppTemplateRoot;
 import org.jclouds.vcloud.handlers.ParseVCloudErrorFromHttpResponse;
+import org.jclouds.vcloud.handlers.RetryOnSessionExpired;
 import org.jclouds.vcloud.internal.VCloudLoginAsyncClient;
 import org.jclouds.vcloud.internal.VCloudVersionsAsyncClient;
 import org.jclouds.vcloud.internal.VCloudLoginAsyncClient.VCloudSession;
-import org.jclouds.vcloud.predicates.TaskSuccess;
+import org.jclouds.vcloud.predicates.TrackedTaskSuccess;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
@@ -111,9 +113,8 @@ public abstract class BaseVCloudRestClientModule<S extends VCloudClient, A exten
 
    @Provides
    @Singleton
-   protected Predicate<String> successTester(TaskSuccess success,
-         @Named(PROPERTY_VCLOUD_TIMEOUT_TASK_COMPLETED) long completed) {
-      return new RetryablePredicate<String>(success, completed);
+   protected Predicate<String> successTester(TrackedTaskSuccess success) {
+      return success;
    }
 
    @VCloudToken
@@ -165,15 +166,23 @@ public abstract class BaseVCloudRestClientModule<S extends VCloudClient, A exten
 
    private AuthorizationException authException = null;
 
+   @Provides
+   @Singleton
+   Supplier<VCloudSession> provideVCloudSessionSupplier(SessionSupplier<VCloudSession> cache) {
+      return cache;
+   }
+
    /**
-    * borrowing concurrency code to ensure that caching takes place properly
+    * only one login is in flight at a time; sessions are renewed in the background before they
+    * expire
     */
    @Provides
    @Singleton
-   Supplier<VCloudSession> provideVCloudTokenCache(
+   SessionSupplier<VCloudSession> provideVCloudTokenCache(
          @Named(PROPERTY_VCLOUD_SESSIONINTERVAL) long seconds,
-         final VCloudLoginAsyncClient login) {
-      return new ExpirableSupplier<VCloudSession>(
+         final VCloudLoginAsyncClient login,
+         @Named(Constants.PROPERTY_USER_THREADS) ExecutorService executor) {
+      return new SessionSupplier<VCloudSession>(
             new RetryOnTimeOutExceptionSupplier<VCloudSession>(
                   new Supplier<VCloudSession>() {
                      public VCloudSession get() {
@@ -200,7 +209,7 @@ public abstract class BaseVCloudRestClientModule<S extends VCloudClient, A exten
                         }
                      }
 
-                  }), seconds, TimeUnit.SECONDS);
+                  }), seconds, TimeUnit.SECONDS, executor);
    }
 
    @Provides
@@ -339,6 +348,12 @@ public abstract class BaseVCloudRestClientModule<S extends VCloudClient, A exten
             ParseVCloudErrorFromHttpResponse.class);
    }
 
+   @Override
+   protected void bindRetryHandlers() {
+      bind(HttpRetryHandler.class).annotatedWith(ClientError.class).to(
+            RetryOnSessionExpired.class);
+   }
+
    @Provides
    @TasksList
    @Singleton
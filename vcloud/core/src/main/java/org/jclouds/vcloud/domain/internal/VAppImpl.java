@@ -21,6 +21,7 @@ package org.jclouds.vcloud.domain.internal;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.Set;
 
 import org.jclouds.vcloud.VCloudMediaType;
@@ -68,12 +69,13 @@ public class VAppImpl implements VApp {
       this.status = checkNotNull(status, "status");
       this.size = size;// hostingdotcom
       this.vDC = vDC;
-      this.networkToAddresses = checkNotNull(networkToAddresses,
-            "networkToAddresses");
+      // vApps may be shared by coalesced callers, so they are read-only
+      this.networkToAddresses = Multimaps.unmodifiableListMultimap(checkNotNull(
+            networkToAddresses, "networkToAddresses"));
       this.operatingSystemDescription = operatingSystemDescription;
       this.system = system;
-      this.resourceAllocations = checkNotNull(resourceAllocations,
-            "resourceAllocations");
+      this.resourceAllocations = Collections.unmodifiableSet(checkNotNull(
+            resourceAllocations, "resourceAllocations"));
       resourceAllocationByType = Multimaps.index(resourceAllocations,
             new Function<ResourceAllocation, ResourceType>() {
                @Override
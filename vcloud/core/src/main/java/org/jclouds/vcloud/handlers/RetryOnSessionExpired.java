@@ -0,0 +1,73 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.vcloud.handlers;
+
+import static org.jclouds.http.HttpUtils.closeClientButKeepContentStream;
+
+import javax.annotation.Resource;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jclouds.concurrent.SessionSupplier;
+import org.jclouds.http.HttpCommand;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.http.HttpRetryHandler;
+import org.jclouds.logging.Logger;
+import org.jclouds.vcloud.internal.VCloudLoginAsyncClient.VCloudSession;
+
+import com.google.common.base.Predicate;
+
+/**
+ * Logs in again and retries the request once, when the vcloud-token cookie it was sent with is
+ * rejected.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class RetryOnSessionExpired implements HttpRetryHandler {
+   static final String TOKEN_COOKIE = "vcloud-token=";
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   private final SessionSupplier<VCloudSession> sessionCache;
+
+   @Inject
+   public RetryOnSessionExpired(SessionSupplier<VCloudSession> sessionCache) {
+      this.sessionCache = sessionCache;
+   }
+
+   public boolean shouldRetryRequest(HttpCommand command, HttpResponse response) {
+      String cookie = command.getRequest().getFirstHeaderOrNull("Cookie");
+      if (response.getStatusCode() != 401 || cookie == null || !cookie.startsWith(TOKEN_COOKIE)
+               || !command.isReplayable() || command.incrementFailureCount() > 1)
+         return false;
+      final String token = cookie.substring(TOKEN_COOKIE.length());
+      closeClientButKeepContentStream(response);
+      sessionCache.invalidateIf(new Predicate<VCloudSession>() {
+         public boolean apply(VCloudSession input) {
+            return token.equals(input.getVCloudToken());
+         }
+      });
+      logger.debug("session expired; retrying %s with a new one", command.getRequest()
+               .getRequestLine());
+      return true;
+   }
+
+}
@@ -0,0 +1,353 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.vcloud.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_TASK_POLL_PERIOD;
+import static org.jclouds.vcloud.reference.VCloudConstants.PROPERTY_VCLOUD_TIMEOUT_TASK_COMPLETED;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Resource;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.lifecycle.Closer;
+import org.jclouds.logging.Logger;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.jclouds.vcloud.VCloudAsyncClient;
+import org.jclouds.vcloud.domain.Task;
+import org.jclouds.vcloud.domain.TasksList;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.NamingThreadFactory;
+import com.google.inject.Inject;
+
+/**
+ * Follows vCloud tasks until they finish.
+ * <p/>
+ * All tracked tasks are refreshed together from a single scheduler thread: each tick requests the
+ * default tasks list once, and only tasks missing from that list are fetched individually. Tasks
+ * are completed from the response listeners, so the tick itself never waits on a request; it only
+ * expires tasks past their deadline. The scheduler stops ticking when nothing is tracked.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class TaskTracker implements Closeable {
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   /**
+    * milliseconds between refreshes of the tracked tasks
+    */
+   @Inject(optional = true)
+   @Named(PROPERTY_VCLOUD_TASK_POLL_PERIOD)
+   protected long period = 1000;
+
+   private final VCloudAsyncClient client;
+   private final long timeout;
+   private final ScheduledExecutorService scheduler;
+   private final ConcurrentMap<String, TrackedTask> tracked = new MapMaker().makeMap();
+   private ScheduledFuture<?> polling;
+   // written only by the scheduler thread
+   private volatile ListenableFuture<? extends TasksList> listing;
+   private long listingSince;
+
+   @Inject
+   public TaskTracker(VCloudAsyncClient client,
+            @Named(PROPERTY_VCLOUD_TIMEOUT_TASK_COMPLETED) long timeout, Closer closer) {
+      this(client, timeout, Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory(
+               "vcloud task tracker %d")));
+      closer.addToClose(this);
+   }
+
+   @VisibleForTesting
+   TaskTracker(VCloudAsyncClient client, long timeout, ScheduledExecutorService scheduler) {
+      this.client = client;
+      this.timeout = timeout;
+      this.scheduler = scheduler;
+   }
+
+   /**
+    * Starts following a task.
+    * 
+    * @return a future that completes with the task once it succeeds; it fails with
+    *         {@link TaskFailedException} when the task errors or is cancelled on the server, with
+    *         {@link ResourceNotFoundException} when the server no longer has the task, and with
+    *         {@link TimeoutException} when it has not finished within
+    *         {@link org.jclouds.vcloud.reference.VCloudConstants#PROPERTY_VCLOUD_TIMEOUT_TASK_COMPLETED}
+    */
+   public ListenableFuture<Task> track(String taskId) {
+      TrackedTask task = new TrackedTask(checkNotNull(taskId, "taskId"), System
+               .currentTimeMillis()
+               + timeout);
+      TrackedTask existing = tracked.putIfAbsent(taskId, task);
+      if (existing != null)
+         return existing.future;
+      logger.trace("tracking task %s", taskId);
+      ensurePolling();
+      return task.future;
+   }
+
+   /**
+    * number of tasks not yet finished
+    */
+   public int size() {
+      return tracked.size();
+   }
+
+   private synchronized void ensurePolling() {
+      if (polling == null)
+         polling = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+               poll();
+            }
+         }, period, period, TimeUnit.MILLISECONDS);
+   }
+
+   private synchronized boolean stopPollingIfIdle() {
+      if (!tracked.isEmpty())
+         return false;
+      if (polling != null)
+         polling.cancel(false);
+      polling = null;
+      return true;
+   }
+
+   /**
+    * requests a refresh of the tracked tasks and expires those past their deadline. Responses
+    * complete tasks from listeners, so a slow request never holds up the scheduler thread.
+    */
+   @VisibleForTesting
+   void poll() {
+      try {
+         if (stopPollingIfIdle())
+            return;
+         requestTasksList();
+         long now = System.currentTimeMillis();
+         for (TrackedTask task : tracked.values())
+            update(task, null, now);
+      } catch (RuntimeException e) {
+         // an exception escaping would stop the schedule for every tracked task
+         logger.error(e, "error refreshing tasks");
+      }
+   }
+
+   /**
+    * reads the default tasks list, unless the previous read is still outstanding. A read
+    * outstanding for longer than the task timeout is cancelled and replaced.
+    */
+   private void requestTasksList() {
+      ListenableFuture<? extends TasksList> previous = listing;
+      if (previous != null && !previous.isDone()) {
+         if (System.currentTimeMillis() - listingSince < timeout) {
+            logger.trace("still reading default tasks list");
+            return;
+         }
+         logger.warn("timeout reading default tasks list");
+         previous.cancel(true);
+      }
+      final ListenableFuture<? extends TasksList> list = client.getDefaultTasksList();
+      listing = list;
+      listingSince = System.currentTimeMillis();
+      list.addListener(new Runnable() {
+         @Override
+         public void run() {
+            refreshFrom(list);
+         }
+      }, sameThreadExecutor());
+   }
+
+   /**
+    * completes the tasks found in the list, fetching those missing from it individually.
+    */
+   private void refreshFrom(ListenableFuture<? extends TasksList> list) {
+      Map<String, Task> current = Maps.newHashMap();
+      try {
+         for (Task task : list.get().getTasks())
+            current.put(task.getId(), task);
+      } catch (CancellationException e) {
+         return;
+      } catch (ExecutionException e) {
+         logger.warn(e.getCause(), "error reading default tasks list");
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return;
+      }
+      try {
+         int fetched = 0;
+         long now = System.currentTimeMillis();
+         for (TrackedTask task : tracked.values()) {
+            Task found = current.get(task.id);
+            if (found != null)
+               update(task, found, now);
+            else if (task.fetch())
+               fetched++;
+         }
+         logger.trace("%d tasks tracked after requesting %d individually", tracked.size(), fetched);
+      } catch (RuntimeException e) {
+         logger.error(e, "error refreshing tasks");
+      }
+   }
+
+   private void update(TrackedTask task, Task current, long now) {
+      if (task.update(current, now))
+         tracked.remove(task.id, task);
+   }
+
+   @Override
+   public void close() {
+      scheduler.shutdownNow();
+      ListenableFuture<? extends TasksList> listing = this.listing;
+      if (listing != null)
+         listing.cancel(true);
+      for (TrackedTask task : tracked.values())
+         task.future.cancel(false);
+      tracked.clear();
+   }
+
+   private class TrackedTask {
+      private final String id;
+      private final long deadline;
+      private final SettableListenableFuture<Task> future = new SettableListenableFuture<Task>();
+      private final AtomicBoolean fetching = new AtomicBoolean();
+
+      TrackedTask(String id, long deadline) {
+         this.id = id;
+         this.deadline = deadline;
+      }
+
+      /**
+       * fetches this task on its own, unless a fetch is already outstanding.
+       * 
+       * @return true if a request was made
+       */
+      boolean fetch() {
+         if (!fetching.compareAndSet(false, true))
+            return false;
+         final ListenableFuture<? extends Task> response;
+         try {
+            response = client.getTask(id);
+         } catch (RuntimeException e) {
+            fetching.set(false);
+            throw e;
+         }
+         response.addListener(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  Task task = response.get();
+                  if (task != null)
+                     update(TrackedTask.this, task, System.currentTimeMillis());
+                  else
+                     notFound();
+               } catch (CancellationException e) {
+                  // the request was abandoned
+               } catch (ExecutionException e) {
+                  logger.warn(e.getCause(), "error reading task %s", id);
+               } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+               } catch (RuntimeException e) {
+                  logger.error(e, "error refreshing task %s", id);
+               } finally {
+                  fetching.set(false);
+               }
+            }
+         }, sameThreadExecutor());
+         return true;
+      }
+
+      /**
+       * fails the task, which the server no longer knows about, rather than waiting for the
+       * deadline
+       */
+      void notFound() {
+         logger.debug("task %s not found", id);
+         future.setException(new ResourceNotFoundException(String.format("task %s not found",
+                  id)));
+         tracked.remove(id, this);
+      }
+
+      /**
+       * @return true if the task no longer needs to be tracked
+       */
+      boolean update(Task task, long now) {
+         if (future.isDone())
+            return true;
+         if (task != null) {
+            switch (task.getStatus()) {
+               case SUCCESS:
+               case COMPLETED:
+                  logger.trace("task %s succeeded", id);
+                  future.set(task);
+                  return true;
+               case ERROR:
+               case FAILED:
+               case CANCELLED:
+                  logger.debug("task %s finished with status %s", id, task.getStatus());
+                  future.setException(new TaskFailedException(task));
+                  return true;
+            }
+         }
+         if (now < deadline)
+            return false;
+         future.setException(new TimeoutException(String.format(
+                  "task %s did not complete within %dms", id, timeout)));
+         return true;
+      }
+   }
+
+   /**
+    * Thrown when a tracked task finishes without succeeding.
+    */
+   public static class TaskFailedException extends RuntimeException {
+
+      private final Task task;
+      /** The serialVersionUID */
+      private static final long serialVersionUID = -2382935216409256361L;
+
+      public TaskFailedException(Task task) {
+         super(String.format("error on task: %s status: %s error: %s", task.getId(), task
+                  .getStatus(), task.getError()));
+         this.task = task;
+      }
+
+      public Task getTask() {
+         return task;
+      }
+   }
+}
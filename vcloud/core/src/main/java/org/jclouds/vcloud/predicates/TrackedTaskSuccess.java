@@ -0,0 +1,73 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.vcloud.predicates;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.Resource;
+import javax.inject.Singleton;
+
+import org.jclouds.logging.Logger;
+import org.jclouds.vcloud.internal.TaskTracker;
+
+import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import com.google.inject.Inject;
+
+/**
+ * 
+ * Waits for a task to succeed, returning false if it doesn't finish in time.
+ * <p/>
+ * Unlike retrying {@link TaskSuccess}, the waiting thread doesn't poll: the {@link TaskTracker}
+ * refreshes every outstanding task together.
+ * 
+ * @author Adrian Cole
+ */
+@Singleton
+public class TrackedTaskSuccess implements Predicate<String> {
+
+   private final TaskTracker tracker;
+
+   @Resource
+   protected Logger logger = Logger.NULL;
+
+   @Inject
+   public TrackedTaskSuccess(TaskTracker tracker) {
+      this.tracker = tracker;
+   }
+
+   public boolean apply(String taskId) {
+      try {
+         tracker.track(taskId).get();
+         return true;
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof TimeoutException) {
+            logger.warn(e.getCause().getMessage());
+            return false;
+         }
+         throw Throwables.propagate(e.getCause());
+      } catch (InterruptedException e) {
+         logger.warn(e, "waiting on task %s interrupted, returning false", taskId);
+         Thread.currentThread().interrupt();
+         return false;
+      }
+   }
+
+}
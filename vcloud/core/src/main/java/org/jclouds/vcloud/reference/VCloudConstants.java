@@ -39,6 +39,16 @@ public interface VCloudConstants {
    public static final String PROPERTY_VCLOUD_XML_NAMESPACE = "jclouds.vcloud.xml.ns";
    public static final String PROPERTY_VCLOUD_XML_SCHEMA = "jclouds.vcloud.xml.schema";
 
+   /**
+    * maximum number of vApp requests a single node listing has in flight
+    */
+   public static final String PROPERTY_VCLOUD_LIST_CONCURRENCY = "jclouds.vcloud.list-concurrency";
+
+   /**
+    * milliseconds between refreshes of the tasks being waited on
+    */
+   public static final String PROPERTY_VCLOUD_TASK_POLL_PERIOD = "jclouds.vcloud.task-poll-period";
+
    public static final String PROPERTY_VCLOUD_TIMEOUT_TASK_COMPLETED = "jclouds.vcloud.timeout.task-complete";
 
 }
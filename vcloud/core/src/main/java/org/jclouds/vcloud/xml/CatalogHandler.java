@@ -34,7 +34,6 @@ import com.google.common.collect.Maps;
  * @author Adrian Cole
  */
 public class CatalogHandler extends ParseSax.HandlerWithResult<Catalog> {
-   private StringBuilder currentText = new StringBuilder();
 
    private NamedResource catalog;
    private SortedMap<String, NamedResource> contents = Maps.newTreeMap();
@@ -60,15 +59,6 @@ public class CatalogHandler extends ParseSax.HandlerWithResult<Catalog> {
       if (qName.equals("Description")) {
          description = currentOrNull();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 }
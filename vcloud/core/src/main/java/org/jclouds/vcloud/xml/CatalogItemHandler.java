@@ -34,7 +34,6 @@ import com.google.common.collect.Maps;
  * @author Adrian Cole
  */
 public class CatalogItemHandler extends ParseSax.HandlerWithResult<CatalogItem> {
-   private StringBuilder currentText = new StringBuilder();
 
    private NamedResource catalog;
    private NamedResource entity;
@@ -67,15 +66,6 @@ public class CatalogItemHandler extends ParseSax.HandlerWithResult<CatalogItem>
          properties.put(key, currentOrNull());
          key = null;
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 }
@@ -45,8 +45,6 @@ public class NetworkHandler extends ParseSax.HandlerWithResult<Network> {
    @Resource
    protected Logger logger = Logger.NULL;
 
-   private StringBuilder currentText = new StringBuilder();
-
    private NamedResource network;
 
    private String description;
@@ -128,16 +126,7 @@ public class NetworkHandler extends ParseSax.HandlerWithResult<Network> {
          sourcePort = currentOrNull();
       }
 
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 
 }
@@ -28,7 +28,6 @@ import org.xml.sax.SAXException;
  * @author Adrian Cole
  */
 public class ResourceAllocationHandler extends ParseSax.HandlerWithResult<ResourceAllocation> {
-   private StringBuilder currentText = new StringBuilder();
 
    Integer address;
    Integer addressOnParent;
@@ -86,7 +85,7 @@ public class ResourceAllocationHandler extends ParseSax.HandlerWithResult<Resour
          } else if (qName.endsWith("VirtualQuantityUnits")) {
             virtualQuantityUnits = current;
          } else if (qName.endsWith("HostResource")) {
-            hostResource = currentText.toString().trim();
+            hostResource = trimmedText();
             virtualQuantity = Long.parseLong(current);
             virtualQuantityUnits = "byte * 2^20";
          }
@@ -112,15 +111,6 @@ public class ResourceAllocationHandler extends ParseSax.HandlerWithResult<Resour
          hostResource = null;
       }
 
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 }
@@ -29,7 +29,6 @@ import com.google.common.collect.Maps;
  * @author Adrian Cole
  */
 public class SupportedVersionsHandler extends ParseSax.HandlerWithResult<SortedMap<String, URI>> {
-   private StringBuilder currentText = new StringBuilder();
 
    private SortedMap<String, URI> contents = Maps.newTreeMap();
    private String version;
@@ -47,15 +46,6 @@ public class SupportedVersionsHandler extends ParseSax.HandlerWithResult<SortedM
       } else if (qName.equals("VersionInfo")) {
          contents.put(version, location);
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 }
@@ -62,7 +62,6 @@ public class VAppHandler extends ParseSax.HandlerWithResult<VApp> {
    protected Set<ResourceAllocation> allocations = Sets.newLinkedHashSet();
    protected VAppStatus status;
    protected final ListMultimap<String, String> networkToAddresses = ArrayListMultimap.create();
-   protected StringBuilder currentText = new StringBuilder();
    protected String operatingSystemDescription;
    protected boolean inOs;
    protected String networkName;
@@ -109,9 +108,9 @@ public class VAppHandler extends ParseSax.HandlerWithResult<VApp> {
       if (qName.equals("OperatingSystemSection")) {
          inOs = false;
       } else if (inOs && qName.equals("Description")) {
-         operatingSystemDescription = currentText.toString().trim();
+         operatingSystemDescription = trimmedText();
       } else if (qName.endsWith("IpAddress")) {
-         networkToAddresses.put(networkName, currentText.toString().trim());
+         networkToAddresses.put(networkName, trimmedText());
       } else if (qName.equals("System")) {
          systemHandler.endElement(uri, localName, qName);
          system = systemHandler.getResult();
@@ -122,12 +121,12 @@ public class VAppHandler extends ParseSax.HandlerWithResult<VApp> {
          systemHandler.endElement(uri, localName, qName);
          allocationHandler.endElement(uri, localName, qName);
       }
-      currentText = new StringBuilder();
+      resetText();
    }
 
    @Override
    public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      super.characters(ch, start, length);
       systemHandler.characters(ch, start, length);
       allocationHandler.characters(ch, start, length);
    }
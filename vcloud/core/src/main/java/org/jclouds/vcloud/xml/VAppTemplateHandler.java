@@ -31,7 +31,6 @@ import org.xml.sax.SAXException;
  * @author Adrian Cole
  */
 public class VAppTemplateHandler extends ParseSax.HandlerWithResult<VAppTemplate> {
-   private StringBuilder currentText = new StringBuilder();
 
    private NamedResource catalog;
    private String description;
@@ -56,15 +55,6 @@ public class VAppTemplateHandler extends ParseSax.HandlerWithResult<VAppTemplate
       if (qName.equals("Description")) {
          description = currentOrNull();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 }
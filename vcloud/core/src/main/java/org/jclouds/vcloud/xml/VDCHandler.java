@@ -38,7 +38,6 @@ import com.google.common.collect.Maps;
  * @author Adrian Cole
  */
 public class VDCHandler extends ParseSax.HandlerWithResult<VDC> {
-   private StringBuilder currentText = new StringBuilder();
 
    private NamedResource vDC;
    private Map<String, NamedResource> resourceEntities = Maps.newHashMap();
@@ -104,15 +103,6 @@ public class VDCHandler extends ParseSax.HandlerWithResult<VDC> {
       } else if (qName.equals("DeployedVmsQuota")) {
          deployedVmsQuota = new Quota(limit, used);
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 }
@@ -26,7 +26,6 @@ import org.xml.sax.SAXException;
  * @author Adrian Cole
  */
 public class VirtualSystemHandler extends ParseSax.HandlerWithResult<VirtualSystem> {
-   private StringBuilder currentText = new StringBuilder();
 
    private String elementName;
    private int instanceID;
@@ -43,13 +42,13 @@ public class VirtualSystemHandler extends ParseSax.HandlerWithResult<VirtualSyst
    public void endElement(String uri, String localName, String qName) throws SAXException {
 
       if (qName.endsWith("ElementName")) {
-         this.elementName = currentText.toString().trim();
+         this.elementName = trimmedText();
       } else if (qName.endsWith("InstanceID")) {
-         this.instanceID = Integer.parseInt(currentText.toString().trim());
+         this.instanceID = textAsInt();
       } else if (qName.endsWith("VirtualSystemIdentifier")) {
-         this.virtualSystemIdentifier = currentText.toString().trim();
+         this.virtualSystemIdentifier = trimmedText();
       } else if (qName.endsWith("VirtualSystemType")) {
-         this.virtualSystemType = currentText.toString().trim();
+         this.virtualSystemType = trimmedText();
       } else if (qName.endsWith("System")) {
          this.system = new org.jclouds.vcloud.domain.VirtualSystem(instanceID, elementName,
                   virtualSystemIdentifier, virtualSystemType);
@@ -59,10 +58,6 @@ public class VirtualSystemHandler extends ParseSax.HandlerWithResult<VirtualSyst
          this.virtualSystemType = null;
       }
 
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 }
@@ -18,100 +18,292 @@
  */
 package org.jclouds.vcloud.compute.strategy;
 
-import java.net.URI;
-import java.net.UnknownHostException;
-import java.util.SortedSet;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
 
-import org.jclouds.vcloud.domain.ResourceAllocation;
-import org.jclouds.vcloud.domain.ResourceType;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.easymock.IAnswer;
+import org.easymock.IExpectationSetters;
+import org.jclouds.compute.domain.ComputeMetadata;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.vcloud.VCloudAsyncClient;
+import org.jclouds.vcloud.VCloudMediaType;
+import org.jclouds.vcloud.compute.functions.FindLocationForResourceInVDC;
+import org.jclouds.vcloud.compute.functions.VCloudGetNodeMetadata;
+import org.jclouds.vcloud.domain.NamedResource;
+import org.jclouds.vcloud.domain.Organization;
 import org.jclouds.vcloud.domain.VApp;
-import org.jclouds.vcloud.domain.VAppStatus;
-import org.jclouds.vcloud.domain.VirtualSystem;
-import org.jclouds.vcloud.domain.internal.VAppImpl;
+import org.jclouds.vcloud.domain.VDC;
+import org.jclouds.vcloud.domain.internal.NamedResourceImpl;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
-import com.google.common.collect.ImmutableListMultimap;
-import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.ListMultimap;
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * @author Adrian Cole
  */
 @Test(groups = "unit", testName = "vcloud.VCloudListNodesStrategyTest")
 public class VCloudListNodesStrategyTest {
-   @SuppressWarnings("unused")
-   private VApp newVApp() throws UnknownHostException {
-      ListMultimap<String, String> networkToAddresses = ImmutableListMultimap
-            .<String, String> of("Network 1", "127.0.0.1");
-
-      VirtualSystem system = new VirtualSystem(0, "Virtual Hardware Family",
-            "SimpleVM", "vmx-07");
-
-      SortedSet<ResourceAllocation> resourceAllocations = ImmutableSortedSet
-            .<ResourceAllocation> naturalOrder().add(
-                  new ResourceAllocation(1, "1 virtual CPU(s)",
-                        "Number of Virtual CPUs", ResourceType.PROCESSOR, null,
-                        null, null, null, null, null, 1, "hertz * 10^6"),
-                  new ResourceAllocation(2, "512MB of memory", "Memory Size",
-                        ResourceType.MEMORY, null, null, null, null, null,
-                        null, 512, "byte * 2^20")).add(
-
-                  new ResourceAllocation(3, "SCSI Controller 0",
-                        "SCSI Controller", ResourceType.SCSI_CONTROLLER,
-                        "lsilogic", null, 0, null, null, null, 1, null)).add(
-
-                  new ResourceAllocation(9, "Hard Disk 1", null,
-                        ResourceType.DISK_DRIVE, null, "20971520", null, 0, 3,
-                        null, 20971520, "byte * 2^20")).build();
-
-      return new VAppImpl("10", "10", URI
-            .create("https://vcloud.safesecureweb.com/api/v0.8/vapp/10"),
-            VAppStatus.OFF, new Long(20971520), null, networkToAddresses, null,
-            system, resourceAllocations);
-   }
-
-   // TODO rewrite this test
-   //
-   // consistency delay specifically in terremark beta where a vapp is present
-   // for listing, but not
-   // yet available for get vapp command.
-   // @Test
-   // public void
-   // testRetryOnVAppNotFoundForGetVAppEvenWhenPresentInAvailableResources()
-   // throws ExecutionException, InterruptedException, TimeoutException,
-   // IOException {
-   // VCloudClient client = createMock(VCloudClient.class);
-   // GetExtra getExtra = new GetExtra();
-   //
-   // VCloudComputeClient computeClient = createMock(VCloudComputeClient.class);
-   // Map<VAppStatus, NodeState> vAppStatusToNodeState = Maps.newHashMap();
-   // VApp vApp = newVApp();
-   // expect(client.getVApp("10")).andThrow(new NullPointerException());
-   // expect(client.getVApp("10")).andThrow(new NullPointerException());
-   // expect(client.getVApp("10")).andReturn(vApp);
-   //
-   // replay(client);
-   // replay(computeClient);
-   //
-   // Location vdcL = new LocationImpl(LocationScope.ZONE, "1", "1", null);
-   // Provider<Set<? extends Location>> locations = Providers
-   // .<Set<? extends Location>> of(ImmutableSet.of(vdcL));
-   // Provider<Set<? extends Image>> images = Providers
-   // .<Set<? extends Image>> of(ImmutableSet.<Image> of());
-   // FindLocationForResourceInVDC findLocationForResourceInVDC = new
-   // FindLocationForResourceInVDC(
-   // locations, null);
-   // VCloudListNodesStrategy strategy = new VCloudListNodesStrategy(client,
-   // computeClient, vAppStatusToNodeState, getExtra,
-   // findLocationForResourceInVDC, images);
-   //
-   // Set<NodeMetadata> nodes = Sets.newHashSet();
-   // NamedResource vdc = new NamedResourceImpl("1", null, null, null);
-   // NamedResource resource = new NamedResourceImpl("10", null, null, null);
-   //
-   // strategy.addVAppToSetRetryingIfNotYetPresent(nodes, vdc, resource);
-   //
-   // verify(client);
-   // verify(computeClient);
-   // }
-}
\ No newline at end of file
+
+   private VCloudAsyncClient client;
+   private VCloudGetNodeMetadata getNodeMetadata;
+   private VCloudListNodesStrategy strategy;
+
+   @BeforeMethod
+   void setUp() {
+      client = createMock(VCloudAsyncClient.class);
+      getNodeMetadata = createMock(VCloudGetNodeMetadata.class);
+      FindLocationForResourceInVDC findLocation = createNiceMock(FindLocationForResourceInVDC.class);
+      replay(findLocation);
+      strategy = new VCloudListNodesStrategy(client, getNodeMetadata, findLocation,
+               sameThreadExecutor());
+   }
+
+   public void testListConcurrencyIsBounded() throws Exception {
+      strategy.maxConcurrentRequests = 2;
+      expectOrganization(vdc("vdc", "1", "2", "3", "4", "5"));
+      final List<SettableListenableFuture<VApp>> requested = Lists.newArrayList();
+      final AtomicInteger inFlight = new AtomicInteger();
+      final AtomicInteger maxInFlight = new AtomicInteger();
+      for (String id : ImmutableSet.of("1", "2", "3", "4", "5")) {
+         VApp vApp = vApp();
+         expect(getNodeMetadata.execute(vApp)).andReturn(node());
+         final VApp toReturn = vApp;
+         expectFuture(client.getVApp(id)).andAnswer(new IAnswer<Object>() {
+            public Object answer() {
+               maxInFlight.set(Math.max(maxInFlight.get(), inFlight.incrementAndGet()));
+               SettableListenableFuture<VApp> future = new SettableListenableFuture<VApp>() {
+                  @Override
+                  public boolean set(VApp ignored) {
+                     inFlight.decrementAndGet();
+                     return super.set(toReturn);
+                  }
+               };
+               requested.add(future);
+               return future;
+            }
+         });
+      }
+      replay(client, getNodeMetadata);
+
+      ListenableFuture<Set<NodeMetadata>> nodes = strategy.listDetailsOnNodesMatchingAsync(
+               Predicates.<ComputeMetadata> alwaysTrue(), null);
+      assertEquals(requested.size(), 2);
+      // each completion lets the next vApp be requested
+      for (int i = 0; i < requested.size(); i++)
+         requested.get(i).set(null);
+
+      assertEquals(nodes.get().size(), 5);
+      assertEquals(maxInFlight.get(), 2);
+      verify(client, getNodeMetadata);
+   }
+
+   public void testVAppInMoreThanOneVDCIsFetchedOnce() throws Exception {
+      expectOrganization(vdc("vdc1", "1"), vdc("vdc2", "1"));
+      VApp vApp = vApp();
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFuture(vApp));
+      expect(getNodeMetadata.execute(vApp)).andReturn(node());
+      replay(client, getNodeMetadata);
+
+      assertEquals(list().size(), 1);
+      verify(client, getNodeMetadata);
+   }
+
+   public void testNullVAppIsRetried() throws Exception {
+      expectOrganization(vdc("vdc", "1"));
+      VApp vApp = vApp();
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFuture(null));
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFuture(vApp));
+      expect(getNodeMetadata.execute(vApp)).andReturn(node());
+      replay(client, getNodeMetadata);
+
+      assertEquals(list().size(), 1);
+      verify(client, getNodeMetadata);
+   }
+
+   public void testNullVAppIsSkippedAfterMaxAttempts() throws Exception {
+      expectOrganization(vdc("vdc", "1", "2"));
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFuture(null)).times(
+               VCloudListNodesStrategy.MAX_ATTEMPTS);
+      VApp vApp = vApp();
+      expectFuture(client.getVApp("2")).andReturn(Futures.immediateFuture(vApp));
+      NodeMetadata node = node();
+      expect(getNodeMetadata.execute(vApp)).andReturn(node);
+      replay(client, getNodeMetadata);
+
+      assertEquals(list(), ImmutableSet.of(node));
+      verify(client, getNodeMetadata);
+   }
+
+   public void testVAppStillBeingCreatedIsSkippedAfterMaxAttempts() throws Exception {
+      expectOrganization(vdc("vdc", "1", "2"));
+      VApp creating = vApp();
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFuture(creating)).times(
+               VCloudListNodesStrategy.MAX_ATTEMPTS);
+      expect(getNodeMetadata.execute(creating)).andThrow(new NullPointerException()).times(
+               VCloudListNodesStrategy.MAX_ATTEMPTS);
+      VApp vApp = vApp();
+      expectFuture(client.getVApp("2")).andReturn(Futures.immediateFuture(vApp));
+      NodeMetadata node = node();
+      expect(getNodeMetadata.execute(vApp)).andReturn(node);
+      replay(client, getNodeMetadata);
+
+      assertEquals(list(), ImmutableSet.of(node));
+      verify(client, getNodeMetadata);
+   }
+
+   public void testFailingVAppFailsListing() throws Exception {
+      expectOrganization(vdc("vdc", "1"));
+      RuntimeException cause = new RuntimeException("unauthorized");
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFailedFuture(cause));
+      replay(client, getNodeMetadata);
+
+      try {
+         list();
+         assert false : "should have failed";
+      } catch (ExecutionException e) {
+         assertEquals(e.getCause(), cause);
+      }
+      verify(client, getNodeMetadata);
+   }
+
+   public void testVAppWhichFailsToConvertFailsListing() throws Exception {
+      expectOrganization(vdc("vdc", "1"));
+      VApp vApp = vApp();
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFuture(vApp));
+      IllegalStateException cause = new IllegalStateException("bad xml");
+      expect(getNodeMetadata.execute(vApp)).andThrow(cause);
+      replay(client, getNodeMetadata);
+
+      try {
+         list();
+         assert false : "should have failed";
+      } catch (ExecutionException e) {
+         assertEquals(e.getCause(), cause);
+      }
+      verify(client, getNodeMetadata);
+   }
+
+   public void testRetryIsDelayed() throws Exception {
+      expectOrganization(vdc("vdc", "1"));
+      VApp vApp = vApp();
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFuture(null));
+      expectFuture(client.getVApp("1")).andReturn(Futures.immediateFuture(vApp));
+      NodeMetadata node = node();
+      expect(getNodeMetadata.execute(vApp)).andReturn(node);
+      final AtomicReference<Runnable> retry = new AtomicReference<Runnable>();
+      ScheduledExecutorService scheduler = createMock(ScheduledExecutorService.class);
+      expectFuture(
+               scheduler.schedule(isA(Runnable.class),
+                        eq(VCloudListNodesStrategy.RETRY_DELAY_MILLIS), eq(TimeUnit.MILLISECONDS)))
+               .andAnswer(new IAnswer<Object>() {
+                  public Object answer() {
+                     retry.set((Runnable) getCurrentArguments()[0]);
+                     return null;
+                  }
+               });
+      replay(client, getNodeMetadata, scheduler);
+      strategy.scheduler = scheduler;
+
+      ListenableFuture<Set<NodeMetadata>> nodes = strategy.listDetailsOnNodesMatchingAsync(
+               Predicates.<ComputeMetadata> alwaysTrue(), null);
+      assert !nodes.isDone();
+      retry.get().run();
+
+      assertEquals(nodes.get(), ImmutableSet.of(node));
+      verify(client, getNodeMetadata, scheduler);
+   }
+
+   public void testFailingVDCFailsListing() throws Exception {
+      Organization org = createNiceMock(Organization.class);
+      expect(org.getVDCs()).andReturn(
+               ImmutableMap.<String, NamedResource> of("vdc", new NamedResourceImpl("vdc", "vdc",
+                        VCloudMediaType.VDC_XML, null))).anyTimes();
+      replay(org);
+      expectFuture(client.getDefaultOrganization()).andReturn(Futures.immediateFuture(org));
+      RuntimeException cause = new RuntimeException("vdc");
+      expectFuture(client.getVDC("vdc")).andReturn(Futures.immediateFailedFuture(cause));
+      replay(client, getNodeMetadata);
+
+      try {
+         list();
+         assert false : "should have failed";
+      } catch (ExecutionException e) {
+         assertEquals(e.getCause(), cause);
+      }
+      verify(client, getNodeMetadata);
+   }
+
+   private Set<NodeMetadata> list() throws InterruptedException, ExecutionException {
+      return strategy.listDetailsOnNodesMatchingAsync(Predicates.<ComputeMetadata> alwaysTrue(),
+               null).get();
+   }
+
+   private void expectOrganization(VDC... vdcs) {
+      Map<String, NamedResource> vdcResources = Maps.newLinkedHashMap();
+      for (VDC vdc : vdcs) {
+         vdcResources.put(vdc.getId(), new NamedResourceImpl(vdc.getId(), vdc.getId(),
+                  VCloudMediaType.VDC_XML, null));
+         expectFuture(client.getVDC(vdc.getId())).andReturn(Futures.immediateFuture(vdc));
+      }
+      Organization org = createNiceMock(Organization.class);
+      expect(org.getVDCs()).andReturn(vdcResources).anyTimes();
+      replay(org);
+      expectFuture(client.getDefaultOrganization()).andReturn(Futures.immediateFuture(org));
+   }
+
+   private static VDC vdc(String id, String... vApps) {
+      Map<String, NamedResource> resources = Maps.newLinkedHashMap();
+      for (String vApp : vApps)
+         resources.put(vApp, new NamedResourceImpl(vApp, vApp, VCloudMediaType.VAPP_XML, null));
+      VDC vdc = createNiceMock(VDC.class);
+      expect(vdc.getId()).andReturn(id).anyTimes();
+      expect(vdc.getResourceEntities()).andReturn(resources).anyTimes();
+      replay(vdc);
+      return vdc;
+   }
+
+   private static VApp vApp() {
+      VApp vApp = createNiceMock(VApp.class);
+      replay(vApp);
+      return vApp;
+   }
+
+   private static NodeMetadata node() {
+      NodeMetadata node = createNiceMock(NodeMetadata.class);
+      replay(node);
+      return node;
+   }
+
+   /**
+    * the client returns wildcard futures, which EasyMock cannot otherwise stub
+    */
+   @SuppressWarnings("unchecked")
+   private static IExpectationSetters<Object> expectFuture(ListenableFuture<?> call) {
+      return (IExpectationSetters<Object>) (IExpectationSetters<?>) expect(call);
+   }
+}
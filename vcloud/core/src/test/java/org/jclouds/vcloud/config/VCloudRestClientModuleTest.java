@@ -19,6 +19,7 @@
 package org.jclouds.vcloud.config;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
 import static org.easymock.classextension.EasyMock.createMock;
 import static org.testng.Assert.assertEquals;
 
@@ -30,7 +31,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import org.jclouds.http.HttpRetryHandler;
+import org.jclouds.concurrent.config.ExecutorServiceModule;
 import org.jclouds.http.TransformingHttpCommandExecutorService;
 import org.jclouds.http.handlers.DelegatingErrorHandler;
 import org.jclouds.http.handlers.DelegatingRetryHandler;
@@ -39,6 +40,7 @@ import org.jclouds.rest.config.RestModule;
 import org.jclouds.vcloud.VCloudPropertiesBuilder;
 import org.jclouds.vcloud.domain.NamedResource;
 import org.jclouds.vcloud.handlers.ParseVCloudErrorFromHttpResponse;
+import org.jclouds.vcloud.handlers.RetryOnSessionExpired;
 import org.jclouds.vcloud.internal.VCloudLoginAsyncClient;
 import org.jclouds.vcloud.internal.VCloudLoginAsyncClient.VCloudSession;
 import org.testng.annotations.Test;
@@ -58,6 +60,7 @@ public class VCloudRestClientModuleTest {
 
    protected Injector createInjector() {
       return Guice.createInjector(new VCloudRestClientModule(), new RestModule(),
+               new ExecutorServiceModule(sameThreadExecutor(), sameThreadExecutor()),
                new AbstractModule() {
                   @Override
                   protected void configure() {
@@ -123,7 +126,8 @@ public class VCloudRestClientModuleTest {
          }
 
       };
-      Supplier<VCloudSession> map = module.provideVCloudTokenCache(1, login);
+      Supplier<VCloudSession> map = module.provideVCloudTokenCache(1, login,
+               sameThreadExecutor());
       for (int i = 0; i < 10; i++)
          map.get();
       assert "1".equals(map.get().getVCloudToken());
@@ -148,7 +152,7 @@ public class VCloudRestClientModuleTest {
    @Test
    void testClientRetryHandler() {
       DelegatingRetryHandler handler = createInjector().getInstance(DelegatingRetryHandler.class);
-      assertEquals(handler.getClientErrorRetryHandler(), HttpRetryHandler.NEVER_RETRY);
+      assertEquals(handler.getClientErrorRetryHandler().getClass(), RetryOnSessionExpired.class);
    }
 
    @Test
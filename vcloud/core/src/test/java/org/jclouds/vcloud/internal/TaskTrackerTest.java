@@ -0,0 +1,259 @@
+/**
+ *
+ * Copyright (C) 2009 Cloud Conscious, LLC. <info@cloudconscious.com>
+ *
+ * ====================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ====================================================================
+ */
+package org.jclouds.vcloud.internal;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+
+import org.jclouds.concurrent.SettableListenableFuture;
+import org.jclouds.rest.ResourceNotFoundException;
+import org.jclouds.vcloud.VCloudAsyncClient;
+import org.jclouds.vcloud.domain.Task;
+import org.jclouds.vcloud.domain.TaskStatus;
+import org.jclouds.vcloud.domain.TasksList;
+import org.jclouds.vcloud.domain.internal.TaskImpl;
+import org.jclouds.vcloud.domain.internal.TasksListImpl;
+import org.jclouds.vcloud.internal.TaskTracker.TaskFailedException;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Tests behavior of {@code TaskTracker}
+ * 
+ * @author Adrian Cole
+ */
+@Test(groups = "unit", testName = "vcloud.TaskTrackerTest")
+public class TaskTrackerTest {
+
+   static Task task(String id, TaskStatus status) {
+      return new TaskImpl(id, URI.create("https://vcloud/task/" + id), status, null, null, null,
+               null, null, null);
+   }
+
+   static TasksList list(Task... tasks) {
+      return new TasksListImpl("1", URI.create("https://vcloud/tasksList/1"), ImmutableSortedSet
+               .of(tasks));
+   }
+
+   @SuppressWarnings("unchecked")
+   static ListenableFuture tasksList(Task... tasks) {
+      return immediateFuture(list(tasks));
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testTasksInTheListAreCompletedWithOneRequest() throws Exception {
+      VCloudAsyncClient client = createMock(VCloudAsyncClient.class);
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+
+      expect(client.getDefaultTasksList()).andReturn(
+               tasksList(task("1", TaskStatus.SUCCESS), task("2", TaskStatus.RUNNING), task("3",
+                        TaskStatus.ERROR)));
+      replay(client);
+      replay(scheduler);
+
+      TaskTracker tracker = new TaskTracker(client, 60000, scheduler);
+      ListenableFuture<Task> one = tracker.track("1");
+      ListenableFuture<Task> two = tracker.track("2");
+      ListenableFuture<Task> three = tracker.track("3");
+      assertEquals(tracker.track("1"), one);
+
+      tracker.poll();
+
+      assertEquals(one.get().getStatus(), TaskStatus.SUCCESS);
+      assertFalse(two.isDone());
+      try {
+         three.get();
+         assert false : "task 3 errored";
+      } catch (ExecutionException e) {
+         assertEquals(((TaskFailedException) e.getCause()).getTask().getId(), "3");
+      }
+      assertEquals(tracker.size(), 1);
+      verify(client);
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testTasksMissingFromTheListAreFetchedIndividually() throws Exception {
+      VCloudAsyncClient client = createMock(VCloudAsyncClient.class);
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+
+      expect(client.getDefaultTasksList()).andReturn(tasksList(task("1", TaskStatus.RUNNING)));
+      expect(client.getTask("2")).andReturn(
+               (ListenableFuture) immediateFuture(task("2", TaskStatus.SUCCESS)));
+      replay(client);
+      replay(scheduler);
+
+      TaskTracker tracker = new TaskTracker(client, 60000, scheduler);
+      ListenableFuture<Task> one = tracker.track("1");
+      ListenableFuture<Task> two = tracker.track("2");
+
+      tracker.poll();
+
+      assertFalse(one.isDone());
+      assertTrue(two.isDone());
+      assertEquals(two.get().getId(), "2");
+      verify(client);
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testTaskNotFoundFailsAtOnce() throws Exception {
+      VCloudAsyncClient client = createMock(VCloudAsyncClient.class);
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+
+      expect(client.getDefaultTasksList()).andReturn(tasksList());
+      expect(client.getTask("1")).andReturn((ListenableFuture) immediateFuture(null));
+      replay(client);
+      replay(scheduler);
+
+      TaskTracker tracker = new TaskTracker(client, 60000, scheduler);
+      ListenableFuture<Task> one = tracker.track("1");
+
+      tracker.poll();
+
+      try {
+         one.get();
+         assert false : "task 1 is gone";
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof ResourceNotFoundException);
+      }
+      assertEquals(tracker.size(), 0);
+      verify(client);
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testTimeout() throws Exception {
+      VCloudAsyncClient client = createMock(VCloudAsyncClient.class);
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+
+      expect(client.getDefaultTasksList()).andReturn(tasksList(task("1", TaskStatus.QUEUED)));
+      replay(client);
+      replay(scheduler);
+
+      TaskTracker tracker = new TaskTracker(client, 0, scheduler);
+      ListenableFuture<Task> one = tracker.track("1");
+
+      tracker.poll();
+
+      try {
+         one.get();
+         assert false : "task 1 timed out";
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof TimeoutException);
+      }
+      assertEquals(tracker.size(), 0);
+      verify(client);
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testPollDoesNotWaitForTheTasksList() throws Exception {
+      VCloudAsyncClient client = createMock(VCloudAsyncClient.class);
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+      SettableListenableFuture<TasksList> list = new SettableListenableFuture<TasksList>();
+
+      expect(client.getDefaultTasksList()).andReturn((ListenableFuture) list);
+      replay(client);
+      replay(scheduler);
+
+      TaskTracker tracker = new TaskTracker(client, 60000, scheduler);
+      ListenableFuture<Task> one = tracker.track("1");
+
+      tracker.poll();
+      // the outstanding read is not repeated
+      tracker.poll();
+      assertFalse(one.isDone());
+
+      list.set(list(task("1", TaskStatus.SUCCESS)));
+      assertEquals(one.get().getStatus(), TaskStatus.SUCCESS);
+      assertEquals(tracker.size(), 0);
+      verify(client);
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testTaskFetchedIndividuallyCompletesWhenItArrives() throws Exception {
+      VCloudAsyncClient client = createMock(VCloudAsyncClient.class);
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+      SettableListenableFuture<Task> response = new SettableListenableFuture<Task>();
+
+      expect(client.getDefaultTasksList()).andReturn(tasksList()).times(2);
+      expect(client.getTask("1")).andReturn((ListenableFuture) response);
+      replay(client);
+      replay(scheduler);
+
+      TaskTracker tracker = new TaskTracker(client, 60000, scheduler);
+      ListenableFuture<Task> one = tracker.track("1");
+
+      tracker.poll();
+      // the outstanding fetch is not repeated
+      tracker.poll();
+      assertFalse(one.isDone());
+
+      response.set(task("1", TaskStatus.COMPLETED));
+      assertEquals(one.get().getStatus(), TaskStatus.COMPLETED);
+      assertEquals(tracker.size(), 0);
+      verify(client);
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testTimeoutWhileTheTasksListIsOutstanding() throws Exception {
+      VCloudAsyncClient client = createMock(VCloudAsyncClient.class);
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+
+      expect(client.getDefaultTasksList()).andReturn(
+               (ListenableFuture) new SettableListenableFuture<TasksList>());
+      replay(client);
+      replay(scheduler);
+
+      TaskTracker tracker = new TaskTracker(client, 0, scheduler);
+      ListenableFuture<Task> one = tracker.track("1");
+
+      tracker.poll();
+
+      try {
+         one.get();
+         assert false : "task 1 timed out";
+      } catch (ExecutionException e) {
+         assertTrue(e.getCause() instanceof TimeoutException);
+      }
+      assertEquals(tracker.size(), 0);
+      verify(client);
+   }
+
+   public void testIdlePollDoesNotMakeRequests() {
+      VCloudAsyncClient client = createMock(VCloudAsyncClient.class);
+      ScheduledExecutorService scheduler = createNiceMock(ScheduledExecutorService.class);
+      replay(client);
+      replay(scheduler);
+
+      new TaskTracker(client, 60000, scheduler).poll();
+      verify(client);
+   }
+}
@@ -28,6 +28,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 
+import org.jclouds.rest.annotations.Coalesce;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.ExceptionParser;
 import org.jclouds.rest.annotations.MapBinder;
@@ -74,6 +75,7 @@ public interface HostingDotComVCloudAsyncClient extends VCloudAsyncClient {
    @XMLResponseParser(HostingDotComVAppHandler.class)
    @ExceptionParser(ReturnNullOnNotFoundOr404.class)
    @Override
+   @Coalesce
    ListenableFuture<? extends HostingDotComVApp> getVApp(@PathParam("vAppId") String appId);
 
    @POST
@@ -33,6 +33,7 @@ import static org.jclouds.vcloud.terremark.TerremarkVCloudMediaType.PUBLICIP_XML
 
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -45,6 +46,8 @@ import javax.ws.rs.Produces;
 
 import org.jclouds.predicates.validators.DnsNameValidator;
 import org.jclouds.rest.annotations.BinderParam;
+import org.jclouds.rest.annotations.Cached;
+import org.jclouds.rest.annotations.Coalesce;
 import org.jclouds.rest.annotations.Endpoint;
 import org.jclouds.rest.annotations.ExceptionParser;
 import org.jclouds.rest.annotations.MapBinder;
@@ -147,6 +150,7 @@ public interface TerremarkVCloudAsyncClient extends VCloudAsyncClient {
    @Consumes(CATALOG_XML)
    @ExceptionParser(ReturnNullOnNotFoundOr404.class)
    @Override
+   @Cached(ttl = 5, timeUnit = TimeUnit.MINUTES)
    ListenableFuture<? extends Catalog> getCatalog(String catalogId);
 
    /**
@@ -159,6 +163,7 @@ public interface TerremarkVCloudAsyncClient extends VCloudAsyncClient {
    @Consumes(VDC_XML)
    @ExceptionParser(ReturnNullOnNotFoundOr404.class)
    @Override
+   @Coalesce
    ListenableFuture<? extends VDC> getVDC(@PathParam("vDCId") String vDCId);
 
    /**
@@ -24,6 +24,8 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -44,8 +46,12 @@ import org.jclouds.vcloud.terremark.domain.Node;
 import org.jclouds.vcloud.terremark.domain.Protocol;
 import org.jclouds.vcloud.terremark.domain.PublicIpAddress;
 
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 
 /**
@@ -58,6 +64,33 @@ public class TerremarkVCloudComputeClient extends BaseVCloudComputeClient {
    private final PopulateDefaultLoginCredentialsForImageStrategy credentialsProvider;
    private Provider<String> passwordGenerator;
 
+   /**
+    * how long we remember the public addresses mapped in a vDC
+    */
+   static final long PUBLIC_ADDRESS_CACHE_SECONDS = 10;
+
+   /**
+    * public addresses in a vDC, keyed on the private address they forward to. Listing nodes
+    * resolves every vApp in a vDC at once, so this walks the internet services and nodes of the
+    * vDC once, instead of once per vApp.
+    */
+   private final ConcurrentMap<String, Multimap<String, String>> publicAddressesInVDC = new MapMaker()
+         .expiration(PUBLIC_ADDRESS_CACHE_SECONDS, TimeUnit.SECONDS).makeComputingMap(
+               new Function<String, Multimap<String, String>>() {
+                  @Override
+                  public Multimap<String, String> apply(String vDCId) {
+                     Multimap<String, String> publicByPrivate = HashMultimap.create();
+                     for (InternetService service : client
+                           .getAllInternetServicesInVDC(vDCId)) {
+                        for (Node node : client.getNodes(service.getId())) {
+                           publicByPrivate.put(node.getIpAddress(), service
+                                 .getPublicIpAddress().getAddress());
+                        }
+                     }
+                     return publicByPrivate;
+                  }
+               });
+
    @Inject
    protected TerremarkVCloudComputeClient(TerremarkVCloudClient client,
          PopulateDefaultLoginCredentialsForImageStrategy credentialsProvider,
@@ -161,6 +194,7 @@ public class TerremarkVCloudComputeClient extends BaseVCloudComputeClient {
                + "-" + port, port);
          logger.debug("<< added Node(%s)", node.getId());
       }
+      publicAddressesInVDC.remove(vApp.getVDC().getId());
       return ip != null ? ip.getAddress() : null;
    }
 
@@ -219,6 +253,7 @@ public class TerremarkVCloudComputeClient extends BaseVCloudComputeClient {
       VApp vApp = client.getVApp(id);
       Set<PublicIpAddress> ipAddresses = deleteInternetServicesAndNodesAssociatedWithVApp(vApp);
       deletePublicIpAddressesWithNoServicesAttached(ipAddresses);
+      publicAddressesInVDC.remove(vApp.getVDC().getId());
       if (vApp.getStatus() != VAppStatus.OFF) {
          logger.debug(">> powering off vApp(%s), current status: %s", vApp
                .getId(), vApp.getStatus());
@@ -240,8 +275,7 @@ public class TerremarkVCloudComputeClient extends BaseVCloudComputeClient {
     */
    @Override
    public Set<String> getPrivateAddresses(String id) {
-      VApp vApp = client.getVApp(id);
-      return Sets.newHashSet(vApp.getNetworkToAddresses().values());
+      return getPrivateAddresses(client.getVApp(id));
    }
 
    /**
@@ -250,16 +284,21 @@ public class TerremarkVCloudComputeClient extends BaseVCloudComputeClient {
     */
    @Override
    public Set<String> getPublicAddresses(String id) {
-      VApp vApp = client.getVApp(id);
+      return getPublicAddresses(client.getVApp(id));
+   }
+
+   @Override
+   public Set<String> getPrivateAddresses(VApp vApp) {
+      return Sets.newHashSet(vApp.getNetworkToAddresses().values());
+   }
+
+   @Override
+   public Set<String> getPublicAddresses(VApp vApp) {
+      Multimap<String, String> publicByPrivate = publicAddressesInVDC.get(vApp.getVDC()
+            .getId());
       Set<String> ipAddresses = Sets.newHashSet();
-      for (InternetService service : client.getAllInternetServicesInVDC(vApp
-            .getVDC().getId())) {
-         for (Node node : client.getNodes(service.getId())) {
-            if (vApp.getNetworkToAddresses().containsValue(node.getIpAddress())) {
-               ipAddresses.add(service.getPublicIpAddress().getAddress());
-            }
-         }
-      }
+      for (String privateAddress : vApp.getNetworkToAddresses().values())
+         ipAddresses.addAll(publicByPrivate.get(privateAddress));
       return ipAddresses;
    }
-}
\ No newline at end of file
+}
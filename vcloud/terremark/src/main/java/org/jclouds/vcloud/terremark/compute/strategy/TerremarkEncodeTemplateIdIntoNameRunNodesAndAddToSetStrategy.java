@@ -32,6 +32,7 @@ import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.Template;
 import org.jclouds.compute.strategy.AddNodeWithTagStrategy;
 import org.jclouds.compute.strategy.ListNodesStrategy;
+import org.jclouds.compute.util.BootstrapStatistics;
 import org.jclouds.compute.util.ComputeUtils;
 import org.jclouds.vcloud.compute.strategy.EncodeTemplateIdIntoNameRunNodesAndAddToSetStrategy;
 import org.jclouds.vcloud.terremark.compute.options.TerremarkVCloudTemplateOptions;
@@ -66,10 +67,10 @@ public class TerremarkEncodeTemplateIdIntoNameRunNodesAndAddToSetStrategy
    @Override
    public Map<?, ListenableFuture<Void>> execute(String tag, int count,
          Template template, Set<NodeMetadata> nodes,
-         Map<NodeMetadata, Exception> badNodes) {
+         Map<NodeMetadata, Exception> badNodes, BootstrapStatistics statistics) {
       createNewKeyPairUnlessUserSpecifiedOtherwise.execute(template
             .getLocation().getParent().getId(), tag, template.getOptions().as(
             TerremarkVCloudTemplateOptions.class));
-      return super.execute(tag, count, template, nodes, badNodes);
+      return super.execute(tag, count, template, nodes, badNodes, statistics);
    }
 }
\ No newline at end of file
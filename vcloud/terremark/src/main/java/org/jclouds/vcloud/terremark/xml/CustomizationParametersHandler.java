@@ -26,16 +26,10 @@ import org.jclouds.vcloud.terremark.domain.CustomizationParameters;
  */
 public class CustomizationParametersHandler extends HandlerWithResult<CustomizationParameters> {
 
-   private StringBuilder currentText = new StringBuilder();
    boolean customizeNetwork;
    boolean customizePassword;
    boolean customizeSSH;
 
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
-   }
-
    @Override
    public CustomizationParameters getResult() {
       return new CustomizationParameters(customizeNetwork, customizePassword,
@@ -50,11 +44,7 @@ public class CustomizationParametersHandler extends HandlerWithResult<Customizat
       } else if (qName.equals("CustomizeSSH")) {
          customizeSSH = Boolean.parseBoolean(currentOrNull());
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 
 }
\ No newline at end of file
@@ -37,7 +37,6 @@ public class InternetServiceHandler extends HandlerWithResult<InternetService> {
 
    @Resource
    protected Logger logger = Logger.NULL;
-   private StringBuilder currentText = new StringBuilder();
 
    private boolean inPublicIpAddress;
    private int addressId;
@@ -53,11 +52,6 @@ public class InternetServiceHandler extends HandlerWithResult<InternetService> {
    private boolean enabled;
    private Protocol protocol;
 
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
-   }
-
    @Override
    public InternetService getResult() {
       return new InternetService(id, serviceName, location, publicIpAddress, port, protocol,
@@ -105,11 +99,7 @@ public class InternetServiceHandler extends HandlerWithResult<InternetService> {
       } else if (qName.equals("Description")) {
          description = currentOrNull();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 
 }
\ No newline at end of file
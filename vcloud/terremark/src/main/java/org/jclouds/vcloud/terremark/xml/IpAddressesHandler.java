@@ -36,7 +36,6 @@ import com.google.common.collect.Sets;
  * @author Adrian Cole
  */
 public class IpAddressesHandler extends ParseSax.HandlerWithResult<SortedSet<IpAddress>> {
-   protected StringBuilder currentText = new StringBuilder();
 
    @Resource
    protected Logger logger = Logger.NULL;
@@ -76,16 +75,7 @@ public class IpAddressesHandler extends ParseSax.HandlerWithResult<SortedSet<IpA
          status = null;
          server = null;
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
-   }
-
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
+      resetText();
    }
 
 }
@@ -33,7 +33,6 @@ public class KeyPairHandler extends HandlerWithResult<KeyPair> {
 
    @Resource
    protected Logger logger = Logger.NULL;
-   private StringBuilder currentText = new StringBuilder();
 
    private int id;
    private URI location;
@@ -42,11 +41,6 @@ public class KeyPairHandler extends HandlerWithResult<KeyPair> {
    private String privateKey;
    private String fingerPrint;
 
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
-   }
-
    @Override
    public KeyPair getResult() {
       return new KeyPair(id, location, name, isDefault, privateKey, fingerPrint);
@@ -66,11 +60,7 @@ public class KeyPairHandler extends HandlerWithResult<KeyPair> {
       } else if (qName.equals("FingerPrint")) {
          fingerPrint = currentOrNull();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 
 }
\ No newline at end of file
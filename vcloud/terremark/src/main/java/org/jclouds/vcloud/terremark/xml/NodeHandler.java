@@ -33,7 +33,6 @@ public class NodeHandler extends HandlerWithResult<Node> {
 
    @Resource
    protected Logger logger = Logger.NULL;
-   private StringBuilder currentText = new StringBuilder();
 
    private int id;
    private URI location;
@@ -43,11 +42,6 @@ public class NodeHandler extends HandlerWithResult<Node> {
    private String description;
    private boolean enabled;
 
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
-   }
-
    @Override
    public Node getResult() {
       return new Node(id, serviceName, location, address, port, enabled, description);
@@ -69,11 +63,7 @@ public class NodeHandler extends HandlerWithResult<Node> {
       } else if (qName.equals("Description")) {
          description = currentOrNull();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 
 }
\ No newline at end of file
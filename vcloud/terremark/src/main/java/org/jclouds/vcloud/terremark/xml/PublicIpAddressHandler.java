@@ -34,18 +34,11 @@ public class PublicIpAddressHandler extends HandlerWithResult<PublicIpAddress> {
    @Resource
    protected Logger logger = Logger.NULL;
 
-   private StringBuilder currentText = new StringBuilder();
-
    private int id;
    private String address;
 
    private URI location;
 
-   protected String currentOrNull() {
-      String returnVal = currentText.toString().trim();
-      return returnVal.equals("") ? null : returnVal;
-   }
-
    @Override
    public PublicIpAddress getResult() {
       return new PublicIpAddress(id, address, location);
@@ -59,11 +52,7 @@ public class PublicIpAddressHandler extends HandlerWithResult<PublicIpAddress> {
       } else if (qName.equals("Name")) {
          address = currentOrNull();
       }
-      currentText = new StringBuilder();
-   }
-
-   public void characters(char ch[], int start, int length) {
-      currentText.append(ch, start, length);
+      resetText();
    }
 
 }
\ No newline at end of file
@@ -19,11 +19,13 @@
 package org.jclouds.vcloud.terremark.config;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.sameThreadExecutor;
 import static org.easymock.classextension.EasyMock.createMock;
 import static org.testng.Assert.assertEquals;
 
 import java.io.IOException;
 
+import org.jclouds.concurrent.config.ExecutorServiceModule;
 import org.jclouds.http.TransformingHttpCommandExecutorService;
 import org.jclouds.rest.config.RestModule;
 import org.jclouds.util.Utils;
@@ -44,6 +46,7 @@ public class TerremarkVCloudRestClientModuleTest {
 
    protected Injector createInjector() {
       return Guice.createInjector(new TerremarkVCloudRestClientModule(), new RestModule(),
+               new ExecutorServiceModule(sameThreadExecutor(), sameThreadExecutor()),
                new AbstractModule() {
                   @Override
                   protected void configure() {